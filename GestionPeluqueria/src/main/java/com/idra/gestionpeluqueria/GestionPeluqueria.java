@@ -1,6 +1,10 @@
 package com.idra.gestionpeluqueria;
 
 import com.idra.gestionpeluqueria.config.DatabaseConfig;
+import com.idra.gestionpeluqueria.controller.TurnoController;
+import com.idra.gestionpeluqueria.local.ModoOffline;
+import com.idra.gestionpeluqueria.service.ColaEscrituraDiferida;
+import com.idra.gestionpeluqueria.service.EjecutorAsincrono;
 import com.idra.gestionpeluqueria.view.MainFrame;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
@@ -24,8 +28,11 @@ public class GestionPeluqueria {
         // Configurar el look and feel de la aplicación
         setupLookAndFeel();
         
-        // Probar la conexión a la base de datos
-        testDatabaseConnection();
+        // Probar la conexión a la base de datos en segundo plano, para que
+        // la ventana no espere a MySQL si todavía se está iniciando
+        Thread testConexion = new Thread(GestionPeluqueria::testDatabaseConnection, "test-conexion");
+        testConexion.setDaemon(true);
+        testConexion.start();
         
         // Iniciar la interfaz gráfica en el Event Dispatch Thread
         SwingUtilities.invokeLater(() -> {
@@ -62,6 +69,8 @@ public class GestionPeluqueria {
         
         if (connectionSuccess) {
             System.out.println("✅ Conexión a la base de datos establecida correctamente");
+            // Turnos y pagos registrados sin conexión en la ejecución anterior
+            TurnoController.sincronizarCambiosSinConexion();
         } else {
             System.err.println("❌ Error: No se pudo conectar a la base de datos");
             System.err.println("Por favor, verifica que:");
@@ -69,9 +78,9 @@ public class GestionPeluqueria {
             System.err.println("2. La base de datos 'peluqueria_db' exista");
             System.err.println("3. Las credenciales en DatabaseConfig.java sean correctas");
             
-            // Preguntar si desea continuar sin base de datos
-            System.out.println("\n¿Desea continuar en modo demo (sin base de datos)? (s/n)");
-            // En una aplicación real, aquí podrías mostrar un diálogo
+            // Continuar con los datos locales; se reintenta la conexión periódicamente
+            System.out.println("\nSe continúa en modo sin conexión: los turnos nuevos y los pagos se guardan localmente");
+            ModoOffline.getInstance().activar("no se pudo conectar al iniciar");
         }
         
         System.out.println("=================================================");
@@ -86,6 +95,9 @@ public class GestionPeluqueria {
             MainFrame mainFrame = new MainFrame();
             mainFrame.setVisible(true);
             
+            // Reemplazar los datos del snapshot local por los de la base de datos
+            mainFrame.reconciliarConBaseDeDatos();
+            
             System.out.println("Interfaz gráfica iniciada correctamente");
             
         } catch (Exception e) {
@@ -119,6 +131,9 @@ public class GestionPeluqueria {
      */
     public static void shutdown() {
         System.out.println("Cerrando aplicación...");
+        EjecutorAsincrono.getInstance().cerrar();
+        // Escribir los cambios diferidos; lo que falle queda guardado para el proximo inicio
+        ColaEscrituraDiferida.getInstance().cerrar();
         DatabaseConfig.getInstance().closeConnection();
         System.out.println("Aplicación cerrada correctamente");
         System.exit(0);
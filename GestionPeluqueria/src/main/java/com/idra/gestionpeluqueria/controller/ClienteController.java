@@ -1,83 +1,180 @@
-package com.idra.gestionpeluqueria.controller;
-
-import com.idra.gestionpeluqueria.model.Cliente;
-import com.idra.gestionpeluqueria.service.ClienteService;
-import com.idra.gestionpeluqueria.service.impl.ClienteServiceImpl;
-import com.idra.gestionpeluqueria.dao.impl.ClienteDAOImpl;
-import com.idra.gestionpeluqueria.exception.ServiceException;
-import java.util.List;
-
-public class ClienteController {
-    
-    private ClienteService clienteService;
-    
-    public ClienteController() {
-        this.clienteService = new ClienteServiceImpl(new ClienteDAOImpl());
-    }
-    
-    /**
-     * Crea un nuevo cliente en el sistema
-     * @param cliente El cliente a crear
-     * @throws ServiceException Si ocurre un error al crear el cliente
-     */
-    public void crearCliente(Cliente cliente) throws ServiceException {
-        clienteService.crearCliente(cliente);
-    }
-    
-    /**
-     * Busca un cliente por su ID
-     * @param id El ID del cliente a buscar
-     * @return El cliente encontrado o null si no existe
-     * @throws ServiceException Si ocurre un error al buscar el cliente
-     */
-    public Cliente buscarClientePorId(int id) throws ServiceException {
-        return clienteService.buscarClientePorId(id);
-    }
-    
-    /**
-     * Obtiene todos los clientes del sistema
-     * @return Lista de todos los clientes
-     * @throws ServiceException Si ocurre un error al obtener los clientes
-     */
-    public List<Cliente> obtenerTodosClientes() throws ServiceException {
-        return clienteService.buscarTodosClientes();
-    }
-    
-    /**
-     * Busca clientes por nombre o apellido
-     * @param nombre El nombre o apellido a buscar
-     * @return Lista de clientes que coinciden con la búsqueda
-     * @throws ServiceException Si ocurre un error al buscar los clientes
-     */
-    public List<Cliente> buscarClientesPorNombre(String nombre) throws ServiceException {
-        return clienteService.buscarClientesPorNombre(nombre);
-    }
-    
-    /**
-     * Actualiza la información de un cliente existente
-     * @param cliente El cliente con la información actualizada
-     * @throws ServiceException Si ocurre un error al actualizar el cliente
-     */
-    public void actualizarCliente(Cliente cliente) throws ServiceException {
-        clienteService.actualizarCliente(cliente);
-    }
-    
-    /**
-     * Elimina un cliente del sistema
-     * @param id El ID del cliente a eliminar
-     * @throws ServiceException Si ocurre un error al eliminar el cliente
-     */
-    public void eliminarCliente(int id) throws ServiceException {
-        clienteService.eliminarCliente(id);
-    }
-    
-    /**
-     * Valida si los datos del cliente son correctos
-     * @param cliente El cliente a validar
-     * @return true si los datos son válidos, false en caso contrario
-     * @throws ServiceException Si ocurre un error durante la validación
-     */
-    public boolean validarCliente(Cliente cliente) throws ServiceException {
-        return clienteService.validarCliente(cliente);
-    }
+package com.idra.gestionpeluqueria.controller;
+
+import com.idra.gestionpeluqueria.model.Cliente;
+import com.idra.gestionpeluqueria.model.MetricasCliente;
+import com.idra.gestionpeluqueria.service.ClienteService;
+import com.idra.gestionpeluqueria.service.ColaEscrituraDiferida;
+import com.idra.gestionpeluqueria.service.impl.ClienteServiceImpl;
+import com.idra.gestionpeluqueria.dao.impl.ClienteDAOImpl;
+import com.idra.gestionpeluqueria.dao.impl.MetricasClienteDAOImpl;
+import com.idra.gestionpeluqueria.dao.cache.CachingClienteDAO;
+import com.idra.gestionpeluqueria.dao.cache.EstadisticasCache;
+import com.idra.gestionpeluqueria.dao.offline.OfflineClienteDAO;
+import com.idra.gestionpeluqueria.dao.offline.OfflineMetricasClienteDAO;
+import com.idra.gestionpeluqueria.local.ModoOffline;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.Map;
+
+public class ClienteController {
+    
+    // Compartido entre todas las instancias para que la cache sea util
+    private static final CachingClienteDAO CLIENTE_DAO =
+        new CachingClienteDAO(new OfflineClienteDAO(new ClienteDAOImpl()), CachingClienteDAO.politicaPorDefecto());
+    private static final OfflineMetricasClienteDAO METRICAS_DAO =
+        new OfflineMetricasClienteDAO(new MetricasClienteDAOImpl());
+    
+    static {
+        ColaEscrituraDiferida.getInstance().registrar(
+            ColaEscrituraDiferida.TipoEscritura.EMAIL_CLIENTE, CLIENTE_DAO::actualizarEmailEnLote);
+        ModoOffline.getInstance().agregarOyente(sinConexion -> CLIENTE_DAO.limpiar());
+    }
+    
+    private ClienteService clienteService;
+    
+    public ClienteController() {
+        this.clienteService = new ClienteServiceImpl(CLIENTE_DAO, METRICAS_DAO);
+    }
+    
+    /**
+     * Crea un nuevo cliente en el sistema
+     * @param cliente El cliente a crear
+     * @throws ServiceException Si ocurre un error al crear el cliente
+     */
+    public void crearCliente(Cliente cliente) throws ServiceException {
+        clienteService.crearCliente(cliente);
+    }
+    
+    /**
+     * Busca un cliente por su ID
+     * @param id El ID del cliente a buscar
+     * @return El cliente encontrado o null si no existe
+     * @throws ServiceException Si ocurre un error al buscar el cliente
+     */
+    public Cliente buscarClientePorId(int id) throws ServiceException {
+        return clienteService.buscarClientePorId(id);
+    }
+    
+    /**
+     * Obtiene todos los clientes del sistema
+     * @return Lista de todos los clientes
+     * @throws ServiceException Si ocurre un error al obtener los clientes
+     */
+    public List<Cliente> obtenerTodosClientes() throws ServiceException {
+        return clienteService.buscarTodosClientes();
+    }
+    
+    /**
+     * Busca clientes por nombre o apellido
+     * @param nombre El nombre o apellido a buscar
+     * @return Lista de clientes que coinciden con la búsqueda
+     * @throws ServiceException Si ocurre un error al buscar los clientes
+     */
+    public List<Cliente> buscarClientesPorNombre(String nombre) throws ServiceException {
+        return clienteService.buscarClientesPorNombre(nombre);
+    }
+    
+    /**
+     * Actualiza la información de un cliente existente
+     * @param cliente El cliente con la información actualizada
+     * @throws ServiceException Si ocurre un error al actualizar el cliente
+     */
+    public void actualizarCliente(Cliente cliente) throws ServiceException {
+        clienteService.actualizarCliente(cliente);
+    }
+    
+    /**
+     * Elimina un cliente del sistema
+     * @param id El ID del cliente a eliminar
+     * @throws ServiceException Si ocurre un error al eliminar el cliente
+     */
+    public void eliminarCliente(int id) throws ServiceException {
+        clienteService.eliminarCliente(id);
+    }
+    
+    /**
+     * Valida si los datos del cliente son correctos
+     * @param cliente El cliente a validar
+     * @return true si los datos son válidos, false en caso contrario
+     * @throws ServiceException Si ocurre un error durante la validación
+     */
+    public boolean validarCliente(Cliente cliente) throws ServiceException {
+        return clienteService.validarCliente(cliente);
+    }
+    
+    /**
+     * Obtiene todos los clientes sin bloquear el hilo que llama
+     * @return Futuro con la lista de todos los clientes
+     */
+    public CompletableFuture<List<Cliente>> obtenerTodosClientesAsync() {
+        return clienteService.buscarTodosClientesAsync();
+    }
+    
+    /**
+     * Busca clientes por nombre o apellido sin bloquear el hilo que llama
+     * @param nombre El nombre o apellido a buscar
+     * @return Futuro con los clientes que coinciden con la búsqueda
+     */
+    public CompletableFuture<List<Cliente>> buscarClientesPorNombreAsync(String nombre) {
+        return clienteService.buscarClientesPorNombreAsync(nombre);
+    }
+    
+    /**
+     * Obtiene la tasa de aciertos de la cache de clientes por metodo
+     * @return Mapa de nombre de metodo a sus estadisticas de cache
+     */
+    public static Map<String, EstadisticasCache> obtenerEstadisticasCache() {
+        return CLIENTE_DAO.getEstadisticas();
+    }
+    
+    /**
+     * Cambia el email de un cliente; la escritura en la base de datos se hace en segundo plano
+     * @param clienteId El ID del cliente
+     * @param email El email nuevo
+     * @throws ServiceException Si el email no es válido
+     */
+    public void actualizarEmailDiferido(int clienteId, String email) throws ServiceException {
+        clienteService.actualizarEmailDiferido(clienteId, email);
+    }
+    
+    /**
+     * Obtiene las visitas y lo gastado por un cliente
+     * @param clienteId El ID del cliente
+     * @return Sus metricas, o null si todavia no tiene turnos completados
+     * @throws ServiceException Si ocurre un error al consultar
+     */
+    public MetricasCliente obtenerMetricas(int clienteId) throws ServiceException {
+        return clienteService.obtenerMetricas(clienteId);
+    }
+    
+    /**
+     * Obtiene los clientes que mas gastaron
+     * @param limite Cantidad maxima de clientes
+     * @return Los clientes de mayor a menor total pagado
+     * @throws ServiceException Si ocurre un error al consultar
+     */
+    public List<MetricasCliente> obtenerMejoresClientes(int limite) throws ServiceException {
+        return clienteService.obtenerMejoresClientes(limite);
+    }
+    
+    /**
+     * Obtiene los clientes que no vienen hace un tiempo
+     * @param diasSinVenir Dias desde la ultima visita
+     * @param limite Cantidad maxima de clientes
+     * @return Los clientes de la ausencia mas reciente a la mas antigua
+     * @throws ServiceException Si ocurre un error al consultar
+     */
+    public List<MetricasCliente> obtenerClientesAusentes(int diasSinVenir, int limite) throws ServiceException {
+        return clienteService.obtenerClientesAusentes(diasSinVenir, limite);
+    }
+    
+    /**
+     * Vuelve a calcular las metricas de todos los clientes
+     * @return Cantidad de clientes con metricas
+     * @throws ServiceException Si ocurre un error al reconstruir
+     */
+    public int reconstruirMetricas() throws ServiceException {
+        return clienteService.reconstruirMetricas();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.idra.gestionpeluqueria.controller;
+
+import com.idra.gestionpeluqueria.dao.impl.ListaEsperaDAOImpl;
+import com.idra.gestionpeluqueria.event.BusEventos;
+import com.idra.gestionpeluqueria.event.TurnoCancelado;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import com.idra.gestionpeluqueria.local.ModoOffline;
+import com.idra.gestionpeluqueria.model.SolicitudEspera;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.service.ColaCancelaciones;
+import com.idra.gestionpeluqueria.service.EmparejadorEspera;
+import com.idra.gestionpeluqueria.service.ListaEsperaService;
+import com.idra.gestionpeluqueria.service.impl.ListaEsperaServiceImpl;
+import java.util.List;
+
+/**
+ * Controlador para la lista de espera.
+ * Ademas de delegar en el ListaEsperaService, escucha las cancelaciones de
+ * turnos para ofrecer los horarios liberados.
+ *
+ * @author Idra
+ */
+public class ListaEsperaController {
+
+    private static final ListaEsperaDAOImpl LISTA_ESPERA_DAO = new ListaEsperaDAOImpl();
+    private static final EmparejadorEspera EMPAREJADOR = new EmparejadorEspera(LISTA_ESPERA_DAO);
+    private static final ColaCancelaciones CANCELACIONES =
+        new ColaCancelaciones(cancelados -> nuevoServicio().procesarCancelaciones(cancelados));
+
+    static {
+        BusEventos.getInstance().suscribir(TurnoCancelado.class, evento -> CANCELACIONES.encolar(evento.getTurno()));
+        // La lista de espera no funciona sin conexion: lo cancelado mientras tanto se ofrece al volver
+        ModoOffline.getInstance().agregarTareaReconexion(CANCELACIONES::drenar);
+    }
+
+    private ListaEsperaService listaEsperaService;
+
+    /**
+     * Constructor que inicializa el controlador con sus dependencias.
+     */
+    public ListaEsperaController() {
+        this.listaEsperaService = nuevoServicio();
+    }
+
+    /**
+     * Se llama al iniciar la aplicacion para que las cancelaciones se
+     * escuchen aunque no se haya abierto la lista de espera.
+     */
+    public static void inicializar() {
+        // La suscripcion se hace al cargar la clase
+    }
+
+    private static ListaEsperaService nuevoServicio() {
+        return new ListaEsperaServiceImpl(LISTA_ESPERA_DAO, EMPAREJADOR, TurnoController.nuevoServicio());
+    }
+
+    /**
+     * Anota una solicitud en la lista de espera.
+     *
+     * @param solicitud La solicitud a anotar
+     * @throws ServiceException Si los datos no son validos o falla el guardado
+     */
+    public void registrarSolicitud(SolicitudEspera solicitud) throws ServiceException {
+        listaEsperaService.registrarSolicitud(solicitud);
+    }
+
+    /**
+     * Obtiene las solicitudes que siguen esperando o tienen una oferta.
+     *
+     * @return Lista de solicitudes vigentes
+     * @throws ServiceException Si ocurre un error al buscar
+     */
+    public List<SolicitudEspera> obtenerSolicitudesVigentes() throws ServiceException {
+        return listaEsperaService.buscarSolicitudesVigentes();
+    }
+
+    /**
+     * Reserva el horario ofrecido a una solicitud.
+     *
+     * @param solicitudId ID de la solicitud
+     * @return El turno creado
+     * @throws ServiceException Si no hay oferta o el horario ya no esta libre
+     */
+    public Turno aceptarOferta(int solicitudId) throws ServiceException {
+        return listaEsperaService.aceptarOferta(solicitudId);
+    }
+
+    /**
+     * Rechaza el horario ofrecido; pasa al siguiente cliente en espera.
+     *
+     * @param solicitudId ID de la solicitud
+     * @throws ServiceException Si no hay oferta o falla el guardado
+     */
+    public void rechazarOferta(int solicitudId) throws ServiceException {
+        listaEsperaService.rechazarOferta(solicitudId);
+    }
+
+    /**
+     * Saca una solicitud de la lista de espera.
+     *
+     * @param solicitudId ID de la solicitud
+     * @throws ServiceException Si ocurre un error al guardar
+     */
+    public void quitarSolicitud(int solicitudId) throws ServiceException {
+        listaEsperaService.quitarSolicitud(solicitudId);
+    }
+}
@@ -0,0 +1,100 @@
+package com.idra.gestionpeluqueria.controller;
+
+import com.idra.gestionpeluqueria.dao.impl.ProfesionalDAOImpl;
+import com.idra.gestionpeluqueria.dao.offline.OfflineProfesionalDAO;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import com.idra.gestionpeluqueria.model.Profesional;
+import com.idra.gestionpeluqueria.service.ProfesionalService;
+import com.idra.gestionpeluqueria.service.impl.ProfesionalServiceImpl;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controlador para la gestion de los profesionales de la peluqueria.
+ * Delega las operaciones en el ProfesionalService.
+ *
+ * @author Idra
+ */
+public class ProfesionalController {
+
+    // Compartido con TurnoController, que arma el motor de disponibilidad con el
+    static final OfflineProfesionalDAO PROFESIONAL_DAO = new OfflineProfesionalDAO(new ProfesionalDAOImpl());
+
+    private ProfesionalService profesionalService;
+
+    /**
+     * Constructor que inicializa el controlador con sus dependencias.
+     */
+    public ProfesionalController() {
+        this.profesionalService = new ProfesionalServiceImpl(PROFESIONAL_DAO);
+    }
+
+    /**
+     * Crea un nuevo profesional.
+     *
+     * @param profesional El profesional a crear
+     * @throws ServiceException Si ocurre un error al crear el profesional
+     */
+    public void crearProfesional(Profesional profesional) throws ServiceException {
+        profesionalService.crearProfesional(profesional);
+    }
+
+    /**
+     * Busca un profesional por su identificador unico.
+     *
+     * @param id El ID del profesional
+     * @return El profesional encontrado o null si no existe
+     * @throws ServiceException Si ocurre un error al buscar
+     */
+    public Profesional buscarProfesionalPorId(int id) throws ServiceException {
+        return profesionalService.buscarProfesionalPorId(id);
+    }
+
+    /**
+     * Obtiene todos los profesionales registrados.
+     *
+     * @return Lista de profesionales
+     * @throws ServiceException Si ocurre un error al buscar
+     */
+    public List<Profesional> obtenerTodosProfesionales() throws ServiceException {
+        return profesionalService.buscarTodosProfesionales();
+    }
+
+    /**
+     * Obtiene los profesionales activos.
+     *
+     * @return Lista de profesionales activos
+     * @throws ServiceException Si ocurre un error al buscar
+     */
+    public List<Profesional> obtenerProfesionalesActivos() throws ServiceException {
+        return profesionalService.buscarProfesionalesActivos();
+    }
+
+    /**
+     * Actualiza los datos de un profesional.
+     *
+     * @param profesional El profesional con los datos nuevos
+     * @throws ServiceException Si ocurre un error al actualizar
+     */
+    public void actualizarProfesional(Profesional profesional) throws ServiceException {
+        profesionalService.actualizarProfesional(profesional);
+    }
+
+    /**
+     * Elimina un profesional.
+     *
+     * @param id El ID del profesional
+     * @throws ServiceException Si ocurre un error al eliminar
+     */
+    public void eliminarProfesional(int id) throws ServiceException {
+        profesionalService.eliminarProfesional(id);
+    }
+
+    /**
+     * Obtiene todos los profesionales sin bloquear el hilo que llama
+     * @return Futuro con la lista de profesionales
+     */
+    public CompletableFuture<List<Profesional>> obtenerTodosProfesionalesAsync() {
+        return profesionalService.buscarTodosProfesionalesAsync();
+    }
+}
@@ -0,0 +1,156 @@
+package com.idra.gestionpeluqueria.controller;
+
+import com.idra.gestionpeluqueria.dao.cache.CachingReporteDAO;
+import com.idra.gestionpeluqueria.dao.cache.EstadisticasCache;
+import com.idra.gestionpeluqueria.dao.impl.OcupacionDAOImpl;
+import com.idra.gestionpeluqueria.dao.impl.ReporteDAOImpl;
+import com.idra.gestionpeluqueria.dao.offline.OfflineOcupacionDAO;
+import com.idra.gestionpeluqueria.dao.offline.OfflineReporteDAO;
+import com.idra.gestionpeluqueria.event.BusEventos;
+import com.idra.gestionpeluqueria.event.ClienteActualizado;
+import com.idra.gestionpeluqueria.event.ClienteEliminado;
+import com.idra.gestionpeluqueria.event.EventoTurno;
+import com.idra.gestionpeluqueria.event.ServicioActualizado;
+import com.idra.gestionpeluqueria.event.ServicioEliminado;
+import com.idra.gestionpeluqueria.local.ModoOffline;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import com.idra.gestionpeluqueria.model.DefinicionReporte;
+import com.idra.gestionpeluqueria.model.FilaReporte;
+import com.idra.gestionpeluqueria.model.MapaOcupacion;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.service.AlmacenColumnar;
+import com.idra.gestionpeluqueria.service.EjecutorReportes;
+import com.idra.gestionpeluqueria.service.ReporteService;
+import com.idra.gestionpeluqueria.service.TotalesPeriodo;
+import com.idra.gestionpeluqueria.service.impl.ReporteServiceImpl;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controlador para los reportes de turnos e ingresos.
+ * Delega en el ReporteService y mantiene la cache de periodos cerrados y
+ * el almacen de turnos en memoria.
+ *
+ * @author Idra
+ */
+public class ReporteController {
+
+    // Compartido entre todas las instancias para que la cache sea util
+    private static final CachingReporteDAO REPORTE_DAO = new CachingReporteDAO(
+        new OfflineReporteDAO(new ReporteDAOImpl()), CachingReporteDAO.politicaPorDefecto());
+    private static final EjecutorReportes EJECUTOR = new EjecutorReportes(REPORTE_DAO);
+    // Se carga sin pasar por la cache de turnos, que no necesita guardar todo el historial
+    private static final AlmacenColumnar ALMACEN = new AlmacenColumnar(TurnoController.TURNO_DAO_OFFLINE);
+    private static final OfflineOcupacionDAO OCUPACION_DAO = new OfflineOcupacionDAO(new OcupacionDAOImpl());
+
+    static {
+        BusEventos bus = BusEventos.getInstance();
+        // Un cambio en un mes pasado invalida sus reportes; lo del mes en curso no se cachea
+        bus.suscribir(EventoTurno.class, evento -> {
+            if (evento.getTurno().getFechaHora().toLocalDate().isBefore(LocalDate.now().withDayOfMonth(1))) {
+                REPORTE_DAO.limpiar();
+            }
+        });
+        // Los reportes guardan nombres de clientes y agrupan por tipo de servicio
+        bus.suscribir(ClienteActualizado.class, evento -> REPORTE_DAO.limpiar());
+        bus.suscribir(ClienteEliminado.class, evento -> REPORTE_DAO.limpiar());
+        bus.suscribir(ServicioActualizado.class, evento -> REPORTE_DAO.limpiar());
+        bus.suscribir(ServicioEliminado.class, evento -> REPORTE_DAO.limpiar());
+        // Suscripcion sincronica: los totales quedan al dia antes de que la interfaz se entere
+        bus.suscribir(EventoTurno.class, evento -> ALMACEN.registrar(evento.getTurno()));
+        bus.suscribir(ClienteEliminado.class, evento -> ALMACEN.quitarCliente(evento.getClienteId()));
+        bus.suscribir(ServicioEliminado.class, evento -> ALMACEN.quitarServicio(evento.getServicioId()));
+        bus.suscribir(ServicioActualizado.class, evento -> ALMACEN.actualizarServicio(evento.getServicio()));
+        // Sin conexion se carga el snapshot local; al volver, lo hecho desde otras terminales
+        ModoOffline.getInstance().agregarOyente(sinConexion -> ALMACEN.limpiar());
+    }
+
+    private ReporteService reporteService;
+
+    /**
+     * Constructor que inicializa el controlador con sus dependencias.
+     */
+    public ReporteController() {
+        this.reporteService = new ReporteServiceImpl(REPORTE_DAO, EJECUTOR, ALMACEN, OCUPACION_DAO);
+    }
+
+    /**
+     * Genera un reporte agrupando los turnos de un periodo
+     * @param definicion Agrupacion y periodo del reporte
+     * @return Las filas del reporte
+     * @throws ServiceException Si la definicion no es valida o falla la consulta
+     */
+    public List<FilaReporte> generarReporte(DefinicionReporte definicion) throws ServiceException {
+        return reporteService.generar(definicion);
+    }
+
+    /**
+     * Genera un reporte en segundo plano; los periodos de varios meses se
+     * consultan en paralelo
+     * @param definicion Agrupacion y periodo del reporte
+     * @return Futuro con las filas del reporte; cancelarlo detiene la generacion
+     */
+    public CompletableFuture<List<FilaReporte>> generarReporteAsync(DefinicionReporte definicion) {
+        return reporteService.generarAsync(definicion);
+    }
+
+    /**
+     * Calcula los totales de los turnos de un periodo
+     * @param desde Primer dia del periodo
+     * @param hasta Ultimo dia del periodo, incluido
+     * @return Los totales del periodo
+     * @throws ServiceException Si el periodo no es valido o no se pueden cargar los turnos
+     */
+    public TotalesPeriodo calcularTotales(LocalDate desde, LocalDate hasta) throws ServiceException {
+        return reporteService.calcularTotales(desde, hasta);
+    }
+
+    /**
+     * Calcula los totales de un periodo solo si los turnos ya estan en
+     * memoria; se puede llamar desde el hilo de la interfaz
+     * @param desde Primer dia del periodo
+     * @param hasta Ultimo dia del periodo, incluido
+     * @return Los totales del periodo, o null si todavia no se cargaron los turnos
+     */
+    public TotalesPeriodo calcularTotalesEnMemoria(LocalDate desde, LocalDate hasta) {
+        return reporteService.calcularTotalesEnMemoria(desde, hasta);
+    }
+
+    /**
+     * Aplica al almacen en memoria turnos modificados desde otras terminales,
+     * que no pasan por el bus de eventos de esta
+     * @param turnos Los turnos tal como estan guardados
+     */
+    public void registrarCambiosTurnos(List<Turno> turnos) {
+        turnos.forEach(ALMACEN::registrar);
+    }
+
+    /**
+     * Calcula la ocupacion por dia de la semana, hora y tipo de servicio
+     * @param semanas Cantidad de semanas hacia atras, hasta hoy
+     * @return El mapa de ocupacion del periodo
+     * @throws ServiceException Si la cantidad de semanas no es valida o falla la consulta
+     */
+    public MapaOcupacion calcularOcupacion(int semanas) throws ServiceException {
+        return reporteService.calcularOcupacion(semanas);
+    }
+
+    /**
+     * Vuelve a calcular la ocupacion por hora a partir de los turnos
+     * @return Cantidad de filas de ocupacion
+     * @throws ServiceException Si ocurre un error al reconstruir
+     */
+    public int reconstruirOcupacion() throws ServiceException {
+        return reporteService.reconstruirOcupacion();
+    }
+
+    /**
+     * Obtiene las estadisticas de la cache de reportes
+     * @return Estadisticas por metodo cacheado
+     */
+    public static Map<String, EstadisticasCache> obtenerEstadisticasCache() {
+        return REPORTE_DAO.getEstadisticas();
+    }
+}
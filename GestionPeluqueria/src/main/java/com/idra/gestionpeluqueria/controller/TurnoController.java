@@ -1,129 +1,396 @@
-package com.idra.gestionpeluqueria.controller;
-
-import com.idra.gestionpeluqueria.model.Turno;
-import com.idra.gestionpeluqueria.service.TurnoService;
-import com.idra.gestionpeluqueria.service.impl.TurnoServiceImpl;
-import com.idra.gestionpeluqueria.dao.impl.TurnoDAOImpl;
-import com.idra.gestionpeluqueria.exception.ServiceException;
-import java.time.LocalDate;
-import java.util.List;
-
-/**
- * Controlador para la gestion de turnos de peluqueria.
- * Actua como intermediario entre la capa de presentacion y la capa de servicio,
- * coordinando las operaciones de creacion, consulta, actualizacion y gestion de turnos.
- * 
- * @author Idra
- */
-public class TurnoController {
-    
-    private TurnoService turnoService;
-    
-    public TurnoController() {
-        this.turnoService = new TurnoServiceImpl(new TurnoDAOImpl());
-    }
-    
-    /**
-     * Crea un nuevo turno en el sistema
-     * @param turno El turno a crear
-     * @throws ServiceException Si ocurre un error al crear el turno
-     */
-    public void crearTurno(Turno turno) throws ServiceException {
-        turnoService.crearTurno(turno);
-    }
-    
-    /**
-     * Busca un turno por su ID
-     * @param id El ID del turno a buscar
-     * @return El turno encontrado o null si no existe
-     * @throws ServiceException Si ocurre un error al buscar el turno
-     */
-    public Turno buscarTurnoPorId(int id) throws ServiceException {
-        return turnoService.buscarTurnoPorId(id);
-    }
-    
-    /**
-     * Obtiene todos los turnos del sistema
-     * @return Lista de todos los turnos
-     * @throws ServiceException Si ocurre un error al obtener los turnos
-     */
-    public List<Turno> obtenerTodosTurnos() throws ServiceException {
-        return turnoService.buscarTodosTurnos();
-    }
-    
-    /**
-     * Busca turnos por fecha específica
-     * @param fecha La fecha para buscar turnos
-     * @return Lista de turnos en la fecha especificada
-     * @throws ServiceException Si ocurre un error al buscar los turnos
-     */
-    public List<Turno> buscarTurnosPorFecha(LocalDate fecha) throws ServiceException {
-        return turnoService.buscarTurnosPorFecha(fecha);
-    }
-    
-    /**
-     * Busca turnos por cliente
-     * @param clienteId El ID del cliente
-     * @return Lista de turnos del cliente
-     * @throws ServiceException Si ocurre un error al buscar los turnos
-     */
-    public List<Turno> buscarTurnosPorCliente(int clienteId) throws ServiceException {
-        return turnoService.buscarTurnosPorCliente(clienteId);
-    }
-    
-    /**
-     * Busca turnos por estado
-     * @param estado El estado del turno a buscar
-     * @return Lista de turnos con el estado especificado
-     * @throws ServiceException Si ocurre un error al buscar los turnos
-     */
-    public List<Turno> buscarTurnosPorEstado(String estado) throws ServiceException {
-        return turnoService.buscarTurnosPorEstado(estado);
-    }
-    
-    /**
-     * Actualiza la información de un turno existente
-     * @param turno El turno con la información actualizada
-     * @throws ServiceException Si ocurre un error al actualizar el turno
-     */
-    public void actualizarTurno(Turno turno) throws ServiceException {
-        turnoService.actualizarTurno(turno);
-    }
-    
-    /**
-     * Cancela un turno existente
-     * @param id El ID del turno a cancelar
-     * @throws ServiceException Si ocurre un error al cancelar el turno
-     */
-    public void cancelarTurno(int id) throws ServiceException {
-        turnoService.cancelarTurno(id);
-    }
-    
-    /**
-     * Marca un turno como completado
-     * @param id El ID del turno a completar
-     * @throws ServiceException Si ocurre un error al completar el turno
-     */
-    public void completarTurno(int id) throws ServiceException {
-        turnoService.completarTurno(id);
-    }
-    
-    /**
-     * Valida la disponibilidad de un turno
-     * @param turno El turno a validar
-     * @return true si hay disponibilidad, false en caso contrario
-     * @throws ServiceException Si ocurre un error durante la validación
-     */
-    public boolean validarDisponibilidad(Turno turno) throws ServiceException {
-        return turnoService.validarDisponibilidad(turno);
-    }
-    
-    /**
-     * Calcula el total pagado en el día actual
-     * @return El monto total pagado hoy
-     * @throws ServiceException Si ocurre un error al calcular el total
-     */
-    public double calcularTotalPagadoHoy() throws ServiceException {
-        return turnoService.calcularTotalPagadoHoy();
-    }
+package com.idra.gestionpeluqueria.controller;
+
+import com.idra.gestionpeluqueria.model.CambiosTurnos;
+import com.idra.gestionpeluqueria.model.Profesional;
+import com.idra.gestionpeluqueria.model.ReglaRecurrencia;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.service.ColaEscrituraDiferida;
+import com.idra.gestionpeluqueria.service.GestorBloqueosFranja;
+import com.idra.gestionpeluqueria.service.MotorDisponibilidad;
+import com.idra.gestionpeluqueria.service.PropuestaCompactacion;
+import com.idra.gestionpeluqueria.service.ResultadoSerie;
+import com.idra.gestionpeluqueria.service.TurnoService;
+import com.idra.gestionpeluqueria.service.impl.TurnoServiceImpl;
+import com.idra.gestionpeluqueria.dao.impl.ResumenDiarioDAOImpl;
+import com.idra.gestionpeluqueria.dao.impl.TurnoDAOImpl;
+import com.idra.gestionpeluqueria.dao.cache.CachingTurnoDAO;
+import com.idra.gestionpeluqueria.dao.cache.EstadisticasCache;
+import com.idra.gestionpeluqueria.dao.offline.OfflineResumenDiarioDAO;
+import com.idra.gestionpeluqueria.dao.offline.OfflineTurnoDAO;
+import com.idra.gestionpeluqueria.event.BusEventos;
+import com.idra.gestionpeluqueria.event.ClienteActualizado;
+import com.idra.gestionpeluqueria.event.ClienteEliminado;
+import com.idra.gestionpeluqueria.event.EventoTurno;
+import com.idra.gestionpeluqueria.event.ProfesionalModificado;
+import com.idra.gestionpeluqueria.event.ServicioActualizado;
+import com.idra.gestionpeluqueria.event.ServicioEliminado;
+import com.idra.gestionpeluqueria.local.ModoOffline;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Controlador para la gestion de turnos de peluqueria.
+ * Actua como intermediario entre la capa de presentacion y la capa de servicio,
+ * coordinando las operaciones de creacion, consulta, actualizacion y gestion de turnos.
+ * 
+ * @author Idra
+ */
+public class TurnoController {
+    
+    // Compartido entre todas las instancias para que la cache sea util
+    static final OfflineTurnoDAO TURNO_DAO_OFFLINE = new OfflineTurnoDAO(new TurnoDAOImpl());
+    private static final CachingTurnoDAO TURNO_DAO =
+        new CachingTurnoDAO(TURNO_DAO_OFFLINE, CachingTurnoDAO.politicaPorDefecto());
+    private static final OfflineResumenDiarioDAO RESUMEN_DIARIO_DAO =
+        new OfflineResumenDiarioDAO(new ResumenDiarioDAOImpl());
+    private static final MotorDisponibilidad MOTOR =
+        new MotorDisponibilidad(TURNO_DAO, ProfesionalController.PROFESIONAL_DAO);
+    
+    static {
+        // Las notas cambiadas en diferido se escriben por el mismo DAO, asi se invalida su cache;
+        // el DAO comprueba la version de cada turno
+        ColaEscrituraDiferida.getInstance().registrar(
+            ColaEscrituraDiferida.TipoEscritura.NOTAS_TURNO, TURNO_DAO::actualizarNotasEnLote);
+        // Al reconectar se aplica el diario; lo cacheado en cada modo no sirve en el otro
+        ModoOffline.getInstance().agregarTareaReconexion(TURNO_DAO_OFFLINE::reproducirDiario);
+        ModoOffline.getInstance().agregarOyente(sinConexion -> {
+            TURNO_DAO.limpiar();
+            MOTOR.limpiar();
+        });
+        // Los turnos cacheados incluyen el nombre del cliente y los datos del servicio
+        BusEventos bus = BusEventos.getInstance();
+        bus.suscribir(ClienteActualizado.class, evento -> TURNO_DAO.limpiar());
+        bus.suscribir(ClienteEliminado.class, evento -> TURNO_DAO.limpiar());
+        bus.suscribir(ServicioActualizado.class, evento -> TURNO_DAO.limpiar());
+        bus.suscribir(ServicioEliminado.class, evento -> TURNO_DAO.limpiar());
+        // El servicio ya registra en el motor sus escrituras bajo el lock de la franja;
+        // la suscripcion cubre los demas cambios publicados, como los pagos
+        bus.suscribir(EventoTurno.class, evento -> MOTOR.registrar(evento.getTurno()));
+        bus.suscribir(ProfesionalModificado.class, evento -> MOTOR.invalidarPlantel());
+        // Cambiar la duracion de un servicio cambia lo que ocupa cada turno en la agenda
+        bus.suscribir(ServicioActualizado.class, evento -> MOTOR.limpiar());
+    }
+    
+    private TurnoService turnoService;
+    
+    public TurnoController() {
+        this.turnoService = nuevoServicio();
+    }
+    
+    /**
+     * Arma un servicio de turnos sobre los DAOs compartidos; lo usan otros
+     * controladores que reservan turnos.
+     * @return Un servicio de turnos nuevo
+     */
+    static TurnoService nuevoServicio() {
+        return new TurnoServiceImpl(TURNO_DAO, ServicioController.SERVICIO_DAO, RESUMEN_DIARIO_DAO, MOTOR);
+    }
+    
+    /**
+     * Crea un nuevo turno en el sistema
+     * @param turno El turno a crear
+     * @throws ServiceException Si ocurre un error al crear el turno
+     */
+    public void crearTurno(Turno turno) throws ServiceException {
+        turnoService.crearTurno(turno);
+    }
+    
+    /**
+     * Crea una serie de turnos que se repite cada N semanas
+     * @param plantilla El primer turno de la serie
+     * @param regla Cada cuantas semanas se repite y hasta cuando
+     * @return Los turnos creados y las fechas que se saltearon
+     * @throws ServiceException Si la regla no es valida o falla el guardado
+     */
+    public ResultadoSerie crearSerie(Turno plantilla, ReglaRecurrencia regla) throws ServiceException {
+        return turnoService.crearSerie(plantilla, regla);
+    }
+    
+    /**
+     * Busca un turno por su ID
+     * @param id El ID del turno a buscar
+     * @return El turno encontrado o null si no existe
+     * @throws ServiceException Si ocurre un error al buscar el turno
+     */
+    public Turno buscarTurnoPorId(int id) throws ServiceException {
+        return turnoService.buscarTurnoPorId(id);
+    }
+    
+    /**
+     * Obtiene todos los turnos del sistema
+     * @return Lista de todos los turnos
+     * @throws ServiceException Si ocurre un error al obtener los turnos
+     */
+    public List<Turno> obtenerTodosTurnos() throws ServiceException {
+        return turnoService.buscarTodosTurnos();
+    }
+    
+    /**
+     * Cuenta todos los turnos del sistema
+     * @return Cantidad de turnos
+     * @throws ServiceException Si ocurre un error al contar los turnos
+     */
+    public int contarTurnos() throws ServiceException {
+        return turnoService.contarTurnos();
+    }
+    
+    /**
+     * Busca una pagina del historial de turnos, de los mas recientes a los mas viejos
+     * @param fechaHora Fecha y hora del ultimo turno leido, o null para empezar por el mas reciente
+     * @param id ID de ese turno
+     * @param saltear Cantidad de turnos a saltear antes de la pagina
+     * @param cantidad Tamaño de la pagina
+     * @return Los turnos de la pagina
+     * @throws ServiceException Si ocurre un error al buscar los turnos
+     */
+    public List<Turno> buscarPaginaTurnos(LocalDateTime fechaHora, int id, int saltear, int cantidad) throws ServiceException {
+        return turnoService.buscarPaginaTurnos(fechaHora, id, saltear, cantidad);
+    }
+    
+    /**
+     * Busca un turno de cada tantos del historial, para ubicar las paginas lejanas
+     * @param cada Cada cuantos turnos se toma uno
+     * @return Los turnos en las posiciones cada, 2 * cada..., solo con su ID y su fecha y hora
+     * @throws ServiceException Si ocurre un error al buscar los turnos
+     */
+    public List<Turno> buscarAnclasTurnos(int cada) throws ServiceException {
+        return turnoService.buscarAnclasTurnos(cada);
+    }
+    
+    /**
+     * Busca turnos por fecha específica
+     * @param fecha La fecha para buscar turnos
+     * @return Lista de turnos en la fecha especificada
+     * @throws ServiceException Si ocurre un error al buscar los turnos
+     */
+    public List<Turno> buscarTurnosPorFecha(LocalDate fecha) throws ServiceException {
+        return turnoService.buscarTurnosPorFecha(fecha);
+    }
+    
+    /**
+     * Busca los turnos de una fecha que cambiaron desde la consulta anterior
+     * @param fecha La fecha de los turnos
+     * @param desde Marca de la consulta anterior, o null para traer todo el dia
+     * @return Los turnos cambiados y la marca para la consulta siguiente
+     * @throws ServiceException Si ocurre un error al buscar los turnos
+     */
+    public CambiosTurnos buscarCambiosDelDia(LocalDate fecha, LocalDateTime desde) throws ServiceException {
+        return turnoService.buscarCambiosDelDia(fecha, desde);
+    }
+    
+    /**
+     * Busca turnos por cliente
+     * @param clienteId El ID del cliente
+     * @return Lista de turnos del cliente
+     * @throws ServiceException Si ocurre un error al buscar los turnos
+     */
+    public List<Turno> buscarTurnosPorCliente(int clienteId) throws ServiceException {
+        return turnoService.buscarTurnosPorCliente(clienteId);
+    }
+    
+    /**
+     * Busca turnos por estado
+     * @param estado El estado del turno a buscar
+     * @return Lista de turnos con el estado especificado
+     * @throws ServiceException Si ocurre un error al buscar los turnos
+     */
+    public List<Turno> buscarTurnosPorEstado(String estado) throws ServiceException {
+        return turnoService.buscarTurnosPorEstado(estado);
+    }
+    
+    /**
+     * Actualiza la información de un turno existente
+     * @param turno El turno con la información actualizada
+     * @throws ServiceException Si ocurre un error al actualizar el turno
+     */
+    public void actualizarTurno(Turno turno) throws ServiceException {
+        turnoService.actualizarTurno(turno);
+    }
+    
+    /**
+     * Cancela un turno existente
+     * @param id El ID del turno a cancelar
+     * @throws ServiceException Si ocurre un error al cancelar el turno
+     */
+    public void cancelarTurno(int id) throws ServiceException {
+        turnoService.cancelarTurno(id);
+    }
+    
+    /**
+     * Marca un turno como completado
+     * @param id El ID del turno a completar
+     * @throws ServiceException Si ocurre un error al completar el turno
+     */
+    public void completarTurno(int id) throws ServiceException {
+        turnoService.completarTurno(id);
+    }
+    
+    /**
+     * Valida la disponibilidad de un turno
+     * @param turno El turno a validar
+     * @return true si hay disponibilidad, false en caso contrario
+     * @throws ServiceException Si ocurre un error durante la validación
+     */
+    public boolean validarDisponibilidad(Turno turno) throws ServiceException {
+        return turnoService.validarDisponibilidad(turno);
+    }
+    
+    /**
+     * Busca los horarios libres de un servicio en un dia
+     * @param servicioId El ID del servicio
+     * @param fecha El dia a consultar
+     * @param granularidadMinutos Separacion entre los horarios ofrecidos
+     * @param turnoExcluidoId El turno que se esta editando, o 0 si es uno nuevo
+     * @return Los horarios de inicio libres, en orden
+     * @throws ServiceException Si ocurre un error al consultar los turnos
+     */
+    public List<LocalTime> buscarHorariosDisponibles(int servicioId, LocalDate fecha, int granularidadMinutos,
+            int turnoExcluidoId) throws ServiceException {
+        return turnoService.buscarHorariosDisponibles(servicioId, fecha, granularidadMinutos, turnoExcluidoId);
+    }
+    
+    /**
+     * Calcula cuantos profesionales podrian atender el servicio en cada horario del dia
+     * @param servicioId El ID del servicio
+     * @param fecha El dia a consultar
+     * @param granularidadMinutos Separacion entre los horarios candidatos
+     * @param turnoExcluidoId El turno que se esta reprogramando, o 0
+     * @return Capacidad por horario, en orden
+     * @throws ServiceException Si el servicio no existe o falla la consulta
+     */
+    public SortedMap<LocalTime, Integer> calcularCapacidadPorHorario(int servicioId, LocalDate fecha,
+            int granularidadMinutos, int turnoExcluidoId) throws ServiceException {
+        return turnoService.calcularCapacidadPorHorario(servicioId, fecha, granularidadMinutos, turnoExcluidoId);
+    }
+    
+    /**
+     * Busca quien puede hacer un servicio en un horario dado
+     * @param servicioId El ID del servicio
+     * @param fechaHora Inicio del turno
+     * @param turnoExcluidoId El turno que se esta reprogramando, o 0
+     * @return Los profesionales libres, ordenados por apellido
+     * @throws ServiceException Si el servicio no existe o falla la consulta
+     */
+    public List<Profesional> buscarProfesionalesDisponibles(int servicioId, LocalDateTime fechaHora,
+            int turnoExcluidoId) throws ServiceException {
+        return turnoService.buscarProfesionalesDisponibles(servicioId, fechaHora, turnoExcluidoId);
+    }
+    
+    /**
+     * Propone como mover los turnos de un dia para no dejar huecos inutiles
+     * @param fecha El dia a reorganizar
+     * @return Los movimientos propuestos, sin aplicar
+     * @throws ServiceException Si el dia ya paso o falla la consulta
+     */
+    public PropuestaCompactacion proponerCompactacion(LocalDate fecha) throws ServiceException {
+        return turnoService.proponerCompactacion(fecha);
+    }
+    
+    /**
+     * Mueve en una sola transaccion los turnos de una propuesta de reorganizacion
+     * @param propuesta La propuesta a aplicar
+     * @throws ServiceException Si la agenda cambio desde que se calculo o falla el guardado
+     */
+    public void aplicarCompactacion(PropuestaCompactacion propuesta) throws ServiceException {
+        turnoService.aplicarCompactacion(propuesta);
+    }
+    
+    /**
+     * Calcula el total pagado en el día actual
+     * @return El monto total pagado hoy
+     * @throws ServiceException Si ocurre un error al calcular el total
+     */
+    public double calcularTotalPagadoHoy() throws ServiceException {
+        return turnoService.calcularTotalPagadoHoy();
+    }
+    
+    /**
+     * Calcula el total cobrado en un periodo
+     * @param desde Primer dia del periodo
+     * @param hasta Ultimo dia del periodo
+     * @return El monto total cobrado entre ambas fechas
+     * @throws ServiceException Si el rango no es valido o falla la consulta
+     */
+    public double calcularTotalCobrado(LocalDate desde, LocalDate hasta) throws ServiceException {
+        return turnoService.calcularTotalCobrado(desde, hasta);
+    }
+    
+    /**
+     * Recalcula el resumen diario de un rango de fechas desde los turnos
+     * @param desde Primer dia a reconstruir
+     * @param hasta Ultimo dia a reconstruir
+     * @return Cantidad de filas del resumen que quedaron en el rango
+     * @throws ServiceException Si el rango no es valido o falla la reconstruccion
+     */
+    public int reconstruirResumenDiario(LocalDate desde, LocalDate hasta) throws ServiceException {
+        return turnoService.reconstruirResumenDiario(desde, hasta);
+    }
+    
+    /**
+     * Obtiene todos los turnos sin bloquear el hilo que llama
+     * @return Futuro con la lista de todos los turnos
+     */
+    public CompletableFuture<List<Turno>> obtenerTodosTurnosAsync() {
+        return turnoService.buscarTodosTurnosAsync();
+    }
+    
+    /**
+     * Busca turnos por fecha sin bloquear el hilo que llama
+     * @param fecha La fecha para buscar turnos
+     * @return Futuro con los turnos en la fecha especificada
+     */
+    public CompletableFuture<List<Turno>> buscarTurnosPorFechaAsync(LocalDate fecha) {
+        return turnoService.buscarTurnosPorFechaAsync(fecha);
+    }
+    
+    /**
+     * Busca los turnos entre dos fechas sin bloquear el hilo que llama
+     * @param desde Primer dia
+     * @param hasta Ultimo dia, incluido
+     * @return Futuro con los turnos del rango
+     */
+    public CompletableFuture<List<Turno>> buscarTurnosPorRangoAsync(LocalDate desde, LocalDate hasta) {
+        return turnoService.buscarTurnosPorRangoAsync(desde, hasta);
+    }
+    
+    /**
+     * Obtiene la tasa de aciertos de la cache de turnos por metodo
+     * @return Mapa de nombre de metodo a sus estadisticas de cache
+     */
+    public static Map<String, EstadisticasCache> obtenerEstadisticasCache() {
+        return TURNO_DAO.getEstadisticas();
+    }
+    
+    /**
+     * Obtiene las metricas de contencion de los bloqueos por franja horaria
+     * @return Estadisticas de adquisiciones y esperas de los locks
+     */
+    public static GestorBloqueosFranja.EstadisticasBloqueo obtenerEstadisticasBloqueos() {
+        return GestorBloqueosFranja.getInstance().getEstadisticas();
+    }
+    
+    /**
+     * Aplica en la base de datos los turnos y pagos que hayan quedado en el
+     * diario sin conexion de una ejecucion anterior.
+     */
+    public static void sincronizarCambiosSinConexion() {
+        ModoOffline.getInstance().sincronizarPendientes();
+    }
+    
+    /**
+     * Cambia las notas de un turno; la escritura en la base de datos se hace en segundo plano
+     * @param turnoId El ID del turno
+     * @param notas Las notas nuevas
+     * @param version La version del turno leida al editarlo
+     * @throws ServiceException Si el cambio no es válido
+     */
+    public void actualizarNotasDiferido(int turnoId, String notas, int version) throws ServiceException {
+        turnoService.actualizarNotasDiferido(turnoId, notas, version);
+    }
 }
\ No newline at end of file
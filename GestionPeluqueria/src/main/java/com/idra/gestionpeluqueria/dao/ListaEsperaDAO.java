@@ -0,0 +1,47 @@
+package com.idra.gestionpeluqueria.dao;
+
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.SolicitudEspera;
+import java.util.List;
+
+/**
+ * Interfaz que define las operaciones de acceso a datos para la lista de espera.
+ *
+ * @author Idra
+ */
+public interface ListaEsperaDAO {
+    /**
+     * Guarda una nueva solicitud y le asigna su ID generado.
+     *
+     * @param solicitud La solicitud a guardar
+     * @throws DAOException Si ocurre un error al guardar
+     */
+    void crear(SolicitudEspera solicitud) throws DAOException;
+
+    /**
+     * Busca una solicitud por su ID.
+     *
+     * @param id El ID de la solicitud
+     * @return La solicitud, o null si no existe
+     * @throws DAOException Si ocurre un error al buscar
+     */
+    SolicitudEspera buscarPorId(int id) throws DAOException;
+
+    /**
+     * Busca las solicitudes pendientes u ofrecidas cuya ventana de fechas
+     * todavia no termino, en orden de llegada.
+     *
+     * @return Las solicitudes vigentes
+     * @throws DAOException Si ocurre un error al buscar
+     */
+    List<SolicitudEspera> buscarVigentes() throws DAOException;
+
+    /**
+     * Guarda el estado y el horario ofrecido de varias solicitudes en un
+     * unico lote JDBC.
+     *
+     * @param solicitudes Las solicitudes a actualizar
+     * @throws DAOException Si ocurre un error al ejecutar el lote
+     */
+    void actualizarEstadoEnLote(List<SolicitudEspera> solicitudes) throws DAOException;
+}
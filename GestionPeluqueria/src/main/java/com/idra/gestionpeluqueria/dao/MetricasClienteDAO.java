@@ -0,0 +1,56 @@
+package com.idra.gestionpeluqueria.dao;
+
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.MetricasCliente;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Interfaz que define el acceso a la tabla cliente_metricas, con las
+ * visitas y lo gastado por cada cliente.
+ *
+ * La tabla la mantienen los DAOs de turnos en la misma transaccion en la
+ * que escriben; esta interfaz solo la lee y la reconstruye.
+ *
+ * @author Idra
+ */
+public interface MetricasClienteDAO {
+    /**
+     * Busca las metricas de un cliente.
+     *
+     * @param clienteId El ID del cliente
+     * @return Sus metricas, o null si todavia no tiene turnos completados
+     * @throws DAOException Si ocurre un error al consultar
+     */
+    MetricasCliente buscarPorCliente(int clienteId) throws DAOException;
+
+    /**
+     * Busca los clientes que mas gastaron.
+     *
+     * @param limite Cantidad maxima de clientes
+     * @return Los clientes ordenados de mayor a menor total pagado
+     * @throws DAOException Si ocurre un error al consultar
+     */
+    List<MetricasCliente> buscarMejores(int limite) throws DAOException;
+
+    /**
+     * Busca los clientes que dejaron de venir: su ultima visita es anterior
+     * a una fecha.
+     *
+     * @param sinVisitasDesde Fecha desde la que no vinieron
+     * @param limite Cantidad maxima de clientes
+     * @return Los clientes ordenados de la ausencia mas reciente a la mas antigua
+     * @throws DAOException Si ocurre un error al consultar
+     */
+    List<MetricasCliente> buscarAusentes(LocalDate sinVisitasDesde, int limite) throws DAOException;
+
+    /**
+     * Vuelve a calcular las metricas de todos los clientes a partir de los
+     * turnos, en una sola transaccion. Sirve para reparar la tabla si se
+     * escribieron turnos por fuera de la aplicacion.
+     *
+     * @return Cantidad de clientes con metricas
+     * @throws DAOException Si ocurre un error al reconstruir
+     */
+    int reconstruir() throws DAOException;
+}
@@ -0,0 +1,37 @@
+package com.idra.gestionpeluqueria.dao;
+
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.MapaOcupacion;
+import java.time.LocalDate;
+
+/**
+ * Interfaz que define el acceso a la tabla ocupacion_horaria, que acumula
+ * los minutos reservados por fecha, hora y tipo de servicio.
+ *
+ * La tabla la mantienen los DAOs de turnos en la misma transaccion en la
+ * que escriben; esta interfaz solo la lee y la reconstruye.
+ *
+ * @author Idra
+ */
+public interface OcupacionDAO {
+    /**
+     * Suma la ocupacion entre dos fechas, ambas incluidas, por dia de la
+     * semana, hora y tipo de servicio.
+     *
+     * @param desde Primer dia
+     * @param hasta Ultimo dia
+     * @return El mapa de ocupacion del periodo
+     * @throws DAOException Si ocurre un error al consultar
+     */
+    MapaOcupacion buscarPorRango(LocalDate desde, LocalDate hasta) throws DAOException;
+
+    /**
+     * Vuelve a calcular toda la ocupacion a partir de los turnos, en una sola
+     * transaccion. Sirve para repararla si se escribieron turnos por fuera
+     * de la aplicacion.
+     *
+     * @return Cantidad de filas que quedaron en la tabla
+     * @throws DAOException Si ocurre un error al reconstruir
+     */
+    int reconstruir() throws DAOException;
+}
@@ -0,0 +1,63 @@
+package com.idra.gestionpeluqueria.dao;
+
+import com.idra.gestionpeluqueria.model.Profesional;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import java.util.List;
+
+/**
+ * Interfaz que define las operaciones de acceso a datos para la entidad Profesional.
+ * Cada profesional se lee y se guarda junto con sus especialidades y sus
+ * franjas de trabajo semanales.
+ * 
+ * @author Idra
+ */
+public interface ProfesionalDAO {
+    /**
+     * Crea un nuevo profesional con sus especialidades y horarios.
+     * 
+     * @param profesional El profesional a crear
+     * @throws DAOException Si ocurre un error al crear el profesional
+     */
+    void crear(Profesional profesional) throws DAOException;
+    
+    /**
+     * Busca un profesional por su identificador unico.
+     * 
+     * @param id El ID del profesional a buscar
+     * @return El profesional encontrado o null si no existe
+     * @throws DAOException Si ocurre un error al buscar el profesional
+     */
+    Profesional buscarPorId(int id) throws DAOException;
+    
+    /**
+     * Obtiene todos los profesionales registrados, ordenados por apellido y nombre.
+     * 
+     * @return Lista de todos los profesionales
+     * @throws DAOException Si ocurre un error al obtener los profesionales
+     */
+    List<Profesional> buscarTodos() throws DAOException;
+    
+    /**
+     * Obtiene unicamente los profesionales activos.
+     * 
+     * @return Lista de profesionales activos
+     * @throws DAOException Si ocurre un error al obtener los profesionales
+     */
+    List<Profesional> buscarActivos() throws DAOException;
+    
+    /**
+     * Actualiza los datos de un profesional, reemplazando sus especialidades y horarios.
+     * 
+     * @param profesional El profesional con los datos actualizados
+     * @throws DAOException Si ocurre un error al actualizar el profesional
+     */
+    void actualizar(Profesional profesional) throws DAOException;
+    
+    /**
+     * Elimina un profesional. Sus turnos quedan sin profesional asignado.
+     * 
+     * @param id El ID del profesional a eliminar
+     * @throws DAOException Si ocurre un error al eliminar el profesional
+     */
+    void eliminar(int id) throws DAOException;
+}
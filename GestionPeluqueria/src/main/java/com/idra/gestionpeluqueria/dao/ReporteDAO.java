@@ -0,0 +1,25 @@
+package com.idra.gestionpeluqueria.dao;
+
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.DefinicionReporte;
+import com.idra.gestionpeluqueria.model.FilaReporte;
+import java.util.List;
+
+/**
+ * Interfaz que define las consultas agregadas sobre los turnos para los
+ * reportes.
+ *
+ * @author Idra
+ */
+public interface ReporteDAO {
+    /**
+     * Agrupa los turnos del periodo segun la definicion y calcula, por
+     * grupo, la cantidad de turnos, los cancelados y lo cobrado.
+     *
+     * @param definicion Agrupacion y periodo del reporte
+     * @return Las filas del reporte; por fecha si la agrupacion es temporal
+     *         y de mayor a menor cobrado en los demas casos
+     * @throws DAOException Si ocurre un error al consultar
+     */
+    List<FilaReporte> agrupar(DefinicionReporte definicion) throws DAOException;
+}
@@ -0,0 +1,50 @@
+package com.idra.gestionpeluqueria.dao;
+
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.ResumenDiario;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Interfaz que define el acceso a la tabla resumen_diario, que acumula lo
+ * cobrado por dia, forma de pago y tipo de servicio.
+ *
+ * La tabla la mantienen los DAOs de turnos en la misma transaccion en la
+ * que escriben; esta interfaz solo la lee y la reconstruye.
+ *
+ * @author Idra
+ */
+public interface ResumenDiarioDAO {
+    /**
+     * Suma lo cobrado entre dos fechas, ambas incluidas.
+     *
+     * @param desde Primer dia
+     * @param hasta Ultimo dia
+     * @return El total cobrado en el periodo
+     * @throws DAOException Si ocurre un error al consultar
+     */
+    double sumarCobrado(LocalDate desde, LocalDate hasta) throws DAOException;
+
+    /**
+     * Busca las filas del resumen entre dos fechas, ambas incluidas,
+     * ordenadas por fecha.
+     *
+     * @param desde Primer dia
+     * @param hasta Ultimo dia
+     * @return Las filas con al menos un turno cobrado
+     * @throws DAOException Si ocurre un error al consultar
+     */
+    List<ResumenDiario> buscarPorRango(LocalDate desde, LocalDate hasta) throws DAOException;
+
+    /**
+     * Vuelve a calcular el resumen de un rango de fechas a partir de los
+     * turnos, en una sola transaccion. Sirve para reparar el resumen si se
+     * escribieron turnos por fuera de la aplicacion.
+     *
+     * @param desde Primer dia
+     * @param hasta Ultimo dia
+     * @return Cantidad de filas del resumen que quedaron en el rango
+     * @throws DAOException Si ocurre un error al reconstruir
+     */
+    int reconstruir(LocalDate desde, LocalDate hasta) throws DAOException;
+}
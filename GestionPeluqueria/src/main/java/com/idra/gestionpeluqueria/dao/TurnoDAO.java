@@ -1,92 +1,237 @@
-package com.idra.gestionpeluqueria.dao;
-
-import com.idra.gestionpeluqueria.model.Turno;
-import com.idra.gestionpeluqueria.exception.DAOException;
-import java.time.LocalDate;
-import java.util.List;
-
-/**
- * Interfaz que define las operaciones de acceso a datos para la entidad Turno.
- * Proporciona metodos para gestionar los turnos de la peluqueria, incluyendo
- * operaciones CRUD, consultas por diferentes criterios y validaciones de disponibilidad.
- * 
- * @author Idra
- */
-public interface TurnoDAO {
-    /**
-     * Crea un nuevo turno en la base de datos.
-     * 
-     * @param turno El turno a crear 
-     * @throws DAOException Si ocurre un error al crear el turno 
-     */
-    void crear(Turno turno) throws DAOException;
-    
-    /**
-     * Busca un turno por su identificador unico
-     * 
-     * @param id El ID del turno a buscar 
-     * @return El turno encontrado o null si no existe 
-     * @throws DAOException Si ocurre un error al buscar el turno 
-     */
-    Turno buscarPorId(int id) throws DAOException;
-    
-    /**
-     * Obtiene todos los turnos registrados en el sistema.
-     * 
-     * @return Lista de todos los turnos 
-     * @throws DAOException Si ocurre un error al obtener los turnos 
-     */
-    
-    List<Turno> buscarTodos() throws DAOException;
-    /**
-     * Busca todos los turnos agendados para una fecha especifica 
-     * 
-     * @param fecha La fecha para buscar turnos 
-     * @return Lista de turnos en la fecha especificada 
-     * @throws DAOException Si ocurre un error al buscar los turnos 
-     */
-    List<Turno> buscarPorFecha(LocalDate fecha) throws DAOException;
-    
-    /**
-     * Busca todos los turnos asociados a un cliente especifico  
-     * 
-     * @param clienteId El ID del cliente 
-     * @return Lista de turnos del cliente 
-     * @throws DAOException Si ocurre un error al buscar los turnos 
-     */
-    List<Turno> buscarPorCliente(int clienteId) throws DAOException;
-    
-    /**
-     * Busca turnos que tengan un estado especifico
-     * 
-     * @param estado El estado del turno a buscar 
-     * @return Lista de turnos con el estado especifico 
-     * @throws DAOException Si ocurre un error al buscar los turnos 
-     */
-    List<Turno> buscarPorEstado(String estado) throws DAOException;
-    /**
-     * Actualiza los datos de un turno existente 
-     * 
-     * @param turno El turno con los datos actualizados 
-     * @throws DAOException Si ocurre un error al actualizar el turno 
-     */
-    void actualizar(Turno turno) throws DAOException;
-    /**
-     * Elimina un turno de la base de datos.
-     * 
-     * @param id El ID del turno a eliminar 
-     * @throws DAOException Si ocurre un error al eliminar el turno 
-     */
-    void eliminar(int id) throws DAOException;
-    
-    /**
-     * Verifica si ya existe un turno para un servicio en una fecha y hora especifica.
-     * Util para evitar conflicos de horarios.
-     * 
-     * @param servicioId El ID del servicio 
-     * @param fechaHora La fecha y hora a verificar 
-     * @return true si ya existe un turno, false en caso contrario 
-     * @throws DAOException Si ocurre un error al verificar la disponibilidad
-     */
-    boolean existeTurnoEnFechaHora(int servicioId, java.time.LocalDateTime fechaHora) throws DAOException;
+package com.idra.gestionpeluqueria.dao;
+
+import com.idra.gestionpeluqueria.model.CambiosTurnos;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.model.enums.EstadoPago;
+import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
+import com.idra.gestionpeluqueria.model.enums.FormaPago;
+import com.idra.gestionpeluqueria.model.enums.TipoServicio;
+import com.idra.gestionpeluqueria.exception.ConflictoConcurrenciaException;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interfaz que define las operaciones de acceso a datos para la entidad Turno.
+ * Proporciona metodos para gestionar los turnos de la peluqueria, incluyendo
+ * operaciones CRUD, consultas por diferentes criterios y validaciones de disponibilidad.
+ * 
+ * @author Idra
+ */
+public interface TurnoDAO {
+
+    /**
+     * Recibe los datos de un turno sin que se arme el Turno, con su cliente
+     * y su servicio, para cada fila.
+     */
+    @FunctionalInterface
+    interface LectorFila {
+        /**
+         * @param id ID del turno
+         * @param minuto Fecha y hora del turno en minutos desde 1970-01-01 00:00, sin zona horaria
+         * @param clienteId ID del cliente
+         * @param servicioId ID del servicio
+         * @param estado Estado del turno
+         * @param estadoPago Estado del pago
+         * @param formaPago Forma de pago, o null
+         * @param tipoServicio Tipo del servicio
+         * @param montoCentavos Monto pagado en centavos
+         */
+        void leer(int id, int minuto, int clienteId, int servicioId, EstadoTurno estado, EstadoPago estadoPago,
+                  FormaPago formaPago, TipoServicio tipoServicio, long montoCentavos);
+    }
+    /**
+     * Crea un nuevo turno en la base de datos.
+     * 
+     * @param turno El turno a crear 
+     * @throws DAOException Si ocurre un error al crear el turno 
+     */
+    void crear(Turno turno) throws DAOException;
+    
+    /**
+     * Busca un turno por su identificador unico
+     * 
+     * @param id El ID del turno a buscar 
+     * @return El turno encontrado o null si no existe 
+     * @throws DAOException Si ocurre un error al buscar el turno 
+     */
+    Turno buscarPorId(int id) throws DAOException;
+    
+    /**
+     * Obtiene todos los turnos registrados en el sistema.
+     * 
+     * @return Lista de todos los turnos 
+     * @throws DAOException Si ocurre un error al obtener los turnos 
+     */
+    
+    List<Turno> buscarTodos() throws DAOException;
+    
+    /**
+     * Cuenta todos los turnos registrados, sin leerlos.
+     * 
+     * @return Cantidad de turnos
+     * @throws DAOException Si ocurre un error al contar los turnos
+     */
+    int contarTodos() throws DAOException;
+    
+    /**
+     * Recorre todos los turnos fila por fila, sin juntarlos en una lista.
+     * Si se corta la conexion a mitad del recorrido y se sigue con los datos
+     * locales, el lector puede recibir dos veces el mismo turno.
+     * 
+     * @param lector Recibe cada fila, en el orden en que llega
+     * @throws DAOException Si ocurre un error al leer los turnos
+     */
+    void recorrerTodos(LectorFila lector) throws DAOException;
+    
+    /**
+     * Busca una pagina de turnos, de los mas recientes a los mas viejos,
+     * empezando despues de un turno ya leido. Con saltear en 0 la consulta
+     * va directo a ese turno por el indice de fecha y hora; saltear sirve
+     * para llegar a una pagina lejana sin leer las intermedias.
+     * 
+     * @param fechaHora Fecha y hora del ultimo turno leido, o null para empezar por el mas reciente
+     * @param id ID de ese turno, que desempata los turnos con la misma fecha y hora
+     * @param saltear Cantidad de turnos a saltear antes de la pagina
+     * @param cantidad Tamaño de la pagina
+     * @return Los turnos de la pagina; menos que cantidad si se llego al final
+     * @throws DAOException Si ocurre un error al buscar los turnos
+     */
+    List<Turno> buscarPagina(java.time.LocalDateTime fechaHora, int id, int saltear, int cantidad) throws DAOException;
+    
+    /**
+     * Busca los turnos que estan en las posiciones cada, 2 * cada, 3 * cada...
+     * del orden de {@link #buscarPagina}, para usarlos como punto de partida
+     * de las paginas lejanas. Recorre solo el indice de fecha y hora.
+     * 
+     * @param cada Cada cuantos turnos se toma uno
+     * @return Los turnos elegidos, en orden, solo con su ID y su fecha y hora
+     * @throws DAOException Si ocurre un error al buscar los turnos
+     */
+    List<Turno> buscarAnclasPagina(int cada) throws DAOException;
+    /**
+     * Busca todos los turnos agendados para una fecha especifica 
+     * 
+     * @param fecha La fecha para buscar turnos 
+     * @return Lista de turnos en la fecha especificada 
+     * @throws DAOException Si ocurre un error al buscar los turnos 
+     */
+    List<Turno> buscarPorFecha(LocalDate fecha) throws DAOException;
+    
+    /**
+     * Busca en una sola consulta los turnos que empiezan dentro de un rango.
+     * 
+     * @param desde Inicio del rango (inclusivo)
+     * @param hasta Fin del rango (exclusivo)
+     * @return Lista de turnos del rango, ordenados por fecha y hora
+     * @throws DAOException Si ocurre un error al buscar los turnos
+     */
+    List<Turno> buscarPorRango(java.time.LocalDateTime desde, java.time.LocalDateTime hasta) throws DAOException;
+    
+    /**
+     * Busca los turnos de una fecha creados o modificados desde una marca,
+     * segun la columna updated_at. Los borrados o movidos a otro dia no
+     * aparecen entre los cambios; con una marca se devuelven ademas los IDs
+     * de todos los turnos que siguen en la fecha, para poder quitarlos.
+     * 
+     * @param fecha La fecha de los turnos
+     * @param desde Marca devuelta por la consulta anterior, o null para traer todo el dia
+     * @return Los turnos cambiados, la marca para la consulta siguiente y los IDs vigentes
+     * @throws DAOException Si ocurre un error al buscar los turnos
+     */
+    CambiosTurnos buscarCambiosDelDia(LocalDate fecha, java.time.LocalDateTime desde) throws DAOException;
+    
+    /**
+     * Busca todos los turnos asociados a un cliente especifico  
+     * 
+     * @param clienteId El ID del cliente 
+     * @return Lista de turnos del cliente 
+     * @throws DAOException Si ocurre un error al buscar los turnos 
+     */
+    List<Turno> buscarPorCliente(int clienteId) throws DAOException;
+    
+    /**
+     * Busca turnos que tengan un estado especifico
+     * 
+     * @param estado El estado del turno a buscar 
+     * @return Lista de turnos con el estado especifico 
+     * @throws DAOException Si ocurre un error al buscar los turnos 
+     */
+    List<Turno> buscarPorEstado(String estado) throws DAOException;
+    /**
+     * Actualiza los datos de un turno existente, solo si su version en la base
+     * de datos sigue siendo la del turno recibido. Si la actualizacion se
+     * realiza, la version del turno se incrementa.
+     * 
+     * @param turno El turno con los datos actualizados 
+     * @throws ConflictoConcurrenciaException Si otra terminal modifico el turno desde que se leyo
+     * @throws DAOException Si ocurre un error al actualizar el turno 
+     */
+    void actualizar(Turno turno) throws DAOException;
+    /**
+     * Elimina un turno de la base de datos.
+     * 
+     * @param id El ID del turno a eliminar 
+     * @throws DAOException Si ocurre un error al eliminar el turno 
+     */
+    void eliminar(int id) throws DAOException;
+    
+    /**
+     * Verifica si ya existe un turno para un servicio en una fecha y hora especifica.
+     * Util para evitar conflicos de horarios.
+     * 
+     * @param servicioId El ID del servicio 
+     * @param fechaHora La fecha y hora a verificar 
+     * @return true si ya existe un turno, false en caso contrario 
+     * @throws DAOException Si ocurre un error al verificar la disponibilidad
+     */
+    boolean existeTurnoEnFechaHora(int servicioId, java.time.LocalDateTime fechaHora) throws DAOException;
+    
+    /**
+     * Verifica si un profesional tiene algun turno no cancelado que se superponga
+     * con el intervalo indicado, segun la duracion del servicio de cada turno.
+     * 
+     * @param profesionalId El ID del profesional
+     * @param inicio Inicio del intervalo
+     * @param fin Fin del intervalo (exclusivo)
+     * @param turnoExcluidoId Turno a ignorar, por ejemplo el que se reprograma; 0 para ninguno
+     * @return true si hay superposicion
+     * @throws DAOException Si ocurre un error al verificar
+     */
+    boolean existeSolapamientoProfesional(int profesionalId, java.time.LocalDateTime inicio,
+            java.time.LocalDateTime fin, int turnoExcluidoId) throws DAOException;
+    
+    /**
+     * Actualiza solo las notas de varios turnos en un unico lote JDBC.
+     * Cada actualizacion incrementa la version del turno. Los turnos que
+     * cambiaron de version desde que se leyeron no se actualizan.
+     * 
+     * @param notasPorTurno Notas nuevas indexadas por ID de turno
+     * @param versionPorTurno Version leida de cada turno; los que no figuran se actualizan sin comprobarla
+     * @return IDs de los turnos no actualizados porque cambiaron de version o ya no existen
+     * @throws DAOException Si ocurre un error al ejecutar el lote
+     */
+    List<Integer> actualizarNotasEnLote(Map<Integer, String> notasPorTurno, Map<Integer, Integer> versionPorTurno)
+            throws DAOException;
+    
+    /**
+     * Inserta varios turnos en un unico lote JDBC y en una sola transaccion:
+     * se guardan todos o ninguno. A cada turno se le asigna su ID generado.
+     * 
+     * @param turnos Los turnos a crear
+     * @throws DAOException Si ocurre un error al ejecutar el lote
+     */
+    void crearEnLote(List<Turno> turnos) throws DAOException;
+    
+    /**
+     * Cambia la fecha y hora de varios turnos en una sola transaccion.
+     * Si alguno fue modificado por otra terminal desde que se leyo no se
+     * mueve ninguno. A cada turno movido se le incrementa la version.
+     * 
+     * @param turnos Los turnos con su nueva fecha y hora y la version leida
+     * @throws ConflictoConcurrenciaException Si algun turno cambio de version
+     * @throws DAOException Si ocurre un error al ejecutar el lote
+     */
+    void reprogramarEnLote(List<Turno> turnos) throws DAOException;
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.idra.gestionpeluqueria.dao.cache;
+
+import com.idra.gestionpeluqueria.exception.DAOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Base comun de los decoradores de DAO con cache.
+ * Resuelve las lecturas contra la region de cache del metodo segun la
+ * politica configurada y aplica las invalidaciones declaradas para
+ * cada escritura.
+ *
+ * @author Idra
+ */
+public abstract class AbstractCachingDAO {
+    private final PoliticaCache politica;
+    private final Map<String, RegionCache> regiones;
+
+    /**
+     * Operacion de lectura sobre el DAO decorado.
+     */
+    @FunctionalInterface
+    protected interface Lectura<T> {
+        T ejecutar() throws DAOException;
+    }
+
+    /**
+     * Operacion de escritura sobre el DAO decorado.
+     */
+    @FunctionalInterface
+    protected interface Escritura {
+        void ejecutar() throws DAOException;
+    }
+
+    /**
+     * Constructor que crea una region de cache por cada lectura declarada en la politica.
+     *
+     * @param politica La politica de cache a aplicar
+     */
+    protected AbstractCachingDAO(PoliticaCache politica) {
+        this.politica = politica;
+        Map<String, RegionCache> mapa = new HashMap<>();
+        for (String metodo : politica.getMetodosCacheados()) {
+            mapa.put(metodo, new RegionCache(politica.getRegla(metodo)));
+        }
+        this.regiones = Collections.unmodifiableMap(mapa);
+    }
+
+    /**
+     * Ejecuta una lectura usando la cache si el metodo esta cacheado.
+     *
+     * @param metodo Nombre del metodo de lectura
+     * @param lectura Lectura a ejecutar contra el DAO decorado en caso de fallo
+     * @param argumentos Argumentos que identifican la consulta
+     * @return El valor cacheado o el obtenido del DAO decorado
+     * @throws DAOException Si falla la lectura sobre el DAO decorado
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T leer(String metodo, Lectura<T> lectura, Object... argumentos) throws DAOException {
+        RegionCache region = regiones.get(metodo);
+        if (region == null) {
+            return lectura.ejecutar();
+        }
+        Object clave = argumentos.length == 1 ? argumentos[0] : Arrays.asList(argumentos);
+        RegionCache.Entrada entrada = region.obtener(clave);
+        if (entrada != null) {
+            return (T) entrada.valor;
+        }
+        // Una escritura que invalida mientras se lee deja el valor leido sin guardar
+        long epoca = region.getEpoca();
+        T valor = lectura.ejecutar();
+        region.guardar(clave, valor, epoca);
+        return valor;
+    }
+
+    /**
+     * Ejecuta una escritura e invalida las lecturas declaradas en la politica.
+     * La invalidacion se aplica aun si la escritura falla, porque las
+     * entidades cacheadas pueden haber sido modificadas por el llamador.
+     *
+     * @param metodo Nombre del metodo de escritura
+     * @param escritura Escritura a ejecutar contra el DAO decorado
+     * @throws DAOException Si falla la escritura sobre el DAO decorado
+     */
+    protected void escribir(String metodo, Escritura escritura) throws DAOException {
+        try {
+            escritura.ejecutar();
+        } finally {
+            for (String lectura : politica.getInvalidaciones(metodo)) {
+                RegionCache region = regiones.get(lectura);
+                if (region != null) {
+                    region.limpiar();
+                }
+            }
+        }
+    }
+
+    /**
+     * Descarta todas las entradas de todas las regiones.
+     */
+    public void limpiar() {
+        for (RegionCache region : regiones.values()) {
+            region.limpiar();
+        }
+    }
+
+    /**
+     * Obtiene las estadisticas de uso de cada metodo cacheado.
+     *
+     * @return Mapa ordenado de nombre de metodo a sus estadisticas
+     */
+    public Map<String, EstadisticasCache> getEstadisticas() {
+        Map<String, EstadisticasCache> estadisticas = new TreeMap<>();
+        for (Map.Entry<String, RegionCache> region : regiones.entrySet()) {
+            estadisticas.put(region.getKey(), region.getValue().getEstadisticas());
+        }
+        return estadisticas;
+    }
+}
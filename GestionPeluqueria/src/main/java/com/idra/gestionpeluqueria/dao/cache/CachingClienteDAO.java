@@ -0,0 +1,96 @@
+package com.idra.gestionpeluqueria.dao.cache;
+
+import com.idra.gestionpeluqueria.dao.ClienteDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.Cliente;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decorador de ClienteDAO que guarda en cache las lecturas segun una PoliticaCache.
+ * La verificacion de telefono duplicado nunca se cachea.
+ *
+ * @author Idra
+ */
+public class CachingClienteDAO extends AbstractCachingDAO implements ClienteDAO {
+    public static final String CREAR = "crear";
+    public static final String BUSCAR_POR_ID = "buscarPorId";
+    public static final String BUSCAR_TODOS = "buscarTodos";
+    public static final String BUSCAR_POR_NOMBRE = "buscarPorNombre";
+    public static final String ACTUALIZAR = "actualizar";
+    public static final String ELIMINAR = "eliminar";
+    public static final String ACTUALIZAR_EMAIL_EN_LOTE = "actualizarEmailEnLote";
+
+    private static final String[] LECTURAS = { BUSCAR_POR_ID, BUSCAR_TODOS, BUSCAR_POR_NOMBRE };
+
+    private final ClienteDAO delegado;
+
+    /**
+     * Constructor que decora un ClienteDAO con la politica indicada.
+     *
+     * @param delegado El DAO que accede a la base de datos
+     * @param politica La politica de cache a aplicar
+     */
+    public CachingClienteDAO(ClienteDAO delegado, PoliticaCache politica) {
+        super(politica);
+        this.delegado = delegado;
+    }
+
+    /**
+     * Politica por defecto para clientes.
+     *
+     * @return Una nueva politica con la configuracion por defecto
+     */
+    public static PoliticaCache politicaPorDefecto() {
+        return new PoliticaCache()
+            .cachear(BUSCAR_POR_ID, Duration.ofMinutes(1), 500)
+            .cachear(BUSCAR_TODOS, Duration.ofMinutes(1), 1)
+            .cachear(BUSCAR_POR_NOMBRE, Duration.ofMinutes(1), 50)
+            .invalidar(CREAR, BUSCAR_TODOS, BUSCAR_POR_NOMBRE)
+            .invalidar(ACTUALIZAR, LECTURAS)
+            .invalidar(ELIMINAR, LECTURAS)
+            .invalidar(ACTUALIZAR_EMAIL_EN_LOTE, LECTURAS);
+    }
+
+    @Override
+    public void crear(Cliente cliente) throws DAOException {
+        escribir(CREAR, () -> delegado.crear(cliente));
+    }
+
+    @Override
+    public Cliente buscarPorId(int id) throws DAOException {
+        return leer(BUSCAR_POR_ID, () -> delegado.buscarPorId(id), id);
+    }
+
+    @Override
+    public List<Cliente> buscarTodos() throws DAOException {
+        return new ArrayList<>(leer(BUSCAR_TODOS, delegado::buscarTodos, BUSCAR_TODOS));
+    }
+
+    @Override
+    public List<Cliente> buscarPorNombre(String nombre) throws DAOException {
+        return new ArrayList<>(leer(BUSCAR_POR_NOMBRE, () -> delegado.buscarPorNombre(nombre), nombre));
+    }
+
+    @Override
+    public void actualizar(Cliente cliente) throws DAOException {
+        escribir(ACTUALIZAR, () -> delegado.actualizar(cliente));
+    }
+
+    @Override
+    public void eliminar(int id) throws DAOException {
+        escribir(ELIMINAR, () -> delegado.eliminar(id));
+    }
+
+    @Override
+    public boolean existeTelefono(String telefono) throws DAOException {
+        return delegado.existeTelefono(telefono);
+    }
+
+    @Override
+    public void actualizarEmailEnLote(Map<Integer, String> emailPorCliente) throws DAOException {
+        escribir(ACTUALIZAR_EMAIL_EN_LOTE, () -> delegado.actualizarEmailEnLote(emailPorCliente));
+    }
+}
\ No newline at end of file
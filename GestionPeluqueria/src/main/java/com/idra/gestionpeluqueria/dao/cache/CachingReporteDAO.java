@@ -0,0 +1,55 @@
+package com.idra.gestionpeluqueria.dao.cache;
+
+import com.idra.gestionpeluqueria.dao.ReporteDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.DefinicionReporte;
+import com.idra.gestionpeluqueria.model.FilaReporte;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decorador de ReporteDAO que guarda en cache los reportes de periodos
+ * cerrados. Los meses pasados no cambian, asi que admiten un TTL largo;
+ * los que incluyen el mes en curso siempre se consultan.
+ *
+ * El TTL cubre los cambios hechos desde otras terminales. Los de esta
+ * terminal sobre un mes pasado se avisan con {@link #limpiar()}.
+ *
+ * @author Idra
+ */
+public class CachingReporteDAO extends AbstractCachingDAO implements ReporteDAO {
+    public static final String AGRUPAR = "agrupar";
+
+    private final ReporteDAO delegado;
+
+    /**
+     * Constructor que decora un ReporteDAO con la politica indicada.
+     *
+     * @param delegado El DAO que accede a la base de datos
+     * @param politica La politica de cache a aplicar
+     */
+    public CachingReporteDAO(ReporteDAO delegado, PoliticaCache politica) {
+        super(politica);
+        this.delegado = delegado;
+    }
+
+    /**
+     * Politica por defecto para los reportes.
+     *
+     * @return Una nueva politica con la configuracion por defecto
+     */
+    public static PoliticaCache politicaPorDefecto() {
+        return new PoliticaCache()
+            .cachear(AGRUPAR, Duration.ofHours(12), 200);
+    }
+
+    @Override
+    public List<FilaReporte> agrupar(DefinicionReporte definicion) throws DAOException {
+        if (!definicion.isCerrado(LocalDate.now())) {
+            return delegado.agrupar(definicion);
+        }
+        return new ArrayList<>(leer(AGRUPAR, () -> delegado.agrupar(definicion), definicion));
+    }
+}
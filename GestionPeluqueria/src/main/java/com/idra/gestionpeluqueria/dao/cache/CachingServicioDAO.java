@@ -0,0 +1,92 @@
+package com.idra.gestionpeluqueria.dao.cache;
+
+import com.idra.gestionpeluqueria.dao.ServicioDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.Servicio;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decorador de ServicioDAO que guarda en cache las lecturas segun una PoliticaCache.
+ * El catalogo de servicios cambia poco, por lo que admite TTL largos.
+ *
+ * @author Idra
+ */
+public class CachingServicioDAO extends AbstractCachingDAO implements ServicioDAO {
+    public static final String CREAR = "crear";
+    public static final String BUSCAR_POR_ID = "buscarPorId";
+    public static final String BUSCAR_TODOS = "buscarTodos";
+    public static final String BUSCAR_ACTIVOS = "buscarActivos";
+    public static final String BUSCAR_POR_TIPO = "buscarPorTipo";
+    public static final String ACTUALIZAR = "actualizar";
+    public static final String ELIMINAR = "eliminar";
+
+    private static final String[] LECTURAS = {
+        BUSCAR_POR_ID, BUSCAR_TODOS, BUSCAR_ACTIVOS, BUSCAR_POR_TIPO
+    };
+
+    private final ServicioDAO delegado;
+
+    /**
+     * Constructor que decora un ServicioDAO con la politica indicada.
+     *
+     * @param delegado El DAO que accede a la base de datos
+     * @param politica La politica de cache a aplicar
+     */
+    public CachingServicioDAO(ServicioDAO delegado, PoliticaCache politica) {
+        super(politica);
+        this.delegado = delegado;
+    }
+
+    /**
+     * Politica por defecto para el catalogo de servicios.
+     *
+     * @return Una nueva politica con la configuracion por defecto
+     */
+    public static PoliticaCache politicaPorDefecto() {
+        return new PoliticaCache()
+            .cachear(BUSCAR_POR_ID, Duration.ofMinutes(5), 100)
+            .cachear(BUSCAR_TODOS, Duration.ofMinutes(5), 1)
+            .cachear(BUSCAR_ACTIVOS, Duration.ofMinutes(5), 1)
+            .cachear(BUSCAR_POR_TIPO, Duration.ofMinutes(5), 20)
+            .invalidar(CREAR, BUSCAR_TODOS, BUSCAR_ACTIVOS, BUSCAR_POR_TIPO)
+            .invalidar(ACTUALIZAR, LECTURAS)
+            .invalidar(ELIMINAR, LECTURAS);
+    }
+
+    @Override
+    public void crear(Servicio servicio) throws DAOException {
+        escribir(CREAR, () -> delegado.crear(servicio));
+    }
+
+    @Override
+    public Servicio buscarPorId(int id) throws DAOException {
+        return leer(BUSCAR_POR_ID, () -> delegado.buscarPorId(id), id);
+    }
+
+    @Override
+    public List<Servicio> buscarTodos() throws DAOException {
+        return new ArrayList<>(leer(BUSCAR_TODOS, delegado::buscarTodos, BUSCAR_TODOS));
+    }
+
+    @Override
+    public List<Servicio> buscarActivos() throws DAOException {
+        return new ArrayList<>(leer(BUSCAR_ACTIVOS, delegado::buscarActivos, BUSCAR_ACTIVOS));
+    }
+
+    @Override
+    public List<Servicio> buscarPorTipo(String tipoServicio) throws DAOException {
+        return new ArrayList<>(leer(BUSCAR_POR_TIPO, () -> delegado.buscarPorTipo(tipoServicio), tipoServicio));
+    }
+
+    @Override
+    public void actualizar(Servicio servicio) throws DAOException {
+        escribir(ACTUALIZAR, () -> delegado.actualizar(servicio));
+    }
+
+    @Override
+    public void eliminar(int id) throws DAOException {
+        escribir(ELIMINAR, () -> delegado.eliminar(id));
+    }
+}
@@ -0,0 +1,176 @@
+package com.idra.gestionpeluqueria.dao.cache;
+
+import com.idra.gestionpeluqueria.dao.TurnoDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.CambiosTurnos;
+import com.idra.gestionpeluqueria.model.Turno;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decorador de TurnoDAO que guarda en cache las lecturas segun una PoliticaCache.
+ * La verificacion de disponibilidad nunca se cachea para no aceptar
+ * turnos superpuestos a partir de datos desactualizados; tampoco la
+ * busqueda por rango, que se usa justamente para esa verificacion, ni la
+ * de cambios, que justamente busca lo que la cache todavia no tiene. Las
+ * paginas tampoco: cada una se lee una sola vez y se guarda en la tabla
+ * que la muestra.
+ *
+ * @author Idra
+ */
+public class CachingTurnoDAO extends AbstractCachingDAO implements TurnoDAO {
+    public static final String CREAR = "crear";
+    public static final String BUSCAR_POR_ID = "buscarPorId";
+    public static final String BUSCAR_TODOS = "buscarTodos";
+    public static final String BUSCAR_POR_FECHA = "buscarPorFecha";
+    public static final String BUSCAR_POR_CLIENTE = "buscarPorCliente";
+    public static final String BUSCAR_POR_ESTADO = "buscarPorEstado";
+    public static final String ACTUALIZAR = "actualizar";
+    public static final String ELIMINAR = "eliminar";
+    public static final String ACTUALIZAR_NOTAS_EN_LOTE = "actualizarNotasEnLote";
+    public static final String CREAR_EN_LOTE = "crearEnLote";
+    public static final String REPROGRAMAR_EN_LOTE = "reprogramarEnLote";
+
+    private static final String[] LECTURAS = {
+        BUSCAR_POR_ID, BUSCAR_TODOS, BUSCAR_POR_FECHA, BUSCAR_POR_CLIENTE, BUSCAR_POR_ESTADO
+    };
+
+    private final TurnoDAO delegado;
+
+    /**
+     * Constructor que decora un TurnoDAO con la politica indicada.
+     *
+     * @param delegado El DAO que accede a la base de datos
+     * @param politica La politica de cache a aplicar
+     */
+    public CachingTurnoDAO(TurnoDAO delegado, PoliticaCache politica) {
+        super(politica);
+        this.delegado = delegado;
+    }
+
+    /**
+     * Politica por defecto: TTL corto porque los turnos incluyen datos de
+     * clientes y servicios y pueden ser modificados desde otras terminales.
+     *
+     * @return Una nueva politica con la configuracion por defecto
+     */
+    public static PoliticaCache politicaPorDefecto() {
+        return new PoliticaCache()
+            .cachear(BUSCAR_POR_ID, Duration.ofSeconds(20), 200)
+            .cachear(BUSCAR_TODOS, Duration.ofSeconds(20), 1)
+            .cachear(BUSCAR_POR_FECHA, Duration.ofSeconds(20), 31)
+            .cachear(BUSCAR_POR_CLIENTE, Duration.ofSeconds(20), 50)
+            .cachear(BUSCAR_POR_ESTADO, Duration.ofSeconds(20), 10)
+            .invalidar(CREAR, LECTURAS)
+            .invalidar(ACTUALIZAR, LECTURAS)
+            .invalidar(ELIMINAR, LECTURAS)
+            .invalidar(ACTUALIZAR_NOTAS_EN_LOTE, LECTURAS)
+            .invalidar(CREAR_EN_LOTE, LECTURAS)
+            .invalidar(REPROGRAMAR_EN_LOTE, LECTURAS);
+    }
+
+    @Override
+    public void crear(Turno turno) throws DAOException {
+        escribir(CREAR, () -> delegado.crear(turno));
+    }
+
+    @Override
+    public Turno buscarPorId(int id) throws DAOException {
+        return leer(BUSCAR_POR_ID, () -> delegado.buscarPorId(id), id);
+    }
+
+    @Override
+    public List<Turno> buscarTodos() throws DAOException {
+        return new ArrayList<>(leer(BUSCAR_TODOS, delegado::buscarTodos, BUSCAR_TODOS));
+    }
+
+    @Override
+    public int contarTodos() throws DAOException {
+        return delegado.contarTodos();
+    }
+
+    @Override
+    public void recorrerTodos(LectorFila lector) throws DAOException {
+        // Un recorrido completo no se guarda: justamente evita tener todos los turnos en memoria
+        delegado.recorrerTodos(lector);
+    }
+
+    @Override
+    public List<Turno> buscarAnclasPagina(int cada) throws DAOException {
+        return delegado.buscarAnclasPagina(cada);
+    }
+
+    @Override
+    public List<Turno> buscarPagina(LocalDateTime fechaHora, int id, int saltear, int cantidad) throws DAOException {
+        return delegado.buscarPagina(fechaHora, id, saltear, cantidad);
+    }
+
+    @Override
+    public List<Turno> buscarPorFecha(LocalDate fecha) throws DAOException {
+        return new ArrayList<>(leer(BUSCAR_POR_FECHA, () -> delegado.buscarPorFecha(fecha), fecha));
+    }
+
+    @Override
+    public List<Turno> buscarPorRango(LocalDateTime desde, LocalDateTime hasta) throws DAOException {
+        return delegado.buscarPorRango(desde, hasta);
+    }
+
+    @Override
+    public CambiosTurnos buscarCambiosDelDia(LocalDate fecha, LocalDateTime desde) throws DAOException {
+        return delegado.buscarCambiosDelDia(fecha, desde);
+    }
+
+    @Override
+    public List<Turno> buscarPorCliente(int clienteId) throws DAOException {
+        return new ArrayList<>(leer(BUSCAR_POR_CLIENTE, () -> delegado.buscarPorCliente(clienteId), clienteId));
+    }
+
+    @Override
+    public List<Turno> buscarPorEstado(String estado) throws DAOException {
+        return new ArrayList<>(leer(BUSCAR_POR_ESTADO, () -> delegado.buscarPorEstado(estado), estado));
+    }
+
+    @Override
+    public void actualizar(Turno turno) throws DAOException {
+        escribir(ACTUALIZAR, () -> delegado.actualizar(turno));
+    }
+
+    @Override
+    public void eliminar(int id) throws DAOException {
+        escribir(ELIMINAR, () -> delegado.eliminar(id));
+    }
+
+    @Override
+    public boolean existeTurnoEnFechaHora(int servicioId, LocalDateTime fechaHora) throws DAOException {
+        return delegado.existeTurnoEnFechaHora(servicioId, fechaHora);
+    }
+
+    @Override
+    public boolean existeSolapamientoProfesional(int profesionalId, LocalDateTime inicio, LocalDateTime fin,
+            int turnoExcluidoId) throws DAOException {
+        return delegado.existeSolapamientoProfesional(profesionalId, inicio, fin, turnoExcluidoId);
+    }
+
+    @Override
+    public List<Integer> actualizarNotasEnLote(Map<Integer, String> notasPorTurno,
+            Map<Integer, Integer> versionPorTurno) throws DAOException {
+        List<Integer> enConflicto = new ArrayList<>();
+        escribir(ACTUALIZAR_NOTAS_EN_LOTE,
+            () -> enConflicto.addAll(delegado.actualizarNotasEnLote(notasPorTurno, versionPorTurno)));
+        return enConflicto;
+    }
+
+    @Override
+    public void crearEnLote(List<Turno> turnos) throws DAOException {
+        escribir(CREAR_EN_LOTE, () -> delegado.crearEnLote(turnos));
+    }
+
+    @Override
+    public void reprogramarEnLote(List<Turno> turnos) throws DAOException {
+        escribir(REPROGRAMAR_EN_LOTE, () -> delegado.reprogramarEnLote(turnos));
+    }
+}
\ No newline at end of file
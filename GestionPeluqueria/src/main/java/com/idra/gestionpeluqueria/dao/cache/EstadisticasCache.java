@@ -0,0 +1,45 @@
+package com.idra.gestionpeluqueria.dao.cache;
+
+/**
+ * Fotografia de las estadisticas de uso de la cache de un metodo.
+ *
+ * @author Idra
+ */
+public class EstadisticasCache {
+    private final long aciertos;
+    private final long fallos;
+    private final int entradas;
+
+    /**
+     * Constructor con los contadores de la region.
+     *
+     * @param aciertos Cantidad de lecturas resueltas desde la cache
+     * @param fallos Cantidad de lecturas que tuvieron que ir a la base de datos
+     * @param entradas Cantidad de entradas almacenadas actualmente
+     */
+    public EstadisticasCache(long aciertos, long fallos, int entradas) {
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.entradas = entradas;
+    }
+
+    public long getAciertos() { return aciertos; }
+    public long getFallos() { return fallos; }
+    public int getEntradas() { return entradas; }
+
+    /**
+     * Calcula la proporcion de lecturas resueltas desde la cache.
+     *
+     * @return Valor entre 0 y 1, o 0 si todavia no hubo lecturas
+     */
+    public double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0.0 : (double) aciertos / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("aciertos=%d, fallos=%d, entradas=%d, tasa=%.1f%%",
+            aciertos, fallos, entradas, getTasaAciertos() * 100);
+    }
+}
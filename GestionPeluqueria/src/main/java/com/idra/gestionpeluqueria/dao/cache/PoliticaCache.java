@@ -0,0 +1,78 @@
+package com.idra.gestionpeluqueria.dao.cache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Politica de cache para los decoradores de DAO.
+ * Declara, metodo por metodo, que lecturas se guardan en cache (con su
+ * tiempo de vida y cantidad maxima de entradas) y que escrituras
+ * invalidan que lecturas.
+ *
+ * @author Idra
+ */
+public class PoliticaCache {
+    private final Map<String, ReglaLectura> lecturas = new HashMap<>();
+    private final Map<String, Set<String>> invalidaciones = new HashMap<>();
+
+    /**
+     * Declara que un metodo de lectura debe guardarse en cache.
+     *
+     * @param metodo Nombre del metodo de lectura
+     * @param ttl Tiempo de vida de cada entrada
+     * @param maxEntradas Cantidad maxima de entradas antes de descartar las menos usadas
+     * @return La misma politica, para encadenar llamadas
+     */
+    public PoliticaCache cachear(String metodo, Duration ttl, int maxEntradas) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("El TTL de " + metodo + " debe ser positivo");
+        }
+        if (maxEntradas <= 0) {
+            throw new IllegalArgumentException("El tamaño maximo de " + metodo + " debe ser positivo");
+        }
+        lecturas.put(metodo, new ReglaLectura(ttl, maxEntradas));
+        return this;
+    }
+
+    /**
+     * Declara que lecturas deben descartarse cuando se ejecuta una escritura.
+     *
+     * @param metodoEscritura Nombre del metodo de escritura
+     * @param metodosLectura Nombres de los metodos de lectura a invalidar
+     * @return La misma politica, para encadenar llamadas
+     */
+    public PoliticaCache invalidar(String metodoEscritura, String... metodosLectura) {
+        Set<String> destinos = invalidaciones.computeIfAbsent(metodoEscritura, k -> new LinkedHashSet<>());
+        Collections.addAll(destinos, metodosLectura);
+        return this;
+    }
+
+    ReglaLectura getRegla(String metodo) {
+        return lecturas.get(metodo);
+    }
+
+    Set<String> getMetodosCacheados() {
+        return Collections.unmodifiableSet(lecturas.keySet());
+    }
+
+    Set<String> getInvalidaciones(String metodoEscritura) {
+        return invalidaciones.getOrDefault(metodoEscritura, Collections.emptySet());
+    }
+
+    /**
+     * Configuracion de cache de un metodo de lectura.
+     */
+    static final class ReglaLectura {
+        final Duration ttl;
+        final int maxEntradas;
+
+        ReglaLectura(Duration ttl, int maxEntradas) {
+            this.ttl = ttl;
+            this.maxEntradas = maxEntradas;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.idra.gestionpeluqueria.dao.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache LRU con expiracion por tiempo para un unico metodo de lectura.
+ * Lleva la cuenta de aciertos y fallos para calcular la tasa de aciertos.
+ *
+ * Cada limpieza cambia la epoca de la region. Una lectura que empezo antes
+ * de una limpieza no guarda su valor, que puede no incluir la escritura que
+ * la provoco.
+ *
+ * @author Idra
+ */
+class RegionCache {
+    private final long ttlNanos;
+    private final LinkedHashMap<Object, Entrada> entradas;
+    private long aciertos;
+    private long fallos;
+    private long epoca;
+
+    RegionCache(PoliticaCache.ReglaLectura regla) {
+        this.ttlNanos = regla.ttl.toNanos();
+        final int maxEntradas = regla.maxEntradas;
+        this.entradas = new LinkedHashMap<Object, Entrada>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entrada> eldest) {
+                return size() > maxEntradas;
+            }
+        };
+    }
+
+    /**
+     * Busca un valor vigente en la region.
+     *
+     * @return La entrada encontrada o null si no existe o ya expiro
+     */
+    synchronized Entrada obtener(Object clave) {
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null && System.nanoTime() - entrada.creadaEn > ttlNanos) {
+            entradas.remove(clave);
+            entrada = null;
+        }
+        if (entrada == null) {
+            fallos++;
+        } else {
+            aciertos++;
+        }
+        return entrada;
+    }
+
+    /**
+     * @return La epoca actual, a tomar antes de leer el valor a guardar
+     */
+    synchronized long getEpoca() {
+        return epoca;
+    }
+
+    /**
+     * Guarda un valor leido, salvo que la region se haya limpiado desde que
+     * empezo la lectura.
+     *
+     * @param epocaLectura Epoca tomada antes de la lectura
+     */
+    synchronized void guardar(Object clave, Object valor, long epocaLectura) {
+        if (epocaLectura == epoca) {
+            entradas.put(clave, new Entrada(valor));
+        }
+    }
+
+    synchronized void limpiar() {
+        epoca++;
+        entradas.clear();
+    }
+
+    synchronized EstadisticasCache getEstadisticas() {
+        return new EstadisticasCache(aciertos, fallos, entradas.size());
+    }
+
+    /**
+     * Valor almacenado junto con el instante en que se cargo.
+     * Permite distinguir un resultado null cacheado de una ausencia.
+     */
+    static final class Entrada {
+        final Object valor;
+        final long creadaEn;
+
+        Entrada(Object valor) {
+            this.valor = valor;
+            this.creadaEn = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.idra.gestionpeluqueria.dao.impl;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Lo que un turno suma en la tabla resumen_diario: su fecha, forma de pago,
+ * tipo de servicio y monto cobrado.
+ *
+ * Los DAOs que escriben turnos leen el aporte anterior con la fila
+ * bloqueada, hacen el cambio y corrigen el resumen en la misma transaccion,
+ * restando lo viejo y sumando lo nuevo. Solo cuentan los turnos pagados,
+ * igual que en la reconstruccion de ResumenDiarioDAOImpl.
+ *
+ * @author Idra
+ */
+final class AporteResumen {
+
+    // La clave primaria del resumen no admite nulos
+    static final String SIN_FORMA_PAGO = "NINGUNA";
+
+    static final String GROUP_BY_RESUMEN = " GROUP BY DATE(t.fecha_hora), COALESCE(t.forma_pago, '"
+        + SIN_FORMA_PAGO + "'), s.tipo_servicio";
+
+    static final String INSERT_RESUMEN =
+        "INSERT INTO resumen_diario (fecha, forma_pago, tipo_servicio, cantidad_turnos, total_cobrado) ";
+    static final String SUMAR_SI_EXISTE =
+        " ON DUPLICATE KEY UPDATE cantidad_turnos = cantidad_turnos + VALUES(cantidad_turnos), "
+        + "total_cobrado = total_cobrado + VALUES(total_cobrado)";
+
+    private static final String SELECT_APORTE =
+        "SELECT t.id, t.fecha_hora, t.estado_pago, t.forma_pago, t.monto_pagado, s.tipo_servicio "
+        + "FROM turnos t JOIN servicios s ON s.id = t.servicio_id ";
+
+    /**
+     * Arma el SELECT que agrupa los turnos pagados como filas del resumen.
+     * Es el mismo criterio para la reconstruccion y para los ajustes en
+     * bloque; termina en "AND " para que se agregue la condicion.
+     *
+     * @param factor Prefijo de la cantidad y el total, por ejemplo "? * " para cambiarles el signo
+     */
+    static String selectCobrados(String factor) {
+        return "SELECT DATE(t.fecha_hora), COALESCE(t.forma_pago, '" + SIN_FORMA_PAGO + "'), s.tipo_servicio, "
+            + factor + "COUNT(*), " + factor + "SUM(t.monto_pagado) "
+            + "FROM turnos t JOIN servicios s ON s.id = t.servicio_id "
+            + "WHERE t.estado_pago = 'PAGADO' AND ";
+    }
+
+    private final LocalDate fecha;
+    private final String formaPago;
+    private final String tipoServicio;
+    private final double monto;
+    private final boolean cobrado;
+
+    private AporteResumen(LocalDate fecha, String formaPago, String tipoServicio, double monto, boolean cobrado) {
+        this.fecha = fecha;
+        this.formaPago = formaPago;
+        this.tipoServicio = tipoServicio;
+        this.monto = monto;
+        this.cobrado = cobrado;
+    }
+
+    /**
+     * Lee el aporte actual de un turno y bloquea su fila hasta el fin de la
+     * transaccion.
+     *
+     * @return El aporte, o null si el turno no existe
+     */
+    static AporteResumen leer(Connection conn, int turnoId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_APORTE + "WHERE t.id = ? FOR UPDATE")) {
+            stmt.setInt(1, turnoId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? desdeFila(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Variante de {@link #leer} para varios turnos en una sola consulta.
+     *
+     * @return Los aportes por ID de turno; los que no existen no aparecen
+     */
+    static Map<Integer, AporteResumen> leerVarios(Connection conn, Collection<Integer> turnoIds) throws SQLException {
+        Map<Integer, AporteResumen> aportes = new HashMap<>();
+        if (turnoIds.isEmpty()) {
+            return aportes;
+        }
+        String marcas = String.join(", ", Collections.nCopies(turnoIds.size(), "?"));
+        try (PreparedStatement stmt = conn.prepareStatement(
+                SELECT_APORTE + "WHERE t.id IN (" + marcas + ") FOR UPDATE")) {
+            int i = 1;
+            for (Integer id : turnoIds) {
+                stmt.setInt(i++, id);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    aportes.put(rs.getInt("id"), desdeFila(rs));
+                }
+            }
+        }
+        return aportes;
+    }
+
+    private static AporteResumen desdeFila(ResultSet rs) throws SQLException {
+        String formaPago = rs.getString("forma_pago");
+        return new AporteResumen(
+            rs.getTimestamp("fecha_hora").toLocalDateTime().toLocalDate(),
+            formaPago != null ? formaPago : SIN_FORMA_PAGO,
+            rs.getString("tipo_servicio"),
+            rs.getDouble("monto_pagado"),
+            "PAGADO".equals(rs.getString("estado_pago")));
+    }
+
+    /**
+     * El mismo aporte movido a otra fecha y hora.
+     */
+    AporteResumen movidoA(LocalDateTime fechaHora) {
+        return new AporteResumen(fechaHora.toLocalDate(), formaPago, tipoServicio, monto, cobrado);
+    }
+
+    /**
+     * Reemplaza en el resumen el aporte anterior por el nuevo. No escribe
+     * nada si ambos suman lo mismo en la misma fila.
+     *
+     * @param anterior El aporte antes del cambio, o null si el turno es nuevo
+     * @param nuevo El aporte despues del cambio, o null si el turno se borro
+     */
+    static void reemplazar(Connection conn, AporteResumen anterior, AporteResumen nuevo) throws SQLException {
+        if (Objects.equals(anterior, nuevo)) {
+            return;
+        }
+        if (anterior != null) {
+            anterior.sumar(conn, -1);
+        }
+        if (nuevo != null) {
+            nuevo.sumar(conn, 1);
+        }
+    }
+
+    private void sumar(Connection conn, int signo) throws SQLException {
+        if (!cobrado) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_RESUMEN + "VALUES (?, ?, ?, ?, ?)" + SUMAR_SI_EXISTE)) {
+            stmt.setDate(1, Date.valueOf(fecha));
+            stmt.setString(2, formaPago);
+            stmt.setString(3, tipoServicio);
+            stmt.setInt(4, signo);
+            stmt.setDouble(5, signo * monto);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Suma o resta en el resumen todos los turnos pagados que cumplen una
+     * condicion, agrupados en la base. Se usa antes de borrar un cliente o
+     * un servicio, cuyos turnos se eliminan en cascada, y al cambiar el tipo
+     * de un servicio.
+     *
+     * @param condicion Condicion sobre el alias t de turnos, con un unico parametro entero
+     * @param valor El valor del parametro
+     * @param signo 1 para sumar, -1 para restar
+     */
+    static void sumarTurnos(Connection conn, String condicion, int valor, int signo) throws SQLException {
+        String sql = INSERT_RESUMEN + selectCobrados("? * ") + condicion + GROUP_BY_RESUMEN + SUMAR_SI_EXISTE;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, signo);
+            stmt.setInt(2, signo);
+            stmt.setInt(3, valor);
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof AporteResumen)) {
+            return false;
+        }
+        AporteResumen otro = (AporteResumen) obj;
+        if (!cobrado || !otro.cobrado) {
+            // Lo que no se cobro no suma en ninguna fila
+            return cobrado == otro.cobrado;
+        }
+        return fecha.equals(otro.fecha) && formaPago.equals(otro.formaPago)
+            && Objects.equals(tipoServicio, otro.tipoServicio) && Double.compare(monto, otro.monto) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return cobrado ? Objects.hash(fecha, formaPago, tipoServicio, monto) : 0;
+    }
+}
@@ -0,0 +1,161 @@
+package com.idra.gestionpeluqueria.dao.impl;
+
+import com.idra.gestionpeluqueria.config.DatabaseConfig;
+import com.idra.gestionpeluqueria.dao.ListaEsperaDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.Cliente;
+import com.idra.gestionpeluqueria.model.Servicio;
+import com.idra.gestionpeluqueria.model.SolicitudEspera;
+import com.idra.gestionpeluqueria.model.enums.EstadoEspera;
+import com.idra.gestionpeluqueria.model.enums.TipoServicio;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementacion de la interfaz ListaEsperaDAO para MySQL. Las lecturas
+ * traen el nombre del cliente y los datos del servicio con un join.
+ *
+ * @author Idra
+ */
+public class ListaEsperaDAOImpl implements ListaEsperaDAO {
+
+    private static final String SELECT =
+        "SELECT e.*, c.nombre as cliente_nombre, c.apellido as cliente_apellido, c.telefono as cliente_telefono, " +
+        "s.nombre as servicio_nombre, s.precio as servicio_precio, s.duracion_minutos as servicio_duracion, " +
+        "s.tipo_servicio as servicio_tipo " +
+        "FROM lista_espera e " +
+        "INNER JOIN clientes c ON e.cliente_id = c.id " +
+        "INNER JOIN servicios s ON e.servicio_id = s.id ";
+
+    private Connection getConnection() throws SQLException {
+        return DatabaseConfig.getInstance().abrirConexion();
+    }
+
+    @Override
+    public void crear(SolicitudEspera solicitud) throws DAOException {
+        String sql = "INSERT INTO lista_espera (cliente_id, servicio_id, fecha_desde, fecha_hasta, hora_desde, hora_hasta, estado, fecha_registro) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setInt(1, solicitud.getCliente().getId());
+            stmt.setInt(2, solicitud.getServicio().getId());
+            stmt.setDate(3, Date.valueOf(solicitud.getFechaDesde()));
+            stmt.setDate(4, Date.valueOf(solicitud.getFechaHasta()));
+            stmt.setTime(5, Time.valueOf(solicitud.getHoraDesde()));
+            stmt.setTime(6, Time.valueOf(solicitud.getHoraHasta()));
+            stmt.setString(7, solicitud.getEstado().name());
+            stmt.setTimestamp(8, Timestamp.valueOf(solicitud.getFechaRegistro()));
+            stmt.executeUpdate();
+
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (!generatedKeys.next()) {
+                    throw new DAOException("Error al obtener ID generado para la solicitud de espera.");
+                }
+                solicitud.setId(generatedKeys.getInt(1));
+            }
+
+        } catch (SQLException e) {
+            throw new DAOException("Error al crear solicitud de espera en la base de datos", e);
+        }
+    }
+
+    @Override
+    public SolicitudEspera buscarPorId(int id) throws DAOException {
+        List<SolicitudEspera> encontradas = buscar("WHERE e.id = ?", id);
+        return encontradas.isEmpty() ? null : encontradas.get(0);
+    }
+
+    @Override
+    public List<SolicitudEspera> buscarVigentes() throws DAOException {
+        return buscar("WHERE e.estado IN ('PENDIENTE', 'OFRECIDA') AND e.fecha_hasta >= CURDATE() " +
+                      "ORDER BY e.fecha_registro, e.id");
+    }
+
+    @Override
+    public void actualizarEstadoEnLote(List<SolicitudEspera> solicitudes) throws DAOException {
+        if (solicitudes.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE lista_espera SET estado = ?, fecha_hora_ofrecida = ? WHERE id = ?";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            conn.setAutoCommit(false);
+            try {
+                for (SolicitudEspera solicitud : solicitudes) {
+                    stmt.setString(1, solicitud.getEstado().name());
+                    if (solicitud.getFechaHoraOfrecida() != null) {
+                        stmt.setTimestamp(2, Timestamp.valueOf(solicitud.getFechaHoraOfrecida()));
+                    } else {
+                        stmt.setNull(2, Types.TIMESTAMP);
+                    }
+                    stmt.setInt(3, solicitud.getId());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            throw new DAOException("Error al actualizar " + solicitudes.size() + " solicitudes de espera", e);
+        }
+    }
+
+    private List<SolicitudEspera> buscar(String condicion, Object... parametros) throws DAOException {
+        List<SolicitudEspera> solicitudes = new ArrayList<>();
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT + condicion)) {
+
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setObject(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    solicitudes.add(mapResultSetToSolicitud(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar solicitudes de espera", e);
+        }
+
+        return solicitudes;
+    }
+
+    private SolicitudEspera mapResultSetToSolicitud(ResultSet rs) throws SQLException {
+        SolicitudEspera solicitud = new SolicitudEspera();
+        solicitud.setId(rs.getInt("id"));
+
+        Cliente cliente = new Cliente();
+        cliente.setId(rs.getInt("cliente_id"));
+        cliente.setNombre(rs.getString("cliente_nombre"));
+        cliente.setApellido(rs.getString("cliente_apellido"));
+        cliente.setTelefono(rs.getString("cliente_telefono"));
+        solicitud.setCliente(cliente);
+
+        Servicio servicio = new Servicio();
+        servicio.setId(rs.getInt("servicio_id"));
+        servicio.setNombre(rs.getString("servicio_nombre"));
+        servicio.setPrecio(rs.getDouble("servicio_precio"));
+        servicio.setDuracionMinutos(rs.getInt("servicio_duracion"));
+        servicio.setTipoServicio(TipoServicio.valueOf(rs.getString("servicio_tipo")));
+        solicitud.setServicio(servicio);
+
+        solicitud.setFechaDesde(rs.getDate("fecha_desde").toLocalDate());
+        solicitud.setFechaHasta(rs.getDate("fecha_hasta").toLocalDate());
+        solicitud.setHoraDesde(rs.getTime("hora_desde").toLocalTime());
+        solicitud.setHoraHasta(rs.getTime("hora_hasta").toLocalTime());
+        solicitud.setEstado(EstadoEspera.valueOf(rs.getString("estado")));
+        Timestamp ofrecida = rs.getTimestamp("fecha_hora_ofrecida");
+        solicitud.setFechaHoraOfrecida(ofrecida != null ? ofrecida.toLocalDateTime() : null);
+        solicitud.setFechaRegistro(rs.getTimestamp("fecha_registro").toLocalDateTime());
+        return solicitud;
+    }
+}
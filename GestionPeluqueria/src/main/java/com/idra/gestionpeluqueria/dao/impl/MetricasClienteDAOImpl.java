@@ -0,0 +1,126 @@
+package com.idra.gestionpeluqueria.dao.impl;
+
+import com.idra.gestionpeluqueria.config.DatabaseConfig;
+import com.idra.gestionpeluqueria.dao.MetricasClienteDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.Cliente;
+import com.idra.gestionpeluqueria.model.MetricasCliente;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementacion de la interfaz MetricasClienteDAO para MySQL.
+ *
+ * Las listas de mejores clientes y de ausentes se resuelven recorriendo los
+ * indices idx_total_pagado e idx_ultima_visita de cliente_metricas, y solo
+ * se leen los clientes que entran en el limite.
+ *
+ * @author Idra
+ */
+public class MetricasClienteDAOImpl implements MetricasClienteDAO {
+
+    private static final String SELECT_METRICAS =
+        "SELECT m.*, c.nombre, c.apellido, c.telefono " +
+        "FROM cliente_metricas m JOIN clientes c ON c.id = m.cliente_id ";
+
+    private Connection getConnection() throws SQLException {
+        return DatabaseConfig.getInstance().abrirConexion();
+    }
+
+    @Override
+    public MetricasCliente buscarPorCliente(int clienteId) throws DAOException {
+        String sql = SELECT_METRICAS + "WHERE m.cliente_id = ?";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, clienteId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapResultSetToMetricas(rs) : null;
+            }
+
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar las metricas del cliente con ID: " + clienteId, e);
+        }
+    }
+
+    @Override
+    public List<MetricasCliente> buscarMejores(int limite) throws DAOException {
+        String sql = SELECT_METRICAS + "ORDER BY m.total_pagado DESC LIMIT ?";
+        List<MetricasCliente> metricas = new ArrayList<>();
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, limite);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    metricas.add(mapResultSetToMetricas(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar los mejores clientes", e);
+        }
+        return metricas;
+    }
+
+    @Override
+    public List<MetricasCliente> buscarAusentes(LocalDate sinVisitasDesde, int limite) throws DAOException {
+        String sql = SELECT_METRICAS + "WHERE m.ultima_visita < ? ORDER BY m.ultima_visita DESC LIMIT ?";
+        List<MetricasCliente> metricas = new ArrayList<>();
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(sinVisitasDesde.atStartOfDay()));
+            stmt.setInt(2, limite);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    metricas.add(mapResultSetToMetricas(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar los clientes sin visitas desde " + sinVisitasDesde, e);
+        }
+        return metricas;
+    }
+
+    @Override
+    public int reconstruir() throws DAOException {
+        String insertar = VisitaCliente.INSERT_METRICAS + VisitaCliente.SELECT_METRICAS + "TRUE"
+            + VisitaCliente.GROUP_BY_METRICAS;
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM cliente_metricas");
+                int filas = stmt.executeUpdate(insertar);
+                conn.commit();
+                return filas;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            throw new DAOException("Error al reconstruir las metricas de clientes", e);
+        }
+    }
+
+    private MetricasCliente mapResultSetToMetricas(ResultSet rs) throws SQLException {
+        Cliente cliente = new Cliente();
+        cliente.setId(rs.getInt("cliente_id"));
+        cliente.setNombre(rs.getString("nombre"));
+        cliente.setApellido(rs.getString("apellido"));
+        cliente.setTelefono(rs.getString("telefono"));
+        return new MetricasCliente(cliente,
+            rs.getInt("visitas"),
+            rs.getDouble("total_pagado"),
+            rs.getTimestamp("primera_visita").toLocalDateTime(),
+            rs.getTimestamp("ultima_visita").toLocalDateTime());
+    }
+}
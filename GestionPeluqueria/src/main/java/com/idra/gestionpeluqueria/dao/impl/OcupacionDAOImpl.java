@@ -0,0 +1,75 @@
+package com.idra.gestionpeluqueria.dao.impl;
+
+import com.idra.gestionpeluqueria.config.DatabaseConfig;
+import com.idra.gestionpeluqueria.dao.OcupacionDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.MapaOcupacion;
+import com.idra.gestionpeluqueria.model.enums.TipoServicio;
+import java.sql.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * Implementacion de la interfaz OcupacionDAO para MySQL.
+ *
+ * La consulta recorre la clave primaria de ocupacion_horaria por fecha y
+ * devuelve a lo sumo una fila por dia de la semana, hora y tipo de
+ * servicio, sin importar cuantos turnos haya en el periodo.
+ *
+ * @author Idra
+ */
+public class OcupacionDAOImpl implements OcupacionDAO {
+
+    private Connection getConnection() throws SQLException {
+        return DatabaseConfig.getInstance().abrirConexion();
+    }
+
+    @Override
+    public MapaOcupacion buscarPorRango(LocalDate desde, LocalDate hasta) throws DAOException {
+        String sql = "SELECT DAYOFWEEK(fecha) AS dia, hora, tipo_servicio, SUM(minutos_reservados) AS minutos "
+            + "FROM ocupacion_horaria WHERE fecha BETWEEN ? AND ? "
+            + "GROUP BY DAYOFWEEK(fecha), hora, tipo_servicio";
+        MapaOcupacion mapa = new MapaOcupacion(desde, hasta);
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(desde));
+            stmt.setDate(2, Date.valueOf(hasta));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // DAYOFWEEK numera desde el domingo (1) hasta el sabado (7)
+                    mapa.sumar(DayOfWeek.SUNDAY.plus(rs.getInt("dia") - 1),
+                        rs.getInt("hora"),
+                        TipoServicio.valueOf(rs.getString("tipo_servicio")),
+                        rs.getLong("minutos"));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar la ocupacion entre " + desde + " y " + hasta, e);
+        }
+        return mapa;
+    }
+
+    @Override
+    public int reconstruir() throws DAOException {
+        String insertar = OcupacionTurno.INSERT_OCUPACION + OcupacionTurno.selectReservados("", "TRUE");
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM ocupacion_horaria");
+                int filas = stmt.executeUpdate(insertar);
+                conn.commit();
+                return filas;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            throw new DAOException("Error al reconstruir la ocupacion por hora", e);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.idra.gestionpeluqueria.dao.impl;
+
+import com.idra.gestionpeluqueria.model.MapaOcupacion;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Lo que un turno ocupa en la tabla ocupacion_horaria: los minutos de su
+ * servicio repartidos entre las horas que abarca, en la fila de su tipo de
+ * servicio.
+ *
+ * Igual que con AporteResumen, los DAOs que escriben turnos leen la
+ * ocupacion anterior con la fila bloqueada, hacen el cambio y corrigen la
+ * tabla en la misma transaccion, restando lo viejo y sumando lo nuevo. Los
+ * turnos cancelados no ocupan; los ausentes si, porque el horario quedo
+ * reservado.
+ *
+ * @author Idra
+ */
+final class OcupacionTurno {
+
+    static final String INSERT_OCUPACION =
+        "INSERT INTO ocupacion_horaria (fecha, hora, tipo_servicio, minutos_reservados) ";
+    static final String SUMAR_SI_EXISTE =
+        " ON DUPLICATE KEY UPDATE minutos_reservados = minutos_reservados + VALUES(minutos_reservados)";
+
+    // Desplazamientos desde la hora de inicio; alcanza para servicios de hasta un dia
+    private static final String HORAS = IntStream.range(0, 24)
+        .mapToObj(n -> "SELECT " + n + " AS n")
+        .collect(Collectors.joining(" UNION ALL "));
+
+    private static final String SELECT_OCUPACION =
+        "SELECT t.id, t.fecha_hora, t.estado, s.duracion_minutos, s.tipo_servicio "
+        + "FROM turnos t JOIN servicios s ON s.id = t.servicio_id ";
+
+    /**
+     * Arma el SELECT que reparte por hora los turnos que cumplen una
+     * condicion, con el mismo criterio que {@link MapaOcupacion#repartir}.
+     * Es el mismo para la reconstruccion y para los ajustes en bloque.
+     *
+     * @param factor Prefijo de los minutos, por ejemplo "? * " para cambiarles el signo
+     * @param condicion Condicion sobre el alias t de turnos
+     */
+    static String selectReservados(String factor, String condicion) {
+        return "SELECT DATE(b.hora), HOUR(b.hora), b.tipo_servicio, " + factor
+            + "SUM(TIMESTAMPDIFF(MINUTE, GREATEST(b.inicio, b.hora), LEAST(b.fin, b.hora + INTERVAL 1 HOUR))) "
+            + "FROM (SELECT t.fecha_hora AS inicio, t.fecha_hora + INTERVAL s.duracion_minutos MINUTE AS fin, "
+            + "s.tipo_servicio, TIMESTAMP(DATE(t.fecha_hora), MAKETIME(HOUR(t.fecha_hora), 0, 0)) + INTERVAL h.n HOUR AS hora "
+            + "FROM turnos t JOIN servicios s ON s.id = t.servicio_id "
+            + "JOIN (" + HORAS + ") h ON h.n * 60 < MINUTE(t.fecha_hora) + s.duracion_minutos "
+            + "WHERE t.estado <> 'CANCELADO' AND " + condicion + ") b "
+            + "GROUP BY DATE(b.hora), HOUR(b.hora), b.tipo_servicio";
+    }
+
+    private final LocalDateTime inicio;
+    private final int duracionMinutos;
+    private final String tipoServicio;
+    private final boolean reservado;
+
+    private OcupacionTurno(LocalDateTime inicio, int duracionMinutos, String tipoServicio, boolean reservado) {
+        this.inicio = inicio;
+        this.duracionMinutos = duracionMinutos;
+        this.tipoServicio = tipoServicio;
+        this.reservado = reservado;
+    }
+
+    /**
+     * Lee la ocupacion actual de un turno y bloquea su fila hasta el fin de
+     * la transaccion.
+     *
+     * @return La ocupacion, o null si el turno no existe
+     */
+    static OcupacionTurno leer(Connection conn, int turnoId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_OCUPACION + "WHERE t.id = ? FOR UPDATE")) {
+            stmt.setInt(1, turnoId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? desdeFila(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Variante de {@link #leer} para varios turnos en una sola consulta.
+     *
+     * @return Las ocupaciones por ID de turno; los que no existen no aparecen
+     */
+    static Map<Integer, OcupacionTurno> leerVarias(Connection conn, Collection<Integer> turnoIds) throws SQLException {
+        Map<Integer, OcupacionTurno> ocupaciones = new HashMap<>();
+        if (turnoIds.isEmpty()) {
+            return ocupaciones;
+        }
+        String marcas = String.join(", ", Collections.nCopies(turnoIds.size(), "?"));
+        try (PreparedStatement stmt = conn.prepareStatement(
+                SELECT_OCUPACION + "WHERE t.id IN (" + marcas + ") FOR UPDATE")) {
+            int i = 1;
+            for (Integer id : turnoIds) {
+                stmt.setInt(i++, id);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ocupaciones.put(rs.getInt("id"), desdeFila(rs));
+                }
+            }
+        }
+        return ocupaciones;
+    }
+
+    private static OcupacionTurno desdeFila(ResultSet rs) throws SQLException {
+        return new OcupacionTurno(
+            rs.getTimestamp("fecha_hora").toLocalDateTime(),
+            rs.getInt("duracion_minutos"),
+            rs.getString("tipo_servicio"),
+            !"CANCELADO".equals(rs.getString("estado")));
+    }
+
+    /**
+     * La misma ocupacion movida a otra fecha y hora.
+     */
+    OcupacionTurno movidaA(LocalDateTime fechaHora) {
+        return new OcupacionTurno(fechaHora, duracionMinutos, tipoServicio, reservado);
+    }
+
+    /**
+     * Reemplaza en la tabla la ocupacion anterior por la nueva. No escribe
+     * nada si ambas ocupan lo mismo.
+     *
+     * @param anterior La ocupacion antes del cambio, o null si el turno es nuevo
+     * @param nuevo La ocupacion despues del cambio, o null si el turno se borro
+     */
+    static void reemplazar(Connection conn, OcupacionTurno anterior, OcupacionTurno nuevo) throws SQLException {
+        if (Objects.equals(anterior, nuevo)) {
+            return;
+        }
+        if (anterior != null) {
+            anterior.sumar(conn, -1);
+        }
+        if (nuevo != null) {
+            nuevo.sumar(conn, 1);
+        }
+    }
+
+    private void sumar(Connection conn, int signo) throws SQLException {
+        if (!reservado) {
+            return;
+        }
+        Map<LocalDateTime, Long> porHora = new LinkedHashMap<>();
+        MapaOcupacion.repartir(inicio, duracionMinutos, porHora::put);
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_OCUPACION + "VALUES (?, ?, ?, ?)" + SUMAR_SI_EXISTE)) {
+            for (Map.Entry<LocalDateTime, Long> hora : porHora.entrySet()) {
+                stmt.setDate(1, Date.valueOf(hora.getKey().toLocalDate()));
+                stmt.setInt(2, hora.getKey().getHour());
+                stmt.setString(3, tipoServicio);
+                stmt.setLong(4, signo * hora.getValue());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Suma o resta en la tabla la ocupacion de todos los turnos que cumplen
+     * una condicion, agrupada en la base. Se usa antes de borrar un cliente o
+     * un servicio, cuyos turnos se eliminan en cascada, y al cambiar el tipo
+     * o la duracion de un servicio.
+     *
+     * @param condicion Condicion sobre el alias t de turnos, con un unico parametro entero
+     * @param valor El valor del parametro
+     * @param signo 1 para sumar, -1 para restar
+     */
+    static void sumarTurnos(Connection conn, String condicion, int valor, int signo) throws SQLException {
+        String sql = INSERT_OCUPACION + selectReservados("? * ", condicion) + SUMAR_SI_EXISTE;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, signo);
+            stmt.setInt(2, valor);
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof OcupacionTurno)) {
+            return false;
+        }
+        OcupacionTurno otra = (OcupacionTurno) obj;
+        if (!reservado || !otra.reservado) {
+            // Un turno cancelado no ocupa ninguna hora
+            return reservado == otra.reservado;
+        }
+        return inicio.equals(otra.inicio) && duracionMinutos == otra.duracionMinutos
+            && Objects.equals(tipoServicio, otra.tipoServicio);
+    }
+
+    @Override
+    public int hashCode() {
+        return reservado ? Objects.hash(inicio, duracionMinutos, tipoServicio) : 0;
+    }
+}
@@ -0,0 +1,219 @@
+package com.idra.gestionpeluqueria.dao.impl;
+
+import com.idra.gestionpeluqueria.dao.ProfesionalDAO;
+import com.idra.gestionpeluqueria.model.HorarioLaboral;
+import com.idra.gestionpeluqueria.model.Profesional;
+import com.idra.gestionpeluqueria.model.enums.TipoServicio;
+import com.idra.gestionpeluqueria.config.DatabaseConfig;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import java.sql.*;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementacion de la interfaz ProfesionalDAO para acceso a datos de profesionales.
+ * Las especialidades y los horarios de todos los profesionales leidos se
+ * obtienen con una consulta por tabla, en lugar de una por profesional.
+ * 
+ * @author Idra
+ */
+public class ProfesionalDAOImpl implements ProfesionalDAO {
+    
+    private Connection getConnection() throws SQLException {
+        return DatabaseConfig.getInstance().abrirConexion();
+    }
+    
+    @Override
+    public void crear(Profesional profesional) throws DAOException {
+        String sql = "INSERT INTO profesionales (nombre, apellido, activo) VALUES (?, ?, ?)";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            
+            conn.setAutoCommit(false);
+            try {
+                stmt.setString(1, profesional.getNombre());
+                stmt.setString(2, profesional.getApellido());
+                stmt.setBoolean(3, profesional.isActivo());
+                stmt.executeUpdate();
+                
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("No se obtuvo el ID generado para el profesional");
+                    }
+                    profesional.setId(generatedKeys.getInt(1));
+                }
+                insertarDetalle(conn, profesional);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al crear profesional en la base de datos", e);
+        }
+    }
+    
+    @Override
+    public Profesional buscarPorId(int id) throws DAOException {
+        List<Profesional> encontrados = buscar("WHERE id = ?", id);
+        return encontrados.isEmpty() ? null : encontrados.get(0);
+    }
+    
+    @Override
+    public List<Profesional> buscarTodos() throws DAOException {
+        return buscar("");
+    }
+    
+    @Override
+    public List<Profesional> buscarActivos() throws DAOException {
+        return buscar("WHERE activo = true");
+    }
+    
+    @Override
+    public void actualizar(Profesional profesional) throws DAOException {
+        String sql = "UPDATE profesionales SET nombre = ?, apellido = ?, activo = ? WHERE id = ?";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            conn.setAutoCommit(false);
+            try {
+                stmt.setString(1, profesional.getNombre());
+                stmt.setString(2, profesional.getApellido());
+                stmt.setBoolean(3, profesional.isActivo());
+                stmt.setInt(4, profesional.getId());
+                if (stmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    throw new DAOException("Error al actualizar profesional, ninguna fila afectada.");
+                }
+                // Especialidades y horarios se reemplazan completos
+                for (String tabla : new String[] {"profesional_especialidades", "profesional_horarios"}) {
+                    try (PreparedStatement borrar = conn.prepareStatement("DELETE FROM " + tabla + " WHERE profesional_id = ?")) {
+                        borrar.setInt(1, profesional.getId());
+                        borrar.executeUpdate();
+                    }
+                }
+                insertarDetalle(conn, profesional);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al actualizar profesional con ID: " + profesional.getId(), e);
+        }
+    }
+    
+    @Override
+    public void eliminar(int id) throws DAOException {
+        String sql = "DELETE FROM profesionales WHERE id = ?";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, id);
+            int affectedRows = stmt.executeUpdate();
+            
+            if (affectedRows == 0) {
+                throw new DAOException("Error al eliminar profesional, ninguna fila afectada.");
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al eliminar profesional con ID: " + id, e);
+        }
+    }
+    
+    private List<Profesional> buscar(String filtro, Object... parametros) throws DAOException {
+        String sql = "SELECT * FROM profesionales " + filtro + " ORDER BY apellido, nombre";
+        Map<Integer, Profesional> profesionales = new LinkedHashMap<>();
+        
+        try (Connection conn = getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < parametros.length; i++) {
+                    stmt.setObject(i + 1, parametros[i]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Profesional profesional = mapResultSetToProfesional(rs);
+                        profesionales.put(profesional.getId(), profesional);
+                    }
+                }
+            }
+            if (!profesionales.isEmpty()) {
+                cargarDetalle(conn, profesionales);
+            }
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar profesionales", e);
+        }
+        
+        return new ArrayList<>(profesionales.values());
+    }
+    
+    // Completa especialidades y horarios de los profesionales leidos, una consulta por tabla
+    private void cargarDetalle(Connection conn, Map<Integer, Profesional> profesionales) throws SQLException {
+        String ids = String.join(",", profesionales.keySet().stream().map(String::valueOf).toArray(String[]::new));
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT profesional_id, tipo_servicio FROM profesional_especialidades WHERE profesional_id IN (" + ids + ")")) {
+            while (rs.next()) {
+                profesionales.get(rs.getInt("profesional_id")).getEspecialidades()
+                    .add(TipoServicio.valueOf(rs.getString("tipo_servicio")));
+            }
+        }
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT profesional_id, dia_semana, hora_inicio, hora_fin FROM profesional_horarios "
+                 + "WHERE profesional_id IN (" + ids + ") ORDER BY dia_semana, hora_inicio")) {
+            while (rs.next()) {
+                profesionales.get(rs.getInt("profesional_id")).getHorarios().add(new HorarioLaboral(
+                    DayOfWeek.of(rs.getInt("dia_semana")),
+                    rs.getTime("hora_inicio").toLocalTime(),
+                    rs.getTime("hora_fin").toLocalTime()));
+            }
+        }
+    }
+    
+    private void insertarDetalle(Connection conn, Profesional profesional) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO profesional_especialidades (profesional_id, tipo_servicio) VALUES (?, ?)")) {
+            for (TipoServicio tipo : profesional.getEspecialidades()) {
+                stmt.setInt(1, profesional.getId());
+                stmt.setString(2, tipo.name());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO profesional_horarios (profesional_id, dia_semana, hora_inicio, hora_fin) VALUES (?, ?, ?, ?)")) {
+            for (HorarioLaboral horario : profesional.getHorarios()) {
+                stmt.setInt(1, profesional.getId());
+                stmt.setInt(2, horario.getDiaSemana().getValue());
+                stmt.setTime(3, Time.valueOf(horario.getHoraInicio()));
+                stmt.setTime(4, Time.valueOf(horario.getHoraFin()));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+    
+    private Profesional mapResultSetToProfesional(ResultSet rs) throws SQLException {
+        Profesional profesional = new Profesional();
+        profesional.setId(rs.getInt("id"));
+        profesional.setNombre(rs.getString("nombre"));
+        profesional.setApellido(rs.getString("apellido"));
+        profesional.setActivo(rs.getBoolean("activo"));
+        return profesional;
+    }
+}
@@ -0,0 +1,107 @@
+package com.idra.gestionpeluqueria.dao.impl;
+
+import com.idra.gestionpeluqueria.config.DatabaseConfig;
+import com.idra.gestionpeluqueria.dao.ReporteDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.DefinicionReporte;
+import com.idra.gestionpeluqueria.model.FilaReporte;
+import com.idra.gestionpeluqueria.model.enums.AgrupacionReporte;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementacion de la interfaz ReporteDAO para MySQL.
+ *
+ * Cada agrupacion se traduce a un unico GROUP BY sobre el rango de
+ * fecha_hora, que resuelve el indice idx_fecha_reporte sin leer las filas
+ * de turnos. Solo se hace el join con servicios o clientes cuando la
+ * agrupacion lo necesita.
+ *
+ * @author Idra
+ */
+public class ReporteDAOImpl implements ReporteDAO {
+
+    private static final String MEDIDAS =
+        "COUNT(*) AS cantidad, SUM(t.estado = 'CANCELADO') AS cancelados, " +
+        "COALESCE(SUM(CASE WHEN t.estado_pago = 'PAGADO' THEN t.monto_pagado END), 0) AS cobrado ";
+
+    private static final Map<AgrupacionReporte, String> CONSULTAS = new EnumMap<>(AgrupacionReporte.class);
+
+    static {
+        for (AgrupacionReporte agrupacion : AgrupacionReporte.values()) {
+            CONSULTAS.put(agrupacion, compilar(agrupacion));
+        }
+    }
+
+    private Connection getConnection() throws SQLException {
+        return DatabaseConfig.getInstance().abrirConexion();
+    }
+
+    private static String compilar(AgrupacionReporte agrupacion) {
+        String clave;
+        String etiqueta = "NULL";
+        String join = "";
+        switch (agrupacion) {
+            case DIA:
+                clave = "DATE(t.fecha_hora)";
+                break;
+            case SEMANA:
+                // Lunes de la semana, igual que AgrupacionReporte.inicioPeriodo
+                clave = "DATE_SUB(DATE(t.fecha_hora), INTERVAL WEEKDAY(t.fecha_hora) DAY)";
+                break;
+            case MES:
+                clave = "DATE_FORMAT(t.fecha_hora, '%Y-%m-01')";
+                break;
+            case TIPO_SERVICIO:
+                clave = "s.tipo_servicio";
+                join = "INNER JOIN servicios s ON t.servicio_id = s.id ";
+                break;
+            case FORMA_PAGO:
+                clave = "COALESCE(t.forma_pago, 'NINGUNA')";
+                break;
+            case ESTADO_TURNO:
+                clave = "t.estado";
+                break;
+            case CLIENTE:
+                clave = "t.cliente_id";
+                etiqueta = "CONCAT(c.nombre, ' ', c.apellido)";
+                join = "INNER JOIN clientes c ON t.cliente_id = c.id ";
+                break;
+            default:
+                throw new IllegalArgumentException("Agrupacion no soportada: " + agrupacion);
+        }
+        return "SELECT " + clave + " AS clave, " + etiqueta + " AS etiqueta, " + MEDIDAS +
+               "FROM turnos t " + join +
+               "WHERE t.fecha_hora >= ? AND t.fecha_hora < ? " +
+               "GROUP BY clave" + (agrupacion == AgrupacionReporte.CLIENTE ? ", etiqueta " : " ") +
+               (agrupacion.isTemporal() ? "ORDER BY clave" : "ORDER BY cobrado DESC, cantidad DESC");
+    }
+
+    @Override
+    public List<FilaReporte> agrupar(DefinicionReporte definicion) throws DAOException {
+        AgrupacionReporte agrupacion = definicion.getAgrupacion();
+        List<FilaReporte> filas = new ArrayList<>();
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(CONSULTAS.get(agrupacion))) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(definicion.getDesde().atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(definicion.getHasta().plusDays(1).atStartOfDay()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String clave = rs.getString("clave");
+                    String etiqueta = rs.getString("etiqueta");
+                    filas.add(new FilaReporte(clave, etiqueta != null ? etiqueta : agrupacion.etiqueta(clave),
+                        rs.getInt("cantidad"), rs.getInt("cancelados"), rs.getDouble("cobrado")));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DAOException("Error al generar el reporte " + definicion, e);
+        }
+        return filas;
+    }
+}
@@ -0,0 +1,99 @@
+package com.idra.gestionpeluqueria.dao.impl;
+
+import com.idra.gestionpeluqueria.config.DatabaseConfig;
+import com.idra.gestionpeluqueria.dao.ResumenDiarioDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.ResumenDiario;
+import com.idra.gestionpeluqueria.model.enums.FormaPago;
+import com.idra.gestionpeluqueria.model.enums.TipoServicio;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementacion de la interfaz ResumenDiarioDAO para MySQL.
+ *
+ * @author Idra
+ */
+public class ResumenDiarioDAOImpl implements ResumenDiarioDAO {
+
+    private Connection getConnection() throws SQLException {
+        return DatabaseConfig.getInstance().abrirConexion();
+    }
+
+    @Override
+    public double sumarCobrado(LocalDate desde, LocalDate hasta) throws DAOException {
+        String sql = "SELECT COALESCE(SUM(total_cobrado), 0) FROM resumen_diario WHERE fecha BETWEEN ? AND ?";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(desde));
+            stmt.setDate(2, Date.valueOf(hasta));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getDouble(1) : 0.0;
+            }
+
+        } catch (SQLException e) {
+            throw new DAOException("Error al sumar lo cobrado entre " + desde + " y " + hasta, e);
+        }
+    }
+
+    @Override
+    public List<ResumenDiario> buscarPorRango(LocalDate desde, LocalDate hasta) throws DAOException {
+        String sql = "SELECT * FROM resumen_diario WHERE fecha BETWEEN ? AND ? AND cantidad_turnos > 0 ORDER BY fecha";
+        List<ResumenDiario> filas = new ArrayList<>();
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(desde));
+            stmt.setDate(2, Date.valueOf(hasta));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String formaPago = rs.getString("forma_pago");
+                    filas.add(new ResumenDiario(
+                        rs.getDate("fecha").toLocalDate(),
+                        AporteResumen.SIN_FORMA_PAGO.equals(formaPago) ? null : FormaPago.valueOf(formaPago),
+                        TipoServicio.valueOf(rs.getString("tipo_servicio")),
+                        rs.getInt("cantidad_turnos"),
+                        rs.getDouble("total_cobrado")));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar el resumen entre " + desde + " y " + hasta, e);
+        }
+        return filas;
+    }
+
+    @Override
+    public int reconstruir(LocalDate desde, LocalDate hasta) throws DAOException {
+        String borrar = "DELETE FROM resumen_diario WHERE fecha BETWEEN ? AND ?";
+        String insertar = AporteResumen.INSERT_RESUMEN + AporteResumen.selectCobrados("")
+            + "t.fecha_hora >= ? AND t.fecha_hora < ?" + AporteResumen.GROUP_BY_RESUMEN;
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmtBorrar = conn.prepareStatement(borrar);
+                 PreparedStatement stmtInsertar = conn.prepareStatement(insertar)) {
+                stmtBorrar.setDate(1, Date.valueOf(desde));
+                stmtBorrar.setDate(2, Date.valueOf(hasta));
+                stmtBorrar.executeUpdate();
+
+                stmtInsertar.setTimestamp(1, Timestamp.valueOf(desde.atStartOfDay()));
+                stmtInsertar.setTimestamp(2, Timestamp.valueOf(hasta.plusDays(1).atStartOfDay()));
+                int filas = stmtInsertar.executeUpdate();
+                conn.commit();
+                return filas;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            throw new DAOException("Error al reconstruir el resumen entre " + desde + " y " + hasta, e);
+        }
+    }
+}
@@ -1,309 +1,803 @@
-package com.idra.gestionpeluqueria.dao.impl;
-
-import com.idra.gestionpeluqueria.dao.TurnoDAO;
-import com.idra.gestionpeluqueria.model.Turno;
-import com.idra.gestionpeluqueria.model.Cliente;
-import com.idra.gestionpeluqueria.model.Servicio;
-import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
-import com.idra.gestionpeluqueria.model.enums.EstadoPago;
-import com.idra.gestionpeluqueria.model.enums.FormaPago;
-import com.idra.gestionpeluqueria.config.DatabaseConfig;
-import com.idra.gestionpeluqueria.exception.DAOException;
-import java.sql.*;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * Implementacion de la interfaz TurnoDAO para acceso a datos de turnos.
- * Gestiona todas las operaciones de persistencia relacionadas con turnos 
- * en la base de datos MySQL, incluyendo consultas complejas con joins 
- * a las tablas de clientes y servicios.
- * 
- * @author Idra
- */
-public class TurnoDAOImpl implements TurnoDAO {
-    
-    private Connection getConnection() throws SQLException {
-        return DatabaseConfig.getInstance().getConnection();
-    }
-    
-    @Override
-    public void crear(Turno turno) throws DAOException {
-        String sql = "INSERT INTO turnos (cliente_id, servicio_id, fecha_hora, notas, estado, estado_pago, forma_pago, monto_pagado, fecha_creacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            stmt.setInt(1, turno.getCliente().getId());
-            stmt.setInt(2, turno.getServicio().getId());
-            stmt.setTimestamp(3, Timestamp.valueOf(turno.getFechaHora()));
-            stmt.setString(4, turno.getNotas());
-            stmt.setString(5, turno.getEstado().name());
-            stmt.setString(6, turno.getEstadoPago().name());
-            stmt.setString(7, turno.getFormaPago() != null ? turno.getFormaPago().name() : null);
-            stmt.setDouble(8, turno.getMontoPagado());
-            stmt.setTimestamp(9, Timestamp.valueOf(turno.getFechaCreacion()));
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new DAOException("Error al crear turno, ninguna fila afectada.");
-            }
-            
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    turno.setId(generatedKeys.getInt(1));
-                } else {
-                    throw new DAOException("Error al obtener ID generado para el turno.");
-                }
-            }
-            
-        } catch (SQLException e) {
-            throw new DAOException("Error al crear turno en la base de datos", e);
-        }
-    }
-    
-    @Override
-    public Turno buscarPorId(int id) throws DAOException {
-        String sql = "SELECT t.*, c.nombre as cliente_nombre, c.apellido as cliente_apellido, c.telefono as cliente_telefono, " +
-                    "s.nombre as servicio_nombre, s.precio as servicio_precio, s.duracion_minutos as servicio_duracion " +
-                    "FROM turnos t " +
-                    "INNER JOIN clientes c ON t.cliente_id = c.id " +
-                    "INNER JOIN servicios s ON t.servicio_id = s.id " +
-                    "WHERE t.id = ?";
-        Turno turno = null;
-        
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                turno = mapResultSetToTurno(rs);
-            }
-            
-        } catch (SQLException e) {
-            throw new DAOException("Error al buscar turno por ID: " + id, e);
-        }
-        
-        return turno;
-    }
-    
-    @Override
-    public List<Turno> buscarTodos() throws DAOException {
-        String sql = "SELECT t.*, c.nombre as cliente_nombre, c.apellido as cliente_apellido, c.telefono as cliente_telefono, " +
-                    "s.nombre as servicio_nombre, s.precio as servicio_precio, s.duracion_minutos as servicio_duracion " +
-                    "FROM turnos t " +
-                    "INNER JOIN clientes c ON t.cliente_id = c.id " +
-                    "INNER JOIN servicios s ON t.servicio_id = s.id " +
-                    "ORDER BY t.fecha_hora DESC";
-        List<Turno> turnos = new ArrayList<>();
-        
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            
-            while (rs.next()) {
-                turnos.add(mapResultSetToTurno(rs));
-            }
-            
-        } catch (SQLException e) {
-            throw new DAOException("Error al buscar todos los turnos", e);
-        }
-        
-        return turnos;
-    }
-    
-    @Override
-    public List<Turno> buscarPorFecha(LocalDate fecha) throws DAOException {
-        String sql = "SELECT t.*, c.nombre as cliente_nombre, c.apellido as cliente_apellido, c.telefono as cliente_telefono, " +
-                    "s.nombre as servicio_nombre, s.precio as servicio_precio, s.duracion_minutos as servicio_duracion " +
-                    "FROM turnos t " +
-                    "INNER JOIN clientes c ON t.cliente_id = c.id " +
-                    "INNER JOIN servicios s ON t.servicio_id = s.id " +
-                    "WHERE DATE(t.fecha_hora) = ? " +
-                    "ORDER BY t.fecha_hora";
-        List<Turno> turnos = new ArrayList<>();
-        
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setDate(1, Date.valueOf(fecha));
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                turnos.add(mapResultSetToTurno(rs));
-            }
-            
-        } catch (SQLException e) {
-            throw new DAOException("Error al buscar turnos por fecha: " + fecha, e);
-        }
-        
-        return turnos;
-    }
-    
-    @Override
-    public List<Turno> buscarPorCliente(int clienteId) throws DAOException {
-        String sql = "SELECT t.*, c.nombre as cliente_nombre, c.apellido as cliente_apellido, c.telefono as cliente_telefono, " +
-                    "s.nombre as servicio_nombre, s.precio as servicio_precio, s.duracion_minutos as servicio_duracion " +
-                    "FROM turnos t " +
-                    "INNER JOIN clientes c ON t.cliente_id = c.id " +
-                    "INNER JOIN servicios s ON t.servicio_id = s.id " +
-                    "WHERE t.cliente_id = ? " +
-                    "ORDER BY t.fecha_hora DESC";
-        List<Turno> turnos = new ArrayList<>();
-        
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, clienteId);
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                turnos.add(mapResultSetToTurno(rs));
-            }
-            
-        } catch (SQLException e) {
-            throw new DAOException("Error al buscar turnos por cliente ID: " + clienteId, e);
-        }
-        
-        return turnos;
-    }
-    
-    @Override
-    public List<Turno> buscarPorEstado(String estado) throws DAOException {
-        String sql = "SELECT t.*, c.nombre as cliente_nombre, c.apellido as cliente_apellido, c.telefono as cliente_telefono, " +
-                    "s.nombre as servicio_nombre, s.precio as servicio_precio, s.duracion_minutos as servicio_duracion " +
-                    "FROM turnos t " +
-                    "INNER JOIN clientes c ON t.cliente_id = c.id " +
-                    "INNER JOIN servicios s ON t.servicio_id = s.id " +
-                    "WHERE t.estado = ? " +
-                    "ORDER BY t.fecha_hora DESC";
-        List<Turno> turnos = new ArrayList<>();
-        
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, estado);
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                turnos.add(mapResultSetToTurno(rs));
-            }
-            
-        } catch (SQLException e) {
-            throw new DAOException("Error al buscar turnos por estado: " + estado, e);
-        }
-        
-        return turnos;
-    }
-    
-   @Override
-public void actualizar(Turno turno) throws DAOException {
-    String sql = "UPDATE turnos SET cliente_id = ?, servicio_id = ?, fecha_hora = ?, notas = ?, estado = ?, estado_pago = ?, forma_pago = ?, monto_pagado = ? WHERE id = ?";
-    
-    try (Connection conn = getConnection();
-         PreparedStatement stmt = conn.prepareStatement(sql)) {
-        
-        stmt.setInt(1, turno.getCliente().getId());
-        stmt.setInt(2, turno.getServicio().getId());
-        stmt.setTimestamp(3, Timestamp.valueOf(turno.getFechaHora()));
-        stmt.setString(4, turno.getNotas());
-        stmt.setString(5, turno.getEstado().name());
-        stmt.setString(6, turno.getEstadoPago().name());
-        stmt.setString(7, turno.getFormaPago() != null ? turno.getFormaPago().name() : null);
-        stmt.setDouble(8, turno.getMontoPagado());
-        stmt.setInt(9, turno.getId());
-        
-        int affectedRows = stmt.executeUpdate();
-        
-        if (affectedRows == 0) {
-            throw new DAOException("Error al actualizar turno, ninguna fila afectada.");
-        }
-        
-    } catch (SQLException e) {
-        throw new DAOException("Error al actualizar turno con ID: " + turno.getId(), e);
-    }
-}
-    
-    @Override
-    public void eliminar(int id) throws DAOException {
-        String sql = "DELETE FROM turnos WHERE id = ?";
-        
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new DAOException("Error al eliminar turno, ninguna fila afectada.");
-            }
-            
-        } catch (SQLException e) {
-            throw new DAOException("Error al eliminar turno con ID: " + id, e);
-        }
-    }
-    
-    @Override
-    public boolean existeTurnoEnFechaHora(int servicioId, LocalDateTime fechaHora) throws DAOException {
-        String sql = "SELECT COUNT(*) FROM turnos WHERE servicio_id = ? AND fecha_hora = ? AND estado != 'CANCELADO'";
-        
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, servicioId);
-            stmt.setTimestamp(2, Timestamp.valueOf(fechaHora));
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-            
-        } catch (SQLException e) {
-            throw new DAOException("Error al verificar disponibilidad de turno", e);
-        }
-        
-        return false;
-    }
-    
-    private Turno mapResultSetToTurno(ResultSet rs) throws SQLException {
-        Turno turno = new Turno();
-        turno.setId(rs.getInt("id"));
-        
-        // Crear y configurar Cliente
-        Cliente cliente = new Cliente();
-        cliente.setId(rs.getInt("cliente_id"));
-        cliente.setNombre(rs.getString("cliente_nombre"));
-        cliente.setApellido(rs.getString("cliente_apellido"));
-        cliente.setTelefono(rs.getString("cliente_telefono"));
-        turno.setCliente(cliente);
-        
-        // Crear y configurar Servicio
-        Servicio servicio = new Servicio();
-        servicio.setId(rs.getInt("servicio_id"));
-        servicio.setNombre(rs.getString("servicio_nombre"));
-        servicio.setPrecio(rs.getDouble("servicio_precio"));
-        servicio.setDuracionMinutos(rs.getInt("servicio_duracion"));
-        turno.setServicio(servicio);
-        
-        turno.setFechaHora(rs.getTimestamp("fecha_hora").toLocalDateTime());
-        turno.setNotas(rs.getString("notas"));
-        turno.setEstado(EstadoTurno.valueOf(rs.getString("estado")));
-        turno.setEstadoPago(EstadoPago.valueOf(rs.getString("estado_pago")));
-        
-        String formaPagoStr = rs.getString("forma_pago");
-        if (formaPagoStr != null) {
-            turno.setFormaPago(FormaPago.valueOf(formaPagoStr));
-        }
-        
-        turno.setMontoPagado(rs.getDouble("monto_pagado"));
-        turno.setFechaCreacion(rs.getTimestamp("fecha_creacion").toLocalDateTime());
-        
-        return turno;
-    }
-}
\ No newline at end of file
+package com.idra.gestionpeluqueria.dao.impl;
+
+import com.idra.gestionpeluqueria.dao.TurnoDAO;
+import com.idra.gestionpeluqueria.model.CambiosTurnos;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.model.Cliente;
+import com.idra.gestionpeluqueria.model.Profesional;
+import com.idra.gestionpeluqueria.model.Servicio;
+import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
+import com.idra.gestionpeluqueria.model.enums.EstadoPago;
+import com.idra.gestionpeluqueria.model.enums.FormaPago;
+import com.idra.gestionpeluqueria.model.enums.TipoServicio;
+import com.idra.gestionpeluqueria.config.DatabaseConfig;
+import com.idra.gestionpeluqueria.exception.ConflictoConcurrenciaException;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementacion de la interfaz TurnoDAO para acceso a datos de turnos.
+ * Gestiona todas las operaciones de persistencia relacionadas con turnos 
+ * en la base de datos MySQL, incluyendo consultas complejas con joins 
+ * a las tablas de clientes y servicios.
+ * 
+ * @author Idra
+ */
+public class TurnoDAOImpl implements TurnoDAO {
+    
+    // Segundos que se solapan dos consultas de cambios seguidas
+    private static final int MARGEN_CAMBIOS_SEGUNDOS = 5;
+    
+    private Connection getConnection() throws SQLException {
+        return DatabaseConfig.getInstance().abrirConexion();
+    }
+    
+    @Override
+    public void crear(Turno turno) throws DAOException {
+        String sql = "INSERT INTO turnos (cliente_id, servicio_id, fecha_hora, notas, estado, estado_pago, forma_pago, monto_pagado, fecha_creacion, profesional_id, tolerancia_minutos) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            
+                stmt.setInt(1, turno.getCliente().getId());
+                stmt.setInt(2, turno.getServicio().getId());
+                stmt.setTimestamp(3, Timestamp.valueOf(turno.getFechaHora()));
+                stmt.setString(4, turno.getNotas());
+                stmt.setString(5, turno.getEstado().name());
+                stmt.setString(6, turno.getEstadoPago().name());
+                stmt.setString(7, turno.getFormaPago() != null ? turno.getFormaPago().name() : null);
+                stmt.setDouble(8, turno.getMontoPagado());
+                stmt.setTimestamp(9, Timestamp.valueOf(turno.getFechaCreacion()));
+                setProfesional(stmt, 10, turno);
+                stmt.setInt(11, turno.getToleranciaMinutos());
+            
+                int affectedRows = stmt.executeUpdate();
+            
+                if (affectedRows == 0) {
+                    throw new DAOException("Error al crear turno, ninguna fila afectada.");
+                }
+            
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        turno.setId(generatedKeys.getInt(1));
+                        turno.setVersion(0);
+                    } else {
+                        throw new DAOException("Error al obtener ID generado para el turno.");
+                    }
+                }
+                if (turno.getEstadoPago() == EstadoPago.PAGADO) {
+                    AporteResumen.reemplazar(conn, null, AporteResumen.leer(conn, turno.getId()));
+                }
+                if (turno.getEstado() == EstadoTurno.COMPLETADO) {
+                    VisitaCliente.reemplazar(conn, null, VisitaCliente.leer(conn, turno.getId()));
+                }
+                OcupacionTurno.reemplazar(conn, null, OcupacionTurno.leer(conn, turno.getId()));
+                conn.commit();
+            } catch (SQLException | DAOException e) {
+                conn.rollback();
+                throw e;
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al crear turno en la base de datos", e);
+        }
+    }
+    
+    @Override
+    public Turno buscarPorId(int id) throws DAOException {
+        String sql = "SELECT t.*, c.nombre as cliente_nombre, c.apellido as cliente_apellido, c.telefono as cliente_telefono, " +
+                    "s.nombre as servicio_nombre, s.precio as servicio_precio, s.duracion_minutos as servicio_duracion, " +
+                    "s.tipo_servicio as servicio_tipo, p.nombre as profesional_nombre, p.apellido as profesional_apellido " +
+                    "FROM turnos t " +
+                    "INNER JOIN clientes c ON t.cliente_id = c.id " +
+                    "INNER JOIN servicios s ON t.servicio_id = s.id " +
+                    "LEFT JOIN profesionales p ON t.profesional_id = p.id " +
+                    "WHERE t.id = ?";
+        Turno turno = null;
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, id);
+            ResultSet rs = stmt.executeQuery();
+            
+            if (rs.next()) {
+                turno = mapResultSetToTurno(rs);
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar turno por ID: " + id, e);
+        }
+        
+        return turno;
+    }
+    
+    @Override
+    public List<Turno> buscarTodos() throws DAOException {
+        String sql = "SELECT t.*, c.nombre as cliente_nombre, c.apellido as cliente_apellido, c.telefono as cliente_telefono, " +
+                    "s.nombre as servicio_nombre, s.precio as servicio_precio, s.duracion_minutos as servicio_duracion, " +
+                    "s.tipo_servicio as servicio_tipo, p.nombre as profesional_nombre, p.apellido as profesional_apellido " +
+                    "FROM turnos t " +
+                    "INNER JOIN clientes c ON t.cliente_id = c.id " +
+                    "INNER JOIN servicios s ON t.servicio_id = s.id " +
+                    "LEFT JOIN profesionales p ON t.profesional_id = p.id " +
+                    "ORDER BY t.fecha_hora DESC";
+        List<Turno> turnos = new ArrayList<>();
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                turnos.add(mapResultSetToTurno(rs));
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar todos los turnos", e);
+        }
+        
+        return turnos;
+    }
+    
+    @Override
+    public int contarTodos() throws DAOException {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM turnos")) {
+            
+            rs.next();
+            return rs.getInt(1);
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al contar los turnos", e);
+        }
+    }
+    
+    @Override
+    public void recorrerTodos(LectorFila lector) throws DAOException {
+        // Solo las columnas que necesita el lector, ya convertidas por MySQL a minutos y centavos
+        String sql = "SELECT t.id, TIMESTAMPDIFF(MINUTE, '1970-01-01 00:00:00', t.fecha_hora) AS minuto, " +
+                    "t.cliente_id, t.servicio_id, t.estado, t.estado_pago, t.forma_pago, " +
+                    "ROUND(t.monto_pagado * 100) AS centavos, s.tipo_servicio " +
+                    "FROM turnos t INNER JOIN servicios s ON t.servicio_id = s.id";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            // Con este tamaño el driver de MySQL entrega las filas a medida que llegan, sin cargarlas todas
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String formaPago = rs.getString("forma_pago");
+                    lector.leer(rs.getInt("id"), rs.getInt("minuto"), rs.getInt("cliente_id"), rs.getInt("servicio_id"),
+                        EstadoTurno.valueOf(rs.getString("estado")), EstadoPago.valueOf(rs.getString("estado_pago")),
+                        formaPago != null ? FormaPago.valueOf(formaPago) : null,
+                        TipoServicio.valueOf(rs.getString("tipo_servicio")), rs.getLong("centavos"));
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al recorrer los turnos", e);
+        }
+    }
+    
+    @Override
+    public List<Turno> buscarAnclasPagina(int cada) throws DAOException {
+        // Una sola pasada por idx_fecha_hora numerando las filas en el orden del historial
+        String sql = "SELECT id, fecha_hora FROM (" +
+                    "SELECT id, fecha_hora, ROW_NUMBER() OVER (ORDER BY fecha_hora DESC, id DESC) AS posicion FROM turnos" +
+                    ") numeradas WHERE posicion % ? = 0 ORDER BY posicion";
+        List<Turno> anclas = new ArrayList<>();
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, cada);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Turno ancla = new Turno();
+                    ancla.setId(rs.getInt("id"));
+                    ancla.setFechaHora(rs.getTimestamp("fecha_hora").toLocalDateTime());
+                    anclas.add(ancla);
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar las anclas del historial de turnos", e);
+        }
+        return anclas;
+    }
+    
+    @Override
+    public List<Turno> buscarPagina(LocalDateTime fechaHora, int id, int saltear, int cantidad) throws DAOException {
+        // La subconsulta recorre solo idx_fecha_hora (que incluye el id) para
+        // ubicar la pagina, y los joins se hacen despues, sobre esos pocos turnos
+        String sql = "SELECT t.*, c.nombre as cliente_nombre, c.apellido as cliente_apellido, c.telefono as cliente_telefono, " +
+                    "s.nombre as servicio_nombre, s.precio as servicio_precio, s.duracion_minutos as servicio_duracion, " +
+                    "s.tipo_servicio as servicio_tipo, p.nombre as profesional_nombre, p.apellido as profesional_apellido " +
+                    "FROM (SELECT id FROM turnos " +
+                    (fechaHora != null ? "WHERE fecha_hora < ? OR (fecha_hora = ? AND id < ?) " : "") +
+                    "ORDER BY fecha_hora DESC, id DESC LIMIT ? OFFSET ?) pagina " +
+                    "INNER JOIN turnos t ON t.id = pagina.id " +
+                    "INNER JOIN clientes c ON t.cliente_id = c.id " +
+                    "INNER JOIN servicios s ON t.servicio_id = s.id " +
+                    "LEFT JOIN profesionales p ON t.profesional_id = p.id " +
+                    "ORDER BY t.fecha_hora DESC, t.id DESC";
+        List<Turno> turnos = new ArrayList<>();
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int i = 1;
+            if (fechaHora != null) {
+                stmt.setTimestamp(i++, Timestamp.valueOf(fechaHora));
+                stmt.setTimestamp(i++, Timestamp.valueOf(fechaHora));
+                stmt.setInt(i++, id);
+            }
+            stmt.setInt(i++, cantidad);
+            stmt.setInt(i, saltear);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    turnos.add(mapResultSetToTurno(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar una pagina de turnos", e);
+        }
+        
+        return turnos;
+    }
+    
+    @Override
+    public List<Turno> buscarPorFecha(LocalDate fecha) throws DAOException {
+        String sql = "SELECT t.*, c.nombre as cliente_nombre, c.apellido as cliente_apellido, c.telefono as cliente_telefono, " +
+                    "s.nombre as servicio_nombre, s.precio as servicio_precio, s.duracion_minutos as servicio_duracion, " +
+                    "s.tipo_servicio as servicio_tipo, p.nombre as profesional_nombre, p.apellido as profesional_apellido " +
+                    "FROM turnos t " +
+                    "INNER JOIN clientes c ON t.cliente_id = c.id " +
+                    "INNER JOIN servicios s ON t.servicio_id = s.id " +
+                    "LEFT JOIN profesionales p ON t.profesional_id = p.id " +
+                    "WHERE DATE(t.fecha_hora) = ? " +
+                    "ORDER BY t.fecha_hora";
+        List<Turno> turnos = new ArrayList<>();
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setDate(1, Date.valueOf(fecha));
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                turnos.add(mapResultSetToTurno(rs));
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar turnos por fecha: " + fecha, e);
+        }
+        
+        return turnos;
+    }
+    
+    @Override
+    public CambiosTurnos buscarCambiosDelDia(LocalDate fecha, LocalDateTime desde) throws DAOException {
+        String sql = "SELECT t.*, c.nombre as cliente_nombre, c.apellido as cliente_apellido, c.telefono as cliente_telefono, " +
+                    "s.nombre as servicio_nombre, s.precio as servicio_precio, s.duracion_minutos as servicio_duracion, " +
+                    "s.tipo_servicio as servicio_tipo, p.nombre as profesional_nombre, p.apellido as profesional_apellido " +
+                    "FROM turnos t " +
+                    "INNER JOIN clientes c ON t.cliente_id = c.id " +
+                    "INNER JOIN servicios s ON t.servicio_id = s.id " +
+                    "LEFT JOIN profesionales p ON t.profesional_id = p.id " +
+                    "WHERE t.fecha_hora >= ? AND t.fecha_hora < ? " +
+                    (desde != null ? "AND t.updated_at >= ? " : "") +
+                    "ORDER BY t.fecha_hora";
+        List<Turno> turnos = new ArrayList<>();
+        
+        try (Connection conn = getConnection()) {
+            // La marca se lee antes que los turnos y con margen: una transaccion que
+            // escribio un poco antes pero confirmo despues entra en la consulta siguiente
+            LocalDateTime marca;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(
+                     "SELECT NOW() - INTERVAL " + MARGEN_CAMBIOS_SEGUNDOS + " SECOND")) {
+                rs.next();
+                marca = rs.getTimestamp(1).toLocalDateTime();
+            }
+            
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(fecha.atStartOfDay()));
+                stmt.setTimestamp(2, Timestamp.valueOf(fecha.plusDays(1).atStartOfDay()));
+                if (desde != null) {
+                    stmt.setTimestamp(3, Timestamp.valueOf(desde));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        turnos.add(mapResultSetToTurno(rs));
+                    }
+                }
+            }
+            if (desde == null) {
+                return new CambiosTurnos(turnos, marca);
+            }
+            
+            // Los IDs se leen despues de los cambios: un turno creado en el medio ya
+            // tiene updated_at posterior a la marca y llega en la consulta siguiente
+            Set<Integer> vigentes = new HashSet<>();
+            try (PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT id FROM turnos WHERE fecha_hora >= ? AND fecha_hora < ?")) {
+                stmt.setTimestamp(1, Timestamp.valueOf(fecha.atStartOfDay()));
+                stmt.setTimestamp(2, Timestamp.valueOf(fecha.plusDays(1).atStartOfDay()));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        vigentes.add(rs.getInt(1));
+                    }
+                }
+            }
+            return new CambiosTurnos(turnos, marca, vigentes);
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar los cambios de turnos del " + fecha, e);
+        }
+    }
+    
+    @Override
+    public List<Turno> buscarPorRango(LocalDateTime desde, LocalDateTime hasta) throws DAOException {
+        String sql = "SELECT t.*, c.nombre as cliente_nombre, c.apellido as cliente_apellido, c.telefono as cliente_telefono, " +
+                    "s.nombre as servicio_nombre, s.precio as servicio_precio, s.duracion_minutos as servicio_duracion, " +
+                    "s.tipo_servicio as servicio_tipo, p.nombre as profesional_nombre, p.apellido as profesional_apellido " +
+                    "FROM turnos t " +
+                    "INNER JOIN clientes c ON t.cliente_id = c.id " +
+                    "INNER JOIN servicios s ON t.servicio_id = s.id " +
+                    "LEFT JOIN profesionales p ON t.profesional_id = p.id " +
+                    "WHERE t.fecha_hora >= ? AND t.fecha_hora < ? " +
+                    "ORDER BY t.fecha_hora";
+        List<Turno> turnos = new ArrayList<>();
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setTimestamp(1, Timestamp.valueOf(desde));
+            stmt.setTimestamp(2, Timestamp.valueOf(hasta));
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                turnos.add(mapResultSetToTurno(rs));
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar turnos entre " + desde + " y " + hasta, e);
+        }
+        
+        return turnos;
+    }
+    
+    @Override
+    public List<Turno> buscarPorCliente(int clienteId) throws DAOException {
+        String sql = "SELECT t.*, c.nombre as cliente_nombre, c.apellido as cliente_apellido, c.telefono as cliente_telefono, " +
+                    "s.nombre as servicio_nombre, s.precio as servicio_precio, s.duracion_minutos as servicio_duracion, " +
+                    "s.tipo_servicio as servicio_tipo, p.nombre as profesional_nombre, p.apellido as profesional_apellido " +
+                    "FROM turnos t " +
+                    "INNER JOIN clientes c ON t.cliente_id = c.id " +
+                    "INNER JOIN servicios s ON t.servicio_id = s.id " +
+                    "LEFT JOIN profesionales p ON t.profesional_id = p.id " +
+                    "WHERE t.cliente_id = ? " +
+                    "ORDER BY t.fecha_hora DESC";
+        List<Turno> turnos = new ArrayList<>();
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, clienteId);
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                turnos.add(mapResultSetToTurno(rs));
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar turnos por cliente ID: " + clienteId, e);
+        }
+        
+        return turnos;
+    }
+    
+    @Override
+    public List<Turno> buscarPorEstado(String estado) throws DAOException {
+        String sql = "SELECT t.*, c.nombre as cliente_nombre, c.apellido as cliente_apellido, c.telefono as cliente_telefono, " +
+                    "s.nombre as servicio_nombre, s.precio as servicio_precio, s.duracion_minutos as servicio_duracion, " +
+                    "s.tipo_servicio as servicio_tipo, p.nombre as profesional_nombre, p.apellido as profesional_apellido " +
+                    "FROM turnos t " +
+                    "INNER JOIN clientes c ON t.cliente_id = c.id " +
+                    "INNER JOIN servicios s ON t.servicio_id = s.id " +
+                    "LEFT JOIN profesionales p ON t.profesional_id = p.id " +
+                    "WHERE t.estado = ? " +
+                    "ORDER BY t.fecha_hora DESC";
+        List<Turno> turnos = new ArrayList<>();
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, estado);
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                turnos.add(mapResultSetToTurno(rs));
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al buscar turnos por estado: " + estado, e);
+        }
+        
+        return turnos;
+    }
+    
+   @Override
+public void actualizar(Turno turno) throws DAOException {
+    // Solo se actualiza si nadie modifico el turno desde que se leyo.
+    // Si el turno cambia de horario, el horario pedido deja de ser el que habia movido la compactacion;
+    // va primero porque MySQL asigna en orden y tiene que comparar con el fecha_hora anterior
+    String sql = "UPDATE turnos SET fecha_hora_pedida = IF(fecha_hora = ?, fecha_hora_pedida, NULL), cliente_id = ?, servicio_id = ?, fecha_hora = ?, notas = ?, estado = ?, estado_pago = ?, forma_pago = ?, monto_pagado = ?, profesional_id = ?, tolerancia_minutos = ?, version = version + 1 WHERE id = ? AND version = ?";
+    
+    try (Connection conn = getConnection()) {
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        
+            // Con la fila bloqueada el resumen diario resta exactamente lo que se reemplaza
+            AporteResumen anterior = AporteResumen.leer(conn, turno.getId());
+            if (anterior == null) {
+                throw new DAOException("Error al actualizar turno, ninguna fila afectada.");
+            }
+            VisitaCliente visitaAnterior = VisitaCliente.leer(conn, turno.getId());
+            OcupacionTurno ocupacionAnterior = OcupacionTurno.leer(conn, turno.getId());
+        
+            stmt.setTimestamp(1, Timestamp.valueOf(turno.getFechaHora()));
+            stmt.setInt(2, turno.getCliente().getId());
+            stmt.setInt(3, turno.getServicio().getId());
+            stmt.setTimestamp(4, Timestamp.valueOf(turno.getFechaHora()));
+            stmt.setString(5, turno.getNotas());
+            stmt.setString(6, turno.getEstado().name());
+            stmt.setString(7, turno.getEstadoPago().name());
+            stmt.setString(8, turno.getFormaPago() != null ? turno.getFormaPago().name() : null);
+            stmt.setDouble(9, turno.getMontoPagado());
+            setProfesional(stmt, 10, turno);
+            stmt.setInt(11, turno.getToleranciaMinutos());
+            stmt.setInt(12, turno.getId());
+            stmt.setInt(13, turno.getVersion());
+        
+            int affectedRows = stmt.executeUpdate();
+        
+            if (affectedRows == 0) {
+                throw new ConflictoConcurrenciaException(
+                    "El turno " + turno.getId() + " fue modificado por otra terminal",
+                    turno.getId(), turno.getVersion());
+            }
+            AporteResumen.reemplazar(conn, anterior, AporteResumen.leer(conn, turno.getId()));
+            VisitaCliente.reemplazar(conn, visitaAnterior, VisitaCliente.leer(conn, turno.getId()));
+            OcupacionTurno.reemplazar(conn, ocupacionAnterior, OcupacionTurno.leer(conn, turno.getId()));
+            conn.commit();
+        } catch (SQLException | DAOException e) {
+            conn.rollback();
+            throw e;
+        }
+        turno.setVersion(turno.getVersion() + 1);
+        
+    } catch (SQLException e) {
+        throw new DAOException("Error al actualizar turno con ID: " + turno.getId(), e);
+    }
+}
+
+    @Override
+    public void eliminar(int id) throws DAOException {
+        String sql = "DELETE FROM turnos WHERE id = ?";
+        
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+                AporteResumen anterior = AporteResumen.leer(conn, id);
+                VisitaCliente visitaAnterior = VisitaCliente.leer(conn, id);
+                OcupacionTurno ocupacionAnterior = OcupacionTurno.leer(conn, id);
+                stmt.setInt(1, id);
+                int affectedRows = stmt.executeUpdate();
+            
+                if (affectedRows == 0) {
+                    throw new DAOException("Error al eliminar turno, ninguna fila afectada.");
+                }
+                AporteResumen.reemplazar(conn, anterior, null);
+                VisitaCliente.reemplazar(conn, visitaAnterior, null);
+                OcupacionTurno.reemplazar(conn, ocupacionAnterior, null);
+                conn.commit();
+            } catch (SQLException | DAOException e) {
+                conn.rollback();
+                throw e;
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al eliminar turno con ID: " + id, e);
+        }
+    }
+    
+    @Override
+    public boolean existeTurnoEnFechaHora(int servicioId, LocalDateTime fechaHora) throws DAOException {
+        String sql = "SELECT COUNT(*) FROM turnos WHERE servicio_id = ? AND fecha_hora = ? AND estado != 'CANCELADO'";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, servicioId);
+            stmt.setTimestamp(2, Timestamp.valueOf(fechaHora));
+            
+            ResultSet rs = stmt.executeQuery();
+            
+            if (rs.next()) {
+                return rs.getInt(1) > 0;
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al verificar disponibilidad de turno", e);
+        }
+        
+        return false;
+    }
+    
+    @Override
+    public boolean existeSolapamientoProfesional(int profesionalId, LocalDateTime inicio, LocalDateTime fin,
+            int turnoExcluidoId) throws DAOException {
+        // El rango sobre fecha_hora usa idx_profesional_fecha; ningun servicio dura mas de un dia
+        String sql = "SELECT COUNT(*) FROM turnos t INNER JOIN servicios s ON t.servicio_id = s.id " +
+                    "WHERE t.profesional_id = ? AND t.id <> ? AND t.estado != 'CANCELADO' " +
+                    "AND t.fecha_hora < ? AND t.fecha_hora > ? " +
+                    "AND DATE_ADD(t.fecha_hora, INTERVAL s.duracion_minutos MINUTE) > ?";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, profesionalId);
+            stmt.setInt(2, turnoExcluidoId);
+            stmt.setTimestamp(3, Timestamp.valueOf(fin));
+            stmt.setTimestamp(4, Timestamp.valueOf(inicio.minusDays(1)));
+            stmt.setTimestamp(5, Timestamp.valueOf(inicio));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al verificar la agenda del profesional " + profesionalId, e);
+        }
+    }
+    
+    private static void setProfesional(PreparedStatement stmt, int indice, Turno turno) throws SQLException {
+        if (turno.getProfesional() != null) {
+            stmt.setInt(indice, turno.getProfesional().getId());
+        } else {
+            stmt.setNull(indice, Types.INTEGER);
+        }
+    }
+    
+    private Turno mapResultSetToTurno(ResultSet rs) throws SQLException {
+        Turno turno = new Turno();
+        turno.setId(rs.getInt("id"));
+        
+        // Crear y configurar Cliente
+        Cliente cliente = new Cliente();
+        cliente.setId(rs.getInt("cliente_id"));
+        cliente.setNombre(rs.getString("cliente_nombre"));
+        cliente.setApellido(rs.getString("cliente_apellido"));
+        cliente.setTelefono(rs.getString("cliente_telefono"));
+        turno.setCliente(cliente);
+        
+        // Crear y configurar Servicio
+        Servicio servicio = new Servicio();
+        servicio.setId(rs.getInt("servicio_id"));
+        servicio.setNombre(rs.getString("servicio_nombre"));
+        servicio.setPrecio(rs.getDouble("servicio_precio"));
+        servicio.setDuracionMinutos(rs.getInt("servicio_duracion"));
+        servicio.setTipoServicio(TipoServicio.valueOf(rs.getString("servicio_tipo")));
+        turno.setServicio(servicio);
+        
+        int profesionalId = rs.getInt("profesional_id");
+        if (!rs.wasNull()) {
+            Profesional profesional = new Profesional();
+            profesional.setId(profesionalId);
+            profesional.setNombre(rs.getString("profesional_nombre"));
+            profesional.setApellido(rs.getString("profesional_apellido"));
+            turno.setProfesional(profesional);
+        }
+        
+        turno.setFechaHora(rs.getTimestamp("fecha_hora").toLocalDateTime());
+        turno.setNotas(rs.getString("notas"));
+        turno.setEstado(EstadoTurno.valueOf(rs.getString("estado")));
+        turno.setEstadoPago(EstadoPago.valueOf(rs.getString("estado_pago")));
+        
+        String formaPagoStr = rs.getString("forma_pago");
+        if (formaPagoStr != null) {
+            turno.setFormaPago(FormaPago.valueOf(formaPagoStr));
+        }
+        
+        turno.setMontoPagado(rs.getDouble("monto_pagado"));
+        turno.setFechaCreacion(rs.getTimestamp("fecha_creacion").toLocalDateTime());
+        turno.setVersion(rs.getInt("version"));
+        turno.setToleranciaMinutos(rs.getInt("tolerancia_minutos"));
+        Timestamp pedida = rs.getTimestamp("fecha_hora_pedida");
+        turno.setFechaHoraPedida(pedida != null ? pedida.toLocalDateTime() : null);
+        
+        return turno;
+    }
+
+    @Override
+    public List<Integer> actualizarNotasEnLote(Map<Integer, String> notasPorTurno,
+            Map<Integer, Integer> versionPorTurno) throws DAOException {
+        List<Integer> enConflicto = new ArrayList<>();
+        if (notasPorTurno.isEmpty()) {
+            return enConflicto;
+        }
+        // Sin version leida (null) se escribe sin comprobarla
+        String sql = "UPDATE turnos SET notas = ?, version = version + 1 WHERE id = ? AND (? IS NULL OR version = ?)";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            conn.setAutoCommit(false);
+            try {
+                List<Integer> ids = new ArrayList<>(notasPorTurno.keySet());
+                for (Integer id : ids) {
+                    Integer version = versionPorTurno.get(id);
+                    stmt.setString(1, notasPorTurno.get(id));
+                    stmt.setInt(2, id);
+                    stmt.setObject(3, version, Types.INTEGER);
+                    stmt.setObject(4, version, Types.INTEGER);
+                    stmt.addBatch();
+                }
+                int[] filas = stmt.executeBatch();
+                for (int i = 0; i < filas.length; i++) {
+                    // SUCCESS_NO_INFO no dice cuantas filas cambio; solo 0 indica conflicto
+                    if (filas[i] == 0) {
+                        enConflicto.add(ids.get(i));
+                    }
+                }
+                // Los demas se escriben igual: cada turno es independiente
+                conn.commit();
+                return enConflicto;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al actualizar notas de " + notasPorTurno.size() + " turnos", e);
+        }
+    }
+
+    @Override
+    public void crearEnLote(List<Turno> turnos) throws DAOException {
+        if (turnos.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO turnos (cliente_id, servicio_id, fecha_hora, notas, estado, estado_pago, forma_pago, monto_pagado, fecha_creacion, profesional_id, tolerancia_minutos) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            
+            conn.setAutoCommit(false);
+            try {
+                for (Turno turno : turnos) {
+                    stmt.setInt(1, turno.getCliente().getId());
+                    stmt.setInt(2, turno.getServicio().getId());
+                    stmt.setTimestamp(3, Timestamp.valueOf(turno.getFechaHora()));
+                    stmt.setString(4, turno.getNotas());
+                    stmt.setString(5, turno.getEstado().name());
+                    stmt.setString(6, turno.getEstadoPago().name());
+                    stmt.setString(7, turno.getFormaPago() != null ? turno.getFormaPago().name() : null);
+                    stmt.setDouble(8, turno.getMontoPagado());
+                    stmt.setTimestamp(9, Timestamp.valueOf(turno.getFechaCreacion()));
+                    setProfesional(stmt, 10, turno);
+                    stmt.setInt(11, turno.getToleranciaMinutos());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                
+                // El driver devuelve las claves del lote en el mismo orden de los inserts
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (Turno turno : turnos) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("No se obtuvieron los IDs generados del lote de turnos");
+                        }
+                        turno.setId(generatedKeys.getInt(1));
+                        turno.setVersion(0);
+                    }
+                }
+                List<Integer> ids = new ArrayList<>();
+                for (Turno turno : turnos) {
+                    if (turno.getEstadoPago() == EstadoPago.PAGADO) {
+                        AporteResumen.reemplazar(conn, null, AporteResumen.leer(conn, turno.getId()));
+                    }
+                    if (turno.getEstado() == EstadoTurno.COMPLETADO) {
+                        VisitaCliente.reemplazar(conn, null, VisitaCliente.leer(conn, turno.getId()));
+                    }
+                    ids.add(turno.getId());
+                }
+                for (OcupacionTurno ocupacion : OcupacionTurno.leerVarias(conn, ids).values()) {
+                    OcupacionTurno.reemplazar(conn, null, ocupacion);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al crear " + turnos.size() + " turnos en lote", e);
+        }
+    }
+
+    @Override
+    public void reprogramarEnLote(List<Turno> turnos) throws DAOException {
+        if (turnos.isEmpty()) {
+            return;
+        }
+        // La primera vez que se mueve un turno se guarda el horario que habia pedido el cliente
+        String sql = "UPDATE turnos SET fecha_hora_pedida = COALESCE(fecha_hora_pedida, fecha_hora), fecha_hora = ?, "
+            + "version = version + 1 WHERE id = ? AND version = ?";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            conn.setAutoCommit(false);
+            try {
+                List<Integer> ids = new ArrayList<>();
+                for (Turno turno : turnos) {
+                    ids.add(turno.getId());
+                }
+                Map<Integer, AporteResumen> anteriores = AporteResumen.leerVarios(conn, ids);
+                Map<Integer, VisitaCliente> visitasAnteriores = VisitaCliente.leerVarias(conn, ids);
+                Map<Integer, OcupacionTurno> ocupacionesAnteriores = OcupacionTurno.leerVarias(conn, ids);
+                for (Turno turno : turnos) {
+                    stmt.setTimestamp(1, Timestamp.valueOf(turno.getFechaHora()));
+                    stmt.setInt(2, turno.getId());
+                    stmt.setInt(3, turno.getVersion());
+                    stmt.addBatch();
+                }
+                int[] filas = stmt.executeBatch();
+                for (int i = 0; i < filas.length; i++) {
+                    // SUCCESS_NO_INFO no dice cuantas filas cambio; solo 0 indica conflicto
+                    if (filas[i] == 0) {
+                        conn.rollback();
+                        Turno turno = turnos.get(i);
+                        throw new ConflictoConcurrenciaException(
+                            "El turno " + turno.getId() + " fue modificado por otra terminal",
+                            turno.getId(), turno.getVersion());
+                    }
+                }
+                // Solo cambia el resumen si el turno paso a otro dia, y las metricas si estaba completado;
+                // la ocupacion cambia siempre que el turno no este cancelado
+                for (Turno turno : turnos) {
+                    AporteResumen anterior = anteriores.get(turno.getId());
+                    AporteResumen.reemplazar(conn, anterior, anterior.movidoA(turno.getFechaHora()));
+                    VisitaCliente visita = visitasAnteriores.get(turno.getId());
+                    VisitaCliente.reemplazar(conn, visita, visita.movidaA(turno.getFechaHora()));
+                    OcupacionTurno ocupacion = ocupacionesAnteriores.get(turno.getId());
+                    OcupacionTurno.reemplazar(conn, ocupacion, ocupacion.movidaA(turno.getFechaHora()));
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            
+        } catch (SQLException e) {
+            throw new DAOException("Error al reprogramar " + turnos.size() + " turnos en lote", e);
+        }
+        for (Turno turno : turnos) {
+            turno.setVersion(turno.getVersion() + 1);
+        }
+    }
+}
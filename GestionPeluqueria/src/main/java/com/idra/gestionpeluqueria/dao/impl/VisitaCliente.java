@@ -0,0 +1,227 @@
+package com.idra.gestionpeluqueria.dao.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Lo que un turno suma en la tabla cliente_metricas: una visita de su
+ * cliente, con su fecha y lo pagado, si el turno esta completado.
+ *
+ * Igual que con AporteResumen, los DAOs que escriben turnos leen la visita
+ * anterior, hacen el cambio y corrigen las metricas en la misma
+ * transaccion. Completar un turno suma la visita directamente. Cualquier
+ * otro cambio sobre un turno completado (reprogramarlo, cambiar lo pagado,
+ * deshacer el estado) puede mover la primera o la ultima visita, que no se
+ * pueden restar, asi que recalcula las metricas de ese cliente con una
+ * consulta sobre sus turnos.
+ *
+ * @author Idra
+ */
+final class VisitaCliente {
+
+    static final String INSERT_METRICAS =
+        "INSERT INTO cliente_metricas (cliente_id, visitas, total_pagado, primera_visita, ultima_visita) ";
+
+    /**
+     * Agrupa por cliente los turnos completados; termina en "AND " para que
+     * se agregue la condicion y despues el GROUP BY.
+     */
+    static final String SELECT_METRICAS =
+        "SELECT t.cliente_id, COUNT(*), SUM(t.monto_pagado), MIN(t.fecha_hora), MAX(t.fecha_hora) "
+        + "FROM turnos t WHERE t.estado = 'COMPLETADO' AND ";
+
+    static final String GROUP_BY_METRICAS = " GROUP BY t.cliente_id";
+
+    private static final String SUMAR_VISITA = INSERT_METRICAS + "VALUES (?, 1, ?, ?, ?) "
+        + "ON DUPLICATE KEY UPDATE visitas = visitas + 1, total_pagado = total_pagado + VALUES(total_pagado), "
+        + "primera_visita = LEAST(primera_visita, VALUES(primera_visita)), "
+        + "ultima_visita = GREATEST(ultima_visita, VALUES(ultima_visita))";
+
+    private static final String SELECT_VISITA =
+        "SELECT id, cliente_id, fecha_hora, estado, monto_pagado FROM turnos ";
+
+    private final int clienteId;
+    private final LocalDateTime fechaHora;
+    private final double monto;
+    private final boolean completada;
+
+    private VisitaCliente(int clienteId, LocalDateTime fechaHora, double monto, boolean completada) {
+        this.clienteId = clienteId;
+        this.fechaHora = fechaHora;
+        this.monto = monto;
+        this.completada = completada;
+    }
+
+    /**
+     * Lee la visita actual de un turno y bloquea su fila hasta el fin de la
+     * transaccion.
+     *
+     * @return La visita, o null si el turno no existe
+     */
+    static VisitaCliente leer(Connection conn, int turnoId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_VISITA + "WHERE id = ? FOR UPDATE")) {
+            stmt.setInt(1, turnoId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? desdeFila(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Variante de {@link #leer} para varios turnos en una sola consulta.
+     *
+     * @return Las visitas por ID de turno; los que no existen no aparecen
+     */
+    static Map<Integer, VisitaCliente> leerVarias(Connection conn, Collection<Integer> turnoIds) throws SQLException {
+        Map<Integer, VisitaCliente> visitas = new HashMap<>();
+        if (turnoIds.isEmpty()) {
+            return visitas;
+        }
+        String marcas = String.join(", ", Collections.nCopies(turnoIds.size(), "?"));
+        try (PreparedStatement stmt = conn.prepareStatement(
+                SELECT_VISITA + "WHERE id IN (" + marcas + ") FOR UPDATE")) {
+            int i = 1;
+            for (Integer id : turnoIds) {
+                stmt.setInt(i++, id);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    visitas.put(rs.getInt("id"), desdeFila(rs));
+                }
+            }
+        }
+        return visitas;
+    }
+
+    private static VisitaCliente desdeFila(ResultSet rs) throws SQLException {
+        return new VisitaCliente(
+            rs.getInt("cliente_id"),
+            rs.getTimestamp("fecha_hora").toLocalDateTime(),
+            rs.getDouble("monto_pagado"),
+            "COMPLETADO".equals(rs.getString("estado")));
+    }
+
+    /**
+     * Reemplaza en las metricas la visita anterior por la nueva. No escribe
+     * nada si ninguna de las dos es una visita completada o si no cambio.
+     *
+     * @param anterior La visita antes del cambio, o null si el turno es nuevo
+     * @param nuevo La visita despues del cambio, o null si el turno se borro
+     */
+    static void reemplazar(Connection conn, VisitaCliente anterior, VisitaCliente nuevo) throws SQLException {
+        if (Objects.equals(anterior, nuevo)) {
+            return;
+        }
+        if (anterior == null || !anterior.completada) {
+            // Un turno que se completa: la unica transicion que se suma sin recalcular
+            if (nuevo != null && nuevo.completada) {
+                nuevo.sumar(conn);
+            }
+            return;
+        }
+        Set<Integer> clientes = new LinkedHashSet<>();
+        clientes.add(anterior.clienteId);
+        if (nuevo != null && nuevo.completada) {
+            clientes.add(nuevo.clienteId);
+        }
+        recalcular(conn, clientes);
+    }
+
+    private void sumar(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SUMAR_VISITA)) {
+            stmt.setInt(1, clienteId);
+            stmt.setDouble(2, monto);
+            stmt.setTimestamp(3, Timestamp.valueOf(fechaHora));
+            stmt.setTimestamp(4, Timestamp.valueOf(fechaHora));
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Vuelve a calcular las metricas de algunos clientes a partir de sus
+     * turnos completados. Los que ya no tienen ninguno quedan sin fila.
+     */
+    static void recalcular(Connection conn, Collection<Integer> clienteIds) throws SQLException {
+        if (clienteIds.isEmpty()) {
+            return;
+        }
+        String marcas = String.join(", ", Collections.nCopies(clienteIds.size(), "?"));
+        try (PreparedStatement borrar = conn.prepareStatement(
+                 "DELETE FROM cliente_metricas WHERE cliente_id IN (" + marcas + ")");
+             PreparedStatement insertar = conn.prepareStatement(
+                 INSERT_METRICAS + SELECT_METRICAS + "t.cliente_id IN (" + marcas + ")" + GROUP_BY_METRICAS)) {
+            int i = 1;
+            for (Integer id : clienteIds) {
+                borrar.setInt(i, id);
+                insertar.setInt(i, id);
+                i++;
+            }
+            borrar.executeUpdate();
+            insertar.executeUpdate();
+        }
+    }
+
+    /**
+     * Clientes con algun turno completado que cumple una condicion. Se usa
+     * antes de borrar un servicio, para recalcular despues a quienes les
+     * desaparecen visitas con la cascada.
+     *
+     * @param condicion Condicion sobre el alias t de turnos, con un unico parametro entero
+     * @param valor El valor del parametro
+     */
+    static List<Integer> clientesConVisitas(Connection conn, String condicion, int valor) throws SQLException {
+        List<Integer> clientes = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT DISTINCT t.cliente_id FROM turnos t WHERE t.estado = 'COMPLETADO' AND " + condicion)) {
+            stmt.setInt(1, valor);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    clientes.add(rs.getInt(1));
+                }
+            }
+        }
+        return clientes;
+    }
+
+    /**
+     * La misma visita movida a otra fecha y hora.
+     */
+    VisitaCliente movidaA(LocalDateTime fechaHora) {
+        return new VisitaCliente(clienteId, fechaHora, monto, completada);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof VisitaCliente)) {
+            return false;
+        }
+        VisitaCliente otra = (VisitaCliente) obj;
+        if (!completada || !otra.completada) {
+            // Lo que no es una visita no suma en las metricas
+            return completada == otra.completada;
+        }
+        return clienteId == otra.clienteId && fechaHora.equals(otra.fechaHora)
+            && Double.compare(monto, otra.monto) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return completada ? Objects.hash(clienteId, fechaHora, monto) : 0;
+    }
+}
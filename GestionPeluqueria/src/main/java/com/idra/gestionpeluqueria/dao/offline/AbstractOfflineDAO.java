@@ -0,0 +1,92 @@
+package com.idra.gestionpeluqueria.dao.offline;
+
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.local.ModoOffline;
+
+/**
+ * Base de los decoradores que mantienen la aplicacion funcionando sin conexion.
+ * Con conexion, cada operacion va al DAO decorado; si este falla por no poder
+ * conectarse, se activa el ModoOffline y la operacion se resuelve localmente.
+ * Los errores que no son de conexion se propagan sin cambios.
+ *
+ * @author Idra
+ */
+public abstract class AbstractOfflineDAO {
+
+    /**
+     * Operacion contra la base de datos o contra los datos locales.
+     *
+     * @param <T> Tipo del resultado
+     */
+    @FunctionalInterface
+    protected interface Operacion<T> {
+        T ejecutar() throws DAOException;
+    }
+
+    /**
+     * Operacion sin resultado.
+     */
+    @FunctionalInterface
+    protected interface Accion {
+        void ejecutar() throws DAOException;
+    }
+
+    final ModoOffline modo;
+    final AlmacenOffline almacen;
+
+    protected AbstractOfflineDAO() {
+        this.modo = ModoOffline.getInstance();
+        this.almacen = AlmacenOffline.getInstance();
+    }
+
+    /**
+     * Ejecuta la operacion en linea y, si no hay conexion, la alternativa local.
+     *
+     * @param enLinea Operacion contra la base de datos
+     * @param sinConexion Operacion equivalente sobre los datos locales
+     * @return El resultado de la operacion que se pudo ejecutar
+     * @throws DAOException Si falla la operacion por un motivo que no es de conexion
+     */
+    protected <T> T operar(Operacion<T> enLinea, Operacion<T> sinConexion) throws DAOException {
+        if (!modo.isOffline()) {
+            try {
+                return enLinea.ejecutar();
+            } catch (DAOException e) {
+                if (!ModoOffline.esFalloDeConexion(e)) {
+                    throw e;
+                }
+                modo.activar(e.getMessage());
+            }
+        }
+        return sinConexion.ejecutar();
+    }
+
+    /**
+     * Version sin resultado de {@link #operar(Operacion, Operacion)}.
+     *
+     * @param enLinea Accion contra la base de datos
+     * @param sinConexion Accion equivalente sobre los datos locales
+     * @throws DAOException Si falla la accion por un motivo que no es de conexion
+     */
+    protected void operar(Accion enLinea, Accion sinConexion) throws DAOException {
+        operar(() -> {
+            enLinea.ejecutar();
+            return null;
+        }, () -> {
+            sinConexion.ejecutar();
+            return null;
+        });
+    }
+
+    /**
+     * Accion local para las escrituras que no se admiten sin conexion.
+     *
+     * @param operacion Descripcion de la operacion rechazada
+     * @return Una accion que siempre falla con un mensaje claro
+     */
+    protected static Accion noDisponible(String operacion) {
+        return () -> {
+            throw new DAOException("No se puede " + operacion + " sin conexion con la base de datos");
+        };
+    }
+}
@@ -0,0 +1,162 @@
+package com.idra.gestionpeluqueria.dao.offline;
+
+import com.idra.gestionpeluqueria.local.DiarioOffline;
+import com.idra.gestionpeluqueria.local.SnapshotLocal;
+import com.idra.gestionpeluqueria.model.Cliente;
+import com.idra.gestionpeluqueria.model.Profesional;
+import com.idra.gestionpeluqueria.model.Servicio;
+import com.idra.gestionpeluqueria.model.Turno;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Vista en memoria de los datos disponibles sin conexion: el snapshot local
+ * con las entradas del DiarioOffline aplicadas encima. Se carga la primera
+ * vez que se usa y se descarta tras reproducir el diario, para que el
+ * siguiente corte parta del snapshot regenerado.
+ *
+ * Los turnos creados sin conexion llevan IDs negativos hasta que se insertan
+ * en la base de datos.
+ *
+ * @author Idra
+ */
+class AlmacenOffline {
+    private static AlmacenOffline instance;
+
+    private Map<Integer, Servicio> servicios;
+    private Map<Integer, Cliente> clientes;
+    private Map<Integer, Profesional> profesionales;
+    private Map<Integer, Turno> turnos;
+
+    static synchronized AlmacenOffline getInstance() {
+        if (instance == null) {
+            instance = new AlmacenOffline();
+        }
+        return instance;
+    }
+
+    synchronized List<Servicio> servicios(Predicate<Servicio> filtro) {
+        cargarSiHaceFalta();
+        return filtrar(servicios.values(), filtro);
+    }
+
+    synchronized List<Cliente> clientes(Predicate<Cliente> filtro) {
+        cargarSiHaceFalta();
+        return filtrar(clientes.values(), filtro);
+    }
+
+    synchronized List<Profesional> profesionales(Predicate<Profesional> filtro) {
+        cargarSiHaceFalta();
+        return filtrar(profesionales.values(), filtro);
+    }
+
+    synchronized List<Turno> turnos(Predicate<Turno> filtro) {
+        cargarSiHaceFalta();
+        List<Turno> resultado = new ArrayList<>();
+        for (Turno turno : turnos.values()) {
+            if (filtro.test(turno)) {
+                resultado.add(new Turno(turno));
+            }
+        }
+        return resultado;
+    }
+
+    synchronized Turno turno(int id) {
+        cargarSiHaceFalta();
+        Turno turno = turnos.get(id);
+        return turno != null ? new Turno(turno) : null;
+    }
+
+    /**
+     * @return Un ID negativo sin usar para un turno creado sin conexion
+     */
+    synchronized int proximoIdLocal() {
+        cargarSiHaceFalta();
+        int minimo = 0;
+        for (int id : turnos.keySet()) {
+            minimo = Math.min(minimo, id);
+        }
+        return minimo - 1;
+    }
+
+    /**
+     * Registra el estado de un turno creado o modificado sin conexion.
+     *
+     * @param turno El turno tal como debe verse localmente
+     */
+    synchronized void aplicar(Turno turno) {
+        cargarSiHaceFalta();
+        turnos.put(turno.getId(), resolverReferencias(new Turno(turno)));
+    }
+
+    /**
+     * Olvida los datos cargados; la proxima lectura vuelve al snapshot.
+     */
+    synchronized void descartar() {
+        servicios = null;
+        clientes = null;
+        profesionales = null;
+        turnos = null;
+    }
+
+    private void cargarSiHaceFalta() {
+        if (turnos != null) {
+            return;
+        }
+        SnapshotLocal.Contenido snapshot = SnapshotLocal.getInstance().cargar();
+        servicios = new LinkedHashMap<>();
+        snapshot.getServicios().forEach(servicio -> servicios.put(servicio.getId(), servicio));
+        clientes = new LinkedHashMap<>();
+        snapshot.getClientes().forEach(cliente -> clientes.put(cliente.getId(), cliente));
+        profesionales = new LinkedHashMap<>();
+        snapshot.getProfesionales().forEach(profesional -> profesionales.put(profesional.getId(), profesional));
+        turnos = new LinkedHashMap<>();
+        snapshot.getTurnos().forEach(turno -> turnos.put(turno.getId(), turno));
+
+        // Lo anotado en una ejecucion anterior que no llego a la base de datos
+        try {
+            for (DiarioOffline.Entrada entrada : DiarioOffline.getInstance().leer()) {
+                Turno turno = entrada.getTurno();
+                if (entrada.getTipo() == DiarioOffline.Entrada.Tipo.ACTUALIZAR_TURNO) {
+                    turno.setVersion(turno.getVersion() + 1);
+                }
+                turnos.put(turno.getId(), resolverReferencias(turno));
+            }
+        } catch (IOException e) {
+            System.err.println("No se pudo leer el diario sin conexion: " + e.getMessage());
+        }
+    }
+
+    // El diario solo guarda los IDs; se completan con los datos del snapshot
+    private Turno resolverReferencias(Turno turno) {
+        Cliente cliente = clientes.get(turno.getCliente().getId());
+        if (cliente != null) {
+            turno.setCliente(cliente);
+        }
+        Servicio servicio = servicios.get(turno.getServicio().getId());
+        if (servicio != null) {
+            turno.setServicio(servicio);
+        }
+        if (turno.getProfesional() != null) {
+            Profesional profesional = profesionales.get(turno.getProfesional().getId());
+            if (profesional != null) {
+                turno.setProfesional(profesional);
+            }
+        }
+        return turno;
+    }
+
+    private static <T> List<T> filtrar(Iterable<T> valores, Predicate<T> filtro) {
+        List<T> resultado = new ArrayList<>();
+        for (T valor : valores) {
+            if (filtro.test(valor)) {
+                resultado.add(valor);
+            }
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,85 @@
+package com.idra.gestionpeluqueria.dao.offline;
+
+import com.idra.gestionpeluqueria.dao.ClienteDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.Cliente;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decorador de ClienteDAO para trabajar sin conexion. Las consultas se
+ * resuelven con los clientes del snapshot local; las altas y modificaciones
+ * requieren conexion y se rechazan con un mensaje claro.
+ *
+ * @author Idra
+ */
+public class OfflineClienteDAO extends AbstractOfflineDAO implements ClienteDAO {
+    private static final Comparator<Cliente> POR_APELLIDO =
+        Comparator.comparing(Cliente::getApellido, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Cliente::getNombre, String.CASE_INSENSITIVE_ORDER);
+
+    private final ClienteDAO delegado;
+
+    /**
+     * Constructor que decora un ClienteDAO.
+     *
+     * @param delegado El DAO que accede a la base de datos
+     */
+    public OfflineClienteDAO(ClienteDAO delegado) {
+        this.delegado = delegado;
+    }
+
+    @Override
+    public void crear(Cliente cliente) throws DAOException {
+        operar(() -> delegado.crear(cliente), noDisponible("registrar clientes"));
+    }
+
+    @Override
+    public Cliente buscarPorId(int id) throws DAOException {
+        return operar(() -> delegado.buscarPorId(id), () -> {
+            List<Cliente> encontrados = almacen.clientes(cliente -> cliente.getId() == id);
+            return encontrados.isEmpty() ? null : encontrados.get(0);
+        });
+    }
+
+    @Override
+    public List<Cliente> buscarTodos() throws DAOException {
+        return operar(delegado::buscarTodos, () -> ordenar(almacen.clientes(cliente -> true)));
+    }
+
+    @Override
+    public List<Cliente> buscarPorNombre(String nombre) throws DAOException {
+        String buscado = nombre.toLowerCase();
+        return operar(() -> delegado.buscarPorNombre(nombre), () -> ordenar(almacen.clientes(cliente ->
+            cliente.getNombre().toLowerCase().contains(buscado)
+                || cliente.getApellido().toLowerCase().contains(buscado))));
+    }
+
+    @Override
+    public void actualizar(Cliente cliente) throws DAOException {
+        operar(() -> delegado.actualizar(cliente), noDisponible("modificar clientes"));
+    }
+
+    @Override
+    public void eliminar(int id) throws DAOException {
+        operar(() -> delegado.eliminar(id), noDisponible("eliminar clientes"));
+    }
+
+    @Override
+    public boolean existeTelefono(String telefono) throws DAOException {
+        return operar(() -> delegado.existeTelefono(telefono),
+            () -> !almacen.clientes(cliente -> telefono.equals(cliente.getTelefono())).isEmpty());
+    }
+
+    @Override
+    public void actualizarEmailEnLote(Map<Integer, String> emailPorCliente) throws DAOException {
+        // Quedan en la cola de escritura diferida hasta que vuelva la conexion
+        operar(() -> delegado.actualizarEmailEnLote(emailPorCliente), noDisponible("actualizar emails en lote"));
+    }
+
+    private static List<Cliente> ordenar(List<Cliente> clientes) {
+        clientes.sort(POR_APELLIDO);
+        return clientes;
+    }
+}
@@ -0,0 +1,89 @@
+package com.idra.gestionpeluqueria.dao.offline;
+
+import com.idra.gestionpeluqueria.dao.MetricasClienteDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.MetricasCliente;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Decorador de MetricasClienteDAO para trabajar sin conexion. Sin la tabla
+ * cliente_metricas las metricas se calculan con los turnos completados del
+ * snapshot local.
+ *
+ * @author Idra
+ */
+public class OfflineMetricasClienteDAO extends AbstractOfflineDAO implements MetricasClienteDAO {
+
+    private final MetricasClienteDAO delegado;
+
+    /**
+     * Constructor que decora un MetricasClienteDAO.
+     *
+     * @param delegado El DAO que accede a la base de datos
+     */
+    public OfflineMetricasClienteDAO(MetricasClienteDAO delegado) {
+        this.delegado = delegado;
+    }
+
+    @Override
+    public MetricasCliente buscarPorCliente(int clienteId) throws DAOException {
+        return operar(() -> delegado.buscarPorCliente(clienteId), () -> {
+            List<MetricasCliente> metricas = calcular(turno -> turno.getCliente().getId() == clienteId);
+            return metricas.isEmpty() ? null : metricas.get(0);
+        });
+    }
+
+    @Override
+    public List<MetricasCliente> buscarMejores(int limite) throws DAOException {
+        return operar(() -> delegado.buscarMejores(limite), () -> calcular(turno -> true).stream()
+            .sorted(Comparator.comparingDouble(MetricasCliente::getTotalPagado).reversed())
+            .limit(limite)
+            .collect(Collectors.toList()));
+    }
+
+    @Override
+    public List<MetricasCliente> buscarAusentes(LocalDate sinVisitasDesde, int limite) throws DAOException {
+        LocalDateTime limiteVisita = sinVisitasDesde.atStartOfDay();
+        return operar(() -> delegado.buscarAusentes(sinVisitasDesde, limite), () -> calcular(turno -> true).stream()
+            .filter(metricas -> metricas.getUltimaVisita().isBefore(limiteVisita))
+            .sorted(Comparator.comparing(MetricasCliente::getUltimaVisita).reversed())
+            .limit(limite)
+            .collect(Collectors.toList()));
+    }
+
+    @Override
+    public int reconstruir() throws DAOException {
+        return operar(delegado::reconstruir, () -> {
+            noDisponible("reconstruir las metricas de clientes").ejecutar();
+            return 0;
+        });
+    }
+
+    private List<MetricasCliente> calcular(Predicate<Turno> filtro) {
+        Map<Integer, MetricasCliente> porCliente = new LinkedHashMap<>();
+        for (Turno turno : almacen.turnos(turno -> turno.getEstado() == EstadoTurno.COMPLETADO && filtro.test(turno))) {
+            LocalDateTime fecha = turno.getFechaHora();
+            MetricasCliente metricas = porCliente.computeIfAbsent(turno.getCliente().getId(),
+                id -> new MetricasCliente(turno.getCliente(), 0, 0.0, fecha, fecha));
+            metricas.setVisitas(metricas.getVisitas() + 1);
+            metricas.setTotalPagado(metricas.getTotalPagado() + turno.getMontoPagado());
+            if (fecha.isBefore(metricas.getPrimeraVisita())) {
+                metricas.setPrimeraVisita(fecha);
+            }
+            if (fecha.isAfter(metricas.getUltimaVisita())) {
+                metricas.setUltimaVisita(fecha);
+            }
+        }
+        return new ArrayList<>(porCliente.values());
+    }
+}
@@ -0,0 +1,52 @@
+package com.idra.gestionpeluqueria.dao.offline;
+
+import com.idra.gestionpeluqueria.dao.OcupacionDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.MapaOcupacion;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
+import java.time.LocalDate;
+
+/**
+ * Decorador de OcupacionDAO para trabajar sin conexion. Sin la tabla
+ * ocupacion_horaria el mapa se arma repartiendo los turnos del snapshot
+ * local, con el mismo criterio.
+ *
+ * @author Idra
+ */
+public class OfflineOcupacionDAO extends AbstractOfflineDAO implements OcupacionDAO {
+
+    private final OcupacionDAO delegado;
+
+    /**
+     * Constructor que decora un OcupacionDAO.
+     *
+     * @param delegado El DAO que accede a la base de datos
+     */
+    public OfflineOcupacionDAO(OcupacionDAO delegado) {
+        this.delegado = delegado;
+    }
+
+    @Override
+    public MapaOcupacion buscarPorRango(LocalDate desde, LocalDate hasta) throws DAOException {
+        return operar(() -> delegado.buscarPorRango(desde, hasta), () -> {
+            MapaOcupacion mapa = new MapaOcupacion(desde, hasta);
+            for (Turno turno : almacen.turnos(turno -> turno.getEstado() != EstadoTurno.CANCELADO)) {
+                MapaOcupacion.repartir(turno.getFechaHora(), turno.getServicio().getDuracionMinutos(), (hora, minutos) -> {
+                    if (!hora.toLocalDate().isBefore(desde) && !hora.toLocalDate().isAfter(hasta)) {
+                        mapa.sumar(hora.getDayOfWeek(), hora.getHour(), turno.getServicio().getTipoServicio(), minutos);
+                    }
+                });
+            }
+            return mapa;
+        });
+    }
+
+    @Override
+    public int reconstruir() throws DAOException {
+        return operar(delegado::reconstruir, () -> {
+            noDisponible("reconstruir la ocupacion por hora").ejecutar();
+            return 0;
+        });
+    }
+}
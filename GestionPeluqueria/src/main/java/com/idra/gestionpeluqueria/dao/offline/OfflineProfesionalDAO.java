@@ -0,0 +1,69 @@
+package com.idra.gestionpeluqueria.dao.offline;
+
+import com.idra.gestionpeluqueria.dao.ProfesionalDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.Profesional;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decorador de ProfesionalDAO para trabajar sin conexion. Los profesionales
+ * se leen del snapshot local, asi se puede seguir asignando turnos; altas y
+ * cambios quedan para cuando vuelva la conexion.
+ *
+ * @author Idra
+ */
+public class OfflineProfesionalDAO extends AbstractOfflineDAO implements ProfesionalDAO {
+    private static final Comparator<Profesional> POR_APELLIDO = Comparator
+        .comparing(Profesional::getApellido, String.CASE_INSENSITIVE_ORDER)
+        .thenComparing(Profesional::getNombre, String.CASE_INSENSITIVE_ORDER);
+
+    private final ProfesionalDAO delegado;
+
+    /**
+     * Constructor que decora un ProfesionalDAO.
+     *
+     * @param delegado El DAO que accede a la base de datos
+     */
+    public OfflineProfesionalDAO(ProfesionalDAO delegado) {
+        this.delegado = delegado;
+    }
+
+    @Override
+    public void crear(Profesional profesional) throws DAOException {
+        operar(() -> delegado.crear(profesional), noDisponible("crear profesionales"));
+    }
+
+    @Override
+    public Profesional buscarPorId(int id) throws DAOException {
+        return operar(() -> delegado.buscarPorId(id), () -> {
+            List<Profesional> encontrados = almacen.profesionales(profesional -> profesional.getId() == id);
+            return encontrados.isEmpty() ? null : encontrados.get(0);
+        });
+    }
+
+    @Override
+    public List<Profesional> buscarTodos() throws DAOException {
+        return operar(delegado::buscarTodos, () -> ordenar(almacen.profesionales(profesional -> true)));
+    }
+
+    @Override
+    public List<Profesional> buscarActivos() throws DAOException {
+        return operar(delegado::buscarActivos, () -> ordenar(almacen.profesionales(Profesional::isActivo)));
+    }
+
+    @Override
+    public void actualizar(Profesional profesional) throws DAOException {
+        operar(() -> delegado.actualizar(profesional), noDisponible("modificar profesionales"));
+    }
+
+    @Override
+    public void eliminar(int id) throws DAOException {
+        operar(() -> delegado.eliminar(id), noDisponible("eliminar profesionales"));
+    }
+
+    private static List<Profesional> ordenar(List<Profesional> profesionales) {
+        profesionales.sort(POR_APELLIDO);
+        return profesionales;
+    }
+}
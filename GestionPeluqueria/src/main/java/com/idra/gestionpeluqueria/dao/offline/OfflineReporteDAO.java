@@ -0,0 +1,36 @@
+package com.idra.gestionpeluqueria.dao.offline;
+
+import com.idra.gestionpeluqueria.dao.ReporteDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.DefinicionReporte;
+import com.idra.gestionpeluqueria.model.FilaReporte;
+import java.util.List;
+
+/**
+ * Decorador de ReporteDAO para trabajar sin conexion. El snapshot local no
+ * tiene la historia completa, asi que sin conexion los reportes no se
+ * generan; los que ya estaban en cache se siguen viendo.
+ *
+ * @author Idra
+ */
+public class OfflineReporteDAO extends AbstractOfflineDAO implements ReporteDAO {
+
+    private final ReporteDAO delegado;
+
+    /**
+     * Constructor que decora un ReporteDAO.
+     *
+     * @param delegado El DAO que accede a la base de datos
+     */
+    public OfflineReporteDAO(ReporteDAO delegado) {
+        this.delegado = delegado;
+    }
+
+    @Override
+    public List<FilaReporte> agrupar(DefinicionReporte definicion) throws DAOException {
+        return operar(() -> delegado.agrupar(definicion), () -> {
+            noDisponible("generar reportes").ejecutar();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package com.idra.gestionpeluqueria.dao.offline;
+
+import com.idra.gestionpeluqueria.dao.ResumenDiarioDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.ResumenDiario;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.model.enums.EstadoPago;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decorador de ResumenDiarioDAO para trabajar sin conexion. Sin la tabla
+ * resumen_diario el resumen se arma sumando los turnos del snapshot local,
+ * que incluyen los pagos anotados mientras no hubo conexion.
+ *
+ * @author Idra
+ */
+public class OfflineResumenDiarioDAO extends AbstractOfflineDAO implements ResumenDiarioDAO {
+
+    private final ResumenDiarioDAO delegado;
+
+    /**
+     * Constructor que decora un ResumenDiarioDAO.
+     *
+     * @param delegado El DAO que accede a la base de datos
+     */
+    public OfflineResumenDiarioDAO(ResumenDiarioDAO delegado) {
+        this.delegado = delegado;
+    }
+
+    @Override
+    public double sumarCobrado(LocalDate desde, LocalDate hasta) throws DAOException {
+        return operar(() -> delegado.sumarCobrado(desde, hasta), () -> cobrados(desde, hasta).stream()
+            .mapToDouble(Turno::getMontoPagado)
+            .sum());
+    }
+
+    @Override
+    public List<ResumenDiario> buscarPorRango(LocalDate desde, LocalDate hasta) throws DAOException {
+        return operar(() -> delegado.buscarPorRango(desde, hasta), () -> agrupar(cobrados(desde, hasta)));
+    }
+
+    @Override
+    public int reconstruir(LocalDate desde, LocalDate hasta) throws DAOException {
+        return operar(() -> delegado.reconstruir(desde, hasta), () -> {
+            noDisponible("reconstruir el resumen diario").ejecutar();
+            return 0;
+        });
+    }
+
+    private List<Turno> cobrados(LocalDate desde, LocalDate hasta) {
+        return almacen.turnos(turno -> turno.getEstadoPago() == EstadoPago.PAGADO
+            && !turno.getFechaHora().toLocalDate().isBefore(desde)
+            && !turno.getFechaHora().toLocalDate().isAfter(hasta));
+    }
+
+    private static List<ResumenDiario> agrupar(List<Turno> turnos) {
+        turnos.sort(Comparator.comparing(Turno::getFechaHora));
+        Map<List<Object>, ResumenDiario> filas = new LinkedHashMap<>();
+        for (Turno turno : turnos) {
+            LocalDate fecha = turno.getFechaHora().toLocalDate();
+            List<Object> clave = Arrays.asList(fecha, turno.getFormaPago(), turno.getServicio().getTipoServicio());
+            ResumenDiario fila = filas.computeIfAbsent(clave, k -> new ResumenDiario(
+                fecha, turno.getFormaPago(), turno.getServicio().getTipoServicio(), 0, 0.0));
+            fila.setCantidadTurnos(fila.getCantidadTurnos() + 1);
+            fila.setTotalCobrado(fila.getTotalCobrado() + turno.getMontoPagado());
+        }
+        return new ArrayList<>(filas.values());
+    }
+}
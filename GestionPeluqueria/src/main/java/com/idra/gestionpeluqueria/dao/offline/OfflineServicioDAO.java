@@ -0,0 +1,73 @@
+package com.idra.gestionpeluqueria.dao.offline;
+
+import com.idra.gestionpeluqueria.dao.ServicioDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.Servicio;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decorador de ServicioDAO para trabajar sin conexion. El catalogo se lee
+ * del snapshot local y no se puede modificar hasta recuperar la conexion.
+ *
+ * @author Idra
+ */
+public class OfflineServicioDAO extends AbstractOfflineDAO implements ServicioDAO {
+    private static final Comparator<Servicio> POR_NOMBRE =
+        Comparator.comparing(Servicio::getNombre, String.CASE_INSENSITIVE_ORDER);
+
+    private final ServicioDAO delegado;
+
+    /**
+     * Constructor que decora un ServicioDAO.
+     *
+     * @param delegado El DAO que accede a la base de datos
+     */
+    public OfflineServicioDAO(ServicioDAO delegado) {
+        this.delegado = delegado;
+    }
+
+    @Override
+    public void crear(Servicio servicio) throws DAOException {
+        operar(() -> delegado.crear(servicio), noDisponible("crear servicios"));
+    }
+
+    @Override
+    public Servicio buscarPorId(int id) throws DAOException {
+        return operar(() -> delegado.buscarPorId(id), () -> {
+            List<Servicio> encontrados = almacen.servicios(servicio -> servicio.getId() == id);
+            return encontrados.isEmpty() ? null : encontrados.get(0);
+        });
+    }
+
+    @Override
+    public List<Servicio> buscarTodos() throws DAOException {
+        return operar(delegado::buscarTodos, () -> ordenar(almacen.servicios(servicio -> true)));
+    }
+
+    @Override
+    public List<Servicio> buscarActivos() throws DAOException {
+        return operar(delegado::buscarActivos, () -> ordenar(almacen.servicios(Servicio::isActivo)));
+    }
+
+    @Override
+    public List<Servicio> buscarPorTipo(String tipoServicio) throws DAOException {
+        return operar(() -> delegado.buscarPorTipo(tipoServicio), () -> ordenar(almacen.servicios(servicio ->
+            servicio.isActivo() && servicio.getTipoServicio().name().equals(tipoServicio))));
+    }
+
+    @Override
+    public void actualizar(Servicio servicio) throws DAOException {
+        operar(() -> delegado.actualizar(servicio), noDisponible("modificar servicios"));
+    }
+
+    @Override
+    public void eliminar(int id) throws DAOException {
+        operar(() -> delegado.eliminar(id), noDisponible("eliminar servicios"));
+    }
+
+    private static List<Servicio> ordenar(List<Servicio> servicios) {
+        servicios.sort(POR_NOMBRE);
+        return servicios;
+    }
+}
@@ -0,0 +1,389 @@
+package com.idra.gestionpeluqueria.dao.offline;
+
+import com.idra.gestionpeluqueria.dao.TurnoDAO;
+import com.idra.gestionpeluqueria.exception.ConflictoConcurrenciaException;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.local.DiarioOffline;
+import com.idra.gestionpeluqueria.local.ModoOffline;
+import com.idra.gestionpeluqueria.model.CambiosTurnos;
+import com.idra.gestionpeluqueria.model.Servicio;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
+import com.idra.gestionpeluqueria.util.DateUtils;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decorador de TurnoDAO para trabajar sin conexion. Las lecturas salen del
+ * snapshot local; los turnos nuevos y las actualizaciones (pagos,
+ * cancelaciones, cambios de horario) se anotan en el DiarioOffline y se
+ * reproducen en orden al recuperar la conexion.
+ *
+ * Al reproducir, un turno nuevo cuyo horario ya fue reservado desde otra
+ * terminal (segun existeTurnoEnFechaHora), o cuyo profesional ya tiene otro
+ * turno en ese horario, o una actualizacion sobre un turno
+ * modificado mientras tanto, no se aplica: se archiva como conflicto y se
+ * avisa al usuario.
+ *
+ * @author Idra
+ */
+public class OfflineTurnoDAO extends AbstractOfflineDAO implements TurnoDAO {
+    private static final Comparator<Turno> POR_FECHA = Comparator.comparing(Turno::getFechaHora);
+    private static final Comparator<Turno> POR_FECHA_E_ID = POR_FECHA.thenComparing(Turno::getId);
+
+    private final TurnoDAO delegado;
+    private final DiarioOffline diario;
+
+    /**
+     * Constructor que decora un TurnoDAO.
+     *
+     * @param delegado El DAO que accede a la base de datos
+     */
+    public OfflineTurnoDAO(TurnoDAO delegado) {
+        this.delegado = delegado;
+        this.diario = DiarioOffline.getInstance();
+    }
+
+    @Override
+    public void crear(Turno turno) throws DAOException {
+        operar(() -> delegado.crear(turno), () -> crearSinConexion(turno));
+    }
+
+    @Override
+    public Turno buscarPorId(int id) throws DAOException {
+        return operar(() -> delegado.buscarPorId(id), () -> almacen.turno(id));
+    }
+
+    @Override
+    public List<Turno> buscarTodos() throws DAOException {
+        return operar(delegado::buscarTodos, () -> ordenar(almacen.turnos(turno -> true), POR_FECHA.reversed()));
+    }
+
+    @Override
+    public int contarTodos() throws DAOException {
+        return operar(delegado::contarTodos, () -> almacen.turnos(turno -> true).size());
+    }
+
+    @Override
+    public void recorrerTodos(LectorFila lector) throws DAOException {
+        operar(() -> delegado.recorrerTodos(lector), () -> {
+            for (Turno turno : almacen.turnos(t -> true)) {
+                lector.leer(turno.getId(), (int) (turno.getFechaHora().toEpochSecond(ZoneOffset.UTC) / 60),
+                    turno.getCliente().getId(), turno.getServicio().getId(), turno.getEstado(), turno.getEstadoPago(),
+                    turno.getFormaPago(), turno.getServicio().getTipoServicio(), Math.round(turno.getMontoPagado() * 100));
+            }
+        });
+    }
+
+    @Override
+    public List<Turno> buscarPagina(LocalDateTime fechaHora, int id, int saltear, int cantidad) throws DAOException {
+        return operar(() -> delegado.buscarPagina(fechaHora, id, saltear, cantidad), () -> {
+            List<Turno> turnos = ordenar(almacen.turnos(turno -> fechaHora == null
+                || turno.getFechaHora().isBefore(fechaHora)
+                || (turno.getFechaHora().equals(fechaHora) && turno.getId() < id)), POR_FECHA_E_ID.reversed());
+            int desde = Math.min(saltear, turnos.size());
+            return new ArrayList<>(turnos.subList(desde, Math.min(desde + cantidad, turnos.size())));
+        });
+    }
+
+    @Override
+    public List<Turno> buscarAnclasPagina(int cada) throws DAOException {
+        return operar(() -> delegado.buscarAnclasPagina(cada), () -> {
+            List<Turno> turnos = ordenar(almacen.turnos(turno -> true), POR_FECHA_E_ID.reversed());
+            List<Turno> anclas = new ArrayList<>();
+            for (int i = cada - 1; i < turnos.size(); i += cada) {
+                anclas.add(turnos.get(i));
+            }
+            return anclas;
+        });
+    }
+
+    @Override
+    public List<Turno> buscarPorFecha(LocalDate fecha) throws DAOException {
+        return operar(() -> delegado.buscarPorFecha(fecha), () -> ordenar(
+            almacen.turnos(turno -> turno.getFechaHora().toLocalDate().equals(fecha)), POR_FECHA));
+    }
+
+    @Override
+    public List<Turno> buscarPorRango(LocalDateTime desde, LocalDateTime hasta) throws DAOException {
+        return operar(() -> delegado.buscarPorRango(desde, hasta), () -> ordenar(
+            almacen.turnos(turno -> !turno.getFechaHora().isBefore(desde) && turno.getFechaHora().isBefore(hasta)),
+            POR_FECHA));
+    }
+
+    @Override
+    public CambiosTurnos buscarCambiosDelDia(LocalDate fecha, LocalDateTime desde) throws DAOException {
+        // Sin conexion no hay marca: se devuelve el dia completo del snapshot, y
+        // todos sus IDs como vigentes para que se quiten los que ya no estan
+        return operar(() -> delegado.buscarCambiosDelDia(fecha, desde), () -> {
+            List<Turno> turnos = ordenar(
+                almacen.turnos(turno -> turno.getFechaHora().toLocalDate().equals(fecha)), POR_FECHA);
+            if (desde == null) {
+                return new CambiosTurnos(turnos, null);
+            }
+            Set<Integer> vigentes = new HashSet<>();
+            turnos.forEach(turno -> vigentes.add(turno.getId()));
+            return new CambiosTurnos(turnos, null, vigentes);
+        });
+    }
+
+    @Override
+    public List<Turno> buscarPorCliente(int clienteId) throws DAOException {
+        return operar(() -> delegado.buscarPorCliente(clienteId), () -> ordenar(
+            almacen.turnos(turno -> turno.getCliente().getId() == clienteId), POR_FECHA.reversed()));
+    }
+
+    @Override
+    public List<Turno> buscarPorEstado(String estado) throws DAOException {
+        return operar(() -> delegado.buscarPorEstado(estado), () -> ordenar(
+            almacen.turnos(turno -> turno.getEstado().name().equals(estado)), POR_FECHA.reversed()));
+    }
+
+    @Override
+    public void actualizar(Turno turno) throws DAOException {
+        operar(() -> delegado.actualizar(turno), () -> actualizarSinConexion(turno));
+    }
+
+    @Override
+    public void eliminar(int id) throws DAOException {
+        operar(() -> delegado.eliminar(id), noDisponible("eliminar turnos"));
+    }
+
+    @Override
+    public boolean existeTurnoEnFechaHora(int servicioId, LocalDateTime fechaHora) throws DAOException {
+        return operar(() -> delegado.existeTurnoEnFechaHora(servicioId, fechaHora),
+            () -> !almacen.turnos(turno -> turno.getServicio().getId() == servicioId
+                && turno.getFechaHora().equals(fechaHora)
+                && turno.getEstado() != EstadoTurno.CANCELADO).isEmpty());
+    }
+
+    @Override
+    public boolean existeSolapamientoProfesional(int profesionalId, LocalDateTime inicio, LocalDateTime fin,
+            int turnoExcluidoId) throws DAOException {
+        return operar(() -> delegado.existeSolapamientoProfesional(profesionalId, inicio, fin, turnoExcluidoId),
+            () -> !almacen.turnos(turno -> turno.getProfesional() != null
+                && turno.getProfesional().getId() == profesionalId
+                && turno.getId() != turnoExcluidoId
+                && turno.getEstado() != EstadoTurno.CANCELADO
+                && turno.getFechaHora().isBefore(fin)
+                && turno.getFechaHora().plusMinutes(turno.getServicio().getDuracionMinutos()).isAfter(inicio)).isEmpty());
+    }
+
+    @Override
+    public List<Integer> actualizarNotasEnLote(Map<Integer, String> notasPorTurno,
+            Map<Integer, Integer> versionPorTurno) throws DAOException {
+        // La cola de escritura diferida ya conserva y reintenta estos cambios
+        return operar(() -> delegado.actualizarNotasEnLote(notasPorTurno, versionPorTurno), () -> {
+            noDisponible("actualizar notas en lote").ejecutar();
+            return null;
+        });
+    }
+
+    @Override
+    public void crearEnLote(List<Turno> turnos) throws DAOException {
+        // Sin conexion cada turno va al diario por separado y se reproduce como uno mas
+        operar(() -> delegado.crearEnLote(turnos), () -> {
+            for (Turno turno : turnos) {
+                crearSinConexion(turno);
+            }
+        });
+    }
+
+    @Override
+    public void reprogramarEnLote(List<Turno> turnos) throws DAOException {
+        // Mover varios turnos a la vez necesita ver la agenda real de todas las terminales
+        operar(() -> delegado.reprogramarEnLote(turnos), noDisponible("reorganizar la agenda"));
+    }
+
+    /**
+     * Aplica en la base de datos, en orden, las entradas pendientes del diario.
+     * Si se vuelve a perder la conexion a mitad de camino, lo no aplicado
+     * queda en el diario y se lanza la excepcion.
+     *
+     * @throws DAOException Si se pierde la conexion durante la reproduccion
+     * @throws IOException Si no se puede leer o reescribir el diario
+     */
+    public void reproducirDiario() throws DAOException, IOException {
+        List<DiarioOffline.Entrada> entradas = diario.leer();
+        if (entradas.isEmpty()) {
+            return;
+        }
+        System.out.println("🔄 Reproduciendo " + entradas.size() + " cambios hechos sin conexion...");
+
+        Map<Integer, Integer> idsReales = new HashMap<>();
+        Set<Integer> noCreados = new HashSet<>();
+        int aplicadas = 0;
+        int conflictos = 0;
+        for (int i = 0; i < entradas.size(); i++) {
+            DiarioOffline.Entrada entrada = entradas.get(i);
+            try {
+                String conflicto = reproducir(entrada, idsReales, noCreados);
+                if (conflicto == null) {
+                    aplicadas++;
+                } else {
+                    conflictos++;
+                    registrarConflicto(entrada, conflicto);
+                }
+            } catch (DAOException e) {
+                if (ModoOffline.esFalloDeConexion(e)) {
+                    guardarRestantes(entradas.subList(i, entradas.size()), idsReales);
+                    throw e;
+                }
+                conflictos++;
+                registrarConflicto(entrada, e.getMessage());
+            }
+        }
+
+        diario.reemplazar(new ArrayList<>());
+        almacen.descartar();
+        System.out.println("✅ Cambios sin conexion aplicados: " + aplicadas + ", en conflicto: " + conflictos);
+    }
+
+    // Devuelve null si la entrada se aplico, o el motivo por el que no
+    private String reproducir(DiarioOffline.Entrada entrada, Map<Integer, Integer> idsReales,
+                              Set<Integer> noCreados) throws DAOException {
+        Turno turno = entrada.getTurno();
+        int idLocal = turno.getId();
+
+        if (entrada.getTipo() == DiarioOffline.Entrada.Tipo.CREAR_TURNO) {
+            if (delegado.existeTurnoEnFechaHora(turno.getServicio().getId(), turno.getFechaHora())) {
+                noCreados.add(idLocal);
+                return "el horario ya fue reservado desde otra terminal";
+            }
+            if (profesionalOcupado(turno)) {
+                noCreados.add(idLocal);
+                return "el profesional ya tiene otro turno en ese horario";
+            }
+            delegado.crear(turno);
+            idsReales.put(idLocal, turno.getId());
+            return null;
+        }
+
+        if (idLocal < 0) {
+            if (noCreados.contains(idLocal) || !idsReales.containsKey(idLocal)) {
+                return "el turno creado sin conexion no se pudo registrar";
+            }
+            turno.setId(idsReales.get(idLocal));
+        }
+        Turno actual = delegado.buscarPorId(turno.getId());
+        if (actual == null) {
+            return "el turno fue eliminado desde otra terminal";
+        }
+        boolean cambioHorario = actual.getServicio().getId() != turno.getServicio().getId()
+            || !actual.getFechaHora().equals(turno.getFechaHora());
+        if (cambioHorario && turno.getEstado() != EstadoTurno.CANCELADO
+            && delegado.existeTurnoEnFechaHora(turno.getServicio().getId(), turno.getFechaHora())) {
+            return "el nuevo horario ya fue reservado desde otra terminal";
+        }
+        boolean cambioProfesional = turno.getProfesional() != null && (actual.getProfesional() == null
+            || actual.getProfesional().getId() != turno.getProfesional().getId());
+        if ((cambioHorario || cambioProfesional) && turno.getEstado() != EstadoTurno.CANCELADO && profesionalOcupado(turno)) {
+            return "el profesional ya tiene otro turno en ese horario";
+        }
+        try {
+            delegado.actualizar(turno);
+        } catch (ConflictoConcurrenciaException e) {
+            return "el turno fue modificado desde otra terminal";
+        }
+        return null;
+    }
+
+    private boolean profesionalOcupado(Turno turno) throws DAOException {
+        if (turno.getProfesional() == null) {
+            return false;
+        }
+        // El diario solo guarda el ID del servicio; la duracion sale del snapshot
+        int servicioId = turno.getServicio().getId();
+        List<Servicio> servicios = almacen.servicios(servicio -> servicio.getId() == servicioId);
+        int duracion = servicios.isEmpty() ? 1 : servicios.get(0).getDuracionMinutos();
+        return delegado.existeSolapamientoProfesional(turno.getProfesional().getId(), turno.getFechaHora(),
+            turno.getFechaHora().plusMinutes(Math.max(duracion, 1)), Math.max(turno.getId(), 0));
+    }
+
+    private void registrarConflicto(DiarioOffline.Entrada entrada, String motivo) {
+        diario.archivarConflicto(entrada, motivo);
+        String aviso = describir(entrada) + ": " + motivo;
+        modo.agregarAvisoReconexion(aviso);
+        System.err.println("⚠️ Cambio sin conexion no aplicado. " + aviso);
+    }
+
+    private String describir(DiarioOffline.Entrada entrada) {
+        Turno turno = almacen.turno(entrada.getTurno().getId());
+        if (turno == null) {
+            turno = entrada.getTurno();
+        }
+        String cliente = turno.getCliente().getNombre() != null
+            ? turno.getCliente().getNombre() + " " + turno.getCliente().getApellido()
+            : "cliente " + turno.getCliente().getId();
+        String accion = entrada.getTipo() == DiarioOffline.Entrada.Tipo.CREAR_TURNO ? "Turno nuevo" : "Cambio en turno";
+        return accion + " de " + cliente + " (" + DateUtils.formatDisplayDate(entrada.getTurno().getFechaHora()) + ")";
+    }
+
+    // Las entradas que quedan pendientes pasan a referirse a los IDs reales ya asignados
+    private void guardarRestantes(List<DiarioOffline.Entrada> restantes, Map<Integer, Integer> idsReales) throws IOException {
+        List<DiarioOffline.Entrada> pendientes = new ArrayList<>();
+        for (DiarioOffline.Entrada entrada : restantes) {
+            Integer idReal = idsReales.get(entrada.getTurno().getId());
+            pendientes.add(idReal != null ? entrada.conId(idReal) : entrada);
+        }
+        diario.reemplazar(pendientes);
+    }
+
+    private void crearSinConexion(Turno turno) throws DAOException {
+        synchronized (almacen) {
+            Turno local = new Turno(turno);
+            local.setId(almacen.proximoIdLocal());
+            local.setVersion(0);
+            if (local.getFechaCreacion() == null) {
+                local.setFechaCreacion(LocalDateTime.now());
+            }
+            anotar(DiarioOffline.Entrada.Tipo.CREAR_TURNO, local);
+            almacen.aplicar(local);
+
+            turno.setId(local.getId());
+            turno.setVersion(local.getVersion());
+            turno.setFechaCreacion(local.getFechaCreacion());
+        }
+    }
+
+    private void actualizarSinConexion(Turno turno) throws DAOException {
+        synchronized (almacen) {
+            Turno actual = almacen.turno(turno.getId());
+            if (actual == null) {
+                throw new DAOException("Error al actualizar turno, no esta disponible sin conexion: " + turno.getId());
+            }
+            if (actual.getVersion() != turno.getVersion()) {
+                throw new ConflictoConcurrenciaException(
+                    "El turno " + turno.getId() + " fue modificado mientras se editaba",
+                    turno.getId(), turno.getVersion());
+            }
+            // Se anota con la version leida, para detectar al reproducir si cambio en la base
+            anotar(DiarioOffline.Entrada.Tipo.ACTUALIZAR_TURNO, turno);
+            turno.setVersion(turno.getVersion() + 1);
+            almacen.aplicar(turno);
+        }
+    }
+
+    private void anotar(DiarioOffline.Entrada.Tipo tipo, Turno turno) throws DAOException {
+        try {
+            diario.anotar(new DiarioOffline.Entrada(tipo, turno, Instant.now()));
+        } catch (IOException e) {
+            throw new DAOException("No se pudo guardar el cambio en el diario local", e);
+        }
+    }
+
+    private static List<Turno> ordenar(List<Turno> turnos, Comparator<Turno> orden) {
+        turnos.sort(orden);
+        return turnos;
+    }
+}
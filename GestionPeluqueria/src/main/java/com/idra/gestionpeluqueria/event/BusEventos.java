@@ -0,0 +1,143 @@
+package com.idra.gestionpeluqueria.event;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * Bus de eventos de dominio dentro del proceso. La capa de servicio publica
+ * un evento por cada cambio confirmado y los interesados se suscriben por tipo
+ * (un suscriptor de EventoTurno recibe todos los eventos de turnos).
+ *
+ * Hay dos formas de suscribirse:
+ * - suscribir: el evento se entrega en el hilo que lo publica, antes de que
+ *   publicar devuelva. Pensado para caches y otros componentes sin interfaz.
+ * - suscribirEnEDT: el evento se entrega en el Event Dispatch Thread. Los
+ *   eventos publicados seguidos se agrupan y se entregan todos, en orden,
+ *   en una sola pasada del EDT.
+ *
+ * @author Idra
+ */
+public class BusEventos {
+
+    /**
+     * Permite dejar de recibir eventos.
+     */
+    public interface Suscripcion {
+        void cancelar();
+    }
+
+    private static BusEventos instance;
+
+    private final List<Suscriptor<?>> suscriptores = new CopyOnWriteArrayList<>();
+    private final Queue<EventoDominio> pendientesEDT = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean entregaProgramada = new AtomicBoolean();
+
+    /**
+     * Obtiene la instancia unica del bus.
+     *
+     * @return El bus compartido por toda la aplicacion
+     */
+    public static synchronized BusEventos getInstance() {
+        if (instance == null) {
+            instance = new BusEventos();
+        }
+        return instance;
+    }
+
+    /**
+     * Suscribe un oyente que recibe los eventos en el hilo que los publica.
+     *
+     * @param tipo Clase de evento que interesa, incluidas sus subclases
+     * @param oyente El oyente
+     * @return La suscripcion, para poder cancelarla
+     */
+    public <E extends EventoDominio> Suscripcion suscribir(Class<E> tipo, Consumer<? super E> oyente) {
+        return agregar(new Suscriptor<>(tipo, oyente, false));
+    }
+
+    /**
+     * Suscribe un oyente que recibe los eventos en el Event Dispatch Thread,
+     * agrupados con los demas eventos publicados en la misma rafaga.
+     *
+     * @param tipo Clase de evento que interesa, incluidas sus subclases
+     * @param oyente El oyente; puede modificar componentes Swing
+     * @return La suscripcion, para poder cancelarla
+     */
+    public <E extends EventoDominio> Suscripcion suscribirEnEDT(Class<E> tipo, Consumer<? super E> oyente) {
+        return agregar(new Suscriptor<>(tipo, oyente, true));
+    }
+
+    /**
+     * Publica un evento. Los suscriptores sincronicos lo reciben de inmediato;
+     * los del EDT, en la proxima entrega agrupada. Un error en un suscriptor
+     * se informa y no afecta al resto ni a quien publica.
+     *
+     * @param evento El evento a publicar
+     */
+    public void publicar(EventoDominio evento) {
+        boolean hayEnEDT = false;
+        for (Suscriptor<?> suscriptor : suscriptores) {
+            if (!suscriptor.acepta(evento)) {
+                continue;
+            }
+            if (suscriptor.enEDT) {
+                hayEnEDT = true;
+            } else {
+                suscriptor.entregar(evento);
+            }
+        }
+        if (hayEnEDT) {
+            pendientesEDT.add(evento);
+            if (entregaProgramada.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(this::entregarEnEDT);
+            }
+        }
+    }
+
+    private void entregarEnEDT() {
+        // Se libera antes de vaciar, para que lo publicado durante la entrega programe otra
+        entregaProgramada.set(false);
+        EventoDominio evento;
+        while ((evento = pendientesEDT.poll()) != null) {
+            for (Suscriptor<?> suscriptor : suscriptores) {
+                if (suscriptor.enEDT && suscriptor.acepta(evento)) {
+                    suscriptor.entregar(evento);
+                }
+            }
+        }
+    }
+
+    private Suscripcion agregar(Suscriptor<?> suscriptor) {
+        suscriptores.add(suscriptor);
+        return () -> suscriptores.remove(suscriptor);
+    }
+
+    private static final class Suscriptor<E extends EventoDominio> {
+        final Class<E> tipo;
+        final Consumer<? super E> oyente;
+        final boolean enEDT;
+
+        Suscriptor(Class<E> tipo, Consumer<? super E> oyente, boolean enEDT) {
+            this.tipo = tipo;
+            this.oyente = oyente;
+            this.enEDT = enEDT;
+        }
+
+        boolean acepta(EventoDominio evento) {
+            return tipo.isInstance(evento);
+        }
+
+        void entregar(EventoDominio evento) {
+            try {
+                oyente.accept(tipo.cast(evento));
+            } catch (RuntimeException e) {
+                System.err.println("Error al entregar el evento " + evento.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.idra.gestionpeluqueria.event;
+
+import com.idra.gestionpeluqueria.model.Cliente;
+
+/**
+ * Cambiaron los datos de un cliente, incluido un email escrito en diferido.
+ *
+ * @author Idra
+ */
+public class ClienteActualizado extends EventoCliente {
+    private final Cliente cliente;
+
+    public ClienteActualizado(Cliente cliente) {
+        super(cliente.getId());
+        this.cliente = cliente;
+    }
+
+    public Cliente getCliente() {
+        return cliente;
+    }
+}
@@ -0,0 +1,21 @@
+package com.idra.gestionpeluqueria.event;
+
+import com.idra.gestionpeluqueria.model.Cliente;
+
+/**
+ * Se registro un cliente nuevo.
+ *
+ * @author Idra
+ */
+public class ClienteCreado extends EventoCliente {
+    private final Cliente cliente;
+
+    public ClienteCreado(Cliente cliente) {
+        super(cliente.getId());
+        this.cliente = cliente;
+    }
+
+    public Cliente getCliente() {
+        return cliente;
+    }
+}
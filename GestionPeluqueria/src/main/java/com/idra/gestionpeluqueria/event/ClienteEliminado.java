@@ -0,0 +1,13 @@
+package com.idra.gestionpeluqueria.event;
+
+/**
+ * Se elimino un cliente.
+ *
+ * @author Idra
+ */
+public class ClienteEliminado extends EventoCliente {
+
+    public ClienteEliminado(int clienteId) {
+        super(clienteId);
+    }
+}
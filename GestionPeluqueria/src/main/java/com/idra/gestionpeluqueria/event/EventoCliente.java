@@ -0,0 +1,18 @@
+package com.idra.gestionpeluqueria.event;
+
+/**
+ * Base de los eventos sobre un cliente. Las bajas solo informan el ID.
+ *
+ * @author Idra
+ */
+public abstract class EventoCliente extends EventoDominio {
+    private final int clienteId;
+
+    protected EventoCliente(int clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public int getClienteId() {
+        return clienteId;
+    }
+}
@@ -0,0 +1,20 @@
+package com.idra.gestionpeluqueria.event;
+
+import java.time.Instant;
+
+/**
+ * Base de los eventos de dominio que publica la capa de servicio cuando
+ * un cambio queda confirmado. Los eventos son inmutables.
+ *
+ * @author Idra
+ */
+public abstract class EventoDominio {
+    private final Instant instante = Instant.now();
+
+    /**
+     * @return Momento en que se publico el evento
+     */
+    public Instant getInstante() {
+        return instante;
+    }
+}
@@ -0,0 +1,18 @@
+package com.idra.gestionpeluqueria.event;
+
+/**
+ * Base de los eventos sobre un servicio. Las bajas solo informan el ID.
+ *
+ * @author Idra
+ */
+public abstract class EventoServicio extends EventoDominio {
+    private final int servicioId;
+
+    protected EventoServicio(int servicioId) {
+        this.servicioId = servicioId;
+    }
+
+    public int getServicioId() {
+        return servicioId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.idra.gestionpeluqueria.event;
+
+import com.idra.gestionpeluqueria.model.Turno;
+
+/**
+ * Base de los eventos sobre un turno. Lleva una copia del turno tal como
+ * quedo despues del cambio, para que los suscriptores no necesiten
+ * volver a leerlo.
+ *
+ * @author Idra
+ */
+public abstract class EventoTurno extends EventoDominio {
+    private final Turno turno;
+
+    protected EventoTurno(Turno turno) {
+        this.turno = new Turno(turno);
+    }
+
+    /**
+     * @return Una copia del turno despues del cambio
+     */
+    public Turno getTurno() {
+        return new Turno(turno);
+    }
+
+    public int getTurnoId() {
+        return turno.getId();
+    }
+}
@@ -0,0 +1,23 @@
+package com.idra.gestionpeluqueria.event;
+
+import com.idra.gestionpeluqueria.model.SolicitudEspera;
+
+/**
+ * Se libero un horario y se le ofrecio a un cliente de la lista de espera.
+ *
+ * @author Idra
+ */
+public class OfertaListaEspera extends EventoDominio {
+    private final SolicitudEspera solicitud;
+
+    public OfertaListaEspera(SolicitudEspera solicitud) {
+        this.solicitud = solicitud;
+    }
+
+    /**
+     * @return La solicitud con el horario ofrecido
+     */
+    public SolicitudEspera getSolicitud() {
+        return solicitud;
+    }
+}
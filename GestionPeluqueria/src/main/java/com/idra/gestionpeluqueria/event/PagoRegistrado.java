@@ -0,0 +1,20 @@
+package com.idra.gestionpeluqueria.event;
+
+import com.idra.gestionpeluqueria.model.Turno;
+
+/**
+ * Se registro el pago de un turno, al completarlo o al editarlo.
+ * El monto y la forma de pago son los que quedaron en el turno.
+ *
+ * @author Idra
+ */
+public class PagoRegistrado extends EventoTurno {
+
+    public PagoRegistrado(Turno turno) {
+        super(turno);
+    }
+
+    public double getMonto() {
+        return getTurno().getMontoPagado();
+    }
+}
@@ -0,0 +1,19 @@
+package com.idra.gestionpeluqueria.event;
+
+/**
+ * Se creo, modifico o elimino un profesional; cambia quien puede atender
+ * cada servicio y en que horarios.
+ *
+ * @author Idra
+ */
+public class ProfesionalModificado extends EventoDominio {
+    private final int profesionalId;
+
+    public ProfesionalModificado(int profesionalId) {
+        this.profesionalId = profesionalId;
+    }
+
+    public int getProfesionalId() {
+        return profesionalId;
+    }
+}
@@ -0,0 +1,21 @@
+package com.idra.gestionpeluqueria.event;
+
+import com.idra.gestionpeluqueria.model.Servicio;
+
+/**
+ * Cambiaron los datos de un servicio, por ejemplo su precio o si esta activo.
+ *
+ * @author Idra
+ */
+public class ServicioActualizado extends EventoServicio {
+    private final Servicio servicio;
+
+    public ServicioActualizado(Servicio servicio) {
+        super(servicio.getId());
+        this.servicio = servicio;
+    }
+
+    public Servicio getServicio() {
+        return servicio;
+    }
+}
@@ -0,0 +1,21 @@
+package com.idra.gestionpeluqueria.event;
+
+import com.idra.gestionpeluqueria.model.Servicio;
+
+/**
+ * Se agrego un servicio al catalogo.
+ *
+ * @author Idra
+ */
+public class ServicioCreado extends EventoServicio {
+    private final Servicio servicio;
+
+    public ServicioCreado(Servicio servicio) {
+        super(servicio.getId());
+        this.servicio = servicio;
+    }
+
+    public Servicio getServicio() {
+        return servicio;
+    }
+}
@@ -0,0 +1,13 @@
+package com.idra.gestionpeluqueria.event;
+
+/**
+ * Se elimino un servicio del catalogo.
+ *
+ * @author Idra
+ */
+public class ServicioEliminado extends EventoServicio {
+
+    public ServicioEliminado(int servicioId) {
+        super(servicioId);
+    }
+}
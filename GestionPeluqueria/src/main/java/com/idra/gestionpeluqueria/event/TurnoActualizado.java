@@ -0,0 +1,15 @@
+package com.idra.gestionpeluqueria.event;
+
+import com.idra.gestionpeluqueria.model.Turno;
+
+/**
+ * Se modificaron los datos de un turno (horario, servicio, notas, estado).
+ *
+ * @author Idra
+ */
+public class TurnoActualizado extends EventoTurno {
+
+    public TurnoActualizado(Turno turno) {
+        super(turno);
+    }
+}
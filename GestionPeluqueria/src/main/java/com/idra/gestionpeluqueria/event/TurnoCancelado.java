@@ -0,0 +1,15 @@
+package com.idra.gestionpeluqueria.event;
+
+import com.idra.gestionpeluqueria.model.Turno;
+
+/**
+ * Se cancelo un turno; su horario queda libre.
+ *
+ * @author Idra
+ */
+public class TurnoCancelado extends EventoTurno {
+
+    public TurnoCancelado(Turno turno) {
+        super(turno);
+    }
+}
@@ -0,0 +1,15 @@
+package com.idra.gestionpeluqueria.event;
+
+import com.idra.gestionpeluqueria.model.Turno;
+
+/**
+ * Se reservo un turno nuevo.
+ *
+ * @author Idra
+ */
+public class TurnoCreado extends EventoTurno {
+
+    public TurnoCreado(Turno turno) {
+        super(turno);
+    }
+}
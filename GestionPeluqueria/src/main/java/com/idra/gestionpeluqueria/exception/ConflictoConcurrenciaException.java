@@ -0,0 +1,30 @@
+package com.idra.gestionpeluqueria.exception;
+
+/**
+ * Excepcion lanzada cuando se intenta actualizar un registro que fue
+ * modificado por otra terminal desde que se leyo.
+ * Se detecta comparando la columna version del registro.
+ * 
+ * @author Idra
+ */
+public class ConflictoConcurrenciaException extends DAOException {
+    
+    private final int id;
+    private final int versionEsperada;
+    
+    /**
+     * Constructor con el registro en conflicto.
+     * 
+     * @param message Mensaje que describe el error ocurrido
+     * @param id ID del registro que no se pudo actualizar
+     * @param versionEsperada Version que tenia el registro al leerlo
+     */
+    public ConflictoConcurrenciaException(String message, int id, int versionEsperada) {
+        super(message);
+        this.id = id;
+        this.versionEsperada = versionEsperada;
+    }
+    
+    public int getId() { return id; }
+    public int getVersionEsperada() { return versionEsperada; }
+}
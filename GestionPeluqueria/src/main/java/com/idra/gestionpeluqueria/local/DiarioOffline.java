@@ -0,0 +1,296 @@
+package com.idra.gestionpeluqueria.local;
+
+import com.idra.gestionpeluqueria.model.Cliente;
+import com.idra.gestionpeluqueria.model.Profesional;
+import com.idra.gestionpeluqueria.model.Servicio;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.model.enums.EstadoPago;
+import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
+import com.idra.gestionpeluqueria.model.enums.FormaPago;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Diario local de solo agregado donde se anotan los turnos nuevos y los
+ * cambios de turnos (pagos, cancelaciones) hechos sin conexion. Cada entrada
+ * se fuerza a disco antes de devolver el control, de modo que un corte de luz
+ * no pierde lo que el usuario ya vio confirmado.
+ *
+ * Cada linea es una entrada con sus campos separados por tabuladores y
+ * codificados como URL; "~" representa un valor nulo. La linea termina con
+ * una marca de fin: una linea cortada a mitad de escritura no la tiene y se
+ * ignora al leer, aunque sus campos se puedan decodificar.
+ *
+ * @author Idra
+ */
+public class DiarioOffline {
+    private static final String NULO = "~";
+    private static final String SEPARADOR = "\t";
+    private static final int CAMPOS = 16;
+    // Ultimo campo de cada linea; como los campos de texto van codificados como URL, no aparece en otro lado
+    private static final String FIN = "$";
+
+    private static DiarioOffline instance;
+
+    private final Path archivo;
+    private final Path archivoConflictos;
+
+    /**
+     * Constructor que define los archivos del diario.
+     *
+     * @param archivo Archivo con las entradas pendientes de reproducir
+     * @param archivoConflictos Archivo donde se guardan las entradas que no se pudieron aplicar
+     */
+    public DiarioOffline(Path archivo, Path archivoConflictos) {
+        this.archivo = archivo;
+        this.archivoConflictos = archivoConflictos;
+    }
+
+    /**
+     * Obtiene el diario compartido, ubicado en el directorio local de la aplicacion.
+     *
+     * @return La instancia unica del diario
+     */
+    public static synchronized DiarioOffline getInstance() {
+        if (instance == null) {
+            Path directorio = SnapshotLocal.directorioLocal();
+            instance = new DiarioOffline(directorio.resolve("diario-offline.log"), directorio.resolve("diario-conflictos.log"));
+        }
+        return instance;
+    }
+
+    /**
+     * Agrega una entrada al final del diario y la fuerza a disco.
+     *
+     * @param entrada La entrada a anotar
+     * @throws IOException Si no se puede escribir el archivo
+     */
+    public synchronized void anotar(Entrada entrada) throws IOException {
+        agregarLinea(archivo, entrada.codificar());
+    }
+
+    /**
+     * Lee todas las entradas pendientes, en el orden en que se anotaron.
+     *
+     * @return Las entradas del diario, o una lista vacia si no hay diario
+     * @throws IOException Si no se puede leer el archivo
+     */
+    public synchronized List<Entrada> leer() throws IOException {
+        List<Entrada> entradas = new ArrayList<>();
+        if (!Files.isRegularFile(archivo)) {
+            return entradas;
+        }
+        for (String linea : Files.readAllLines(archivo, StandardCharsets.UTF_8)) {
+            if (linea.isEmpty()) {
+                continue;
+            }
+            try {
+                entradas.add(Entrada.decodificar(linea));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                System.err.println("Entrada del diario sin conexion ignorada: " + e.getMessage());
+            }
+        }
+        return entradas;
+    }
+
+    /**
+     * Reemplaza el contenido del diario por las entradas indicadas, de forma
+     * atomica. Se usa al terminar una reproduccion, total o parcial.
+     *
+     * @param restantes Entradas que siguen pendientes; si esta vacia se borra el diario
+     * @throws IOException Si no se puede escribir el archivo
+     */
+    public synchronized void reemplazar(List<Entrada> restantes) throws IOException {
+        if (restantes.isEmpty()) {
+            Files.deleteIfExists(archivo);
+            return;
+        }
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        Files.deleteIfExists(temporal);
+        StringBuilder contenido = new StringBuilder();
+        for (Entrada entrada : restantes) {
+            contenido.append(entrada.codificar()).append('\n');
+        }
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            escribirCompleto(canal, contenido.toString());
+            canal.force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Guarda una entrada que no se pudo aplicar al reconectar, junto con el
+     * motivo, para poder revisarla despues.
+     *
+     * @param entrada La entrada en conflicto
+     * @param motivo Por que no se aplico
+     */
+    public synchronized void archivarConflicto(Entrada entrada, String motivo) {
+        try {
+            agregarLinea(archivoConflictos, entrada.codificar() + SEPARADOR + codificarCampo(motivo));
+        } catch (IOException e) {
+            System.err.println("No se pudo archivar el conflicto del diario: " + e.getMessage());
+        }
+    }
+
+    private static void agregarLinea(Path destino, String linea) throws IOException {
+        Files.createDirectories(destino.getParent());
+        try (FileChannel canal = FileChannel.open(destino,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Si un corte dejo la ultima linea a medias, la nueva empieza en su propia linea
+            String separacion = terminaEnLineaIncompleta(canal) ? "\n" : "";
+            canal.position(canal.size());
+            escribirCompleto(canal, separacion + linea + "\n");
+            canal.force(true);
+        }
+    }
+
+    private static boolean terminaEnLineaIncompleta(FileChannel canal) throws IOException {
+        long tamanio = canal.size();
+        if (tamanio == 0) {
+            return false;
+        }
+        ByteBuffer ultimo = ByteBuffer.allocate(1);
+        canal.read(ultimo, tamanio - 1);
+        return ultimo.get(0) != '\n';
+    }
+
+    private static void escribirCompleto(FileChannel canal, String texto) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(texto.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+
+    private static String codificarCampo(Object valor) {
+        return valor == null ? NULO : URLEncoder.encode(valor.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static String decodificarCampo(String campo) {
+        return NULO.equals(campo) ? null : URLDecoder.decode(campo, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Una operacion anotada en el diario, con el estado completo del turno.
+     * En las actualizaciones la version es la que se leyo antes del cambio,
+     * para que al reproducirla se detecten las modificaciones hechas desde
+     * otra terminal.
+     */
+    public static final class Entrada {
+        /**
+         * Operaciones que se pueden anotar sin conexion.
+         */
+        public enum Tipo {
+            CREAR_TURNO,
+            ACTUALIZAR_TURNO
+        }
+
+        private final Tipo tipo;
+        private final Turno turno;
+        private final Instant registrada;
+
+        /**
+         * Constructor de una entrada.
+         *
+         * @param tipo La operacion
+         * @param turno El turno tal como debe quedar; se guarda una copia
+         * @param registrada Momento en que se hizo el cambio
+         */
+        public Entrada(Tipo tipo, Turno turno, Instant registrada) {
+            this.tipo = tipo;
+            this.turno = new Turno(turno);
+            this.registrada = registrada;
+        }
+
+        public Tipo getTipo() { return tipo; }
+        public Instant getRegistrada() { return registrada; }
+
+        /**
+         * @return Una copia del turno anotado
+         */
+        public Turno getTurno() {
+            return new Turno(turno);
+        }
+
+        /**
+         * Crea una entrada igual a esta pero referida a otro ID de turno, por
+         * ejemplo cuando un turno creado sin conexion ya tiene su ID real.
+         *
+         * @param id El nuevo ID del turno
+         * @return La entrada con el ID cambiado
+         */
+        public Entrada conId(int id) {
+            Turno copia = new Turno(turno);
+            copia.setId(id);
+            return new Entrada(tipo, copia, registrada);
+        }
+
+        String codificar() {
+            String[] campos = {
+                tipo.name(),
+                String.valueOf(turno.getId()),
+                String.valueOf(turno.getCliente().getId()),
+                String.valueOf(turno.getServicio().getId()),
+                codificarCampo(turno.getFechaHora()),
+                codificarCampo(turno.getNotas()),
+                turno.getEstado().name(),
+                turno.getEstadoPago().name(),
+                codificarCampo(turno.getFormaPago() != null ? turno.getFormaPago().name() : null),
+                String.valueOf(turno.getMontoPagado()),
+                codificarCampo(turno.getFechaCreacion()),
+                String.valueOf(turno.getVersion()),
+                registrada.toString(),
+                codificarCampo(turno.getProfesional() != null ? String.valueOf(turno.getProfesional().getId()) : null),
+                String.valueOf(turno.getToleranciaMinutos()),
+                FIN
+            };
+            return String.join(SEPARADOR, campos);
+        }
+
+        static Entrada decodificar(String linea) {
+            String[] campos = linea.split(SEPARADOR, -1);
+            if (campos.length != CAMPOS || !FIN.equals(campos[CAMPOS - 1])) {
+                throw new IllegalArgumentException("linea incompleta");
+            }
+            Turno turno = new Turno();
+            turno.setId(Integer.parseInt(campos[1]));
+            Cliente cliente = new Cliente();
+            cliente.setId(Integer.parseInt(campos[2]));
+            turno.setCliente(cliente);
+            Servicio servicio = new Servicio();
+            servicio.setId(Integer.parseInt(campos[3]));
+            turno.setServicio(servicio);
+            turno.setFechaHora(LocalDateTime.parse(decodificarCampo(campos[4])));
+            turno.setNotas(decodificarCampo(campos[5]));
+            turno.setEstado(EstadoTurno.valueOf(campos[6]));
+            turno.setEstadoPago(EstadoPago.valueOf(campos[7]));
+            String formaPago = decodificarCampo(campos[8]);
+            turno.setFormaPago(formaPago != null ? FormaPago.valueOf(formaPago) : null);
+            turno.setMontoPagado(Double.parseDouble(campos[9]));
+            String creacion = decodificarCampo(campos[10]);
+            turno.setFechaCreacion(creacion != null ? LocalDateTime.parse(creacion) : null);
+            turno.setVersion(Integer.parseInt(campos[11]));
+            String profesionalId = decodificarCampo(campos[13]);
+            if (profesionalId != null) {
+                Profesional profesional = new Profesional();
+                profesional.setId(Integer.parseInt(profesionalId));
+                turno.setProfesional(profesional);
+            }
+            turno.setToleranciaMinutos(Integer.parseInt(campos[14]));
+            return new Entrada(Tipo.valueOf(campos[0]), turno, Instant.parse(campos[12]));
+        }
+    }
+}
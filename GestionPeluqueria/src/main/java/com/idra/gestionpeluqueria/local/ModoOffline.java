@@ -0,0 +1,254 @@
+package com.idra.gestionpeluqueria.local;
+
+import com.idra.gestionpeluqueria.config.DatabaseConfig;
+import java.net.ConnectException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Estado de conexion de la aplicacion. Cuando la base de datos no responde se
+ * pasa a modo sin conexion: las lecturas salen del snapshot local y los turnos
+ * nuevos y los pagos se anotan en el DiarioOffline. Mientras tanto se prueba
+ * la conexion periodicamente; al recuperarla se ejecutan las tareas de
+ * reconexion (la reproduccion del diario) y recien despues se vuelve al modo
+ * normal.
+ *
+ * Configuracion: gestionpeluqueria.offline.reintentoSegundos (por defecto 15).
+ *
+ * @author Idra
+ */
+public class ModoOffline {
+    private static final long REINTENTO_SEGUNDOS_POR_DEFECTO = 15;
+
+    /**
+     * Tarea a ejecutar al recuperar la conexion, antes de volver al modo normal.
+     * Si falla, se sigue sin conexion y se reintenta en la proxima prueba.
+     */
+    @FunctionalInterface
+    public interface TareaReconexion {
+        void ejecutar() throws Exception;
+    }
+
+    private static ModoOffline instance;
+
+    private final long reintentoSegundos;
+    private final List<Consumer<Boolean>> oyentes = new CopyOnWriteArrayList<>();
+    private final List<TareaReconexion> tareasReconexion = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService executor;
+    private final List<String> avisosReconexion = new ArrayList<>();
+    private final Object sincronizando = new Object();
+
+    private volatile boolean offline;
+    private String motivo;
+    private ScheduledFuture<?> prueba;
+
+    private ModoOffline(long reintentoSegundos) {
+        this.reintentoSegundos = reintentoSegundos;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "modo-offline");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Obtiene la instancia unica del estado de conexion.
+     *
+     * @return La instancia compartida
+     */
+    public static synchronized ModoOffline getInstance() {
+        if (instance == null) {
+            instance = new ModoOffline(
+                Long.getLong("gestionpeluqueria.offline.reintentoSegundos", REINTENTO_SEGUNDOS_POR_DEFECTO));
+        }
+        return instance;
+    }
+
+    /**
+     * Indica si un error se debe a que no hay conexion con la base de datos,
+     * y no a un problema de la consulta o de los datos.
+     *
+     * @param error El error a analizar, incluyendo sus causas
+     * @return true si es un fallo de conexion
+     */
+    public static boolean esFalloDeConexion(Throwable error) {
+        for (Throwable causa = error; causa != null; causa = causa.getCause()) {
+            if (causa instanceof SQLNonTransientConnectionException
+                || causa instanceof SQLTransientConnectionException
+                || causa instanceof ConnectException) {
+                return true;
+            }
+            // La clase SQLSTATE 08 agrupa los errores de conexion
+            if (causa instanceof SQLException && ((SQLException) causa).getSQLState() != null
+                && ((SQLException) causa).getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true si la aplicacion esta trabajando sin conexion
+     */
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * @return Descripcion de por que se paso a modo sin conexion, o null si hay conexion
+     */
+    public synchronized String getMotivo() {
+        return motivo;
+    }
+
+    /**
+     * Pasa a modo sin conexion y programa las pruebas de reconexion.
+     * Si ya se estaba sin conexion no hace nada.
+     *
+     * @param motivo Descripcion del fallo que lo provoco
+     */
+    public void activar(String motivo) {
+        synchronized (this) {
+            if (offline) {
+                return;
+            }
+            this.motivo = motivo;
+            offline = true;
+            prueba = executor.scheduleWithFixedDelay(this::probarReconexion,
+                reintentoSegundos, reintentoSegundos, TimeUnit.SECONDS);
+        }
+        System.err.println("⚠️ Sin conexion con la base de datos, se continua en modo sin conexion: " + motivo);
+        notificar(true);
+    }
+
+    /**
+     * Agrega un oyente que recibe true al perder la conexion y false al recuperarla.
+     * Se invoca desde el hilo que detecto el cambio.
+     *
+     * @param oyente El oyente a agregar
+     */
+    public void agregarOyente(Consumer<Boolean> oyente) {
+        oyentes.add(oyente);
+    }
+
+    /**
+     * Registra una tarea a ejecutar al recuperar la conexion. Las tareas se
+     * ejecutan en el orden en que se registraron.
+     *
+     * @param tarea La tarea a registrar
+     */
+    public void agregarTareaReconexion(TareaReconexion tarea) {
+        tareasReconexion.add(tarea);
+    }
+
+    /**
+     * Agrega un aviso para mostrar al usuario cuando se recupere la conexion,
+     * por ejemplo un turno del diario que no se pudo aplicar.
+     *
+     * @param aviso El texto del aviso
+     */
+    public synchronized void agregarAvisoReconexion(String aviso) {
+        avisosReconexion.add(aviso);
+    }
+
+    /**
+     * Devuelve y limpia los avisos generados durante la ultima reconexion.
+     *
+     * @return Los avisos pendientes de mostrar
+     */
+    public synchronized List<String> tomarAvisosReconexion() {
+        if (avisosReconexion.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> avisos = new ArrayList<>(avisosReconexion);
+        avisosReconexion.clear();
+        return avisos;
+    }
+
+    /**
+     * Prueba la conexion de inmediato, sin esperar a la proxima prueba programada.
+     */
+    public void reintentarAhora() {
+        if (offline) {
+            executor.execute(this::probarReconexion);
+        }
+    }
+
+    private void probarReconexion() {
+        if (!offline) {
+            return;
+        }
+        try (Connection conexion = DatabaseConfig.getInstance().abrirConexion()) {
+            if (!conexion.isValid(5)) {
+                return;
+            }
+        } catch (SQLException e) {
+            return;
+        }
+
+        try {
+            ejecutarTareasReconexion();
+        } catch (Exception e) {
+            System.err.println("❌ Fallo la reconexion, se sigue sin conexion: " + e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            offline = false;
+            motivo = null;
+            if (prueba != null) {
+                prueba.cancel(false);
+                prueba = null;
+            }
+        }
+        System.out.println("✅ Conexion con la base de datos recuperada");
+        // Lo que se haya anotado entre la primera pasada y el cambio de estado
+        sincronizarPendientes();
+        notificar(false);
+    }
+
+    /**
+     * Ejecuta las tareas de reconexion estando con conexion, por ejemplo al
+     * iniciar la aplicacion con un diario que quedo de una ejecucion anterior.
+     * Los errores se informan y lo no aplicado queda para el proximo intento.
+     */
+    public void sincronizarPendientes() {
+        if (offline) {
+            return;
+        }
+        try {
+            ejecutarTareasReconexion();
+        } catch (Exception e) {
+            System.err.println("❌ No se pudieron sincronizar los cambios sin conexion: " + e.getMessage());
+        }
+    }
+
+    private void ejecutarTareasReconexion() throws Exception {
+        synchronized (sincronizando) {
+            for (TareaReconexion tarea : tareasReconexion) {
+                tarea.ejecutar();
+            }
+        }
+    }
+
+    private void notificar(boolean sinConexion) {
+        for (Consumer<Boolean> oyente : oyentes) {
+            try {
+                oyente.accept(sinConexion);
+            } catch (RuntimeException e) {
+                System.err.println("Error al notificar el cambio de conexion: " + e.getMessage());
+            }
+        }
+    }
+}
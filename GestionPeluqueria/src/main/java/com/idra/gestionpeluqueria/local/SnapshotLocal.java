@@ -0,0 +1,419 @@
+package com.idra.gestionpeluqueria.local;
+
+import com.idra.gestionpeluqueria.model.Cliente;
+import com.idra.gestionpeluqueria.model.HorarioLaboral;
+import com.idra.gestionpeluqueria.model.Profesional;
+import com.idra.gestionpeluqueria.model.Servicio;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.model.enums.EstadoPago;
+import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
+import com.idra.gestionpeluqueria.model.enums.FormaPago;
+import com.idra.gestionpeluqueria.model.enums.TipoServicio;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copia local binaria del catalogo de servicios, de los clientes, de los
+ * profesionales y de los turnos de los dias cercanos a hoy.
+ * Se lee de una sola vez a un buffer en memoria para poder poblar la
+ * interfaz al instante, sin esperar a la base de datos, y se reescribe
+ * cada vez que la aplicacion se reconcilia con MySQL. Tambien es la fuente
+ * de las lecturas en modo sin conexion.
+ *
+ * Formato: cabecera (magico, version, fecha de generacion), luego los
+ * servicios, los clientes, los profesionales y los turnos, cada bloque
+ * precedido por su cantidad. Los archivos de la version 1 no tienen bloque de
+ * turnos, los de la version 2 no tienen profesionales ni su ID en cada turno
+ * y los de la version 3 no tienen la tolerancia de cada turno.
+ *
+ * @author Idra
+ */
+public class SnapshotLocal {
+    private static final int MAGICO = 0x50454C55; // "PELU"
+    private static final int VERSION = 4;
+
+    private static SnapshotLocal instance;
+    private final Path archivo;
+
+    /**
+     * Constructor que ubica el snapshot en el archivo indicado.
+     *
+     * @param archivo Ruta del archivo binario
+     */
+    public SnapshotLocal(Path archivo) {
+        this.archivo = archivo;
+    }
+
+    /**
+     * Obtiene la instancia que usa el archivo por defecto en el directorio del usuario.
+     *
+     * @return La instancia compartida del snapshot
+     */
+    public static synchronized SnapshotLocal getInstance() {
+        if (instance == null) {
+            instance = new SnapshotLocal(directorioLocal().resolve("snapshot.bin"));
+        }
+        return instance;
+    }
+
+    /**
+     * Directorio donde la aplicacion guarda sus archivos locales.
+     *
+     * @return Ruta ~/.gestionpeluqueria
+     */
+    public static Path directorioLocal() {
+        return Paths.get(System.getProperty("user.home"), ".gestionpeluqueria");
+    }
+
+    /**
+     * Lee el snapshot desde disco.
+     * Si el archivo no existe o esta dañado devuelve un contenido vacio,
+     * ya que el snapshot es solo una aceleracion del arranque.
+     *
+     * @return El contenido del snapshot, nunca null
+     */
+    public Contenido cargar() {
+        if (!Files.isRegularFile(archivo)) {
+            return Contenido.VACIO;
+        }
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            // Sin mapear el archivo: en Windows un mapeo vivo impide reemplazarlo al guardar
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(canal.size()));
+            while (buffer.hasRemaining()) {
+                if (canal.read(buffer) < 0) {
+                    throw new IOException("el archivo termino antes de lo esperado");
+                }
+            }
+            buffer.flip();
+            int version = buffer.getInt(4);
+            if (buffer.getInt() != MAGICO || version < 1 || version > VERSION) {
+                System.err.println("Snapshot local con formato desconocido, se ignora");
+                return Contenido.VACIO;
+            }
+            buffer.getInt(); // version, ya leida
+            Instant generado = Instant.ofEpochMilli(buffer.getLong());
+
+            int cantidadServicios = buffer.getInt();
+            List<Servicio> servicios = new ArrayList<>(cantidadServicios);
+            for (int i = 0; i < cantidadServicios; i++) {
+                servicios.add(leerServicio(buffer));
+            }
+
+            int cantidadClientes = buffer.getInt();
+            List<Cliente> clientes = new ArrayList<>(cantidadClientes);
+            for (int i = 0; i < cantidadClientes; i++) {
+                clientes.add(leerCliente(buffer));
+            }
+
+            List<Profesional> profesionales = new ArrayList<>();
+            Map<Integer, Profesional> profesionalesPorId = new HashMap<>();
+            if (version >= 3) {
+                int cantidadProfesionales = buffer.getInt();
+                for (int i = 0; i < cantidadProfesionales; i++) {
+                    Profesional profesional = leerProfesional(buffer);
+                    profesionales.add(profesional);
+                    profesionalesPorId.put(profesional.getId(), profesional);
+                }
+            }
+
+            List<Turno> turnos = new ArrayList<>();
+            if (version >= 2) {
+                Map<Integer, Servicio> serviciosPorId = new HashMap<>();
+                servicios.forEach(servicio -> serviciosPorId.put(servicio.getId(), servicio));
+                Map<Integer, Cliente> clientesPorId = new HashMap<>();
+                clientes.forEach(cliente -> clientesPorId.put(cliente.getId(), cliente));
+                int cantidadTurnos = buffer.getInt();
+                for (int i = 0; i < cantidadTurnos; i++) {
+                    Turno turno = leerTurno(buffer, clientesPorId, serviciosPorId);
+                    if (version >= 3) {
+                        int profesionalId = buffer.getInt();
+                        if (profesionalId != 0) {
+                            turno.setProfesional(profesionalesPorId.computeIfAbsent(profesionalId, id -> {
+                                Profesional profesional = new Profesional();
+                                profesional.setId(id);
+                                return profesional;
+                            }));
+                        }
+                    }
+                    if (version >= 4) {
+                        turno.setToleranciaMinutos(buffer.getShort());
+                    }
+                    turnos.add(turno);
+                }
+            }
+            return new Contenido(servicios, clientes, profesionales, turnos, generado);
+
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+                 | ArithmeticException e) {
+            System.err.println("No se pudo leer el snapshot local: " + e.getMessage());
+            return Contenido.VACIO;
+        }
+    }
+
+    /**
+     * Reescribe el snapshot con los datos indicados.
+     * Escribe primero en un archivo temporal y luego lo reemplaza,
+     * para no dejar nunca un snapshot a medio escribir.
+     *
+     * @param servicios Servicios a guardar
+     * @param clientes Clientes a guardar
+     * @param profesionales Profesionales a guardar
+     * @param turnos Turnos a guardar
+     * @throws IOException Si no se puede escribir el archivo
+     */
+    public synchronized void guardar(List<Servicio> servicios, List<Cliente> clientes, List<Profesional> profesionales,
+                                     List<Turno> turnos) throws IOException {
+        List<byte[]> textos = new ArrayList<>();
+        long totalBytes = 4 + 4 + 8 + 4 + 4 + 4 + 4;
+        for (Servicio servicio : servicios) {
+            totalBytes += 4 + 8 + 4 + 1 + 1;
+            totalBytes += agregarTexto(textos, servicio.getNombre());
+            totalBytes += agregarTexto(textos, servicio.getDescripcion());
+        }
+        for (Cliente cliente : clientes) {
+            totalBytes += 4 + 8;
+            totalBytes += agregarTexto(textos, cliente.getNombre());
+            totalBytes += agregarTexto(textos, cliente.getApellido());
+            totalBytes += agregarTexto(textos, cliente.getTelefono());
+            totalBytes += agregarTexto(textos, cliente.getEmail());
+        }
+        for (Profesional profesional : profesionales) {
+            totalBytes += 4 + 1 + 4 + 4 + profesional.getHorarios().size() * (1 + 2 + 2);
+            totalBytes += agregarTexto(textos, profesional.getNombre());
+            totalBytes += agregarTexto(textos, profesional.getApellido());
+        }
+        for (Turno turno : turnos) {
+            totalBytes += 4 + 4 + 4 + 8 + 1 + 1 + 1 + 8 + 8 + 4 + 4 + 2;
+            totalBytes += agregarTexto(textos, turno.getNotas());
+        }
+
+        if (totalBytes > Integer.MAX_VALUE) {
+            throw new IOException("El snapshot ocuparia " + totalBytes + " bytes");
+        }
+
+        Files.createDirectories(archivo.getParent());
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) totalBytes);
+            int texto = 0;
+            buffer.putInt(MAGICO).putInt(VERSION).putLong(System.currentTimeMillis());
+
+            buffer.putInt(servicios.size());
+            for (Servicio servicio : servicios) {
+                buffer.putInt(servicio.getId());
+                escribirTexto(buffer, textos.get(texto++));
+                escribirTexto(buffer, textos.get(texto++));
+                buffer.putDouble(servicio.getPrecio());
+                buffer.putInt(servicio.getDuracionMinutos());
+                buffer.put(servicio.getTipoServicio() != null ? (byte) servicio.getTipoServicio().ordinal() : -1);
+                buffer.put(servicio.isActivo() ? (byte) 1 : 0);
+            }
+
+            buffer.putInt(clientes.size());
+            for (Cliente cliente : clientes) {
+                buffer.putInt(cliente.getId());
+                escribirTexto(buffer, textos.get(texto++));
+                escribirTexto(buffer, textos.get(texto++));
+                escribirTexto(buffer, textos.get(texto++));
+                escribirTexto(buffer, textos.get(texto++));
+                buffer.putLong(cliente.getFechaRegistro() != null ? cliente.getFechaRegistro().toEpochDay() : Long.MIN_VALUE);
+            }
+
+            buffer.putInt(profesionales.size());
+            for (Profesional profesional : profesionales) {
+                buffer.putInt(profesional.getId());
+                escribirTexto(buffer, textos.get(texto++));
+                escribirTexto(buffer, textos.get(texto++));
+                buffer.put(profesional.isActivo() ? (byte) 1 : 0);
+                int especialidades = 0;
+                for (TipoServicio tipo : profesional.getEspecialidades()) {
+                    especialidades |= 1 << tipo.ordinal();
+                }
+                buffer.putInt(especialidades);
+                buffer.putInt(profesional.getHorarios().size());
+                for (HorarioLaboral horario : profesional.getHorarios()) {
+                    buffer.put((byte) horario.getDiaSemana().getValue());
+                    buffer.putShort((short) (horario.getHoraInicio().toSecondOfDay() / 60));
+                    buffer.putShort((short) (horario.getHoraFin().toSecondOfDay() / 60));
+                }
+            }
+
+            buffer.putInt(turnos.size());
+            for (Turno turno : turnos) {
+                buffer.putInt(turno.getId());
+                buffer.putInt(turno.getCliente().getId());
+                buffer.putInt(turno.getServicio().getId());
+                buffer.putLong(turno.getFechaHora().toEpochSecond(ZoneOffset.UTC));
+                escribirTexto(buffer, textos.get(texto++));
+                buffer.put((byte) turno.getEstado().ordinal());
+                buffer.put((byte) turno.getEstadoPago().ordinal());
+                buffer.put(turno.getFormaPago() != null ? (byte) turno.getFormaPago().ordinal() : -1);
+                buffer.putDouble(turno.getMontoPagado());
+                buffer.putLong(turno.getFechaCreacion() != null ? turno.getFechaCreacion().toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE);
+                buffer.putInt(turno.getVersion());
+                buffer.putInt(turno.getProfesional() != null ? turno.getProfesional().getId() : 0);
+                buffer.putShort((short) turno.getToleranciaMinutos());
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int agregarTexto(List<byte[]> textos, String valor) {
+        byte[] bytes = valor != null ? valor.getBytes(StandardCharsets.UTF_8) : null;
+        textos.add(bytes);
+        return 4 + (bytes != null ? bytes.length : 0);
+    }
+
+    private static void escribirTexto(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private static String leerTexto(ByteBuffer buffer) {
+        int longitud = buffer.getInt();
+        if (longitud < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Servicio leerServicio(ByteBuffer buffer) {
+        Servicio servicio = new Servicio();
+        servicio.setId(buffer.getInt());
+        servicio.setNombre(leerTexto(buffer));
+        servicio.setDescripcion(leerTexto(buffer));
+        servicio.setPrecio(buffer.getDouble());
+        servicio.setDuracionMinutos(buffer.getInt());
+        byte tipo = buffer.get();
+        servicio.setTipoServicio(tipo >= 0 ? TipoServicio.values()[tipo] : null);
+        servicio.setActivo(buffer.get() == 1);
+        return servicio;
+    }
+
+    private static Cliente leerCliente(ByteBuffer buffer) {
+        Cliente cliente = new Cliente();
+        cliente.setId(buffer.getInt());
+        cliente.setNombre(leerTexto(buffer));
+        cliente.setApellido(leerTexto(buffer));
+        cliente.setTelefono(leerTexto(buffer));
+        cliente.setEmail(leerTexto(buffer));
+        long epochDay = buffer.getLong();
+        cliente.setFechaRegistro(epochDay != Long.MIN_VALUE ? LocalDate.ofEpochDay(epochDay) : null);
+        return cliente;
+    }
+
+    private static Profesional leerProfesional(ByteBuffer buffer) {
+        Profesional profesional = new Profesional();
+        profesional.setId(buffer.getInt());
+        profesional.setNombre(leerTexto(buffer));
+        profesional.setApellido(leerTexto(buffer));
+        profesional.setActivo(buffer.get() == 1);
+        int especialidades = buffer.getInt();
+        for (TipoServicio tipo : TipoServicio.values()) {
+            if ((especialidades & (1 << tipo.ordinal())) != 0) {
+                profesional.getEspecialidades().add(tipo);
+            }
+        }
+        int cantidadHorarios = buffer.getInt();
+        for (int i = 0; i < cantidadHorarios; i++) {
+            DayOfWeek dia = DayOfWeek.of(buffer.get());
+            LocalTime inicio = LocalTime.ofSecondOfDay(buffer.getShort() * 60L);
+            LocalTime fin = LocalTime.ofSecondOfDay(buffer.getShort() * 60L);
+            profesional.getHorarios().add(new HorarioLaboral(dia, inicio, fin));
+        }
+        return profesional;
+    }
+
+    private static Turno leerTurno(ByteBuffer buffer, Map<Integer, Cliente> clientes, Map<Integer, Servicio> servicios) {
+        Turno turno = new Turno();
+        turno.setId(buffer.getInt());
+        int clienteId = buffer.getInt();
+        int servicioId = buffer.getInt();
+        turno.setCliente(clientes.computeIfAbsent(clienteId, id -> {
+            Cliente cliente = new Cliente();
+            cliente.setId(id);
+            return cliente;
+        }));
+        turno.setServicio(servicios.computeIfAbsent(servicioId, id -> {
+            Servicio servicio = new Servicio();
+            servicio.setId(id);
+            return servicio;
+        }));
+        turno.setFechaHora(LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC));
+        turno.setNotas(leerTexto(buffer));
+        turno.setEstado(EstadoTurno.values()[buffer.get()]);
+        turno.setEstadoPago(EstadoPago.values()[buffer.get()]);
+        byte formaPago = buffer.get();
+        turno.setFormaPago(formaPago >= 0 ? FormaPago.values()[formaPago] : null);
+        turno.setMontoPagado(buffer.getDouble());
+        long creacion = buffer.getLong();
+        turno.setFechaCreacion(creacion != Long.MIN_VALUE ? LocalDateTime.ofEpochSecond(creacion, 0, ZoneOffset.UTC) : null);
+        turno.setVersion(buffer.getInt());
+        return turno;
+    }
+
+    /**
+     * Datos leidos del snapshot.
+     */
+    public static class Contenido {
+        static final Contenido VACIO = new Contenido(Collections.emptyList(), Collections.emptyList(),
+            Collections.emptyList(), Collections.emptyList(), null);
+
+        private final List<Servicio> servicios;
+        private final List<Cliente> clientes;
+        private final List<Profesional> profesionales;
+        private final List<Turno> turnos;
+        private final Instant generado;
+
+        Contenido(List<Servicio> servicios, List<Cliente> clientes, List<Profesional> profesionales,
+                  List<Turno> turnos, Instant generado) {
+            this.servicios = servicios;
+            this.clientes = clientes;
+            this.profesionales = profesionales;
+            this.turnos = turnos;
+            this.generado = generado;
+        }
+
+        public List<Servicio> getServicios() { return servicios; }
+        public List<Cliente> getClientes() { return clientes; }
+        public List<Profesional> getProfesionales() { return profesionales; }
+        public List<Turno> getTurnos() { return turnos; }
+
+        /**
+         * @return Momento en que se genero el snapshot, o null si no habia snapshot
+         */
+        public Instant getGenerado() { return generado; }
+
+        public boolean isVacio() { return generado == null; }
+    }
+}
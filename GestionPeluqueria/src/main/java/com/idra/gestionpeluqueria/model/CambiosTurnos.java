@@ -0,0 +1,52 @@
+package com.idra.gestionpeluqueria.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turnos de un dia creados o modificados desde una marca de tiempo, junto
+ * con la marca a usar en la consulta siguiente.
+ *
+ * La marca se toma del reloj de la base de datos, no del de la terminal,
+ * para que sirva aunque los relojes de las terminales no coincidan. Sin
+ * marca (null) la lista trae todos los turnos del dia.
+ *
+ * Los turnos borrados o movidos a otro dia no aparecen entre los cambios:
+ * para quitarlos se informan los IDs de todos los turnos que siguen en el
+ * dia.
+ *
+ * @author Idra
+ */
+public final class CambiosTurnos {
+    private final List<Turno> turnos;
+    private final LocalDateTime marca;
+    private final Set<Integer> vigentes;
+
+    /**
+     * Constructor de una lista con el dia completo.
+     *
+     * @param turnos Todos los turnos del dia
+     * @param marca Desde donde pedir los proximos cambios, o null si no se conoce
+     */
+    public CambiosTurnos(List<Turno> turnos, LocalDateTime marca) {
+        this(turnos, marca, null);
+    }
+
+    /**
+     * Constructor con los turnos, la marca siguiente y los turnos que siguen en el dia.
+     *
+     * @param turnos Los turnos creados o modificados
+     * @param marca Desde donde pedir los proximos cambios, o null si no se conoce
+     * @param vigentes IDs de todos los turnos del dia, o null si turnos ya es el dia completo
+     */
+    public CambiosTurnos(List<Turno> turnos, LocalDateTime marca, Set<Integer> vigentes) {
+        this.turnos = turnos;
+        this.marca = marca;
+        this.vigentes = vigentes;
+    }
+
+    public List<Turno> getTurnos() { return turnos; }
+    public LocalDateTime getMarca() { return marca; }
+    public Set<Integer> getVigentes() { return vigentes; }
+}
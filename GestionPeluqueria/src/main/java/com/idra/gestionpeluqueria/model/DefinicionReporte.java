@@ -0,0 +1,112 @@
+package com.idra.gestionpeluqueria.model;
+
+import com.idra.gestionpeluqueria.model.enums.AgrupacionReporte;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Que reporte se pide: como se agrupan los turnos y entre que fechas,
+ * ambas incluidas. Es inmutable y sirve como clave de cache.
+ *
+ * @author Idra
+ */
+public final class DefinicionReporte {
+    private final AgrupacionReporte agrupacion;
+    private final LocalDate desde;
+    private final LocalDate hasta;
+
+    /**
+     * Constructor con todos los datos del reporte.
+     *
+     * @param agrupacion Criterio de agrupacion
+     * @param desde Primer dia del periodo
+     * @param hasta Ultimo dia del periodo
+     */
+    public DefinicionReporte(AgrupacionReporte agrupacion, LocalDate desde, LocalDate hasta) {
+        this.agrupacion = agrupacion;
+        this.desde = desde;
+        this.hasta = hasta;
+    }
+
+    /**
+     * Reporte de un mes completo.
+     *
+     * @param agrupacion Criterio de agrupacion
+     * @param mes El mes a reportar
+     * @return La definicion del primer al ultimo dia del mes
+     */
+    public static DefinicionReporte delMes(AgrupacionReporte agrupacion, YearMonth mes) {
+        return new DefinicionReporte(agrupacion, mes.atDay(1), mes.atEndOfMonth());
+    }
+
+    /**
+     * Indica si el periodo ya cerro: termina antes del mes en curso. Los
+     * turnos de meses pasados ya no cambian, asi que su reporte se puede
+     * guardar.
+     *
+     * @param hoy La fecha actual
+     * @return true si el periodo termina antes del primer dia del mes de hoy
+     */
+    public boolean isCerrado(LocalDate hoy) {
+        return hasta.isBefore(hoy.withDayOfMonth(1));
+    }
+
+    /**
+     * Parte el periodo en meses calendario, con la misma agrupacion. El
+     * primero y el ultimo pueden ser meses incompletos. Como las filas de
+     * cada parte se pueden combinar, el reporte de todo el periodo es la
+     * suma de los reportes de sus meses.
+     *
+     * @return Las partes del periodo, en orden
+     */
+    public List<DefinicionReporte> porMes() {
+        List<DefinicionReporte> partes = new ArrayList<>();
+        LocalDate inicio = desde;
+        while (!inicio.isAfter(hasta)) {
+            LocalDate finDeMes = YearMonth.from(inicio).atEndOfMonth();
+            LocalDate fin = finDeMes.isBefore(hasta) ? finDeMes : hasta;
+            partes.add(new DefinicionReporte(agrupacion, inicio, fin));
+            inicio = fin.plusDays(1);
+        }
+        return partes;
+    }
+
+    /**
+     * Indica si una fecha cae dentro del periodo.
+     *
+     * @param fecha La fecha a verificar
+     * @return true si esta entre desde y hasta, ambas incluidas
+     */
+    public boolean incluye(LocalDate fecha) {
+        return !fecha.isBefore(desde) && !fecha.isAfter(hasta);
+    }
+
+    public AgrupacionReporte getAgrupacion() { return agrupacion; }
+    public LocalDate getDesde() { return desde; }
+    public LocalDate getHasta() { return hasta; }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DefinicionReporte)) {
+            return false;
+        }
+        DefinicionReporte otra = (DefinicionReporte) obj;
+        return agrupacion == otra.agrupacion && Objects.equals(desde, otra.desde) && Objects.equals(hasta, otra.hasta);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(agrupacion, desde, hasta);
+    }
+
+    @Override
+    public String toString() {
+        return agrupacion + " del " + desde + " al " + hasta;
+    }
+}
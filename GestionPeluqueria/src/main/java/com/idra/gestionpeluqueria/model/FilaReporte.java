@@ -0,0 +1,61 @@
+package com.idra.gestionpeluqueria.model;
+
+/**
+ * Una fila de un reporte: un grupo de turnos con su cantidad y lo cobrado.
+ *
+ * La clave identifica al grupo (la fecha en formato ISO, el nombre de la
+ * constante o el ID del cliente) y la etiqueta es lo que se muestra. Dos
+ * filas con la misma clave se pueden combinar, asi que un reporte se puede
+ * calcular por partes y sumar.
+ *
+ * @author Idra
+ */
+public final class FilaReporte {
+    private final String clave;
+    private final String etiqueta;
+    private final int cantidadTurnos;
+    private final int cantidadCancelados;
+    private final double totalCobrado;
+
+    /**
+     * Constructor con todos los datos de la fila.
+     *
+     * @param clave Identificador del grupo
+     * @param etiqueta Texto a mostrar para el grupo
+     * @param cantidadTurnos Turnos del grupo, incluidos los cancelados
+     * @param cantidadCancelados Turnos cancelados del grupo
+     * @param totalCobrado Suma de lo pagado en los turnos pagados del grupo
+     */
+    public FilaReporte(String clave, String etiqueta, int cantidadTurnos, int cantidadCancelados, double totalCobrado) {
+        this.clave = clave;
+        this.etiqueta = etiqueta;
+        this.cantidadTurnos = cantidadTurnos;
+        this.cantidadCancelados = cantidadCancelados;
+        this.totalCobrado = totalCobrado;
+    }
+
+    /**
+     * Suma dos filas del mismo grupo.
+     *
+     * @param otra Fila con la misma clave
+     * @return Una fila nueva con las cantidades y el total sumados
+     */
+    public FilaReporte combinar(FilaReporte otra) {
+        if (!clave.equals(otra.clave)) {
+            throw new IllegalArgumentException("No se pueden combinar los grupos " + clave + " y " + otra.clave);
+        }
+        return new FilaReporte(clave, etiqueta, cantidadTurnos + otra.cantidadTurnos,
+            cantidadCancelados + otra.cantidadCancelados, totalCobrado + otra.totalCobrado);
+    }
+
+    public String getClave() { return clave; }
+    public String getEtiqueta() { return etiqueta; }
+    public int getCantidadTurnos() { return cantidadTurnos; }
+    public int getCantidadCancelados() { return cantidadCancelados; }
+    public double getTotalCobrado() { return totalCobrado; }
+
+    @Override
+    public String toString() {
+        return etiqueta;
+    }
+}
@@ -0,0 +1,49 @@
+package com.idra.gestionpeluqueria.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+/**
+ * Franja de trabajo semanal de un profesional: un dia de la semana con su
+ * hora de entrada y de salida. Un profesional con horario cortado tiene
+ * dos franjas para el mismo dia.
+ * 
+ * @author Idra
+ */
+public class HorarioLaboral {
+    private DayOfWeek diaSemana;
+    private LocalTime horaInicio;
+    private LocalTime horaFin;
+    
+    /**
+     * Constructor por defecto sin parametros.
+     */
+    public HorarioLaboral() {}
+    
+    /**
+     * Constructor con todos los datos de la franja.
+     * 
+     * @param diaSemana Dia de la semana
+     * @param horaInicio Hora de entrada
+     * @param horaFin Hora de salida
+     */
+    public HorarioLaboral(DayOfWeek diaSemana, LocalTime horaInicio, LocalTime horaFin) {
+        this.diaSemana = diaSemana;
+        this.horaInicio = horaInicio;
+        this.horaFin = horaFin;
+    }
+    
+    // Getters y Setters
+    public DayOfWeek getDiaSemana() { return diaSemana; }
+    public void setDiaSemana(DayOfWeek diaSemana) { this.diaSemana = diaSemana; }
+    
+    public LocalTime getHoraInicio() { return horaInicio; }
+    public void setHoraInicio(LocalTime horaInicio) { this.horaInicio = horaInicio; }
+    
+    public LocalTime getHoraFin() { return horaFin; }
+    public void setHoraFin(LocalTime horaFin) { this.horaFin = horaFin; }
+    
+    @Override
+    public String toString() {
+        return diaSemana + " " + horaInicio + "-" + horaFin;
+    }
+}
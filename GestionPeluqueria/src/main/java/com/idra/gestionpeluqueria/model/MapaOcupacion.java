@@ -0,0 +1,118 @@
+package com.idra.gestionpeluqueria.model;
+
+import com.idra.gestionpeluqueria.model.enums.TipoServicio;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Minutos reservados en un periodo por dia de la semana, hora y tipo de
+ * servicio. Un turno ocupa desde su fecha y hora durante la duracion de su
+ * servicio; si pasa de una hora a la siguiente, cada hora suma solo los
+ * minutos que le tocan. Los turnos cancelados no ocupan.
+ *
+ * Se arma sumando celdas ya agrupadas, asi que su tamaño no depende de
+ * cuantos turnos tenga el periodo.
+ *
+ * @author Idra
+ */
+public final class MapaOcupacion {
+    private static final int DIAS = 7;
+    private static final int HORAS = 24;
+
+    private final LocalDate desde;
+    private final LocalDate hasta;
+    private final long[][][] minutos = new long[TipoServicio.values().length][DIAS][HORAS];
+
+    /**
+     * Constructor de un mapa vacio.
+     *
+     * @param desde Primer dia del periodo
+     * @param hasta Ultimo dia del periodo, incluido
+     */
+    public MapaOcupacion(LocalDate desde, LocalDate hasta) {
+        this.desde = desde;
+        this.hasta = hasta;
+    }
+
+    /**
+     * Reparte el tiempo de un turno entre las horas que ocupa.
+     *
+     * @param inicio Fecha y hora del turno
+     * @param duracionMinutos Duracion de su servicio
+     * @param porHora Recibe el comienzo de cada hora ocupada y los minutos ocupados en ella
+     */
+    public static void repartir(LocalDateTime inicio, int duracionMinutos, BiConsumer<LocalDateTime, Long> porHora) {
+        LocalDateTime fin = inicio.plusMinutes(duracionMinutos);
+        for (LocalDateTime hora = inicio.truncatedTo(ChronoUnit.HOURS); hora.isBefore(fin); hora = hora.plusHours(1)) {
+            LocalDateTime finHora = hora.plusHours(1);
+            long ocupados = Duration.between(inicio.isAfter(hora) ? inicio : hora,
+                fin.isBefore(finHora) ? fin : finHora).toMinutes();
+            if (ocupados > 0) {
+                porHora.accept(hora, ocupados);
+            }
+        }
+    }
+
+    /**
+     * Suma minutos reservados a una celda.
+     *
+     * @param dia Dia de la semana
+     * @param hora Hora del dia, de 0 a 23
+     * @param tipo Tipo de servicio
+     * @param minutos Minutos a sumar
+     */
+    public void sumar(DayOfWeek dia, int hora, TipoServicio tipo, long minutos) {
+        this.minutos[tipo.ordinal()][dia.ordinal()][hora] += minutos;
+    }
+
+    /**
+     * @param tipo Tipo de servicio, o null para sumar todos
+     * @return Minutos reservados en esa hora y dia de la semana durante todo el periodo
+     */
+    public long getMinutos(DayOfWeek dia, int hora, TipoServicio tipo) {
+        if (tipo != null) {
+            return minutos[tipo.ordinal()][dia.ordinal()][hora];
+        }
+        long total = 0;
+        for (long[][] porTipo : minutos) {
+            total += porTipo[dia.ordinal()][hora];
+        }
+        return total;
+    }
+
+    /**
+     * @param tipo Tipo de servicio, o null para sumar todos
+     * @return Los minutos de la celda mas ocupada, o 0 si no hay reservas
+     */
+    public long getMaximo(TipoServicio tipo) {
+        long maximo = 0;
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            for (int hora = 0; hora < HORAS; hora++) {
+                maximo = Math.max(maximo, getMinutos(dia, hora, tipo));
+            }
+        }
+        return maximo;
+    }
+
+    /**
+     * @param tipo Tipo de servicio, o null para sumar todos
+     * @return Minutos reservados por semana en promedio en esa hora y dia de la semana
+     */
+    public double getPromedioSemanal(DayOfWeek dia, int hora, TipoServicio tipo) {
+        return getMinutos(dia, hora, tipo) / getSemanas();
+    }
+
+    /**
+     * @return Semanas que abarca el periodo, con fraccion
+     */
+    public double getSemanas() {
+        return (ChronoUnit.DAYS.between(desde, hasta) + 1) / (double) DIAS;
+    }
+
+    public LocalDate getDesde() { return desde; }
+    public LocalDate getHasta() { return hasta; }
+}
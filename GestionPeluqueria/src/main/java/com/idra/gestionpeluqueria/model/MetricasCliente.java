@@ -0,0 +1,78 @@
+package com.idra.gestionpeluqueria.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Fila de la tabla cliente_metricas: cuantas veces vino un cliente y cuanto
+ * gasto, contando solo los turnos completados.
+ *
+ * El ticket promedio y la frecuencia se derivan de lo guardado: la
+ * frecuencia es el tiempo entre la primera y la ultima visita repartido
+ * entre los intervalos que hubo.
+ *
+ * @author Idra
+ */
+public class MetricasCliente {
+    private Cliente cliente;
+    private int visitas;
+    private double totalPagado;
+    private LocalDateTime primeraVisita;
+    private LocalDateTime ultimaVisita;
+
+    /**
+     * Constructor por defecto sin parametros.
+     */
+    public MetricasCliente() {}
+
+    /**
+     * Constructor con todos los datos de la fila.
+     *
+     * @param cliente El cliente, con al menos su ID y nombre
+     * @param visitas Turnos completados
+     * @param totalPagado Suma de lo pagado en esos turnos
+     * @param primeraVisita Fecha y hora del primer turno completado
+     * @param ultimaVisita Fecha y hora del ultimo turno completado
+     */
+    public MetricasCliente(Cliente cliente, int visitas, double totalPagado,
+                           LocalDateTime primeraVisita, LocalDateTime ultimaVisita) {
+        this.cliente = cliente;
+        this.visitas = visitas;
+        this.totalPagado = totalPagado;
+        this.primeraVisita = primeraVisita;
+        this.ultimaVisita = ultimaVisita;
+    }
+
+    /**
+     * @return Lo pagado en promedio por visita, o 0 si no hay visitas
+     */
+    public double getTicketPromedio() {
+        return visitas > 0 ? totalPagado / visitas : 0.0;
+    }
+
+    /**
+     * @return Dias promedio entre dos visitas seguidas, o null si hubo menos de dos
+     */
+    public Double getDiasEntreVisitas() {
+        if (visitas < 2) {
+            return null;
+        }
+        return Duration.between(primeraVisita, ultimaVisita).toHours() / 24.0 / (visitas - 1);
+    }
+
+    // Getters y Setters
+    public Cliente getCliente() { return cliente; }
+    public void setCliente(Cliente cliente) { this.cliente = cliente; }
+
+    public int getVisitas() { return visitas; }
+    public void setVisitas(int visitas) { this.visitas = visitas; }
+
+    public double getTotalPagado() { return totalPagado; }
+    public void setTotalPagado(double totalPagado) { this.totalPagado = totalPagado; }
+
+    public LocalDateTime getPrimeraVisita() { return primeraVisita; }
+    public void setPrimeraVisita(LocalDateTime primeraVisita) { this.primeraVisita = primeraVisita; }
+
+    public LocalDateTime getUltimaVisita() { return ultimaVisita; }
+    public void setUltimaVisita(LocalDateTime ultimaVisita) { this.ultimaVisita = ultimaVisita; }
+}
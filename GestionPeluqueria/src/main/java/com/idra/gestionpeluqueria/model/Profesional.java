@@ -0,0 +1,103 @@
+package com.idra.gestionpeluqueria.model;
+
+import com.idra.gestionpeluqueria.model.enums.TipoServicio;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+/**
+ * Clase que representa a un profesional (estilista) de la peluqueria.
+ * Indica que tipos de servicio sabe realizar y en que horarios trabaja,
+ * datos con los que se calcula la disponibilidad para los turnos.
+ * 
+ * @author Idra
+ */
+public class Profesional {
+    private int id;
+    private String nombre;
+    private String apellido;
+    private boolean activo;
+    private Set<TipoServicio> especialidades = EnumSet.noneOf(TipoServicio.class);
+    private List<HorarioLaboral> horarios = new ArrayList<>();
+    
+    /**
+     * Constructor por defecto sin parametros.
+     */
+    public Profesional() {}
+    
+    /**
+     * Constructor con los datos principales. El profesional se marca como activo.
+     * 
+     * @param nombre Nombre del profesional
+     * @param apellido Apellido del profesional
+     */
+    public Profesional(String nombre, String apellido) {
+        this.nombre = nombre;
+        this.apellido = apellido;
+        this.activo = true;
+    }
+    
+    // Getters y Setters
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    
+    public String getNombre() { return nombre; }
+    public void setNombre(String nombre) { this.nombre = nombre; }
+    
+    public String getApellido() { return apellido; }
+    public void setApellido(String apellido) { this.apellido = apellido; }
+    
+    public boolean isActivo() { return activo; }
+    public void setActivo(boolean activo) { this.activo = activo; }
+    
+    public Set<TipoServicio> getEspecialidades() { return especialidades; }
+    public void setEspecialidades(Set<TipoServicio> especialidades) {
+        this.especialidades = especialidades.isEmpty() ? EnumSet.noneOf(TipoServicio.class) : EnumSet.copyOf(especialidades);
+    }
+    
+    public List<HorarioLaboral> getHorarios() { return horarios; }
+    public void setHorarios(List<HorarioLaboral> horarios) { this.horarios = new ArrayList<>(horarios); }
+    
+    /**
+     * Indica si el profesional realiza un tipo de servicio.
+     * 
+     * @param tipo El tipo de servicio
+     * @return true si esta entre sus especialidades
+     */
+    public boolean puedeRealizar(TipoServicio tipo) {
+        return especialidades.contains(tipo);
+    }
+    
+    /**
+     * Indica si un turno cae completo dentro de alguna franja de trabajo.
+     * 
+     * @param inicio Fecha y hora de inicio del turno
+     * @param duracionMinutos Duracion del turno
+     * @return true si el profesional trabaja durante todo el turno
+     */
+    public boolean trabajaEntre(LocalDateTime inicio, int duracionMinutos) {
+        LocalDateTime fin = inicio.plusMinutes(duracionMinutos);
+        if (!fin.toLocalDate().equals(inicio.toLocalDate())) {
+            return false; // Ninguna franja pasa de medianoche
+        }
+        for (HorarioLaboral horario : horarios) {
+            if (horario.getDiaSemana() == inicio.getDayOfWeek()
+                    && !inicio.toLocalTime().isBefore(horario.getHoraInicio())
+                    && !fin.toLocalTime().isAfter(horario.getHoraFin())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Retorna una representacion en texto del profesional.
+     * 
+     * @return String con nombre y apellido
+     */
+    @Override
+    public String toString() {
+        return nombre + " " + apellido;
+    }
+}
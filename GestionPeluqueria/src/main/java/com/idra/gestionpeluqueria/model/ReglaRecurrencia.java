@@ -0,0 +1,95 @@
+package com.idra.gestionpeluqueria.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * Regla para repetir un turno cada N semanas, el mismo dia y a la misma
+ * hora, hasta una fecha o una cantidad de veces.
+ * 
+ * @author Idra
+ */
+public class ReglaRecurrencia {
+    /** Tope de turnos que puede generar una serie, para no llenar la agenda por error. */
+    public static final int MAXIMO_OCURRENCIAS = 52;
+    
+    private int intervaloSemanas;
+    private LocalDate fechaFin;
+    private int cantidad;
+    
+    /**
+     * Constructor por defecto sin parametros.
+     */
+    public ReglaRecurrencia() {}
+    
+    /**
+     * Repetir una cantidad fija de veces.
+     * 
+     * @param intervaloSemanas Semanas entre un turno y el siguiente (1 = semanal, 2 = quincenal)
+     * @param cantidad Cantidad total de turnos, incluido el primero
+     * @return La regla
+     */
+    public static ReglaRecurrencia veces(int intervaloSemanas, int cantidad) {
+        ReglaRecurrencia regla = new ReglaRecurrencia();
+        regla.setIntervaloSemanas(intervaloSemanas);
+        regla.setCantidad(cantidad);
+        return regla;
+    }
+    
+    /**
+     * Repetir hasta una fecha.
+     * 
+     * @param intervaloSemanas Semanas entre un turno y el siguiente (1 = semanal, 2 = quincenal)
+     * @param fechaFin Ultimo dia en que puede caer un turno (inclusivo)
+     * @return La regla
+     */
+    public static ReglaRecurrencia hasta(int intervaloSemanas, LocalDate fechaFin) {
+        ReglaRecurrencia regla = new ReglaRecurrencia();
+        regla.setIntervaloSemanas(intervaloSemanas);
+        regla.setFechaFin(fechaFin);
+        return regla;
+    }
+    
+    /**
+     * Calcula las fechas de la serie a partir del primer turno. Si se indican
+     * fecha de fin y cantidad, la serie termina con la que llegue primero.
+     * 
+     * @param primera Fecha y hora del primer turno
+     * @return Las fechas de todos los turnos de la serie, en orden
+     */
+    public List<LocalDateTime> ocurrencias(LocalDateTime primera) {
+        List<LocalDateTime> fechas = new ArrayList<>();
+        int limite = cantidad > 0 ? Math.min(cantidad, MAXIMO_OCURRENCIAS) : MAXIMO_OCURRENCIAS;
+        for (LocalDateTime fecha = primera; fechas.size() < limite; fecha = fecha.plusWeeks(intervaloSemanas)) {
+            if (fechaFin != null && fecha.toLocalDate().isAfter(fechaFin)) {
+                break;
+            }
+            fechas.add(fecha);
+        }
+        return fechas;
+    }
+    
+    /**
+     * @return true si el intervalo es positivo y la serie tiene un final
+     */
+    public boolean esValida() {
+        return intervaloSemanas > 0 && (cantidad > 0 || fechaFin != null);
+    }
+    
+    // Getters y Setters
+    public int getIntervaloSemanas() { return intervaloSemanas; }
+    public void setIntervaloSemanas(int intervaloSemanas) { this.intervaloSemanas = intervaloSemanas; }
+    
+    public LocalDate getFechaFin() { return fechaFin; }
+    public void setFechaFin(LocalDate fechaFin) { this.fechaFin = fechaFin; }
+    
+    public int getCantidad() { return cantidad; }
+    public void setCantidad(int cantidad) { this.cantidad = cantidad; }
+    
+    @Override
+    public String toString() {
+        String cada = intervaloSemanas == 1 ? "Cada semana" : "Cada " + intervaloSemanas + " semanas";
+        return fechaFin != null ? cada + " hasta " + fechaFin : cada + ", " + cantidad + " veces";
+    }
+}
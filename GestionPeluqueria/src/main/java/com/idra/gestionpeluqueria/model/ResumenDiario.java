@@ -0,0 +1,58 @@
+package com.idra.gestionpeluqueria.model;
+
+import com.idra.gestionpeluqueria.model.enums.FormaPago;
+import com.idra.gestionpeluqueria.model.enums.TipoServicio;
+import java.time.LocalDate;
+
+/**
+ * Fila de la tabla resumen_diario: lo cobrado en un dia con una forma de
+ * pago por un tipo de servicio.
+ *
+ * @author Idra
+ */
+public class ResumenDiario {
+    private LocalDate fecha;
+    private FormaPago formaPago;
+    private TipoServicio tipoServicio;
+    private int cantidadTurnos;
+    private double totalCobrado;
+
+    /**
+     * Constructor por defecto sin parametros.
+     */
+    public ResumenDiario() {}
+
+    /**
+     * Constructor con todos los datos de la fila.
+     *
+     * @param fecha Dia del turno
+     * @param formaPago Forma de pago, o null si el turno no la tiene cargada
+     * @param tipoServicio Tipo del servicio realizado
+     * @param cantidadTurnos Turnos pagados que suman en la fila
+     * @param totalCobrado Suma de lo pagado en esos turnos
+     */
+    public ResumenDiario(LocalDate fecha, FormaPago formaPago, TipoServicio tipoServicio,
+                         int cantidadTurnos, double totalCobrado) {
+        this.fecha = fecha;
+        this.formaPago = formaPago;
+        this.tipoServicio = tipoServicio;
+        this.cantidadTurnos = cantidadTurnos;
+        this.totalCobrado = totalCobrado;
+    }
+
+    // Getters y Setters
+    public LocalDate getFecha() { return fecha; }
+    public void setFecha(LocalDate fecha) { this.fecha = fecha; }
+
+    public FormaPago getFormaPago() { return formaPago; }
+    public void setFormaPago(FormaPago formaPago) { this.formaPago = formaPago; }
+
+    public TipoServicio getTipoServicio() { return tipoServicio; }
+    public void setTipoServicio(TipoServicio tipoServicio) { this.tipoServicio = tipoServicio; }
+
+    public int getCantidadTurnos() { return cantidadTurnos; }
+    public void setCantidadTurnos(int cantidadTurnos) { this.cantidadTurnos = cantidadTurnos; }
+
+    public double getTotalCobrado() { return totalCobrado; }
+    public void setTotalCobrado(double totalCobrado) { this.totalCobrado = totalCobrado; }
+}
@@ -0,0 +1,106 @@
+package com.idra.gestionpeluqueria.model;
+
+import com.idra.gestionpeluqueria.model.enums.EstadoEspera;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+/**
+ * Pedido de un cliente en la lista de espera: quiere un servicio en algun
+ * dia entre dos fechas, dentro de una franja horaria.
+ * 
+ * @author Idra
+ */
+public class SolicitudEspera {
+    private int id;
+    private Cliente cliente;
+    private Servicio servicio;
+    private LocalDate fechaDesde;
+    private LocalDate fechaHasta;
+    private LocalTime horaDesde;
+    private LocalTime horaHasta;
+    private EstadoEspera estado;
+    private LocalDateTime fechaHoraOfrecida;
+    private LocalDateTime fechaRegistro;
+    
+    /**
+     * Constructor por defecto sin parametros.
+     */
+    public SolicitudEspera() {}
+    
+    /**
+     * Constructor con los datos que elige el cliente.
+     * 
+     * @param cliente Cliente que espera
+     * @param servicio Servicio que quiere
+     * @param fechaDesde Primer dia que le sirve
+     * @param fechaHasta Ultimo dia que le sirve
+     * @param horaDesde Hora desde la que puede empezar el turno
+     * @param horaHasta Hora en la que el turno tiene que haber terminado
+     */
+    public SolicitudEspera(Cliente cliente, Servicio servicio, LocalDate fechaDesde, LocalDate fechaHasta,
+                           LocalTime horaDesde, LocalTime horaHasta) {
+        this.cliente = cliente;
+        this.servicio = servicio;
+        this.fechaDesde = fechaDesde;
+        this.fechaHasta = fechaHasta;
+        this.horaDesde = horaDesde;
+        this.horaHasta = horaHasta;
+        this.estado = EstadoEspera.PENDIENTE;
+        this.fechaRegistro = LocalDateTime.now();
+    }
+    
+    /**
+     * Indica si un turno del servicio a esa hora le sirve al cliente: cae
+     * dentro de sus fechas y empieza y termina dentro de su franja horaria.
+     * 
+     * @param inicio Fecha y hora del turno
+     * @param duracionMinutos Duracion del turno
+     * @return true si el horario entra en la ventana de la solicitud
+     */
+    public boolean aceptaHorario(LocalDateTime inicio, int duracionMinutos) {
+        LocalDate fecha = inicio.toLocalDate();
+        LocalDateTime fin = inicio.plusMinutes(duracionMinutos);
+        return !fecha.isBefore(fechaDesde) && !fecha.isAfter(fechaHasta)
+            && !inicio.toLocalTime().isBefore(horaDesde)
+            && fin.toLocalDate().equals(fecha) && !fin.toLocalTime().isAfter(horaHasta);
+    }
+    
+    // Getters y Setters
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    
+    public Cliente getCliente() { return cliente; }
+    public void setCliente(Cliente cliente) { this.cliente = cliente; }
+    
+    public Servicio getServicio() { return servicio; }
+    public void setServicio(Servicio servicio) { this.servicio = servicio; }
+    
+    public LocalDate getFechaDesde() { return fechaDesde; }
+    public void setFechaDesde(LocalDate fechaDesde) { this.fechaDesde = fechaDesde; }
+    
+    public LocalDate getFechaHasta() { return fechaHasta; }
+    public void setFechaHasta(LocalDate fechaHasta) { this.fechaHasta = fechaHasta; }
+    
+    public LocalTime getHoraDesde() { return horaDesde; }
+    public void setHoraDesde(LocalTime horaDesde) { this.horaDesde = horaDesde; }
+    
+    public LocalTime getHoraHasta() { return horaHasta; }
+    public void setHoraHasta(LocalTime horaHasta) { this.horaHasta = horaHasta; }
+    
+    public EstadoEspera getEstado() { return estado; }
+    public void setEstado(EstadoEspera estado) { this.estado = estado; }
+    
+    /**
+     * @return Horario ofrecido al cliente, o null si todavia no se le ofrecio ninguno
+     */
+    public LocalDateTime getFechaHoraOfrecida() { return fechaHoraOfrecida; }
+    public void setFechaHoraOfrecida(LocalDateTime fechaHoraOfrecida) { this.fechaHoraOfrecida = fechaHoraOfrecida; }
+    
+    public LocalDateTime getFechaRegistro() { return fechaRegistro; }
+    public void setFechaRegistro(LocalDateTime fechaRegistro) { this.fechaRegistro = fechaRegistro; }
+    
+    @Override
+    public String toString() {
+        return cliente + " - " + servicio;
+    }
+}
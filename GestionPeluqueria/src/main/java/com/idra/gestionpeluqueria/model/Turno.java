@@ -1,99 +1,153 @@
-package com.idra.gestionpeluqueria.model;
-
-import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
-import com.idra.gestionpeluqueria.model.enums.EstadoPago;
-import com.idra.gestionpeluqueria.model.enums.FormaPago;
-import java.time.LocalDateTime;
-/**
- * Clase que representa un turno o cita en la peluqueria.
- * Relaciona a un cliente con un servicio en una fecha y hora especifica,
- * e incluye informacion sobre el estado del turno y el pago.
- * 
- * @author Idra
- */
-public class Turno {
-    private int id;
-    private Cliente cliente;
-    private Servicio servicio;
-    private LocalDateTime fechaHora;
-    private String notas;
-    private EstadoTurno estado;
-    private EstadoPago estadoPago;
-    private FormaPago formaPago;
-    private double montoPagado;
-    private LocalDateTime fechaCreacion;
-    
-    /**
-     * Constructores por defecto sin parametros 
-     */
-    public Turno() {}
-    
-    /**
-     * Constructor con parametros principales del turno.
-     * Inicializa el estado como CONFIRMADO, estado de pago como PENDIENTE,
-     * monto pagado en 0 y fecha de creacion con la fecha actual.
-     * 
-     * @param cliente CLiente que solicito el turno 
-     * @param servicio Servicio a realizar en el turno 
-     * @param fechaHora Fecha y hora programada para el turno 
-     */
-    public Turno(Cliente cliente, Servicio servicio, LocalDateTime fechaHora) {
-        this.cliente = cliente;
-        this.servicio = servicio;
-        this.fechaHora = fechaHora;
-        this.estado = EstadoTurno.CONFIRMADO;
-        this.estadoPago = EstadoPago.PENDIENTE;
-        this.montoPagado = 0.0;
-        this.fechaCreacion = LocalDateTime.now();
-    }
-    
-    // Getters y Setters
-    public int getId() { return id; }
-    public void setId(int id) { this.id = id; }
-    
-    public Cliente getCliente() { return cliente; }
-    public void setCliente(Cliente cliente) { this.cliente = cliente; }
-    
-    public Servicio getServicio() { return servicio; }
-    public void setServicio(Servicio servicio) { this.servicio = servicio; }
-    
-    public LocalDateTime getFechaHora() { return fechaHora; }
-    public void setFechaHora(LocalDateTime fechaHora) { this.fechaHora = fechaHora; }
-    
-    public String getNotas() { return notas; }
-    public void setNotas(String notas) { this.notas = notas; }
-    
-    public EstadoTurno getEstado() { return estado; }
-    public void setEstado(EstadoTurno estado) { this.estado = estado; }
-    
-    public EstadoPago getEstadoPago() { return estadoPago; }
-    public void setEstadoPago(EstadoPago estadoPago) { this.estadoPago = estadoPago; }
-    
-    public FormaPago getFormaPago() { return formaPago; }
-    public void setFormaPago(FormaPago formaPago) { this.formaPago = formaPago; }
-    
-    public double getMontoPagado() { return montoPagado; }
-    public void setMontoPagado(double montoPagado) { this.montoPagado = montoPagado; }
-    
-    public LocalDateTime getFechaCreacion() { return fechaCreacion; }
-    public void setFechaCreacion(LocalDateTime fechaCreacion) { this.fechaCreacion = fechaCreacion; }
-    
-    /**
-     * Calcula el saldo pendiente de pago del turno 
-     * 
-     * @return Diferencia entre el precio del servicio y el monto ya pagado
-     */
-    public double getSaldoPendiente() {
-        return servicio.getPrecio() - montoPagado;
-    }
-    /**
-     * Retorna una representacion en texto del turno.
-     * 
-     * @return String con cliente, servicio y fecha/hora del turno 
-     */
-    @Override
-    public String toString() {
-        return cliente.getNombre() + " " + cliente.getApellido() + " - " + 
-               servicio.getNombre() + " - " + fechaHora;
-    }
+package com.idra.gestionpeluqueria.model;
+
+import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
+import com.idra.gestionpeluqueria.model.enums.EstadoPago;
+import com.idra.gestionpeluqueria.model.enums.FormaPago;
+import java.time.LocalDateTime;
+/**
+ * Clase que representa un turno o cita en la peluqueria.
+ * Relaciona a un cliente con un servicio en una fecha y hora especifica,
+ * e incluye informacion sobre el estado del turno y el pago.
+ * 
+ * @author Idra
+ */
+public class Turno {
+    private int id;
+    private Cliente cliente;
+    private Servicio servicio;
+    private Profesional profesional;
+    private LocalDateTime fechaHora;
+    private String notas;
+    private EstadoTurno estado;
+    private EstadoPago estadoPago;
+    private FormaPago formaPago;
+    private double montoPagado;
+    private LocalDateTime fechaCreacion;
+    private int version;
+    private int toleranciaMinutos;
+    private LocalDateTime fechaHoraPedida;
+    
+    /**
+     * Constructores por defecto sin parametros 
+     */
+    public Turno() {}
+    
+    /**
+     * Constructor con parametros principales del turno.
+     * Inicializa el estado como CONFIRMADO, estado de pago como PENDIENTE,
+     * monto pagado en 0 y fecha de creacion con la fecha actual.
+     * 
+     * @param cliente CLiente que solicito el turno 
+     * @param servicio Servicio a realizar en el turno 
+     * @param fechaHora Fecha y hora programada para el turno 
+     */
+    public Turno(Cliente cliente, Servicio servicio, LocalDateTime fechaHora) {
+        this.cliente = cliente;
+        this.servicio = servicio;
+        this.fechaHora = fechaHora;
+        this.estado = EstadoTurno.CONFIRMADO;
+        this.estadoPago = EstadoPago.PENDIENTE;
+        this.montoPagado = 0.0;
+        this.fechaCreacion = LocalDateTime.now();
+    }
+    
+    /**
+     * Constructor de copia. Copia todos los campos del turno indicado;
+     * cliente, servicio y profesional se comparten, ya que el turno solo los referencia.
+     * 
+     * @param otro Turno a copiar
+     */
+    public Turno(Turno otro) {
+        this.id = otro.id;
+        this.cliente = otro.cliente;
+        this.servicio = otro.servicio;
+        this.profesional = otro.profesional;
+        this.fechaHora = otro.fechaHora;
+        this.notas = otro.notas;
+        this.estado = otro.estado;
+        this.estadoPago = otro.estadoPago;
+        this.formaPago = otro.formaPago;
+        this.montoPagado = otro.montoPagado;
+        this.fechaCreacion = otro.fechaCreacion;
+        this.version = otro.version;
+        this.toleranciaMinutos = otro.toleranciaMinutos;
+        this.fechaHoraPedida = otro.fechaHoraPedida;
+    }
+    
+    // Getters y Setters
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    
+    public Cliente getCliente() { return cliente; }
+    public void setCliente(Cliente cliente) { this.cliente = cliente; }
+    
+    public Servicio getServicio() { return servicio; }
+    public void setServicio(Servicio servicio) { this.servicio = servicio; }
+    
+    /**
+     * Profesional asignado al turno, o null si no tiene uno asignado.
+     */
+    public Profesional getProfesional() { return profesional; }
+    public void setProfesional(Profesional profesional) { this.profesional = profesional; }
+    
+    public LocalDateTime getFechaHora() { return fechaHora; }
+    public void setFechaHora(LocalDateTime fechaHora) { this.fechaHora = fechaHora; }
+    
+    public String getNotas() { return notas; }
+    public void setNotas(String notas) { this.notas = notas; }
+    
+    public EstadoTurno getEstado() { return estado; }
+    public void setEstado(EstadoTurno estado) { this.estado = estado; }
+    
+    public EstadoPago getEstadoPago() { return estadoPago; }
+    public void setEstadoPago(EstadoPago estadoPago) { this.estadoPago = estadoPago; }
+    
+    public FormaPago getFormaPago() { return formaPago; }
+    public void setFormaPago(FormaPago formaPago) { this.formaPago = formaPago; }
+    
+    public double getMontoPagado() { return montoPagado; }
+    public void setMontoPagado(double montoPagado) { this.montoPagado = montoPagado; }
+    
+    public LocalDateTime getFechaCreacion() { return fechaCreacion; }
+    public void setFechaCreacion(LocalDateTime fechaCreacion) { this.fechaCreacion = fechaCreacion; }
+    
+    /**
+     * Version del registro, usada para detectar modificaciones concurrentes.
+     * Se incrementa en cada actualizacion exitosa.
+     */
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+    
+    /**
+     * @return Minutos que el cliente acepta que se adelante o atrase el turno
+     * para acomodar la agenda; 0 si el horario es fijo
+     */
+    public int getToleranciaMinutos() { return toleranciaMinutos; }
+    public void setToleranciaMinutos(int toleranciaMinutos) { this.toleranciaMinutos = toleranciaMinutos; }
+    
+    /**
+     * @return Horario que pidio el cliente si la compactacion de la agenda
+     * movio el turno; null si el turno sigue en ese horario
+     */
+    public LocalDateTime getFechaHoraPedida() { return fechaHoraPedida; }
+    public void setFechaHoraPedida(LocalDateTime fechaHoraPedida) { this.fechaHoraPedida = fechaHoraPedida; }
+    
+    /**
+     * Calcula el saldo pendiente de pago del turno 
+     * 
+     * @return Diferencia entre el precio del servicio y el monto ya pagado
+     */
+    public double getSaldoPendiente() {
+        return servicio.getPrecio() - montoPagado;
+    }
+    /**
+     * Retorna una representacion en texto del turno.
+     * 
+     * @return String con cliente, servicio y fecha/hora del turno 
+     */
+    @Override
+    public String toString() {
+        return cliente.getNombre() + " " + cliente.getApellido() + " - " + 
+               servicio.getNombre() + " - " + fechaHora;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.idra.gestionpeluqueria.model.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Enumeracion que representa los criterios por los que se puede agrupar un
+ * reporte de turnos: por periodo de tiempo o por alguna caracteristica del
+ * turno.
+ *
+ * @author Idra
+ */
+public enum AgrupacionReporte {
+    DIA("Día", true),
+    SEMANA("Semana", true),
+    MES("Mes", true),
+    TIPO_SERVICIO("Tipo de servicio", false),
+    FORMA_PAGO("Forma de pago", false),
+    ESTADO_TURNO("Estado del turno", false),
+    CLIENTE("Cliente", false);
+
+    private final String descripcion;
+    private final boolean temporal;
+
+    private AgrupacionReporte(String descripcion, boolean temporal) {
+        this.descripcion = descripcion;
+        this.temporal = temporal;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    /**
+     * Indica si agrupa por periodos de tiempo. Sus filas se ordenan por
+     * fecha; las demas, por lo cobrado.
+     *
+     * @return true para dia, semana y mes
+     */
+    public boolean isTemporal() {
+        return temporal;
+    }
+
+    /**
+     * Inicio del periodo al que pertenece una fecha: el mismo dia, el lunes
+     * de su semana o el primero de su mes. Es la clave de las filas de los
+     * reportes temporales.
+     *
+     * @param fecha La fecha de un turno
+     * @return El primer dia de su periodo
+     */
+    public LocalDate inicioPeriodo(LocalDate fecha) {
+        switch (this) {
+            case DIA:
+                return fecha;
+            case SEMANA:
+                return fecha.with(DayOfWeek.MONDAY);
+            case MES:
+                return fecha.withDayOfMonth(1);
+            default:
+                throw new IllegalStateException(this + " no agrupa por fecha");
+        }
+    }
+
+    /**
+     * Texto a mostrar para la clave de una fila. Los clientes ya traen su
+     * nombre, asi que para ellos se devuelve la clave sin cambios.
+     *
+     * @param clave La fecha en formato ISO o el nombre de la constante
+     * @return La etiqueta legible
+     */
+    public String etiqueta(String clave) {
+        switch (this) {
+            case DIA:
+                return LocalDate.parse(clave).format(DateTimeFormatter.ofPattern("EEE dd/MM/yyyy"));
+            case SEMANA:
+                return "Semana del " + LocalDate.parse(clave).format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+            case MES:
+                return LocalDate.parse(clave).format(DateTimeFormatter.ofPattern("MMMM yyyy"));
+            case TIPO_SERVICIO:
+                return TipoServicio.valueOf(clave).getDescripcion();
+            case FORMA_PAGO:
+                return "NINGUNA".equals(clave) ? "Sin informar" : FormaPago.valueOf(clave).getDescripcion();
+            case ESTADO_TURNO:
+                return EstadoTurno.valueOf(clave).getDescripcion();
+            default:
+                return clave;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return descripcion;
+    }
+}
@@ -0,0 +1,29 @@
+package com.idra.gestionpeluqueria.model.enums;
+/**
+ * Enumeracion que representa los estados de una solicitud en la lista de espera.
+ * Una solicitud espera hasta que se cancela un turno que le sirve; entonces
+ * se le ofrece ese horario y el cliente lo acepta o lo rechaza.
+ * 
+ * @author Idra
+ */
+public enum EstadoEspera {
+    PENDIENTE("Esperando"),
+    OFRECIDA("Horario ofrecido"),
+    ASIGNADA("Turno asignado"),
+    CANCELADA("Cancelada");
+    
+    private final String descripcion;
+    
+    private EstadoEspera(String descripcion) {
+        this.descripcion = descripcion;
+    }
+    
+    public String getDescripcion() {
+        return descripcion;
+    }
+    
+    @Override
+    public String toString() {
+        return descripcion;
+    }
+}
@@ -0,0 +1,323 @@
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.dao.TurnoDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.Servicio;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.model.enums.EstadoPago;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copia en memoria de todos los turnos, guardada por columnas en arrays de
+ * primitivos: la fecha en minutos desde 1970 (int), los ids como int, las
+ * enumeraciones como el byte de su ordinal y los importes en centavos
+ * (long). Recorrer y filtrar millones de turnos es recorrer unos pocos
+ * arrays, sin crear objetos por fila.
+ *
+ * Se carga entera la primera vez que se consulta, recorriendo los turnos
+ * del TurnoDAO fila por fila directo a las columnas, sin armar los Turno
+ * ni juntarlos en una lista, y despues se mantiene con registrar() a partir de los eventos
+ * que publica el servicio de turnos. Los turnos se borran solo junto con su
+ * cliente o su servicio, por eso no hay una baja por id. Lo hecho desde
+ * otras terminales se ve cuando se vuelve a cargar, despues de limpiar().
+ *
+ * Las filas no se mantienen ordenadas: cada consulta recorre todas.
+ *
+ * La carga lee los turnos y arma las columnas sin tomar el bloqueo del
+ * almacen, y solo lo toma al final para reemplazar las columnas. Mientras
+ * tanto totalesEnMemoria() devuelve null sin esperar, y los cambios que
+ * llegan se guardan para aplicarlos sobre lo cargado.
+ *
+ * @author Idra
+ */
+public class AlmacenColumnar {
+    private static final int CAPACIDAD_INICIAL = 1024;
+    private static final byte SIN_FORMA_PAGO = -1;
+    private static final byte PAGADO = (byte) EstadoPago.PAGADO.ordinal();
+
+    private final TurnoDAO turnoDAO;
+    // Una sola carga a la vez; no es el bloqueo del almacen, que no se toma mientras se lee
+    private final Object carga = new Object();
+
+    private boolean cargado;
+    private Columnas columnas = new Columnas(CAPACIDAD_INICIAL);
+    // Cambios llegados durante la carga en curso, o null si no se esta cargando
+    private List<Runnable> pendientes;
+    // Cambia con limpiar(), para descartar una carga empezada antes
+    private long generacion;
+
+    /**
+     * @param turnoDAO DAO del que se cargan los turnos
+     */
+    public AlmacenColumnar(TurnoDAO turnoDAO) {
+        this.turnoDAO = turnoDAO;
+    }
+
+    /**
+     * Calcula los totales de los turnos de un periodo, cargando el almacen
+     * si todavia no se hizo. Si hay una carga en curso espera a que termine.
+     *
+     * @param desde Inicio del periodo, incluido
+     * @param hasta Fin del periodo, excluido
+     * @return Los totales del periodo
+     * @throws DAOException Si no se pueden cargar los turnos
+     */
+    public TotalesPeriodo totales(LocalDateTime desde, LocalDateTime hasta) throws DAOException {
+        while (true) {
+            TotalesPeriodo totales = totalesEnMemoria(desde, hasta);
+            if (totales != null) {
+                return totales;
+            }
+            synchronized (carga) {
+                if (!estaCargado()) {
+                    cargar();
+                }
+            }
+        }
+    }
+
+    /**
+     * Igual que {@link #totales}, pero sin ir nunca a la base de datos ni
+     * esperar una carga: sirve para recalcular desde el hilo de la interfaz.
+     *
+     * @return Los totales del periodo, o null si el almacen no esta cargado
+     */
+    public synchronized TotalesPeriodo totalesEnMemoria(LocalDateTime desde, LocalDateTime hasta) {
+        return cargado ? columnas.totales(minuto(desde), minuto(hasta)) : null;
+    }
+
+    /**
+     * Aplica un turno creado o modificado. Si el almacen no esta cargado ni
+     * cargandose no hace nada: la carga ya lo va a incluir.
+     *
+     * @param turno El turno tal como quedo guardado
+     */
+    public synchronized void registrar(Turno turno) {
+        if (cargado) {
+            columnas.guardar(turno);
+        } else if (pendientes != null) {
+            pendientes.add(() -> columnas.guardar(turno));
+        }
+    }
+
+    /**
+     * Quita los turnos de un cliente eliminado.
+     */
+    public synchronized void quitarCliente(int clienteId) {
+        aplicar(() -> columnas.quitarSi(columnas.clienteIds, clienteId));
+    }
+
+    /**
+     * Quita los turnos de un servicio eliminado.
+     */
+    public synchronized void quitarServicio(int servicioId) {
+        aplicar(() -> columnas.quitarSi(columnas.servicioIds, servicioId));
+    }
+
+    /**
+     * Actualiza el tipo de los turnos de un servicio modificado.
+     */
+    public synchronized void actualizarServicio(Servicio servicio) {
+        aplicar(() -> columnas.actualizarTipo(servicio.getId(), (byte) servicio.getTipoServicio().ordinal()));
+    }
+
+    /**
+     * Descarta todo; la proxima consulta vuelve a cargar los turnos. Una
+     * carga en curso se descarta al terminar.
+     */
+    public synchronized void limpiar() {
+        generacion++;
+        cargado = false;
+        pendientes = null;
+        columnas = new Columnas(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * @return Cantidad de turnos en memoria
+     */
+    public synchronized int getCantidadFilas() {
+        return columnas.filas;
+    }
+
+    private synchronized boolean estaCargado() {
+        return cargado;
+    }
+
+    /** Aplica un cambio ahora, o al terminar la carga si hay una en curso. */
+    private void aplicar(Runnable cambio) {
+        if (pendientes != null) {
+            pendientes.add(cambio);
+        } else {
+            cambio.run();
+        }
+    }
+
+    /**
+     * Lee todos los turnos y arma las columnas fuera del bloqueo del
+     * almacen; solo el reemplazo final lo toma.
+     */
+    private void cargar() throws DAOException {
+        long miGeneracion;
+        synchronized (this) {
+            miGeneracion = generacion;
+            pendientes = new ArrayList<>();
+        }
+
+        Columnas nuevas;
+        try {
+            Columnas leidas = new Columnas(CAPACIDAD_INICIAL);
+            turnoDAO.recorrerTodos((id, minuto, clienteId, servicioId, estado, estadoPago, formaPago, tipoServicio,
+                    montoCentavos) -> leidas.guardar(id, minuto, clienteId, servicioId, (byte) estado.ordinal(),
+                (byte) estadoPago.ordinal(), formaPago != null ? (byte) formaPago.ordinal() : SIN_FORMA_PAGO,
+                (byte) tipoServicio.ordinal(), montoCentavos));
+            nuevas = leidas;
+        } catch (DAOException | RuntimeException e) {
+            synchronized (this) {
+                if (miGeneracion == generacion) {
+                    pendientes = null;
+                }
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            if (miGeneracion != generacion) {
+                return; // Se limpio mientras se cargaba
+            }
+            columnas = nuevas;
+            for (Runnable cambio : pendientes) {
+                cambio.run();
+            }
+            pendientes = null;
+            cargado = true;
+        }
+    }
+
+    private static int minuto(LocalDateTime fechaHora) {
+        return (int) (fechaHora.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    /**
+     * Las columnas de los turnos. Se arman sin bloqueo durante la carga y
+     * despues solo se usan con el bloqueo del almacen.
+     */
+    private static class Columnas {
+        private int filas;
+        private int[] ids = new int[0];
+        private int[] minutos = new int[0];
+        private int[] clienteIds = new int[0];
+        private int[] servicioIds = new int[0];
+        private byte[] estados = new byte[0];
+        private byte[] estadosPago = new byte[0];
+        private byte[] formasPago = new byte[0];
+        private byte[] tiposServicio = new byte[0];
+        private long[] montosCentavos = new long[0];
+        // Fila de cada turno, para aplicar las modificaciones
+        private final Map<Integer, Integer> filaPorId = new HashMap<>();
+
+        Columnas(int capacidad) {
+            redimensionar(capacidad);
+        }
+
+        TotalesPeriodo totales(int inicio, int fin) {
+            TotalesPeriodo totales = new TotalesPeriodo();
+            for (int i = 0; i < filas; i++) {
+                int m = minutos[i];
+                if (m >= inicio && m < fin) {
+                    totales.sumar(estados[i], tiposServicio[i], formasPago[i],
+                        estadosPago[i] == PAGADO ? montosCentavos[i] : 0);
+                }
+            }
+            return totales;
+        }
+
+        void guardar(Turno turno) {
+            guardar(turno.getId(), minuto(turno.getFechaHora()), turno.getCliente().getId(), turno.getServicio().getId(),
+                (byte) turno.getEstado().ordinal(), (byte) turno.getEstadoPago().ordinal(),
+                turno.getFormaPago() != null ? (byte) turno.getFormaPago().ordinal() : SIN_FORMA_PAGO,
+                (byte) turno.getServicio().getTipoServicio().ordinal(), Math.round(turno.getMontoPagado() * 100));
+        }
+
+        void guardar(int id, int minuto, int clienteId, int servicioId, byte estado, byte estadoPago, byte formaPago,
+                     byte tipoServicio, long montoCentavos) {
+            Integer fila = filaPorId.get(id);
+            int i;
+            if (fila != null) {
+                i = fila;
+            } else {
+                if (filas == ids.length) {
+                    redimensionar(filas * 2);
+                }
+                i = filas++;
+                filaPorId.put(id, i);
+            }
+            ids[i] = id;
+            minutos[i] = minuto;
+            clienteIds[i] = clienteId;
+            servicioIds[i] = servicioId;
+            estados[i] = estado;
+            estadosPago[i] = estadoPago;
+            formasPago[i] = formaPago;
+            tiposServicio[i] = tipoServicio;
+            montosCentavos[i] = montoCentavos;
+        }
+
+        void actualizarTipo(int servicioId, byte tipo) {
+            for (int i = 0; i < filas; i++) {
+                if (servicioIds[i] == servicioId) {
+                    tiposServicio[i] = tipo;
+                }
+            }
+        }
+
+        /**
+         * Quita las filas cuya columna tenga el valor indicado, moviendo a su
+         * lugar la ultima fila.
+         */
+        void quitarSi(int[] columna, int valor) {
+            for (int i = 0; i < filas; ) {
+                if (columna[i] != valor) {
+                    i++;
+                    continue;
+                }
+                filaPorId.remove(ids[i]);
+                int ultima = --filas;
+                if (i != ultima) {
+                    mover(ultima, i);
+                    filaPorId.put(ids[i], i);
+                }
+            }
+        }
+
+        private void mover(int desde, int hacia) {
+            ids[hacia] = ids[desde];
+            minutos[hacia] = minutos[desde];
+            clienteIds[hacia] = clienteIds[desde];
+            servicioIds[hacia] = servicioIds[desde];
+            estados[hacia] = estados[desde];
+            estadosPago[hacia] = estadosPago[desde];
+            formasPago[hacia] = formasPago[desde];
+            tiposServicio[hacia] = tiposServicio[desde];
+            montosCentavos[hacia] = montosCentavos[desde];
+        }
+
+        /** Cambia la capacidad de todas las columnas, conservando las filas en uso. */
+        private void redimensionar(int capacidad) {
+            ids = Arrays.copyOf(ids, capacidad);
+            minutos = Arrays.copyOf(minutos, capacidad);
+            clienteIds = Arrays.copyOf(clienteIds, capacidad);
+            servicioIds = Arrays.copyOf(servicioIds, capacidad);
+            estados = Arrays.copyOf(estados, capacidad);
+            estadosPago = Arrays.copyOf(estadosPago, capacidad);
+            formasPago = Arrays.copyOf(formasPago, capacidad);
+            tiposServicio = Arrays.copyOf(tiposServicio, capacidad);
+            montosCentavos = Arrays.copyOf(montosCentavos, capacidad);
+        }
+    }
+}
@@ -1,66 +1,171 @@
-package com.idra.gestionpeluqueria.service;
-
-import com.idra.gestionpeluqueria.model.Cliente;
-import com.idra.gestionpeluqueria.exception.ServiceException;
-import java.util.List;
-/**
- * Interfaz que define los servicios de negocio para la gestion de clientes 
- * Proporciona me todos para realizar operaciones CRUD, validaciones y 
- * consultas sobre clientes en el sistema.
- * 
- * @author Idra
- */
-public interface ClienteService {
-    /**
-     * Crea un nuevo cliente en el sistema.
-     * 
-     * @param cliente El cliente a crear 
-     * @throws ServiceException Si ocurre un error al crear el cliente 
-     */
-    void crearCliente(Cliente cliente) throws ServiceException;
-    /**
-     * Busca un cliente por su identificador unico.
-     * 
-     * @param id El ID del cliente a buscar 
-     * @return El cliente encontrado o null si no existe 
-     * @throws ServiceException Si ocurre un error al buscar el cliente 
-     */
-    Cliente buscarClientePorId(int id) throws ServiceException;
-    /**
-     * Obtiene todos los clientes registrados en el sistema 
-     * 
-     * @return Lista de todos los clientes 
-     * @throws ServiceException Si ocurre un error al obtener los clientes 
-     */
-    List<Cliente> buscarTodosClientes() throws ServiceException;
-    /**
-     * Busca clientes cuyo nombre o apellido coincida con el criterio de busqueda 
-     * 
-     * @param nombre El nombre o apellido a buscar 
-     * @return Lista de clientes que coinciden con la busqueda 
-     * @throws ServiceException Si ocurre un error al buscar los clientes 
-     */
-    List<Cliente> buscarClientesPorNombre(String nombre) throws ServiceException;
-    /**
-     * Actualiza la informacion de un cliente existente 
-     * 
-     * @param cliente El cliente con la informacion actualizada 
-     * @throws ServiceException Si ocurre un error al actualizar el cliente 
-     */
-    void actualizarCliente(Cliente cliente) throws ServiceException;
-    /**
-     * Elimina un cliente del sistema 
-     * 
-     * @param id El ID del cliente a eliminar 
-     * @throws ServiceException Si ocurre un error al eliminar el cliente 
-     */
-    void eliminarCliente(int id) throws ServiceException;
-    /**
-     * Valida que los datos de un cliente cumplan con las reglas del negocio.
-     * 
-     * @param cliente El cliente a validar 
-     * @return true si los datos son validos, false en caso contrario 
-     * @throws ServiceException Si ocurre un error durante la validacion 
-     */
-    boolean validarCliente(Cliente cliente) throws ServiceException;
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.model.Cliente;
+import com.idra.gestionpeluqueria.model.MetricasCliente;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+/**
+ * Interfaz que define los servicios de negocio para la gestion de clientes 
+ * Proporciona me todos para realizar operaciones CRUD, validaciones y 
+ * consultas sobre clientes en el sistema.
+ * 
+ * @author Idra
+ */
+public interface ClienteService {
+    /**
+     * Crea un nuevo cliente en el sistema.
+     * 
+     * @param cliente El cliente a crear 
+     * @throws ServiceException Si ocurre un error al crear el cliente 
+     */
+    void crearCliente(Cliente cliente) throws ServiceException;
+    /**
+     * Busca un cliente por su identificador unico.
+     * 
+     * @param id El ID del cliente a buscar 
+     * @return El cliente encontrado o null si no existe 
+     * @throws ServiceException Si ocurre un error al buscar el cliente 
+     */
+    Cliente buscarClientePorId(int id) throws ServiceException;
+    /**
+     * Obtiene todos los clientes registrados en el sistema 
+     * 
+     * @return Lista de todos los clientes 
+     * @throws ServiceException Si ocurre un error al obtener los clientes 
+     */
+    List<Cliente> buscarTodosClientes() throws ServiceException;
+    /**
+     * Busca clientes cuyo nombre o apellido coincida con el criterio de busqueda 
+     * 
+     * @param nombre El nombre o apellido a buscar 
+     * @return Lista de clientes que coinciden con la busqueda 
+     * @throws ServiceException Si ocurre un error al buscar los clientes 
+     */
+    List<Cliente> buscarClientesPorNombre(String nombre) throws ServiceException;
+    /**
+     * Actualiza la informacion de un cliente existente 
+     * 
+     * @param cliente El cliente con la informacion actualizada 
+     * @throws ServiceException Si ocurre un error al actualizar el cliente 
+     */
+    void actualizarCliente(Cliente cliente) throws ServiceException;
+    /**
+     * Elimina un cliente del sistema 
+     * 
+     * @param id El ID del cliente a eliminar 
+     * @throws ServiceException Si ocurre un error al eliminar el cliente 
+     */
+    void eliminarCliente(int id) throws ServiceException;
+    /**
+     * Valida que los datos de un cliente cumplan con las reglas del negocio.
+     * 
+     * @param cliente El cliente a validar 
+     * @return true si los datos son validos, false en caso contrario 
+     * @throws ServiceException Si ocurre un error durante la validacion 
+     */
+    boolean validarCliente(Cliente cliente) throws ServiceException;
+    /**
+     * Cambia el email de un cliente sin esperar a la base de datos.
+     * El cambio se escribe en segundo plano mediante la ColaEscrituraDiferida.
+     * 
+     * @param clienteId El ID del cliente
+     * @param email El email nuevo, o null para quitarlo
+     * @throws ServiceException Si el email no es válido
+     */
+    void actualizarEmailDiferido(int clienteId, String email) throws ServiceException;
+
+    /**
+     * Obtiene las visitas y lo gastado por un cliente.
+     *
+     * @param clienteId El ID del cliente
+     * @return Sus metricas, o null si todavia no tiene turnos completados
+     * @throws ServiceException Si ocurre un error al consultar
+     */
+    MetricasCliente obtenerMetricas(int clienteId) throws ServiceException;
+
+    /**
+     * Obtiene los clientes que mas gastaron.
+     *
+     * @param limite Cantidad maxima de clientes
+     * @return Los clientes de mayor a menor total pagado
+     * @throws ServiceException Si el limite no es valido o falla la consulta
+     */
+    List<MetricasCliente> obtenerMejoresClientes(int limite) throws ServiceException;
+
+    /**
+     * Obtiene los clientes que no vienen hace un tiempo.
+     *
+     * @param diasSinVenir Dias desde la ultima visita
+     * @param limite Cantidad maxima de clientes
+     * @return Los clientes de la ausencia mas reciente a la mas antigua
+     * @throws ServiceException Si los parametros no son validos o falla la consulta
+     */
+    List<MetricasCliente> obtenerClientesAusentes(int diasSinVenir, int limite) throws ServiceException;
+
+    /**
+     * Vuelve a calcular las metricas de todos los clientes a partir de los turnos.
+     *
+     * @return Cantidad de clientes con metricas
+     * @throws ServiceException Si ocurre un error al reconstruir
+     */
+    int reconstruirMetricas() throws ServiceException;
+
+    /**
+     * Variante asincrona de {@link #crearCliente}.
+     */
+    default CompletableFuture<Void> crearClienteAsync(Cliente cliente) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> {
+            crearCliente(cliente);
+            return null;
+        });
+    }
+
+    /**
+     * Variante asincrona de {@link #buscarClientePorId}.
+     */
+    default CompletableFuture<Cliente> buscarClientePorIdAsync(int id) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> buscarClientePorId(id));
+    }
+
+    /**
+     * Variante asincrona de {@link #buscarTodosClientes}.
+     */
+    default CompletableFuture<List<Cliente>> buscarTodosClientesAsync() {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> buscarTodosClientes());
+    }
+
+    /**
+     * Variante asincrona de {@link #buscarClientesPorNombre}.
+     */
+    default CompletableFuture<List<Cliente>> buscarClientesPorNombreAsync(String nombre) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> buscarClientesPorNombre(nombre));
+    }
+
+    /**
+     * Variante asincrona de {@link #actualizarCliente}.
+     */
+    default CompletableFuture<Void> actualizarClienteAsync(Cliente cliente) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> {
+            actualizarCliente(cliente);
+            return null;
+        });
+    }
+
+    /**
+     * Variante asincrona de {@link #eliminarCliente}.
+     */
+    default CompletableFuture<Void> eliminarClienteAsync(int id) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> {
+            eliminarCliente(id);
+            return null;
+        });
+    }
+
+    /**
+     * Variante asincrona de {@link #validarCliente}.
+     */
+    default CompletableFuture<Boolean> validarClienteAsync(Cliente cliente) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> validarCliente(cliente));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.local.ModoOffline;
+import com.idra.gestionpeluqueria.model.Turno;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Junta los turnos cancelados para procesarlos en lote fuera del hilo que
+ * cancela. Si se cancelan muchos turnos de golpe (por ejemplo, todos los de
+ * un profesional que falta) una unica tarea los toma juntos y los procesa
+ * con una sola escritura, en lugar de una tarea y una escritura por turno.
+ *
+ * Sin conexion los turnos quedan en la cola hasta que se llame a
+ * {@link #drenar()} al reconectar. Si falla el procesamiento de un lote, sus
+ * turnos vuelven al frente de la cola y se reintentan con la proxima
+ * cancelacion o al drenar.
+ *
+ * @author Idra
+ */
+public class ColaCancelaciones {
+
+    /**
+     * Destino que procesa un lote de turnos cancelados.
+     */
+    @FunctionalInterface
+    public interface ProcesadorLote {
+        void procesar(List<Turno> cancelados) throws Exception;
+    }
+
+    private final ProcesadorLote procesador;
+    private final ConcurrentLinkedDeque<Turno> pendientes = new ConcurrentLinkedDeque<>();
+    private final AtomicBoolean drenando = new AtomicBoolean();
+
+    /**
+     * @param procesador Destino de cada lote de cancelaciones
+     */
+    public ColaCancelaciones(ProcesadorLote procesador) {
+        this.procesador = procesador;
+    }
+
+    /**
+     * Agrega un turno cancelado y programa el procesamiento si no hay uno en curso.
+     *
+     * @param turno El turno cancelado
+     */
+    public void encolar(Turno turno) {
+        pendientes.add(turno);
+        if (drenando.compareAndSet(false, true)) {
+            EjecutorAsincrono.getInstance().ejecutar(() -> {
+                vaciar();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Procesa lo que haya en la cola en el hilo actual, si no hay otro
+     * procesamiento en curso.
+     */
+    public void drenar() {
+        if (drenando.compareAndSet(false, true)) {
+            vaciar();
+        }
+    }
+
+    /**
+     * @return Cantidad de cancelaciones esperando ser procesadas
+     */
+    public int cantidadPendiente() {
+        return pendientes.size();
+    }
+
+    private void vaciar() {
+        do {
+            if (ModoOffline.getInstance().isOffline()) {
+                drenando.set(false);
+                return;
+            }
+            List<Turno> lote = new ArrayList<>();
+            for (Turno turno; (turno = pendientes.poll()) != null; ) {
+                lote.add(turno);
+            }
+            if (!lote.isEmpty()) {
+                try {
+                    procesador.procesar(lote);
+                } catch (Exception e) {
+                    System.err.println("Error al ofrecer turnos cancelados a la lista de espera: " + e.getMessage());
+                    // Vuelven adelante, en el mismo orden; no se reintenta ya para no insistir contra el mismo error
+                    for (int i = lote.size() - 1; i >= 0; i--) {
+                        pendientes.addFirst(lote.get(i));
+                    }
+                    drenando.set(false);
+                    return;
+                }
+            }
+            drenando.set(false);
+            // Lo que llego mientras se procesaba el lote lo toma esta misma tarea
+        } while (!pendientes.isEmpty() && drenando.compareAndSet(false, true));
+    }
+}
@@ -0,0 +1,444 @@
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.local.SnapshotLocal;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cola de escritura diferida (write-behind) para cambios no criticos, como
+ * las notas de un turno o el email de un cliente.
+ *
+ * Los cambios se acumulan en memoria y varias ediciones del mismo registro
+ * se combinan en una sola: solo se escribe el ultimo valor. La cola se vacia
+ * en lotes JDBC cada cierto intervalo o al juntar una cantidad de cambios.
+ * Los cambios pendientes se guardan tambien en un archivo local, de modo que
+ * si la base de datos falla o la aplicacion se cierra sin poder escribirlos
+ * se reintentan mas tarde, incluso en la siguiente ejecucion.
+ *
+ * Un cambio puede llevar la version del registro leida al editarlo. Si al
+ * escribirlo el registro ya cambio de version (otra terminal lo modifico
+ * mientras tanto), el cambio no se aplica ni se reintenta: se archiva como
+ * conflicto y se avisa por consola, igual que las entradas del DiarioOffline.
+ * Las escrituras de la propia cola no cuentan como conflicto: un cambio
+ * leido con la version que la cola acaba de reemplazar se escribe contra la
+ * version nueva.
+ *
+ * Las operaciones criticas, como reservar un turno, no pasan por esta cola.
+ *
+ * Configuracion: gestionpeluqueria.escritura.intervaloMs (por defecto 2000)
+ * y gestionpeluqueria.escritura.maxLote (por defecto 50).
+ *
+ * @author Idra
+ */
+public class ColaEscrituraDiferida {
+    private static final long INTERVALO_MS_POR_DEFECTO = 2000;
+    private static final int MAX_LOTE_POR_DEFECTO = 50;
+    private static final long ESPERA_MAXIMA_REINTENTO_MS = 60_000;
+    private static final String NULO = "null";
+    private static final String PREFIJO_VALOR = "v:";
+    private static final String PREFIJO_VERSION = "version.";
+    private static final int MAX_ESCRITAS_RECORDADAS = 1000;
+
+    /**
+     * Tipos de cambio que admite la cola.
+     */
+    public enum TipoEscritura {
+        NOTAS_TURNO,
+        EMAIL_CLIENTE
+    }
+
+    /**
+     * Destino que escribe un lote de cambios de un tipo en la base de datos.
+     */
+    @FunctionalInterface
+    public interface EscritorLote {
+        void escribir(Map<Integer, String> valoresPorId) throws DAOException;
+    }
+
+    /**
+     * Destino que escribe un lote de cambios comprobando la version de cada
+     * registro.
+     */
+    @FunctionalInterface
+    public interface EscritorLoteVersionado {
+        /**
+         * @param valoresPorId Valores nuevos indexados por ID
+         * @param versionPorId Version esperada de cada registro que la tiene
+         * @return IDs de los registros no escritos porque cambiaron de version o ya no existen
+         */
+        List<Integer> escribir(Map<Integer, String> valoresPorId, Map<Integer, Integer> versionPorId)
+            throws DAOException;
+    }
+
+    private static ColaEscrituraDiferida instance;
+
+    private final Map<TipoEscritura, EscritorLoteVersionado> escritores = new EnumMap<>(TipoEscritura.class);
+    private final Map<TipoEscritura, Map<Integer, Cambio>> pendientes = new EnumMap<>(TipoEscritura.class);
+    private final Map<TipoEscritura, Map<Integer, Cambio>> enVuelo = new EnumMap<>(TipoEscritura.class);
+    // Version que reemplazo la ultima escritura de la cola sobre cada registro
+    private final Map<TipoEscritura, Map<Integer, Integer>> escritas = new EnumMap<>(TipoEscritura.class);
+    private final Path archivo;
+    private final Path archivoConflictos;
+    private final int maxLote;
+    private final ScheduledExecutorService executor;
+    private final Object vaciando = new Object();
+
+    private long esperaReintentoMs;
+    private long proximoIntento;
+
+    /**
+     * Constructor que define la persistencia local y los umbrales de vaciado.
+     *
+     * @param archivo Archivo donde se guardan los cambios pendientes
+     * @param intervaloMs Cada cuanto se vacia la cola, en milisegundos
+     * @param maxLote Cantidad de cambios pendientes que dispara un vaciado inmediato
+     */
+    public ColaEscrituraDiferida(Path archivo, long intervaloMs, int maxLote) {
+        this.archivo = archivo;
+        this.archivoConflictos = archivo.resolveSibling("escrituras-conflictos.log");
+        this.maxLote = maxLote;
+        for (TipoEscritura tipo : TipoEscritura.values()) {
+            pendientes.put(tipo, new LinkedHashMap<>());
+            enVuelo.put(tipo, new HashMap<>());
+            escritas.put(tipo, new LinkedHashMap<Integer, Integer>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Integer> masVieja) {
+                    return size() > MAX_ESCRITAS_RECORDADAS;
+                }
+            });
+        }
+        cargarPendientesGuardados();
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "escritura-diferida");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        executor.scheduleWithFixedDelay(this::vaciarSiCorresponde, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Obtiene la instancia compartida, configurada desde las propiedades del sistema.
+     *
+     * @return La instancia unica de la cola
+     */
+    public static synchronized ColaEscrituraDiferida getInstance() {
+        if (instance == null) {
+            instance = new ColaEscrituraDiferida(
+                SnapshotLocal.directorioLocal().resolve("escrituras-pendientes.properties"),
+                Long.getLong("gestionpeluqueria.escritura.intervaloMs", INTERVALO_MS_POR_DEFECTO),
+                Integer.getInteger("gestionpeluqueria.escritura.maxLote", MAX_LOTE_POR_DEFECTO));
+        }
+        return instance;
+    }
+
+    /**
+     * Registra el destino de un tipo de cambio. Los cambios de un tipo sin
+     * destino registrado se conservan hasta que se registre uno.
+     *
+     * @param tipo El tipo de cambio
+     * @param escritor El destino que escribe los lotes de ese tipo
+     */
+    public synchronized void registrar(TipoEscritura tipo, EscritorLote escritor) {
+        escritores.put(tipo, (valoresPorId, versionPorId) -> {
+            escritor.escribir(valoresPorId);
+            return List.of();
+        });
+    }
+
+    /**
+     * Registra el destino de un tipo de cambio que comprueba versiones.
+     *
+     * @param tipo El tipo de cambio
+     * @param escritor El destino que escribe los lotes de ese tipo
+     */
+    public synchronized void registrar(TipoEscritura tipo, EscritorLoteVersionado escritor) {
+        escritores.put(tipo, escritor);
+    }
+
+    /**
+     * Agrega un cambio a la cola, sin comprobar la version del registro al
+     * escribirlo. Si ya habia uno pendiente para el mismo registro, se
+     * reemplaza.
+     *
+     * @param tipo El tipo de cambio
+     * @param id ID del registro modificado
+     * @param valor Valor nuevo, puede ser null
+     */
+    public void encolar(TipoEscritura tipo, int id, String valor) {
+        encolar(tipo, id, valor, null);
+    }
+
+    /**
+     * Agrega un cambio a la cola. Si ya habia uno pendiente para el mismo
+     * registro, se reemplaza.
+     *
+     * @param tipo El tipo de cambio
+     * @param id ID del registro modificado
+     * @param valor Valor nuevo, puede ser null
+     * @param version Version del registro leida al editarlo, o null para no comprobarla
+     */
+    public void encolar(TipoEscritura tipo, int id, String valor, Integer version) {
+        int total;
+        synchronized (this) {
+            Map<Integer, Cambio> delTipo = pendientes.get(tipo);
+            delTipo.remove(id); // Para que quede al final del orden de llegada
+            delTipo.put(id, new Cambio(valor, versionVigente(tipo, id, version)));
+            guardarPendientes();
+            total = cantidadPendiente();
+        }
+        if (total >= maxLote) {
+            executor.execute(this::vaciarSiCorresponde);
+        }
+    }
+
+    /**
+     * Descarta el cambio pendiente de un registro, porque va a escribirse
+     * completo por la via sincronica. Si hay un lote en escritura, espera a
+     * que termine para que no pise la escritura sincronica posterior.
+     *
+     * @param tipo El tipo de cambio
+     * @param id ID del registro
+     */
+    public void descartar(TipoEscritura tipo, int id) {
+        synchronized (this) {
+            pendientes.get(tipo).remove(id);
+            enVuelo.get(tipo).remove(id);
+            guardarPendientes();
+        }
+        synchronized (vaciando) {
+            // Solo espera a que termine el vaciado en curso, si lo hay
+        }
+    }
+
+    /**
+     * Devuelve los valores aun no escritos en la base de datos para un tipo,
+     * para que las lecturas muestren los cambios ya aceptados.
+     *
+     * @param tipo El tipo de cambio
+     * @return Copia de los valores pendientes indexados por ID
+     */
+    public synchronized Map<Integer, String> pendientes(TipoEscritura tipo) {
+        Map<Integer, String> resultado = new HashMap<>();
+        enVuelo.get(tipo).forEach((id, cambio) -> resultado.put(id, cambio.valor));
+        pendientes.get(tipo).forEach((id, cambio) -> resultado.put(id, cambio.valor));
+        return resultado;
+    }
+
+    /**
+     * @return Cantidad total de cambios esperando ser escritos
+     */
+    public synchronized int cantidadPendiente() {
+        int total = 0;
+        for (Map<Integer, Cambio> delTipo : pendientes.values()) {
+            total += delTipo.size();
+        }
+        return total;
+    }
+
+    /**
+     * Detiene el vaciado periodico y escribe lo pendiente.
+     * Lo que no se pueda escribir queda en el archivo local para la proxima ejecucion.
+     */
+    public void cerrar() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        vaciar();
+    }
+
+    private void vaciarSiCorresponde() {
+        synchronized (this) {
+            if (System.currentTimeMillis() < proximoIntento) {
+                return;
+            }
+        }
+        vaciar();
+    }
+
+    private void vaciar() {
+        synchronized (vaciando) {
+            vaciarTipos();
+        }
+    }
+
+    private void vaciarTipos() {
+        for (TipoEscritura tipo : TipoEscritura.values()) {
+            EscritorLoteVersionado escritor;
+            Map<Integer, Cambio> lote;
+            synchronized (this) {
+                escritor = escritores.get(tipo);
+                if (escritor == null || pendientes.get(tipo).isEmpty()) {
+                    continue;
+                }
+                lote = new LinkedHashMap<>(pendientes.get(tipo));
+                pendientes.get(tipo).clear();
+                enVuelo.get(tipo).putAll(lote);
+            }
+            Map<Integer, String> valores = new LinkedHashMap<>();
+            Map<Integer, Integer> versiones = new HashMap<>();
+            lote.forEach((id, cambio) -> {
+                valores.put(id, cambio.valor);
+                if (cambio.version != null) {
+                    versiones.put(id, cambio.version);
+                }
+            });
+            try {
+                List<Integer> enConflicto = escritor.escribir(valores, versiones);
+                synchronized (this) {
+                    // Cada escritura sube la version: los cambios pendientes leidos antes
+                    // pasan a esperar la version que dejo la cola
+                    versiones.keySet().removeAll(enConflicto);
+                    escritas.get(tipo).putAll(versiones);
+                    pendientes.get(tipo).replaceAll((id, cambio) ->
+                        new Cambio(cambio.valor, versionVigente(tipo, id, cambio.version)));
+                    enVuelo.get(tipo).clear();
+                    esperaReintentoMs = 0;
+                    proximoIntento = 0;
+                    guardarPendientes();
+                }
+                for (Integer id : enConflicto) {
+                    archivarConflicto(tipo, id, valores.get(id));
+                }
+            } catch (DAOException | RuntimeException e) {
+                synchronized (this) {
+                    // Los cambios que llegaron mientras tanto son mas nuevos y prevalecen,
+                    // y los descartados no se reintentan
+                    Map<Integer, Cambio> delTipo = pendientes.get(tipo);
+                    for (Map.Entry<Integer, Cambio> entrada : enVuelo.get(tipo).entrySet()) {
+                        delTipo.putIfAbsent(entrada.getKey(), entrada.getValue());
+                    }
+                    enVuelo.get(tipo).clear();
+                    esperaReintentoMs = esperaReintentoMs == 0
+                        ? 1000 : Math.min(esperaReintentoMs * 2, ESPERA_MAXIMA_REINTENTO_MS);
+                    proximoIntento = System.currentTimeMillis() + esperaReintentoMs;
+                    guardarPendientes();
+                }
+                System.err.println("❌ No se pudieron escribir " + lote.size() + " cambios diferidos ("
+                    + tipo + "), se reintentara en " + esperaReintentoMs + " ms: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Traduce la version leida de un registro a la que tiene despues de la
+     * ultima escritura de la cola, si la leida es la que esa escritura reemplazo.
+     */
+    private Integer versionVigente(TipoEscritura tipo, int id, Integer version) {
+        Integer reemplazada = escritas.get(tipo).get(id);
+        return version != null && version.equals(reemplazada) ? Integer.valueOf(version + 1) : version;
+    }
+
+    /**
+     * Guarda un cambio rechazado por conflicto de version, para poder
+     * revisarlo despues, y lo avisa por consola.
+     */
+    private void archivarConflicto(TipoEscritura tipo, int id, String valor) {
+        System.err.println("⚠️ Cambio diferido no aplicado (" + tipo + " " + id
+            + "): el registro fue modificado desde otra terminal");
+        // Una linea por cambio: se escapan los saltos de linea y tabulaciones del valor
+        String escapado = valor == null ? NULO : PREFIJO_VALOR + valor.replace("\\", "\\\\")
+            .replace("\n", "\\n").replace("\r", "\\r").replace("\t", "\\t");
+        String linea = tipo + "\t" + id + "\t" + escapado + "\n";
+        try {
+            Files.createDirectories(archivoConflictos.getParent());
+            Files.writeString(archivoConflictos, linea, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("No se pudo archivar el cambio en conflicto: " + e.getMessage());
+        }
+    }
+
+    private void guardarPendientes() {
+        Properties propiedades = new Properties();
+        for (Map.Entry<TipoEscritura, Map<Integer, Cambio>> delTipo : pendientes.entrySet()) {
+            // Lo que se esta escribiendo tambien se guarda, por si la escritura no termina
+            Map<Integer, Cambio> cambios = new LinkedHashMap<>(enVuelo.get(delTipo.getKey()));
+            cambios.putAll(delTipo.getValue());
+            for (Map.Entry<Integer, Cambio> entrada : cambios.entrySet()) {
+                Cambio cambio = entrada.getValue();
+                String clave = delTipo.getKey().name() + "." + entrada.getKey();
+                propiedades.setProperty(clave, cambio.valor != null ? PREFIJO_VALOR + cambio.valor : NULO);
+                if (cambio.version != null) {
+                    propiedades.setProperty(PREFIJO_VERSION + clave, String.valueOf(cambio.version));
+                }
+            }
+        }
+        try {
+            Files.createDirectories(archivo.getParent());
+            if (propiedades.isEmpty()) {
+                Files.deleteIfExists(archivo);
+                return;
+            }
+            Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+            try (OutputStream salida = Files.newOutputStream(temporal)) {
+                propiedades.store(salida, "Cambios pendientes de escribir en la base de datos");
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("No se pudieron guardar los cambios pendientes: " + e.getMessage());
+        }
+    }
+
+    private void cargarPendientesGuardados() {
+        if (!Files.isRegularFile(archivo)) {
+            return;
+        }
+        Properties propiedades = new Properties();
+        try (InputStream entrada = Files.newInputStream(archivo)) {
+            propiedades.load(entrada);
+        } catch (IOException e) {
+            System.err.println("No se pudieron leer los cambios pendientes: " + e.getMessage());
+            return;
+        }
+        for (String clave : propiedades.stringPropertyNames()) {
+            if (clave.startsWith(PREFIJO_VERSION)) {
+                continue; // Se lee junto con el valor
+            }
+            int punto = clave.lastIndexOf('.');
+            try {
+                TipoEscritura tipo = TipoEscritura.valueOf(clave.substring(0, punto));
+                int id = Integer.parseInt(clave.substring(punto + 1));
+                String valor = propiedades.getProperty(clave);
+                String version = propiedades.getProperty(PREFIJO_VERSION + clave);
+                pendientes.get(tipo).put(id, new Cambio(
+                    valor.startsWith(PREFIJO_VALOR) ? valor.substring(PREFIJO_VALOR.length()) : null,
+                    version != null ? Integer.valueOf(version) : null));
+            } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+                System.err.println("Cambio pendiente invalido ignorado: " + clave);
+            }
+        }
+        System.out.println("🔄 Cambios pendientes recuperados: " + cantidadPendiente());
+    }
+
+    /**
+     * Valor pendiente de un registro y la version con la que se leyo.
+     */
+    private static final class Cambio {
+        final String valor;
+        final Integer version;
+
+        Cambio(String valor, Integer version) {
+            this.valor = valor;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.model.Turno;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Busca una reorganizacion de la agenda de un dia que deje la menor cantidad
+ * posible de huecos inutiles: los ratos libres demasiado cortos para que
+ * entre cualquier servicio.
+ *
+ * La agenda se arma por silla (un profesional, o un servicio cuando no hay
+ * profesionales cargados) y cada silla se resuelve por separado, porque los
+ * turnos no cambian de silla. Para un orden de turnos dado, una programacion
+ * dinamica sobre la hora de fin del turno anterior encuentra la mejor
+ * posicion de cada uno dentro de su tolerancia, en pasos de 5 minutos. Sobre
+ * eso, una busqueda local prueba intercambiar turnos vecinos mientras mejore
+ * y quede tiempo.
+ *
+ * A igual tiempo ocioso se prefiere mover menos turnos, y despues moverlos
+ * menos minutos.
+ *
+ * @author Idra
+ */
+public class CompactadorAgenda {
+    private static final int PASO_MINUTOS = 5;
+    private static final long PESO_OCIOSO = 10_000;
+    private static final long PESO_MOVIDO = 100;
+    private static final long INFINITO = Long.MAX_VALUE / 4;
+
+    private final long limiteNanos;
+
+    /**
+     * @param limiteNanos Tiempo maximo de busqueda para todo el dia
+     */
+    public CompactadorAgenda(long limiteNanos) {
+        this.limiteNanos = limiteNanos;
+    }
+
+    /**
+     * Agenda de una silla para el dia: en que horarios atiende, que hueco es
+     * el minimo aprovechable y sus turnos.
+     */
+    public static class Silla {
+        private final List<int[]> jornada = new ArrayList<>();
+        private final int minimoUtil;
+        private final List<Pieza> piezas = new ArrayList<>();
+
+        /**
+         * @param minimoUtilMinutos Duracion del servicio mas corto que se puede hacer en la silla
+         */
+        public Silla(int minimoUtilMinutos) {
+            this.minimoUtil = minimoUtilMinutos;
+        }
+
+        /**
+         * Agrega un tramo de atencion, en minutos desde la medianoche.
+         *
+         * @param desde Minuto de inicio (inclusivo)
+         * @param hasta Minuto de fin (exclusivo)
+         */
+        public void agregarJornada(int desde, int hasta) {
+            if (hasta > desde) {
+                jornada.add(new int[]{desde, hasta});
+            }
+        }
+
+        /**
+         * Agrega un turno de la silla.
+         *
+         * @param turno El turno
+         * @param duracionMinutos Cuanto ocupa
+         * @param movible false si el turno tiene que quedar donde esta
+         */
+        public void agregarTurno(Turno turno, int duracionMinutos, boolean movible) {
+            int inicio = turno.getFechaHora().getHour() * 60 + turno.getFechaHora().getMinute();
+            // La tolerancia se mide desde el horario que pidio el cliente, no desde donde lo dejo una compactacion anterior
+            LocalDateTime pedida = turno.getFechaHoraPedida();
+            int pedido = pedida != null && pedida.toLocalDate().equals(turno.getFechaHora().toLocalDate())
+                ? pedida.getHour() * 60 + pedida.getMinute()
+                : inicio;
+            piezas.add(new Pieza(turno, inicio, pedido, duracionMinutos, movible ? Math.max(0, turno.getToleranciaMinutos()) : 0));
+        }
+    }
+
+    /**
+     * Resultado para todas las sillas del dia.
+     */
+    public static class Resultado {
+        private final List<Turno> movidos = new ArrayList<>();
+        private final List<LocalDateTime> horariosNuevos = new ArrayList<>();
+        private int ociosoAntes;
+        private int ociosoDespues;
+
+        /**
+         * @return Turnos que cambian de horario, en el mismo orden que {@link #getHorariosNuevos()}
+         */
+        public List<Turno> getMovidos() { return movidos; }
+        public List<LocalDateTime> getHorariosNuevos() { return horariosNuevos; }
+        /**
+         * @return Minutos en huecos inutiles con la agenda actual
+         */
+        public int getOciosoAntes() { return ociosoAntes; }
+        /**
+         * @return Minutos en huecos inutiles con la agenda propuesta
+         */
+        public int getOciosoDespues() { return ociosoDespues; }
+    }
+
+    private static class Pieza {
+        final Turno turno;
+        final int inicio;
+        final int pedido;
+        final int duracion;
+        final int tolerancia;
+
+        Pieza(Turno turno, int inicio, int pedido, int duracion, int tolerancia) {
+            this.turno = turno;
+            this.inicio = inicio;
+            this.pedido = pedido;
+            this.duracion = duracion;
+            this.tolerancia = tolerancia;
+        }
+    }
+
+    /**
+     * Mejor programacion encontrada para un orden de piezas.
+     */
+    private static class Plan {
+        final long costo;
+        final int[] inicios;
+
+        Plan(long costo, int[] inicios) {
+            this.costo = costo;
+            this.inicios = inicios;
+        }
+    }
+
+    /**
+     * Optimiza todas las sillas de un dia.
+     *
+     * @param fecha El dia de la agenda
+     * @param sillas Las sillas con sus turnos
+     * @param primerMinutoMovible Ningun turno se mueve a antes de este minuto
+     *        (por ejemplo, la hora actual si el dia es hoy)
+     * @return Los turnos a mover y el tiempo ocioso antes y despues
+     */
+    public Resultado optimizar(LocalDate fecha, List<Silla> sillas, int primerMinutoMovible) {
+        long limite = System.nanoTime() + limiteNanos;
+        Resultado resultado = new Resultado();
+        for (int i = 0; i < sillas.size(); i++) {
+            Silla silla = sillas.get(i);
+            if (silla.piezas.isEmpty() || silla.jornada.isEmpty()) {
+                continue;
+            }
+            silla.jornada.sort(Comparator.comparingInt(tramo -> tramo[0]));
+            List<Pieza> orden = new ArrayList<>(silla.piezas);
+            orden.sort(Comparator.comparingInt(pieza -> pieza.inicio));
+            int[] actuales = orden.stream().mapToInt(pieza -> pieza.inicio).toArray();
+            resultado.ociosoAntes += ocioso(silla, orden, actuales);
+
+            // Cada silla recibe una parte igual del tiempo que queda
+            long limiteSilla = System.nanoTime() + (limite - System.nanoTime()) / (sillas.size() - i);
+            Plan mejor = programar(silla, orden, primerMinutoMovible);
+            if (mejor == null) {
+                // La agenda actual ya tiene turnos superpuestos o fuera de horario: no se toca
+                resultado.ociosoDespues += ocioso(silla, orden, actuales);
+                continue;
+            }
+            mejor = buscarIntercambios(silla, orden, mejor, primerMinutoMovible, limiteSilla);
+
+            resultado.ociosoDespues += ocioso(silla, orden, mejor.inicios);
+            for (int k = 0; k < orden.size(); k++) {
+                Pieza pieza = orden.get(k);
+                if (mejor.inicios[k] != pieza.inicio) {
+                    resultado.movidos.add(pieza.turno);
+                    resultado.horariosNuevos.add(fecha.atStartOfDay().plusMinutes(mejor.inicios[k]));
+                }
+            }
+        }
+        return resultado;
+    }
+
+    // Busqueda local: intercambia turnos vecinos mientras baje el costo
+    private static Plan buscarIntercambios(Silla silla, List<Pieza> orden, Plan mejor, int primerMinutoMovible,
+                                           long limite) {
+        boolean mejoro = true;
+        while (mejoro && System.nanoTime() < limite) {
+            mejoro = false;
+            for (int k = 0; k + 1 < orden.size() && System.nanoTime() < limite; k++) {
+                if (orden.get(k).tolerancia == 0 && orden.get(k + 1).tolerancia == 0) {
+                    continue;
+                }
+                Collections.swap(orden, k, k + 1);
+                Plan candidato = programar(silla, orden, primerMinutoMovible);
+                if (candidato != null && candidato.costo < mejor.costo) {
+                    mejor = candidato;
+                    mejoro = true;
+                } else {
+                    Collections.swap(orden, k, k + 1);
+                }
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Programacion dinamica para un orden fijo: para cada turno y cada
+     * horario posible, el menor costo de dejar programados ese turno y los
+     * anteriores.
+     *
+     * @return La mejor programacion, o null si no hay ninguna valida
+     */
+    private static Plan programar(Silla silla, List<Pieza> orden, int primerMinutoMovible) {
+        int n = orden.size();
+        int[][] candidatos = new int[n][];
+        long[][] costos = new long[n][];
+        int[][] previos = new int[n][];
+        int aperturaDia = silla.jornada.get(0)[0];
+        int cierreDia = silla.jornada.get(silla.jornada.size() - 1)[1];
+
+        for (int k = 0; k < n; k++) {
+            Pieza pieza = orden.get(k);
+            candidatos[k] = candidatos(silla, pieza, primerMinutoMovible);
+            costos[k] = new long[candidatos[k].length];
+            previos[k] = new int[candidatos[k].length];
+            for (int c = 0; c < candidatos[k].length; c++) {
+                int inicio = candidatos[k][c];
+                long propio = inicio == pieza.inicio ? 0 : PESO_MOVIDO + Math.abs(inicio - pieza.inicio);
+                long mejor = INFINITO;
+                int previo = -1;
+                if (k == 0) {
+                    mejor = PESO_OCIOSO * hueco(silla, aperturaDia, inicio);
+                } else {
+                    Pieza anterior = orden.get(k - 1);
+                    for (int p = 0; p < candidatos[k - 1].length; p++) {
+                        int finAnterior = candidatos[k - 1][p] + anterior.duracion;
+                        if (costos[k - 1][p] >= INFINITO || finAnterior > inicio) {
+                            continue;
+                        }
+                        long costo = costos[k - 1][p] + PESO_OCIOSO * hueco(silla, finAnterior, inicio);
+                        if (costo < mejor) {
+                            mejor = costo;
+                            previo = p;
+                        }
+                    }
+                }
+                costos[k][c] = mejor >= INFINITO ? INFINITO : mejor + propio;
+                previos[k][c] = previo;
+            }
+        }
+
+        long mejorCosto = INFINITO;
+        int elegido = -1;
+        Pieza ultima = orden.get(n - 1);
+        for (int c = 0; c < candidatos[n - 1].length; c++) {
+            if (costos[n - 1][c] >= INFINITO) {
+                continue;
+            }
+            long costo = costos[n - 1][c]
+                + PESO_OCIOSO * hueco(silla, candidatos[n - 1][c] + ultima.duracion, cierreDia);
+            if (costo < mejorCosto) {
+                mejorCosto = costo;
+                elegido = c;
+            }
+        }
+        if (elegido < 0) {
+            return null;
+        }
+        int[] inicios = new int[n];
+        for (int k = n - 1; k >= 0; k--) {
+            inicios[k] = candidatos[k][elegido];
+            elegido = previos[k][elegido];
+        }
+        return new Plan(mejorCosto, inicios);
+    }
+
+    // El horario actual siempre es candidato; los demas tienen que caer enteros en un tramo de atencion
+    // y a no mas de la tolerancia del horario pedido, para que compactar varias veces no lo aleje cada vez mas
+    private static int[] candidatos(Silla silla, Pieza pieza, int primerMinutoMovible) {
+        if (pieza.tolerancia == 0 || pieza.inicio < primerMinutoMovible) {
+            return new int[]{pieza.inicio};
+        }
+        int pasos = pieza.tolerancia / PASO_MINUTOS;
+        int[] posibles = new int[2 * pasos + 2];
+        int cantidad = 0;
+        posibles[cantidad++] = pieza.inicio;
+        for (int paso = -pasos; paso <= pasos; paso++) {
+            int inicio = pieza.pedido + paso * PASO_MINUTOS;
+            if (inicio != pieza.inicio && inicio >= primerMinutoMovible
+                    && dentroDeJornada(silla, inicio, inicio + pieza.duracion)) {
+                posibles[cantidad++] = inicio;
+            }
+        }
+        Arrays.sort(posibles, 0, cantidad);
+        return Arrays.copyOf(posibles, cantidad);
+    }
+
+    private static boolean dentroDeJornada(Silla silla, int desde, int hasta) {
+        for (int[] tramo : silla.jornada) {
+            if (desde >= tramo[0] && hasta <= tramo[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Minutos inutiles entre dos momentos: en cada tramo de atencion, el rato
+     * libre que queda es inutil si es mas corto que el servicio mas corto.
+     */
+    private static int hueco(Silla silla, int desde, int hasta) {
+        int inutil = 0;
+        for (int[] tramo : silla.jornada) {
+            int libre = Math.min(hasta, tramo[1]) - Math.max(desde, tramo[0]);
+            if (libre > 0 && libre < silla.minimoUtil) {
+                inutil += libre;
+            }
+        }
+        return inutil;
+    }
+
+    private static int ocioso(Silla silla, List<Pieza> orden, int[] inicios) {
+        int total = hueco(silla, silla.jornada.get(0)[0], inicios[0]);
+        for (int k = 1; k < orden.size(); k++) {
+            total += hueco(silla, inicios[k - 1] + orden.get(k - 1).duracion, inicios[k]);
+        }
+        int ultimo = orden.size() - 1;
+        return total + hueco(silla, inicios[ultimo] + orden.get(ultimo).duracion,
+            silla.jornada.get(silla.jornada.size() - 1)[1]);
+    }
+}
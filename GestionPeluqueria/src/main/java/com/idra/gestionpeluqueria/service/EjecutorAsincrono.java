@@ -0,0 +1,116 @@
+package com.idra.gestionpeluqueria.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Ejecutor compartido para las variantes asincronas de los servicios.
+ * Cada tarea corre en su propio hilo virtual; un semaforo limita cuantas
+ * consultas se ejecutan a la vez para no saturar la base de datos, ya que
+ * cada una abre su propia conexion.
+ *
+ * El limite se configura con la propiedad del sistema
+ * gestionpeluqueria.async.maxConcurrencia (por defecto 8).
+ *
+ * @author Idra
+ */
+public class EjecutorAsincrono {
+    public static final String PROPIEDAD_MAX_CONCURRENCIA = "gestionpeluqueria.async.maxConcurrencia";
+    private static final int MAX_CONCURRENCIA_POR_DEFECTO = 8;
+
+    private static EjecutorAsincrono instance;
+
+    private final ExecutorService executor;
+    private final Semaphore permisos;
+    private final int maxConcurrencia;
+
+    /**
+     * Tarea que puede fallar con una excepcion de la capa de servicio.
+     *
+     * @param <T> Tipo del resultado
+     */
+    @FunctionalInterface
+    public interface Tarea<T> {
+        T ejecutar() throws Exception;
+    }
+
+    /**
+     * Constructor que fija la cantidad maxima de tareas simultaneas.
+     *
+     * @param maxConcurrencia Cantidad maxima de tareas ejecutandose a la vez
+     */
+    public EjecutorAsincrono(int maxConcurrencia) {
+        if (maxConcurrencia < 1) {
+            throw new IllegalArgumentException("La concurrencia maxima debe ser al menos 1");
+        }
+        this.maxConcurrencia = maxConcurrencia;
+        this.permisos = new Semaphore(maxConcurrencia, true);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Obtiene la instancia compartida, configurada desde las propiedades del sistema.
+     *
+     * @return La instancia unica del ejecutor
+     */
+    public static synchronized EjecutorAsincrono getInstance() {
+        if (instance == null) {
+            instance = new EjecutorAsincrono(
+                Integer.getInteger(PROPIEDAD_MAX_CONCURRENCIA, MAX_CONCURRENCIA_POR_DEFECTO));
+        }
+        return instance;
+    }
+
+    /**
+     * Ejecuta una tarea en un hilo virtual respetando el limite de concurrencia.
+     * Si la tarea lanza una excepcion, el futuro se completa excepcionalmente
+     * con esa misma excepcion.
+     *
+     * @param <T> Tipo del resultado
+     * @param tarea La tarea a ejecutar
+     * @return Un futuro con el resultado de la tarea
+     */
+    public <T> CompletableFuture<T> ejecutar(Tarea<T> tarea) {
+        CompletableFuture<T> futuro = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                permisos.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futuro.completeExceptionally(e);
+                return;
+            }
+            try {
+                futuro.complete(tarea.ejecutar());
+            } catch (Throwable e) {
+                futuro.completeExceptionally(e);
+            } finally {
+                permisos.release();
+            }
+        });
+        return futuro;
+    }
+
+    /**
+     * @return Cantidad maxima de tareas simultaneas
+     */
+    public int getMaxConcurrencia() {
+        return maxConcurrencia;
+    }
+
+    /**
+     * @return Cantidad de tareas esperando un permiso para ejecutarse
+     */
+    public int getTareasEnEspera() {
+        return permisos.getQueueLength();
+    }
+
+    /**
+     * Deja de aceptar tareas nuevas. Las que ya estan en curso terminan normalmente.
+     */
+    public void cerrar() {
+        executor.shutdown();
+    }
+}
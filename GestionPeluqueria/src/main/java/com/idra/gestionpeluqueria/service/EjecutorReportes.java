@@ -0,0 +1,188 @@
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.dao.ReporteDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import com.idra.gestionpeluqueria.model.DefinicionReporte;
+import com.idra.gestionpeluqueria.model.FilaReporte;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Genera los reportes de periodos largos en paralelo. El periodo se parte
+ * en meses, cada mes se consulta por separado en un ForkJoinPool y las
+ * filas parciales se combinan de a pares con FilaReporte.combinar, que es
+ * asociativa: el resultado no depende del orden en que terminan las partes.
+ *
+ * Las partes de meses cerrados pasan por la cache de reportes, asi que
+ * volver a pedir un periodo de varios anios solo consulta el mes en curso.
+ *
+ * La cantidad de partes simultaneas se configura con la propiedad del
+ * sistema gestionpeluqueria.reportes.paralelismo (por defecto, la cantidad
+ * de procesadores). Cada parte abre su propia conexion, por lo que en la
+ * practica tambien la limita la base de datos.
+ *
+ * @author Idra
+ */
+public class EjecutorReportes {
+    public static final String PROPIEDAD_PARALELISMO = "gestionpeluqueria.reportes.paralelismo";
+
+    private static final Comparator<FilaReporte> POR_CLAVE = Comparator.comparing(FilaReporte::getClave);
+    private static final Comparator<FilaReporte> POR_COBRADO =
+        Comparator.comparingDouble(FilaReporte::getTotalCobrado).reversed()
+            .thenComparing(Comparator.comparingInt(FilaReporte::getCantidadTurnos).reversed());
+
+    private final ReporteDAO reporteDAO;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor con el paralelismo configurado en las propiedades del sistema.
+     *
+     * @param reporteDAO DAO con el que se consulta cada mes
+     */
+    public EjecutorReportes(ReporteDAO reporteDAO) {
+        this(reporteDAO, Integer.getInteger(PROPIEDAD_PARALELISMO, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * @param reporteDAO DAO con el que se consulta cada mes
+     * @param paralelismo Cantidad maxima de meses consultandose a la vez
+     */
+    public EjecutorReportes(ReporteDAO reporteDAO, int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser al menos 1");
+        }
+        this.reporteDAO = reporteDAO;
+        this.pool = new ForkJoinPool(paralelismo);
+    }
+
+    /**
+     * Genera un reporte en segundo plano. Cancelar el futuro detiene las
+     * partes que todavia no empezaron; las que estan consultando terminan
+     * y su resultado se descarta.
+     *
+     * @param definicion Agrupacion y periodo, ya validados
+     * @return Futuro con las filas del reporte; falla con ServiceException si
+     *         no se puede consultar alguna parte
+     */
+    public CompletableFuture<List<FilaReporte>> ejecutar(DefinicionReporte definicion) {
+        CompletableFuture<List<FilaReporte>> futuro = new CompletableFuture<>();
+        List<DefinicionReporte> partes = definicion.porMes();
+        pool.execute(() -> {
+            try {
+                Map<String, FilaReporte> filas = new Parte(partes, 0, partes.size(), futuro).invoke();
+                futuro.complete(ordenar(definicion, filas));
+            } catch (RuntimeException e) {
+                // Si se cancelo, el futuro ya esta completo y esto no tiene efecto
+                futuro.completeExceptionally(causa(e));
+            }
+        });
+        return futuro;
+    }
+
+    /**
+     * Genera un reporte esperando el resultado.
+     *
+     * @param definicion Agrupacion y periodo, ya validados
+     * @return Las filas del reporte
+     * @throws ServiceException Si no se puede consultar alguna parte o se interrumpe la espera
+     */
+    public List<FilaReporte> generar(DefinicionReporte definicion) throws ServiceException {
+        CompletableFuture<List<FilaReporte>> futuro = ejecutar(definicion);
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Se interrumpio el reporte " + definicion, e);
+        } catch (ExecutionException e) {
+            throw (ServiceException) e.getCause();
+        }
+    }
+
+    /**
+     * @return Cantidad maxima de meses consultandose a la vez
+     */
+    public int getParalelismo() {
+        return pool.getParallelism();
+    }
+
+    private static ServiceException causa(Throwable error) {
+        // ForkJoinTask puede volver a envolver la excepcion al pasarla entre hilos
+        Throwable causa = error;
+        while (causa instanceof RuntimeException && causa.getCause() != null) {
+            causa = causa.getCause();
+        }
+        return new ServiceException("Error al generar el reporte: " + causa.getMessage(), causa);
+    }
+
+    private static List<FilaReporte> ordenar(DefinicionReporte definicion, Map<String, FilaReporte> filas) {
+        List<FilaReporte> ordenadas = new ArrayList<>(filas.values());
+        // El mismo orden que da ReporteDAO para un periodo sin partir
+        ordenadas.sort(definicion.getAgrupacion().isTemporal() ? POR_CLAVE : POR_COBRADO);
+        return ordenadas;
+    }
+
+    /**
+     * Un rango de meses: si tiene uno solo lo consulta, si no lo divide en
+     * dos mitades y combina sus filas.
+     */
+    private class Parte extends RecursiveTask<Map<String, FilaReporte>> {
+        private final List<DefinicionReporte> meses;
+        private final int desde;
+        private final int hasta;
+        private final CompletableFuture<?> reporte;
+
+        Parte(List<DefinicionReporte> meses, int desde, int hasta, CompletableFuture<?> reporte) {
+            this.meses = meses;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.reporte = reporte;
+        }
+
+        @Override
+        protected Map<String, FilaReporte> compute() {
+            if (reporte.isDone()) {
+                throw new CancellationException();
+            }
+            if (hasta - desde == 1) {
+                return consultar(meses.get(desde));
+            }
+            int medio = (desde + hasta) >>> 1;
+            Parte izquierda = new Parte(meses, desde, medio, reporte);
+            izquierda.fork();
+            Map<String, FilaReporte> derecha = new Parte(meses, medio, hasta, reporte).compute();
+            return combinar(izquierda.join(), derecha);
+        }
+
+        private Map<String, FilaReporte> consultar(DefinicionReporte mes) {
+            Map<String, FilaReporte> filas = new LinkedHashMap<>();
+            try {
+                for (FilaReporte fila : reporteDAO.agrupar(mes)) {
+                    filas.put(fila.getClave(), fila);
+                }
+            } catch (DAOException e) {
+                throw new CompletionException(e);
+            }
+            return filas;
+        }
+
+        private Map<String, FilaReporte> combinar(Map<String, FilaReporte> a, Map<String, FilaReporte> b) {
+            Map<String, FilaReporte> mayor = a.size() >= b.size() ? a : b;
+            Map<String, FilaReporte> menor = mayor == a ? b : a;
+            for (FilaReporte fila : menor.values()) {
+                mayor.merge(fila.getClave(), fila, FilaReporte::combinar);
+            }
+            return mayor;
+        }
+    }
+}
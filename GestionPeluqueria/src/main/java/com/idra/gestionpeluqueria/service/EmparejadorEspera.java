@@ -0,0 +1,149 @@
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.dao.ListaEsperaDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.SolicitudEspera;
+import com.idra.gestionpeluqueria.model.enums.EstadoEspera;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Indice en memoria de las solicitudes pendientes de la lista de espera.
+ *
+ * Cada solicitud se anota bajo la clave (servicio, dia) de cada dia de su
+ * ventana, ordenada por llegada. Cuando se libera un turno solo se recorren
+ * las solicitudes de ese servicio para ese dia, y se corta en la primera
+ * cuya franja horaria acepta el horario: el costo depende de cuantas
+ * solicitudes compiten por ese dia y no del largo de la lista de espera.
+ *
+ * Cada solicitud recuerda las claves bajo las que se anoto, y se saca
+ * exactamente de esas: el primer dia indexado depende de la fecha en que se
+ * agrego, y recalcularlo al quitarla dejaria claves viejas en el indice.
+ *
+ * El indice se carga de la base de datos la primera vez que se usa.
+ *
+ * @author Idra
+ */
+public class EmparejadorEspera {
+
+    private static final Comparator<SolicitudEspera> POR_LLEGADA =
+        Comparator.comparing(SolicitudEspera::getFechaRegistro).thenComparingInt(SolicitudEspera::getId);
+
+    private final ListaEsperaDAO listaEsperaDAO;
+    private final Map<Long, TreeSet<SolicitudEspera>> porServicioYDia = new HashMap<>();
+    private final Map<Integer, SolicitudEspera> porId = new HashMap<>();
+    private final Map<Integer, List<Long>> clavesPorId = new HashMap<>();
+    private boolean cargado;
+
+    /**
+     * @param listaEsperaDAO DAO del que se cargan las solicitudes vigentes
+     */
+    public EmparejadorEspera(ListaEsperaDAO listaEsperaDAO) {
+        this.listaEsperaDAO = listaEsperaDAO;
+    }
+
+    /**
+     * Agrega una solicitud pendiente al indice. Las que no estan pendientes
+     * se ignoran.
+     *
+     * @param solicitud La solicitud a indexar
+     */
+    public synchronized void agregar(SolicitudEspera solicitud) {
+        if (!cargado || solicitud.getEstado() != EstadoEspera.PENDIENTE) {
+            // Si todavia no se cargo, la carga la va a traer de la base de datos
+            return;
+        }
+        quitar(solicitud.getId());
+        porId.put(solicitud.getId(), solicitud);
+        int servicioId = solicitud.getServicio().getId();
+        List<Long> claves = new ArrayList<>();
+        for (LocalDate dia = primerDia(solicitud); !dia.isAfter(solicitud.getFechaHasta()); dia = dia.plusDays(1)) {
+            long clave = clave(servicioId, dia);
+            porServicioYDia.computeIfAbsent(clave, k -> new TreeSet<>(POR_LLEGADA)).add(solicitud);
+            claves.add(clave);
+        }
+        clavesPorId.put(solicitud.getId(), claves);
+    }
+
+    /**
+     * Saca una solicitud del indice.
+     *
+     * @param solicitudId ID de la solicitud
+     */
+    public synchronized void quitar(int solicitudId) {
+        SolicitudEspera solicitud = porId.remove(solicitudId);
+        if (solicitud == null) {
+            return;
+        }
+        for (long clave : clavesPorId.remove(solicitudId)) {
+            TreeSet<SolicitudEspera> delDia = porServicioYDia.get(clave);
+            if (delDia != null && delDia.remove(solicitud) && delDia.isEmpty()) {
+                porServicioYDia.remove(clave);
+            }
+        }
+    }
+
+    /**
+     * Busca la solicitud que llego primero entre las que aceptan un horario
+     * del servicio y la saca del indice, para que no se le ofrezca a dos
+     * clientes el mismo lugar.
+     *
+     * @param servicioId ID del servicio del turno liberado
+     * @param inicio Fecha y hora del turno liberado
+     * @param duracionMinutos Duracion del turno liberado
+     * @return La solicitud elegida, o null si nadie espera ese horario
+     * @throws DAOException Si falla la carga inicial del indice
+     */
+    public synchronized SolicitudEspera emparejar(int servicioId, LocalDateTime inicio, int duracionMinutos)
+            throws DAOException {
+        cargarSiHaceFalta();
+        TreeSet<SolicitudEspera> delDia = porServicioYDia.get(clave(servicioId, inicio.toLocalDate()));
+        if (delDia == null) {
+            return null;
+        }
+        for (SolicitudEspera solicitud : delDia) {
+            if (solicitud.aceptaHorario(inicio, duracionMinutos)) {
+                quitar(solicitud.getId());
+                return solicitud;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Descarta el indice; se vuelve a cargar en el proximo emparejamiento.
+     */
+    public synchronized void limpiar() {
+        porServicioYDia.clear();
+        porId.clear();
+        clavesPorId.clear();
+        cargado = false;
+    }
+
+    private void cargarSiHaceFalta() throws DAOException {
+        if (cargado) {
+            return;
+        }
+        List<SolicitudEspera> vigentes = new ArrayList<>(listaEsperaDAO.buscarVigentes());
+        cargado = true;
+        for (SolicitudEspera solicitud : vigentes) {
+            agregar(solicitud);
+        }
+    }
+
+    private static LocalDate primerDia(SolicitudEspera solicitud) {
+        // Los dias que ya pasaron no pueden liberar turnos
+        LocalDate hoy = LocalDate.now();
+        return solicitud.getFechaDesde().isBefore(hoy) ? hoy : solicitud.getFechaDesde();
+    }
+
+    private static long clave(int servicioId, LocalDate dia) {
+        return ((long) servicioId << 32) | (dia.toEpochDay() & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,243 @@
+package com.idra.gestionpeluqueria.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloqueos en memoria por franja horaria de un servicio, para que dos hilos
+ * de la misma JVM no reserven a la vez el mismo horario.
+ *
+ * Cada turno ocupa una o mas franjas de tamaño fijo, identificadas por
+ * (servicio_id, franja). Las franjas se reparten entre un numero fijo de
+ * locks (striping): reservas de distintos servicios u horarios casi nunca
+ * comparten lock, y la memoria usada no crece con la cantidad de franjas.
+ * Los locks de una reserva se toman siempre en orden ascendente de indice,
+ * lo que evita interbloqueos entre reservas que se superponen.
+ *
+ * El tamaño de franja se configura con gestionpeluqueria.bloqueos.minutosFranja
+ * (por defecto 15) y la cantidad de locks con gestionpeluqueria.bloqueos.locks
+ * (por defecto 256, se redondea a potencia de 2).
+ *
+ * @author Idra
+ */
+public class GestorBloqueosFranja {
+    private static final int MINUTOS_FRANJA_POR_DEFECTO = 15;
+    private static final int LOCKS_POR_DEFECTO = 256;
+
+    private static GestorBloqueosFranja instance;
+
+    private final ReentrantLock[] locks;
+    private final int mascara;
+    private final int minutosFranja;
+
+    private final AtomicLong adquisiciones = new AtomicLong();
+    private final AtomicLong contenciones = new AtomicLong();
+    private final AtomicLong nanosEspera = new AtomicLong();
+    private final AtomicLong maxNanosEspera = new AtomicLong();
+
+    /**
+     * Reserva de locks obtenida con bloquear(). Se libera con close().
+     */
+    public interface Bloqueo extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Constructor con la configuracion de franjas y locks.
+     *
+     * @param minutosFranja Duracion de cada franja en minutos
+     * @param cantidadLocks Cantidad de locks, se redondea a la potencia de 2 siguiente
+     */
+    public GestorBloqueosFranja(int minutosFranja, int cantidadLocks) {
+        if (minutosFranja < 1 || cantidadLocks < 1) {
+            throw new IllegalArgumentException("La franja y la cantidad de locks deben ser positivas");
+        }
+        int tamanio = Integer.highestOneBit(cantidadLocks);
+        if (tamanio < cantidadLocks) {
+            tamanio <<= 1;
+        }
+        this.locks = new ReentrantLock[tamanio];
+        for (int i = 0; i < tamanio; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mascara = tamanio - 1;
+        this.minutosFranja = minutosFranja;
+    }
+
+    /**
+     * Obtiene la instancia compartida, configurada desde las propiedades del sistema.
+     *
+     * @return La instancia unica del gestor
+     */
+    public static synchronized GestorBloqueosFranja getInstance() {
+        if (instance == null) {
+            instance = new GestorBloqueosFranja(
+                Integer.getInteger("gestionpeluqueria.bloqueos.minutosFranja", MINUTOS_FRANJA_POR_DEFECTO),
+                Integer.getInteger("gestionpeluqueria.bloqueos.locks", LOCKS_POR_DEFECTO));
+        }
+        return instance;
+    }
+
+    /**
+     * Bloquea todas las franjas que cubre un turno de un servicio.
+     * Bloquea hasta obtener todos los locks.
+     *
+     * @param servicioId ID del servicio reservado
+     * @param inicio Fecha y hora de inicio del turno
+     * @param duracionMinutos Duracion del turno; si es 0 o menor se bloquea solo la franja de inicio
+     * @return La reserva, que debe cerrarse para liberar los locks
+     */
+    public Bloqueo bloquear(int servicioId, LocalDateTime inicio, int duracionMinutos) {
+        return bloquearIndices(indices(servicioId, inicio, duracionMinutos));
+    }
+
+    /**
+     * Bloquea las franjas de dos intervalos a la vez, por ejemplo el horario
+     * anterior y el nuevo de un turno que se reprograma.
+     *
+     * @return La reserva, que debe cerrarse para liberar los locks
+     */
+    public Bloqueo bloquear(int servicioId1, LocalDateTime inicio1, int duracion1,
+                            int servicioId2, LocalDateTime inicio2, int duracion2) {
+        int[] primero = indices(servicioId1, inicio1, duracion1);
+        int[] segundo = indices(servicioId2, inicio2, duracion2);
+        int[] todos = Arrays.copyOf(primero, primero.length + segundo.length);
+        System.arraycopy(segundo, 0, todos, primero.length, segundo.length);
+        return bloquearIndices(todos);
+    }
+
+    /**
+     * Bloquea las franjas de varios turnos de la misma duracion, por ejemplo
+     * los de una serie. Se toman en el mismo orden que cualquier otro bloqueo,
+     * asi que no puede trabarse con una reserva suelta.
+     *
+     * @return La reserva, que debe cerrarse para liberar los locks
+     */
+    public Bloqueo bloquear(int servicioId, List<LocalDateTime> inicios, int duracionMinutos) {
+        int[] todos = inicios.stream()
+            .flatMapToInt(inicio -> Arrays.stream(indices(servicioId, inicio, duracionMinutos)))
+            .toArray();
+        return bloquearIndices(todos);
+    }
+
+    /**
+     * Bloquea el dia entero de varios recursos, por ejemplo para mover
+     * muchos turnos de la agenda a la vez.
+     *
+     * @param recursos IDs de los recursos (servicios, o el salon)
+     * @param fecha El dia a bloquear
+     * @return La reserva, que debe cerrarse para liberar los locks
+     */
+    public Bloqueo bloquearDia(Collection<Integer> recursos, LocalDate fecha) {
+        int[] todos = recursos.stream()
+            .flatMapToInt(recurso -> Arrays.stream(indices(recurso, fecha.atStartOfDay(), 24 * 60)))
+            .toArray();
+        return bloquearIndices(todos);
+    }
+
+    private int[] indices(int servicioId, LocalDateTime inicio, int duracionMinutos) {
+        long minutoInicio = inicio.toEpochSecond(ZoneOffset.UTC) / 60;
+        long primeraFranja = Math.floorDiv(minutoInicio, minutosFranja);
+        long ultimaFranja = Math.floorDiv(minutoInicio + Math.max(duracionMinutos, 1) - 1, minutosFranja);
+        int[] indices = new int[(int) (ultimaFranja - primeraFranja + 1)];
+        for (long franja = primeraFranja; franja <= ultimaFranja; franja++) {
+            indices[(int) (franja - primeraFranja)] = indice(servicioId, franja);
+        }
+        return indices;
+    }
+
+    private int indice(int servicioId, long franja) {
+        long h = franja * 0x9E3779B97F4A7C15L + servicioId;
+        h ^= (h >>> 32);
+        h *= 0xC2B2AE3D27D4EB4FL;
+        h ^= (h >>> 29);
+        return (int) h & mascara;
+    }
+
+    private Bloqueo bloquearIndices(int[] indices) {
+        // Orden ascendente y sin repetidos: todos los hilos toman los locks en el mismo orden
+        int[] ordenados = Arrays.stream(indices).sorted().distinct().toArray();
+        for (int i = 0; i < ordenados.length; i++) {
+            adquirir(locks[ordenados[i]]);
+        }
+        return () -> {
+            for (int i = ordenados.length - 1; i >= 0; i--) {
+                locks[ordenados[i]].unlock();
+            }
+        };
+    }
+
+    private void adquirir(ReentrantLock lock) {
+        adquisiciones.incrementAndGet();
+        if (lock.tryLock()) {
+            return;
+        }
+        contenciones.incrementAndGet();
+        long desde = System.nanoTime();
+        lock.lock();
+        long espera = System.nanoTime() - desde;
+        nanosEspera.addAndGet(espera);
+        maxNanosEspera.accumulateAndGet(espera, Math::max);
+    }
+
+    /**
+     * @return Duracion de cada franja en minutos
+     */
+    public int getMinutosFranja() {
+        return minutosFranja;
+    }
+
+    /**
+     * Fotografia de las metricas de contencion desde el inicio.
+     *
+     * @return Las estadisticas actuales
+     */
+    public EstadisticasBloqueo getEstadisticas() {
+        return new EstadisticasBloqueo(adquisiciones.get(), contenciones.get(),
+            TimeUnit.NANOSECONDS.toMicros(nanosEspera.get()),
+            TimeUnit.NANOSECONDS.toMicros(maxNanosEspera.get()));
+    }
+
+    /**
+     * Metricas de contencion de los bloqueos de franja.
+     */
+    public static class EstadisticasBloqueo {
+        private final long adquisiciones;
+        private final long contenciones;
+        private final long microsEsperaTotal;
+        private final long microsEsperaMaxima;
+
+        EstadisticasBloqueo(long adquisiciones, long contenciones, long microsEsperaTotal, long microsEsperaMaxima) {
+            this.adquisiciones = adquisiciones;
+            this.contenciones = contenciones;
+            this.microsEsperaTotal = microsEsperaTotal;
+            this.microsEsperaMaxima = microsEsperaMaxima;
+        }
+
+        public long getAdquisiciones() { return adquisiciones; }
+        public long getContenciones() { return contenciones; }
+        public long getMicrosEsperaTotal() { return microsEsperaTotal; }
+        public long getMicrosEsperaMaxima() { return microsEsperaMaxima; }
+
+        /**
+         * @return Proporcion de adquisiciones que tuvieron que esperar, entre 0 y 1
+         */
+        public double getTasaContencion() {
+            return adquisiciones == 0 ? 0.0 : (double) contenciones / adquisiciones;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("adquisiciones=%d, contenciones=%d (%.1f%%), espera total=%dus, espera maxima=%dus",
+                adquisiciones, contenciones, getTasaContencion() * 100, microsEsperaTotal, microsEsperaMaxima);
+        }
+    }
+}
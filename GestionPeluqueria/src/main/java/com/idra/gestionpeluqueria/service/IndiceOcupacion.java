@@ -0,0 +1,343 @@
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.dao.TurnoDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Ocupacion de cada recurso (un profesional, un servicio) dia por dia, como
+ * un mapa de bits: el dia se divide en casillas de 5 minutos y cada recurso
+ * tiene un long[] con un bit por casilla. Saber si un horario esta libre es
+ * comparar contra una mascara, y los inicios posibles de un servicio de
+ * cualquier duracion se calculan para todo el dia con operaciones sobre
+ * palabras completas.
+ *
+ * Un turno ocupa todas las casillas que toca: uno de 10:07 a 10:37 marca
+ * de 10:05 a 10:40.
+ *
+ * Cada dia se arma la primera vez que se consulta, con una sola lectura
+ * del TurnoDAO, y despues se mantiene con registrar(). Vence como las
+ * agendas del MotorDisponibilidad, para ver lo hecho desde otras terminales.
+ *
+ * @author Idra
+ */
+public class IndiceOcupacion {
+    /** Minutos que representa cada bit. */
+    public static final int MINUTOS_POR_CASILLA = 5;
+    /** Casillas de un dia completo. */
+    public static final int CASILLAS_POR_DIA = 24 * 60 / MINUTOS_POR_CASILLA;
+    /** Longitud de los long[] que representan un dia. */
+    public static final int PALABRAS_POR_DIA = (CASILLAS_POR_DIA + 63) / 64;
+
+    private static final long[] DIA_COMPLETO = mascara(0, 24 * 60);
+
+    private final TurnoDAO turnoDAO;
+    private final ToIntFunction<Turno> recurso;
+    private final long vigenciaNanos;
+    private final Map<LocalDate, Dia> dias = new ConcurrentHashMap<>();
+
+    /**
+     * @param turnoDAO DAO del que se lee cada dia
+     * @param recurso Recurso que ocupa cada turno; 0 si el turno no ocupa ninguno
+     * @param vigenciaNanos Tiempo tras el cual un dia se vuelve a leer
+     */
+    public IndiceOcupacion(TurnoDAO turnoDAO, ToIntFunction<Turno> recurso, long vigenciaNanos) {
+        this.turnoDAO = turnoDAO;
+        this.recurso = recurso;
+        this.vigenciaNanos = vigenciaNanos;
+    }
+
+    /**
+     * Indica si un recurso esta libre durante un intervalo.
+     *
+     * @param recursoId El recurso a consultar
+     * @param inicio Inicio del intervalo
+     * @param duracionMinutos Duracion del intervalo
+     * @param turnoExcluidoId Turno a ignorar (el que se reprograma), o 0
+     * @return true si ninguna casilla del intervalo esta ocupada
+     * @throws DAOException Si no se puede leer el dia
+     */
+    public boolean libre(int recursoId, LocalDateTime inicio, int duracionMinutos, int turnoExcluidoId)
+            throws DAOException {
+        int desde = minutoDelDia(inicio);
+        Dia dia = dia(inicio.toLocalDate());
+        synchronized (dia) {
+            long[] bits = dia.bits.get(recursoId);
+            if (bits == null || libre(bits, desde, desde + duracionMinutos)) {
+                return true;
+            }
+            return turnoExcluidoId != 0 && libre(dia.sin(recursoId, turnoExcluidoId), desde, desde + duracionMinutos);
+        }
+    }
+
+    /**
+     * Devuelve una copia de la ocupacion de un recurso en un dia.
+     *
+     * @param recursoId El recurso a consultar
+     * @param fecha El dia
+     * @param turnoExcluidoId Turno a ignorar (el que se reprograma), o 0
+     * @return Un bit por casilla, encendido si esta ocupada
+     * @throws DAOException Si no se puede leer el dia
+     */
+    public long[] ocupacion(int recursoId, LocalDate fecha, int turnoExcluidoId) throws DAOException {
+        Dia dia = dia(fecha);
+        synchronized (dia) {
+            long[] bits = dia.bits.get(recursoId);
+            if (bits == null) {
+                return new long[PALABRAS_POR_DIA];
+            }
+            return turnoExcluidoId != 0 ? dia.sin(recursoId, turnoExcluidoId) : bits.clone();
+        }
+    }
+
+    /**
+     * Aplica el estado actual de un turno: lo quita de donde estaba y, si no
+     * esta cancelado, lo vuelve a marcar en su dia, si ese dia ya se leyo.
+     *
+     * @param turno El turno tal como quedo guardado
+     */
+    public void registrar(Turno turno) {
+        for (Dia dia : dias.values()) {
+            synchronized (dia) {
+                dia.quitar(turno.getId());
+            }
+        }
+        Dia dia = dias.get(turno.getFechaHora().toLocalDate());
+        if (dia != null) {
+            synchronized (dia) {
+                agregar(dia, turno);
+            }
+        }
+    }
+
+    /**
+     * Reemplaza la ocupacion de un dia con turnos ya leidos, por ejemplo de
+     * una consulta por rango que abarca varios dias.
+     *
+     * @param fecha El dia
+     * @param turnos Todos los turnos de ese dia
+     */
+    public void cargar(LocalDate fecha, List<Turno> turnos) {
+        Dia dia = new Dia(System.nanoTime());
+        for (Turno turno : turnos) {
+            agregar(dia, turno);
+        }
+        dias.put(fecha, dia);
+    }
+
+    /**
+     * Descarta todos los dias leidos.
+     */
+    public void limpiar() {
+        dias.clear();
+    }
+
+    private Dia dia(LocalDate fecha) throws DAOException {
+        long ahora = System.nanoTime();
+        Dia dia = dias.get(fecha);
+        if (dia == null || ahora - dia.cargado > vigenciaNanos) {
+            dias.values().removeIf(viejo -> ahora - viejo.cargado > vigenciaNanos);
+            dia = new Dia(ahora);
+            for (Turno turno : turnoDAO.buscarPorFecha(fecha)) {
+                agregar(dia, turno);
+            }
+            dias.put(fecha, dia);
+        }
+        return dia;
+    }
+
+    private void agregar(Dia dia, Turno turno) {
+        int recursoId = recurso.applyAsInt(turno);
+        if (recursoId == 0 || turno.getEstado() == EstadoTurno.CANCELADO) {
+            return;
+        }
+        int desde = minutoDelDia(turno.getFechaHora());
+        dia.agregar(turno.getId(), recursoId, desde, desde + turno.getServicio().getDuracionMinutos());
+    }
+
+    // ---- Operaciones sobre mapas de bits de un dia ----
+
+    /**
+     * Arma una mascara con encendidas las casillas que toca [desde, hasta).
+     *
+     * @param desdeMinuto Minuto del dia en que empieza el intervalo
+     * @param hastaMinuto Minuto del dia en que termina, exclusivo
+     * @return La mascara, de PALABRAS_POR_DIA palabras
+     */
+    public static long[] mascara(int desdeMinuto, int hastaMinuto) {
+        long[] bits = new long[PALABRAS_POR_DIA];
+        marcar(bits, casillaDesde(desdeMinuto), casillaHasta(hastaMinuto));
+        return bits;
+    }
+
+    /**
+     * Indica si ninguna casilla que toca [desde, hasta) esta encendida.
+     *
+     * @param ocupacion Ocupacion del dia
+     * @param desdeMinuto Minuto del dia en que empieza el intervalo
+     * @param hastaMinuto Minuto del dia en que termina, exclusivo
+     * @return true si el intervalo esta libre
+     */
+    public static boolean libre(long[] ocupacion, int desdeMinuto, int hastaMinuto) {
+        int desde = casillaDesde(desdeMinuto);
+        int hasta = casillaHasta(hastaMinuto);
+        for (int palabra = desde >>> 6; palabra <= (hasta - 1) >>> 6 && desde < hasta; palabra++) {
+            if ((ocupacion[palabra] & mascaraPalabra(palabra, desde, hasta)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calcula en que casillas puede empezar algo que necesita un tramo continuo
+     * de casillas libres: una casilla queda encendida si ella y las siguientes
+     * que cubre la duracion estan encendidas en libres.
+     *
+     * @param libres Casillas disponibles del dia
+     * @param duracionMinutos Duracion a ubicar
+     * @return Las casillas de inicio posibles
+     */
+    public static long[] iniciosPosibles(long[] libres, int duracionMinutos) {
+        int casillas = Math.max(1, casillaHasta(duracionMinutos));
+        long[] inicios = new long[PALABRAS_POR_DIA];
+        for (int i = 0; i < inicios.length; i++) {
+            // Lo que sobra de la ultima palabra no es parte del dia
+            inicios[i] = libres[i] & DIA_COMPLETO[i];
+        }
+        // Duplicando el tramo cubierto en cada paso alcanzan log2(casillas) desplazamientos
+        int cubiertas = 1;
+        while (cubiertas < casillas) {
+            int paso = Math.min(cubiertas, casillas - cubiertas);
+            long[] desplazado = desplazar(inicios, paso);
+            for (int i = 0; i < inicios.length; i++) {
+                inicios[i] &= desplazado[i];
+            }
+            cubiertas += paso;
+        }
+        return inicios;
+    }
+
+    /**
+     * @param bits Mapa de bits de un dia
+     * @param minuto Minuto del dia
+     * @return true si la casilla que contiene al minuto esta encendida
+     */
+    public static boolean encendida(long[] bits, int minuto) {
+        int casilla = minuto / MINUTOS_POR_CASILLA;
+        return casilla < CASILLAS_POR_DIA && (bits[casilla >>> 6] & (1L << casilla)) != 0;
+    }
+
+    /**
+     * @return Un mapa de bits con todas las casillas del dia encendidas
+     */
+    public static long[] diaCompleto() {
+        return DIA_COMPLETO.clone();
+    }
+
+    // Desplaza hacia las casillas anteriores: el bit i del resultado es el bit i + n de la entrada
+    private static long[] desplazar(long[] bits, int n) {
+        long[] resultado = new long[bits.length];
+        int palabras = n >>> 6;
+        int resto = n & 63;
+        for (int i = 0; i + palabras < bits.length; i++) {
+            long valor = bits[i + palabras] >>> resto;
+            if (resto != 0 && i + palabras + 1 < bits.length) {
+                valor |= bits[i + palabras + 1] << (64 - resto);
+            }
+            resultado[i] = valor;
+        }
+        return resultado;
+    }
+
+    private static void marcar(long[] bits, int desde, int hasta) {
+        for (int palabra = desde >>> 6; palabra <= (hasta - 1) >>> 6 && desde < hasta; palabra++) {
+            bits[palabra] |= mascaraPalabra(palabra, desde, hasta);
+        }
+    }
+
+    private static void borrar(long[] bits, int desde, int hasta) {
+        for (int palabra = desde >>> 6; palabra <= (hasta - 1) >>> 6 && desde < hasta; palabra++) {
+            bits[palabra] &= ~mascaraPalabra(palabra, desde, hasta);
+        }
+    }
+
+    // Bits de la palabra indicada que caen dentro de [desde, hasta)
+    private static long mascaraPalabra(int palabra, int desde, int hasta) {
+        int primero = Math.max(desde - (palabra << 6), 0);
+        int ultimo = Math.min(hasta - (palabra << 6), 64);
+        long hastaUltimo = ultimo == 64 ? -1L : (1L << ultimo) - 1;
+        return hastaUltimo & (-1L << primero);
+    }
+
+    private static int casillaDesde(int minuto) {
+        return Math.max(0, Math.min(minuto / MINUTOS_POR_CASILLA, CASILLAS_POR_DIA));
+    }
+
+    private static int casillaHasta(int minuto) {
+        return Math.max(0, Math.min((minuto + MINUTOS_POR_CASILLA - 1) / MINUTOS_POR_CASILLA, CASILLAS_POR_DIA));
+    }
+
+    private static int minutoDelDia(LocalDateTime fechaHora) {
+        return fechaHora.getHour() * 60 + fechaHora.getMinute();
+    }
+
+    /**
+     * Ocupacion de un dia. Ademas de los bits guarda la casilla de inicio y
+     * fin de cada turno, para poder quitarlo aunque se superponga con otro.
+     * Se accede sincronizando sobre la instancia.
+     */
+    private static final class Dia {
+        final long cargado;
+        final Map<Integer, long[]> bits = new HashMap<>();
+        // turnoId -> {recursoId, casilla desde, casilla hasta}
+        final Map<Integer, int[]> reservas = new HashMap<>();
+
+        Dia(long cargado) {
+            this.cargado = cargado;
+        }
+
+        void agregar(int turnoId, int recursoId, int desdeMinuto, int hastaMinuto) {
+            int[] reserva = {recursoId, casillaDesde(desdeMinuto), casillaHasta(hastaMinuto)};
+            reservas.put(turnoId, reserva);
+            marcar(bits.computeIfAbsent(recursoId, id -> new long[PALABRAS_POR_DIA]), reserva[1], reserva[2]);
+        }
+
+        void quitar(int turnoId) {
+            int[] reserva = reservas.remove(turnoId);
+            if (reserva != null) {
+                despejar(bits.get(reserva[0]), reserva, 0);
+            }
+        }
+
+        // Copia de la ocupacion del recurso como si el turno indicado no existiera
+        long[] sin(int recursoId, int turnoId) {
+            long[] copia = bits.get(recursoId).clone();
+            int[] reserva = reservas.get(turnoId);
+            if (reserva != null && reserva[0] == recursoId) {
+                despejar(copia, reserva, turnoId);
+            }
+            return copia;
+        }
+
+        // Borra el tramo de la reserva y vuelve a marcar lo que otros turnos del recurso tambien ocupan
+        private void despejar(long[] destino, int[] reserva, int turnoIgnorado) {
+            borrar(destino, reserva[1], reserva[2]);
+            for (Map.Entry<Integer, int[]> otra : reservas.entrySet()) {
+                int[] valor = otra.getValue();
+                if (otra.getKey() != turnoIgnorado && valor[0] == reserva[0]
+                        && valor[1] < reserva[2] && valor[2] > reserva[1]) {
+                    marcar(destino, Math.max(valor[1], reserva[1]), Math.min(valor[2], reserva[2]));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import com.idra.gestionpeluqueria.model.SolicitudEspera;
+import com.idra.gestionpeluqueria.model.Turno;
+import java.util.List;
+
+/**
+ * Interfaz que define los servicios de negocio de la lista de espera: los
+ * clientes anotan el servicio, los dias y la franja horaria que les sirve y
+ * cada turno cancelado se le ofrece al primero que lo puede tomar.
+ *
+ * @author Idra
+ */
+public interface ListaEsperaService {
+    /**
+     * Anota una solicitud en la lista de espera.
+     *
+     * @param solicitud La solicitud con cliente, servicio, fechas y franja horaria
+     * @throws ServiceException Si los datos no son validos o no se puede guardar
+     */
+    void registrarSolicitud(SolicitudEspera solicitud) throws ServiceException;
+
+    /**
+     * Obtiene las solicitudes pendientes u ofrecidas cuya ventana no termino.
+     *
+     * @return Lista de solicitudes en orden de llegada
+     * @throws ServiceException Si ocurre un error al buscar
+     */
+    List<SolicitudEspera> buscarSolicitudesVigentes() throws ServiceException;
+
+    /**
+     * Reserva el turno ofrecido a una solicitud. Si el horario ya no esta
+     * libre, la solicitud vuelve a esperar.
+     *
+     * @param solicitudId ID de la solicitud con una oferta
+     * @return El turno creado
+     * @throws ServiceException Si la solicitud no tiene oferta o no se puede reservar
+     */
+    Turno aceptarOferta(int solicitudId) throws ServiceException;
+
+    /**
+     * El cliente no toma el horario ofrecido: se le ofrece al siguiente y la
+     * solicitud vuelve a esperar.
+     *
+     * @param solicitudId ID de la solicitud con una oferta
+     * @throws ServiceException Si la solicitud no tiene oferta o falla el guardado
+     */
+    void rechazarOferta(int solicitudId) throws ServiceException;
+
+    /**
+     * Saca una solicitud de la lista. Si tenia una oferta, pasa al siguiente.
+     *
+     * @param solicitudId ID de la solicitud
+     * @throws ServiceException Si ocurre un error al guardar
+     */
+    void quitarSolicitud(int solicitudId) throws ServiceException;
+
+    /**
+     * Ofrece cada horario liberado al primer cliente que lo acepta y guarda
+     * todas las ofertas en una sola escritura.
+     *
+     * @param cancelados Turnos cancelados
+     * @return Las solicitudes a las que se les hizo una oferta
+     * @throws ServiceException Si falla el guardado de las ofertas
+     */
+    List<SolicitudEspera> procesarCancelaciones(List<Turno> cancelados) throws ServiceException;
+}
@@ -0,0 +1,354 @@
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.dao.ProfesionalDAO;
+import com.idra.gestionpeluqueria.dao.TurnoDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.HorarioLaboral;
+import com.idra.gestionpeluqueria.model.Profesional;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.model.enums.TipoServicio;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Calcula la disponibilidad de turnos teniendo en cuenta a todos los
+ * profesionales a la vez: quien sabe hacer cada tipo de servicio, en que
+ * horario trabaja y que turnos tiene asignados.
+ *
+ * Todo se responde desde memoria. El plantel se indexa por especialidad y
+ * la ocupacion de cada profesional (y de cada servicio, para cuando no hay
+ * profesionales) se lleva en un IndiceOcupacion de casillas de 5 minutos;
+ * la jornada de cada profesional se guarda con el mismo formato, asi que
+ * la capacidad de todo un dia sale de combinar mapas de bits.
+ *
+ * Los turnos que se crean o modifican en esta terminal se aplican con
+ * registrar(); lo hecho desde otras terminales se ve cuando vence la vigencia
+ * de los datos (gestionpeluqueria.disponibilidad.vigenciaSegundos, por
+ * defecto 60). Por eso, al reservar, la base de datos tiene la ultima palabra.
+ *
+ * Los turnos sin profesional asignado, anteriores a la asignacion, no ocupan
+ * a ningun profesional.
+ *
+ * @author Idra
+ */
+public class MotorDisponibilidad {
+    private static final long VIGENCIA_SEGUNDOS_POR_DEFECTO = 60;
+
+    private final TurnoDAO turnoDAO;
+    private final ProfesionalDAO profesionalDAO;
+    private final long vigenciaNanos;
+    private final IndiceOcupacion ocupacionProfesionales;
+    private final IndiceOcupacion ocupacionServicios;
+
+    private volatile Plantel plantel;
+
+    /**
+     * Constructor con los DAOs de los que se cargan profesionales y turnos.
+     *
+     * @param turnoDAO DAO de turnos, para armar la ocupacion de cada dia
+     * @param profesionalDAO DAO de profesionales
+     */
+    public MotorDisponibilidad(TurnoDAO turnoDAO, ProfesionalDAO profesionalDAO) {
+        this.turnoDAO = turnoDAO;
+        this.profesionalDAO = profesionalDAO;
+        this.vigenciaNanos = Long.getLong("gestionpeluqueria.disponibilidad.vigenciaSegundos",
+            VIGENCIA_SEGUNDOS_POR_DEFECTO) * 1_000_000_000L;
+        this.ocupacionProfesionales = new IndiceOcupacion(turnoDAO,
+            turno -> turno.getProfesional() != null ? turno.getProfesional().getId() : 0, vigenciaNanos);
+        this.ocupacionServicios = new IndiceOcupacion(turnoDAO, turno -> turno.getServicio().getId(), vigenciaNanos);
+    }
+
+    /**
+     * Indica si hay profesionales cargados. Sin profesionales la disponibilidad
+     * se sigue calculando por servicio, como antes de existir el plantel.
+     *
+     * @return true si hay al menos un profesional activo
+     * @throws DAOException Si no se pueden cargar los profesionales
+     */
+    public boolean usaProfesionales() throws DAOException {
+        return !plantel().activos.isEmpty();
+    }
+
+    /**
+     * @return Los profesionales activos, ordenados por apellido
+     * @throws DAOException Si no se pueden cargar los profesionales
+     */
+    public List<Profesional> getProfesionales() throws DAOException {
+        return plantel().activos;
+    }
+
+    /**
+     * Busca los profesionales que pueden atender un turno: saben hacer el tipo
+     * de servicio, trabajan durante todo el turno y no tienen otro turno que
+     * se superponga.
+     *
+     * @param tipo Tipo de servicio del turno
+     * @param inicio Fecha y hora de inicio
+     * @param duracionMinutos Duracion del servicio
+     * @param turnoExcluidoId Turno a ignorar (el que se reprograma), o 0
+     * @return Los profesionales libres, ordenados por apellido
+     * @throws DAOException Si no se pueden cargar los datos
+     */
+    public List<Profesional> profesionalesDisponibles(TipoServicio tipo, LocalDateTime inicio, int duracionMinutos,
+            int turnoExcluidoId) throws DAOException {
+        List<Profesional> libres = new ArrayList<>();
+        for (Profesional profesional : plantel().especialistas(tipo)) {
+            if (profesional.trabajaEntre(inicio, duracionMinutos)
+                    && ocupacionProfesionales.libre(profesional.getId(), inicio, duracionMinutos, turnoExcluidoId)) {
+                libres.add(profesional);
+            }
+        }
+        return libres;
+    }
+
+    /**
+     * Indica si un profesional en particular puede atender un turno.
+     *
+     * @param profesionalId ID del profesional
+     * @param tipo Tipo de servicio del turno
+     * @param inicio Fecha y hora de inicio
+     * @param duracionMinutos Duracion del servicio
+     * @param turnoExcluidoId Turno a ignorar (el que se reprograma), o 0
+     * @return true si esta activo, sabe hacer el servicio, trabaja a esa hora y esta libre
+     * @throws DAOException Si no se pueden cargar los datos
+     */
+    public boolean estaDisponible(int profesionalId, TipoServicio tipo, LocalDateTime inicio, int duracionMinutos,
+            int turnoExcluidoId) throws DAOException {
+        Profesional profesional = plantel().porId.get(profesionalId);
+        return profesional != null && profesional.puedeRealizar(tipo)
+            && profesional.trabajaEntre(inicio, duracionMinutos)
+            && ocupacionProfesionales.libre(profesionalId, inicio, duracionMinutos, turnoExcluidoId);
+    }
+
+    /**
+     * Indica si un servicio no tiene otro turno que se superponga con el
+     * intervalo. Es la regla que se usa cuando no hay profesionales.
+     *
+     * @param servicioId ID del servicio
+     * @param inicio Fecha y hora de inicio
+     * @param duracionMinutos Duracion del servicio
+     * @param turnoExcluidoId Turno a ignorar (el que se reprograma), o 0
+     * @return true si el servicio esta libre en ese intervalo
+     * @throws DAOException Si no se pueden cargar los turnos del dia
+     */
+    public boolean servicioLibre(int servicioId, LocalDateTime inicio, int duracionMinutos, int turnoExcluidoId)
+            throws DAOException {
+        return ocupacionServicios.libre(servicioId, inicio, duracionMinutos, turnoExcluidoId);
+    }
+
+    /**
+     * Calcula, para cada horario candidato de un dia, cuantos profesionales
+     * podrian atender el servicio en ese horario.
+     *
+     * @param tipo Tipo de servicio
+     * @param fecha Dia a consultar
+     * @param duracionMinutos Duracion del servicio
+     * @param desde Primer horario candidato
+     * @param hasta Ultimo horario candidato
+     * @param granularidadMinutos Separacion entre candidatos
+     * @param turnoExcluidoId Turno a ignorar (el que se reprograma), o 0
+     * @return Capacidad por horario, en orden; incluye los horarios sin capacidad
+     * @throws DAOException Si no se pueden cargar los datos
+     */
+    public SortedMap<LocalTime, Integer> capacidadPorHorario(TipoServicio tipo, LocalDate fecha, int duracionMinutos,
+            LocalTime desde, LocalTime hasta, int granularidadMinutos, int turnoExcluidoId) throws DAOException {
+        Plantel actual = plantel();
+        List<long[]> noDisponibles = new ArrayList<>();
+        List<long[]> inicios = new ArrayList<>();
+        for (Profesional profesional : actual.especialistas(tipo)) {
+            long[] jornada = actual.jornada(profesional.getId(), fecha.getDayOfWeek());
+            if (jornada == null) {
+                continue;
+            }
+            long[] ocupado = ocupacionProfesionales.ocupacion(profesional.getId(), fecha, turnoExcluidoId);
+            long[] libres = new long[IndiceOcupacion.PALABRAS_POR_DIA];
+            long[] noDisponible = new long[IndiceOcupacion.PALABRAS_POR_DIA];
+            for (int i = 0; i < libres.length; i++) {
+                libres[i] = jornada[i] & ~ocupado[i];
+                noDisponible[i] = ~libres[i];
+            }
+            noDisponibles.add(noDisponible);
+            inicios.add(IndiceOcupacion.iniciosPosibles(libres, duracionMinutos));
+        }
+        SortedMap<LocalTime, Integer> capacidad = new TreeMap<>();
+        recorrerCandidatos(desde, hasta, granularidadMinutos, minuto -> {
+            int libres = 0;
+            for (int i = 0; i < inicios.size(); i++) {
+                if (disponible(inicios.get(i), noDisponibles.get(i), minuto, duracionMinutos)) {
+                    libres++;
+                }
+            }
+            capacidad.put(LocalTime.of(minuto / 60, minuto % 60), libres);
+        });
+        return capacidad;
+    }
+
+    /**
+     * Busca los horarios de un dia en los que el servicio no se superpone con
+     * otro turno del mismo servicio. Es la regla que se usa cuando no hay
+     * profesionales.
+     *
+     * @param servicioId ID del servicio
+     * @param fecha Dia a consultar
+     * @param duracionMinutos Duracion del servicio
+     * @param desde Primer horario candidato
+     * @param hasta Ultimo horario candidato
+     * @param granularidadMinutos Separacion entre candidatos
+     * @param turnoExcluidoId Turno a ignorar (el que se reprograma), o 0
+     * @return Los horarios libres, en orden
+     * @throws DAOException Si no se pueden cargar los turnos del dia
+     */
+    public List<LocalTime> horariosLibresDelServicio(int servicioId, LocalDate fecha, int duracionMinutos,
+            LocalTime desde, LocalTime hasta, int granularidadMinutos, int turnoExcluidoId) throws DAOException {
+        long[] ocupado = ocupacionServicios.ocupacion(servicioId, fecha, turnoExcluidoId);
+        long[] libres = new long[IndiceOcupacion.PALABRAS_POR_DIA];
+        for (int i = 0; i < libres.length; i++) {
+            libres[i] = ~ocupado[i];
+        }
+        long[] inicios = IndiceOcupacion.iniciosPosibles(libres, duracionMinutos);
+        List<LocalTime> horarios = new ArrayList<>();
+        recorrerCandidatos(desde, hasta, granularidadMinutos, minuto -> {
+            if (disponible(inicios, ocupado, minuto, duracionMinutos)) {
+                horarios.add(LocalTime.of(minuto / 60, minuto % 60));
+            }
+        });
+        return horarios;
+    }
+
+    /**
+     * Lee de nuevo la ocupacion de varios dias con una sola consulta por
+     * rango, en lugar de una por dia. Sirve para verificar muchas fechas
+     * juntas, como las de una serie de turnos, con datos recien leidos.
+     *
+     * @param fechas Los dias a leer
+     * @throws DAOException Si falla la consulta
+     */
+    public void precargar(Collection<LocalDate> fechas) throws DAOException {
+        if (fechas.isEmpty()) {
+            return;
+        }
+        LocalDate primera = Collections.min(fechas);
+        LocalDate ultima = Collections.max(fechas);
+        Map<LocalDate, List<Turno>> porDia = new HashMap<>();
+        for (Turno turno : turnoDAO.buscarPorRango(primera.atStartOfDay(), ultima.plusDays(1).atStartOfDay())) {
+            porDia.computeIfAbsent(turno.getFechaHora().toLocalDate(), dia -> new ArrayList<>()).add(turno);
+        }
+        for (LocalDate fecha : fechas) {
+            List<Turno> turnos = porDia.getOrDefault(fecha, Collections.emptyList());
+            ocupacionProfesionales.cargar(fecha, turnos);
+            ocupacionServicios.cargar(fecha, turnos);
+        }
+    }
+
+    /**
+     * Aplica a la ocupacion cargada el estado actual de un turno recien
+     * creado, modificado o cancelado.
+     *
+     * @param turno El turno tal como quedo guardado
+     */
+    public void registrar(Turno turno) {
+        ocupacionProfesionales.registrar(turno);
+        ocupacionServicios.registrar(turno);
+    }
+
+    /**
+     * Descarta el plantel cargado; se vuelve a leer en la proxima consulta.
+     */
+    public void invalidarPlantel() {
+        plantel = null;
+    }
+
+    /**
+     * Descarta el plantel y toda la ocupacion cargada.
+     */
+    public void limpiar() {
+        plantel = null;
+        ocupacionProfesionales.limpiar();
+        ocupacionServicios.limpiar();
+    }
+
+    private Plantel plantel() throws DAOException {
+        Plantel actual = plantel;
+        if (actual == null || System.nanoTime() - actual.cargado > vigenciaNanos) {
+            actual = new Plantel(profesionalDAO.buscarActivos());
+            plantel = actual;
+        }
+        return actual;
+    }
+
+    private static void recorrerCandidatos(LocalTime desde, LocalTime hasta, int granularidadMinutos, IntConsumer accion) {
+        int ultimo = hasta.getHour() * 60 + hasta.getMinute();
+        for (int minuto = desde.getHour() * 60 + desde.getMinute(); minuto <= ultimo; minuto += granularidadMinutos) {
+            accion.accept(minuto);
+        }
+    }
+
+    // Los horarios alineados a una casilla se leen de los inicios ya calculados;
+    // los demas se comparan contra la mascara de su intervalo
+    private static boolean disponible(long[] inicios, long[] noDisponible, int minuto, int duracionMinutos) {
+        if (minuto % IndiceOcupacion.MINUTOS_POR_CASILLA == 0) {
+            return IndiceOcupacion.encendida(inicios, minuto);
+        }
+        return IndiceOcupacion.libre(noDisponible, minuto, minuto + duracionMinutos);
+    }
+
+    /**
+     * Profesionales activos indexados por especialidad y por ID, con la
+     * jornada de cada dia de la semana como mapa de bits.
+     */
+    private static final class Plantel {
+        final long cargado = System.nanoTime();
+        final List<Profesional> activos;
+        final Map<Integer, Profesional> porId = new HashMap<>();
+        final Map<TipoServicio, List<Profesional>> porEspecialidad = new EnumMap<>(TipoServicio.class);
+        final Map<Integer, Map<DayOfWeek, long[]>> jornadas = new HashMap<>();
+
+        Plantel(List<Profesional> activos) {
+            this.activos = Collections.unmodifiableList(new ArrayList<>(activos));
+            for (Profesional profesional : activos) {
+                porId.put(profesional.getId(), profesional);
+                for (TipoServicio tipo : profesional.getEspecialidades()) {
+                    porEspecialidad.computeIfAbsent(tipo, t -> new ArrayList<>()).add(profesional);
+                }
+                Map<DayOfWeek, long[]> porDia = new EnumMap<>(DayOfWeek.class);
+                for (HorarioLaboral horario : profesional.getHorarios()) {
+                    // Solo cuentan las casillas enteras dentro de la franja
+                    int casilla = IndiceOcupacion.MINUTOS_POR_CASILLA;
+                    int desde = (horario.getHoraInicio().toSecondOfDay() / 60 + casilla - 1) / casilla * casilla;
+                    int hasta = horario.getHoraFin().toSecondOfDay() / 60 / casilla * casilla;
+                    if (desde >= hasta) {
+                        continue;
+                    }
+                    long[] franja = IndiceOcupacion.mascara(desde, hasta);
+                    long[] jornada = porDia.computeIfAbsent(horario.getDiaSemana(),
+                        dia -> new long[IndiceOcupacion.PALABRAS_POR_DIA]);
+                    for (int i = 0; i < jornada.length; i++) {
+                        jornada[i] |= franja[i];
+                    }
+                }
+                jornadas.put(profesional.getId(), porDia);
+            }
+        }
+
+        List<Profesional> especialistas(TipoServicio tipo) {
+            return porEspecialidad.getOrDefault(tipo, Collections.emptyList());
+        }
+
+        long[] jornada(int profesionalId, DayOfWeek dia) {
+            Map<DayOfWeek, long[]> porDia = jornadas.get(profesionalId);
+            return porDia != null ? porDia.get(dia) : null;
+        }
+    }
+}
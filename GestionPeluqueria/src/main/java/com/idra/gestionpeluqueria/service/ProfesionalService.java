@@ -0,0 +1,78 @@
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import com.idra.gestionpeluqueria.model.Profesional;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interfaz que define los servicios de negocio para la gestion de los
+ * profesionales de la peluqueria, sus especialidades y horarios.
+ *
+ * @author Idra
+ */
+public interface ProfesionalService {
+    /**
+     * Crea un nuevo profesional con sus especialidades y horarios.
+     *
+     * @param profesional El profesional a crear
+     * @throws ServiceException Si los datos no son validos o no se puede guardar
+     */
+    void crearProfesional(Profesional profesional) throws ServiceException;
+
+    /**
+     * Busca un profesional por su identificador.
+     *
+     * @param id El ID del profesional
+     * @return El profesional encontrado o null si no existe
+     * @throws ServiceException Si ocurre un error al buscar
+     */
+    Profesional buscarProfesionalPorId(int id) throws ServiceException;
+
+    /**
+     * Obtiene todos los profesionales, activos o no.
+     *
+     * @return Lista de profesionales
+     * @throws ServiceException Si ocurre un error al buscar
+     */
+    List<Profesional> buscarTodosProfesionales() throws ServiceException;
+
+    /**
+     * Obtiene los profesionales que estan activos.
+     *
+     * @return Lista de profesionales activos
+     * @throws ServiceException Si ocurre un error al buscar
+     */
+    List<Profesional> buscarProfesionalesActivos() throws ServiceException;
+
+    /**
+     * Actualiza los datos, especialidades y horarios de un profesional.
+     *
+     * @param profesional El profesional con los datos nuevos
+     * @throws ServiceException Si los datos no son validos o no se puede guardar
+     */
+    void actualizarProfesional(Profesional profesional) throws ServiceException;
+
+    /**
+     * Elimina un profesional. Sus turnos quedan sin profesional asignado.
+     *
+     * @param id El ID del profesional
+     * @throws ServiceException Si ocurre un error al eliminar
+     */
+    void eliminarProfesional(int id) throws ServiceException;
+
+    /**
+     * Valida que los datos de un profesional cumplan con las reglas de negocio.
+     *
+     * @param profesional El profesional a validar
+     * @return true si los datos son validos
+     */
+    boolean validarProfesional(Profesional profesional);
+
+    /**
+     * Variante asincrona de {@link #buscarTodosProfesionales}.
+     */
+    default CompletableFuture<List<Profesional>> buscarTodosProfesionalesAsync() {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> buscarTodosProfesionales());
+    }
+}
@@ -0,0 +1,78 @@
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.model.Turno;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reorganizacion propuesta para la agenda de un dia: que turnos se mueven y
+ * a que horario, y cuanto tiempo en huecos inutiles queda antes y despues.
+ * Se aplica entera o no se aplica.
+ *
+ * @author Idra
+ */
+public class PropuestaCompactacion {
+    private final LocalDate fecha;
+    private final List<Movimiento> movimientos = new ArrayList<>();
+    private final int minutosInutilesAntes;
+    private final int minutosInutilesDespues;
+
+    /**
+     * Un turno que cambia de horario. El turno conserva la version leida,
+     * para detectar si alguien lo modifico antes de aplicar la propuesta.
+     */
+    public static class Movimiento {
+        private final Turno turno;
+        private final LocalDateTime nuevoHorario;
+
+        public Movimiento(Turno turno, LocalDateTime nuevoHorario) {
+            this.turno = turno;
+            this.nuevoHorario = nuevoHorario;
+        }
+
+        public Turno getTurno() { return turno; }
+        public LocalDateTime getHorarioActual() { return turno.getFechaHora(); }
+        public LocalDateTime getNuevoHorario() { return nuevoHorario; }
+    }
+
+    /**
+     * @param fecha Dia de la agenda
+     * @param minutosInutilesAntes Minutos en huecos inutiles con la agenda actual
+     * @param minutosInutilesDespues Minutos en huecos inutiles si se aplica
+     */
+    public PropuestaCompactacion(LocalDate fecha, int minutosInutilesAntes, int minutosInutilesDespues) {
+        this.fecha = fecha;
+        this.minutosInutilesAntes = minutosInutilesAntes;
+        this.minutosInutilesDespues = minutosInutilesDespues;
+    }
+
+    /**
+     * @param turno Turno a mover, tal como se leyo
+     * @param nuevoHorario Horario propuesto
+     */
+    public void agregarMovimiento(Turno turno, LocalDateTime nuevoHorario) {
+        movimientos.add(new Movimiento(turno, nuevoHorario));
+    }
+
+    public LocalDate getFecha() { return fecha; }
+
+    /**
+     * @return Los cambios de horario, ordenados por horario actual
+     */
+    public List<Movimiento> getMovimientos() {
+        return Collections.unmodifiableList(movimientos);
+    }
+
+    public int getMinutosInutilesAntes() { return minutosInutilesAntes; }
+    public int getMinutosInutilesDespues() { return minutosInutilesDespues; }
+
+    /**
+     * @return true si no hay nada que mover
+     */
+    public boolean isVacia() {
+        return movimientos.isEmpty();
+    }
+}
@@ -0,0 +1,70 @@
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import com.idra.gestionpeluqueria.model.DefinicionReporte;
+import com.idra.gestionpeluqueria.model.FilaReporte;
+import com.idra.gestionpeluqueria.model.MapaOcupacion;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interfaz que define los reportes de turnos e ingresos.
+ *
+ * @author Idra
+ */
+public interface ReporteService {
+    /**
+     * Genera un reporte agrupando los turnos del periodo.
+     *
+     * @param definicion Agrupacion y periodo del reporte
+     * @return Las filas del reporte
+     * @throws ServiceException Si la definicion no es valida o falla la consulta
+     */
+    List<FilaReporte> generar(DefinicionReporte definicion) throws ServiceException;
+
+    /**
+     * Variante asincrona de {@link #generar}. Cancelar el futuro detiene
+     * la generacion.
+     */
+    default CompletableFuture<List<FilaReporte>> generarAsync(DefinicionReporte definicion) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> generar(definicion));
+    }
+
+    /**
+     * Calcula los totales de los turnos de un periodo desde el almacen en
+     * memoria, cargandolo si hace falta.
+     *
+     * @param desde Primer dia del periodo
+     * @param hasta Ultimo dia del periodo, incluido
+     * @return Los totales del periodo
+     * @throws ServiceException Si el periodo no es valido o no se pueden cargar los turnos
+     */
+    TotalesPeriodo calcularTotales(LocalDate desde, LocalDate hasta) throws ServiceException;
+
+    /**
+     * Igual que {@link #calcularTotales}, pero solo si el almacen ya esta
+     * cargado; nunca consulta la base de datos.
+     *
+     * @return Los totales del periodo, o null si el almacen todavia no se cargo
+     */
+    TotalesPeriodo calcularTotalesEnMemoria(LocalDate desde, LocalDate hasta);
+
+    /**
+     * Calcula los minutos reservados por dia de la semana, hora y tipo de
+     * servicio en las ultimas semanas, hasta hoy inclusive.
+     *
+     * @param semanas Cantidad de semanas hacia atras
+     * @return El mapa de ocupacion del periodo
+     * @throws ServiceException Si la cantidad de semanas no es valida o falla la consulta
+     */
+    MapaOcupacion calcularOcupacion(int semanas) throws ServiceException;
+
+    /**
+     * Vuelve a calcular la ocupacion por hora a partir de los turnos.
+     *
+     * @return Cantidad de filas de ocupacion
+     * @throws ServiceException Si ocurre un error al reconstruir
+     */
+    int reconstruirOcupacion() throws ServiceException;
+}
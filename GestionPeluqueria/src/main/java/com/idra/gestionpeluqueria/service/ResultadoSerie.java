@@ -0,0 +1,49 @@
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.model.Turno;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resultado de crear una serie de turnos: los que se guardaron y las
+ * fechas que se saltearon, cada una con su motivo.
+ *
+ * @author Idra
+ */
+public class ResultadoSerie {
+    private final List<Turno> creados = new ArrayList<>();
+    private final Map<LocalDateTime, String> omitidos = new TreeMap<>();
+
+    /**
+     * @param turno Un turno de la serie que se guardo
+     */
+    public void agregarCreado(Turno turno) {
+        creados.add(turno);
+    }
+
+    /**
+     * @param fechaHora Fecha de la serie que no se reservo
+     * @param motivo Por que no se reservo
+     */
+    public void agregarOmitido(LocalDateTime fechaHora, String motivo) {
+        omitidos.put(fechaHora, motivo);
+    }
+
+    /**
+     * @return Los turnos guardados, en orden
+     */
+    public List<Turno> getCreados() {
+        return Collections.unmodifiableList(creados);
+    }
+
+    /**
+     * @return Las fechas que no se reservaron, con el motivo de cada una
+     */
+    public Map<LocalDateTime, String> getOmitidos() {
+        return Collections.unmodifiableMap(omitidos);
+    }
+}
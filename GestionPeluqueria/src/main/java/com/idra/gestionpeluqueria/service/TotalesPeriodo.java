@@ -0,0 +1,63 @@
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
+import com.idra.gestionpeluqueria.model.enums.FormaPago;
+import com.idra.gestionpeluqueria.model.enums.TipoServicio;
+
+/**
+ * Totales de los turnos de un periodo, calculados por el AlmacenColumnar:
+ * cantidad de turnos por estado y lo cobrado, en total, por tipo de
+ * servicio y por forma de pago. Los importes se acumulan en centavos.
+ *
+ * @author Idra
+ */
+public final class TotalesPeriodo {
+    private final int[] cantidadPorEstado = new int[EstadoTurno.values().length];
+    private final long[] cobradoPorTipo = new long[TipoServicio.values().length];
+    // La ultima posicion es la de los turnos sin forma de pago
+    private final long[] cobradoPorForma = new long[FormaPago.values().length + 1];
+    private int cantidadTurnos;
+    private long cobradoCentavos;
+
+    /** Suma un turno; los indices son los ordinales de sus enumeraciones. */
+    void sumar(int estado, int tipo, int forma, long cobrado) {
+        cantidadTurnos++;
+        cantidadPorEstado[estado]++;
+        cobradoCentavos += cobrado;
+        cobradoPorTipo[tipo] += cobrado;
+        cobradoPorForma[forma < 0 ? cobradoPorForma.length - 1 : forma] += cobrado;
+    }
+
+    public int getCantidadTurnos() {
+        return cantidadTurnos;
+    }
+
+    public int getCantidad(EstadoTurno estado) {
+        return cantidadPorEstado[estado.ordinal()];
+    }
+
+    public double getTotalCobrado() {
+        return cobradoCentavos / 100.0;
+    }
+
+    public double getTotalCobrado(TipoServicio tipo) {
+        return cobradoPorTipo[tipo.ordinal()] / 100.0;
+    }
+
+    /**
+     * @param forma La forma de pago, o null para los turnos sin forma de pago
+     * @return Lo cobrado con esa forma de pago
+     */
+    public double getTotalCobrado(FormaPago forma) {
+        return cobradoPorForma[forma == null ? cobradoPorForma.length - 1 : forma.ordinal()] / 100.0;
+    }
+
+    public long getCobradoCentavos() {
+        return cobradoCentavos;
+    }
+
+    @Override
+    public String toString() {
+        return "TotalesPeriodo{turnos=" + cantidadTurnos + ", cobrado=" + getTotalCobrado() + "}";
+    }
+}
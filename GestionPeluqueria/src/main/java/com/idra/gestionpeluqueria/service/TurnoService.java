@@ -1,96 +1,362 @@
-package com.idra.gestionpeluqueria.service;
-
-import com.idra.gestionpeluqueria.model.Turno;
-import com.idra.gestionpeluqueria.exception.ServiceException;
-import java.time.LocalDate;
-import java.util.List;
-/**
- * Interfaz que define los servicios de negocio para la gestion de turnos.
- * Proporciona metodos para realizar operaciones CRUD, validaciones,
- * consultas y gestion del estado de los turnos de la peluqueria.
- * @author Idra
- */
-public interface TurnoService {
-    /**
-     * Crea un nuevo turno en el sistema.
-     * 
-     * @param turno El turno a crear
-     * @throws ServiceException Si ocurre un error al crear el turno
-     */
-    void crearTurno(Turno turno) throws ServiceException;
-    /**
-     * Busca un turno por su identificador único.
-     * 
-     * @param id El ID del turno a buscar
-     * @return El turno encontrado o null si no existe
-     * @throws ServiceException Si ocurre un error al buscar el turno
-     */
-    Turno buscarTurnoPorId(int id) throws ServiceException;
-    /**
-     * Obtiene todos los turnos registrados en el sistema.
-     * 
-     * @return Lista de todos los turnos
-     * @throws ServiceException Si ocurre un error al obtener los turnos
-     */
-    List<Turno> buscarTodosTurnos() throws ServiceException;
-    /**
-     * Busca todos los turnos agendados para una fecha específica.
-     * 
-     * @param fecha La fecha para buscar turnos
-     * @return Lista de turnos en la fecha especificada
-     * @throws ServiceException Si ocurre un error al buscar los turnos
-     */
-    List<Turno> buscarTurnosPorFecha(LocalDate fecha) throws ServiceException;
-     /**
-     * Busca todos los turnos asociados a un cliente específico.
-     * 
-     * @param clienteId El ID del cliente
-     * @return Lista de turnos del cliente
-     * @throws ServiceException Si ocurre un error al buscar los turnos
-     */
-    List<Turno> buscarTurnosPorCliente(int clienteId) throws ServiceException;
-     /**
-     * Busca turnos que tengan un estado específico.
-     * 
-     * @param estado El estado del turno a buscar
-     * @return Lista de turnos con el estado especificado
-     * @throws ServiceException Si ocurre un error al buscar los turnos
-     */
-    List<Turno> buscarTurnosPorEstado(String estado) throws ServiceException;
-    /**
-     * Actualiza la información de un turno existente.
-     * 
-     * @param turno El turno con la información actualizada
-     * @throws ServiceException Si ocurre un error al actualizar el turno
-     */
-    void actualizarTurno(Turno turno) throws ServiceException;
-    /**
-     * Cancela un turno existente cambiando su estado a CANCELADO.
-     * 
-     * @param id El ID del turno a cancelar
-     * @throws ServiceException Si ocurre un error al cancelar el turno
-     */
-    void cancelarTurno(int id) throws ServiceException;
-     /**
-     * Marca un turno como completado y actualiza el estado de pago.
-     * 
-     * @param id El ID del turno a completar
-     * @throws ServiceException Si ocurre un error al completar el turno
-     */
-    void completarTurno(int id) throws ServiceException;
-    /**
-     * Valida la disponibilidad de un turno verificando que no existan conflictos de horario.
-     * 
-     * @param turno El turno a validar
-     * @return true si hay disponibilidad, false en caso contrario
-     * @throws ServiceException Si ocurre un error durante la validación
-     */
-    boolean validarDisponibilidad(Turno turno) throws ServiceException;
-     /**
-     * Calcula el monto total pagado en el día actual.
-     * 
-     * @return El monto total pagado en el día de hoy
-     * @throws ServiceException Si ocurre un error al calcular el total
-     */
-    double calcularTotalPagadoHoy() throws ServiceException;
+package com.idra.gestionpeluqueria.service;
+
+import com.idra.gestionpeluqueria.model.CambiosTurnos;
+import com.idra.gestionpeluqueria.model.Profesional;
+import com.idra.gestionpeluqueria.model.ReglaRecurrencia;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+/**
+ * Interfaz que define los servicios de negocio para la gestion de turnos.
+ * Proporciona metodos para realizar operaciones CRUD, validaciones,
+ * consultas y gestion del estado de los turnos de la peluqueria.
+ * @author Idra
+ */
+public interface TurnoService {
+    /**
+     * Crea un nuevo turno en el sistema.
+     * 
+     * @param turno El turno a crear
+     * @throws ServiceException Si ocurre un error al crear el turno
+     */
+    void crearTurno(Turno turno) throws ServiceException;
+    /**
+     * Crea una serie de turnos que se repiten segun una regla. Todas las
+     * fechas se verifican juntas y las libres se guardan en un solo lote;
+     * las que estan ocupadas se saltean y se informan en el resultado.
+     * 
+     * @param plantilla El primer turno de la serie; los demas son copias en otras fechas
+     * @param regla Cada cuantas semanas se repite y hasta cuando
+     * @return Los turnos creados y las fechas omitidas con su motivo
+     * @throws ServiceException Si la regla no es valida o falla el guardado
+     */
+    ResultadoSerie crearSerie(Turno plantilla, ReglaRecurrencia regla) throws ServiceException;
+    /**
+     * Busca un turno por su identificador único.
+     * 
+     * @param id El ID del turno a buscar
+     * @return El turno encontrado o null si no existe
+     * @throws ServiceException Si ocurre un error al buscar el turno
+     */
+    Turno buscarTurnoPorId(int id) throws ServiceException;
+    /**
+     * Obtiene todos los turnos registrados en el sistema.
+     * 
+     * @return Lista de todos los turnos
+     * @throws ServiceException Si ocurre un error al obtener los turnos
+     */
+    List<Turno> buscarTodosTurnos() throws ServiceException;
+    /**
+     * Cuenta todos los turnos registrados, sin leerlos.
+     * 
+     * @return Cantidad de turnos
+     * @throws ServiceException Si ocurre un error al contar los turnos
+     */
+    int contarTurnos() throws ServiceException;
+    /**
+     * Busca una pagina del historial de turnos, de los mas recientes a los
+     * mas viejos, empezando despues de un turno ya leido. No usa la cache.
+     * 
+     * @param fechaHora Fecha y hora del ultimo turno leido, o null para empezar por el mas reciente
+     * @param id ID de ese turno
+     * @param saltear Cantidad de turnos a saltear antes de la pagina
+     * @param cantidad Tamaño de la pagina
+     * @return Los turnos de la pagina
+     * @throws ServiceException Si ocurre un error al buscar los turnos
+     */
+    List<Turno> buscarPaginaTurnos(LocalDateTime fechaHora, int id, int saltear, int cantidad) throws ServiceException;
+    /**
+     * Busca un turno de cada tantos del historial, en el orden de
+     * {@link #buscarPaginaTurnos}, para llegar a las paginas lejanas sin
+     * saltear miles de filas.
+     * 
+     * @param cada Cada cuantos turnos se toma uno
+     * @return Los turnos en las posiciones cada, 2 * cada..., solo con su ID y su fecha y hora
+     * @throws ServiceException Si ocurre un error al buscar los turnos
+     */
+    List<Turno> buscarAnclasTurnos(int cada) throws ServiceException;
+    /**
+     * Busca todos los turnos agendados para una fecha específica.
+     * 
+     * @param fecha La fecha para buscar turnos
+     * @return Lista de turnos en la fecha especificada
+     * @throws ServiceException Si ocurre un error al buscar los turnos
+     */
+    List<Turno> buscarTurnosPorFecha(LocalDate fecha) throws ServiceException;
+    /**
+     * Busca los turnos agendados entre dos fechas, ambas incluidas.
+     * 
+     * @param desde Primer dia
+     * @param hasta Ultimo dia
+     * @return Turnos del rango ordenados por fecha y hora
+     * @throws ServiceException Si ocurre un error al buscar los turnos
+     */
+    List<Turno> buscarTurnosPorRango(LocalDate desde, LocalDate hasta) throws ServiceException;
+    /**
+     * Busca los turnos de una fecha creados o modificados desde la consulta
+     * anterior, tambien desde otras terminales. No usa la cache.
+     * 
+     * @param fecha La fecha de los turnos
+     * @param desde Marca de la consulta anterior, o null para traer todo el dia
+     * @return Los turnos cambiados, la marca para la consulta siguiente y los IDs vigentes
+     * @throws ServiceException Si ocurre un error al buscar los turnos
+     */
+    CambiosTurnos buscarCambiosDelDia(LocalDate fecha, LocalDateTime desde) throws ServiceException;
+     /**
+     * Busca todos los turnos asociados a un cliente específico.
+     * 
+     * @param clienteId El ID del cliente
+     * @return Lista de turnos del cliente
+     * @throws ServiceException Si ocurre un error al buscar los turnos
+     */
+    List<Turno> buscarTurnosPorCliente(int clienteId) throws ServiceException;
+     /**
+     * Busca turnos que tengan un estado específico.
+     * 
+     * @param estado El estado del turno a buscar
+     * @return Lista de turnos con el estado especificado
+     * @throws ServiceException Si ocurre un error al buscar los turnos
+     */
+    List<Turno> buscarTurnosPorEstado(String estado) throws ServiceException;
+    /**
+     * Actualiza la información de un turno existente.
+     * Si otra terminal lo modificó desde que se leyó, la causa de la
+     * ServiceException es una ConflictoConcurrenciaException.
+     * 
+     * @param turno El turno con la información actualizada
+     * @throws ServiceException Si ocurre un error al actualizar el turno
+     */
+    void actualizarTurno(Turno turno) throws ServiceException;
+    /**
+     * Cancela un turno existente cambiando su estado a CANCELADO.
+     * 
+     * @param id El ID del turno a cancelar
+     * @throws ServiceException Si ocurre un error al cancelar el turno
+     */
+    void cancelarTurno(int id) throws ServiceException;
+     /**
+     * Marca un turno como completado y actualiza el estado de pago.
+     * 
+     * @param id El ID del turno a completar
+     * @throws ServiceException Si ocurre un error al completar el turno
+     */
+    void completarTurno(int id) throws ServiceException;
+    /**
+     * Valida la disponibilidad de un turno verificando que no existan conflictos de horario.
+     * 
+     * @param turno El turno a validar
+     * @return true si hay disponibilidad, false en caso contrario
+     * @throws ServiceException Si ocurre un error durante la validación
+     */
+    boolean validarDisponibilidad(Turno turno) throws ServiceException;
+    /**
+     * Busca los horarios de inicio libres de un servicio en un dia, dentro del
+     * horario de atencion. Un horario esta libre si el servicio completo
+     * (segun su duracion) no se superpone con otro turno no cancelado del mismo servicio;
+     * si hay profesionales cargados, si al menos uno de ellos puede atenderlo.
+     * 
+     * @param servicioId El ID del servicio
+     * @param fecha El dia a consultar
+     * @param granularidadMinutos Separacion entre los horarios candidatos
+     * @return Los horarios libres, en orden
+     * @throws ServiceException Si el servicio no existe o falla la consulta
+     */
+    default List<LocalTime> buscarHorariosDisponibles(int servicioId, LocalDate fecha, int granularidadMinutos) throws ServiceException {
+        return buscarHorariosDisponibles(servicioId, fecha, granularidadMinutos, 0);
+    }
+    /**
+     * Igual que {@link #buscarHorariosDisponibles(int, LocalDate, int)}, pero sin
+     * contar un turno, para poder reprogramarlo dentro de su propio horario.
+     * 
+     * @param turnoExcluidoId El ID del turno a ignorar, o 0 para no ignorar ninguno
+     */
+    List<LocalTime> buscarHorariosDisponibles(int servicioId, LocalDate fecha, int granularidadMinutos,
+            int turnoExcluidoId) throws ServiceException;
+    /**
+     * Calcula cuantos profesionales podrian atender el servicio en cada
+     * horario candidato del dia. Sin profesionales cargados todos los
+     * horarios tienen capacidad cero.
+     * 
+     * @param servicioId El ID del servicio
+     * @param fecha El dia a consultar
+     * @param granularidadMinutos Separacion entre los horarios candidatos
+     * @param turnoExcluidoId El ID del turno a ignorar, o 0 para no ignorar ninguno
+     * @return Capacidad por horario, en orden
+     * @throws ServiceException Si el servicio no existe o falla la consulta
+     */
+    SortedMap<LocalTime, Integer> calcularCapacidadPorHorario(int servicioId, LocalDate fecha,
+            int granularidadMinutos, int turnoExcluidoId) throws ServiceException;
+    /**
+     * Busca los profesionales que pueden hacer el servicio a partir de un horario:
+     * tienen la especialidad, trabajan durante todo el servicio y estan libres.
+     * 
+     * @param servicioId El ID del servicio
+     * @param fechaHora Inicio del turno
+     * @param turnoExcluidoId El ID del turno a ignorar, o 0 para no ignorar ninguno
+     * @return Los profesionales libres, ordenados por apellido
+     * @throws ServiceException Si el servicio no existe o falla la consulta
+     */
+    List<Profesional> buscarProfesionalesDisponibles(int servicioId, LocalDateTime fechaHora,
+            int turnoExcluidoId) throws ServiceException;
+    
+    /**
+     * Calcula como mover los turnos de un dia, dentro de la tolerancia que
+     * acepto cada cliente, para dejar la menor cantidad de huecos donde no
+     * entra ningun servicio. No modifica nada.
+     * 
+     * @param fecha El dia a reorganizar
+     * @return Los movimientos propuestos; vacia si no hay nada que mejorar
+     * @throws ServiceException Si el dia ya paso o falla la consulta
+     */
+    PropuestaCompactacion proponerCompactacion(LocalDate fecha) throws ServiceException;
+    
+    /**
+     * Aplica todos los movimientos de una propuesta en una sola transaccion.
+     * Si la agenda cambio desde que se calculo, no se aplica ninguno.
+     * 
+     * @param propuesta La propuesta calculada con {@link #proponerCompactacion}
+     * @throws ServiceException Si la agenda cambio o falla el guardado
+     */
+    void aplicarCompactacion(PropuestaCompactacion propuesta) throws ServiceException;
+     /**
+     * Calcula el monto total pagado en el día actual.
+     * 
+     * @return El monto total pagado en el día de hoy
+     * @throws ServiceException Si ocurre un error al calcular el total
+     */
+    double calcularTotalPagadoHoy() throws ServiceException;
+    
+    /**
+     * Calcula el monto total cobrado entre dos fechas, ambas incluidas,
+     * a partir del resumen diario.
+     * 
+     * @param desde Primer dia del periodo
+     * @param hasta Ultimo dia del periodo
+     * @return El total cobrado en el periodo
+     * @throws ServiceException Si el rango no es valido o falla la consulta
+     */
+    double calcularTotalCobrado(LocalDate desde, LocalDate hasta) throws ServiceException;
+    
+    /**
+     * Recalcula el resumen diario de un rango de fechas desde los turnos.
+     * Solo hace falta si se modificaron turnos por fuera de la aplicacion.
+     * 
+     * @param desde Primer dia a reconstruir
+     * @param hasta Ultimo dia a reconstruir
+     * @return Cantidad de filas del resumen que quedaron en el rango
+     * @throws ServiceException Si el rango no es valido o falla la reconstruccion
+     */
+    int reconstruirResumenDiario(LocalDate desde, LocalDate hasta) throws ServiceException;
+    /**
+     * Cambia las notas de un turno sin esperar a la base de datos.
+     * El cambio se escribe en segundo plano mediante la ColaEscrituraDiferida,
+     * y no se aplica si para entonces el turno ya cambio de version.
+     * 
+     * @param turnoId El ID del turno
+     * @param notas Las notas nuevas
+     * @param version La version del turno leida al editarlo
+     * @throws ServiceException Si el cambio no es válido
+     */
+    void actualizarNotasDiferido(int turnoId, String notas, int version) throws ServiceException;
+
+    /**
+     * Variante asincrona de {@link #crearTurno}.
+     */
+    default CompletableFuture<Void> crearTurnoAsync(Turno turno) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> {
+            crearTurno(turno);
+            return null;
+        });
+    }
+
+    /**
+     * Variante asincrona de {@link #buscarTurnoPorId}.
+     */
+    default CompletableFuture<Turno> buscarTurnoPorIdAsync(int id) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> buscarTurnoPorId(id));
+    }
+
+    /**
+     * Variante asincrona de {@link #buscarTodosTurnos}.
+     */
+    default CompletableFuture<List<Turno>> buscarTodosTurnosAsync() {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> buscarTodosTurnos());
+    }
+
+    /**
+     * Variante asincrona de {@link #buscarTurnosPorFecha}.
+     */
+    default CompletableFuture<List<Turno>> buscarTurnosPorFechaAsync(LocalDate fecha) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> buscarTurnosPorFecha(fecha));
+    }
+
+    /**
+     * Variante asincrona de {@link #buscarTurnosPorRango}.
+     */
+    default CompletableFuture<List<Turno>> buscarTurnosPorRangoAsync(LocalDate desde, LocalDate hasta) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> buscarTurnosPorRango(desde, hasta));
+    }
+
+    /**
+     * Variante asincrona de {@link #buscarTurnosPorCliente}.
+     */
+    default CompletableFuture<List<Turno>> buscarTurnosPorClienteAsync(int clienteId) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> buscarTurnosPorCliente(clienteId));
+    }
+
+    /**
+     * Variante asincrona de {@link #buscarTurnosPorEstado}.
+     */
+    default CompletableFuture<List<Turno>> buscarTurnosPorEstadoAsync(String estado) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> buscarTurnosPorEstado(estado));
+    }
+
+    /**
+     * Variante asincrona de {@link #actualizarTurno}.
+     */
+    default CompletableFuture<Void> actualizarTurnoAsync(Turno turno) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> {
+            actualizarTurno(turno);
+            return null;
+        });
+    }
+
+    /**
+     * Variante asincrona de {@link #cancelarTurno}.
+     */
+    default CompletableFuture<Void> cancelarTurnoAsync(int id) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> {
+            cancelarTurno(id);
+            return null;
+        });
+    }
+
+    /**
+     * Variante asincrona de {@link #completarTurno}.
+     */
+    default CompletableFuture<Void> completarTurnoAsync(int id) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> {
+            completarTurno(id);
+            return null;
+        });
+    }
+
+    /**
+     * Variante asincrona de {@link #validarDisponibilidad}.
+     */
+    default CompletableFuture<Boolean> validarDisponibilidadAsync(Turno turno) {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> validarDisponibilidad(turno));
+    }
+
+    /**
+     * Variante asincrona de {@link #calcularTotalPagadoHoy}.
+     */
+    default CompletableFuture<Double> calcularTotalPagadoHoyAsync() {
+        return EjecutorAsincrono.getInstance().ejecutar(() -> calcularTotalPagadoHoy());
+    }
 }
\ No newline at end of file
@@ -1,104 +1,218 @@
-package com.idra.gestionpeluqueria.service.impl;
-
-import com.idra.gestionpeluqueria.dao.ClienteDAO;
-import com.idra.gestionpeluqueria.exception.DAOException;
-import com.idra.gestionpeluqueria.model.Cliente;
-import com.idra.gestionpeluqueria.service.ClienteService;
-import com.idra.gestionpeluqueria.exception.ServiceException;
-import com.idra.gestionpeluqueria.exception.ValidacionException;
-import java.util.List;
-
-/**
- * Implementacion de la interfaz ClienteService.
- * Gestiona la logica de negocio relacionada con clientes,incluyendo
- * validaciones y coordinacion con la capa de acceso a datos.
- * 
- * @author Idra
- */
-public class ClienteServiceImpl implements ClienteService {
-    
-    private ClienteDAO clienteDAO;
-    /**
-     * Constructor que inicializa el servicio con su DAO correspondiente.
-     * 
-     * @param clienteDAO El DAO para operaciones de persistencia de clientes
-     */
-    public ClienteServiceImpl(ClienteDAO clienteDAO) {
-        this.clienteDAO = clienteDAO;
-    }
-    
-    @Override
-    public void crearCliente(Cliente cliente) throws ServiceException {
-        try {
-            if (!validarCliente(cliente)) {
-                throw new ValidacionException("Datos del cliente no válidos");
-            }
-            
-            if (clienteDAO.existeTelefono(cliente.getTelefono())) {
-                throw new ValidacionException("Ya existe un cliente con ese teléfono");
-            }
-            
-            clienteDAO.crear(cliente);
-        } catch (DAOException | ServiceException | ValidacionException e) {
-            throw new ServiceException("Error al crear cliente: " + e.getMessage(), e);
-        }
-    }
-    
-    @Override
-    public Cliente buscarClientePorId(int id) throws ServiceException {
-        try {
-            return clienteDAO.buscarPorId(id);
-        } catch (DAOException e) {
-            throw new ServiceException("Error al buscar cliente por ID: " + e.getMessage(), e);
-        }
-    }
-    
-    @Override
-    public List<Cliente> buscarTodosClientes() throws ServiceException {
-        try {
-            return clienteDAO.buscarTodos();
-        } catch (DAOException e) {
-            throw new ServiceException("Error al buscar todos los clientes: " + e.getMessage(), e);
-        }
-    }
-    
-    @Override
-    public List<Cliente> buscarClientesPorNombre(String nombre) throws ServiceException {
-        try {
-            return clienteDAO.buscarPorNombre(nombre);
-        } catch (DAOException e) {
-            throw new ServiceException("Error al buscar clientes por nombre: " + e.getMessage(), e);
-        }
-    }
-    
-    @Override
-    public void actualizarCliente(Cliente cliente) throws ServiceException {
-        try {
-            if (!validarCliente(cliente)) {
-                throw new ValidacionException("Datos del cliente no válidos");
-            }
-            clienteDAO.actualizar(cliente);
-        } catch (DAOException | ServiceException | ValidacionException e) {
-            throw new ServiceException("Error al actualizar cliente: " + e.getMessage(), e);
-        }
-    }
-    
-    @Override
-    public void eliminarCliente(int id) throws ServiceException {
-        try {
-            clienteDAO.eliminar(id);
-        } catch (DAOException e) {
-            throw new ServiceException("Error al eliminar cliente: " + e.getMessage(), e);
-        }
-    }
-    
-    @Override
-    public boolean validarCliente(Cliente cliente) throws ServiceException {
-        if (cliente == null) return false;
-        if (cliente.getNombre() == null || cliente.getNombre().trim().isEmpty()) return false;
-        if (cliente.getApellido() == null || cliente.getApellido().trim().isEmpty()) return false;
-        if (cliente.getTelefono() == null || cliente.getTelefono().trim().isEmpty()) return false;
-        
-        return true;
-    }
+package com.idra.gestionpeluqueria.service.impl;
+
+import com.idra.gestionpeluqueria.dao.ClienteDAO;
+import com.idra.gestionpeluqueria.dao.MetricasClienteDAO;
+import com.idra.gestionpeluqueria.event.BusEventos;
+import com.idra.gestionpeluqueria.event.ClienteActualizado;
+import com.idra.gestionpeluqueria.event.ClienteCreado;
+import com.idra.gestionpeluqueria.event.ClienteEliminado;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.Cliente;
+import com.idra.gestionpeluqueria.model.MetricasCliente;
+import com.idra.gestionpeluqueria.service.ClienteService;
+import com.idra.gestionpeluqueria.service.ColaEscrituraDiferida;
+import com.idra.gestionpeluqueria.service.ColaEscrituraDiferida.TipoEscritura;
+import com.idra.gestionpeluqueria.util.Validator;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import com.idra.gestionpeluqueria.exception.ValidacionException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementacion de la interfaz ClienteService.
+ * Gestiona la logica de negocio relacionada con clientes,incluyendo
+ * validaciones y coordinacion con la capa de acceso a datos.
+ * 
+ * @author Idra
+ */
+public class ClienteServiceImpl implements ClienteService {
+    
+    private ClienteDAO clienteDAO;
+    private MetricasClienteDAO metricasDAO;
+    
+    // Compartido entre instancias: los controladores crean un servicio por llamada
+    private static final SingleFlight VUELOS = new SingleFlight();
+    /**
+     * Constructor que inicializa el servicio con sus DAOs correspondientes.
+     * 
+     * @param clienteDAO El DAO para operaciones de persistencia de clientes
+     * @param metricasDAO El DAO de las metricas de visitas de cada cliente
+     */
+    public ClienteServiceImpl(ClienteDAO clienteDAO, MetricasClienteDAO metricasDAO) {
+        this.clienteDAO = clienteDAO;
+        this.metricasDAO = metricasDAO;
+    }
+    
+    @Override
+    public void crearCliente(Cliente cliente) throws ServiceException {
+        try {
+            if (!validarCliente(cliente)) {
+                throw new ValidacionException("Datos del cliente no válidos");
+            }
+            
+            if (clienteDAO.existeTelefono(cliente.getTelefono())) {
+                throw new ValidacionException("Ya existe un cliente con ese teléfono");
+            }
+            
+            VUELOS.escribir(() -> clienteDAO.crear(cliente));
+        } catch (DAOException | ServiceException | ValidacionException e) {
+            throw new ServiceException("Error al crear cliente: " + e.getMessage(), e);
+        }
+        BusEventos.getInstance().publicar(new ClienteCreado(cliente));
+    }
+    
+    @Override
+    public Cliente buscarClientePorId(int id) throws ServiceException {
+        try {
+            Cliente cliente = VUELOS.ejecutar("buscarPorId", () -> clienteDAO.buscarPorId(id), id);
+            if (cliente != null) {
+                cliente = aplicarEmailsPendientes(new ArrayList<>(List.of(cliente))).get(0);
+            }
+            return cliente;
+        } catch (DAOException e) {
+            throw new ServiceException("Error al buscar cliente por ID: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public List<Cliente> buscarTodosClientes() throws ServiceException {
+        try {
+            return aplicarEmailsPendientes(new ArrayList<>(VUELOS.ejecutar("buscarTodos", clienteDAO::buscarTodos)));
+        } catch (DAOException e) {
+            throw new ServiceException("Error al buscar todos los clientes: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public List<Cliente> buscarClientesPorNombre(String nombre) throws ServiceException {
+        try {
+            return aplicarEmailsPendientes(new ArrayList<>(VUELOS.ejecutar("buscarPorNombre", () -> clienteDAO.buscarPorNombre(nombre), nombre)));
+        } catch (DAOException e) {
+            throw new ServiceException("Error al buscar clientes por nombre: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public void actualizarCliente(Cliente cliente) throws ServiceException {
+        try {
+            if (!validarCliente(cliente)) {
+                throw new ValidacionException("Datos del cliente no válidos");
+            }
+            // La escritura completa ya incluye el email; un cambio diferido anterior no debe pisarla
+            ColaEscrituraDiferida.getInstance().descartar(TipoEscritura.EMAIL_CLIENTE, cliente.getId());
+            VUELOS.escribir(() -> clienteDAO.actualizar(cliente));
+        } catch (DAOException | ServiceException | ValidacionException e) {
+            throw new ServiceException("Error al actualizar cliente: " + e.getMessage(), e);
+        }
+        BusEventos.getInstance().publicar(new ClienteActualizado(cliente));
+    }
+    
+    @Override
+    public void eliminarCliente(int id) throws ServiceException {
+        try {
+            VUELOS.escribir(() -> clienteDAO.eliminar(id));
+        } catch (DAOException e) {
+            throw new ServiceException("Error al eliminar cliente: " + e.getMessage(), e);
+        }
+        BusEventos.getInstance().publicar(new ClienteEliminado(id));
+    }
+    
+    @Override
+    public boolean validarCliente(Cliente cliente) throws ServiceException {
+        if (cliente == null) return false;
+        if (cliente.getNombre() == null || cliente.getNombre().trim().isEmpty()) return false;
+        if (cliente.getApellido() == null || cliente.getApellido().trim().isEmpty()) return false;
+        if (cliente.getTelefono() == null || cliente.getTelefono().trim().isEmpty()) return false;
+        
+        return true;
+    }
+    
+    @Override
+    public void actualizarEmailDiferido(int clienteId, String email) throws ServiceException {
+        String valor = email != null && !email.trim().isEmpty() ? email.trim() : null;
+        if (valor != null && !Validator.isValidEmail(valor)) {
+            throw new ServiceException("Error al actualizar email: el email no es válido");
+        }
+        ColaEscrituraDiferida.getInstance().encolar(TipoEscritura.EMAIL_CLIENTE, clienteId, valor);
+        
+        // La lectura ya refleja el email encolado; si falla, el cambio igual quedo aceptado
+        try {
+            Cliente cliente = buscarClientePorId(clienteId);
+            if (cliente != null) {
+                BusEventos.getInstance().publicar(new ClienteActualizado(cliente));
+            }
+        } catch (ServiceException e) {
+            System.err.println("No se pudo informar el cambio de email del cliente " + clienteId + ": " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public MetricasCliente obtenerMetricas(int clienteId) throws ServiceException {
+        try {
+            return metricasDAO.buscarPorCliente(clienteId);
+        } catch (DAOException e) {
+            throw new ServiceException("Error al obtener las métricas del cliente: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public List<MetricasCliente> obtenerMejoresClientes(int limite) throws ServiceException {
+        try {
+            validarLimite(limite);
+            return metricasDAO.buscarMejores(limite);
+        } catch (DAOException | ValidacionException e) {
+            throw new ServiceException("Error al obtener los mejores clientes: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public List<MetricasCliente> obtenerClientesAusentes(int diasSinVenir, int limite) throws ServiceException {
+        try {
+            validarLimite(limite);
+            if (diasSinVenir < 1) {
+                throw new ValidacionException("Los días sin venir deben ser al menos 1");
+            }
+            return metricasDAO.buscarAusentes(LocalDate.now().minusDays(diasSinVenir), limite);
+        } catch (DAOException | ValidacionException e) {
+            throw new ServiceException("Error al obtener los clientes ausentes: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public int reconstruirMetricas() throws ServiceException {
+        try {
+            return metricasDAO.reconstruir();
+        } catch (DAOException e) {
+            throw new ServiceException("Error al reconstruir las métricas de clientes: " + e.getMessage(), e);
+        }
+    }
+    
+    private static void validarLimite(int limite) throws ValidacionException {
+        if (limite < 1) {
+            throw new ValidacionException("La cantidad de clientes debe ser al menos 1");
+        }
+    }
+    
+    /**
+     * Muestra en los clientes leidos los emails que todavia estan en la cola
+     * de escritura diferida, para que la interfaz no vuelva al valor anterior.
+     * Los clientes con email pendiente se reemplazan en la lista por copias:
+     * los leidos son los de la cache, compartidos con otros lectores.
+     */
+    private List<Cliente> aplicarEmailsPendientes(List<Cliente> clientes) {
+        Map<Integer, String> pendientes = ColaEscrituraDiferida.getInstance().pendientes(TipoEscritura.EMAIL_CLIENTE);
+        if (!pendientes.isEmpty()) {
+            clientes.replaceAll(cliente -> {
+                if (!pendientes.containsKey(cliente.getId())) {
+                    return cliente;
+                }
+                Cliente copia = new Cliente(cliente);
+                copia.setEmail(pendientes.get(cliente.getId()));
+                return copia;
+            });
+        }
+        return clientes;
+    }
 }
\ No newline at end of file
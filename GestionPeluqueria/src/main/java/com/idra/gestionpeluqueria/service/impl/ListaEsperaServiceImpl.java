@@ -0,0 +1,214 @@
+package com.idra.gestionpeluqueria.service.impl;
+
+import com.idra.gestionpeluqueria.dao.ListaEsperaDAO;
+import com.idra.gestionpeluqueria.event.BusEventos;
+import com.idra.gestionpeluqueria.event.OfertaListaEspera;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import com.idra.gestionpeluqueria.exception.ValidacionException;
+import com.idra.gestionpeluqueria.model.Servicio;
+import com.idra.gestionpeluqueria.model.SolicitudEspera;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.model.enums.EstadoEspera;
+import com.idra.gestionpeluqueria.service.EmparejadorEspera;
+import com.idra.gestionpeluqueria.service.ListaEsperaService;
+import com.idra.gestionpeluqueria.service.TurnoService;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementacion de la interfaz ListaEsperaService.
+ * Las solicitudes se buscan con el EmparejadorEspera; la base de datos solo
+ * se usa para guardar los cambios de estado.
+ *
+ * @author Idra
+ */
+public class ListaEsperaServiceImpl implements ListaEsperaService {
+
+    // Limita cuantos dias anota cada solicitud en el indice
+    private static final int MAX_DIAS_VENTANA = Integer.getInteger("gestionpeluqueria.espera.maxDias", 60);
+
+    private final ListaEsperaDAO listaEsperaDAO;
+    private final EmparejadorEspera emparejador;
+    private final TurnoService turnoService;
+
+    /**
+     * Constructor que inicializa el servicio con sus dependencias.
+     *
+     * @param listaEsperaDAO El DAO de la lista de espera
+     * @param emparejador Indice compartido de solicitudes pendientes
+     * @param turnoService Servicio con el que se reservan los turnos ofrecidos
+     */
+    public ListaEsperaServiceImpl(ListaEsperaDAO listaEsperaDAO, EmparejadorEspera emparejador,
+                                  TurnoService turnoService) {
+        this.listaEsperaDAO = listaEsperaDAO;
+        this.emparejador = emparejador;
+        this.turnoService = turnoService;
+    }
+
+    @Override
+    public void registrarSolicitud(SolicitudEspera solicitud) throws ServiceException {
+        try {
+            validarSolicitud(solicitud);
+            solicitud.setEstado(EstadoEspera.PENDIENTE);
+            solicitud.setFechaHoraOfrecida(null);
+            solicitud.setFechaRegistro(LocalDateTime.now());
+            listaEsperaDAO.crear(solicitud);
+        } catch (Exception e) {
+            throw new ServiceException("Error al registrar solicitud de espera: " + e.getMessage(), e);
+        }
+        emparejador.agregar(solicitud);
+    }
+
+    @Override
+    public List<SolicitudEspera> buscarSolicitudesVigentes() throws ServiceException {
+        try {
+            return listaEsperaDAO.buscarVigentes();
+        } catch (DAOException e) {
+            throw new ServiceException("Error al buscar la lista de espera: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Turno aceptarOferta(int solicitudId) throws ServiceException {
+        SolicitudEspera solicitud = buscarConOferta(solicitudId);
+        Turno turno = new Turno(solicitud.getCliente(), solicitud.getServicio(), solicitud.getFechaHoraOfrecida());
+        turno.setNotas("Desde lista de espera");
+        try {
+            turnoService.crearTurno(turno);
+        } catch (ServiceException e) {
+            // Alguien reservo el horario antes: la solicitud sigue esperando
+            volverAEsperar(solicitud);
+            throw new ServiceException("El horario ofrecido ya no está disponible: " + e.getMessage(), e);
+        }
+        solicitud.setEstado(EstadoEspera.ASIGNADA);
+        guardar(List.of(solicitud));
+        return turno;
+    }
+
+    @Override
+    public void rechazarOferta(int solicitudId) throws ServiceException {
+        SolicitudEspera solicitud = buscarConOferta(solicitudId);
+        LocalDateTime horario = solicitud.getFechaHoraOfrecida();
+        // Se ofrece antes de reindexar la solicitud para no volver a elegirla
+        ofrecerLiberado(solicitud.getServicio(), horario);
+        volverAEsperar(solicitud);
+    }
+
+    @Override
+    public void quitarSolicitud(int solicitudId) throws ServiceException {
+        SolicitudEspera solicitud = buscarExistente(solicitudId);
+        boolean teniaOferta = solicitud.getEstado() == EstadoEspera.OFRECIDA;
+        LocalDateTime horario = solicitud.getFechaHoraOfrecida();
+        emparejador.quitar(solicitudId);
+        solicitud.setEstado(EstadoEspera.CANCELADA);
+        guardar(List.of(solicitud));
+        if (teniaOferta) {
+            ofrecerLiberado(solicitud.getServicio(), horario);
+        }
+    }
+
+    @Override
+    public List<SolicitudEspera> procesarCancelaciones(List<Turno> cancelados) throws ServiceException {
+        List<SolicitudEspera> ofertas = new ArrayList<>();
+        LocalDateTime ahora = LocalDateTime.now();
+        try {
+            for (Turno turno : cancelados) {
+                if (turno.getFechaHora() == null || !turno.getFechaHora().isAfter(ahora)) {
+                    continue;
+                }
+                Servicio servicio = turno.getServicio();
+                SolicitudEspera elegida = emparejador.emparejar(
+                    servicio.getId(), turno.getFechaHora(), servicio.getDuracionMinutos());
+                if (elegida != null) {
+                    elegida.setEstado(EstadoEspera.OFRECIDA);
+                    elegida.setFechaHoraOfrecida(turno.getFechaHora());
+                    ofertas.add(elegida);
+                }
+            }
+            listaEsperaDAO.actualizarEstadoEnLote(ofertas);
+        } catch (DAOException e) {
+            for (SolicitudEspera solicitud : ofertas) {
+                solicitud.setEstado(EstadoEspera.PENDIENTE);
+                solicitud.setFechaHoraOfrecida(null);
+                emparejador.agregar(solicitud);
+            }
+            throw new ServiceException("Error al ofrecer turnos de la lista de espera: " + e.getMessage(), e);
+        }
+        for (SolicitudEspera solicitud : ofertas) {
+            BusEventos.getInstance().publicar(new OfertaListaEspera(solicitud));
+        }
+        return ofertas;
+    }
+
+    /**
+     * Valida los datos de una solicitud nueva.
+     *
+     * @param solicitud La solicitud a validar
+     * @throws ValidacionException Si algun dato no es valido
+     */
+    private void validarSolicitud(SolicitudEspera solicitud) throws ValidacionException {
+        if (solicitud == null || solicitud.getCliente() == null || solicitud.getServicio() == null) {
+            throw new ValidacionException("La solicitud debe tener cliente y servicio");
+        }
+        if (solicitud.getFechaDesde() == null || solicitud.getFechaHasta() == null
+                || solicitud.getHoraDesde() == null || solicitud.getHoraHasta() == null) {
+            throw new ValidacionException("La solicitud debe tener fechas y horarios");
+        }
+        if (solicitud.getFechaHasta().isBefore(solicitud.getFechaDesde())
+                || solicitud.getFechaHasta().isBefore(LocalDate.now())) {
+            throw new ValidacionException("El rango de fechas no es válido");
+        }
+        if (ChronoUnit.DAYS.between(solicitud.getFechaDesde(), solicitud.getFechaHasta()) >= MAX_DIAS_VENTANA) {
+            throw new ValidacionException("El rango de fechas no puede superar " + MAX_DIAS_VENTANA + " días");
+        }
+        long minutos = ChronoUnit.MINUTES.between(solicitud.getHoraDesde(), solicitud.getHoraHasta());
+        if (minutos < solicitud.getServicio().getDuracionMinutos()) {
+            throw new ValidacionException("La franja horaria es más corta que el servicio");
+        }
+    }
+
+    private SolicitudEspera buscarExistente(int solicitudId) throws ServiceException {
+        SolicitudEspera solicitud;
+        try {
+            solicitud = listaEsperaDAO.buscarPorId(solicitudId);
+        } catch (DAOException e) {
+            throw new ServiceException("Error al buscar solicitud de espera: " + e.getMessage(), e);
+        }
+        if (solicitud == null) {
+            throw new ServiceException("La solicitud de espera no existe");
+        }
+        return solicitud;
+    }
+
+    private SolicitudEspera buscarConOferta(int solicitudId) throws ServiceException {
+        SolicitudEspera solicitud = buscarExistente(solicitudId);
+        if (solicitud.getEstado() != EstadoEspera.OFRECIDA || solicitud.getFechaHoraOfrecida() == null) {
+            throw new ServiceException("La solicitud no tiene un horario ofrecido");
+        }
+        return solicitud;
+    }
+
+    private void volverAEsperar(SolicitudEspera solicitud) throws ServiceException {
+        solicitud.setEstado(EstadoEspera.PENDIENTE);
+        solicitud.setFechaHoraOfrecida(null);
+        guardar(List.of(solicitud));
+        emparejador.agregar(solicitud);
+    }
+
+    private void ofrecerLiberado(Servicio servicio, LocalDateTime horario) throws ServiceException {
+        Turno liberado = new Turno(null, servicio, horario);
+        procesarCancelaciones(List.of(liberado));
+    }
+
+    private void guardar(List<SolicitudEspera> solicitudes) throws ServiceException {
+        try {
+            listaEsperaDAO.actualizarEstadoEnLote(solicitudes);
+        } catch (DAOException e) {
+            throw new ServiceException("Error al guardar solicitud de espera: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.idra.gestionpeluqueria.service.impl;
+
+import com.idra.gestionpeluqueria.dao.ProfesionalDAO;
+import com.idra.gestionpeluqueria.event.BusEventos;
+import com.idra.gestionpeluqueria.event.ProfesionalModificado;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import com.idra.gestionpeluqueria.exception.ValidacionException;
+import com.idra.gestionpeluqueria.model.HorarioLaboral;
+import com.idra.gestionpeluqueria.model.Profesional;
+import com.idra.gestionpeluqueria.service.ProfesionalService;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementacion de la interfaz ProfesionalService.
+ * Valida los datos de los profesionales y avisa por el bus de eventos cada
+ * vez que cambia el plantel, para que la disponibilidad se recalcule.
+ *
+ * @author Idra
+ */
+public class ProfesionalServiceImpl implements ProfesionalService {
+
+    private final ProfesionalDAO profesionalDAO;
+
+    // Compartido entre instancias: los controladores crean un servicio por llamada
+    private static final SingleFlight VUELOS = new SingleFlight();
+
+    /**
+     * Constructor que inicializa el servicio con su DAO correspondiente.
+     *
+     * @param profesionalDAO El DAO para operaciones de persistencia de profesionales
+     */
+    public ProfesionalServiceImpl(ProfesionalDAO profesionalDAO) {
+        this.profesionalDAO = profesionalDAO;
+    }
+
+    @Override
+    public void crearProfesional(Profesional profesional) throws ServiceException {
+        try {
+            if (!validarProfesional(profesional)) {
+                throw new ValidacionException("Datos del profesional no válidos");
+            }
+            VUELOS.escribir(() -> profesionalDAO.crear(profesional));
+        } catch (Exception e) {
+            throw new ServiceException("Error al crear profesional: " + e.getMessage(), e);
+        }
+        BusEventos.getInstance().publicar(new ProfesionalModificado(profesional.getId()));
+    }
+
+    @Override
+    public Profesional buscarProfesionalPorId(int id) throws ServiceException {
+        try {
+            return VUELOS.ejecutar("buscarPorId", () -> profesionalDAO.buscarPorId(id), id);
+        } catch (Exception e) {
+            throw new ServiceException("Error al buscar profesional por ID: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Profesional> buscarTodosProfesionales() throws ServiceException {
+        try {
+            return new ArrayList<>(VUELOS.ejecutar("buscarTodos", profesionalDAO::buscarTodos));
+        } catch (Exception e) {
+            throw new ServiceException("Error al buscar todos los profesionales: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Profesional> buscarProfesionalesActivos() throws ServiceException {
+        try {
+            return new ArrayList<>(VUELOS.ejecutar("buscarActivos", profesionalDAO::buscarActivos));
+        } catch (Exception e) {
+            throw new ServiceException("Error al buscar profesionales activos: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void actualizarProfesional(Profesional profesional) throws ServiceException {
+        try {
+            if (!validarProfesional(profesional)) {
+                throw new ValidacionException("Datos del profesional no válidos");
+            }
+            VUELOS.escribir(() -> profesionalDAO.actualizar(profesional));
+        } catch (Exception e) {
+            throw new ServiceException("Error al actualizar profesional: " + e.getMessage(), e);
+        }
+        BusEventos.getInstance().publicar(new ProfesionalModificado(profesional.getId()));
+    }
+
+    @Override
+    public void eliminarProfesional(int id) throws ServiceException {
+        try {
+            VUELOS.escribir(() -> profesionalDAO.eliminar(id));
+        } catch (Exception e) {
+            throw new ServiceException("Error al eliminar profesional: " + e.getMessage(), e);
+        }
+        BusEventos.getInstance().publicar(new ProfesionalModificado(id));
+    }
+
+    @Override
+    public boolean validarProfesional(Profesional profesional) {
+        if (profesional == null) return false;
+        if (profesional.getNombre() == null || profesional.getNombre().trim().isEmpty()) return false;
+        if (profesional.getApellido() == null || profesional.getApellido().trim().isEmpty()) return false;
+        for (HorarioLaboral horario : profesional.getHorarios()) {
+            if (horario.getDiaSemana() == null || horario.getHoraInicio() == null || horario.getHoraFin() == null) return false;
+            if (!horario.getHoraInicio().isBefore(horario.getHoraFin())) return false;
+        }
+        return true;
+    }
+}
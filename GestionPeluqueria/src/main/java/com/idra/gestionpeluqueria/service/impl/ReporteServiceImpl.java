@@ -0,0 +1,132 @@
+package com.idra.gestionpeluqueria.service.impl;
+
+import com.idra.gestionpeluqueria.dao.OcupacionDAO;
+import com.idra.gestionpeluqueria.dao.ReporteDAO;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import com.idra.gestionpeluqueria.exception.ValidacionException;
+import com.idra.gestionpeluqueria.model.DefinicionReporte;
+import com.idra.gestionpeluqueria.model.FilaReporte;
+import com.idra.gestionpeluqueria.model.MapaOcupacion;
+import com.idra.gestionpeluqueria.service.AlmacenColumnar;
+import com.idra.gestionpeluqueria.service.EjecutorReportes;
+import com.idra.gestionpeluqueria.service.ReporteService;
+import com.idra.gestionpeluqueria.service.TotalesPeriodo;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementacion de la interfaz ReporteService. Los reportes los agrupa la
+ * base de datos, mes por mes y en paralelo cuando el periodo abarca varios;
+ * los totales se calculan sobre el AlmacenColumnar y la ocupacion sale de
+ * la tabla que la acumula por hora. El servicio valida los periodos.
+ *
+ * @author Idra
+ */
+public class ReporteServiceImpl implements ReporteService {
+
+    private final ReporteDAO reporteDAO;
+    private final EjecutorReportes ejecutor;
+    private final AlmacenColumnar almacen;
+    private final OcupacionDAO ocupacionDAO;
+
+    /**
+     * Constructor que inicializa el servicio con sus dependencias.
+     *
+     * @param reporteDAO El DAO de reportes
+     * @param ejecutor Genera en paralelo los reportes de varios meses
+     * @param almacen Los turnos en memoria, para los totales
+     * @param ocupacionDAO El DAO de la ocupacion por hora
+     */
+    public ReporteServiceImpl(ReporteDAO reporteDAO, EjecutorReportes ejecutor, AlmacenColumnar almacen,
+                              OcupacionDAO ocupacionDAO) {
+        this.reporteDAO = reporteDAO;
+        this.ejecutor = ejecutor;
+        this.almacen = almacen;
+        this.ocupacionDAO = ocupacionDAO;
+    }
+
+    @Override
+    public List<FilaReporte> generar(DefinicionReporte definicion) throws ServiceException {
+        try {
+            validarDefinicion(definicion);
+            if (abarcaVariosMeses(definicion)) {
+                return ejecutor.generar(definicion);
+            }
+            return reporteDAO.agrupar(definicion);
+        } catch (DAOException | ValidacionException e) {
+            throw new ServiceException("Error al generar el reporte: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<FilaReporte>> generarAsync(DefinicionReporte definicion) {
+        try {
+            validarDefinicion(definicion);
+        } catch (ValidacionException e) {
+            return CompletableFuture.failedFuture(
+                new ServiceException("Error al generar el reporte: " + e.getMessage(), e));
+        }
+        // Tambien un solo mes pasa por el ejecutor, para que se pueda cancelar
+        return ejecutor.ejecutar(definicion);
+    }
+
+    private static boolean abarcaVariosMeses(DefinicionReporte definicion) {
+        return definicion.getDesde().getYear() != definicion.getHasta().getYear()
+            || definicion.getDesde().getMonth() != definicion.getHasta().getMonth();
+    }
+
+    @Override
+    public TotalesPeriodo calcularTotales(LocalDate desde, LocalDate hasta) throws ServiceException {
+        try {
+            validarPeriodo(desde, hasta);
+            return almacen.totales(desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay());
+        } catch (DAOException | ValidacionException e) {
+            throw new ServiceException("Error al calcular los totales: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public TotalesPeriodo calcularTotalesEnMemoria(LocalDate desde, LocalDate hasta) {
+        return almacen.totalesEnMemoria(desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay());
+    }
+
+    @Override
+    public MapaOcupacion calcularOcupacion(int semanas) throws ServiceException {
+        try {
+            if (semanas <= 0) {
+                throw new ValidacionException("La cantidad de semanas debe ser mayor a cero");
+            }
+            LocalDate hoy = LocalDate.now();
+            return ocupacionDAO.buscarPorRango(hoy.minusWeeks(semanas).plusDays(1), hoy);
+        } catch (DAOException | ValidacionException e) {
+            throw new ServiceException("Error al calcular la ocupación: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int reconstruirOcupacion() throws ServiceException {
+        try {
+            return ocupacionDAO.reconstruir();
+        } catch (DAOException e) {
+            throw new ServiceException("Error al reconstruir la ocupación: " + e.getMessage(), e);
+        }
+    }
+
+    private static void validarDefinicion(DefinicionReporte definicion) throws ValidacionException {
+        if (definicion == null || definicion.getAgrupacion() == null) {
+            throw new ValidacionException("Debe elegir cómo agrupar el reporte");
+        }
+        validarPeriodo(definicion.getDesde(), definicion.getHasta());
+    }
+
+    private static void validarPeriodo(LocalDate desde, LocalDate hasta) throws ValidacionException {
+        if (desde == null || hasta == null) {
+            throw new ValidacionException("El período debe tener fecha de inicio y de fin");
+        }
+        if (hasta.isBefore(desde)) {
+            throw new ValidacionException("La fecha de fin no puede ser anterior a la de inicio");
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.idra.gestionpeluqueria.service.impl;
+
+import com.idra.gestionpeluqueria.exception.DAOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Agrupa llamadas identicas y simultaneas a la capa de datos.
+ * Si una consulta con el mismo metodo y argumentos ya esta en curso, la
+ * nueva llamada espera su resultado en lugar de lanzar otra consulta.
+ * Al terminar la consulta se quita de la tabla antes de entregar el
+ * resultado, de modo que una llamada posterior siempre consulta de nuevo.
+ *
+ * Las escrituras del servicio pasan por {@link #escribir}, que cuenta las
+ * terminadas. Una llamada solo se une a una consulta que empezo despues de
+ * la ultima escritura terminada que vio; si no, consulta de nuevo, y asi
+ * quien acaba de escribir nunca recibe un resultado leido antes de su
+ * escritura.
+ *
+ * @author Idra
+ */
+class SingleFlight {
+
+    /**
+     * Llamada a la capa de datos que puede compartirse.
+     *
+     * @param <T> Tipo del resultado
+     */
+    @FunctionalInterface
+    interface Llamada<T> {
+        T ejecutar() throws DAOException;
+    }
+
+    /**
+     * Escritura en la capa de datos.
+     */
+    @FunctionalInterface
+    interface Escritura {
+        void ejecutar() throws DAOException;
+    }
+
+    private final ConcurrentHashMap<List<Object>, Vuelo> enVuelo = new ConcurrentHashMap<>();
+    private final AtomicLong compartidas = new AtomicLong();
+    private final AtomicLong escrituras = new AtomicLong();
+
+    /**
+     * Ejecuta la llamada, o se une a una identica que ya este en curso.
+     *
+     * @param <T> Tipo del resultado
+     * @param metodo Nombre del metodo, parte de la clave
+     * @param llamada La consulta a ejecutar
+     * @param args Argumentos de la consulta, parte de la clave
+     * @return El resultado de la consulta, compartido con las demas llamadas agrupadas
+     * @throws DAOException Si la consulta falla
+     */
+    @SuppressWarnings("unchecked")
+    <T> T ejecutar(String metodo, Llamada<T> llamada, Object... args) throws DAOException {
+        List<Object> clave = new ArrayList<>(args.length + 1);
+        clave.add(metodo);
+        clave.addAll(Arrays.asList(args));
+
+        Vuelo propio = new Vuelo(escrituras.get());
+        while (true) {
+            Vuelo existente = enVuelo.putIfAbsent(clave, propio);
+            if (existente == null) {
+                break;
+            }
+            if (existente.escriturasAlEmpezar >= propio.escriturasAlEmpezar) {
+                compartidas.incrementAndGet();
+                return (T) esperar(existente.resultado);
+            }
+            // Empezo antes de una escritura ya terminada: las siguientes llamadas se unen a la nueva consulta
+            if (enVuelo.replace(clave, existente, propio)) {
+                break;
+            }
+        }
+
+        try {
+            T resultado = llamada.ejecutar();
+            enVuelo.remove(clave, propio);
+            propio.resultado.complete(resultado);
+            return resultado;
+        } catch (DAOException | RuntimeException | Error e) {
+            enVuelo.remove(clave, propio);
+            propio.resultado.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Ejecuta una escritura y la cuenta al terminar, aunque falle, para que
+     * las llamadas posteriores no se unan a consultas empezadas antes.
+     *
+     * @param escritura La escritura a ejecutar
+     * @throws DAOException Si la escritura falla
+     */
+    void escribir(Escritura escritura) throws DAOException {
+        try {
+            escritura.ejecutar();
+        } finally {
+            escrituras.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return Cantidad de llamadas que se resolvieron uniendose a otra en curso
+     */
+    long getLlamadasCompartidas() {
+        return compartidas.get();
+    }
+
+    private static Object esperar(CompletableFuture<Object> futuro) throws DAOException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DAOException("Consulta interrumpida mientras esperaba un resultado compartido", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            if (causa instanceof Error) {
+                throw (Error) causa;
+            }
+            throw new DAOException(causa.getMessage(), causa);
+        }
+    }
+
+    /**
+     * Consulta en curso y cantidad de escrituras terminadas cuando empezo.
+     */
+    private static class Vuelo {
+        final CompletableFuture<Object> resultado = new CompletableFuture<>();
+        final long escriturasAlEmpezar;
+
+        Vuelo(long escriturasAlEmpezar) {
+            this.escriturasAlEmpezar = escriturasAlEmpezar;
+        }
+    }
+}
@@ -1,153 +1,802 @@
-package com.idra.gestionpeluqueria.service.impl;
-
-import com.idra.gestionpeluqueria.dao.TurnoDAO;
-import com.idra.gestionpeluqueria.model.Turno;
-import com.idra.gestionpeluqueria.service.TurnoService;
-import com.idra.gestionpeluqueria.exception.ServiceException;
-import com.idra.gestionpeluqueria.exception.ValidacionException;
-import com.idra.gestionpeluqueria.exception.DAOException;
-import com.idra.gestionpeluqueria.model.enums.EstadoPago;
-import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
-import java.time.LocalDate;
-import java.util.List;
-/**
- * Implementacion de la interfaz TurnoService.
- * Gestiona la logica de negocio relacionada con turnos, incluyendo
- * validaciones de disponibilidad,cambios de estado y calculos financieros.
- * 
- * @author Franco
- */
-public class TurnoServiceImpl implements TurnoService {
-    
-    private TurnoDAO turnoDAO;
-    /**
-     * Constructor que inicializa el servicio con su DAO correspondiente.
-     * 
-     * @param turnoDAO El DAO para operaciones de persistencia de turnos
-     */
-    public TurnoServiceImpl(TurnoDAO turnoDAO) {
-        this.turnoDAO = turnoDAO;
-    }
-    
-    @Override
-    public void crearTurno(Turno turno) throws ServiceException {
-        try {
-            if (!validarDisponibilidad(turno)) {
-                throw new ValidacionException("No hay disponibilidad para ese horario");
-            }
-            turnoDAO.crear(turno);
-        } catch (DAOException | ValidacionException e) {
-            throw new ServiceException("Error al crear turno: " + e.getMessage(), e);
-        }
-    }
-    
-    @Override
-    public Turno buscarTurnoPorId(int id) throws ServiceException {
-        try {
-            return turnoDAO.buscarPorId(id);
-        } catch (DAOException e) {
-            throw new ServiceException("Error al buscar turno por ID: " + e.getMessage(), e);
-        }
-    }
-    
-    @Override
-    public List<Turno> buscarTodosTurnos() throws ServiceException {
-        try {
-            return turnoDAO.buscarTodos();
-        } catch (DAOException e) {
-            throw new ServiceException("Error al buscar todos los turnos: " + e.getMessage(), e);
-        }
-    }
-    
-    @Override
-    public List<Turno> buscarTurnosPorFecha(LocalDate fecha) throws ServiceException {
-        try {
-            return turnoDAO.buscarPorFecha(fecha);
-        } catch (DAOException e) {
-            throw new ServiceException("Error al buscar turnos por fecha: " + e.getMessage(), e);
-        }
-    }
-    
-    @Override
-    public List<Turno> buscarTurnosPorCliente(int clienteId) throws ServiceException {
-        try {
-            return turnoDAO.buscarPorCliente(clienteId);
-        } catch (DAOException e) {
-            throw new ServiceException("Error al buscar turnos por cliente: " + e.getMessage(), e);
-        }
-    }
-    
-    @Override
-    public List<Turno> buscarTurnosPorEstado(String estado) throws ServiceException {
-        try {
-            return turnoDAO.buscarPorEstado(estado);
-        } catch (DAOException e) {
-            throw new ServiceException("Error al buscar turnos por estado: " + e.getMessage(), e);
-        }
-    }
-    
-    @Override
-    public void actualizarTurno(Turno turno) throws ServiceException {
-        try {
-            turnoDAO.actualizar(turno);
-        } catch (DAOException e) {
-            throw new ServiceException("Error al actualizar turno: " + e.getMessage(), e);
-        }
-    }
-    
-   @Override
-public void completarTurno(int id) throws ServiceException {
-    try {
-        Turno turno = turnoDAO.buscarPorId(id);
-        if (turno != null) {
-            turno.setEstado(EstadoTurno.COMPLETADO);
-            turno.setEstadoPago(EstadoPago.PAGADO);
-            turno.setMontoPagado(turno.getServicio().getPrecio());
-            turnoDAO.actualizar(turno);
-        } else {
-            throw new ServiceException("Turno no encontrado con ID: " + id);
-        }
-    } catch (DAOException e) {
-        throw new ServiceException("Error al completar turno: " + e.getMessage(), e);
-    }
-}
-
-@Override
-public void cancelarTurno(int id) throws ServiceException {
-    try {
-        Turno turno = turnoDAO.buscarPorId(id);
-        if (turno != null) {
-            turno.setEstado(EstadoTurno.CANCELADO);
-            turnoDAO.actualizar(turno);
-        } else {
-            throw new ServiceException("Turno no encontrado con ID: " + id);
-        }
-    } catch (DAOException e) {
-        throw new ServiceException("Error al cancelar turno: " + e.getMessage(), e);
-    }
-}
-    @Override
-    public boolean validarDisponibilidad(Turno turno) throws ServiceException {
-        try {
-            return !turnoDAO.existeTurnoEnFechaHora(
-                turno.getServicio().getId(), 
-                turno.getFechaHora()
-            );
-        } catch (DAOException e) {
-            throw new ServiceException("Error al validar disponibilidad: " + e.getMessage(), e);
-        }
-    }
-    
-    @Override
-    public double calcularTotalPagadoHoy() throws ServiceException {
-        try {
-            List<Turno> turnosHoy = turnoDAO.buscarPorFecha(LocalDate.now());
-            return turnosHoy.stream()
-                .filter(turno -> turno.getEstadoPago() == EstadoPago.PAGADO)
-                .mapToDouble(turno -> turno.getMontoPagado())
-                .sum();
-        } catch (DAOException e) {
-            throw new ServiceException("Error al calcular total pagado hoy: " + e.getMessage(), e);
-        }
-    }
+package com.idra.gestionpeluqueria.service.impl;
+
+import com.idra.gestionpeluqueria.dao.ResumenDiarioDAO;
+import com.idra.gestionpeluqueria.dao.ServicioDAO;
+import com.idra.gestionpeluqueria.dao.TurnoDAO;
+import com.idra.gestionpeluqueria.event.BusEventos;
+import com.idra.gestionpeluqueria.event.EventoTurno;
+import com.idra.gestionpeluqueria.event.PagoRegistrado;
+import com.idra.gestionpeluqueria.event.TurnoActualizado;
+import com.idra.gestionpeluqueria.event.TurnoCancelado;
+import com.idra.gestionpeluqueria.event.TurnoCreado;
+import com.idra.gestionpeluqueria.model.CambiosTurnos;
+import com.idra.gestionpeluqueria.model.HorarioLaboral;
+import com.idra.gestionpeluqueria.model.Profesional;
+import com.idra.gestionpeluqueria.model.ReglaRecurrencia;
+import com.idra.gestionpeluqueria.model.Servicio;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.service.ColaEscrituraDiferida;
+import com.idra.gestionpeluqueria.service.CompactadorAgenda;
+import com.idra.gestionpeluqueria.service.ColaEscrituraDiferida.TipoEscritura;
+import com.idra.gestionpeluqueria.service.GestorBloqueosFranja;
+import com.idra.gestionpeluqueria.service.MotorDisponibilidad;
+import com.idra.gestionpeluqueria.service.PropuestaCompactacion;
+import com.idra.gestionpeluqueria.service.ResultadoSerie;
+import com.idra.gestionpeluqueria.service.TurnoService;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import com.idra.gestionpeluqueria.exception.ValidacionException;
+import com.idra.gestionpeluqueria.exception.ConflictoConcurrenciaException;
+import com.idra.gestionpeluqueria.exception.DAOException;
+import com.idra.gestionpeluqueria.model.enums.EstadoPago;
+import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
+import com.idra.gestionpeluqueria.model.enums.TipoServicio;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+/**
+ * Implementacion de la interfaz TurnoService.
+ * Gestiona la logica de negocio relacionada con turnos, incluyendo
+ * validaciones de disponibilidad,cambios de estado y calculos financieros.
+ * 
+ * Cuando hay profesionales cargados, la disponibilidad depende de quien
+ * puede atender cada turno y no del servicio: al reservar se valida el
+ * profesional elegido o se asigna el primero libre.
+ * 
+ * @author Franco
+ */
+public class TurnoServiceImpl implements TurnoService {
+    
+    private TurnoDAO turnoDAO;
+    private ServicioDAO servicioDAO;
+    private ResumenDiarioDAO resumenDiarioDAO;
+    private MotorDisponibilidad motor;
+    
+    // Compartido entre instancias: los controladores crean un servicio por llamada
+    private static final SingleFlight VUELOS = new SingleFlight();
+    
+    // Con profesionales cualquier turno puede competir por la misma persona,
+    // asi que el lock se toma sobre todo el salon y no sobre el servicio
+    private static final int RECURSO_SALON = 0;
+    
+    // Horario de atencion en el que se ofrecen turnos
+    private static final LocalTime HORA_APERTURA =
+        LocalTime.parse(System.getProperty("gestionpeluqueria.horario.apertura", "09:00"));
+    private static final LocalTime HORA_CIERRE =
+        LocalTime.parse(System.getProperty("gestionpeluqueria.horario.cierre", "20:00"));
+    
+    // Tiempo maximo para buscar la reorganizacion de un dia
+    private static final long LIMITE_COMPACTACION_NANOS = TimeUnit.MILLISECONDS.toNanos(
+        Long.getLong("gestionpeluqueria.compactacion.limiteMs", 800));
+    // Los turnos que empiezan dentro de este margen no se mueven: el cliente ya puede estar en camino
+    private static final int MARGEN_COMPACTACION_MINUTOS = 60;
+    private static final int MAX_TOLERANCIA_MINUTOS = 120;
+    
+    /**
+     * Constructor que inicializa el servicio con sus DAOs correspondientes.
+     * 
+     * @param turnoDAO El DAO para operaciones de persistencia de turnos
+     * @param servicioDAO El DAO de servicios, para conocer su duracion
+     * @param resumenDiarioDAO El DAO del resumen de lo cobrado por dia
+     * @param motor Motor de disponibilidad por profesional
+     */
+    public TurnoServiceImpl(TurnoDAO turnoDAO, ServicioDAO servicioDAO, ResumenDiarioDAO resumenDiarioDAO,
+                            MotorDisponibilidad motor) {
+        this.turnoDAO = turnoDAO;
+        this.servicioDAO = servicioDAO;
+        this.resumenDiarioDAO = resumenDiarioDAO;
+        this.motor = motor;
+    }
+    
+    @Override
+    public void crearTurno(Turno turno) throws ServiceException {
+        // El lock cubre la verificacion y el insert para que otro hilo no
+        // reserve el mismo horario entre ambos pasos
+        try (var _ = GestorBloqueosFranja.getInstance().bloquear(
+                recursoBloqueo(turno.getServicio()), turno.getFechaHora(), turno.getServicio().getDuracionMinutos())) {
+            validarTolerancia(turno);
+            if (!reservarHorario(turno)) {
+                throw new ValidacionException(motor.usaProfesionales()
+                    ? "No hay profesionales disponibles para ese horario"
+                    : "No hay disponibilidad para ese horario");
+            }
+            VUELOS.escribir(() -> turnoDAO.crear(turno));
+            // El motor se actualiza antes de soltar el lock: el evento llega despues y
+            // otra reserva que se solape con distinto horario de inicio no lo veria
+            motor.registrar(turno);
+        } catch (DAOException | ValidacionException e) {
+            throw new ServiceException("Error al crear turno: " + e.getMessage(), e);
+        }
+        BusEventos.getInstance().publicar(new TurnoCreado(turno));
+    }
+    
+    @Override
+    public ResultadoSerie crearSerie(Turno plantilla, ReglaRecurrencia regla) throws ServiceException {
+        if (regla == null || !regla.esValida()) {
+            throw new ServiceException("La regla de repetición no es válida");
+        }
+        List<LocalDateTime> fechas = regla.ocurrencias(plantilla.getFechaHora());
+        Servicio servicio = plantilla.getServicio();
+        int duracion = servicio.getDuracionMinutos();
+        ResultadoSerie resultado = new ResultadoSerie();
+        try (var _ = GestorBloqueosFranja.getInstance().bloquear(
+                recursoBloqueo(servicio), fechas, duracion)) {
+            // Una consulta por rango para todas las fechas; despues todo se verifica en memoria
+            Set<LocalDate> dias = new HashSet<>();
+            fechas.forEach(fecha -> dias.add(fecha.toLocalDate()));
+            motor.precargar(dias);
+            
+            boolean conProfesionales = motor.usaProfesionales();
+            TipoServicio tipo = conProfesionales ? tipoServicio(servicio) : null;
+            LocalDateTime ahora = LocalDateTime.now();
+            List<Turno> libres = new ArrayList<>();
+            for (LocalDateTime fecha : fechas) {
+                if (fecha.isBefore(ahora)) {
+                    resultado.agregarOmitido(fecha, "el horario ya pasó");
+                    continue;
+                }
+                Turno turno = new Turno(plantilla);
+                turno.setId(0);
+                turno.setVersion(0);
+                turno.setFechaHora(fecha);
+                turno.setFechaCreacion(ahora);
+                String motivo = conProfesionales
+                    ? asignarProfesional(turno, tipo, duracion)
+                    : (motor.servicioLibre(servicio.getId(), fecha, duracion, 0) ? null : "el horario está ocupado");
+                if (motivo != null) {
+                    resultado.agregarOmitido(fecha, motivo);
+                } else {
+                    libres.add(turno);
+                }
+            }
+            VUELOS.escribir(() -> turnoDAO.crearEnLote(libres));
+            libres.forEach(motor::registrar);
+            libres.forEach(resultado::agregarCreado);
+        } catch (DAOException e) {
+            throw new ServiceException("Error al crear la serie de turnos: " + e.getMessage(), e);
+        }
+        for (Turno turno : resultado.getCreados()) {
+            BusEventos.getInstance().publicar(new TurnoCreado(turno));
+        }
+        return resultado;
+    }
+    
+    /**
+     * Deja asignado al turno un profesional libre, contra la ocupacion ya
+     * cargada en el motor.
+     * 
+     * @return null si quedo asignado, o el motivo por el que no se pudo
+     */
+    private String asignarProfesional(Turno turno, TipoServicio tipo, int duracion) throws DAOException {
+        if (turno.getProfesional() != null) {
+            return motor.estaDisponible(turno.getProfesional().getId(), tipo, turno.getFechaHora(), duracion, 0)
+                ? null : turno.getProfesional() + " no está disponible";
+        }
+        List<Profesional> disponibles = motor.profesionalesDisponibles(tipo, turno.getFechaHora(), duracion, 0);
+        if (disponibles.isEmpty()) {
+            return "no hay profesionales disponibles";
+        }
+        turno.setProfesional(disponibles.get(0));
+        return null;
+    }
+    
+    @Override
+    public Turno buscarTurnoPorId(int id) throws ServiceException {
+        try {
+            Turno turno = VUELOS.ejecutar("buscarPorId", () -> turnoDAO.buscarPorId(id), id);
+            // Mostrar las notas que todavia no se escribieron en la base de datos
+            Map<Integer, String> notasPendientes = ColaEscrituraDiferida.getInstance().pendientes(TipoEscritura.NOTAS_TURNO);
+            if (turno != null && notasPendientes.containsKey(id)) {
+                // Sobre una copia: el turno leido es el de la cache, compartido con otros lectores
+                turno = new Turno(turno);
+                turno.setNotas(notasPendientes.get(id));
+            }
+            return turno;
+        } catch (DAOException e) {
+            throw new ServiceException("Error al buscar turno por ID: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public List<Turno> buscarTodosTurnos() throws ServiceException {
+        try {
+            return new ArrayList<>(VUELOS.ejecutar("buscarTodos", turnoDAO::buscarTodos));
+        } catch (DAOException e) {
+            throw new ServiceException("Error al buscar todos los turnos: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public int contarTurnos() throws ServiceException {
+        try {
+            return turnoDAO.contarTodos();
+        } catch (DAOException e) {
+            throw new ServiceException("Error al contar los turnos: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public List<Turno> buscarPaginaTurnos(LocalDateTime fechaHora, int id, int saltear, int cantidad) throws ServiceException {
+        try {
+            if (saltear < 0 || cantidad <= 0) {
+                throw new ValidacionException("La página de turnos pedida no es válida");
+            }
+            return turnoDAO.buscarPagina(fechaHora, id, saltear, cantidad);
+        } catch (DAOException | ValidacionException e) {
+            throw new ServiceException("Error al buscar una página de turnos: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public List<Turno> buscarAnclasTurnos(int cada) throws ServiceException {
+        try {
+            if (cada <= 0) {
+                throw new ValidacionException("La separación entre anclas no es válida");
+            }
+            return turnoDAO.buscarAnclasPagina(cada);
+        } catch (DAOException | ValidacionException e) {
+            throw new ServiceException("Error al buscar las anclas del historial: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public List<Turno> buscarTurnosPorFecha(LocalDate fecha) throws ServiceException {
+        try {
+            return new ArrayList<>(VUELOS.ejecutar("buscarPorFecha", () -> turnoDAO.buscarPorFecha(fecha), fecha));
+        } catch (DAOException e) {
+            throw new ServiceException("Error al buscar turnos por fecha: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public List<Turno> buscarTurnosPorRango(LocalDate desde, LocalDate hasta) throws ServiceException {
+        try {
+            return turnoDAO.buscarPorRango(desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay());
+        } catch (DAOException e) {
+            throw new ServiceException("Error al buscar turnos por rango: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public CambiosTurnos buscarCambiosDelDia(LocalDate fecha, LocalDateTime desde) throws ServiceException {
+        try {
+            return turnoDAO.buscarCambiosDelDia(fecha, desde);
+        } catch (DAOException e) {
+            throw new ServiceException("Error al buscar cambios de turnos: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public List<Turno> buscarTurnosPorCliente(int clienteId) throws ServiceException {
+        try {
+            return new ArrayList<>(VUELOS.ejecutar("buscarPorCliente", () -> turnoDAO.buscarPorCliente(clienteId), clienteId));
+        } catch (DAOException e) {
+            throw new ServiceException("Error al buscar turnos por cliente: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public List<Turno> buscarTurnosPorEstado(String estado) throws ServiceException {
+        try {
+            return new ArrayList<>(VUELOS.ejecutar("buscarPorEstado", () -> turnoDAO.buscarPorEstado(estado), estado));
+        } catch (DAOException e) {
+            throw new ServiceException("Error al buscar turnos por estado: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public void actualizarTurno(Turno turno) throws ServiceException {
+        try {
+            validarTolerancia(turno);
+            // La escritura completa ya incluye las notas; un cambio diferido anterior no debe pisarlas
+            ColaEscrituraDiferida.getInstance().descartar(TipoEscritura.NOTAS_TURNO, turno.getId());
+            Turno anterior = turnoDAO.buscarPorId(turno.getId());
+            if (anterior == null) {
+                VUELOS.escribir(() -> turnoDAO.actualizar(turno)); // El DAO informa que el turno no existe
+                return;
+            }
+            // Se bloquean el horario anterior y el nuevo, por si el turno se reprograma
+            try (var _ = GestorBloqueosFranja.getInstance().bloquear(
+                    recursoBloqueo(anterior.getServicio()), anterior.getFechaHora(), anterior.getServicio().getDuracionMinutos(),
+                    recursoBloqueo(turno.getServicio()), turno.getFechaHora(), turno.getServicio().getDuracionMinutos())) {
+                boolean cambioHorario = anterior.getServicio().getId() != turno.getServicio().getId()
+                        || !anterior.getFechaHora().equals(turno.getFechaHora())
+                        || profesionalId(anterior) != profesionalId(turno);
+                if (cambioHorario && turno.getEstado() != EstadoTurno.CANCELADO && !reservarHorario(turno)) {
+                    throw new ServiceException("Error al actualizar turno: No hay disponibilidad para ese horario");
+                }
+                if (!anterior.getFechaHora().equals(turno.getFechaHora())) {
+                    // El DAO tambien lo descarta: el nuevo horario es el que se pidio
+                    turno.setFechaHoraPedida(null);
+                }
+                VUELOS.escribir(() -> turnoDAO.actualizar(turno));
+                motor.registrar(turno);
+            }
+            BusEventos.getInstance().publicar(eventoDeActualizacion(anterior, turno));
+        } catch (DAOException | ValidacionException e) {
+            throw new ServiceException("Error al actualizar turno: " + e.getMessage(), e);
+        }
+    }
+    
+    private static void validarTolerancia(Turno turno) throws ValidacionException {
+        if (turno.getToleranciaMinutos() < 0 || turno.getToleranciaMinutos() > MAX_TOLERANCIA_MINUTOS) {
+            throw new ValidacionException("La tolerancia debe estar entre 0 y " + MAX_TOLERANCIA_MINUTOS + " minutos");
+        }
+    }
+    
+    /**
+     * Elige el evento mas especifico para una actualizacion: la cancelacion
+     * y el registro de un pago tienen el suyo propio.
+     */
+    private static EventoTurno eventoDeActualizacion(Turno anterior, Turno turno) {
+        if (turno.getEstado() == EstadoTurno.CANCELADO && anterior.getEstado() != EstadoTurno.CANCELADO) {
+            return new TurnoCancelado(turno);
+        }
+        if (turno.getMontoPagado() > anterior.getMontoPagado()
+            || (turno.getEstadoPago() == EstadoPago.PAGADO && anterior.getEstadoPago() != EstadoPago.PAGADO)) {
+            return new PagoRegistrado(turno);
+        }
+        return new TurnoActualizado(turno);
+    }
+    
+   @Override
+public void completarTurno(int id) throws ServiceException {
+    try {
+        Turno turno = cambiarEstado(id, completado -> {
+            completado.setEstado(EstadoTurno.COMPLETADO);
+            completado.setEstadoPago(EstadoPago.PAGADO);
+            completado.setMontoPagado(completado.getServicio().getPrecio());
+        });
+        BusEventos.getInstance().publicar(new PagoRegistrado(turno));
+    } catch (DAOException e) {
+        throw new ServiceException("Error al completar turno: " + e.getMessage(), e);
+    }
+}
+
+@Override
+public void cancelarTurno(int id) throws ServiceException {
+    try {
+        Turno turno = cambiarEstado(id, cancelado -> cancelado.setEstado(EstadoTurno.CANCELADO));
+        BusEventos.getInstance().publicar(new TurnoCancelado(turno));
+    } catch (DAOException e) {
+        throw new ServiceException("Error al cancelar turno: " + e.getMessage(), e);
+    }
+}
+
+    /**
+     * Lee el turno, le aplica el cambio y lo guarda. Como el cambio no depende
+     * de lo que el usuario vio en pantalla, ante un conflicto de version se
+     * vuelve a leer el turno y se reintenta una vez.
+     * 
+     * @return El turno tal como quedo guardado
+     */
+    private Turno cambiarEstado(int id, Consumer<Turno> cambio) throws DAOException, ServiceException {
+        for (int intento = 1; ; intento++) {
+            Turno leido = turnoDAO.buscarPorId(id);
+            if (leido == null) {
+                throw new ServiceException("Turno no encontrado con ID: " + id);
+            }
+            // El cambio se hace sobre una copia: el turno leido es el de la cache
+            // y otros lectores no deben verlo antes de que se guarde
+            Turno turno = new Turno(leido);
+            cambio.accept(turno);
+            try {
+                VUELOS.escribir(() -> turnoDAO.actualizar(turno));
+                motor.registrar(turno);
+                return turno;
+            } catch (ConflictoConcurrenciaException e) {
+                if (intento >= 2) {
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    @Override
+    public boolean validarDisponibilidad(Turno turno) throws ServiceException {
+        try {
+            if (!motor.usaProfesionales()) {
+                return motor.servicioLibre(turno.getServicio().getId(), turno.getFechaHora(),
+                        turno.getServicio().getDuracionMinutos(), turno.getId())
+                    && !turnoDAO.existeTurnoEnFechaHora(
+                        turno.getServicio().getId(), 
+                        turno.getFechaHora()
+                    );
+            }
+            // Consulta rapida en memoria; la reserva vuelve a verificar contra la base
+            TipoServicio tipo = tipoServicio(turno.getServicio());
+            int duracion = turno.getServicio().getDuracionMinutos();
+            if (turno.getProfesional() != null) {
+                return motor.estaDisponible(turno.getProfesional().getId(), tipo, turno.getFechaHora(), duracion, turno.getId());
+            }
+            return !motor.profesionalesDisponibles(tipo, turno.getFechaHora(), duracion, turno.getId()).isEmpty();
+        } catch (DAOException e) {
+            throw new ServiceException("Error al validar disponibilidad: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Verifica que el horario del turno este libre, con el bloqueo de la franja
+     * ya tomado. Con profesionales valida el elegido o asigna el primero libre;
+     * el motor propone y la base de datos confirma, porque otra terminal pudo
+     * haber reservado desde que se cargo la agenda.
+     * 
+     * @return true si el turno se puede guardar
+     */
+    private boolean reservarHorario(Turno turno) throws DAOException {
+        if (!motor.usaProfesionales()) {
+            // La prueba de bits descarta los choques sin ir a la base de datos
+            return motor.servicioLibre(turno.getServicio().getId(), turno.getFechaHora(),
+                    turno.getServicio().getDuracionMinutos(), turno.getId())
+                && !turnoDAO.existeTurnoEnFechaHora(turno.getServicio().getId(), turno.getFechaHora());
+        }
+        TipoServicio tipo = tipoServicio(turno.getServicio());
+        int duracion = turno.getServicio().getDuracionMinutos();
+        LocalDateTime inicio = turno.getFechaHora();
+        LocalDateTime fin = inicio.plusMinutes(duracion);
+        if (turno.getProfesional() != null) {
+            int profesionalId = turno.getProfesional().getId();
+            return motor.estaDisponible(profesionalId, tipo, inicio, duracion, turno.getId())
+                && !turnoDAO.existeSolapamientoProfesional(profesionalId, inicio, fin, turno.getId());
+        }
+        for (Profesional profesional : motor.profesionalesDisponibles(tipo, inicio, duracion, turno.getId())) {
+            if (!turnoDAO.existeSolapamientoProfesional(profesional.getId(), inicio, fin, turno.getId())) {
+                turno.setProfesional(profesional);
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private int recursoBloqueo(Servicio servicio) throws DAOException {
+        return motor.usaProfesionales() ? RECURSO_SALON : servicio.getId();
+    }
+    
+    private static int profesionalId(Turno turno) {
+        return turno.getProfesional() != null ? turno.getProfesional().getId() : 0;
+    }
+    
+    /**
+     * Tipo del servicio del turno; si el turno trae solo el ID del servicio
+     * se lee de la base de datos.
+     */
+    private TipoServicio tipoServicio(Servicio servicio) throws DAOException {
+        if (servicio.getTipoServicio() != null) {
+            return servicio.getTipoServicio();
+        }
+        Servicio completo = servicioDAO.buscarPorId(servicio.getId());
+        if (completo == null) {
+            throw new DAOException("Servicio no encontrado con ID: " + servicio.getId());
+        }
+        return completo.getTipoServicio();
+    }
+    
+    @Override
+    public List<LocalTime> buscarHorariosDisponibles(int servicioId, LocalDate fecha, int granularidadMinutos,
+            int turnoExcluidoId) throws ServiceException {
+        if (granularidadMinutos <= 0) {
+            throw new ServiceException("La granularidad debe ser mayor a cero");
+        }
+        try {
+            Servicio servicio = servicioDAO.buscarPorId(servicioId);
+            if (servicio == null) {
+                throw new ServiceException("Servicio no encontrado con ID: " + servicioId);
+            }
+            if (motor.usaProfesionales()) {
+                List<LocalTime> libres = new ArrayList<>();
+                capacidadPorHorario(servicio, fecha, granularidadMinutos, turnoExcluidoId).forEach((hora, capacidad) -> {
+                    if (capacidad > 0) {
+                        libres.add(hora);
+                    }
+                });
+                return libres;
+            }
+            LocalTime ultimo = ultimoHorario(servicio);
+            if (ultimo == null) {
+                return new ArrayList<>();
+            }
+            List<LocalTime> libres = motor.horariosLibresDelServicio(servicioId, fecha, servicio.getDuracionMinutos(),
+                HORA_APERTURA, ultimo, granularidadMinutos, turnoExcluidoId);
+            if (fecha.equals(LocalDate.now())) {
+                // Hoy no se ofrecen horarios que ya pasaron
+                LocalTime ahora = LocalTime.now();
+                libres.removeIf(hora -> !hora.isAfter(ahora));
+            }
+            return libres;
+        } catch (DAOException e) {
+            throw new ServiceException("Error al buscar horarios disponibles: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public SortedMap<LocalTime, Integer> calcularCapacidadPorHorario(int servicioId, LocalDate fecha,
+            int granularidadMinutos, int turnoExcluidoId) throws ServiceException {
+        if (granularidadMinutos <= 0) {
+            throw new ServiceException("La granularidad debe ser mayor a cero");
+        }
+        try {
+            Servicio servicio = servicioDAO.buscarPorId(servicioId);
+            if (servicio == null) {
+                throw new ServiceException("Servicio no encontrado con ID: " + servicioId);
+            }
+            return capacidadPorHorario(servicio, fecha, granularidadMinutos, turnoExcluidoId);
+        } catch (DAOException e) {
+            throw new ServiceException("Error al calcular la capacidad por horario: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Capacidad de cada horario dentro del horario de atencion; hoy no se
+     * ofrecen horarios que ya pasaron.
+     */
+    private SortedMap<LocalTime, Integer> capacidadPorHorario(Servicio servicio, LocalDate fecha,
+            int granularidadMinutos, int turnoExcluidoId) throws DAOException {
+        LocalTime ultimo = ultimoHorario(servicio);
+        if (ultimo == null) {
+            return new TreeMap<>();
+        }
+        SortedMap<LocalTime, Integer> capacidad = motor.capacidadPorHorario(servicio.getTipoServicio(), fecha,
+            servicio.getDuracionMinutos(), HORA_APERTURA, ultimo, granularidadMinutos, turnoExcluidoId);
+        if (fecha.equals(LocalDate.now())) {
+            return capacidad.tailMap(LocalTime.now().withSecond(0).withNano(0).plusMinutes(1));
+        }
+        return capacidad;
+    }
+    
+    /**
+     * Ultimo horario en que el servicio termina antes del cierre, o null si
+     * no entra en el horario de atencion.
+     */
+    private static LocalTime ultimoHorario(Servicio servicio) {
+        int ultimo = HORA_CIERRE.toSecondOfDay() / 60 - servicio.getDuracionMinutos();
+        if (ultimo < HORA_APERTURA.toSecondOfDay() / 60) {
+            return null;
+        }
+        return LocalTime.of(ultimo / 60, ultimo % 60);
+    }
+    
+    @Override
+    public List<Profesional> buscarProfesionalesDisponibles(int servicioId, LocalDateTime fechaHora,
+            int turnoExcluidoId) throws ServiceException {
+        try {
+            Servicio servicio = servicioDAO.buscarPorId(servicioId);
+            if (servicio == null) {
+                throw new ServiceException("Servicio no encontrado con ID: " + servicioId);
+            }
+            return motor.profesionalesDisponibles(servicio.getTipoServicio(), fechaHora,
+                servicio.getDuracionMinutos(), turnoExcluidoId);
+        } catch (DAOException e) {
+            throw new ServiceException("Error al buscar profesionales disponibles: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public PropuestaCompactacion proponerCompactacion(LocalDate fecha) throws ServiceException {
+        LocalDateTime ahora = LocalDateTime.now();
+        if (fecha.isBefore(ahora.toLocalDate())) {
+            throw new ServiceException("No se puede reorganizar la agenda de un día que ya pasó");
+        }
+        try {
+            List<Turno> delDia = turnoDAO.buscarPorRango(fecha.atStartOfDay(), fecha.plusDays(1).atStartOfDay());
+            List<CompactadorAgenda.Silla> sillas = armarSillas(fecha, delDia);
+            int primerMinutoMovible = 0;
+            if (fecha.equals(ahora.toLocalDate())) {
+                LocalTime limite = ahora.toLocalTime().plusMinutes(MARGEN_COMPACTACION_MINUTOS);
+                primerMinutoMovible = limite.isBefore(ahora.toLocalTime())
+                    ? 24 * 60 : limite.getHour() * 60 + limite.getMinute();
+            }
+            CompactadorAgenda.Resultado resultado = new CompactadorAgenda(LIMITE_COMPACTACION_NANOS)
+                .optimizar(fecha, sillas, primerMinutoMovible);
+            
+            PropuestaCompactacion propuesta = new PropuestaCompactacion(
+                fecha, resultado.getOciosoAntes(), resultado.getOciosoDespues());
+            List<Integer> orden = new ArrayList<>();
+            for (int i = 0; i < resultado.getMovidos().size(); i++) {
+                orden.add(i);
+            }
+            orden.sort(Comparator.comparing(i -> resultado.getMovidos().get(i).getFechaHora()));
+            for (int i : orden) {
+                propuesta.agregarMovimiento(resultado.getMovidos().get(i), resultado.getHorariosNuevos().get(i));
+            }
+            return propuesta;
+        } catch (DAOException e) {
+            throw new ServiceException("Error al calcular la reorganización de la agenda: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Arma una silla por profesional, o por servicio si no hay profesionales,
+     * con su horario de atencion del dia y sus turnos.
+     */
+    private List<CompactadorAgenda.Silla> armarSillas(LocalDate fecha, List<Turno> delDia) throws DAOException {
+        List<Servicio> servicios = servicioDAO.buscarActivos();
+        Map<Integer, CompactadorAgenda.Silla> sillas = new LinkedHashMap<>();
+        boolean conProfesionales = motor.usaProfesionales();
+        if (conProfesionales) {
+            for (Profesional profesional : motor.getProfesionales()) {
+                CompactadorAgenda.Silla silla = new CompactadorAgenda.Silla(servicioMasCorto(servicios, profesional));
+                for (HorarioLaboral horario : profesional.getHorarios()) {
+                    if (horario.getDiaSemana() == fecha.getDayOfWeek()) {
+                        silla.agregarJornada(minutoDelDia(horario.getHoraInicio()), minutoDelDia(horario.getHoraFin()));
+                    }
+                }
+                sillas.put(profesional.getId(), silla);
+            }
+        }
+        for (Turno turno : delDia) {
+            if (turno.getEstado() == EstadoTurno.CANCELADO) {
+                continue;
+            }
+            CompactadorAgenda.Silla silla;
+            if (conProfesionales) {
+                // Un turno sin profesional no ocupa la agenda de nadie
+                silla = sillas.get(profesionalId(turno));
+            } else {
+                silla = sillas.computeIfAbsent(turno.getServicio().getId(), id -> {
+                    CompactadorAgenda.Silla delServicio = new CompactadorAgenda.Silla(turno.getServicio().getDuracionMinutos());
+                    delServicio.agregarJornada(minutoDelDia(HORA_APERTURA), minutoDelDia(HORA_CIERRE));
+                    return delServicio;
+                });
+            }
+            if (silla != null) {
+                boolean movible = turno.getEstado() == EstadoTurno.CONFIRMADO || turno.getEstado() == EstadoTurno.PENDIENTE;
+                silla.agregarTurno(turno, turno.getServicio().getDuracionMinutos(), movible);
+            }
+        }
+        return new ArrayList<>(sillas.values());
+    }
+    
+    // Un hueco mas corto que el servicio mas corto que puede hacer el profesional no sirve
+    private static int servicioMasCorto(List<Servicio> servicios, Profesional profesional) {
+        int minimo = Integer.MAX_VALUE;
+        for (Servicio servicio : servicios) {
+            if (servicio.getTipoServicio() != null && profesional.puedeRealizar(servicio.getTipoServicio())) {
+                minimo = Math.min(minimo, servicio.getDuracionMinutos());
+            }
+        }
+        return minimo == Integer.MAX_VALUE ? 0 : minimo;
+    }
+    
+    private static int minutoDelDia(LocalTime hora) {
+        return hora.getHour() * 60 + hora.getMinute();
+    }
+    
+    @Override
+    public void aplicarCompactacion(PropuestaCompactacion propuesta) throws ServiceException {
+        if (propuesta.isVacia()) {
+            return;
+        }
+        LocalDate fecha = propuesta.getFecha();
+        List<Turno> movidos = new ArrayList<>();
+        try {
+            boolean conProfesionales = motor.usaProfesionales();
+            Set<Integer> recursos = new HashSet<>();
+            if (conProfesionales) {
+                recursos.add(RECURSO_SALON);
+            } else {
+                propuesta.getMovimientos().forEach(movimiento -> recursos.add(movimiento.getTurno().getServicio().getId()));
+            }
+            try (var _ = GestorBloqueosFranja.getInstance().bloquearDia(recursos, fecha)) {
+                // Se relee la agenda bajo el lock: la propuesta pudo quedar vieja mientras se revisaba
+                Map<Integer, Turno> agenda = new HashMap<>();
+                for (Turno turno : turnoDAO.buscarPorRango(fecha.atStartOfDay(), fecha.plusDays(1).atStartOfDay())) {
+                    agenda.put(turno.getId(), turno);
+                }
+                Set<Integer> idsMovidos = new HashSet<>();
+                for (PropuestaCompactacion.Movimiento movimiento : propuesta.getMovimientos()) {
+                    Turno leido = movimiento.getTurno();
+                    Turno actual = agenda.get(leido.getId());
+                    if (actual == null || actual.getVersion() != leido.getVersion()
+                            || actual.getEstado() == EstadoTurno.CANCELADO
+                            || !actual.getFechaHora().equals(movimiento.getHorarioActual())) {
+                        throw new ConflictoConcurrenciaException("El turno " + leido.getId() + " cambió",
+                            leido.getId(), leido.getVersion());
+                    }
+                    Turno movido = new Turno(actual);
+                    if (movido.getFechaHoraPedida() == null) {
+                        movido.setFechaHoraPedida(actual.getFechaHora());
+                    }
+                    movido.setFechaHora(movimiento.getNuevoHorario());
+                    agenda.put(movido.getId(), movido);
+                    movidos.add(movido);
+                    idsMovidos.add(movido.getId());
+                }
+                if (haySolapamiento(agenda.values(), idsMovidos, conProfesionales)) {
+                    throw new ConflictoConcurrenciaException("Se reservó un turno en un horario propuesto", 0, 0);
+                }
+                VUELOS.escribir(() -> turnoDAO.reprogramarEnLote(movidos));
+                movidos.forEach(motor::registrar);
+            }
+        } catch (ConflictoConcurrenciaException e) {
+            throw new ServiceException("La agenda cambió desde que se calculó la propuesta. Vuelva a calcularla.", e);
+        } catch (DAOException e) {
+            throw new ServiceException("Error al reorganizar la agenda: " + e.getMessage(), e);
+        }
+        for (Turno turno : movidos) {
+            BusEventos.getInstance().publicar(new TurnoActualizado(turno));
+        }
+    }
+    
+    /**
+     * Verifica que ningun turno movido quede encima de otro de su misma silla.
+     */
+    private static boolean haySolapamiento(Collection<Turno> agenda, Set<Integer> idsMovidos, boolean conProfesionales) {
+        Map<Integer, List<Turno>> porSilla = new HashMap<>();
+        for (Turno turno : agenda) {
+            int silla = conProfesionales ? profesionalId(turno) : turno.getServicio().getId();
+            if (turno.getEstado() != EstadoTurno.CANCELADO && silla != 0) {
+                porSilla.computeIfAbsent(silla, id -> new ArrayList<>()).add(turno);
+            }
+        }
+        for (List<Turno> turnos : porSilla.values()) {
+            turnos.sort(Comparator.comparing(Turno::getFechaHora));
+            for (int i = 1; i < turnos.size(); i++) {
+                Turno anterior = turnos.get(i - 1);
+                Turno turno = turnos.get(i);
+                boolean choca = anterior.getFechaHora().plusMinutes(anterior.getServicio().getDuracionMinutos())
+                    .isAfter(turno.getFechaHora());
+                if (choca && (idsMovidos.contains(anterior.getId()) || idsMovidos.contains(turno.getId()))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public double calcularTotalPagadoHoy() throws ServiceException {
+        try {
+            LocalDate hoy = LocalDate.now();
+            return resumenDiarioDAO.sumarCobrado(hoy, hoy);
+        } catch (DAOException e) {
+            throw new ServiceException("Error al calcular total pagado hoy: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public double calcularTotalCobrado(LocalDate desde, LocalDate hasta) throws ServiceException {
+        try {
+            validarRango(desde, hasta);
+            return resumenDiarioDAO.sumarCobrado(desde, hasta);
+        } catch (DAOException | ValidacionException e) {
+            throw new ServiceException("Error al calcular total cobrado: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public int reconstruirResumenDiario(LocalDate desde, LocalDate hasta) throws ServiceException {
+        try {
+            validarRango(desde, hasta);
+            return resumenDiarioDAO.reconstruir(desde, hasta);
+        } catch (DAOException | ValidacionException e) {
+            throw new ServiceException("Error al reconstruir el resumen diario: " + e.getMessage(), e);
+        }
+    }
+    
+    private static void validarRango(LocalDate desde, LocalDate hasta) throws ValidacionException {
+        if (desde == null || hasta == null) {
+            throw new ValidacionException("El período debe tener fecha de inicio y de fin");
+        }
+        if (hasta.isBefore(desde)) {
+            throw new ValidacionException("La fecha de fin no puede ser anterior a la de inicio");
+        }
+    }
+    
+    @Override
+    public void actualizarNotasDiferido(int turnoId, String notas, int version) throws ServiceException {
+        ColaEscrituraDiferida.getInstance().encolar(TipoEscritura.NOTAS_TURNO, turnoId,
+            notas != null ? notas.trim() : null, version);
+    }
 }
\ No newline at end of file
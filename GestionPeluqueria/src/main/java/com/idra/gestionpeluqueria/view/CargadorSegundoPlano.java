@@ -0,0 +1,187 @@
+package com.idra.gestionpeluqueria.view;
+
+import java.awt.Component;
+import java.awt.Cursor;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
+
+/**
+ * Ejecuta las consultas de una pantalla fuera del Event Dispatch Thread y
+ * entrega el resultado de vuelta en el EDT.
+ *
+ * Cada pantalla usa su propio cargador. Una llamada a cargar() reemplaza a
+ * la anterior que todavia no termino: la carga vieja se cancela y, si igual
+ * llega a completarse, su resultado se descarta. Mientras haya cargas en curso
+ * se muestra el cursor de espera y, si se configuro, un indicador de carga.
+ * Los errores se derivan a un manejador, que por defecto muestra un dialogo.
+ *
+ * Todos los metodos deben llamarse desde el EDT.
+ *
+ * @author Idra
+ */
+public class CargadorSegundoPlano {
+
+    /**
+     * Consulta a ejecutar en segundo plano.
+     *
+     * @param <T> Tipo del resultado
+     */
+    @FunctionalInterface
+    public interface Consulta<T> {
+        T ejecutar() throws Exception;
+    }
+
+    private final Component componente;
+    private JLabel indicador;
+    private BiConsumer<String, Throwable> manejadorError;
+    private SwingWorker<?, ?> cargaActual;
+    private long generacion;
+    private int enCurso;
+
+    /**
+     * Constructor que asocia el cargador a un componente de la interfaz.
+     *
+     * @param componente Componente sobre el que se muestra el cursor de espera
+     *                   y se centran los mensajes de error
+     */
+    public CargadorSegundoPlano(Component componente) {
+        this.componente = componente;
+        this.manejadorError = this::mostrarError;
+    }
+
+    /**
+     * Asigna una etiqueta que se hace visible mientras hay cargas en curso.
+     *
+     * @param indicador La etiqueta a mostrar, o null para no usar ninguna
+     */
+    public void setIndicador(JLabel indicador) {
+        this.indicador = indicador;
+        if (indicador != null) {
+            indicador.setVisible(enCurso > 0);
+        }
+    }
+
+    /**
+     * Reemplaza el manejador de errores por defecto.
+     *
+     * @param manejadorError Recibe la descripcion de la operacion y la causa del error
+     */
+    public void setManejadorError(BiConsumer<String, Throwable> manejadorError) {
+        this.manejadorError = manejadorError;
+    }
+
+    /**
+     * Ejecuta una consulta que reemplaza a la carga anterior de este cargador.
+     * Pensado para refrescar tablas y filtros, donde solo importa el ultimo pedido.
+     *
+     * @param <T> Tipo del resultado
+     * @param descripcion Descripcion de la operacion, usada en los mensajes de error
+     * @param consulta La consulta a ejecutar fuera del EDT
+     * @param alCompletar Recibe el resultado en el EDT
+     */
+    public <T> void cargar(String descripcion, Consulta<T> consulta, Consumer<T> alCompletar) {
+        cancelar();
+        final long miGeneracion = generacion;
+        cargaActual = iniciar(descripcion, consulta, alCompletar, () -> miGeneracion == generacion);
+    }
+
+    /**
+     * Ejecuta una consulta independiente, que no cancela ni es cancelada por
+     * otras cargas. Pensado para operaciones puntuales como una busqueda en un dialogo.
+     *
+     * @param <T> Tipo del resultado
+     * @param descripcion Descripcion de la operacion, usada en los mensajes de error
+     * @param consulta La consulta a ejecutar fuera del EDT
+     * @param alCompletar Recibe el resultado en el EDT
+     */
+    public <T> void ejecutar(String descripcion, Consulta<T> consulta, Consumer<T> alCompletar) {
+        iniciar(descripcion, consulta, alCompletar, () -> true);
+    }
+
+    /**
+     * Cancela la carga en curso iniciada con cargar(), si la hay.
+     * Su resultado no se entregara aunque la consulta ya haya terminado.
+     */
+    public void cancelar() {
+        generacion++;
+        if (cargaActual != null) {
+            cargaActual.cancel(true);
+            cargaActual = null;
+        }
+    }
+
+    /**
+     * @return true si hay al menos una carga en curso
+     */
+    public boolean isCargando() {
+        return enCurso > 0;
+    }
+
+    private <T> SwingWorker<T, Void> iniciar(String descripcion, Consulta<T> consulta,
+                                             Consumer<T> alCompletar, Vigencia vigencia) {
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return consulta.ejecutar();
+            }
+
+            @Override
+            protected void done() {
+                finalizarCarga();
+                if (isCancelled() || !vigencia.vigente()) {
+                    return;
+                }
+                T resultado;
+                try {
+                    resultado = get();
+                } catch (InterruptedException | CancellationException e) {
+                    return;
+                } catch (ExecutionException e) {
+                    Throwable causa = e.getCause() != null ? e.getCause() : e;
+                    System.err.println("❌ " + descripcion + ": " + causa.getMessage());
+                    manejadorError.accept(descripcion, causa);
+                    return;
+                }
+                alCompletar.accept(resultado);
+            }
+        };
+        iniciarCarga();
+        worker.execute();
+        return worker;
+    }
+
+    private void iniciarCarga() {
+        if (enCurso++ == 0) {
+            componente.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            if (indicador != null) {
+                indicador.setVisible(true);
+            }
+        }
+    }
+
+    private void finalizarCarga() {
+        if (--enCurso == 0) {
+            componente.setCursor(Cursor.getDefaultCursor());
+            if (indicador != null) {
+                indicador.setVisible(false);
+            }
+        }
+    }
+
+    private void mostrarError(String descripcion, Throwable causa) {
+        JOptionPane.showMessageDialog(componente,
+            descripcion + ": " + causa.getMessage(),
+            "Error",
+            JOptionPane.ERROR_MESSAGE);
+    }
+
+    @FunctionalInterface
+    private interface Vigencia {
+        boolean vigente();
+    }
+}
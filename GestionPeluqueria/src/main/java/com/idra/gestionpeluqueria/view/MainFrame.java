@@ -1,210 +1,390 @@
-package com.idra.gestionpeluqueria.view;
-
-import com.idra.gestionpeluqueria.view.panels.*; // ← ESTE IMPORT FALTABA
-import javax.swing.*;
-import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-
-/**
- * Ventana principal de la aplicacion de gestion de peluqueria.
- * Implementa la navegacion entre diferentes paneles utilizando CardLayout
- * y proporciona una barra de navegacion para acceder a las diferentes secciones.
- * 
- * @author Idra
- */
-public class MainFrame extends JFrame {
-    private JPanel mainPanel;
-    private CardLayout cardLayout;
-
-    // Paneles
-    private DashboardPanel dashboardPanel;
-    private ClientePanel clientePanel;
-    private ServicioPanel servicioPanel;
-    private TurnoPanel turnoPanel;
-
-    // Barra de navegación
-    private JButton btnDashboard, btnClientes, btnServicios, btnTurnos, btnSalir;
-    
-     /**
-     * Constructor que inicializa la ventana principal y configura todos sus componentes.
-     */
-    public MainFrame() {
-        initializeUI();
-        setupEventListeners();
-    }
-
-    private void initializeUI() {
-        setTitle("Sistema de Gestión de Peluquería - Idra");
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setSize(1400, 900);
-        setLocationRelativeTo(null);
-
-        // Configurar layout principal
-        setLayout(new BorderLayout());
-        
-        // Crear barra de navegación
-        createNavigationBar(); // ← CORREGÍ EL NOMBRE (estaba createNavigacionBar)
-
-        // Crear panel principal con CardLayout
-        cardLayout = new CardLayout();
-        mainPanel = new JPanel(cardLayout);
-
-        // Inicializar paneles
-        dashboardPanel = new DashboardPanel();
-        clientePanel = new ClientePanel();
-        servicioPanel = new ServicioPanel();
-        turnoPanel = new TurnoPanel();
-
-        // Agregar paneles al CardLayout
-        mainPanel.add(dashboardPanel, "DASHBOARD");
-        mainPanel.add(clientePanel, "CLIENTES");
-        mainPanel.add(servicioPanel, "SERVICIOS");
-        mainPanel.add(turnoPanel, "TURNOS");
-
-        add(mainPanel, BorderLayout.CENTER);
-
-        // Mostrar dashboard por defecto
-        cardLayout.show(mainPanel, "DASHBOARD");
-        btnDashboard.setBackground(new Color(70, 130, 180));
-        btnDashboard.setForeground(Color.WHITE);
-    }
-
-    private void createNavigationBar() { 
-        JPanel navPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        navPanel.setBackground(new Color(50, 50, 50));
-        navPanel.setPreferredSize(new Dimension(getWidth(), 60));
-        navPanel.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
-
-        // Crear botones con estilo
-        btnDashboard = createNavButton("🏠 Dashboard");
-        btnClientes = createNavButton("👥 Clientes");
-        btnServicios = createNavButton("✂️ Servicios");
-        btnTurnos = createNavButton("📅 Turnos");
-        btnSalir = createNavButton("🚪 Salir");
-        btnSalir.setBackground(new Color(220, 53, 69));
-
-        navPanel.add(btnDashboard);
-        navPanel.add(Box.createHorizontalStrut(10));
-        navPanel.add(btnClientes);
-        navPanel.add(Box.createHorizontalStrut(10));
-        navPanel.add(btnServicios);
-        navPanel.add(Box.createHorizontalStrut(10));
-        navPanel.add(btnTurnos);
-        navPanel.add(Box.createHorizontalStrut(50));
-        navPanel.add(btnSalir);
-
-        add(navPanel, BorderLayout.NORTH);
-    }
-
-    private JButton createNavButton(String text) {
-    JButton button = new JButton(text);
-    button.setFont(new Font("Segoe UI", Font.BOLD, 14));
-    button.setBackground(new Color(70, 70, 70));
-    button.setForeground(Color.WHITE);
-    button.setFocusPainted(false);
-    button.setBorder(BorderFactory.createCompoundBorder(
-        BorderFactory.createLineBorder(new Color(100, 100, 100)),
-        BorderFactory.createEmptyBorder(10, 20, 10, 20)
-    ));
-    button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-    
-    
-    button.setOpaque(true);
-    button.setContentAreaFilled(true);
-    button.setBorderPainted(true);
-    
-    // Efecto hover
-    button.addMouseListener(new java.awt.event.MouseAdapter() {
-        public void mouseEntered(java.awt.event.MouseEvent evt) {
-            if (!button.getBackground().equals(new Color(70, 130, 180))) {
-                button.setBackground(new Color(90, 90, 90));
-                button.setForeground(Color.WHITE); // Forzar color blanco
-            }
-        }
-        
-        public void mouseExited(java.awt.event.MouseEvent evt) {
-            if (!button.getBackground().equals(new Color(70, 130, 180))) {
-                button.setBackground(new Color(70, 70, 70));
-                button.setForeground(Color.WHITE); // Forzar color blanco
-            }
-        }
-    });
-
-    return button;
-}
-
-    private void setupEventListeners() {
-        btnDashboard.addActionListener(e -> showPanel("DASHBOARD", btnDashboard));
-        btnClientes.addActionListener(e -> showPanel("CLIENTES", btnClientes));
-        btnServicios.addActionListener(e -> showPanel("SERVICIOS", btnServicios));
-        btnTurnos.addActionListener(e -> showPanel("TURNOS", btnTurnos));
-        
-        btnSalir.addActionListener(e -> {
-            int confirm = JOptionPane.showConfirmDialog(
-                this,
-                "¿Está seguro que desea salir del sistema?",
-                "Confirmar Salida",
-                JOptionPane.YES_NO_OPTION
-            );
-            if (confirm == JOptionPane.YES_OPTION) {
-                System.exit(0);
-            }
-        });
-    }
-
-    private void showPanel(String panelName, JButton activeButton) {
-        // Resetear todos los botones
-        resetNavButtons();
-        
-        // Resaltar botón activo
-        activeButton.setBackground(new Color(70, 130, 180));
-        activeButton.setForeground(Color.WHITE);
-        
-        // Mostrar panel
-        cardLayout.show(mainPanel, panelName);
-        
-        // Actualizar datos si es necesario
-        updatePanelData(panelName);
-    }
-
-    private void resetNavButtons() {
-        Color defaultBg = new Color(70, 70, 70);
-        Color defaultFg = Color.WHITE;
-        
-        btnDashboard.setBackground(defaultBg);
-        btnClientes.setBackground(defaultBg);
-        btnServicios.setBackground(defaultBg);
-        btnTurnos.setBackground(defaultBg);
-        
-        btnDashboard.setForeground(defaultFg);
-        btnClientes.setForeground(defaultFg);
-        btnServicios.setForeground(defaultFg);
-        btnTurnos.setForeground(defaultFg);
-    }
-
-    private void updatePanelData(String panelName) {
-    switch (panelName) {
-        case "DASHBOARD":
-            if (dashboardPanel != null) {
-                dashboardPanel.actualizarDatos();
-            }
-            break;
-        case "CLIENTES":
-            if (clientePanel != null) {
-                clientePanel.actualizarTabla(); // ← Esto debe llamarse
-            }
-            break;
-        case "SERVICIOS":
-            if (servicioPanel != null) {
-                servicioPanel.actualizarTabla();
-            }
-            break;
-        case "TURNOS":
-            if (turnoPanel != null) {
-                turnoPanel.actualizarTabla();
-            }
-            break;
-    }
-}
+package com.idra.gestionpeluqueria.view;
+
+import com.idra.gestionpeluqueria.GestionPeluqueria;
+import com.idra.gestionpeluqueria.controller.ClienteController;
+import com.idra.gestionpeluqueria.controller.ListaEsperaController;
+import com.idra.gestionpeluqueria.controller.ProfesionalController;
+import com.idra.gestionpeluqueria.controller.ServicioController;
+import com.idra.gestionpeluqueria.controller.TurnoController;
+import com.idra.gestionpeluqueria.local.ModoOffline;
+import com.idra.gestionpeluqueria.local.SnapshotLocal;
+import com.idra.gestionpeluqueria.model.Cliente;
+import com.idra.gestionpeluqueria.model.Profesional;
+import com.idra.gestionpeluqueria.model.Servicio;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.view.panels.*; // ← ESTE IMPORT FALTABA
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Ventana principal de la aplicacion de gestion de peluqueria.
+ * Implementa la navegacion entre diferentes paneles utilizando CardLayout
+ * y proporciona una barra de navegacion para acceder a las diferentes secciones.
+ * 
+ * @author Idra
+ */
+public class MainFrame extends JFrame {
+    // Turnos que se copian al snapshot local, en dias antes y despues de hoy
+    private static final int DIAS_SNAPSHOT_ATRAS = 30;
+    private static final int DIAS_SNAPSHOT_ADELANTE = 90;
+
+    private JPanel mainPanel;
+    private CardLayout cardLayout;
+
+    // Paneles
+    private DashboardPanel dashboardPanel;
+    private ClientePanel clientePanel;
+    private ServicioPanel servicioPanel;
+    private TurnoPanel turnoPanel;
+    private ReportesPanel reportesPanel;
+    private OcupacionPanel ocupacionPanel;
+
+    // Barra de navegación
+    private JButton btnDashboard, btnClientes, btnServicios, btnTurnos, btnReportes, btnOcupacion, btnSalir;
+    
+    // Aviso de modo sin conexión
+    private JPanel panelSinConexion;
+    
+     /**
+     * Constructor que inicializa la ventana principal y configura todos sus componentes.
+     */
+    public MainFrame() {
+        // Las cancelaciones se ofrecen a la lista de espera aunque no se abra el dialogo
+        ListaEsperaController.inicializar();
+        initializeUI();
+        setupEventListeners();
+        cargarDesdeSnapshot();
+        
+        ModoOffline modoOffline = ModoOffline.getInstance();
+        modoOffline.agregarOyente(sinConexion -> SwingUtilities.invokeLater(() -> cambiarEstadoConexion(sinConexion)));
+        panelSinConexion.setVisible(modoOffline.isOffline());
+    }
+
+    private void initializeUI() {
+        setTitle("Sistema de Gestión de Peluquería - Idra");
+        // Al cerrar la ventana se pasa por shutdown() para escribir los cambios pendientes
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                GestionPeluqueria.shutdown();
+            }
+        });
+        setSize(1400, 900);
+        setLocationRelativeTo(null);
+
+        // Configurar layout principal
+        setLayout(new BorderLayout());
+        
+        // Crear barra de navegación
+        createNavigationBar(); // ← CORREGÍ EL NOMBRE (estaba createNavigacionBar)
+
+        // Crear panel principal con CardLayout
+        cardLayout = new CardLayout();
+        mainPanel = new JPanel(cardLayout);
+
+        // Inicializar paneles
+        dashboardPanel = new DashboardPanel();
+        clientePanel = new ClientePanel();
+        servicioPanel = new ServicioPanel();
+        turnoPanel = new TurnoPanel();
+        reportesPanel = new ReportesPanel();
+        ocupacionPanel = new OcupacionPanel();
+
+        // Agregar paneles al CardLayout
+        mainPanel.add(dashboardPanel, "DASHBOARD");
+        mainPanel.add(clientePanel, "CLIENTES");
+        mainPanel.add(servicioPanel, "SERVICIOS");
+        mainPanel.add(turnoPanel, "TURNOS");
+        mainPanel.add(reportesPanel, "REPORTES");
+        mainPanel.add(ocupacionPanel, "OCUPACION");
+
+        add(mainPanel, BorderLayout.CENTER);
+        
+        createOfflineBanner();
+
+        // Mostrar dashboard por defecto
+        cardLayout.show(mainPanel, "DASHBOARD");
+        btnDashboard.setBackground(new Color(70, 130, 180));
+        btnDashboard.setForeground(Color.WHITE);
+    }
+
+    /**
+     * Puebla los paneles con el snapshot local para que la ventana muestre
+     * datos al instante, sin esperar a que responda la base de datos.
+     */
+    private void cargarDesdeSnapshot() {
+        SnapshotLocal.Contenido snapshot = SnapshotLocal.getInstance().cargar();
+        if (snapshot.isVacio()) {
+            return;
+        }
+        clientePanel.mostrarClientes(snapshot.getClientes());
+        servicioPanel.mostrarServicios(snapshot.getServicios());
+        turnoPanel.mostrarTurnos(snapshot.getTurnos());
+        long serviciosActivos = snapshot.getServicios().stream().filter(Servicio::isActivo).count();
+        dashboardPanel.mostrarDatos(snapshot.getClientes().size(), (int) serviciosActivos, null);
+    }
+
+    /**
+     * Carga los datos reales desde la base de datos en segundo plano,
+     * reemplaza en los paneles lo mostrado desde el snapshot y regenera
+     * el snapshot para el proximo arranque. Del snapshot solo se guardan
+     * los turnos cercanos a hoy: son los que se atienden o se reservan sin
+     * conexion, y leer todo el historial en cada reconexion no escala.
+     */
+    public void reconciliarConBaseDeDatos() {
+        TurnoController turnoController = new TurnoController();
+        LocalDate hoy = LocalDate.now();
+        CompletableFuture<List<Cliente>> clientes = new ClienteController().obtenerTodosClientesAsync();
+        CompletableFuture<List<Servicio>> servicios = new ServicioController().obtenerTodosServiciosAsync();
+        CompletableFuture<List<Profesional>> profesionales = new ProfesionalController().obtenerTodosProfesionalesAsync();
+        CompletableFuture<List<Turno>> turnosHoy = turnoController.buscarTurnosPorFechaAsync(hoy);
+        CompletableFuture<List<Turno>> turnos = turnoController.buscarTurnosPorRangoAsync(
+            hoy.minusDays(DIAS_SNAPSHOT_ATRAS), hoy.plusDays(DIAS_SNAPSHOT_ADELANTE));
+
+        CompletableFuture.allOf(clientes, servicios, profesionales, turnosHoy, turnos)
+            .thenApply(ignorado -> {
+                DatosIniciales datos = new DatosIniciales();
+                datos.clientes = clientes.join();
+                datos.servicios = servicios.join();
+                datos.profesionales = profesionales.join();
+                datos.turnosHoy = turnosHoy.join();
+                datos.turnos = turnos.join();
+                // Sin conexión los datos ya vienen del snapshot y no hace falta reescribirlo
+                if (ModoOffline.getInstance().isOffline()) {
+                    return datos;
+                }
+                try {
+                    SnapshotLocal.getInstance().guardar(datos.servicios, datos.clientes, datos.profesionales, datos.turnos);
+                } catch (IOException e) {
+                    System.err.println("No se pudo guardar el snapshot local: " + e.getMessage());
+                }
+                return datos;
+            })
+            .whenComplete((datos, error) -> SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    System.err.println("❌ No se pudo reconciliar con la base de datos: " + causa.getMessage());
+                    return;
+                }
+                long serviciosActivos = datos.servicios.stream().filter(Servicio::isActivo).count();
+                clientePanel.mostrarClientes(datos.clientes);
+                servicioPanel.mostrarServicios(datos.servicios);
+                turnoPanel.actualizarTabla();
+                dashboardPanel.mostrarDatos(datos.clientes.size(), (int) serviciosActivos, datos.turnosHoy);
+            }));
+    }
+
+    private void createOfflineBanner() {
+        panelSinConexion = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        panelSinConexion.setBackground(new Color(255, 193, 7));
+        
+        JLabel lblSinConexion = new JLabel("⚠️ Sin conexión con la base de datos. "
+            + "Los turnos nuevos y los pagos se guardan localmente y se sincronizarán al reconectar.");
+        lblSinConexion.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        
+        JButton btnReintentar = new JButton("🔄 Reintentar");
+        btnReintentar.setFocusPainted(false);
+        btnReintentar.addActionListener(e -> ModoOffline.getInstance().reintentarAhora());
+        
+        panelSinConexion.add(lblSinConexion);
+        panelSinConexion.add(btnReintentar);
+        panelSinConexion.setVisible(false);
+        add(panelSinConexion, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Muestra u oculta el aviso de modo sin conexión. Al reconectar informa
+     * los cambios locales que no se pudieron aplicar y recarga los datos.
+     */
+    private void cambiarEstadoConexion(boolean sinConexion) {
+        panelSinConexion.setVisible(sinConexion);
+        revalidate();
+        if (sinConexion) {
+            return;
+        }
+        
+        List<String> avisos = ModoOffline.getInstance().tomarAvisosReconexion();
+        if (!avisos.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                "Se recuperó la conexión, pero algunos cambios hechos sin conexión no se aplicaron:\n\n"
+                    + String.join("\n", avisos),
+                "Cambios sin conexión en conflicto",
+                JOptionPane.WARNING_MESSAGE);
+        }
+        reconciliarConBaseDeDatos();
+    }
+
+    private void createNavigationBar() { 
+        JPanel navPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        navPanel.setBackground(new Color(50, 50, 50));
+        navPanel.setPreferredSize(new Dimension(getWidth(), 60));
+        navPanel.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+
+        // Crear botones con estilo
+        btnDashboard = createNavButton("🏠 Dashboard");
+        btnClientes = createNavButton("👥 Clientes");
+        btnServicios = createNavButton("✂️ Servicios");
+        btnTurnos = createNavButton("📅 Turnos");
+        btnReportes = createNavButton("📊 Reportes");
+        btnOcupacion = createNavButton("🔥 Ocupación");
+        btnSalir = createNavButton("🚪 Salir");
+        btnSalir.setBackground(new Color(220, 53, 69));
+
+        navPanel.add(btnDashboard);
+        navPanel.add(Box.createHorizontalStrut(10));
+        navPanel.add(btnClientes);
+        navPanel.add(Box.createHorizontalStrut(10));
+        navPanel.add(btnServicios);
+        navPanel.add(Box.createHorizontalStrut(10));
+        navPanel.add(btnTurnos);
+        navPanel.add(Box.createHorizontalStrut(10));
+        navPanel.add(btnReportes);
+        navPanel.add(Box.createHorizontalStrut(10));
+        navPanel.add(btnOcupacion);
+        navPanel.add(Box.createHorizontalStrut(50));
+        navPanel.add(btnSalir);
+
+        add(navPanel, BorderLayout.NORTH);
+    }
+
+    private JButton createNavButton(String text) {
+    JButton button = new JButton(text);
+    button.setFont(new Font("Segoe UI", Font.BOLD, 14));
+    button.setBackground(new Color(70, 70, 70));
+    button.setForeground(Color.WHITE);
+    button.setFocusPainted(false);
+    button.setBorder(BorderFactory.createCompoundBorder(
+        BorderFactory.createLineBorder(new Color(100, 100, 100)),
+        BorderFactory.createEmptyBorder(10, 20, 10, 20)
+    ));
+    button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+    
+    
+    button.setOpaque(true);
+    button.setContentAreaFilled(true);
+    button.setBorderPainted(true);
+    
+    // Efecto hover
+    button.addMouseListener(new java.awt.event.MouseAdapter() {
+        public void mouseEntered(java.awt.event.MouseEvent evt) {
+            if (!button.getBackground().equals(new Color(70, 130, 180))) {
+                button.setBackground(new Color(90, 90, 90));
+                button.setForeground(Color.WHITE); // Forzar color blanco
+            }
+        }
+        
+        public void mouseExited(java.awt.event.MouseEvent evt) {
+            if (!button.getBackground().equals(new Color(70, 130, 180))) {
+                button.setBackground(new Color(70, 70, 70));
+                button.setForeground(Color.WHITE); // Forzar color blanco
+            }
+        }
+    });
+
+    return button;
+}
+
+    private void setupEventListeners() {
+        btnDashboard.addActionListener(e -> showPanel("DASHBOARD", btnDashboard));
+        btnClientes.addActionListener(e -> showPanel("CLIENTES", btnClientes));
+        btnServicios.addActionListener(e -> showPanel("SERVICIOS", btnServicios));
+        btnTurnos.addActionListener(e -> showPanel("TURNOS", btnTurnos));
+        btnReportes.addActionListener(e -> showPanel("REPORTES", btnReportes));
+        btnOcupacion.addActionListener(e -> showPanel("OCUPACION", btnOcupacion));
+        
+        btnSalir.addActionListener(e -> {
+            int confirm = JOptionPane.showConfirmDialog(
+                this,
+                "¿Está seguro que desea salir del sistema?",
+                "Confirmar Salida",
+                JOptionPane.YES_NO_OPTION
+            );
+            if (confirm == JOptionPane.YES_OPTION) {
+                GestionPeluqueria.shutdown();
+            }
+        });
+    }
+
+    private void showPanel(String panelName, JButton activeButton) {
+        // Resetear todos los botones
+        resetNavButtons();
+        
+        // Resaltar botón activo
+        activeButton.setBackground(new Color(70, 130, 180));
+        activeButton.setForeground(Color.WHITE);
+        
+        // Mostrar panel
+        cardLayout.show(mainPanel, panelName);
+        
+        // Actualizar datos si es necesario
+        updatePanelData(panelName);
+    }
+
+    private void resetNavButtons() {
+        Color defaultBg = new Color(70, 70, 70);
+        Color defaultFg = Color.WHITE;
+        
+        btnDashboard.setBackground(defaultBg);
+        btnClientes.setBackground(defaultBg);
+        btnServicios.setBackground(defaultBg);
+        btnTurnos.setBackground(defaultBg);
+        btnReportes.setBackground(defaultBg);
+        btnOcupacion.setBackground(defaultBg);
+        
+        btnDashboard.setForeground(defaultFg);
+        btnClientes.setForeground(defaultFg);
+        btnServicios.setForeground(defaultFg);
+        btnTurnos.setForeground(defaultFg);
+        btnReportes.setForeground(defaultFg);
+        btnOcupacion.setForeground(defaultFg);
+    }
+
+    private void updatePanelData(String panelName) {
+    switch (panelName) {
+        case "DASHBOARD":
+            if (dashboardPanel != null) {
+                dashboardPanel.actualizarDatos();
+            }
+            break;
+        case "CLIENTES":
+            if (clientePanel != null) {
+                clientePanel.actualizarTabla(); // ← Esto debe llamarse
+            }
+            break;
+        case "SERVICIOS":
+            if (servicioPanel != null) {
+                servicioPanel.actualizarTabla();
+            }
+            break;
+        case "TURNOS":
+            if (turnoPanel != null) {
+                turnoPanel.actualizarTabla();
+            }
+            break;
+        case "OCUPACION":
+            if (ocupacionPanel != null) {
+                ocupacionPanel.actualizarDatos();
+            }
+            break;
+    }
+}
+
+    // Resultado de la carga inicial en segundo plano
+    private static class DatosIniciales {
+        List<Cliente> clientes;
+        List<Servicio> servicios;
+        List<Profesional> profesionales;
+        List<Turno> turnosHoy;
+        List<Turno> turnos;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.idra.gestionpeluqueria.view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo de tabla que guarda los objetos de dominio en una lista y calcula
+ * cada celda a partir de ellos al dibujarla, sin copiar los valores a filas
+ * aparte.
+ *
+ * Reemplazar todo el contenido avisa a la tabla con un unico evento, y los
+ * cambios que llegan por eventos de dominio se aplican por ID a una sola
+ * fila. Como todos los modelos de Swing, se usa solo desde el hilo de
+ * eventos.
+ *
+ * @param <T> Tipo de los objetos de cada fila
+ * @author Idra
+ */
+public class ModeloTabla<T> extends AbstractTableModel {
+
+    private final ToIntFunction<? super T> clave;
+    private final Comparator<? super T> orden;
+    private final List<String> nombres = new ArrayList<>();
+    private final List<Function<? super T, ?>> valores = new ArrayList<>();
+    private List<T> filas = new ArrayList<>();
+    // Fila de cada ID; se arma de nuevo en la primera busqueda despues de
+    // agregar o quitar filas
+    private Map<Integer, Integer> indice;
+
+    /**
+     * Constructor de un modelo sin filas ni columnas.
+     *
+     * @param clave Devuelve el ID de cada objeto
+     * @param orden Orden de las filas, usado al agregar o mover una sola
+     */
+    public ModeloTabla(ToIntFunction<? super T> clave, Comparator<? super T> orden) {
+        this.clave = clave;
+        this.orden = orden;
+    }
+
+    /**
+     * Agrega una columna. Se llama al crear el modelo, antes de asignarlo a
+     * la tabla.
+     *
+     * @param nombre Titulo de la columna
+     * @param valor Calcula el valor de la celda a partir del objeto de la fila
+     * @return Este modelo, para encadenar las columnas
+     */
+    public ModeloTabla<T> columna(String nombre, Function<? super T, ?> valor) {
+        nombres.add(nombre);
+        valores.add(valor);
+        return this;
+    }
+
+    /**
+     * Reemplaza todas las filas, en el orden en que vienen, con un solo
+     * aviso a la tabla.
+     *
+     * @param nuevas Los objetos a mostrar
+     */
+    public void reemplazarTodo(List<? extends T> nuevas) {
+        filas = new ArrayList<>(nuevas);
+        indice = null;
+        fireTableDataChanged();
+    }
+
+    /**
+     * @param fila Indice de la fila en el modelo
+     * @return El objeto de esa fila
+     */
+    public T getFila(int fila) {
+        return filas.get(fila);
+    }
+
+    /**
+     * @return Los objetos de todas las filas, en orden, sin poder modificarlos
+     */
+    public List<T> getFilas() {
+        return Collections.unmodifiableList(filas);
+    }
+
+    /**
+     * Busca la fila de un objeto por su ID.
+     *
+     * @param id ID del objeto
+     * @return El indice de la fila, o -1 si no esta
+     */
+    public int buscar(int id) {
+        if (indice == null) {
+            indice = new HashMap<>();
+            for (int fila = 0; fila < filas.size(); fila++) {
+                indice.put(clave.applyAsInt(filas.get(fila)), fila);
+            }
+        }
+        return indice.getOrDefault(id, -1);
+    }
+
+    /**
+     * Agrega la fila de un objeto o reemplaza la que tiene su mismo ID. Si
+     * sigue en su lugar segun el orden, se actualiza en el sitio para no
+     * perder la seleccion; si no, se mueve a la posicion que le toca.
+     *
+     * @param objeto El objeto nuevo o modificado
+     */
+    public void agregarOReemplazar(T objeto) {
+        int fila = buscar(clave.applyAsInt(objeto));
+        if (fila >= 0) {
+            boolean enOrden = (fila == 0 || orden.compare(filas.get(fila - 1), objeto) <= 0)
+                && (fila == filas.size() - 1 || orden.compare(objeto, filas.get(fila + 1)) <= 0);
+            if (enOrden) {
+                filas.set(fila, objeto);
+                fireTableRowsUpdated(fila, fila);
+                return;
+            }
+            quitarFila(fila);
+        }
+        int posicion = 0;
+        while (posicion < filas.size() && orden.compare(filas.get(posicion), objeto) <= 0) {
+            posicion++;
+        }
+        filas.add(posicion, objeto);
+        indice = null;
+        fireTableRowsInserted(posicion, posicion);
+    }
+
+    /**
+     * Quita la fila de un objeto, si esta.
+     *
+     * @param id ID del objeto
+     */
+    public void quitar(int id) {
+        int fila = buscar(id);
+        if (fila >= 0) {
+            quitarFila(fila);
+        }
+    }
+
+    private void quitarFila(int fila) {
+        filas.remove(fila);
+        indice = null;
+        fireTableRowsDeleted(fila, fila);
+    }
+
+    @Override
+    public int getRowCount() {
+        return filas.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return nombres.size();
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return nombres.get(columna);
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        return valores.get(columna).apply(filas.get(fila));
+    }
+}
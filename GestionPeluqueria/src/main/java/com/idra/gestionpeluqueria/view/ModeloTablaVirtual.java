@@ -0,0 +1,360 @@
+package com.idra.gestionpeluqueria.view;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo de tabla para listados demasiado grandes para leerlos completos.
+ * La tabla sabe cuantas filas hay por una sola consulta de conteo, y las
+ * filas se leen por paginas de tamaño fijo recien cuando se dibujan.
+ *
+ * Las paginas se piden en un hilo propio, primero la ultima que se
+ * necesito, y al llegar una pagina visible se pide tambien la siguiente.
+ * Se guardan las ultimas paginas usadas; las demas se vuelven a leer si
+ * hacen falta. Cada pagina se busca a partir de la ultima fila de una
+ * pagina anterior ya leida (busqueda por clave), saltando solo las filas
+ * de las paginas intermedias que no se leyeron. Junto con el conteo se
+ * leen, si la fuente las da, anclas cada tantas paginas: asi un salto
+ * lejano, como llevar la barra al final, nunca saltea mas que esas paginas.
+ *
+ * Salvo la lectura de las paginas, todo se usa desde el hilo de eventos.
+ *
+ * @param <T> Tipo de los objetos de cada fila
+ * @author Idra
+ */
+public class ModeloTablaVirtual<T> extends AbstractTableModel {
+
+    /**
+     * Origen de las filas, consultado fuera del hilo de eventos.
+     *
+     * @param <T> Tipo de los objetos de cada fila
+     */
+    public interface Fuente<T> {
+        /**
+         * @return Cantidad total de filas
+         */
+        int contar() throws Exception;
+
+        /**
+         * Lee una pagina de filas.
+         *
+         * @param anterior Ultima fila leida antes de la pagina, o null para empezar por la primera
+         * @param saltear Filas a saltear despues de anterior
+         * @param cantidad Tamaño de la pagina
+         * @return Las filas de la pagina
+         */
+        List<T> buscarPagina(T anterior, int saltear, int cantidad) throws Exception;
+
+        /**
+         * Lee las filas en las posiciones cada, 2 * cada, 3 * cada... (contando
+         * desde 1), que se usan como anterior al pedir las paginas lejanas.
+         * Por defecto no hay anclas y se saltea desde la ultima pagina leida.
+         *
+         * @param cada Cada cuantas filas se toma una
+         * @return Las filas elegidas, en orden; basta con lo que use buscarPagina
+         */
+        default List<T> buscarAnclas(int cada) throws Exception {
+            return List.of();
+        }
+    }
+
+    private static final int PAGINAS_EN_MEMORIA = 20;
+    // Separacion de las anclas leidas con el conteo: un salto lejano saltea a lo sumo estas paginas
+    private static final int PAGINAS_POR_ANCLA = 50;
+    // Al desplazarse rapido se descartan los pedidos mas viejos, que ya no se ven
+    private static final int PEDIDOS_EN_ESPERA = 4;
+
+    private final String descripcion;
+    private final Fuente<T> fuente;
+    private final ToIntFunction<? super T> clave;
+    private final Comparator<? super T> orden;
+    private final int tamanioPagina;
+    private final List<String> nombres = new ArrayList<>();
+    private final List<Function<? super T, ?>> valores = new ArrayList<>();
+    private final LinkedBlockingDeque<Pedido> pedidos = new LinkedBlockingDeque<>();
+
+    private final Map<Integer, List<T>> paginas = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> masVieja) {
+            return size() > PAGINAS_EN_MEMORIA;
+        }
+    };
+    // Paginas de antes de recargar, que se siguen mostrando hasta que llegan las nuevas
+    private Map<Integer, List<T>> anteriores = new HashMap<>();
+    // Ultima fila de cada pagina leida, desde donde se buscan las siguientes
+    private final TreeMap<Integer, T> anclas = new TreeMap<>();
+    private final Set<Integer> pendientes = new HashSet<>();
+    private BiConsumer<String, Throwable> manejadorError = (descripcion, causa) -> { };
+    private int filas;
+    private boolean conError;
+    private volatile long generacion;
+
+    /**
+     * Constructor de un modelo sin filas ni columnas. Las filas se cuentan
+     * y se empiezan a leer con {@link #cargar()}.
+     *
+     * @param descripcion Descripcion del listado, usada en el nombre del hilo y en los errores
+     * @param fuente Origen de las filas
+     * @param clave Devuelve el ID de cada objeto
+     * @param orden Orden de las filas segun la fuente
+     * @param tamanioPagina Filas por pagina
+     */
+    public ModeloTablaVirtual(String descripcion, Fuente<T> fuente, ToIntFunction<? super T> clave,
+                              Comparator<? super T> orden, int tamanioPagina) {
+        this.descripcion = descripcion;
+        this.fuente = fuente;
+        this.clave = clave;
+        this.orden = orden;
+        this.tamanioPagina = tamanioPagina;
+
+        Thread hilo = new Thread(this::atenderPedidos, "paginas-" + descripcion);
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Agrega una columna. Se llama al crear el modelo, antes de asignarlo a
+     * la tabla.
+     *
+     * @param nombre Titulo de la columna
+     * @param valor Calcula el valor de la celda a partir del objeto de la fila
+     * @return Este modelo, para encadenar las columnas
+     */
+    public ModeloTablaVirtual<T> columna(String nombre, Function<? super T, ?> valor) {
+        nombres.add(nombre);
+        valores.add(valor);
+        return this;
+    }
+
+    /**
+     * Asigna un manejador de errores; sin el, los errores solo se informan
+     * por consola. Despues de un error no se piden mas paginas hasta la proxima
+     * llamada a {@link #cargar()}.
+     *
+     * @param manejadorError Recibe la descripcion del listado y la causa del error
+     */
+    public void setManejadorError(BiConsumer<String, Throwable> manejadorError) {
+        this.manejadorError = manejadorError;
+    }
+
+    /**
+     * Vuelve a contar las filas y descarta las paginas leidas. Mientras
+     * llegan las nuevas se siguen mostrando las anteriores.
+     */
+    public void cargar() {
+        final long miGeneracion = ++generacion;
+        pedidos.clear();
+        pendientes.clear();
+        anclas.clear();
+        anteriores = new HashMap<>(paginas);
+        paginas.clear();
+        conError = false;
+
+        pedidos.offerFirst(new Pedido(-1, false) {
+            @Override
+            void ejecutar() throws Exception {
+                int total = fuente.contar();
+                int cada = PAGINAS_POR_ANCLA * tamanioPagina;
+                List<T> lejanas = total > cada ? fuente.buscarAnclas(cada) : List.of();
+                SwingUtilities.invokeLater(() -> {
+                    if (miGeneracion == generacion) {
+                        filas = total;
+                        // La ancla i es la ultima fila de la pagina (i + 1) * PAGINAS_POR_ANCLA - 1
+                        for (int i = 0; i < lejanas.size(); i++) {
+                            anclas.putIfAbsent((i + 1) * PAGINAS_POR_ANCLA - 1, lejanas.get(i));
+                        }
+                        fireTableDataChanged();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * @param fila Indice de la fila en el modelo
+     * @return El objeto de esa fila, o null si su pagina todavia no se leyo
+     */
+    public T getFila(int fila) {
+        List<T> pagina = pagina(fila / tamanioPagina);
+        int posicion = fila % tamanioPagina;
+        return pagina != null && posicion < pagina.size() ? pagina.get(posicion) : null;
+    }
+
+    /**
+     * @return Los objetos de las paginas leidas, sin orden particular
+     */
+    public List<T> getCargadas() {
+        List<T> cargadas = new ArrayList<>();
+        for (List<T> pagina : paginas.values()) {
+            cargadas.addAll(pagina);
+        }
+        return cargadas;
+    }
+
+    /**
+     * Reemplaza la fila de un objeto modificado si esta en una pagina leida
+     * y su posicion segun el orden no cambio.
+     *
+     * @param objeto El objeto modificado
+     * @return false si no se pudo reemplazar y hace falta {@link #cargar()}:
+     *         el objeto es nuevo, se movio o no esta en las paginas leidas
+     */
+    public boolean reemplazar(T objeto) {
+        int id = clave.applyAsInt(objeto);
+        for (Map.Entry<Integer, List<T>> pagina : paginas.entrySet()) {
+            List<T> filasPagina = pagina.getValue();
+            for (int i = 0; i < filasPagina.size(); i++) {
+                if (clave.applyAsInt(filasPagina.get(i)) == id) {
+                    if (orden.compare(filasPagina.get(i), objeto) != 0) {
+                        return false;
+                    }
+                    filasPagina.set(i, objeto);
+                    int fila = pagina.getKey() * tamanioPagina + i;
+                    fireTableRowsUpdated(fila, fila);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private List<T> pagina(int numero) {
+        List<T> pagina = paginas.get(numero);
+        if (pagina == null) {
+            solicitar(numero, true);
+            pagina = anteriores.get(numero);
+        }
+        return pagina;
+    }
+
+    private void solicitar(int numero, boolean visible) {
+        if (conError || !pendientes.add(numero)) {
+            return;
+        }
+        Map.Entry<Integer, T> ancla = anclas.lowerEntry(numero);
+        T anterior = ancla != null ? ancla.getValue() : null;
+        int saltear = (numero - (ancla != null ? ancla.getKey() + 1 : 0)) * tamanioPagina;
+        final long miGeneracion = generacion;
+
+        Pedido pedido = new Pedido(numero, visible) {
+            @Override
+            void ejecutar() throws Exception {
+                if (miGeneracion != generacion) {
+                    return;
+                }
+                List<T> filasPagina = fuente.buscarPagina(anterior, saltear, tamanioPagina);
+                SwingUtilities.invokeLater(() -> recibir(miGeneracion, this, filasPagina));
+            }
+        };
+        if (visible) {
+            pedidos.offerFirst(pedido);
+        } else {
+            pedidos.offerLast(pedido);
+        }
+
+        Iterator<Pedido> viejos = pedidos.descendingIterator();
+        while (pedidos.size() > PEDIDOS_EN_ESPERA && viejos.hasNext()) {
+            Pedido viejo = viejos.next();
+            if (viejo.numero >= 0) {
+                viejos.remove();
+                pendientes.remove(viejo.numero);
+            }
+        }
+    }
+
+    private void recibir(long miGeneracion, Pedido pedido, List<T> filasPagina) {
+        if (miGeneracion != generacion) {
+            return;
+        }
+        pendientes.remove(pedido.numero);
+        paginas.put(pedido.numero, filasPagina);
+        anteriores.remove(pedido.numero);
+        if (!filasPagina.isEmpty()) {
+            anclas.put(pedido.numero, filasPagina.get(filasPagina.size() - 1));
+        }
+
+        int primera = pedido.numero * tamanioPagina;
+        int ultima = Math.min(primera + tamanioPagina, filas) - 1;
+        if (primera <= ultima) {
+            fireTableRowsUpdated(primera, ultima);
+        }
+        int siguiente = pedido.numero + 1;
+        if (pedido.visible && siguiente * tamanioPagina < filas && !paginas.containsKey(siguiente)) {
+            solicitar(siguiente, false);
+        }
+    }
+
+    private void atenderPedidos() {
+        while (true) {
+            Pedido pedido;
+            try {
+                pedido = pedidos.takeFirst();
+            } catch (InterruptedException e) {
+                return;
+            }
+            final long miGeneracion = generacion;
+            try {
+                pedido.ejecutar();
+            } catch (Exception e) {
+                SwingUtilities.invokeLater(() -> {
+                    if (miGeneracion == generacion && !conError) {
+                        conError = true;
+                        System.err.println("❌ " + descripcion + ": " + e.getMessage());
+                        manejadorError.accept(descripcion, e);
+                    }
+                });
+            }
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return filas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return nombres.size();
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return nombres.get(columna);
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        T objeto = getFila(fila);
+        return objeto != null ? valores.get(columna).apply(objeto) : null;
+    }
+
+    /**
+     * Conteo o lectura de una pagina pendiente. Las paginas tienen numero
+     * desde 0; el conteo usa -1.
+     */
+    private abstract static class Pedido {
+        final int numero;
+        final boolean visible;
+
+        Pedido(int numero, boolean visible) {
+            this.numero = numero;
+            this.visible = visible;
+        }
+
+        abstract void ejecutar() throws Exception;
+    }
+}
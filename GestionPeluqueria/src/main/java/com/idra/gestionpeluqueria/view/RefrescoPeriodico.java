@@ -0,0 +1,118 @@
+package com.idra.gestionpeluqueria.view;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * Repite una consulta en segundo plano cada cierto intervalo y entrega el
+ * resultado en el EDT. Pensado para pantallas que se mantienen al dia solas.
+ *
+ * Cada refresco se programa recien cuando termina el anterior, asi que una
+ * consulta lenta nunca se superpone con la siguiente. Mientras la pantalla
+ * no esta activa (la ventana no tiene el foco o el panel no se ve) el
+ * intervalo se duplica en cada refresco hasta un maximo; al volver a estar
+ * activa se refresca en el momento y se vuelve al intervalo normal. Un
+ * error tambien alarga el intervalo, para no insistir contra una base de
+ * datos con problemas.
+ *
+ * @author Idra
+ *
+ * @param <T> Tipo del resultado de la consulta
+ */
+public class RefrescoPeriodico<T> {
+
+    private final String descripcion;
+    private final long intervaloMs;
+    private final long intervaloMaximoMs;
+    private final CargadorSegundoPlano.Consulta<T> consulta;
+    private final Consumer<T> alCompletar;
+    private final ScheduledExecutorService executor;
+
+    private boolean activo = true;
+    private boolean iniciado;
+    private long esperaMs;
+    private ScheduledFuture<?> proximo;
+
+    /**
+     * Constructor que define la consulta y los intervalos.
+     *
+     * @param descripcion Descripcion del refresco, usada en el nombre del hilo y en los errores
+     * @param intervaloMs Intervalo entre refrescos mientras la pantalla esta activa
+     * @param intervaloMaximoMs Intervalo al que se llega duplicando mientras no lo esta
+     * @param consulta La consulta a ejecutar fuera del EDT
+     * @param alCompletar Recibe cada resultado en el EDT
+     */
+    public RefrescoPeriodico(String descripcion, long intervaloMs, long intervaloMaximoMs,
+                             CargadorSegundoPlano.Consulta<T> consulta, Consumer<T> alCompletar) {
+        this.descripcion = descripcion;
+        this.intervaloMs = intervaloMs;
+        this.intervaloMaximoMs = Math.max(intervaloMs, intervaloMaximoMs);
+        this.consulta = consulta;
+        this.alCompletar = alCompletar;
+        this.esperaMs = intervaloMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "refresco-" + descripcion);
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Programa el primer refresco, a un intervalo de ahora. Si ya estaba
+     * iniciado no hace nada.
+     */
+    public synchronized void iniciar() {
+        if (!iniciado) {
+            iniciado = true;
+            programar(esperaMs);
+        }
+    }
+
+    /**
+     * Indica si la pantalla esta a la vista del usuario. Al pasar a activa se
+     * refresca en el momento, si ya se inicio.
+     *
+     * @param activo true si la pantalla se esta mostrando y su ventana tiene el foco
+     */
+    public synchronized void setActivo(boolean activo) {
+        if (activo == this.activo) {
+            return;
+        }
+        this.activo = activo;
+        if (activo) {
+            esperaMs = intervaloMs;
+            if (iniciado) {
+                programar(0);
+            }
+        }
+    }
+
+    private synchronized void programar(long demoraMs) {
+        if (proximo != null) {
+            proximo.cancel(false);
+        }
+        proximo = executor.schedule(this::refrescar, demoraMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized long siguienteEspera(boolean exito) {
+        esperaMs = exito && activo ? intervaloMs : Math.min(esperaMs * 2, intervaloMaximoMs);
+        return esperaMs;
+    }
+
+    private void refrescar() {
+        boolean exito;
+        try {
+            T resultado = consulta.ejecutar();
+            SwingUtilities.invokeLater(() -> alCompletar.accept(resultado));
+            exito = true;
+        } catch (Exception e) {
+            System.err.println("Error en el refresco de " + descripcion + ": " + e.getMessage());
+            exito = false;
+        }
+        programar(siguienteEspera(exito));
+    }
+}
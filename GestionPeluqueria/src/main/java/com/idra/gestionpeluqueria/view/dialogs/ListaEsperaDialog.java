@@ -0,0 +1,291 @@
+package com.idra.gestionpeluqueria.view.dialogs;
+
+import com.idra.gestionpeluqueria.controller.ClienteController;
+import com.idra.gestionpeluqueria.controller.ListaEsperaController;
+import com.idra.gestionpeluqueria.controller.ServicioController;
+import com.idra.gestionpeluqueria.event.BusEventos;
+import com.idra.gestionpeluqueria.event.OfertaListaEspera;
+import com.idra.gestionpeluqueria.model.Cliente;
+import com.idra.gestionpeluqueria.model.Servicio;
+import com.idra.gestionpeluqueria.model.SolicitudEspera;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.model.enums.EstadoEspera;
+import com.idra.gestionpeluqueria.view.CargadorSegundoPlano;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dialogo de la lista de espera. Muestra las solicitudes vigentes, permite
+ * anotar clientes nuevos y responder las ofertas de horarios liberados.
+ *
+ * @author Idra
+ */
+public class ListaEsperaDialog extends JDialog {
+    private static final DateTimeFormatter FORMATO_FECHA_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private JTable tablaSolicitudes;
+    private DefaultTableModel tableModel;
+    private JComboBox<Cliente> comboCliente;
+    private JComboBox<Servicio> comboServicio;
+    private JTextField txtFechaDesde, txtFechaHasta, txtHoraDesde, txtHoraHasta;
+    private JButton btnAnotar, btnReservar, btnRechazar, btnQuitar, btnCerrar;
+    private final ListaEsperaController listaEsperaController = new ListaEsperaController();
+    private final CargadorSegundoPlano cargador = new CargadorSegundoPlano(this);
+    // Solicitudes de las filas visibles, en el mismo orden
+    private final List<SolicitudEspera> solicitudesMostradas = new ArrayList<>();
+    private final BusEventos.Suscripcion suscripcionOfertas;
+
+    /**
+     * Constructor que crea el dialogo y carga la lista en segundo plano.
+     *
+     * @param parent El frame padre del dialogo
+     */
+    public ListaEsperaDialog(JFrame parent) {
+        super(parent, "Lista de Espera", true);
+        initializeUI();
+        cargarCombos();
+        cargarSolicitudes();
+
+        // Las ofertas hechas con el dialogo abierto aparecen sin recargar a mano
+        suscripcionOfertas = BusEventos.getInstance().suscribirEnEDT(OfertaListaEspera.class, evento -> cargarSolicitudes());
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                suscripcionOfertas.cancelar();
+            }
+        });
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+    }
+
+    private void initializeUI() {
+        setSize(850, 520);
+        setLocationRelativeTo(getParent());
+        setLayout(new BorderLayout(10, 10));
+
+        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        String[] columnas = {"Cliente", "Servicio", "Desde", "Hasta", "Franja", "Estado", "Horario ofrecido"};
+        tableModel = new DefaultTableModel(columnas, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        tablaSolicitudes = new JTable(tableModel);
+        tablaSolicitudes.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tablaSolicitudes.setRowHeight(25);
+        tablaSolicitudes.getSelectionModel().addListSelectionListener(e -> actualizarBotones());
+        mainPanel.add(new JScrollPane(tablaSolicitudes), BorderLayout.CENTER);
+
+        JPanel surPanel = new JPanel(new BorderLayout(5, 5));
+        surPanel.add(createFormPanel(), BorderLayout.NORTH);
+        surPanel.add(createButtonPanel(), BorderLayout.SOUTH);
+        mainPanel.add(surPanel, BorderLayout.SOUTH);
+
+        add(mainPanel);
+        actualizarBotones();
+    }
+
+    private JPanel createFormPanel() {
+        JPanel formPanel = new JPanel(new GridBagLayout());
+        formPanel.setBorder(BorderFactory.createTitledBorder("Anotar en la lista"));
+
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(3, 5, 3, 5);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.weightx = 1.0;
+
+        comboCliente = new JComboBox<>();
+        comboServicio = new JComboBox<>();
+        txtFechaDesde = new JTextField(LocalDate.now().toString(), 9);
+        txtFechaHasta = new JTextField(LocalDate.now().plusWeeks(1).toString(), 9);
+        txtHoraDesde = new JTextField("09:00", 5);
+        txtHoraHasta = new JTextField("20:00", 5);
+
+        gbc.gridy = 0;
+        gbc.gridx = 0; formPanel.add(new JLabel("Cliente:*"), gbc);
+        gbc.gridx = 1; formPanel.add(comboCliente, gbc);
+        gbc.gridx = 2; formPanel.add(new JLabel("Servicio:*"), gbc);
+        gbc.gridx = 3; formPanel.add(comboServicio, gbc);
+
+        gbc.gridy = 1;
+        gbc.gridx = 0; formPanel.add(new JLabel("Entre (YYYY-MM-DD):*"), gbc);
+        JPanel fechasPanel = new JPanel(new GridLayout(1, 2, 5, 0));
+        fechasPanel.add(txtFechaDesde);
+        fechasPanel.add(txtFechaHasta);
+        gbc.gridx = 1; formPanel.add(fechasPanel, gbc);
+        gbc.gridx = 2; formPanel.add(new JLabel("Franja (HH:MM):*"), gbc);
+        JPanel horasPanel = new JPanel(new GridLayout(1, 2, 5, 0));
+        horasPanel.add(txtHoraDesde);
+        horasPanel.add(txtHoraHasta);
+        gbc.gridx = 3; formPanel.add(horasPanel, gbc);
+
+        btnAnotar = new JButton("➕ Anotar");
+        btnAnotar.setEnabled(false);
+        btnAnotar.addActionListener(e -> anotarSolicitud());
+        gbc.gridy = 2; gbc.gridx = 3;
+        gbc.fill = GridBagConstraints.NONE;
+        gbc.anchor = GridBagConstraints.EAST;
+        formPanel.add(btnAnotar, gbc);
+
+        return formPanel;
+    }
+
+    private JPanel createButtonPanel() {
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+
+        btnReservar = new JButton("✅ Reservar oferta");
+        btnRechazar = new JButton("↪ Rechazar oferta");
+        btnQuitar = new JButton("❌ Quitar de la lista");
+        btnCerrar = new JButton("Cerrar");
+
+        btnReservar.addActionListener(e -> reservarOferta());
+        btnRechazar.addActionListener(e -> rechazarOferta());
+        btnQuitar.addActionListener(e -> quitarSolicitud());
+        btnCerrar.addActionListener(e -> dispose());
+
+        buttonPanel.add(btnReservar);
+        buttonPanel.add(btnRechazar);
+        buttonPanel.add(btnQuitar);
+        buttonPanel.add(btnCerrar);
+        return buttonPanel;
+    }
+
+    private void cargarCombos() {
+        ClienteController clienteController = new ClienteController();
+        ServicioController servicioController = new ServicioController();
+        cargador.ejecutar("Error al cargar datos", () -> {
+            Object[] combos = {clienteController.obtenerTodosClientes(), servicioController.obtenerServiciosActivos()};
+            return combos;
+        }, combos -> {
+            @SuppressWarnings("unchecked")
+            List<Cliente> clientes = (List<Cliente>) combos[0];
+            @SuppressWarnings("unchecked")
+            List<Servicio> servicios = (List<Servicio>) combos[1];
+            clientes.forEach(comboCliente::addItem);
+            servicios.forEach(comboServicio::addItem);
+            btnAnotar.setEnabled(true);
+        });
+    }
+
+    private void cargarSolicitudes() {
+        cargador.cargar("Error al cargar la lista de espera",
+            listaEsperaController::obtenerSolicitudesVigentes, this::mostrarSolicitudes);
+    }
+
+    private void mostrarSolicitudes(List<SolicitudEspera> solicitudes) {
+        tableModel.setRowCount(0);
+        solicitudesMostradas.clear();
+        for (SolicitudEspera solicitud : solicitudes) {
+            solicitudesMostradas.add(solicitud);
+            tableModel.addRow(new Object[]{
+                solicitud.getCliente(),
+                solicitud.getServicio().getNombre(),
+                solicitud.getFechaDesde(),
+                solicitud.getFechaHasta(),
+                solicitud.getHoraDesde() + " - " + solicitud.getHoraHasta(),
+                solicitud.getEstado(),
+                solicitud.getFechaHoraOfrecida() != null ? solicitud.getFechaHoraOfrecida().format(FORMATO_FECHA_HORA) : ""
+            });
+        }
+        actualizarBotones();
+    }
+
+    private void actualizarBotones() {
+        SolicitudEspera seleccionada = seleccionada();
+        boolean conOferta = seleccionada != null && seleccionada.getEstado() == EstadoEspera.OFRECIDA;
+        btnReservar.setEnabled(conOferta);
+        btnRechazar.setEnabled(conOferta);
+        btnQuitar.setEnabled(seleccionada != null);
+    }
+
+    private SolicitudEspera seleccionada() {
+        int fila = tablaSolicitudes.getSelectedRow();
+        return fila >= 0 && fila < solicitudesMostradas.size() ? solicitudesMostradas.get(fila) : null;
+    }
+
+    private void anotarSolicitud() {
+        if (!(comboCliente.getSelectedItem() instanceof Cliente) || !(comboServicio.getSelectedItem() instanceof Servicio)) {
+            mostrarError("Debe seleccionar un cliente y un servicio");
+            return;
+        }
+        SolicitudEspera solicitud;
+        try {
+            solicitud = new SolicitudEspera((Cliente) comboCliente.getSelectedItem(), (Servicio) comboServicio.getSelectedItem(),
+                LocalDate.parse(txtFechaDesde.getText().trim()), LocalDate.parse(txtFechaHasta.getText().trim()),
+                LocalTime.parse(txtHoraDesde.getText().trim()), LocalTime.parse(txtHoraHasta.getText().trim()));
+        } catch (DateTimeParseException e) {
+            mostrarError("Formato de fecha u hora inválido");
+            return;
+        }
+        cargador.ejecutar("Error al anotar en la lista de espera", () -> {
+            listaEsperaController.registrarSolicitud(solicitud);
+            return solicitud;
+        }, anotada -> cargarSolicitudes());
+    }
+
+    private void reservarOferta() {
+        SolicitudEspera solicitud = seleccionada();
+        if (solicitud == null) {
+            return;
+        }
+        cargador.ejecutar("No se pudo reservar el horario ofrecido", () -> {
+            try {
+                return listaEsperaController.aceptarOferta(solicitud.getId());
+            } finally {
+                // Si falla, la solicitud vuelve a esperar: se recarga en los dos casos
+                SwingUtilities.invokeLater(this::cargarSolicitudes);
+            }
+        }, this::mostrarReserva);
+    }
+
+    private void mostrarReserva(Turno turno) {
+        JOptionPane.showMessageDialog(this,
+            "Turno reservado para " + turno.getCliente().getNombre() + " el "
+                + turno.getFechaHora().format(FORMATO_FECHA_HORA),
+            "Lista de Espera", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private void rechazarOferta() {
+        SolicitudEspera solicitud = seleccionada();
+        if (solicitud == null) {
+            return;
+        }
+        cargador.ejecutar("Error al rechazar la oferta", () -> {
+            listaEsperaController.rechazarOferta(solicitud.getId());
+            return solicitud;
+        }, rechazada -> cargarSolicitudes());
+    }
+
+    private void quitarSolicitud() {
+        SolicitudEspera solicitud = seleccionada();
+        if (solicitud == null) {
+            return;
+        }
+        int confirmacion = JOptionPane.showConfirmDialog(this,
+            "¿Quitar a " + solicitud.getCliente().getNombre() + " de la lista de espera?",
+            "Confirmar", JOptionPane.YES_NO_OPTION);
+        if (confirmacion != JOptionPane.YES_OPTION) {
+            return;
+        }
+        cargador.ejecutar("Error al quitar de la lista de espera", () -> {
+            listaEsperaController.quitarSolicitud(solicitud.getId());
+            return solicitud;
+        }, quitada -> cargarSolicitudes());
+    }
+
+    private void mostrarError(String mensaje) {
+        JOptionPane.showMessageDialog(this, mensaje, "Error de Validación", JOptionPane.WARNING_MESSAGE);
+    }
+}
@@ -1,419 +1,803 @@
-package com.idra.gestionpeluqueria.view.dialogs;
-
-import com.idra.gestionpeluqueria.model.Turno;
-import com.idra.gestionpeluqueria.model.Cliente;
-import com.idra.gestionpeluqueria.model.Servicio;
-import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
-import com.idra.gestionpeluqueria.model.enums.EstadoPago;
-import com.idra.gestionpeluqueria.model.enums.FormaPago;
-import com.idra.gestionpeluqueria.controller.TurnoController;
-import com.idra.gestionpeluqueria.controller.ClienteController;
-import com.idra.gestionpeluqueria.controller.ServicioController;
-import com.idra.gestionpeluqueria.exception.ServiceException;
-
-import javax.swing.*;
-import java.awt.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
-
-/**
- * Dialogo para crear y editar turnos de la peluqueria.
- * Proporciona un formulario completo para gestionar turnos incluyendo 
- * seleccion de cliente, servicio, fecha/hora, estado y datos de pago.
- * 
- * @author Idra
- */
-public class TurnoDialog extends JDialog {
-    private JComboBox<Cliente> comboCliente;
-    private JComboBox<Servicio> comboServicio;
-    private JTextField txtFecha, txtHora;
-    private JTextArea txtNotas;
-    private JComboBox<EstadoTurno> comboEstado;
-    private JComboBox<EstadoPago> comboEstadoPago;
-    private JComboBox<FormaPago> comboFormaPago;
-    private JTextField txtMontoPagado;
-    private JButton btnGuardar, btnCancelar, btnBuscarCliente;
-    private TurnoController turnoController;
-    private ClienteController clienteController;
-    private ServicioController servicioController;
-    private Turno turnoEditar;
-    private boolean guardadoExitoso;
-    
-    /**
-     * Constructor que crea el diálogo para agregar o editar un turno.
-     * 
-     * @param parent El frame padre del diálogo
-     * @param titulo El título a mostrar en el diálogo
-     * @param turnoEditar El turno a editar, o null para crear uno nuevo
-     */
-    public TurnoDialog(JFrame parent, String titulo, Turno turnoEditar) {
-        super(parent, titulo, true);
-        this.turnoEditar = turnoEditar;
-        this.turnoController = new TurnoController();
-        this.clienteController = new ClienteController();
-        this.servicioController = new ServicioController();
-        this.guardadoExitoso = false;
-        
-        initializeUI();
-        cargarCombos();
-        if (turnoEditar != null) {
-            cargarDatosTurno();
-        } else {
-            // Valores por defecto para nuevo turno
-            comboEstado.setSelectedItem(EstadoTurno.CONFIRMADO);
-            comboEstadoPago.setSelectedItem(EstadoPago.PENDIENTE);
-            txtMontoPagado.setText("0.00");
-        }
-    }
-
-    private void initializeUI() {
-        setSize(500, 500);
-        setLocationRelativeTo(getParent());
-        setResizable(false);
-        setLayout(new BorderLayout(10, 10));
-        
-        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
-        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-        
-        JPanel formPanel = createFormPanel();
-        JPanel buttonPanel = createButtonPanel();
-        
-        mainPanel.add(formPanel, BorderLayout.CENTER);
-        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
-        
-        add(mainPanel);
-    }
-
-  private JPanel createFormPanel() {
-    JPanel formPanel = new JPanel(new GridBagLayout());
-    formPanel.setBorder(BorderFactory.createTitledBorder("Datos del Turno"));
-    
-    GridBagConstraints gbc = new GridBagConstraints();
-    gbc.insets = new Insets(5, 5, 5, 5);
-    gbc.fill = GridBagConstraints.HORIZONTAL;
-    gbc.weightx = 1.0;
-    
-    // Cliente
-    gbc.gridx = 0; gbc.gridy = 0;
-    formPanel.add(new JLabel("Cliente:*"), gbc);
-    gbc.gridx = 1;
-    JPanel clientePanel = new JPanel(new BorderLayout(5, 0));
-    comboCliente = new JComboBox<>();
-    clientePanel.add(comboCliente, BorderLayout.CENTER);
-    btnBuscarCliente = new JButton("🔍");
-    btnBuscarCliente.addActionListener(e -> buscarCliente());
-    clientePanel.add(btnBuscarCliente, BorderLayout.EAST);
-    formPanel.add(clientePanel, gbc);
-    
-    // Servicio
-    gbc.gridx = 0; gbc.gridy = 1;
-    formPanel.add(new JLabel("Servicio:*"), gbc);
-    gbc.gridx = 1;
-    comboServicio = new JComboBox<>();
-    formPanel.add(comboServicio, gbc);
-    
-    // Fecha
-    gbc.gridx = 0; gbc.gridy = 2;
-    formPanel.add(new JLabel("Fecha (YYYY-MM-DD):*"), gbc);
-    gbc.gridx = 1;
-    txtFecha = new JTextField();
-    txtFecha.setText(LocalDateTime.now().toLocalDate().toString());
-    formPanel.add(txtFecha, gbc);
-    
-    // Hora
-    gbc.gridx = 0; gbc.gridy = 3;
-    formPanel.add(new JLabel("Hora (HH:MM):*"), gbc);
-    gbc.gridx = 1;
-    txtHora = new JTextField();
-    txtHora.setText("10:00");
-    formPanel.add(txtHora, gbc);
-    
-    // Estado - VERSIÓN SIMPLIFICADA
-    gbc.gridx = 0; gbc.gridy = 4;
-    formPanel.add(new JLabel("Estado:*"), gbc);
-    gbc.gridx = 1;
-    comboEstado = new JComboBox<>(EstadoTurno.values());
-    formPanel.add(comboEstado, gbc);
-    
-    // Estado Pago - VERSIÓN SIMPLIFICADA
-    gbc.gridx = 0; gbc.gridy = 5;
-    formPanel.add(new JLabel("Estado Pago:*"), gbc);
-    gbc.gridx = 1;
-    comboEstadoPago = new JComboBox<>(EstadoPago.values());
-    formPanel.add(comboEstadoPago, gbc);
-    
-    // Forma Pago - VERSIÓN SIMPLIFICADA
-    gbc.gridx = 0; gbc.gridy = 6;
-    formPanel.add(new JLabel("Forma Pago:"), gbc);
-    gbc.gridx = 1;
-    comboFormaPago = new JComboBox<>(FormaPago.values());
-    formPanel.add(comboFormaPago, gbc);
-    
-    // Monto Pagado
-    gbc.gridx = 0; gbc.gridy = 7;
-    formPanel.add(new JLabel("Monto Pagado:*"), gbc);
-    gbc.gridx = 1;
-    txtMontoPagado = new JTextField();
-    txtMontoPagado.setText("0.00");
-    formPanel.add(txtMontoPagado, gbc);
-    
-    // Notas
-    gbc.gridx = 0; gbc.gridy = 8;
-    formPanel.add(new JLabel("Notas:"), gbc);
-    gbc.gridx = 1;
-    gbc.gridheight = 2;
-    gbc.fill = GridBagConstraints.BOTH;
-    txtNotas = new JTextArea(3, 20);
-    txtNotas.setLineWrap(true);
-    JScrollPane scrollNotas = new JScrollPane(txtNotas);
-    formPanel.add(scrollNotas, gbc);
-    
-    return formPanel;
-}
-    private JPanel createButtonPanel() {
-        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-        
-        btnGuardar = new JButton("💾 Guardar");
-        btnCancelar = new JButton("❌ Cancelar");
-        
-        btnGuardar.setBackground(new Color(39, 174, 96));
-        btnGuardar.setForeground(Color.WHITE);
-        btnGuardar.setFocusPainted(false);
-        
-        btnCancelar.setBackground(new Color(231, 76, 60));
-        btnCancelar.setForeground(Color.WHITE);
-        btnCancelar.setFocusPainted(false);
-        
-        btnGuardar.addActionListener(e -> guardarTurno());
-        btnCancelar.addActionListener(e -> dispose());
-        
-        buttonPanel.add(btnCancelar);
-        buttonPanel.add(btnGuardar);
-        
-        return buttonPanel;
-    }
-
-    private void cargarCombos() {
-        try {
-            // Cargar clientes
-            List<Cliente> clientes = clienteController.obtenerTodosClientes();
-            comboCliente.removeAllItems();
-            for (Cliente cliente : clientes) {
-                comboCliente.addItem(cliente);
-            }
-            
-            // Cargar servicios activos
-            List<Servicio> servicios = servicioController.obtenerServiciosActivos();
-            comboServicio.removeAllItems();
-            for (Servicio servicio : servicios) {
-                comboServicio.addItem(servicio);
-            }
-            
-        } catch (ServiceException e) {
-            JOptionPane.showMessageDialog(this, "Error al cargar datos: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
-    private void cargarDatosTurno() {
-        if (turnoEditar != null) {
-            // Seleccionar cliente
-            for (int i = 0; i < comboCliente.getItemCount(); i++) {
-                if (comboCliente.getItemAt(i).getId() == turnoEditar.getCliente().getId()) {
-                    comboCliente.setSelectedIndex(i);
-                    break;
-                }
-            }
-            
-            // Seleccionar servicio
-            for (int i = 0; i < comboServicio.getItemCount(); i++) {
-                if (comboServicio.getItemAt(i).getId() == turnoEditar.getServicio().getId()) {
-                    comboServicio.setSelectedIndex(i);
-                    break;
-                }
-            }
-            
-            txtFecha.setText(turnoEditar.getFechaHora().toLocalDate().toString());
-            txtHora.setText(turnoEditar.getFechaHora().toLocalTime().toString().substring(0, 5));
-            txtNotas.setText(turnoEditar.getNotas() != null ? turnoEditar.getNotas() : "");
-            comboEstado.setSelectedItem(turnoEditar.getEstado());
-            comboEstadoPago.setSelectedItem(turnoEditar.getEstadoPago());
-            comboFormaPago.setSelectedItem(turnoEditar.getFormaPago());
-            txtMontoPagado.setText(String.valueOf(turnoEditar.getMontoPagado()));
-        }
-    }
-
-    private void buscarCliente() {
-        String nombre = JOptionPane.showInputDialog(this, "Buscar cliente por nombre:");
-        if (nombre != null && !nombre.trim().isEmpty()) {
-            try {
-                List<Cliente> clientes = clienteController.buscarClientesPorNombre(nombre.trim());
-                if (clientes.isEmpty()) {
-                    JOptionPane.showMessageDialog(this, "No se encontraron clientes", "Búsqueda", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    // Mostrar diálogo de selección
-                    Cliente[] clienteArray = clientes.toArray(new Cliente[0]);
-                    Cliente seleccionado = (Cliente) JOptionPane.showInputDialog(
-                        this,
-                        "Seleccione un cliente:",
-                        "Seleccionar Cliente",
-                        JOptionPane.QUESTION_MESSAGE,
-                        null,
-                        clienteArray,
-                        clienteArray[0]
-                    );
-                    if (seleccionado != null) {
-                        comboCliente.setSelectedItem(seleccionado);
-                    }
-                }
-            } catch (ServiceException e) {
-                JOptionPane.showMessageDialog(this, "Error al buscar cliente: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
-        }
-    }
-
-    private void guardarTurno() {
-    try {
-        System.out.println("🔄 Iniciando guardado de turno...");
-        System.out.println("📝 Modo: " + (turnoEditar == null ? "AGREGAR" : "EDITAR"));
-        
-        if (!validarCampos()) {
-            return;
-        }
-        
-        // Crear fecha/hora
-        LocalDateTime fechaHora = LocalDateTime.parse(
-            txtFecha.getText().trim() + "T" + txtHora.getText().trim() + ":00"
-        );
-        
-        if (turnoEditar == null) {
-            System.out.println("➕ Creando NUEVO turno...");
-            
-            Turno nuevoTurno = new Turno(
-                (Cliente) comboCliente.getSelectedItem(),
-                (Servicio) comboServicio.getSelectedItem(),
-                fechaHora
-            );
-            
-            nuevoTurno.setNotas(txtNotas.getText().trim());
-            nuevoTurno.setEstado((EstadoTurno) comboEstado.getSelectedItem());
-            nuevoTurno.setEstadoPago((EstadoPago) comboEstadoPago.getSelectedItem());
-            nuevoTurno.setFormaPago((FormaPago) comboFormaPago.getSelectedItem());
-            nuevoTurno.setMontoPagado(Double.parseDouble(txtMontoPagado.getText().trim()));
-            
-            // Validar disponibilidad
-            if (!turnoController.validarDisponibilidad(nuevoTurno)) {
-                JOptionPane.showMessageDialog(this, 
-                    "No hay disponibilidad para ese horario y servicio", 
-                    "Error de Disponibilidad", 
-                    JOptionPane.WARNING_MESSAGE);
-                return;
-            }
-            
-            turnoController.crearTurno(nuevoTurno);
-            System.out.println("✅ Turno creado en BD");
-            
-        } else {
-            System.out.println("✏️ Editando turno ID: " + turnoEditar.getId());
-            
-            // Actualizar el turno existente
-            turnoEditar.setCliente((Cliente) comboCliente.getSelectedItem());
-            turnoEditar.setServicio((Servicio) comboServicio.getSelectedItem());
-            turnoEditar.setFechaHora(fechaHora);
-            turnoEditar.setNotas(txtNotas.getText().trim());
-            turnoEditar.setEstado((EstadoTurno) comboEstado.getSelectedItem());
-            turnoEditar.setEstadoPago((EstadoPago) comboEstadoPago.getSelectedItem());
-            turnoEditar.setFormaPago((FormaPago) comboFormaPago.getSelectedItem());
-            turnoEditar.setMontoPagado(Double.parseDouble(txtMontoPagado.getText().trim()));
-            
-            turnoController.actualizarTurno(turnoEditar);
-            System.out.println("✅ Turno actualizado en BD");
-        }
-        
-        JOptionPane.showMessageDialog(this, 
-            turnoEditar == null ? "Turno creado exitosamente!" : "Turno actualizado exitosamente!", 
-            "Éxito", 
-            JOptionPane.INFORMATION_MESSAGE);
-            
-        guardadoExitoso = true;
-        dispose(); // Cerrar el diálogo
-        
-    } catch (Exception ex) {
-        System.err.println("❌ Error al guardar turno: " + ex.getMessage());
-        ex.printStackTrace();
-        JOptionPane.showMessageDialog(this, 
-            "Error: " + ex.getMessage(), 
-            "Error", 
-            JOptionPane.ERROR_MESSAGE);
-    }
-}
-    private boolean validarCampos() {
-        if (comboCliente.getSelectedItem() == null) {
-            mostrarError("Debe seleccionar un cliente");
-            return false;
-        }
-        
-        if (comboServicio.getSelectedItem() == null) {
-            mostrarError("Debe seleccionar un servicio");
-            return false;
-        }
-        
-        if (!txtFecha.getText().trim().matches("\\d{4}-\\d{2}-\\d{2}")) {
-            mostrarError("Formato de fecha inválido. Use YYYY-MM-DD");
-            txtFecha.requestFocus();
-            return false;
-        }
-        
-        if (!txtHora.getText().trim().matches("\\d{2}:\\d{2}")) {
-            mostrarError("Formato de hora inválido. Use HH:MM");
-            txtHora.requestFocus();
-            return false;
-        }
-        
-        try {
-            double monto = Double.parseDouble(txtMontoPagado.getText().trim());
-            if (monto < 0) {
-                mostrarError("El monto pagado no puede ser negativo");
-                txtMontoPagado.requestFocus();
-                return false;
-            }
-        } catch (NumberFormatException e) {
-            mostrarError("El monto pagado debe ser un número válido");
-            txtMontoPagado.requestFocus();
-            return false;
-        }
-        
-        return true;
-    }
-
-    private void mostrarError(String mensaje) {
-        JOptionPane.showMessageDialog(this, mensaje, "Error de Validación", JOptionPane.WARNING_MESSAGE);
-    }
-    
-    /**
-     * Verifica si el turno fue guardado exitosamente.
-     * 
-     * @return true si el guardado fue exitoso, false en caso contrario
-     */
-    public boolean isGuardadoExitoso() {
-        return guardadoExitoso;
-    }
-    
-    private void actualizarPrecio() {
-    if (comboServicio.getSelectedItem() instanceof Servicio) {
-        Servicio servicio = (Servicio) comboServicio.getSelectedItem();
-        // Puedes mostrar el precio en algún label si quieres
-        System.out.println("Servicio seleccionado: " + servicio.getNombre() + " - $" + servicio.getPrecio());
-    }
-}
-
-private void actualizarMontoPagado() {
-    if (comboEstadoPago.getSelectedItem() == EstadoPago.PAGADO && 
-        comboServicio.getSelectedItem() instanceof Servicio) {
-        Servicio servicio = (Servicio) comboServicio.getSelectedItem();
-        txtMontoPagado.setText(String.valueOf(servicio.getPrecio()));
-    } else if (comboEstadoPago.getSelectedItem() == EstadoPago.PENDIENTE) {
-        txtMontoPagado.setText("0.00");
-    }
-}
+package com.idra.gestionpeluqueria.view.dialogs;
+
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.model.Cliente;
+import com.idra.gestionpeluqueria.model.Profesional;
+import com.idra.gestionpeluqueria.model.ReglaRecurrencia;
+import com.idra.gestionpeluqueria.model.Servicio;
+import com.idra.gestionpeluqueria.model.enums.EstadoTurno;
+import com.idra.gestionpeluqueria.model.enums.EstadoPago;
+import com.idra.gestionpeluqueria.model.enums.FormaPago;
+import com.idra.gestionpeluqueria.controller.TurnoController;
+import com.idra.gestionpeluqueria.controller.ClienteController;
+import com.idra.gestionpeluqueria.controller.ProfesionalController;
+import com.idra.gestionpeluqueria.controller.ServicioController;
+import com.idra.gestionpeluqueria.exception.ConflictoConcurrenciaException;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import com.idra.gestionpeluqueria.service.ResultadoSerie;
+import com.idra.gestionpeluqueria.view.CargadorSegundoPlano;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Dialogo para crear y editar turnos de la peluqueria.
+ * Proporciona un formulario completo para gestionar turnos incluyendo 
+ * seleccion de cliente, servicio, fecha/hora, estado y datos de pago.
+ * 
+ * @author Idra
+ */
+public class TurnoDialog extends JDialog {
+    // Separacion entre los horarios que ofrece el selector
+    private static final int GRANULARIDAD_MINUTOS = 15;
+    // La posicion de cada opcion es el intervalo en semanas
+    private static final String[] OPCIONES_REPETIR = {
+        "No repetir", "Cada semana", "Cada 2 semanas", "Cada 3 semanas", "Cada 4 semanas"
+    };
+    
+    private JComboBox<Cliente> comboCliente;
+    private JComboBox<Servicio> comboServicio;
+    private JComboBox<Profesional> comboProfesional;
+    private JTextField txtFecha, txtHora;
+    private JTextArea txtNotas;
+    private JComboBox<EstadoTurno> comboEstado;
+    private JComboBox<EstadoPago> comboEstadoPago;
+    private JComboBox<FormaPago> comboFormaPago;
+    private JTextField txtMontoPagado;
+    private JComboBox<String> comboRepetir;
+    private JSpinner spinnerRepeticiones;
+    private JSpinner spinnerTolerancia;
+    private JButton btnGuardar, btnCancelar, btnBuscarCliente, btnHorarios, btnProfesionales;
+    private TurnoController turnoController;
+    private ClienteController clienteController;
+    private ServicioController servicioController;
+    private ProfesionalController profesionalController;
+    private Turno turnoEditar;
+    private Turno turnoBase; // El turno tal como estaba al abrir el dialogo, para combinar cambios
+    private boolean guardadoExitoso;
+    private final CargadorSegundoPlano cargador = new CargadorSegundoPlano(this);
+    
+    /**
+     * Constructor que crea el diálogo para agregar o editar un turno.
+     * 
+     * @param parent El frame padre del diálogo
+     * @param titulo El título a mostrar en el diálogo
+     * @param turnoEditar El turno a editar, o null para crear uno nuevo
+     */
+    public TurnoDialog(JFrame parent, String titulo, Turno turnoEditar) {
+        super(parent, titulo, true);
+        // Se trabaja sobre copias para no modificar el turno recibido si el guardado falla
+        this.turnoEditar = turnoEditar != null ? new Turno(turnoEditar) : null;
+        this.turnoBase = turnoEditar != null ? new Turno(turnoEditar) : null;
+        this.turnoController = new TurnoController();
+        this.clienteController = new ClienteController();
+        this.servicioController = new ServicioController();
+        this.profesionalController = new ProfesionalController();
+        this.guardadoExitoso = false;
+        
+        initializeUI();
+        cargarCombos();
+        if (turnoEditar != null) {
+            cargarDatosTurno();
+        } else {
+            // Valores por defecto para nuevo turno
+            comboEstado.setSelectedItem(EstadoTurno.CONFIRMADO);
+            comboEstadoPago.setSelectedItem(EstadoPago.PENDIENTE);
+            txtMontoPagado.setText("0.00");
+        }
+    }
+
+    private void initializeUI() {
+        setSize(500, turnoEditar == null ? 540 : 500);
+        setLocationRelativeTo(getParent());
+        setResizable(false);
+        setLayout(new BorderLayout(10, 10));
+        
+        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        
+        JPanel formPanel = createFormPanel();
+        JPanel buttonPanel = createButtonPanel();
+        
+        mainPanel.add(formPanel, BorderLayout.CENTER);
+        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+        
+        add(mainPanel);
+    }
+
+  private JPanel createFormPanel() {
+    JPanel formPanel = new JPanel(new GridBagLayout());
+    formPanel.setBorder(BorderFactory.createTitledBorder("Datos del Turno"));
+    
+    GridBagConstraints gbc = new GridBagConstraints();
+    gbc.insets = new Insets(5, 5, 5, 5);
+    gbc.fill = GridBagConstraints.HORIZONTAL;
+    gbc.weightx = 1.0;
+    
+    // Cliente
+    gbc.gridx = 0; gbc.gridy = 0;
+    formPanel.add(new JLabel("Cliente:*"), gbc);
+    gbc.gridx = 1;
+    JPanel clientePanel = new JPanel(new BorderLayout(5, 0));
+    comboCliente = new JComboBox<>();
+    clientePanel.add(comboCliente, BorderLayout.CENTER);
+    btnBuscarCliente = new JButton("🔍");
+    btnBuscarCliente.addActionListener(e -> buscarCliente());
+    clientePanel.add(btnBuscarCliente, BorderLayout.EAST);
+    formPanel.add(clientePanel, gbc);
+    
+    // Servicio
+    gbc.gridx = 0; gbc.gridy = 1;
+    formPanel.add(new JLabel("Servicio:*"), gbc);
+    gbc.gridx = 1;
+    comboServicio = new JComboBox<>();
+    formPanel.add(comboServicio, gbc);
+    
+    // Fecha
+    gbc.gridx = 0; gbc.gridy = 2;
+    formPanel.add(new JLabel("Fecha (YYYY-MM-DD):*"), gbc);
+    gbc.gridx = 1;
+    txtFecha = new JTextField();
+    txtFecha.setText(LocalDateTime.now().toLocalDate().toString());
+    formPanel.add(txtFecha, gbc);
+    
+    // Hora
+    gbc.gridx = 0; gbc.gridy = 3;
+    formPanel.add(new JLabel("Hora (HH:MM):*"), gbc);
+    gbc.gridx = 1;
+    JPanel horaPanel = new JPanel(new BorderLayout(5, 0));
+    txtHora = new JTextField();
+    txtHora.setText("10:00");
+    horaPanel.add(txtHora, BorderLayout.CENTER);
+    JPanel horaExtrasPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+    // Cuanto acepta el cliente que se mueva el turno al reorganizar la agenda
+    horaExtrasPanel.add(new JLabel("±"));
+    spinnerTolerancia = new JSpinner(new SpinnerNumberModel(0, 0, 120, 5));
+    spinnerTolerancia.setToolTipText("Minutos que el cliente acepta adelantar o atrasar el turno");
+    horaExtrasPanel.add(spinnerTolerancia);
+    horaExtrasPanel.add(new JLabel("min"));
+    btnHorarios = new JButton("🕒");
+    btnHorarios.setToolTipText("Ver horarios libres");
+    btnHorarios.addActionListener(e -> elegirHorario());
+    horaExtrasPanel.add(btnHorarios);
+    horaPanel.add(horaExtrasPanel, BorderLayout.EAST);
+    formPanel.add(horaPanel, gbc);
+    
+    // Profesional: vacio para que se asigne el primero libre al guardar
+    gbc.gridx = 0; gbc.gridy = 4;
+    formPanel.add(new JLabel("Profesional:"), gbc);
+    gbc.gridx = 1;
+    JPanel profesionalPanel = new JPanel(new BorderLayout(5, 0));
+    comboProfesional = new JComboBox<>();
+    comboProfesional.setRenderer(new DefaultListCellRenderer() {
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                boolean isSelected, boolean cellHasFocus) {
+            return super.getListCellRendererComponent(list, value != null ? value : "Asignar automáticamente",
+                index, isSelected, cellHasFocus);
+        }
+    });
+    profesionalPanel.add(comboProfesional, BorderLayout.CENTER);
+    btnProfesionales = new JButton("👤");
+    btnProfesionales.setToolTipText("Ver profesionales libres en ese horario");
+    btnProfesionales.addActionListener(e -> elegirProfesional());
+    profesionalPanel.add(btnProfesionales, BorderLayout.EAST);
+    formPanel.add(profesionalPanel, gbc);
+    
+    // Estado - VERSIÓN SIMPLIFICADA
+    gbc.gridx = 0; gbc.gridy = 5;
+    formPanel.add(new JLabel("Estado:*"), gbc);
+    gbc.gridx = 1;
+    comboEstado = new JComboBox<>(EstadoTurno.values());
+    formPanel.add(comboEstado, gbc);
+    
+    // Estado Pago - VERSIÓN SIMPLIFICADA
+    gbc.gridx = 0; gbc.gridy = 6;
+    formPanel.add(new JLabel("Estado Pago:*"), gbc);
+    gbc.gridx = 1;
+    comboEstadoPago = new JComboBox<>(EstadoPago.values());
+    formPanel.add(comboEstadoPago, gbc);
+    
+    // Forma Pago - VERSIÓN SIMPLIFICADA
+    gbc.gridx = 0; gbc.gridy = 7;
+    formPanel.add(new JLabel("Forma Pago:"), gbc);
+    gbc.gridx = 1;
+    comboFormaPago = new JComboBox<>(FormaPago.values());
+    formPanel.add(comboFormaPago, gbc);
+    
+    // Monto Pagado
+    gbc.gridx = 0; gbc.gridy = 8;
+    formPanel.add(new JLabel("Monto Pagado:*"), gbc);
+    gbc.gridx = 1;
+    txtMontoPagado = new JTextField();
+    txtMontoPagado.setText("0.00");
+    formPanel.add(txtMontoPagado, gbc);
+    
+    // Notas
+    gbc.gridx = 0; gbc.gridy = 9;
+    formPanel.add(new JLabel("Notas:"), gbc);
+    gbc.gridx = 1;
+    gbc.gridheight = 2;
+    gbc.fill = GridBagConstraints.BOTH;
+    txtNotas = new JTextArea(3, 20);
+    txtNotas.setLineWrap(true);
+    JScrollPane scrollNotas = new JScrollPane(txtNotas);
+    formPanel.add(scrollNotas, gbc);
+    
+    // Repetir: solo al crear, genera la serie completa de una vez
+    if (turnoEditar == null) {
+        gbc.gridx = 0; gbc.gridy = 11;
+        gbc.gridheight = 1;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        formPanel.add(new JLabel("Repetir:"), gbc);
+        gbc.gridx = 1;
+        JPanel repetirPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        comboRepetir = new JComboBox<>(OPCIONES_REPETIR);
+        spinnerRepeticiones = new JSpinner(new SpinnerNumberModel(6, 2, ReglaRecurrencia.MAXIMO_OCURRENCIAS, 1));
+        spinnerRepeticiones.setEnabled(false);
+        comboRepetir.addActionListener(e -> spinnerRepeticiones.setEnabled(comboRepetir.getSelectedIndex() > 0));
+        repetirPanel.add(comboRepetir);
+        repetirPanel.add(new JLabel("Veces:"));
+        repetirPanel.add(spinnerRepeticiones);
+        formPanel.add(repetirPanel, gbc);
+    }
+    
+    return formPanel;
+}
+    private JPanel createButtonPanel() {
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        
+        btnGuardar = new JButton("💾 Guardar");
+        btnCancelar = new JButton("❌ Cancelar");
+        
+        btnGuardar.setBackground(new Color(39, 174, 96));
+        btnGuardar.setForeground(Color.WHITE);
+        btnGuardar.setFocusPainted(false);
+        
+        btnCancelar.setBackground(new Color(231, 76, 60));
+        btnCancelar.setForeground(Color.WHITE);
+        btnCancelar.setFocusPainted(false);
+        
+        btnGuardar.addActionListener(e -> guardarTurno());
+        btnCancelar.addActionListener(e -> dispose());
+        
+        buttonPanel.add(btnCancelar);
+        buttonPanel.add(btnGuardar);
+        
+        return buttonPanel;
+    }
+
+    private void cargarCombos() {
+        // Hasta que lleguen clientes y servicios no se puede guardar
+        btnGuardar.setEnabled(false);
+        cargador.cargar("Error al cargar datos", () -> {
+            CombosTurno combos = new CombosTurno();
+            combos.clientes = clienteController.obtenerTodosClientes();
+            combos.servicios = servicioController.obtenerServiciosActivos();
+            combos.profesionales = profesionalController.obtenerProfesionalesActivos();
+            return combos;
+        }, combos -> {
+            // Cargar clientes
+            comboCliente.removeAllItems();
+            for (Cliente cliente : combos.clientes) {
+                comboCliente.addItem(cliente);
+            }
+            
+            // Cargar servicios activos
+            comboServicio.removeAllItems();
+            for (Servicio servicio : combos.servicios) {
+                comboServicio.addItem(servicio);
+            }
+            
+            // Cargar profesionales activos; el primero (vacio) es la asignacion automatica
+            comboProfesional.removeAllItems();
+            comboProfesional.addItem(null);
+            for (Profesional profesional : combos.profesionales) {
+                comboProfesional.addItem(profesional);
+            }
+            comboProfesional.setEnabled(!combos.profesionales.isEmpty());
+            btnProfesionales.setEnabled(!combos.profesionales.isEmpty());
+            
+            seleccionarClienteYServicio();
+            btnGuardar.setEnabled(true);
+        });
+    }
+
+    private void seleccionarClienteYServicio() {
+        if (turnoEditar == null) {
+            return;
+        }
+        // Seleccionar cliente
+        for (int i = 0; i < comboCliente.getItemCount(); i++) {
+            if (comboCliente.getItemAt(i).getId() == turnoEditar.getCliente().getId()) {
+                comboCliente.setSelectedIndex(i);
+                break;
+            }
+        }
+        
+        // Seleccionar servicio
+        for (int i = 0; i < comboServicio.getItemCount(); i++) {
+            if (comboServicio.getItemAt(i).getId() == turnoEditar.getServicio().getId()) {
+                comboServicio.setSelectedIndex(i);
+                break;
+            }
+        }
+        
+        // Seleccionar profesional; si ya no esta activo queda la asignacion automatica
+        comboProfesional.setSelectedIndex(comboProfesional.getItemCount() > 0 ? 0 : -1);
+        for (int i = 1; i < comboProfesional.getItemCount(); i++) {
+            if (comboProfesional.getItemAt(i).getId() == profesionalId(turnoEditar)) {
+                comboProfesional.setSelectedIndex(i);
+                break;
+            }
+        }
+    }
+
+    private void cargarDatosTurno() {
+        if (turnoEditar != null) {
+            // Cliente y servicio se seleccionan cuando terminan de cargarse los combos
+            txtFecha.setText(turnoEditar.getFechaHora().toLocalDate().toString());
+            txtHora.setText(turnoEditar.getFechaHora().toLocalTime().toString().substring(0, 5));
+            spinnerTolerancia.setValue(turnoEditar.getToleranciaMinutos());
+            txtNotas.setText(turnoEditar.getNotas() != null ? turnoEditar.getNotas() : "");
+            comboEstado.setSelectedItem(turnoEditar.getEstado());
+            comboEstadoPago.setSelectedItem(turnoEditar.getEstadoPago());
+            comboFormaPago.setSelectedItem(turnoEditar.getFormaPago());
+            txtMontoPagado.setText(String.valueOf(turnoEditar.getMontoPagado()));
+        }
+    }
+
+    private void buscarCliente() {
+        String nombre = JOptionPane.showInputDialog(this, "Buscar cliente por nombre:");
+        if (nombre != null && !nombre.trim().isEmpty()) {
+            cargador.ejecutar("Error al buscar cliente", () -> clienteController.buscarClientesPorNombre(nombre.trim()), clientes -> {
+                if (clientes.isEmpty()) {
+                    JOptionPane.showMessageDialog(this, "No se encontraron clientes", "Búsqueda", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    // Mostrar diálogo de selección
+                    Cliente[] clienteArray = clientes.toArray(new Cliente[0]);
+                    Cliente seleccionado = (Cliente) JOptionPane.showInputDialog(
+                        this,
+                        "Seleccione un cliente:",
+                        "Seleccionar Cliente",
+                        JOptionPane.QUESTION_MESSAGE,
+                        null,
+                        clienteArray,
+                        clienteArray[0]
+                    );
+                    if (seleccionado != null) {
+                        comboCliente.setSelectedItem(seleccionado);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Consulta una sola vez los horarios libres del servicio en la fecha
+     * elegida y los ofrece para elegir, en lugar de probar hora por hora.
+     */
+    private void elegirHorario() {
+        if (!(comboServicio.getSelectedItem() instanceof Servicio)) {
+            mostrarError("Debe seleccionar un servicio");
+            return;
+        }
+        LocalDate fecha;
+        try {
+            fecha = LocalDate.parse(txtFecha.getText().trim());
+        } catch (DateTimeParseException e) {
+            mostrarError("Formato de fecha inválido. Use YYYY-MM-DD");
+            txtFecha.requestFocus();
+            return;
+        }
+        Servicio servicio = (Servicio) comboServicio.getSelectedItem();
+        int turnoExcluidoId = turnoEditar != null ? turnoEditar.getId() : 0;
+        cargador.ejecutar("Error al buscar horarios",
+            () -> turnoController.buscarHorariosDisponibles(servicio.getId(), fecha, GRANULARIDAD_MINUTOS, turnoExcluidoId),
+            horarios -> {
+                if (horarios.isEmpty()) {
+                    JOptionPane.showMessageDialog(this,
+                        "No hay horarios libres para " + servicio.getNombre() + " ese día",
+                        "Horarios",
+                        JOptionPane.INFORMATION_MESSAGE);
+                    return;
+                }
+                LocalTime[] opciones = horarios.toArray(new LocalTime[0]);
+                LocalTime seleccionado = (LocalTime) JOptionPane.showInputDialog(
+                    this,
+                    "Horarios libres (" + servicio.getDuracionMinutos() + " min):",
+                    "Seleccionar Horario",
+                    JOptionPane.QUESTION_MESSAGE,
+                    null,
+                    opciones,
+                    opciones[0]
+                );
+                if (seleccionado != null) {
+                    txtHora.setText(seleccionado.toString());
+                }
+            });
+    }
+
+    /**
+     * Muestra quien puede hacer el servicio elegido en la fecha y hora del
+     * formulario y selecciona al profesional que se elija.
+     */
+    private void elegirProfesional() {
+        if (!(comboServicio.getSelectedItem() instanceof Servicio)) {
+            mostrarError("Debe seleccionar un servicio");
+            return;
+        }
+        LocalDateTime fechaHora;
+        try {
+            fechaHora = LocalDateTime.of(LocalDate.parse(txtFecha.getText().trim()), LocalTime.parse(txtHora.getText().trim()));
+        } catch (DateTimeParseException e) {
+            mostrarError("Formato de fecha u hora inválido");
+            return;
+        }
+        Servicio servicio = (Servicio) comboServicio.getSelectedItem();
+        int turnoExcluidoId = turnoEditar != null ? turnoEditar.getId() : 0;
+        cargador.ejecutar("Error al buscar profesionales",
+            () -> turnoController.buscarProfesionalesDisponibles(servicio.getId(), fechaHora, turnoExcluidoId),
+            profesionales -> {
+                if (profesionales.isEmpty()) {
+                    JOptionPane.showMessageDialog(this,
+                        "No hay profesionales libres para " + servicio.getNombre() + " en ese horario",
+                        "Profesionales",
+                        JOptionPane.INFORMATION_MESSAGE);
+                    return;
+                }
+                Profesional[] opciones = profesionales.toArray(new Profesional[0]);
+                Profesional seleccionado = (Profesional) JOptionPane.showInputDialog(
+                    this,
+                    "Profesionales libres:",
+                    "Seleccionar Profesional",
+                    JOptionPane.QUESTION_MESSAGE,
+                    null,
+                    opciones,
+                    opciones[0]
+                );
+                if (seleccionado != null) {
+                    for (int i = 1; i < comboProfesional.getItemCount(); i++) {
+                        if (comboProfesional.getItemAt(i).getId() == seleccionado.getId()) {
+                            comboProfesional.setSelectedIndex(i);
+                            break;
+                        }
+                    }
+                }
+            });
+    }
+
+    private void guardarTurno() {
+    try {
+        System.out.println("🔄 Iniciando guardado de turno...");
+        System.out.println("📝 Modo: " + (turnoEditar == null ? "AGREGAR" : "EDITAR"));
+        
+        if (!validarCampos()) {
+            return;
+        }
+        
+        // Crear fecha/hora
+        LocalDateTime fechaHora = LocalDateTime.parse(
+            txtFecha.getText().trim() + "T" + txtHora.getText().trim() + ":00"
+        );
+        
+        if (turnoEditar == null) {
+            System.out.println("➕ Creando NUEVO turno...");
+            
+            Turno nuevoTurno = new Turno(
+                (Cliente) comboCliente.getSelectedItem(),
+                (Servicio) comboServicio.getSelectedItem(),
+                fechaHora
+            );
+            
+            nuevoTurno.setProfesional((Profesional) comboProfesional.getSelectedItem());
+            nuevoTurno.setToleranciaMinutos((Integer) spinnerTolerancia.getValue());
+            nuevoTurno.setNotas(txtNotas.getText().trim());
+            nuevoTurno.setEstado((EstadoTurno) comboEstado.getSelectedItem());
+            nuevoTurno.setEstadoPago((EstadoPago) comboEstadoPago.getSelectedItem());
+            nuevoTurno.setFormaPago((FormaPago) comboFormaPago.getSelectedItem());
+            nuevoTurno.setMontoPagado(Double.parseDouble(txtMontoPagado.getText().trim()));
+            
+            if (comboRepetir.getSelectedIndex() > 0) {
+                ReglaRecurrencia regla = ReglaRecurrencia.veces(
+                    comboRepetir.getSelectedIndex(), (Integer) spinnerRepeticiones.getValue());
+                mostrarResultadoSerie(turnoController.crearSerie(nuevoTurno, regla));
+                guardadoExitoso = true;
+                dispose();
+                return;
+            }
+            
+            // Validar disponibilidad
+            if (!turnoController.validarDisponibilidad(nuevoTurno)) {
+                JOptionPane.showMessageDialog(this, 
+                    "No hay disponibilidad para ese horario y servicio", 
+                    "Error de Disponibilidad", 
+                    JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            turnoController.crearTurno(nuevoTurno);
+            System.out.println("✅ Turno creado en BD");
+            
+        } else {
+            System.out.println("✏️ Editando turno ID: " + turnoEditar.getId());
+            
+            // Actualizar el turno existente
+            turnoEditar.setCliente((Cliente) comboCliente.getSelectedItem());
+            turnoEditar.setServicio((Servicio) comboServicio.getSelectedItem());
+            turnoEditar.setFechaHora(fechaHora);
+            turnoEditar.setProfesional((Profesional) comboProfesional.getSelectedItem());
+            turnoEditar.setToleranciaMinutos((Integer) spinnerTolerancia.getValue());
+            turnoEditar.setNotas(txtNotas.getText().trim());
+            turnoEditar.setEstado((EstadoTurno) comboEstado.getSelectedItem());
+            turnoEditar.setEstadoPago((EstadoPago) comboEstadoPago.getSelectedItem());
+            turnoEditar.setFormaPago((FormaPago) comboFormaPago.getSelectedItem());
+            turnoEditar.setMontoPagado(Double.parseDouble(txtMontoPagado.getText().trim()));
+            
+            try {
+                if (soloCambioNotas()) {
+                    // Cambio no critico: se escribe en segundo plano
+                    turnoController.actualizarNotasDiferido(turnoEditar.getId(), turnoEditar.getNotas(),
+                        turnoEditar.getVersion());
+                } else {
+                    turnoController.actualizarTurno(turnoEditar);
+                }
+            } catch (ServiceException e) {
+                if (e.getCause() instanceof ConflictoConcurrenciaException) {
+                    resolverConflicto();
+                    return;
+                }
+                throw e;
+            }
+            System.out.println("✅ Turno actualizado en BD");
+        }
+        
+        JOptionPane.showMessageDialog(this, 
+            turnoEditar == null ? "Turno creado exitosamente!" : "Turno actualizado exitosamente!", 
+            "Éxito", 
+            JOptionPane.INFORMATION_MESSAGE);
+            
+        guardadoExitoso = true;
+        dispose(); // Cerrar el diálogo
+        
+    } catch (Exception ex) {
+        System.err.println("❌ Error al guardar turno: " + ex.getMessage());
+        ex.printStackTrace();
+        JOptionPane.showMessageDialog(this, 
+            "Error: " + ex.getMessage(), 
+            "Error", 
+            JOptionPane.ERROR_MESSAGE);
+    }
+}
+    /**
+     * Informa cuantos turnos de la serie se crearon y que fechas se saltearon.
+     */
+    private void mostrarResultadoSerie(ResultadoSerie resultado) {
+        DateTimeFormatter formato = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        StringBuilder mensaje = new StringBuilder();
+        mensaje.append("Se crearon ").append(resultado.getCreados().size()).append(" turnos.");
+        if (!resultado.getOmitidos().isEmpty()) {
+            mensaje.append("\n\nNo se reservaron:");
+            for (Map.Entry<LocalDateTime, String> omitido : resultado.getOmitidos().entrySet()) {
+                mensaje.append("\n• ").append(omitido.getKey().format(formato)).append(": ").append(omitido.getValue());
+            }
+        }
+        JOptionPane.showMessageDialog(this,
+            mensaje.toString(),
+            "Serie de Turnos",
+            resultado.getOmitidos().isEmpty() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+    }
+
+    /**
+     * Indica si, respecto de como se abrio el dialogo, el usuario solo modifico las notas.
+     */
+    private boolean soloCambioNotas() {
+        return turnoEditar.getCliente().getId() == turnoBase.getCliente().getId()
+            && turnoEditar.getServicio().getId() == turnoBase.getServicio().getId()
+            && turnoEditar.getFechaHora().equals(turnoBase.getFechaHora())
+            && profesionalId(turnoEditar) == profesionalId(turnoBase)
+            && turnoEditar.getToleranciaMinutos() == turnoBase.getToleranciaMinutos()
+            && turnoEditar.getEstado() == turnoBase.getEstado()
+            && turnoEditar.getEstadoPago() == turnoBase.getEstadoPago()
+            && turnoEditar.getFormaPago() == turnoBase.getFormaPago()
+            && turnoEditar.getMontoPagado() == turnoBase.getMontoPagado()
+            && !textoNoNulo(turnoEditar.getNotas()).equals(textoNoNulo(turnoBase.getNotas()));
+    }
+
+    /**
+     * Otra terminal modifico el turno mientras se editaba. Se recarga la version
+     * actual y se ofrece combinarla con los cambios hechos en este dialogo.
+     */
+    private void resolverConflicto() {
+        int id = turnoEditar.getId();
+        cargador.ejecutar("Error al recargar turno", () -> turnoController.buscarTurnoPorId(id), actual -> {
+            if (actual == null) {
+                JOptionPane.showMessageDialog(this,
+                    "El turno fue eliminado desde otra terminal.",
+                    "Turno Eliminado",
+                    JOptionPane.WARNING_MESSAGE);
+                guardadoExitoso = true; // Para que el panel refresque la tabla
+                dispose();
+                return;
+            }
+            
+            List<String> conflictos = new ArrayList<>();
+            Turno combinado = combinar(turnoBase, turnoEditar, actual, conflictos);
+            
+            String mensaje = "El turno fue modificado desde otra terminal mientras lo editaba.";
+            if (!conflictos.isEmpty()) {
+                mensaje += "\nAmbos modificaron: " + String.join(", ", conflictos)
+                        + ".\nAl combinar, se conservan sus valores en esos campos.";
+            }
+            String[] opciones = {"Combinar cambios", "Descartar mis cambios", "Cancelar"};
+            int opcion = JOptionPane.showOptionDialog(this,
+                mensaje,
+                "Conflicto de Edición",
+                JOptionPane.YES_NO_CANCEL_OPTION,
+                JOptionPane.WARNING_MESSAGE,
+                null,
+                opciones,
+                opciones[0]);
+            
+            if (opcion == 0 || opcion == 1) {
+                turnoBase = new Turno(actual);
+                turnoEditar = opcion == 0 ? combinado : new Turno(actual);
+                cargarDatosTurno();
+                seleccionarClienteYServicio();
+                JOptionPane.showMessageDialog(this,
+                    "Revise los datos y presione Guardar para confirmar.",
+                    "Turno Recargado",
+                    JOptionPane.INFORMATION_MESSAGE);
+            }
+        });
+    }
+
+    /**
+     * Combinacion de tres vias: parte del turno actual de la base de datos y le
+     * aplica cada campo que el usuario cambio respecto de la base. Los campos
+     * que cambiaron en ambos lados con valores distintos se informan como conflicto.
+     */
+    private static Turno combinar(Turno base, Turno mio, Turno actual, List<String> conflictos) {
+        Turno combinado = new Turno(actual);
+        if (combinarCampo("cliente", base.getCliente().getId(), mio.getCliente().getId(), actual.getCliente().getId(), conflictos)) {
+            combinado.setCliente(mio.getCliente());
+        }
+        if (combinarCampo("servicio", base.getServicio().getId(), mio.getServicio().getId(), actual.getServicio().getId(), conflictos)) {
+            combinado.setServicio(mio.getServicio());
+        }
+        if (combinarCampo("fecha/hora", base.getFechaHora(), mio.getFechaHora(), actual.getFechaHora(), conflictos)) {
+            combinado.setFechaHora(mio.getFechaHora());
+        }
+        if (combinarCampo("profesional", profesionalId(base), profesionalId(mio), profesionalId(actual), conflictos)) {
+            combinado.setProfesional(mio.getProfesional());
+        }
+        if (combinarCampo("tolerancia", base.getToleranciaMinutos(), mio.getToleranciaMinutos(), actual.getToleranciaMinutos(), conflictos)) {
+            combinado.setToleranciaMinutos(mio.getToleranciaMinutos());
+        }
+        if (combinarCampo("notas", textoNoNulo(base.getNotas()), textoNoNulo(mio.getNotas()), textoNoNulo(actual.getNotas()), conflictos)) {
+            combinado.setNotas(mio.getNotas());
+        }
+        if (combinarCampo("estado", base.getEstado(), mio.getEstado(), actual.getEstado(), conflictos)) {
+            combinado.setEstado(mio.getEstado());
+        }
+        if (combinarCampo("estado de pago", base.getEstadoPago(), mio.getEstadoPago(), actual.getEstadoPago(), conflictos)) {
+            combinado.setEstadoPago(mio.getEstadoPago());
+        }
+        if (combinarCampo("forma de pago", base.getFormaPago(), mio.getFormaPago(), actual.getFormaPago(), conflictos)) {
+            combinado.setFormaPago(mio.getFormaPago());
+        }
+        if (combinarCampo("monto pagado", base.getMontoPagado(), mio.getMontoPagado(), actual.getMontoPagado(), conflictos)) {
+            combinado.setMontoPagado(mio.getMontoPagado());
+        }
+        return combinado;
+    }
+
+    /**
+     * @return true si debe conservarse el valor del usuario
+     */
+    private static boolean combinarCampo(String nombre, Object base, Object mio, Object actual, List<String> conflictos) {
+        if (Objects.equals(mio, base)) {
+            return false;
+        }
+        if (!Objects.equals(actual, base) && !Objects.equals(actual, mio)) {
+            conflictos.add(nombre);
+        }
+        return true;
+    }
+
+    private static int profesionalId(Turno turno) {
+        return turno.getProfesional() != null ? turno.getProfesional().getId() : 0;
+    }
+
+    private static String textoNoNulo(String texto) {
+        return texto != null ? texto.trim() : "";
+    }
+
+    private boolean validarCampos() {
+        if (comboCliente.getSelectedItem() == null) {
+            mostrarError("Debe seleccionar un cliente");
+            return false;
+        }
+        
+        if (comboServicio.getSelectedItem() == null) {
+            mostrarError("Debe seleccionar un servicio");
+            return false;
+        }
+        
+        if (!txtFecha.getText().trim().matches("\\d{4}-\\d{2}-\\d{2}")) {
+            mostrarError("Formato de fecha inválido. Use YYYY-MM-DD");
+            txtFecha.requestFocus();
+            return false;
+        }
+        
+        if (!txtHora.getText().trim().matches("\\d{2}:\\d{2}")) {
+            mostrarError("Formato de hora inválido. Use HH:MM");
+            txtHora.requestFocus();
+            return false;
+        }
+        
+        try {
+            double monto = Double.parseDouble(txtMontoPagado.getText().trim());
+            if (monto < 0) {
+                mostrarError("El monto pagado no puede ser negativo");
+                txtMontoPagado.requestFocus();
+                return false;
+            }
+        } catch (NumberFormatException e) {
+            mostrarError("El monto pagado debe ser un número válido");
+            txtMontoPagado.requestFocus();
+            return false;
+        }
+        
+        return true;
+    }
+
+    private void mostrarError(String mensaje) {
+        JOptionPane.showMessageDialog(this, mensaje, "Error de Validación", JOptionPane.WARNING_MESSAGE);
+    }
+    
+    /**
+     * Verifica si el turno fue guardado exitosamente.
+     * 
+     * @return true si el guardado fue exitoso, false en caso contrario
+     */
+    public boolean isGuardadoExitoso() {
+        return guardadoExitoso;
+    }
+    
+    private void actualizarPrecio() {
+    if (comboServicio.getSelectedItem() instanceof Servicio) {
+        Servicio servicio = (Servicio) comboServicio.getSelectedItem();
+        // Puedes mostrar el precio en algún label si quieres
+        System.out.println("Servicio seleccionado: " + servicio.getNombre() + " - $" + servicio.getPrecio());
+    }
+}
+
+private void actualizarMontoPagado() {
+    if (comboEstadoPago.getSelectedItem() == EstadoPago.PAGADO && 
+        comboServicio.getSelectedItem() instanceof Servicio) {
+        Servicio servicio = (Servicio) comboServicio.getSelectedItem();
+        txtMontoPagado.setText(String.valueOf(servicio.getPrecio()));
+    } else if (comboEstadoPago.getSelectedItem() == EstadoPago.PENDIENTE) {
+        txtMontoPagado.setText("0.00");
+    }
+}
+
+    /**
+     * Clientes y servicios cargados en segundo plano para los combos.
+     */
+    private static class CombosTurno {
+        List<Cliente> clientes;
+        List<Servicio> servicios;
+        List<Profesional> profesionales;
+    }
 }
\ No newline at end of file
@@ -1,343 +1,447 @@
-package com.idra.gestionpeluqueria.view.panels;
-import com.idra.gestionpeluqueria.controller.ClienteController;
-import com.idra.gestionpeluqueria.model.Cliente;
-import com.idra.gestionpeluqueria.view.dialogs.ClienteDialog;
-import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
-import com.idra.gestionpeluqueria.exception.ServiceException;
-import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.util.List;
-
-/**
- * Panel para la gestion de clientes en la peluqueria.
- * Proporciona una interfaz para visualizar, agregar, editar, eliminar y buscar clientes.
- * Incluye una tabla con todos los clientes y botones para realizar las operaciones CRUD.
- * 
- * @author Idra
- */
-public class ClientePanel extends JPanel {
-    private JTable tablaClientes;
-    private DefaultTableModel tableModel;
-    private JButton btnAgregar, btnEditar, btnEliminar, btnBuscar;
-    private JTextField txtBuscar;
-    
-    /**
-     * Constructor que inicializa el panel de clientes y sus componentes.
-     */
-    public ClientePanel() {
-        initializeUI();
-    }
-
-    private void initializeUI() {
-        setLayout(new BorderLayout(10, 10));
-        setBackground(new Color(240, 240, 240));
-        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-
-        // Crear componentes
-        createHeaderPanel();
-        createTablePanel();
-        createToolbar();
-
-        // Cargar datos de ejemplo
-        cargarDatosEjemplo();
-    }
-
-    private void createHeaderPanel() {
-        JPanel headerPanel = new JPanel(new BorderLayout());
-        headerPanel.setBackground(new Color(240, 240, 240));
-
-        JLabel titleLabel = new JLabel("Gestión de Clientes");
-        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
-        titleLabel.setForeground(new Color(50, 50, 50));
-
-        JLabel subtitleLabel = new JLabel("Administre la información de los clientes de la peluquería");
-        subtitleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-        subtitleLabel.setForeground(new Color(100, 100, 100));
-
-        JPanel titlePanel = new JPanel(new BorderLayout());
-        titlePanel.setBackground(new Color(240, 240, 240));
-        titlePanel.add(titleLabel, BorderLayout.NORTH);
-        titlePanel.add(subtitleLabel, BorderLayout.CENTER);
-
-        headerPanel.add(titlePanel, BorderLayout.WEST);
-
-        add(headerPanel, BorderLayout.NORTH);
-    }
-
-    private void createToolbar() {
-        JPanel toolbarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        toolbarPanel.setBackground(new Color(240, 240, 240));
-        toolbarPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
-
-        // Botón Agregar
-        btnAgregar = createToolbarButton("➕ Agregar Cliente", new Color(39, 174, 96));
-        btnAgregar.addActionListener(e -> abrirDialogoCliente(null));
-
-        // Botón Editar
-        btnEditar = createToolbarButton("✏️ Editar", new Color(41, 128, 185));
-        btnEditar.addActionListener(e -> editarClienteSeleccionado());
-
-        // Botón Eliminar
-        btnEliminar = createToolbarButton("🗑️ Eliminar", new Color(231, 76, 60));
-        btnEliminar.addActionListener(e -> eliminarClienteSeleccionado());
-
-        // Campo de búsqueda
-        JPanel searchPanel = new JPanel(new BorderLayout(5, 0));
-        searchPanel.setBackground(new Color(240, 240, 240));
-
-        JLabel lblBuscar = new JLabel("Buscar:");
-        lblBuscar.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-
-        txtBuscar = new JTextField(20);
-        txtBuscar.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-        txtBuscar.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(new Color(200, 200, 200)),
-            BorderFactory.createEmptyBorder(5, 8, 5, 8)
-        ));
-
-        btnBuscar = createToolbarButton("🔍 Buscar", new Color(155, 89, 182));
-        btnBuscar.addActionListener(e -> buscarClientes());
-
-        searchPanel.add(lblBuscar, BorderLayout.WEST);
-        searchPanel.add(txtBuscar, BorderLayout.CENTER);
-        searchPanel.add(btnBuscar, BorderLayout.EAST);
-
-        toolbarPanel.add(btnAgregar);
-        toolbarPanel.add(Box.createHorizontalStrut(10));
-        toolbarPanel.add(btnEditar);
-        toolbarPanel.add(Box.createHorizontalStrut(10));
-        toolbarPanel.add(btnEliminar);
-        toolbarPanel.add(Box.createHorizontalStrut(30));
-        toolbarPanel.add(searchPanel);
-
-        add(toolbarPanel, BorderLayout.SOUTH);
-    }
-
-    private JButton createToolbarButton(String text, Color color) {
-        JButton button = new JButton(text);
-        button.setFont(new Font("Segoe UI", Font.BOLD, 12));
-        button.setBackground(color);
-        button.setForeground(Color.WHITE);
-        button.setFocusPainted(false);
-        button.setBorder(BorderFactory.createEmptyBorder(8, 15, 8, 15));
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-
-        button.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                button.setBackground(color.darker());
-            }
-            
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                button.setBackground(color);
-            }
-        });
-
-        return button;
-    }
-
-    private void createTablePanel() {
-        // Modelo de tabla
-        String[] columnNames = {"ID", "Nombre", "Apellido", "Teléfono", "Email", "Fecha Registro"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; 
-            }
-        };
-
-        tablaClientes = new JTable(tableModel);
-        tablaClientes.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-        tablaClientes.setRowHeight(35);
-        tablaClientes.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        tablaClientes.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 13));
-        tablaClientes.getTableHeader().setBackground(new Color(70, 130, 180));
-        tablaClientes.getTableHeader().setForeground(Color.WHITE);
-        tablaClientes.setGridColor(new Color(220, 220, 220));
-
-        // Personalizar la tabla
-        tablaClientes.setShowGrid(true);
-        tablaClientes.setIntercellSpacing(new Dimension(1, 1));
-
-        JScrollPane scrollPane = new JScrollPane(tablaClientes);
-        scrollPane.setBorder(BorderFactory.createLineBorder(new Color(200, 200, 200)));
-        scrollPane.getViewport().setBackground(Color.WHITE);
-
-        add(scrollPane, BorderLayout.CENTER);
-    }
-
-    private void cargarDatosEjemplo() {
-        // Limpiar tabla
-        tableModel.setRowCount(0);
-
-        // Datos de ejemplo
-        Object[][] datosEjemplo = {
-            {1, "María", "González", "123456789", "maria.gonzalez@email.com", "2024-01-15"},
-            {2, "Carlos", "López", "987654321", "carlos.lopez@email.com", "2024-01-16"},
-            {3, "Ana", "Martínez", "555444333", "ana.martinez@email.com", "2024-01-17"},
-            {4, "Pedro", "Rodríguez", "111222333", "pedro.rodriguez@email.com", "2024-01-18"},
-            {5, "Laura", "Fernández", "444555666", "laura.fernandez@email.com", "2024-01-19"},
-            {6, "Diego", "Sánchez", "777888999", "diego.sanchez@email.com", "2024-01-20"},
-            {7, "Elena", "Ramírez", "222333444", "elena.ramirez@email.com", "2024-01-21"}
-        };
-
-        for (Object[] fila : datosEjemplo) {
-            tableModel.addRow(fila);
-        }
-    }
-
-    private void abrirDialogoCliente(Object[] datosCliente) {
-    Cliente cliente = null;
-    String titulo = "Agregar Cliente";
-    
-    if (datosCliente != null) {
-        // Crear cliente desde datos de la tabla
-        cliente = new Cliente();
-        cliente.setId((Integer) datosCliente[0]);
-        cliente.setNombre(datosCliente[1].toString());
-        cliente.setApellido(datosCliente[2].toString());
-        cliente.setTelefono(datosCliente[3].toString());
-        cliente.setEmail(datosCliente[4].toString());
-        titulo = "Editar Cliente";
-    }
-    
-    // Buscar el JFrame padre
-    Window parentWindow = SwingUtilities.getWindowAncestor(this);
-    JFrame parentFrame = null;
-    if (parentWindow instanceof JFrame) {
-        parentFrame = (JFrame) parentWindow;
-    }
-    
-    ClienteDialog dialog = new ClienteDialog(parentFrame, titulo, cliente);
-    dialog.setVisible(true);
-    
-    if (dialog.isGuardadoExitoso()) {
-        actualizarTabla(); // Refrescar la tabla
-    }
-}
-
-    private void editarClienteSeleccionado() {
-        int filaSeleccionada = tablaClientes.getSelectedRow();
-        if (filaSeleccionada == -1) {
-            JOptionPane.showMessageDialog(this,
-                "Por favor, seleccione un cliente para editar.",
-                "Selección Requerida",
-                JOptionPane.WARNING_MESSAGE);
-            return;
-        }
-
-        // Obtener datos del cliente seleccionado
-        Object[] datosCliente = new Object[tableModel.getColumnCount()];
-        for (int i = 0; i < tableModel.getColumnCount(); i++) {
-            datosCliente[i] = tableModel.getValueAt(filaSeleccionada, i);
-        }
-
-        abrirDialogoCliente(datosCliente);
-    }
-
-    private void eliminarClienteSeleccionado() {
-    int filaSeleccionada = tablaClientes.getSelectedRow();
-    if (filaSeleccionada == -1) {
-        JOptionPane.showMessageDialog(this,
-            "Por favor, seleccione un cliente para eliminar.",
-            "Selección Requerida",
-            JOptionPane.WARNING_MESSAGE);
-        return;
-    }
-
-    // Obtener el ID del cliente seleccionado
-    int idCliente = (Integer) tableModel.getValueAt(filaSeleccionada, 0);
-    String nombreCliente = tableModel.getValueAt(filaSeleccionada, 1) + " " + 
-                          tableModel.getValueAt(filaSeleccionada, 2);
-
-    int confirmacion = JOptionPane.showConfirmDialog(this,
-        "¿Está seguro que desea eliminar al cliente:\n" + nombreCliente + "?",
-        "Confirmar Eliminación",
-        JOptionPane.YES_NO_OPTION,
-        JOptionPane.WARNING_MESSAGE);
-
-    if (confirmacion == JOptionPane.YES_OPTION) {
-        try {
-            // Eliminar de la base de datos
-            ClienteController controller = new ClienteController();
-            controller.eliminarCliente(idCliente);
-            
-            // Eliminar de la tabla visual
-            tableModel.removeRow(filaSeleccionada);
-            
-            JOptionPane.showMessageDialog(this,
-                "Cliente eliminado correctamente.",
-                "Eliminación Exitosa",
-                JOptionPane.INFORMATION_MESSAGE);
-                
-        } catch (ServiceException e) {
-            JOptionPane.showMessageDialog(this,
-                "Error al eliminar cliente: " + e.getMessage(),
-                "Error",
-                JOptionPane.ERROR_MESSAGE);
-        }
-    }
-}
-    private void buscarClientes() {
-        String textoBusqueda = txtBuscar.getText().trim().toLowerCase();
-        if (textoBusqueda.isEmpty()) {
-            cargarDatosEjemplo();
-            return;
-        }
-
-        // Filtrar datos 
-        for (int i = tableModel.getRowCount() - 1; i >= 0; i--) {
-            String nombre = tableModel.getValueAt(i, 1).toString().toLowerCase();
-            String apellido = tableModel.getValueAt(i, 2).toString().toLowerCase();
-            String telefono = tableModel.getValueAt(i, 3).toString().toLowerCase();
-
-            if (!nombre.contains(textoBusqueda) && 
-                !apellido.contains(textoBusqueda) && 
-                !telefono.contains(textoBusqueda)) {
-                tableModel.removeRow(i);
-            }
-        }
-
-        if (tableModel.getRowCount() == 0) {
-            JOptionPane.showMessageDialog(this,
-                "No se encontraron clientes que coincidan con la búsqueda: " + textoBusqueda,
-                "Búsqueda Sin Resultados",
-                JOptionPane.INFORMATION_MESSAGE);
-            cargarDatosEjemplo();
-        }
-    }
-    /**
-     * Actualiza la tabla de clientes con los datos más recientes de la base de datos.
-     * Limpia la tabla actual y la llena con todos los clientes registrados.
-     */
-    public void actualizarTabla() {
-    try {
-        tableModel.setRowCount(0); // Limpiar tabla
-        
-        // Obtener clientes reales de la base de datos
-        ClienteController controller = new ClienteController();
-        List<Cliente> clientes = controller.obtenerTodosClientes(); // ← CAMBIÉ EL NOMBRE
-        
-        // Llenar la tabla con datos reales
-        for (Cliente cliente : clientes) {
-            Object[] fila = {
-                cliente.getId(),
-                cliente.getNombre(),
-                cliente.getApellido(),
-                cliente.getTelefono(),
-                cliente.getEmail(),
-                cliente.getFechaRegistro()
-            };
-            tableModel.addRow(fila);
-        }
-        
-    } catch (ServiceException e) {
-        JOptionPane.showMessageDialog(this, 
-            "Error al cargar clientes: " + e.getMessage(), 
-            "Error", 
-            JOptionPane.ERROR_MESSAGE);
-        e.printStackTrace(); // ← Agrega esto para ver el error completo
-    }
-}
-}
\ No newline at end of file
+package com.idra.gestionpeluqueria.view.panels;
+import com.idra.gestionpeluqueria.controller.ClienteController;
+import com.idra.gestionpeluqueria.event.BusEventos;
+import com.idra.gestionpeluqueria.event.ClienteActualizado;
+import com.idra.gestionpeluqueria.event.ClienteCreado;
+import com.idra.gestionpeluqueria.event.ClienteEliminado;
+import com.idra.gestionpeluqueria.event.EventoTurno;
+import com.idra.gestionpeluqueria.model.Cliente;
+import com.idra.gestionpeluqueria.model.MetricasCliente;
+import com.idra.gestionpeluqueria.view.CargadorSegundoPlano;
+import com.idra.gestionpeluqueria.view.ModeloTabla;
+import com.idra.gestionpeluqueria.view.dialogs.ClienteDialog;
+import javax.swing.*;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Panel para la gestion de clientes en la peluqueria.
+ * Proporciona una interfaz para visualizar, agregar, editar, eliminar y buscar clientes.
+ * Incluye una tabla con todos los clientes y botones para realizar las operaciones CRUD.
+ * Debajo de la tabla se muestran las visitas y lo gastado por el cliente seleccionado.
+ * 
+ * @author Idra
+ */
+public class ClientePanel extends JPanel {
+    // Mismo orden que la consulta: apellido y nombre
+    private static final Comparator<Cliente> ORDEN_FILAS = Comparator
+        .comparing(Cliente::getApellido, String.CASE_INSENSITIVE_ORDER)
+        .thenComparing(Cliente::getNombre, String.CASE_INSENSITIVE_ORDER);
+    private static final int CLIENTES_POR_LISTA = 20;
+    private static final int DIAS_AUSENTE = 60;
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    
+    private JTable tablaClientes;
+    private ModeloTabla<Cliente> tableModel;
+    private JButton btnAgregar, btnEditar, btnEliminar, btnBuscar, btnMejores;
+    private JTextField txtBuscar;
+    private JLabel lblCargando, lblMetricas;
+    private final CargadorSegundoPlano cargador = new CargadorSegundoPlano(this);
+    // Aparte, para que elegir otro cliente no cancele la carga de la tabla
+    private final CargadorSegundoPlano cargadorMetricas = new CargadorSegundoPlano(this);
+    
+    /**
+     * Constructor que inicializa el panel de clientes y sus componentes.
+     */
+    public ClientePanel() {
+        initializeUI();
+        
+        // Despues de la carga inicial, cada cambio actualiza solo su fila
+        BusEventos bus = BusEventos.getInstance();
+        bus.suscribirEnEDT(ClienteCreado.class, evento -> aplicarCambio(evento.getCliente()));
+        bus.suscribirEnEDT(ClienteActualizado.class, evento -> aplicarCambio(evento.getCliente()));
+        bus.suscribirEnEDT(ClienteEliminado.class, evento -> tableModel.quitar(evento.getClienteId()));
+        // Completar un turno cambia las metricas de su cliente
+        bus.suscribirEnEDT(EventoTurno.class, evento -> {
+            if (evento.getTurno().getCliente().getId() == clienteSeleccionado()) {
+                mostrarMetricasSeleccionado();
+            }
+        });
+    }
+
+    private void initializeUI() {
+        setLayout(new BorderLayout(10, 10));
+        setBackground(new Color(240, 240, 240));
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        // Crear componentes
+        createHeaderPanel();
+        createTablePanel();
+        createToolbar();
+    }
+
+    private void createHeaderPanel() {
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(new Color(240, 240, 240));
+
+        JLabel titleLabel = new JLabel("Gestión de Clientes");
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
+        titleLabel.setForeground(new Color(50, 50, 50));
+
+        JLabel subtitleLabel = new JLabel("Administre la información de los clientes de la peluquería");
+        subtitleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        subtitleLabel.setForeground(new Color(100, 100, 100));
+
+        JPanel titlePanel = new JPanel(new BorderLayout());
+        titlePanel.setBackground(new Color(240, 240, 240));
+        titlePanel.add(titleLabel, BorderLayout.NORTH);
+        titlePanel.add(subtitleLabel, BorderLayout.CENTER);
+
+        headerPanel.add(titlePanel, BorderLayout.WEST);
+        
+        lblCargando = new JLabel("Cargando...");
+        lblCargando.setFont(new Font("Segoe UI", Font.ITALIC, 13));
+        lblCargando.setForeground(new Color(100, 100, 100));
+        headerPanel.add(lblCargando, BorderLayout.EAST);
+        cargador.setIndicador(lblCargando);
+
+        add(headerPanel, BorderLayout.NORTH);
+    }
+
+    private void createToolbar() {
+        JPanel toolbarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        toolbarPanel.setBackground(new Color(240, 240, 240));
+        toolbarPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
+
+        // Botón Agregar
+        btnAgregar = createToolbarButton("➕ Agregar Cliente", new Color(39, 174, 96));
+        btnAgregar.addActionListener(e -> abrirDialogoCliente(null));
+
+        // Botón Editar
+        btnEditar = createToolbarButton("✏️ Editar", new Color(41, 128, 185));
+        btnEditar.addActionListener(e -> editarClienteSeleccionado());
+
+        // Botón Eliminar
+        btnEliminar = createToolbarButton("🗑️ Eliminar", new Color(231, 76, 60));
+        btnEliminar.addActionListener(e -> eliminarClienteSeleccionado());
+
+        // Campo de búsqueda
+        JPanel searchPanel = new JPanel(new BorderLayout(5, 0));
+        searchPanel.setBackground(new Color(240, 240, 240));
+
+        JLabel lblBuscar = new JLabel("Buscar:");
+        lblBuscar.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+
+        txtBuscar = new JTextField(20);
+        txtBuscar.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        txtBuscar.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(new Color(200, 200, 200)),
+            BorderFactory.createEmptyBorder(5, 8, 5, 8)
+        ));
+
+        btnBuscar = createToolbarButton("🔍 Buscar", new Color(155, 89, 182));
+        btnBuscar.addActionListener(e -> buscarClientes());
+
+        btnMejores = createToolbarButton("⭐ Mejores y ausentes", new Color(243, 156, 18));
+        btnMejores.addActionListener(e -> mostrarMejoresYAusentes());
+
+        searchPanel.add(lblBuscar, BorderLayout.WEST);
+        searchPanel.add(txtBuscar, BorderLayout.CENTER);
+        searchPanel.add(btnBuscar, BorderLayout.EAST);
+
+        toolbarPanel.add(btnAgregar);
+        toolbarPanel.add(Box.createHorizontalStrut(10));
+        toolbarPanel.add(btnEditar);
+        toolbarPanel.add(Box.createHorizontalStrut(10));
+        toolbarPanel.add(btnEliminar);
+        toolbarPanel.add(Box.createHorizontalStrut(30));
+        toolbarPanel.add(searchPanel);
+        toolbarPanel.add(Box.createHorizontalStrut(30));
+        toolbarPanel.add(btnMejores);
+
+        lblMetricas = new JLabel(" ");
+        lblMetricas.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        lblMetricas.setForeground(new Color(50, 50, 50));
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.setBackground(new Color(240, 240, 240));
+        southPanel.add(lblMetricas, BorderLayout.NORTH);
+        southPanel.add(toolbarPanel, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
+    }
+
+    private JButton createToolbarButton(String text, Color color) {
+        JButton button = new JButton(text);
+        button.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        button.setBackground(color);
+        button.setForeground(Color.WHITE);
+        button.setFocusPainted(false);
+        button.setBorder(BorderFactory.createEmptyBorder(8, 15, 8, 15));
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+        button.addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseEntered(java.awt.event.MouseEvent evt) {
+                button.setBackground(color.darker());
+            }
+            
+            public void mouseExited(java.awt.event.MouseEvent evt) {
+                button.setBackground(color);
+            }
+        });
+
+        return button;
+    }
+
+    private void createTablePanel() {
+        // Modelo de tabla
+        tableModel = new ModeloTabla<>(Cliente::getId, ORDEN_FILAS)
+            .columna("ID", Cliente::getId)
+            .columna("Nombre", Cliente::getNombre)
+            .columna("Apellido", Cliente::getApellido)
+            .columna("Teléfono", Cliente::getTelefono)
+            .columna("Email", Cliente::getEmail)
+            .columna("Fecha Registro", Cliente::getFechaRegistro);
+
+        tablaClientes = new JTable(tableModel);
+        tablaClientes.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        tablaClientes.setRowHeight(35);
+        tablaClientes.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tablaClientes.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 13));
+        tablaClientes.getTableHeader().setBackground(new Color(70, 130, 180));
+        tablaClientes.getTableHeader().setForeground(Color.WHITE);
+        tablaClientes.setGridColor(new Color(220, 220, 220));
+
+        // Personalizar la tabla
+        tablaClientes.setShowGrid(true);
+        tablaClientes.setIntercellSpacing(new Dimension(1, 1));
+        tablaClientes.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                mostrarMetricasSeleccionado();
+            }
+        });
+
+        JScrollPane scrollPane = new JScrollPane(tablaClientes);
+        scrollPane.setBorder(BorderFactory.createLineBorder(new Color(200, 200, 200)));
+        scrollPane.getViewport().setBackground(Color.WHITE);
+
+        add(scrollPane, BorderLayout.CENTER);
+    }
+
+    private void abrirDialogoCliente(Cliente seleccionado) {
+    Cliente cliente = null;
+    String titulo = "Agregar Cliente";
+    
+    if (seleccionado != null) {
+        // Copia para que el dialogo no modifique el objeto de la tabla
+        cliente = new Cliente();
+        cliente.setId(seleccionado.getId());
+        cliente.setNombre(seleccionado.getNombre());
+        cliente.setApellido(seleccionado.getApellido());
+        cliente.setTelefono(seleccionado.getTelefono());
+        cliente.setEmail(seleccionado.getEmail());
+        titulo = "Editar Cliente";
+    }
+    
+    // Buscar el JFrame padre
+    Window parentWindow = SwingUtilities.getWindowAncestor(this);
+    JFrame parentFrame = null;
+    if (parentWindow instanceof JFrame) {
+        parentFrame = (JFrame) parentWindow;
+    }
+    
+    // Si se guarda, la fila se actualiza con el evento que publica el servicio
+    ClienteDialog dialog = new ClienteDialog(parentFrame, titulo, cliente);
+    dialog.setVisible(true);
+}
+
+    private void editarClienteSeleccionado() {
+        int filaSeleccionada = tablaClientes.getSelectedRow();
+        if (filaSeleccionada == -1) {
+            JOptionPane.showMessageDialog(this,
+                "Por favor, seleccione un cliente para editar.",
+                "Selección Requerida",
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        abrirDialogoCliente(tableModel.getFila(filaSeleccionada));
+    }
+
+    private void eliminarClienteSeleccionado() {
+    int filaSeleccionada = tablaClientes.getSelectedRow();
+    if (filaSeleccionada == -1) {
+        JOptionPane.showMessageDialog(this,
+            "Por favor, seleccione un cliente para eliminar.",
+            "Selección Requerida",
+            JOptionPane.WARNING_MESSAGE);
+        return;
+    }
+
+    // Obtener el ID del cliente seleccionado
+    Cliente seleccionado = tableModel.getFila(filaSeleccionada);
+    int idCliente = seleccionado.getId();
+    String nombreCliente = seleccionado.getNombre() + " " + seleccionado.getApellido();
+
+    int confirmacion = JOptionPane.showConfirmDialog(this,
+        "¿Está seguro que desea eliminar al cliente:\n" + nombreCliente + "?",
+        "Confirmar Eliminación",
+        JOptionPane.YES_NO_OPTION,
+        JOptionPane.WARNING_MESSAGE);
+
+    if (confirmacion == JOptionPane.YES_OPTION) {
+        try {
+            // Eliminar de la base de datos
+            ClienteController controller = new ClienteController();
+            controller.eliminarCliente(idCliente);
+            
+            JOptionPane.showMessageDialog(this,
+                "Cliente eliminado correctamente.",
+                "Eliminación Exitosa",
+                JOptionPane.INFORMATION_MESSAGE);
+                
+        } catch (ServiceException e) {
+            JOptionPane.showMessageDialog(this,
+                "Error al eliminar cliente: " + e.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
+    private void buscarClientes() {
+        String textoBusqueda = txtBuscar.getText().trim().toLowerCase();
+        if (textoBusqueda.isEmpty()) {
+            actualizarTabla();
+            return;
+        }
+
+        // Filtrar datos 
+        List<Cliente> encontrados = new ArrayList<>();
+        for (Cliente cliente : tableModel.getFilas()) {
+            if (coincideBusqueda(cliente, textoBusqueda)) {
+                encontrados.add(cliente);
+            }
+        }
+
+        if (encontrados.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                "No se encontraron clientes que coincidan con la búsqueda: " + textoBusqueda,
+                "Búsqueda Sin Resultados",
+                JOptionPane.INFORMATION_MESSAGE);
+            actualizarTabla();
+        } else {
+            tableModel.reemplazarTodo(encontrados);
+        }
+    }
+    
+    private static boolean coincideBusqueda(Cliente cliente, String textoBusqueda) {
+        return cliente.getNombre().toLowerCase().contains(textoBusqueda)
+            || cliente.getApellido().toLowerCase().contains(textoBusqueda)
+            || cliente.getTelefono().toLowerCase().contains(textoBusqueda);
+    }
+    /**
+     * Actualiza la tabla de clientes con los datos más recientes de la base de datos.
+     * Limpia la tabla actual y la llena con todos los clientes registrados.
+     * La consulta se hace en segundo plano y reemplaza a cualquier carga anterior.
+     */
+    public void actualizarTabla() {
+        // Obtener clientes reales de la base de datos
+        ClienteController controller = new ClienteController();
+        cargador.cargar("Error al cargar clientes", controller::obtenerTodosClientes, this::mostrarClientes);
+    }
+    
+    /**
+     * Reemplaza el contenido de la tabla con los clientes indicados.
+     * Se usa tanto con datos de la base de datos como con los del snapshot local.
+     * 
+     * @param clientes Los clientes a mostrar
+     */
+    public void mostrarClientes(List<Cliente> clientes) {
+        tableModel.reemplazarTodo(clientes);
+    }
+    
+    private int clienteSeleccionado() {
+        int fila = tablaClientes.getSelectedRow();
+        return fila == -1 ? -1 : tableModel.getFila(fila).getId();
+    }
+
+    private void mostrarMetricasSeleccionado() {
+        int clienteId = clienteSeleccionado();
+        if (clienteId == -1) {
+            cargadorMetricas.cancelar();
+            lblMetricas.setText(" ");
+            return;
+        }
+        ClienteController controller = new ClienteController();
+        cargadorMetricas.cargar("Error al obtener las métricas del cliente",
+            () -> controller.obtenerMetricas(clienteId),
+            metricas -> lblMetricas.setText(describirMetricas(metricas)));
+    }
+
+    private static String describirMetricas(MetricasCliente metricas) {
+        if (metricas == null) {
+            return "Todavía no tiene turnos completados.";
+        }
+        Double frecuencia = metricas.getDiasEntreVisitas();
+        return metricas.getVisitas() + " visitas · $" + String.format("%.2f", metricas.getTotalPagado())
+            + " en total · ticket promedio $" + String.format("%.2f", metricas.getTicketPromedio())
+            + " · última visita " + metricas.getUltimaVisita().format(FORMATO_FECHA)
+            + (frecuencia != null ? " · viene cada " + String.format("%.0f", frecuencia) + " días" : "");
+    }
+
+    private void mostrarMejoresYAusentes() {
+        ClienteController controller = new ClienteController();
+        cargador.ejecutar("Error al obtener los mejores clientes", () -> new ListasClientes(
+            controller.obtenerMejoresClientes(CLIENTES_POR_LISTA),
+            controller.obtenerClientesAusentes(DIAS_AUSENTE, CLIENTES_POR_LISTA)
+        ), listas -> {
+            JTabbedPane pestanias = new JTabbedPane();
+            pestanias.addTab("Mejores clientes", new JScrollPane(tablaMetricas(listas.mejores)));
+            pestanias.addTab("Sin venir hace " + DIAS_AUSENTE + " días", new JScrollPane(tablaMetricas(listas.ausentes)));
+            pestanias.setPreferredSize(new Dimension(700, 400));
+            JOptionPane.showMessageDialog(this, pestanias, "Clientes", JOptionPane.PLAIN_MESSAGE);
+        });
+    }
+
+    private static JTable tablaMetricas(List<MetricasCliente> metricas) {
+        String[] columnas = {"Cliente", "Teléfono", "Visitas", "Total", "Ticket promedio", "Última visita", "Cada (días)"};
+        Object[][] datos = new Object[metricas.size()][];
+        for (int i = 0; i < metricas.size(); i++) {
+            MetricasCliente fila = metricas.get(i);
+            Double frecuencia = fila.getDiasEntreVisitas();
+            datos[i] = new Object[]{
+                fila.getCliente().getNombre() + " " + fila.getCliente().getApellido(),
+                fila.getCliente().getTelefono(),
+                fila.getVisitas(),
+                "$" + String.format("%.2f", fila.getTotalPagado()),
+                "$" + String.format("%.2f", fila.getTicketPromedio()),
+                fila.getUltimaVisita().format(FORMATO_FECHA),
+                frecuencia != null ? String.format("%.0f", frecuencia) : "-"
+            };
+        }
+        JTable tabla = new JTable(datos, columnas);
+        tabla.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        tabla.setRowHeight(28);
+        tabla.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 13));
+        tabla.setEnabled(false);
+        return tabla;
+    }
+
+    private void aplicarCambio(Cliente cliente) {
+        // Con una busqueda activa solo se muestran los que coinciden
+        String textoBusqueda = txtBuscar.getText().trim().toLowerCase();
+        if (textoBusqueda.isEmpty() || coincideBusqueda(cliente, textoBusqueda)) {
+            tableModel.agregarOReemplazar(cliente);
+        } else {
+            tableModel.quitar(cliente.getId());
+        }
+    }
+
+    /**
+     * Listas de clientes obtenidas en segundo plano.
+     */
+    private static class ListasClientes {
+        final List<MetricasCliente> mejores;
+        final List<MetricasCliente> ausentes;
+
+        ListasClientes(List<MetricasCliente> mejores, List<MetricasCliente> ausentes) {
+            this.mejores = mejores;
+            this.ausentes = ausentes;
+        }
+    }
+}
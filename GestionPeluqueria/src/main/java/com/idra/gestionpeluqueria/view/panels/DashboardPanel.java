@@ -1,341 +1,594 @@
-package com.idra.gestionpeluqueria.view.panels;
-
-import com.idra.gestionpeluqueria.controller.ClienteController;
-import com.idra.gestionpeluqueria.controller.ServicioController;
-import com.idra.gestionpeluqueria.controller.TurnoController;
-import com.idra.gestionpeluqueria.exception.ServiceException;
-import com.idra.gestionpeluqueria.model.Cliente;
-import com.idra.gestionpeluqueria.model.Servicio;
-import com.idra.gestionpeluqueria.model.Turno;
-import com.idra.gestionpeluqueria.model.enums.EstadoPago;
-import javax.swing.*;
-import java.awt.*;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
-
-/**
- * Panel principal (dashboar) de la aplicacion
- * Muestra estadisticas generales del negocio incluyendo total de clientes,
- * servicios activos, turnos del dia e ingresos. Tambien proporciona acceso 
- * rapido a las funciones principales y muestra los turnos del dia actual.
- * 
- * @author Idra
- */
-
-public class DashboardPanel extends JPanel {
-    private JLabel lblTotalClientes, lblTotalServicios, lblTurnosHoy, lblIngresosHoy;
-    private JLabel lblFechaActual;
-    private JPanel statsPanel, quickActionsPanel, recentTurnosPanel;
-    
-    /**
-     * Constructor que inicializa el panel del dashboard y sus componentes.
-     */
-    public DashboardPanel() {
-        initializeUI();
-    }
-
-    private void initializeUI() {
-        setLayout(new BorderLayout(20, 20));
-        setBackground(new Color(240, 240, 240));
-        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-
-        // Panel superior con fecha y título
-        createHeaderPanel();
-
-        // Panel de estadísticas
-        createStatsPanel();
-
-        // Panel de acciones rápidas
-        createQuickActionsPanel();
-
-        // Panel de turnos recientes
-        createRecentTurnosPanel();
-
-        // Layout principal
-        JPanel contentPanel = new JPanel(new BorderLayout(0, 20));
-        contentPanel.setBackground(new Color(240, 240, 240));
-
-        JPanel topPanel = new JPanel(new BorderLayout(0, 20));
-        topPanel.add(statsPanel, BorderLayout.CENTER);
-        topPanel.add(quickActionsPanel, BorderLayout.EAST);
-
-        contentPanel.add(topPanel, BorderLayout.NORTH);
-        contentPanel.add(recentTurnosPanel, BorderLayout.CENTER);
-
-        add(contentPanel, BorderLayout.CENTER);
-    }
-
-    private void createHeaderPanel() {
-        JPanel headerPanel = new JPanel(new BorderLayout());
-        headerPanel.setBackground(new Color(240, 240, 240));
-
-        JLabel titleLabel = new JLabel("Dashboard Principal");
-        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 28));
-        titleLabel.setForeground(new Color(50, 50, 50));
-
-        lblFechaActual = new JLabel();
-        lblFechaActual.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-        lblFechaActual.setForeground(new Color(100, 100, 100));
-        actualizarFecha();
-
-        headerPanel.add(titleLabel, BorderLayout.WEST);
-        headerPanel.add(lblFechaActual, BorderLayout.EAST);
-
-        add(headerPanel, BorderLayout.NORTH);
-    }
-
-    private void createStatsPanel() {
-        statsPanel = new JPanel(new GridLayout(2, 2, 15, 15));
-        statsPanel.setBackground(new Color(240, 240, 240));
-
-        // Tarjeta 1: Total Clientes
-        JPanel cardClientes = createStatCard("👥 Total Clientes", "0", new Color(41, 128, 185));
-        lblTotalClientes = (JLabel) ((JPanel) cardClientes.getComponent(1)).getComponent(0);
-
-        // Tarjeta 2: Total Servicios
-        JPanel cardServicios = createStatCard("✂️ Servicios Activos", "0", new Color(39, 174, 96));
-        lblTotalServicios = (JLabel) ((JPanel) cardServicios.getComponent(1)).getComponent(0);
-
-        // Tarjeta 3: Turnos Hoy
-        JPanel cardTurnos = createStatCard("📅 Turnos Hoy", "0", new Color(243, 156, 18));
-        lblTurnosHoy = (JLabel) ((JPanel) cardTurnos.getComponent(1)).getComponent(0);
-
-        // Tarjeta 4: Ingresos Hoy
-        JPanel cardIngresos = createStatCard("💰 Ingresos Hoy", "$0.00", new Color(231, 76, 60));
-        lblIngresosHoy = (JLabel) ((JPanel) cardIngresos.getComponent(1)).getComponent(0);
-
-        statsPanel.add(cardClientes);
-        statsPanel.add(cardServicios);
-        statsPanel.add(cardTurnos);
-        statsPanel.add(cardIngresos);
-    }
-
-    private JPanel createStatCard(String title, String value, Color color) {
-        JPanel card = new JPanel(new BorderLayout());
-        card.setBackground(Color.WHITE);
-        card.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(new Color(200, 200, 200)),
-            BorderFactory.createEmptyBorder(20, 20, 20, 20)
-        ));
-
-        JLabel titleLabel = new JLabel(title);
-        titleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-        titleLabel.setForeground(new Color(100, 100, 100));
-
-        JLabel valueLabel = new JLabel(value, SwingConstants.CENTER);
-        valueLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
-        valueLabel.setForeground(color);
-
-        JPanel valuePanel = new JPanel(new BorderLayout());
-        valuePanel.setBackground(Color.WHITE);
-        valuePanel.add(valueLabel, BorderLayout.CENTER);
-
-        card.add(titleLabel, BorderLayout.NORTH);
-        card.add(valuePanel, BorderLayout.CENTER);
-
-        return card;
-    }
-
-   private void createQuickActionsPanel() {
-    quickActionsPanel = new JPanel(new GridLayout(3, 1, 10, 10)); // Cambié de 4,1 a 3,1
-    quickActionsPanel.setBackground(new Color(240, 240, 240));
-    quickActionsPanel.setPreferredSize(new Dimension(250, 0));
-
-    JButton btnNuevoCliente = createActionButton("➕ Nuevo Cliente", new Color(41, 128, 185));
-    JButton btnNuevoServicio = createActionButton("🎨 Nuevo Servicio", new Color(39, 174, 96));
-    JButton btnNuevoTurno = createActionButton("📋 Nuevo Turno", new Color(243, 156, 18));
-
-    quickActionsPanel.add(btnNuevoCliente);
-    quickActionsPanel.add(btnNuevoServicio);
-    quickActionsPanel.add(btnNuevoTurno);
-
-    // Event listeners
-    btnNuevoCliente.addActionListener(e -> {
-        JOptionPane.showMessageDialog(this, 
-            "Funcionalidad: Abrir diálogo para nuevo cliente", 
-            "Nuevo Cliente", 
-            JOptionPane.INFORMATION_MESSAGE);
-    });
-    
-    btnNuevoServicio.addActionListener(e -> {
-        JOptionPane.showMessageDialog(this, 
-            "Funcionalidad: Abrir diálogo para nuevo servicio", 
-            "Nuevo Servicio", 
-            JOptionPane.INFORMATION_MESSAGE);
-    });
-    
-    btnNuevoTurno.addActionListener(e -> {
-        JOptionPane.showMessageDialog(this, 
-            "Funcionalidad: Abrir diálogo para nuevo turno", 
-            "Nuevo Turno", 
-            JOptionPane.INFORMATION_MESSAGE);
-    });
-}
-
-    private JButton createActionButton(String text, Color color) {
-        JButton button = new JButton(text);
-        button.setFont(new Font("Segoe UI", Font.BOLD, 14));
-        button.setBackground(color);
-        button.setForeground(Color.WHITE);
-        button.setFocusPainted(false);
-        button.setBorder(BorderFactory.createEmptyBorder(15, 10, 15, 10));
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-
-        button.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                button.setBackground(color.darker());
-            }
-            
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                button.setBackground(color);
-            }
-        });
-
-        return button;
-    }
-
-    private void createRecentTurnosPanel() {
-    recentTurnosPanel = new JPanel(new BorderLayout());
-    recentTurnosPanel.setBackground(Color.WHITE);
-    recentTurnosPanel.setBorder(BorderFactory.createCompoundBorder(
-        BorderFactory.createTitledBorder("📋 Turnos de Hoy"),
-        BorderFactory.createEmptyBorder(10, 10, 10, 10)
-    ));
-
-    try {
-        // Obtener turnos de HOY desde la base de datos
-        TurnoController controller = new TurnoController();
-        List<Turno> turnosHoy = controller.buscarTurnosPorFecha(LocalDate.now());
-        
-        String[] columnNames = {"Hora", "Cliente", "Servicio", "Estado", "Pago"};
-        Object[][] data;
-        
-        if (turnosHoy.isEmpty()) {
-            data = new Object[][]{
-                {"--:--", "No hay turnos para hoy", "---", "---", "---"}
-            };
-        } else {
-            data = new Object[turnosHoy.size()][5];
-            for (int i = 0; i < turnosHoy.size(); i++) {
-                Turno turno = turnosHoy.get(i);
-                data[i][0] = turno.getFechaHora().format(DateTimeFormatter.ofPattern("HH:mm"));
-                data[i][1] = turno.getCliente().getNombre() + " " + turno.getCliente().getApellido();
-                data[i][2] = turno.getServicio().getNombre();
-                data[i][3] = turno.getEstado().getDescripcion();
-                data[i][4] = turno.getEstadoPago().getDescripcion();
-            }
-        }
-
-        JTable table = new JTable(data, columnNames);
-        table.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-        table.setRowHeight(30);
-        table.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 13));
-        table.setEnabled(false); // Solo lectura
-
-        JScrollPane scrollPane = new JScrollPane(table);
-        recentTurnosPanel.add(scrollPane, BorderLayout.CENTER);
-        
-    } catch (ServiceException e) {
-        System.err.println("❌ Error al cargar turnos de hoy: " + e.getMessage());
-        // Mostrar tabla vacía en caso de error
-        String[] columnNames = {"Hora", "Cliente", "Servicio", "Estado", "Pago"};
-        Object[][] data = {{"--:--", "Error al cargar turnos", "---", "---", "---"}};
-        JTable table = new JTable(data, columnNames);
-        recentTurnosPanel.add(new JScrollPane(table), BorderLayout.CENTER);
-    }
-}
-   /**
-     * Actualiza todos los datos mostrados en el dashboard.
-     * Refresca las estadísticas, la fecha actual y la tabla de turnos del día
-     * con información actualizada desde la base de datos.
-     */
-   public void actualizarDatos() {
-    actualizarFecha();
-    
-    try {
-        // Actualizar estadísticas con datos reales
-        ClienteController clienteController = new ClienteController();
-        ServicioController servicioController = new ServicioController();
-        TurnoController turnoController = new TurnoController();
-        
-        List<Cliente> clientes = clienteController.obtenerTodosClientes();
-        List<Servicio> servicios = servicioController.obtenerServiciosActivos();
-        List<Turno> turnosHoy = turnoController.buscarTurnosPorFecha(LocalDate.now());
-        
-        // Calcular ingresos de hoy
-        double ingresosHoy = turnosHoy.stream()
-            .filter(turno -> turno.getEstadoPago() == EstadoPago.PAGADO)
-            .mapToDouble(turno -> turno.getMontoPagado())
-            .sum();
-        
-        // Actualizar labels
-        lblTotalClientes.setText(String.valueOf(clientes.size()));
-        lblTotalServicios.setText(String.valueOf(servicios.size()));
-        lblTurnosHoy.setText(String.valueOf(turnosHoy.size()));
-        lblIngresosHoy.setText("$" + String.format("%.2f", ingresosHoy));
-        
-        // Actualizar tabla de turnos de hoy
-        updateTurnosHoyTable();
-        
-    } catch (ServiceException e) {
-        System.err.println("❌ Error al actualizar datos del dashboard: " + e.getMessage());
-        // Valores por defecto en caso de error
-        lblTotalClientes.setText("0");
-        lblTotalServicios.setText("0");
-        lblTurnosHoy.setText("0");
-        lblIngresosHoy.setText("$0.00");
-    }
-}
-   
-   
-   private void updateTurnosHoyTable() {
-    try {
-        TurnoController controller = new TurnoController();
-        List<Turno> turnosHoy = controller.buscarTurnosPorFecha(LocalDate.now());
-        
-        // Si el panel ya existe, actualizarlo
-        if (recentTurnosPanel.getComponentCount() > 0) {
-            recentTurnosPanel.removeAll();
-            
-            String[] columnNames = {"Hora", "Cliente", "Servicio", "Estado", "Pago"};
-            Object[][] data;
-            
-            if (turnosHoy.isEmpty()) {
-                data = new Object[][]{
-                    {"--:--", "No hay turnos para hoy", "---", "---", "---"}
-                };
-            } else {
-                data = new Object[turnosHoy.size()][5];
-                for (int i = 0; i < turnosHoy.size(); i++) {
-                    Turno turno = turnosHoy.get(i);
-                    data[i][0] = turno.getFechaHora().format(DateTimeFormatter.ofPattern("HH:mm"));
-                    data[i][1] = turno.getCliente().getNombre() + " " + turno.getCliente().getApellido();
-                    data[i][2] = turno.getServicio().getNombre();
-                    data[i][3] = turno.getEstado().getDescripcion();
-                    data[i][4] = turno.getEstadoPago().getDescripcion();
-                }
-            }
-            
-            JTable table = new JTable(data, columnNames);
-            table.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-            table.setRowHeight(30);
-            table.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 13));
-            table.setEnabled(false);
-            
-            recentTurnosPanel.add(new JScrollPane(table), BorderLayout.CENTER);
-            recentTurnosPanel.revalidate();
-            recentTurnosPanel.repaint();
-        }
-        
-    } catch (ServiceException e) {
-        System.err.println("❌ Error al actualizar tabla de turnos de hoy: " + e.getMessage());
-    }
-}
-
-    private void actualizarFecha() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEEE, d 'de' MMMM 'de' yyyy");
-        String fechaFormateada = LocalDate.now().format(formatter);
-        lblFechaActual.setText(fechaFormateada);
-    }
-}
\ No newline at end of file
+package com.idra.gestionpeluqueria.view.panels;
+
+import com.idra.gestionpeluqueria.controller.ClienteController;
+import com.idra.gestionpeluqueria.controller.ReporteController;
+import com.idra.gestionpeluqueria.controller.ServicioController;
+import com.idra.gestionpeluqueria.controller.TurnoController;
+import com.idra.gestionpeluqueria.event.BusEventos;
+import com.idra.gestionpeluqueria.event.ClienteActualizado;
+import com.idra.gestionpeluqueria.event.ClienteCreado;
+import com.idra.gestionpeluqueria.event.ClienteEliminado;
+import com.idra.gestionpeluqueria.event.EventoServicio;
+import com.idra.gestionpeluqueria.event.EventoTurno;
+import com.idra.gestionpeluqueria.event.ServicioActualizado;
+import com.idra.gestionpeluqueria.event.ServicioEliminado;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import com.idra.gestionpeluqueria.model.CambiosTurnos;
+import com.idra.gestionpeluqueria.model.Cliente;
+import com.idra.gestionpeluqueria.model.DefinicionReporte;
+import com.idra.gestionpeluqueria.model.FilaReporte;
+import com.idra.gestionpeluqueria.model.Servicio;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.model.enums.AgrupacionReporte;
+import com.idra.gestionpeluqueria.service.TotalesPeriodo;
+import com.idra.gestionpeluqueria.view.CargadorSegundoPlano;
+import com.idra.gestionpeluqueria.view.RefrescoPeriodico;
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Panel principal (dashboar) de la aplicacion
+ * Muestra estadisticas generales del negocio incluyendo total de clientes,
+ * servicios activos, turnos del dia e ingresos. Tambien proporciona acceso 
+ * rapido a las funciones principales y muestra los turnos del dia actual.
+ * 
+ * Los turnos del dia y los ingresos se mantienen al dia solos: cada pocos
+ * segundos se piden los turnos que cambiaron desde la consulta anterior,
+ * tambien desde otras terminales, y se aplican sobre lo mostrado; los que
+ * ya no estan en el dia (borrados o movidos a otra fecha) se quitan. Mientras
+ * la ventana no tiene el foco o el panel no se ve, el refresco se espacia.
+ * 
+ * Configuracion: gestionpeluqueria.dashboard.refrescoSegundos (por defecto 5).
+ * 
+ * @author Idra
+ */
+
+public class DashboardPanel extends JPanel {
+    private static final long REFRESCO_SEGUNDOS = Long.getLong("gestionpeluqueria.dashboard.refrescoSegundos", 5);
+    private static final long REFRESCO_MAXIMO_SEGUNDOS = 60;
+    private static final String[] COLUMNAS_TURNOS = {"Hora", "Cliente", "Servicio", "Estado", "Pago"};
+    
+    private JLabel lblTotalClientes, lblTotalServicios, lblTurnosHoy, lblIngresosHoy;
+    private JLabel lblFechaActual, lblIngresosMesAnterior;
+    private JPanel statsPanel, quickActionsPanel, recentTurnosPanel;
+    private final CargadorSegundoPlano cargador = new CargadorSegundoPlano(this);
+    private final RefrescoPeriodico<CambiosDelDia> refresco;
+    private DefaultTableModel modeloTurnosHoy;
+    private Window ventanaObservada;
+    private boolean ventanaConFoco;
+    
+    // Ultimos datos mostrados; los eventos los ajustan sin volver a consultar todo
+    private int totalClientes;
+    private List<Turno> turnosHoy;
+    // Turnos agregados por eventos locales desde el ultimo refresco, que la consulta en curso puede no ver
+    private final Set<Integer> agregadosLocales = new HashSet<>();
+    // Dia y marca de los turnos mostrados; el refresco los lee para pedir solo lo que cambio
+    private volatile LocalDate diaTurnos;
+    private volatile LocalDateTime marcaTurnos;
+    
+    /**
+     * Constructor que inicializa el panel del dashboard y sus componentes.
+     */
+    public DashboardPanel() {
+        initializeUI();
+        cargador.setManejadorError((descripcion, causa) -> {
+            // Valores por defecto en caso de error
+            actualizarFecha();
+            lblTotalClientes.setText("0");
+            lblTotalServicios.setText("0");
+            lblTurnosHoy.setText("0");
+            lblIngresosHoy.setText("$0.00");
+        });
+        
+        BusEventos bus = BusEventos.getInstance();
+        bus.suscribirEnEDT(EventoTurno.class, evento -> aplicarCambioTurno(evento.getTurno()));
+        bus.suscribirEnEDT(ClienteCreado.class, evento -> cambiarTotalClientes(1));
+        bus.suscribirEnEDT(ClienteEliminado.class, evento -> {
+            cambiarTotalClientes(-1);
+            // Los turnos del cliente se borraron con el
+            quitarDeTurnosHoy(turno -> turno.getCliente().getId() == evento.getClienteId());
+        });
+        bus.suscribirEnEDT(ClienteActualizado.class, evento -> {
+            Cliente cliente = evento.getCliente();
+            reemplazarEnTurnosHoy(turno -> turno.getCliente().getId() == cliente.getId(), turno -> turno.setCliente(cliente));
+        });
+        bus.suscribirEnEDT(ServicioActualizado.class, evento -> {
+            Servicio servicio = evento.getServicio();
+            reemplazarEnTurnosHoy(turno -> turno.getServicio().getId() == servicio.getId(), turno -> turno.setServicio(servicio));
+        });
+        bus.suscribirEnEDT(EventoServicio.class, evento -> recontarServiciosActivos());
+        bus.suscribirEnEDT(ServicioEliminado.class,
+            evento -> quitarDeTurnosHoy(turno -> turno.getServicio().getId() == evento.getServicioId()));
+        
+        refresco = new RefrescoPeriodico<>("dashboard", REFRESCO_SEGUNDOS * 1000, REFRESCO_MAXIMO_SEGUNDOS * 1000,
+            () -> consultarCambiosTurnos(false), this::aplicarCambiosTurnos);
+        addHierarchyListener(evento -> {
+            if ((evento.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                observarVentana();
+                actualizarActividad();
+            }
+        });
+        refresco.iniciar();
+    }
+    
+    private void observarVentana() {
+        Window ventana = SwingUtilities.getWindowAncestor(this);
+        if (ventana == null || ventana == ventanaObservada) {
+            return;
+        }
+        ventanaObservada = ventana;
+        ventanaConFoco = ventana.isFocused();
+        ventana.addWindowFocusListener(new WindowAdapter() {
+            @Override
+            public void windowGainedFocus(WindowEvent e) {
+                ventanaConFoco = true;
+                actualizarActividad();
+            }
+            
+            @Override
+            public void windowLostFocus(WindowEvent e) {
+                ventanaConFoco = false;
+                actualizarActividad();
+            }
+        });
+    }
+    
+    private void actualizarActividad() {
+        refresco.setActivo(ventanaConFoco && isShowing());
+    }
+
+    private void initializeUI() {
+        setLayout(new BorderLayout(20, 20));
+        setBackground(new Color(240, 240, 240));
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        // Panel superior con fecha y título
+        createHeaderPanel();
+
+        // Panel de estadísticas
+        createStatsPanel();
+
+        // Panel de acciones rápidas
+        createQuickActionsPanel();
+
+        // Panel de turnos recientes
+        createRecentTurnosPanel();
+
+        // Layout principal
+        JPanel contentPanel = new JPanel(new BorderLayout(0, 20));
+        contentPanel.setBackground(new Color(240, 240, 240));
+
+        JPanel topPanel = new JPanel(new BorderLayout(0, 20));
+        topPanel.add(statsPanel, BorderLayout.CENTER);
+        topPanel.add(quickActionsPanel, BorderLayout.EAST);
+
+        contentPanel.add(topPanel, BorderLayout.NORTH);
+        contentPanel.add(recentTurnosPanel, BorderLayout.CENTER);
+
+        add(contentPanel, BorderLayout.CENTER);
+    }
+
+    private void createHeaderPanel() {
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(new Color(240, 240, 240));
+
+        JLabel titleLabel = new JLabel("Dashboard Principal");
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 28));
+        titleLabel.setForeground(new Color(50, 50, 50));
+
+        lblFechaActual = new JLabel();
+        lblFechaActual.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        lblFechaActual.setForeground(new Color(100, 100, 100));
+        actualizarFecha();
+
+        headerPanel.add(titleLabel, BorderLayout.WEST);
+        headerPanel.add(lblFechaActual, BorderLayout.EAST);
+
+        add(headerPanel, BorderLayout.NORTH);
+    }
+
+    private void createStatsPanel() {
+        statsPanel = new JPanel(new GridLayout(2, 2, 15, 15));
+        statsPanel.setBackground(new Color(240, 240, 240));
+
+        // Tarjeta 1: Total Clientes
+        JPanel cardClientes = createStatCard("👥 Total Clientes", "0", new Color(41, 128, 185));
+        lblTotalClientes = (JLabel) ((JPanel) cardClientes.getComponent(1)).getComponent(0);
+
+        // Tarjeta 2: Total Servicios
+        JPanel cardServicios = createStatCard("✂️ Servicios Activos", "0", new Color(39, 174, 96));
+        lblTotalServicios = (JLabel) ((JPanel) cardServicios.getComponent(1)).getComponent(0);
+
+        // Tarjeta 3: Turnos Hoy
+        JPanel cardTurnos = createStatCard("📅 Turnos Hoy", "0", new Color(243, 156, 18));
+        lblTurnosHoy = (JLabel) ((JPanel) cardTurnos.getComponent(1)).getComponent(0);
+
+        // Tarjeta 4: Ingresos Hoy
+        JPanel cardIngresos = createStatCard("💰 Ingresos Hoy", "$0.00", new Color(231, 76, 60));
+        lblIngresosHoy = (JLabel) ((JPanel) cardIngresos.getComponent(1)).getComponent(0);
+        lblIngresosMesAnterior = new JLabel(" ", SwingConstants.CENTER);
+        lblIngresosMesAnterior.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        lblIngresosMesAnterior.setForeground(new Color(100, 100, 100));
+        ((JPanel) cardIngresos.getComponent(1)).add(lblIngresosMesAnterior, BorderLayout.SOUTH);
+
+        statsPanel.add(cardClientes);
+        statsPanel.add(cardServicios);
+        statsPanel.add(cardTurnos);
+        statsPanel.add(cardIngresos);
+    }
+
+    private JPanel createStatCard(String title, String value, Color color) {
+        JPanel card = new JPanel(new BorderLayout());
+        card.setBackground(Color.WHITE);
+        card.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(new Color(200, 200, 200)),
+            BorderFactory.createEmptyBorder(20, 20, 20, 20)
+        ));
+
+        JLabel titleLabel = new JLabel(title);
+        titleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        titleLabel.setForeground(new Color(100, 100, 100));
+
+        JLabel valueLabel = new JLabel(value, SwingConstants.CENTER);
+        valueLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
+        valueLabel.setForeground(color);
+
+        JPanel valuePanel = new JPanel(new BorderLayout());
+        valuePanel.setBackground(Color.WHITE);
+        valuePanel.add(valueLabel, BorderLayout.CENTER);
+
+        card.add(titleLabel, BorderLayout.NORTH);
+        card.add(valuePanel, BorderLayout.CENTER);
+
+        return card;
+    }
+
+   private void createQuickActionsPanel() {
+    quickActionsPanel = new JPanel(new GridLayout(3, 1, 10, 10)); // Cambié de 4,1 a 3,1
+    quickActionsPanel.setBackground(new Color(240, 240, 240));
+    quickActionsPanel.setPreferredSize(new Dimension(250, 0));
+
+    JButton btnNuevoCliente = createActionButton("➕ Nuevo Cliente", new Color(41, 128, 185));
+    JButton btnNuevoServicio = createActionButton("🎨 Nuevo Servicio", new Color(39, 174, 96));
+    JButton btnNuevoTurno = createActionButton("📋 Nuevo Turno", new Color(243, 156, 18));
+
+    quickActionsPanel.add(btnNuevoCliente);
+    quickActionsPanel.add(btnNuevoServicio);
+    quickActionsPanel.add(btnNuevoTurno);
+
+    // Event listeners
+    btnNuevoCliente.addActionListener(e -> {
+        JOptionPane.showMessageDialog(this, 
+            "Funcionalidad: Abrir diálogo para nuevo cliente", 
+            "Nuevo Cliente", 
+            JOptionPane.INFORMATION_MESSAGE);
+    });
+    
+    btnNuevoServicio.addActionListener(e -> {
+        JOptionPane.showMessageDialog(this, 
+            "Funcionalidad: Abrir diálogo para nuevo servicio", 
+            "Nuevo Servicio", 
+            JOptionPane.INFORMATION_MESSAGE);
+    });
+    
+    btnNuevoTurno.addActionListener(e -> {
+        JOptionPane.showMessageDialog(this, 
+            "Funcionalidad: Abrir diálogo para nuevo turno", 
+            "Nuevo Turno", 
+            JOptionPane.INFORMATION_MESSAGE);
+    });
+}
+
+    private JButton createActionButton(String text, Color color) {
+        JButton button = new JButton(text);
+        button.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        button.setBackground(color);
+        button.setForeground(Color.WHITE);
+        button.setFocusPainted(false);
+        button.setBorder(BorderFactory.createEmptyBorder(15, 10, 15, 10));
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+        button.addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseEntered(java.awt.event.MouseEvent evt) {
+                button.setBackground(color.darker());
+            }
+            
+            public void mouseExited(java.awt.event.MouseEvent evt) {
+                button.setBackground(color);
+            }
+        });
+
+        return button;
+    }
+
+    private void createRecentTurnosPanel() {
+    recentTurnosPanel = new JPanel(new BorderLayout());
+    recentTurnosPanel.setBackground(Color.WHITE);
+    recentTurnosPanel.setBorder(BorderFactory.createCompoundBorder(
+        BorderFactory.createTitledBorder("📋 Turnos de Hoy"),
+        BorderFactory.createEmptyBorder(10, 10, 10, 10)
+    ));
+
+    // Los turnos se cargan en segundo plano para no demorar la apertura de la ventana.
+    // El modelo se conserva: los refrescos cambian sus celdas sin reconstruir la tabla
+    Object[][] data = {{"--:--", "Cargando turnos...", "---", "---", "---"}};
+    modeloTurnosHoy = new DefaultTableModel(data, COLUMNAS_TURNOS);
+    JTable table = new JTable(modeloTurnosHoy);
+    table.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+    table.setRowHeight(30);
+    table.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 13));
+    table.setEnabled(false); // Solo lectura
+
+    recentTurnosPanel.add(new JScrollPane(table), BorderLayout.CENTER);
+}
+   /**
+     * Actualiza todos los datos mostrados en el dashboard.
+     * Refresca las estadísticas, la fecha actual y la tabla de turnos del día
+     * con información actualizada desde la base de datos.
+     */
+   public void actualizarDatos() {
+    ClienteController clienteController = new ClienteController();
+    ServicioController servicioController = new ServicioController();
+    ReporteController reporteController = new ReporteController();
+    
+    cargador.cargar("Error al actualizar datos del dashboard", () -> {
+        // Las tres consultas son independientes: se lanzan en paralelo
+        CompletableFuture<List<Cliente>> clientes = clienteController.obtenerTodosClientesAsync();
+        CompletableFuture<List<Servicio>> servicios = servicioController.obtenerServiciosActivosAsync();
+        // El mes anterior esta cerrado: salvo la primera vez sale de la cache de reportes.
+        // Si no se puede calcular (por ejemplo sin conexion) no se muestra, sin afectar al resto
+        CompletableFuture<List<FilaReporte>> mesAnterior = reporteController.generarReporteAsync(
+                DefinicionReporte.delMes(AgrupacionReporte.MES, YearMonth.now().minusMonths(1)))
+            .exceptionally(error -> null);
+        // Al entrar al dashboard se trae el dia completo; despues los refrescos traen solo lo que cambio
+        CambiosDelDia turnosHoy = consultarCambiosTurnos(true);
+        try {
+            CompletableFuture.allOf(clientes, servicios, mesAnterior).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+        Double ingresosMesAnterior = mesAnterior.join() == null ? null
+            : mesAnterior.join().stream().mapToDouble(FilaReporte::getTotalCobrado).sum();
+        return new ResumenDashboard(clientes.join().size(), servicios.join().size(), turnosHoy,
+            ingresosMesAnterior);
+    }, resumen -> {
+        mostrarContadores(resumen.totalClientes, resumen.serviciosActivos);
+        aplicarCambiosTurnos(resumen.turnosHoy);
+        lblIngresosMesAnterior.setText(resumen.ingresosMesAnterior == null ? " "
+            : "Mes anterior: $" + String.format("%.2f", resumen.ingresosMesAnterior));
+    });
+}
+   
+   /**
+     * Muestra en el dashboard los datos ya obtenidos, sin consultar la base de datos.
+     * Permite poblar los contadores desde el snapshot local o desde una carga en segundo plano.
+     * 
+     * @param totalClientes Cantidad de clientes registrados
+     * @param serviciosActivos Cantidad de servicios activos
+     * @param turnosHoy Turnos del dia, o null si todavia no se conocen
+     */
+   public void mostrarDatos(int totalClientes, int serviciosActivos, List<Turno> turnosHoy) {
+    mostrarContadores(totalClientes, serviciosActivos);
+    
+    if (turnosHoy != null) {
+        // Sin marca: el proximo refresco vuelve a traer el dia completo
+        aplicarCambiosTurnos(new CambiosDelDia(LocalDate.now(), true, new CambiosTurnos(turnosHoy, null)));
+    }
+}
+   
+   private void mostrarContadores(int totalClientes, int serviciosActivos) {
+    actualizarFecha();
+    
+    this.totalClientes = totalClientes;
+    lblTotalClientes.setText(String.valueOf(totalClientes));
+    lblTotalServicios.setText(String.valueOf(serviciosActivos));
+}
+   
+   /**
+    * Consulta los turnos de hoy que cambiaron desde lo mostrado. Se ejecuta
+    * fuera del EDT, desde la carga completa o desde el refresco periodico.
+    */
+   private CambiosDelDia consultarCambiosTurnos(boolean completo) throws ServiceException {
+    LocalDate hoy = LocalDate.now();
+    LocalDateTime desde = completo || !hoy.equals(diaTurnos) ? null : marcaTurnos;
+    CambiosTurnos cambios = new TurnoController().buscarCambiosDelDia(hoy, desde);
+    // Los cambios de otras terminales no pasan por el bus de eventos: se cargan a mano en el almacen
+    new ReporteController().registrarCambiosTurnos(cambios.getTurnos());
+    return new CambiosDelDia(hoy, desde == null, cambios);
+}
+   
+   private void aplicarCambiosTurnos(CambiosDelDia cambios) {
+    List<Turno> turnos = cambios.cambios.getTurnos();
+    if (cambios.completo) {
+        turnosHoy = new ArrayList<>(turnos);
+        agregadosLocales.clear();
+    } else if (turnosHoy == null || !cambios.dia.equals(diaTurnos)) {
+        return; // Llego tarde: ya se mostro otro dia o una carga completa posterior
+    } else {
+        boolean hayCambios = false;
+        for (Turno turno : turnos) {
+            Turno mostrado = turnosHoy.stream().filter(t -> t.getId() == turno.getId()).findFirst().orElse(null);
+            // Un evento local puede haber mostrado ya una version mas nueva que la consultada
+            if (mostrado == null || mostrado.getVersion() < turno.getVersion()) {
+                turnosHoy.remove(mostrado);
+                turnosHoy.add(turno);
+                hayCambios = true;
+            }
+        }
+        // Los borrados (tambien en cascada con su cliente o servicio) y los movidos
+        // a otro dia no vienen entre los cambios: se quitan los que ya no estan
+        Set<Integer> vigentes = cambios.cambios.getVigentes();
+        if (vigentes != null && turnosHoy.removeIf(
+                turno -> !vigentes.contains(turno.getId()) && !agregadosLocales.contains(turno.getId()))) {
+            hayCambios = true;
+        }
+        agregadosLocales.clear();
+        if (!hayCambios) {
+            diaTurnos = cambios.dia;
+            marcaTurnos = cambios.cambios.getMarca();
+            return;
+        }
+        turnosHoy.sort(Comparator.comparing(Turno::getFechaHora));
+    }
+    if (!cambios.dia.equals(diaTurnos)) {
+        actualizarFecha();
+    }
+    diaTurnos = cambios.dia;
+    marcaTurnos = cambios.cambios.getMarca();
+    mostrarTurnosHoy();
+}
+   
+   private void mostrarTurnosHoy() {
+    lblTurnosHoy.setText(String.valueOf(turnosHoy.size()));
+    actualizarIngresosHoy();
+    
+    // Actualizar tabla de turnos de hoy
+    updateTurnosHoyTable(turnosHoy);
+}
+   
+   private void actualizarIngresosHoy() {
+    // Los ingresos salen del almacen de turnos en memoria, que los eventos ya dejaron al dia
+    ReporteController reporteController = new ReporteController();
+    LocalDate hoy = LocalDate.now();
+    TotalesPeriodo totales = reporteController.calcularTotalesEnMemoria(hoy, hoy);
+    if (totales != null) {
+        mostrarIngresosHoy(totales);
+    } else {
+        // La primera vez se cargan los turnos en segundo plano
+        cargador.ejecutar("Error al calcular los ingresos de hoy",
+            () -> reporteController.calcularTotales(hoy, hoy), this::mostrarIngresosHoy);
+    }
+}
+   
+   private void mostrarIngresosHoy(TotalesPeriodo totales) {
+    lblIngresosHoy.setText("$" + String.format("%.2f", totales.getTotalCobrado()));
+}
+   
+   private void aplicarCambioTurno(Turno turno) {
+    if (turnosHoy == null) {
+        return; // Todavia no hay datos cargados; la carga inicial ya lo incluye
+    }
+    turnosHoy.removeIf(mostrado -> mostrado.getId() == turno.getId());
+    if (turno.getFechaHora().toLocalDate().equals(LocalDate.now())) {
+        turnosHoy.add(turno);
+        agregadosLocales.add(turno.getId());
+        turnosHoy.sort(Comparator.comparing(Turno::getFechaHora));
+    }
+    mostrarTurnosHoy();
+}
+   
+   private void quitarDeTurnosHoy(Predicate<Turno> afectado) {
+    if (turnosHoy != null && turnosHoy.removeIf(afectado)) {
+        mostrarTurnosHoy();
+    }
+}
+   
+   private void reemplazarEnTurnosHoy(Predicate<Turno> afectado, Consumer<Turno> cambio) {
+    if (turnosHoy == null || turnosHoy.stream().noneMatch(afectado)) {
+        return;
+    }
+    turnosHoy.stream().filter(afectado).forEach(cambio);
+    updateTurnosHoyTable(turnosHoy);
+}
+   
+   private void cambiarTotalClientes(int diferencia) {
+    totalClientes += diferencia;
+    lblTotalClientes.setText(String.valueOf(totalClientes));
+}
+   
+   private void recontarServiciosActivos() {
+    // Un cambio puede activar o desactivar el servicio: se vuelve a contar desde la cache
+    ServicioController servicioController = new ServicioController();
+    cargador.ejecutar("Error al contar servicios activos", servicioController::obtenerServiciosActivos,
+        servicios -> lblTotalServicios.setText(String.valueOf(servicios.size())));
+}
+   
+   private void updateTurnosHoyTable(List<Turno> turnosHoy) {
+    List<Object[]> filas = new ArrayList<>();
+    if (turnosHoy.isEmpty()) {
+        filas.add(new Object[]{"--:--", "No hay turnos para hoy", "---", "---", "---"});
+    }
+    for (Turno turno : turnosHoy) {
+        filas.add(new Object[]{
+            turno.getFechaHora().format(DateTimeFormatter.ofPattern("HH:mm")),
+            turno.getCliente().getNombre() + " " + turno.getCliente().getApellido(),
+            turno.getServicio().getNombre(),
+            turno.getEstado().getDescripcion(),
+            turno.getEstadoPago().getDescripcion()
+        });
+    }
+    
+    // Solo se tocan las celdas que cambiaron, sin reconstruir la tabla
+    for (int fila = 0; fila < filas.size(); fila++) {
+        Object[] valores = filas.get(fila);
+        if (fila >= modeloTurnosHoy.getRowCount()) {
+            modeloTurnosHoy.addRow(valores);
+            continue;
+        }
+        for (int columna = 0; columna < valores.length; columna++) {
+            if (!valores[columna].equals(modeloTurnosHoy.getValueAt(fila, columna))) {
+                modeloTurnosHoy.setValueAt(valores[columna], fila, columna);
+            }
+        }
+    }
+    if (modeloTurnosHoy.getRowCount() > filas.size()) {
+        modeloTurnosHoy.setRowCount(filas.size());
+    }
+}
+
+    private void actualizarFecha() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEEE, d 'de' MMMM 'de' yyyy");
+        String fechaFormateada = LocalDate.now().format(formatter);
+        lblFechaActual.setText(fechaFormateada);
+    }
+
+    /**
+     * Datos del dashboard obtenidos en segundo plano.
+     */
+    private static class ResumenDashboard {
+        final int totalClientes;
+        final int serviciosActivos;
+        final CambiosDelDia turnosHoy;
+        final Double ingresosMesAnterior;
+
+        ResumenDashboard(int totalClientes, int serviciosActivos, CambiosDelDia turnosHoy, Double ingresosMesAnterior) {
+            this.totalClientes = totalClientes;
+            this.serviciosActivos = serviciosActivos;
+            this.turnosHoy = turnosHoy;
+            this.ingresosMesAnterior = ingresosMesAnterior;
+        }
+    }
+
+    /**
+     * Turnos de un dia consultados en segundo plano; si no es completo solo
+     * trae los que cambiaron desde la marca anterior.
+     */
+    private static class CambiosDelDia {
+        final LocalDate dia;
+        final boolean completo;
+        final CambiosTurnos cambios;
+
+        CambiosDelDia(LocalDate dia, boolean completo, CambiosTurnos cambios) {
+            this.dia = dia;
+            this.completo = completo;
+            this.cambios = cambios;
+        }
+    }
+}
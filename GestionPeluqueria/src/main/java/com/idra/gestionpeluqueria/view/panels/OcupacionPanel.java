@@ -0,0 +1,352 @@
+package com.idra.gestionpeluqueria.view.panels;
+
+import com.idra.gestionpeluqueria.controller.ReporteController;
+import com.idra.gestionpeluqueria.event.BusEventos;
+import com.idra.gestionpeluqueria.event.EventoServicio;
+import com.idra.gestionpeluqueria.event.EventoTurno;
+import com.idra.gestionpeluqueria.model.MapaOcupacion;
+import com.idra.gestionpeluqueria.model.enums.TipoServicio;
+import com.idra.gestionpeluqueria.view.CargadorSegundoPlano;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.time.DayOfWeek;
+
+/**
+ * Panel con el mapa de calor de ocupacion: cuantos minutos se reservan en
+ * promedio por semana en cada dia y hora, en total o por tipo de servicio.
+ * El mapa llega ya agrupado desde la tabla ocupacion_horaria, asi que
+ * cambiar el tipo de servicio solo vuelve a pintar, sin consultar.
+ *
+ * @author Idra
+ */
+public class OcupacionPanel extends JPanel {
+
+    private static final Integer[] SEMANAS = {4, 8, 12, 26, 52};
+    private static final String TODOS = "Todos";
+
+    private JComboBox<Integer> comboSemanas;
+    private JComboBox<Object> comboTipo;
+    private JLabel lblCargando, lblResumen;
+    private final MapaCalor mapaCalor = new MapaCalor();
+    private final CargadorSegundoPlano cargador = new CargadorSegundoPlano(this);
+
+    /**
+     * Constructor que inicializa el panel de ocupacion y sus componentes.
+     */
+    public OcupacionPanel() {
+        initializeUI();
+        cargador.setManejadorError((descripcion, causa) -> JOptionPane.showMessageDialog(this,
+            descripcion + ": " + causa.getMessage(),
+            "Error",
+            JOptionPane.ERROR_MESSAGE));
+
+        // Un turno nuevo, movido o cancelado cambia la ocupacion; si el panel
+        // no se ve, se recalcula al volver a mostrarlo
+        BusEventos bus = BusEventos.getInstance();
+        bus.suscribirEnEDT(EventoTurno.class, evento -> actualizarSiVisible());
+        bus.suscribirEnEDT(EventoServicio.class, evento -> actualizarSiVisible());
+    }
+
+    private void initializeUI() {
+        setLayout(new BorderLayout(10, 10));
+        setBackground(new Color(240, 240, 240));
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        createHeaderPanel();
+        add(mapaCalor, BorderLayout.CENTER);
+        createToolbar();
+    }
+
+    private void createHeaderPanel() {
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(new Color(240, 240, 240));
+
+        JLabel titleLabel = new JLabel("Ocupación");
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
+        titleLabel.setForeground(new Color(50, 50, 50));
+
+        JLabel subtitleLabel = new JLabel("Minutos reservados por semana, en promedio, para cada día y hora");
+        subtitleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        subtitleLabel.setForeground(new Color(100, 100, 100));
+
+        JPanel titlePanel = new JPanel(new BorderLayout());
+        titlePanel.setBackground(new Color(240, 240, 240));
+        titlePanel.add(titleLabel, BorderLayout.NORTH);
+        titlePanel.add(subtitleLabel, BorderLayout.CENTER);
+
+        headerPanel.add(titlePanel, BorderLayout.WEST);
+
+        lblCargando = new JLabel("Cargando...");
+        lblCargando.setFont(new Font("Segoe UI", Font.ITALIC, 13));
+        lblCargando.setForeground(new Color(100, 100, 100));
+        headerPanel.add(lblCargando, BorderLayout.EAST);
+        cargador.setIndicador(lblCargando);
+        add(headerPanel, BorderLayout.NORTH);
+    }
+
+    private void createToolbar() {
+        JPanel toolbarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        toolbarPanel.setBackground(new Color(240, 240, 240));
+        toolbarPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
+
+        JLabel lblSemanas = new JLabel("Últimas semanas:");
+        lblSemanas.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        comboSemanas = new JComboBox<>(SEMANAS);
+        comboSemanas.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        comboSemanas.setSelectedItem(8);
+        comboSemanas.addActionListener(e -> actualizarDatos());
+
+        JLabel lblTipo = new JLabel("Tipo de servicio:");
+        lblTipo.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        comboTipo = new JComboBox<>();
+        comboTipo.addItem(TODOS);
+        for (TipoServicio tipo : TipoServicio.values()) {
+            comboTipo.addItem(tipo);
+        }
+        comboTipo.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        comboTipo.addActionListener(e -> mostrarTipo());
+
+        JButton btnActualizar = createToolbarButton("🔄 Actualizar", new Color(41, 128, 185));
+        btnActualizar.addActionListener(e -> actualizarDatos());
+        JButton btnReconstruir = createToolbarButton("🛠 Recalcular", new Color(127, 140, 141));
+        btnReconstruir.addActionListener(e -> reconstruir());
+
+        toolbarPanel.add(lblSemanas);
+        toolbarPanel.add(comboSemanas);
+        toolbarPanel.add(Box.createHorizontalStrut(20));
+        toolbarPanel.add(lblTipo);
+        toolbarPanel.add(comboTipo);
+        toolbarPanel.add(Box.createHorizontalStrut(20));
+        toolbarPanel.add(btnActualizar);
+        toolbarPanel.add(btnReconstruir);
+
+        lblResumen = new JLabel(" ");
+        lblResumen.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        lblResumen.setForeground(new Color(50, 50, 50));
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.setBackground(new Color(240, 240, 240));
+        southPanel.add(toolbarPanel, BorderLayout.NORTH);
+        southPanel.add(lblResumen, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
+    }
+
+    private JButton createToolbarButton(String text, Color color) {
+        JButton button = new JButton(text);
+        button.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        button.setBackground(color);
+        button.setForeground(Color.WHITE);
+        button.setFocusPainted(false);
+        button.setBorder(BorderFactory.createEmptyBorder(8, 15, 8, 15));
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+        button.addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseEntered(java.awt.event.MouseEvent evt) {
+                button.setBackground(color.darker());
+            }
+            public void mouseExited(java.awt.event.MouseEvent evt) {
+                button.setBackground(color);
+            }
+        });
+        return button;
+    }
+
+    /**
+     * Vuelve a consultar la ocupacion de las semanas elegidas.
+     */
+    public void actualizarDatos() {
+        int semanas = (Integer) comboSemanas.getSelectedItem();
+        ReporteController controller = new ReporteController();
+        cargador.cargar("Error al calcular la ocupación", () -> controller.calcularOcupacion(semanas),
+            this::mostrarMapa);
+    }
+
+    private void actualizarSiVisible() {
+        if (isShowing()) {
+            actualizarDatos();
+        }
+    }
+
+    private void reconstruir() {
+        int respuesta = JOptionPane.showConfirmDialog(this,
+            "Se va a recalcular la ocupación a partir de todos los turnos.\n"
+                + "Solo hace falta si se cargaron turnos por fuera del sistema. ¿Continuar?",
+            "Recalcular ocupación",
+            JOptionPane.YES_NO_OPTION);
+        if (respuesta != JOptionPane.YES_OPTION) {
+            return;
+        }
+        ReporteController controller = new ReporteController();
+        cargador.ejecutar("Error al recalcular la ocupación", controller::reconstruirOcupacion,
+            filas -> actualizarDatos());
+    }
+
+    private void mostrarMapa(MapaOcupacion mapa) {
+        mapaCalor.setMapa(mapa);
+        mostrarTipo();
+    }
+
+    private void mostrarTipo() {
+        Object seleccion = comboTipo.getSelectedItem();
+        TipoServicio tipo = seleccion instanceof TipoServicio ? (TipoServicio) seleccion : null;
+        mapaCalor.setTipo(tipo);
+
+        MapaOcupacion mapa = mapaCalor.mapa;
+        if (mapa == null) {
+            return;
+        }
+        long total = 0;
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            for (int hora = 0; hora < 24; hora++) {
+                total += mapa.getMinutos(dia, hora, tipo);
+            }
+        }
+        lblResumen.setText(total == 0
+            ? "No hay turnos reservados entre el " + mapa.getDesde() + " y el " + mapa.getHasta() + "."
+            : String.format("Del %s al %s: %.1f horas reservadas por semana en promedio",
+                mapa.getDesde(), mapa.getHasta(), total / 60.0 / mapa.getSemanas()));
+    }
+
+    /**
+     * Grilla de dias por horas. Cada celda se pinta mas intensa cuanto mas
+     * se acerca a la celda mas ocupada del tipo elegido.
+     */
+    private static class MapaCalor extends JComponent {
+        private static final String[] DIAS = {
+            "Lunes", "Martes", "Miércoles", "Jueves", "Viernes", "Sábado", "Domingo"
+        };
+        private static final int PRIMERA_HORA = 9;
+        private static final int ULTIMA_HORA = 20;
+        private static final int ANCHO_DIAS = 90;
+        private static final int ALTO_HORAS = 28;
+        private static final Color VACIA = new Color(250, 250, 250);
+        private static final Color LLENA = new Color(192, 57, 43);
+
+        private MapaOcupacion mapa;
+        private TipoServicio tipo;
+        private int primeraHora = PRIMERA_HORA;
+        private int ultimaHora = ULTIMA_HORA;
+
+        MapaCalor() {
+            setFont(new Font("Segoe UI", Font.PLAIN, 12));
+            setPreferredSize(new Dimension(700, 300));
+            // Habilita los tooltips por celda
+            setToolTipText("");
+        }
+
+        void setMapa(MapaOcupacion mapa) {
+            this.mapa = mapa;
+            // Las columnas abarcan el horario con reservas de cualquier tipo,
+            // para que no cambien al filtrar
+            primeraHora = PRIMERA_HORA;
+            ultimaHora = ULTIMA_HORA;
+            for (DayOfWeek dia : DayOfWeek.values()) {
+                for (int hora = 0; hora < 24; hora++) {
+                    if (mapa.getMinutos(dia, hora, null) > 0) {
+                        primeraHora = Math.min(primeraHora, hora);
+                        ultimaHora = Math.max(ultimaHora, hora);
+                    }
+                }
+            }
+            repaint();
+        }
+
+        void setTipo(TipoServicio tipo) {
+            this.tipo = tipo;
+            repaint();
+        }
+
+        private int columnas() {
+            return ultimaHora - primeraHora + 1;
+        }
+
+        private double anchoCelda() {
+            return (getWidth() - ANCHO_DIAS) / (double) columnas();
+        }
+
+        private double altoCelda() {
+            return (getHeight() - ALTO_HORAS) / (double) DIAS.length;
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setFont(getFont());
+            FontMetrics fm = g2.getFontMetrics();
+            double ancho = anchoCelda();
+            double alto = altoCelda();
+            long maximo = mapa != null ? mapa.getMaximo(tipo) : 0;
+
+            g2.setColor(new Color(50, 50, 50));
+            for (int c = 0; c < columnas(); c++) {
+                String hora = String.format("%02d", primeraHora + c);
+                int x = ANCHO_DIAS + (int) (c * ancho + (ancho - fm.stringWidth(hora)) / 2);
+                g2.drawString(hora, x, ALTO_HORAS - fm.getDescent() - 6);
+            }
+
+            for (DayOfWeek dia : DayOfWeek.values()) {
+                int y = ALTO_HORAS + (int) (dia.ordinal() * alto);
+                int yFin = ALTO_HORAS + (int) ((dia.ordinal() + 1) * alto);
+                g2.setColor(new Color(50, 50, 50));
+                g2.drawString(DIAS[dia.ordinal()], 0, y + (yFin - y + fm.getAscent() - fm.getDescent()) / 2);
+
+                for (int c = 0; c < columnas(); c++) {
+                    int hora = primeraHora + c;
+                    int x = ANCHO_DIAS + (int) (c * ancho);
+                    int xFin = ANCHO_DIAS + (int) ((c + 1) * ancho);
+                    long minutos = mapa != null ? mapa.getMinutos(dia, hora, tipo) : 0;
+                    float intensidad = maximo > 0 ? (float) minutos / maximo : 0;
+
+                    g2.setColor(mezclar(intensidad));
+                    g2.fillRect(x, y, xFin - x, yFin - y);
+                    g2.setColor(Color.WHITE);
+                    g2.drawRect(x, y, xFin - x, yFin - y);
+
+                    if (minutos > 0) {
+                        String texto = String.valueOf(Math.round(mapa.getPromedioSemanal(dia, hora, tipo)));
+                        g2.setColor(intensidad > 0.5f ? Color.WHITE : new Color(50, 50, 50));
+                        g2.drawString(texto, x + (xFin - x - fm.stringWidth(texto)) / 2,
+                            y + (yFin - y + fm.getAscent() - fm.getDescent()) / 2);
+                    }
+                }
+            }
+            g2.dispose();
+        }
+
+        private static Color mezclar(float intensidad) {
+            return new Color(
+                Math.round(VACIA.getRed() + (LLENA.getRed() - VACIA.getRed()) * intensidad),
+                Math.round(VACIA.getGreen() + (LLENA.getGreen() - VACIA.getGreen()) * intensidad),
+                Math.round(VACIA.getBlue() + (LLENA.getBlue() - VACIA.getBlue()) * intensidad));
+        }
+
+        @Override
+        public String getToolTipText(MouseEvent e) {
+            if (mapa == null || e.getX() < ANCHO_DIAS || e.getY() < ALTO_HORAS) {
+                return null;
+            }
+            int columna = (int) ((e.getX() - ANCHO_DIAS) / anchoCelda());
+            int fila = (int) ((e.getY() - ALTO_HORAS) / altoCelda());
+            if (columna >= columnas() || fila >= DIAS.length) {
+                return null;
+            }
+            DayOfWeek dia = DayOfWeek.of(fila + 1);
+            int hora = primeraHora + columna;
+            StringBuilder texto = new StringBuilder("<html><b>")
+                .append(DIAS[fila]).append(String.format(" de %02d a %02d", hora, hora + 1)).append("</b><br>")
+                .append(String.format("%.0f min por semana", mapa.getPromedioSemanal(dia, hora, tipo)));
+            if (tipo == null) {
+                for (TipoServicio t : TipoServicio.values()) {
+                    long minutos = mapa.getMinutos(dia, hora, t);
+                    if (minutos > 0) {
+                        texto.append("<br>").append(t).append(": ")
+                            .append(String.format("%.0f min", mapa.getPromedioSemanal(dia, hora, t)));
+                    }
+                }
+            }
+            return texto.append("</html>").toString();
+        }
+    }
+}
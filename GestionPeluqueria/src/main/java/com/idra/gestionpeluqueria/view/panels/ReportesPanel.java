@@ -0,0 +1,306 @@
+package com.idra.gestionpeluqueria.view.panels;
+
+import com.idra.gestionpeluqueria.controller.ReporteController;
+import com.idra.gestionpeluqueria.model.DefinicionReporte;
+import com.idra.gestionpeluqueria.model.FilaReporte;
+import com.idra.gestionpeluqueria.model.enums.AgrupacionReporte;
+import com.idra.gestionpeluqueria.view.CargadorSegundoPlano;
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Panel de reportes de turnos e ingresos.
+ * Permite agrupar los turnos de un periodo por dia, semana, mes, tipo de
+ * servicio, forma de pago, estado o cliente, y ver cuantos turnos hubo y
+ * cuanto se cobro en cada grupo. Los periodos largos se calculan mes por
+ * mes en paralelo y se pueden cancelar mientras se generan.
+ *
+ * @author Idra
+ */
+public class ReportesPanel extends JPanel {
+
+    private static final String[] PERIODOS = {
+        "Este mes", "Mes anterior", "Últimos 3 meses", "Este año", "Año anterior", "Personalizado"
+    };
+
+    private JTable tablaReporte;
+    private DefaultTableModel tableModel;
+    private JComboBox<AgrupacionReporte> comboAgrupacion;
+    private JComboBox<String> comboPeriodo;
+    private JTextField txtDesde, txtHasta;
+    private JButton btnGenerar, btnCancelar;
+    private JLabel lblCargando, lblTotales;
+    private final CargadorSegundoPlano cargador = new CargadorSegundoPlano(this);
+
+    /**
+     * Constructor que inicializa el panel de reportes y sus componentes.
+     */
+    public ReportesPanel() {
+        initializeUI();
+        cargador.setManejadorError((descripcion, causa) -> {
+            btnCancelar.setEnabled(false);
+            lblTotales.setText(" ");
+            JOptionPane.showMessageDialog(this,
+                descripcion + ": " + causa.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        });
+        aplicarPeriodo();
+    }
+
+    private void initializeUI() {
+        setLayout(new BorderLayout(10, 10));
+        setBackground(new Color(240, 240, 240));
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        createHeaderPanel();
+        createTablePanel();
+        createToolbar();
+    }
+
+    private void createHeaderPanel() {
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(new Color(240, 240, 240));
+
+        JLabel titleLabel = new JLabel("Reportes");
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
+        titleLabel.setForeground(new Color(50, 50, 50));
+
+        JLabel subtitleLabel = new JLabel("Turnos e ingresos agrupados por período, servicio, forma de pago o cliente");
+        subtitleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        subtitleLabel.setForeground(new Color(100, 100, 100));
+
+        JPanel titlePanel = new JPanel(new BorderLayout());
+        titlePanel.setBackground(new Color(240, 240, 240));
+        titlePanel.add(titleLabel, BorderLayout.NORTH);
+        titlePanel.add(subtitleLabel, BorderLayout.CENTER);
+
+        headerPanel.add(titlePanel, BorderLayout.WEST);
+
+        lblCargando = new JLabel("Cargando...");
+        lblCargando.setFont(new Font("Segoe UI", Font.ITALIC, 13));
+        lblCargando.setForeground(new Color(100, 100, 100));
+        headerPanel.add(lblCargando, BorderLayout.EAST);
+        cargador.setIndicador(lblCargando);
+        add(headerPanel, BorderLayout.NORTH);
+    }
+
+    private void createToolbar() {
+        JPanel toolbarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        toolbarPanel.setBackground(new Color(240, 240, 240));
+        toolbarPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
+
+        JLabel lblAgrupacion = new JLabel("Agrupar por:");
+        lblAgrupacion.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        comboAgrupacion = new JComboBox<>(AgrupacionReporte.values());
+        comboAgrupacion.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        comboAgrupacion.setSelectedItem(AgrupacionReporte.DIA);
+
+        JLabel lblPeriodo = new JLabel("Período:");
+        lblPeriodo.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        comboPeriodo = new JComboBox<>(PERIODOS);
+        comboPeriodo.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        comboPeriodo.addActionListener(e -> aplicarPeriodo());
+
+        JLabel lblDesde = new JLabel("Desde:");
+        lblDesde.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        txtDesde = new JTextField(9);
+        txtDesde.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        JLabel lblHasta = new JLabel("Hasta:");
+        lblHasta.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        txtHasta = new JTextField(9);
+        txtHasta.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+
+        btnGenerar = createToolbarButton("📊 Generar", new Color(41, 128, 185));
+        btnGenerar.addActionListener(e -> generarReporte());
+        btnCancelar = createToolbarButton("✖ Cancelar", new Color(192, 57, 43));
+        btnCancelar.addActionListener(e -> cancelarReporte());
+        btnCancelar.setEnabled(false);
+
+        toolbarPanel.add(lblAgrupacion);
+        toolbarPanel.add(comboAgrupacion);
+        toolbarPanel.add(Box.createHorizontalStrut(20));
+        toolbarPanel.add(lblPeriodo);
+        toolbarPanel.add(comboPeriodo);
+        toolbarPanel.add(Box.createHorizontalStrut(10));
+        toolbarPanel.add(lblDesde);
+        toolbarPanel.add(txtDesde);
+        toolbarPanel.add(lblHasta);
+        toolbarPanel.add(txtHasta);
+        toolbarPanel.add(Box.createHorizontalStrut(20));
+        toolbarPanel.add(btnGenerar);
+        toolbarPanel.add(btnCancelar);
+
+        lblTotales = new JLabel(" ");
+        lblTotales.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        lblTotales.setForeground(new Color(50, 50, 50));
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.setBackground(new Color(240, 240, 240));
+        southPanel.add(toolbarPanel, BorderLayout.NORTH);
+        southPanel.add(lblTotales, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
+    }
+
+    private JButton createToolbarButton(String text, Color color) {
+        JButton button = new JButton(text);
+        button.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        button.setBackground(color);
+        button.setForeground(Color.WHITE);
+        button.setFocusPainted(false);
+        button.setBorder(BorderFactory.createEmptyBorder(8, 15, 8, 15));
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+        button.addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseEntered(java.awt.event.MouseEvent evt) {
+                button.setBackground(color.darker());
+            }
+            public void mouseExited(java.awt.event.MouseEvent evt) {
+                button.setBackground(color);
+            }
+        });
+        return button;
+    }
+
+    private void createTablePanel() {
+        String[] columnNames = {"Grupo", "Turnos", "Cancelados", "Cobrado", "% del total"};
+        tableModel = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+
+        tablaReporte = new JTable(tableModel);
+        tablaReporte.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        tablaReporte.setRowHeight(30);
+        tablaReporte.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tablaReporte.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 13));
+        tablaReporte.getTableHeader().setBackground(new Color(70, 130, 180));
+        tablaReporte.getTableHeader().setForeground(Color.WHITE);
+
+        DefaultTableCellRenderer derecha = new DefaultTableCellRenderer();
+        derecha.setHorizontalAlignment(SwingConstants.RIGHT);
+        for (int i = 1; i < columnNames.length; i++) {
+            tablaReporte.getColumnModel().getColumn(i).setCellRenderer(derecha);
+        }
+
+        add(new JScrollPane(tablaReporte), BorderLayout.CENTER);
+    }
+
+    private void aplicarPeriodo() {
+        LocalDate hoy = LocalDate.now();
+        YearMonth mes = YearMonth.from(hoy);
+        LocalDate desde;
+        LocalDate hasta;
+        switch (comboPeriodo.getSelectedIndex()) {
+            case 0:
+                desde = mes.atDay(1);
+                hasta = mes.atEndOfMonth();
+                break;
+            case 1:
+                desde = mes.minusMonths(1).atDay(1);
+                hasta = mes.minusMonths(1).atEndOfMonth();
+                break;
+            case 2:
+                desde = mes.minusMonths(2).atDay(1);
+                hasta = mes.atEndOfMonth();
+                break;
+            case 3:
+                desde = hoy.withDayOfYear(1);
+                hasta = hoy.withDayOfYear(hoy.lengthOfYear());
+                break;
+            case 4:
+                LocalDate anterior = hoy.minusYears(1);
+                desde = anterior.withDayOfYear(1);
+                hasta = anterior.withDayOfYear(anterior.lengthOfYear());
+                break;
+            default:
+                // Personalizado: se editan las fechas a mano
+                txtDesde.setEditable(true);
+                txtHasta.setEditable(true);
+                return;
+        }
+        txtDesde.setText(desde.toString());
+        txtHasta.setText(hasta.toString());
+        txtDesde.setEditable(false);
+        txtHasta.setEditable(false);
+    }
+
+    private void generarReporte() {
+        DefinicionReporte definicion;
+        try {
+            definicion = new DefinicionReporte((AgrupacionReporte) comboAgrupacion.getSelectedItem(),
+                LocalDate.parse(txtDesde.getText().trim()), LocalDate.parse(txtHasta.getText().trim()));
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this,
+                "Las fechas deben tener el formato AAAA-MM-DD.",
+                "Fecha inválida",
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        ReporteController controller = new ReporteController();
+        btnCancelar.setEnabled(true);
+        lblTotales.setText("Generando el reporte " + definicion + "...");
+        cargador.cargar("Error al generar el reporte", () -> esperar(controller.generarReporteAsync(definicion)),
+            this::mostrarReporte);
+    }
+
+    /**
+     * Espera el reporte desde el hilo del cargador. Si el cargador se cancela
+     * (o lo reemplaza otro reporte) el hilo se interrumpe y se cancela la
+     * generacion.
+     */
+    private static List<FilaReporte> esperar(CompletableFuture<List<FilaReporte>> reporte) throws Exception {
+        try {
+            return reporte.get();
+        } catch (InterruptedException e) {
+            reporte.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private void cancelarReporte() {
+        cargador.cancelar();
+        btnCancelar.setEnabled(false);
+        lblTotales.setText("Reporte cancelado.");
+    }
+
+    private void mostrarReporte(List<FilaReporte> filas) {
+        btnCancelar.setEnabled(false);
+        double totalCobrado = 0;
+        int totalTurnos = 0;
+        int totalCancelados = 0;
+        for (FilaReporte fila : filas) {
+            totalCobrado += fila.getTotalCobrado();
+            totalTurnos += fila.getCantidadTurnos();
+            totalCancelados += fila.getCantidadCancelados();
+        }
+
+        tableModel.setRowCount(0);
+        for (FilaReporte fila : filas) {
+            double porcentaje = totalCobrado > 0 ? fila.getTotalCobrado() * 100 / totalCobrado : 0;
+            tableModel.addRow(new Object[]{
+                fila.getEtiqueta(),
+                fila.getCantidadTurnos(),
+                fila.getCantidadCancelados(),
+                "$" + String.format("%.2f", fila.getTotalCobrado()),
+                String.format("%.1f%%", porcentaje)
+            });
+        }
+        lblTotales.setText(filas.isEmpty()
+            ? "No hay turnos en el período elegido."
+            : "Total: " + totalTurnos + " turnos, " + totalCancelados + " cancelados, $"
+                + String.format("%.2f", totalCobrado) + " cobrados");
+    }
+}
@@ -1,426 +1,412 @@
-package com.idra.gestionpeluqueria.view.panels;
-import com.idra.gestionpeluqueria.controller.ServicioController;
-import com.idra.gestionpeluqueria.exception.ServiceException;
-import java.util.List;
-import com.idra.gestionpeluqueria.model.Servicio;
-
-import com.idra.gestionpeluqueria.model.Servicio;
-import com.idra.gestionpeluqueria.model.enums.TipoServicio;
-import com.idra.gestionpeluqueria.view.dialogs.ServicioDialog;
-import javax.swing.*;
-import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
-import java.awt.*;
-/**
- * Panel para la gestion de servicios de la peluqueria.
- * Proporciona una interfaz para visualizar, agregar, editar, eliminar y buscar servicios.
- * Incluye funcionalidades de filtrado por tipo de servicio y cambio de estado activo/inactivo.
- * 
- * @author Idra
- */
-public class ServicioPanel extends JPanel {
-    private JTable tablaServicios;
-    private DefaultTableModel tableModel;
-    private JButton btnAgregar, btnEditar, btnEliminar, btnActivarDesactivar, btnBuscar;
-    private JTextField txtBuscar;
-    private JComboBox<String> comboFiltroTipo;
-    
-    /**
-     * Constructor que inicializa el panel de servicios y sus componentes.
-     */
-    public ServicioPanel() {
-        initializeUI();
-    }
-
-    private void initializeUI() {
-        setLayout(new BorderLayout(10, 10));
-        setBackground(new Color(240, 240, 240));
-        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-
-        createHeaderPanel();
-        createTablePanel();
-        createToolbar();
-    }
-
-    private void createHeaderPanel() {
-        JPanel headerPanel = new JPanel(new BorderLayout());
-        headerPanel.setBackground(new Color(240, 240, 240));
-
-        JLabel titleLabel = new JLabel("Gestión de Servicios");
-        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
-        titleLabel.setForeground(new Color(50, 50, 50));
-
-        JLabel subtitleLabel = new JLabel("Administre los servicios y precios de la peluquería");
-        subtitleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-        subtitleLabel.setForeground(new Color(100, 100, 100));
-
-        JPanel titlePanel = new JPanel(new BorderLayout());
-        titlePanel.setBackground(new Color(240, 240, 240));
-        titlePanel.add(titleLabel, BorderLayout.NORTH);
-        titlePanel.add(subtitleLabel, BorderLayout.CENTER);
-
-        headerPanel.add(titlePanel, BorderLayout.WEST);
-        add(headerPanel, BorderLayout.NORTH);
-    }
-
-    private void createToolbar() {
-        JPanel toolbarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        toolbarPanel.setBackground(new Color(240, 240, 240));
-        toolbarPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
-
-        btnAgregar = createToolbarButton("➕ Agregar Servicio", new Color(39, 174, 96));
-        btnEditar = createToolbarButton("✏️ Editar", new Color(41, 128, 185));
-        btnEliminar = createToolbarButton("🗑️ Eliminar", new Color(231, 76, 60));
-        btnActivarDesactivar = createToolbarButton("⚡ Estado", new Color(243, 156, 18));
-
-        btnAgregar.addActionListener(e -> abrirDialogoServicio(null));
-        btnEditar.addActionListener(e -> editarServicioSeleccionado());
-        btnEliminar.addActionListener(e -> eliminarServicioSeleccionado());
-        btnActivarDesactivar.addActionListener(e -> cambiarEstadoServicio());
-
-        // Filtros
-        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
-        filterPanel.setBackground(new Color(240, 240, 240));
-
-        JLabel lblFiltro = new JLabel("Filtrar por tipo:");
-        lblFiltro.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-
-        comboFiltroTipo = new JComboBox<>(new String[]{"Todos", "CORTE", "TINTURA", "PEINADO", "ALISADO", "MECHAS", "BARBA", "CEJAS", "TRATAMIENTO"});
-        comboFiltroTipo.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-        comboFiltroTipo.addActionListener(e -> filtrarPorTipo());
-
-        // Búsqueda
-        JPanel searchPanel = new JPanel(new BorderLayout(5, 0));
-        searchPanel.setBackground(new Color(240, 240, 240));
-
-        JLabel lblBuscar = new JLabel("Buscar:");
-        lblBuscar.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-
-        txtBuscar = new JTextField(15);
-        txtBuscar.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-
-        btnBuscar = createToolbarButton("🔍 Buscar", new Color(155, 89, 182));
-        btnBuscar.addActionListener(e -> buscarServicios());
-
-        searchPanel.add(lblBuscar, BorderLayout.WEST);
-        searchPanel.add(txtBuscar, BorderLayout.CENTER);
-        searchPanel.add(btnBuscar, BorderLayout.EAST);
-
-        filterPanel.add(lblFiltro);
-        filterPanel.add(comboFiltroTipo);
-        filterPanel.add(Box.createHorizontalStrut(20));
-        filterPanel.add(searchPanel);
-
-        toolbarPanel.add(btnAgregar);
-        toolbarPanel.add(Box.createHorizontalStrut(10));
-        toolbarPanel.add(btnEditar);
-        toolbarPanel.add(Box.createHorizontalStrut(10));
-        toolbarPanel.add(btnEliminar);
-        toolbarPanel.add(Box.createHorizontalStrut(10));
-        toolbarPanel.add(btnActivarDesactivar);
-        toolbarPanel.add(Box.createHorizontalStrut(30));
-        toolbarPanel.add(filterPanel);
-
-        add(toolbarPanel, BorderLayout.SOUTH);
-    }
-
-    private JButton createToolbarButton(String text, Color color) {
-        JButton button = new JButton(text);
-        button.setFont(new Font("Segoe UI", Font.BOLD, 12));
-        button.setBackground(color);
-        button.setForeground(Color.WHITE);
-        button.setFocusPainted(false);
-        button.setBorder(BorderFactory.createEmptyBorder(8, 15, 8, 15));
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-
-        button.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                button.setBackground(color.darker());
-            }
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                button.setBackground(color);
-            }
-        });
-        return button;
-    }
-
-    private void createTablePanel() {
-        String[] columnNames = {"ID", "Nombre", "Descripción", "Precio", "Duración", "Tipo", "Estado"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-
-        tablaServicios = new JTable(tableModel);
-        tablaServicios.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-        tablaServicios.setRowHeight(35);
-        tablaServicios.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        tablaServicios.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 13));
-        tablaServicios.getTableHeader().setBackground(new Color(70, 130, 180));
-        tablaServicios.getTableHeader().setForeground(Color.WHITE);
-
-        tablaServicios.getColumnModel().getColumn(6).setCellRenderer(new DefaultTableCellRenderer() {
-            @Override
-            public Component getTableCellRendererComponent(JTable table, Object value,
-                    boolean isSelected, boolean hasFocus, int row, int column) {
-                Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-                if (value != null) {
-                    String estado = value.toString();
-                    if (estado.equals("Activo")) {
-                        c.setBackground(new Color(220, 255, 220));
-                        c.setForeground(new Color(0, 128, 0));
-                    } else {
-                        c.setBackground(new Color(255, 220, 220));
-                        c.setForeground(new Color(128, 0, 0));
-                    }
-                    if (isSelected) {
-                        c.setBackground(table.getSelectionBackground());
-                        c.setForeground(table.getSelectionForeground());
-                    }
-                }
-                setHorizontalAlignment(SwingConstants.CENTER);
-                return c;
-            }
-        });
-
-        JScrollPane scrollPane = new JScrollPane(tablaServicios);
-        add(scrollPane, BorderLayout.CENTER);
-    }
-
-  private void abrirDialogoServicio(Object[] datosServicio) {
-    Servicio servicio = null;
-    String titulo = "Agregar Servicio";
-    
-    if (datosServicio != null) {
-        servicio = new Servicio();
-        servicio.setId((Integer) datosServicio[0]);
-        servicio.setNombre(datosServicio[1].toString());
-        servicio.setDescripcion(datosServicio[2].toString());
-        servicio.setPrecio((Double) datosServicio[3]);
-        servicio.setDuracionMinutos((Integer) datosServicio[4]);
-        servicio.setTipoServicio(TipoServicio.valueOf(datosServicio[5].toString()));
-        servicio.setActivo(datosServicio[6].toString().equals("Activo"));
-        titulo = "Editar Servicio";
-    }
-    
-    Window parentWindow = SwingUtilities.getWindowAncestor(this);
-    JFrame parentFrame = null;
-    if (parentWindow instanceof JFrame) {
-        parentFrame = (JFrame) parentWindow;
-    }
-    
-    ServicioDialog dialog = new ServicioDialog(parentFrame, titulo, servicio);
-    dialog.setVisible(true);
-    
-    if (dialog.isGuardadoExitoso()) {
-        // Actualizar la tabla inmediatamente después de guardar
-        actualizarTabla();
-        JOptionPane.showMessageDialog(this, 
-            "Los cambios se han guardado correctamente.", 
-            "Guardado Exitoso", 
-            JOptionPane.INFORMATION_MESSAGE);
-    }
-}
-
-    private void editarServicioSeleccionado() {
-    int filaSeleccionada = tablaServicios.getSelectedRow();
-    if (filaSeleccionada == -1) {
-        JOptionPane.showMessageDialog(this,
-            "Por favor, seleccione un servicio para editar.",
-            "Selección Requerida",
-            JOptionPane.WARNING_MESSAGE);
-        return;
-    }
-
-    // Obtener datos del servicio seleccionado
-    Object[] datosServicio = new Object[tableModel.getColumnCount()];
-    for (int i = 0; i < tableModel.getColumnCount(); i++) {
-        datosServicio[i] = tableModel.getValueAt(filaSeleccionada, i);
-    }
-
-    abrirDialogoServicio(datosServicio); // Pasar los datos para editar
-}
-
-    private void eliminarServicioSeleccionado() {
-    int filaSeleccionada = tablaServicios.getSelectedRow();
-    if (filaSeleccionada == -1) {
-        JOptionPane.showMessageDialog(this,
-            "Por favor, seleccione un servicio para eliminar.",
-            "Selección Requerida",
-            JOptionPane.WARNING_MESSAGE);
-        return;
-    }
-
-    // Obtener el ID del servicio seleccionado
-    int idServicio = (Integer) tableModel.getValueAt(filaSeleccionada, 0);
-    String nombreServicio = tableModel.getValueAt(filaSeleccionada, 1).toString();
-
-    int confirmacion = JOptionPane.showConfirmDialog(this,
-        "¿Está seguro que desea eliminar el servicio:\n" + nombreServicio + "?\n\n" +
-        "Esta acción no se puede deshacer.",
-        "Confirmar Eliminación",
-        JOptionPane.YES_NO_OPTION,
-        JOptionPane.WARNING_MESSAGE);
-
-    if (confirmacion == JOptionPane.YES_OPTION) {
-        try {
-            // ELIMINAR DE LA BASE DE DATOS
-            ServicioController controller = new ServicioController();
-            controller.eliminarServicio(idServicio);
-            
-            // Eliminar de la tabla visual
-            tableModel.removeRow(filaSeleccionada);
-            
-            JOptionPane.showMessageDialog(this,
-                "Servicio eliminado correctamente.",
-                "Eliminación Exitosa",
-                JOptionPane.INFORMATION_MESSAGE);
-                
-        } catch (ServiceException e) {
-            JOptionPane.showMessageDialog(this,
-                "Error al eliminar servicio: " + e.getMessage(),
-                "Error",
-                JOptionPane.ERROR_MESSAGE);
-        }
-    }
-}
-
-    private void cambiarEstadoServicio() {
-        int fila = tablaServicios.getSelectedRow();
-        if (fila == -1) {
-            JOptionPane.showMessageDialog(this, "Seleccione un servicio", "Advertencia", JOptionPane.WARNING_MESSAGE);
-            return;
-        }
-        String estado = tableModel.getValueAt(fila, 6).toString();
-        tableModel.setValueAt(estado.equals("Activo") ? "Inactivo" : "Activo", fila, 6);
-    }
-
-    private void filtrarPorTipo() {
-    String tipoSeleccionado = (String) comboFiltroTipo.getSelectedItem();
-    if (tipoSeleccionado.equals("Todos")) {
-        actualizarTabla();
-        return;
-    }
-
-    try {
-        tableModel.setRowCount(0); // Limpiar tabla
-        
-        ServicioController controller = new ServicioController();
-        List<Servicio> servicios = controller.buscarServiciosPorTipo(tipoSeleccionado);
-        
-        for (Servicio servicio : servicios) {
-            Object[] fila = {
-                servicio.getId(),
-                servicio.getNombre(),
-                servicio.getDescripcion(),
-                servicio.getPrecio(),
-                servicio.getDuracionMinutos(),
-                servicio.getTipoServicio().name(),
-                servicio.isActivo() ? "Activo" : "Inactivo"
-            };
-            tableModel.addRow(fila);
-        }
-        
-        if (tableModel.getRowCount() == 0) {
-            JOptionPane.showMessageDialog(this,
-                "No se encontraron servicios del tipo: " + tipoSeleccionado,
-                "Sin Resultados",
-                JOptionPane.INFORMATION_MESSAGE);
-        }
-        
-    } catch (ServiceException e) {
-        JOptionPane.showMessageDialog(this,
-            "Error al filtrar servicios: " + e.getMessage(),
-            "Error",
-            JOptionPane.ERROR_MESSAGE);
-    }
-}
-
-private void buscarServicios() {
-    String textoBusqueda = txtBuscar.getText().trim().toLowerCase();
-    if (textoBusqueda.isEmpty()) {
-        actualizarTabla();
-        return;
-    }
-
-    try {
-        tableModel.setRowCount(0); // Limpiar tabla
-        
-        ServicioController controller = new ServicioController();
-        List<Servicio> todosServicios = controller.obtenerTodosServicios();
-        
-        // Filtrar localmente por nombre o descripción
-        for (Servicio servicio : todosServicios) {
-            if (servicio.getNombre().toLowerCase().contains(textoBusqueda) ||
-                servicio.getDescripcion().toLowerCase().contains(textoBusqueda)) {
-                
-                Object[] fila = {
-                    servicio.getId(),
-                    servicio.getNombre(),
-                    servicio.getDescripcion(),
-                    servicio.getPrecio(),
-                    servicio.getDuracionMinutos(),
-                    servicio.getTipoServicio().name(),
-                    servicio.isActivo() ? "Activo" : "Inactivo"
-                };
-                tableModel.addRow(fila);
-            }
-        }
-        
-        if (tableModel.getRowCount() == 0) {
-            JOptionPane.showMessageDialog(this,
-                "No se encontraron servicios que coincidan con: " + textoBusqueda,
-                "Sin Resultados",
-                JOptionPane.INFORMATION_MESSAGE);
-            actualizarTabla();
-        }
-        
-    } catch (ServiceException e) {
-        JOptionPane.showMessageDialog(this,
-            "Error al buscar servicios: " + e.getMessage(),
-            "Error",
-            JOptionPane.ERROR_MESSAGE);
-    }
-}
-
-    /**
-     * Actualiza la tabla de servicios con los datos más recientes de la base de datos.
-     * Limpia la tabla actual y la llena con todos los servicios registrados.
-     */
-    public void actualizarTabla() {
-    try {
-        tableModel.setRowCount(0); // Limpiar tabla
-        
-        // Obtener servicios REALES de la base de datos
-        ServicioController controller = new ServicioController();
-        List<Servicio> servicios = controller.obtenerTodosServicios();
-        
-        System.out.println("🔄 Actualizando tabla - Servicios encontrados: " + servicios.size()); // DEBUG
-        
-        // Llenar la tabla con datos REALES
-        for (Servicio servicio : servicios) {
-            Object[] fila = {
-                servicio.getId(),
-                servicio.getNombre(),
-                servicio.getDescripcion(),
-                servicio.getPrecio(),
-                servicio.getDuracionMinutos(),
-                servicio.getTipoServicio().name(),
-                servicio.isActivo() ? "Activo" : "Inactivo"
-            };
-            tableModel.addRow(fila);
-        }
-        
-        System.out.println("✅ Tabla actualizada con " + tableModel.getRowCount() + " servicios"); // DEBUG
-        
-    } catch (ServiceException e) {
-        System.err.println("❌ Error al actualizar tabla: " + e.getMessage());
-        JOptionPane.showMessageDialog(this, 
-            "Error al cargar servicios: " + e.getMessage(), 
-            "Error", 
-            JOptionPane.ERROR_MESSAGE);
-    }
-}
+package com.idra.gestionpeluqueria.view.panels;
+import com.idra.gestionpeluqueria.controller.ServicioController;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import com.idra.gestionpeluqueria.model.Servicio;
+
+import com.idra.gestionpeluqueria.model.Servicio;
+import com.idra.gestionpeluqueria.view.CargadorSegundoPlano;
+import com.idra.gestionpeluqueria.view.ModeloTabla;
+import com.idra.gestionpeluqueria.event.BusEventos;
+import com.idra.gestionpeluqueria.event.ServicioActualizado;
+import com.idra.gestionpeluqueria.event.ServicioCreado;
+import com.idra.gestionpeluqueria.event.ServicioEliminado;
+import com.idra.gestionpeluqueria.view.dialogs.ServicioDialog;
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+/**
+ * Panel para la gestion de servicios de la peluqueria.
+ * Proporciona una interfaz para visualizar, agregar, editar, eliminar y buscar servicios.
+ * Incluye funcionalidades de filtrado por tipo de servicio y cambio de estado activo/inactivo.
+ * 
+ * @author Idra
+ */
+public class ServicioPanel extends JPanel {
+    // Mismo orden que la consulta: por nombre
+    private static final Comparator<Servicio> ORDEN_FILAS =
+        Comparator.comparing(Servicio::getNombre, String.CASE_INSENSITIVE_ORDER);
+    
+    private JTable tablaServicios;
+    private ModeloTabla<Servicio> tableModel;
+    private JButton btnAgregar, btnEditar, btnEliminar, btnActivarDesactivar, btnBuscar;
+    private JTextField txtBuscar;
+    private JComboBox<String> comboFiltroTipo;
+    private JLabel lblCargando;
+    private final CargadorSegundoPlano cargador = new CargadorSegundoPlano(this);
+    
+    /**
+     * Constructor que inicializa el panel de servicios y sus componentes.
+     */
+    public ServicioPanel() {
+        initializeUI();
+        
+        BusEventos bus = BusEventos.getInstance();
+        bus.suscribirEnEDT(ServicioCreado.class, evento -> aplicarCambio(evento.getServicio()));
+        bus.suscribirEnEDT(ServicioActualizado.class, evento -> aplicarCambio(evento.getServicio()));
+        bus.suscribirEnEDT(ServicioEliminado.class, evento -> tableModel.quitar(evento.getServicioId()));
+    }
+
+    private void initializeUI() {
+        setLayout(new BorderLayout(10, 10));
+        setBackground(new Color(240, 240, 240));
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        createHeaderPanel();
+        createTablePanel();
+        createToolbar();
+    }
+
+    private void createHeaderPanel() {
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(new Color(240, 240, 240));
+
+        JLabel titleLabel = new JLabel("Gestión de Servicios");
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
+        titleLabel.setForeground(new Color(50, 50, 50));
+
+        JLabel subtitleLabel = new JLabel("Administre los servicios y precios de la peluquería");
+        subtitleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        subtitleLabel.setForeground(new Color(100, 100, 100));
+
+        JPanel titlePanel = new JPanel(new BorderLayout());
+        titlePanel.setBackground(new Color(240, 240, 240));
+        titlePanel.add(titleLabel, BorderLayout.NORTH);
+        titlePanel.add(subtitleLabel, BorderLayout.CENTER);
+
+        headerPanel.add(titlePanel, BorderLayout.WEST);
+        
+        lblCargando = new JLabel("Cargando...");
+        lblCargando.setFont(new Font("Segoe UI", Font.ITALIC, 13));
+        lblCargando.setForeground(new Color(100, 100, 100));
+        headerPanel.add(lblCargando, BorderLayout.EAST);
+        cargador.setIndicador(lblCargando);
+        add(headerPanel, BorderLayout.NORTH);
+    }
+
+    private void createToolbar() {
+        JPanel toolbarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        toolbarPanel.setBackground(new Color(240, 240, 240));
+        toolbarPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
+
+        btnAgregar = createToolbarButton("➕ Agregar Servicio", new Color(39, 174, 96));
+        btnEditar = createToolbarButton("✏️ Editar", new Color(41, 128, 185));
+        btnEliminar = createToolbarButton("🗑️ Eliminar", new Color(231, 76, 60));
+        btnActivarDesactivar = createToolbarButton("⚡ Estado", new Color(243, 156, 18));
+
+        btnAgregar.addActionListener(e -> abrirDialogoServicio(null));
+        btnEditar.addActionListener(e -> editarServicioSeleccionado());
+        btnEliminar.addActionListener(e -> eliminarServicioSeleccionado());
+        btnActivarDesactivar.addActionListener(e -> cambiarEstadoServicio());
+
+        // Filtros
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        filterPanel.setBackground(new Color(240, 240, 240));
+
+        JLabel lblFiltro = new JLabel("Filtrar por tipo:");
+        lblFiltro.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+
+        comboFiltroTipo = new JComboBox<>(new String[]{"Todos", "CORTE", "TINTURA", "PEINADO", "ALISADO", "MECHAS", "BARBA", "CEJAS", "TRATAMIENTO"});
+        comboFiltroTipo.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        comboFiltroTipo.addActionListener(e -> filtrarPorTipo());
+
+        // Búsqueda
+        JPanel searchPanel = new JPanel(new BorderLayout(5, 0));
+        searchPanel.setBackground(new Color(240, 240, 240));
+
+        JLabel lblBuscar = new JLabel("Buscar:");
+        lblBuscar.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+
+        txtBuscar = new JTextField(15);
+        txtBuscar.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+
+        btnBuscar = createToolbarButton("🔍 Buscar", new Color(155, 89, 182));
+        btnBuscar.addActionListener(e -> buscarServicios());
+
+        searchPanel.add(lblBuscar, BorderLayout.WEST);
+        searchPanel.add(txtBuscar, BorderLayout.CENTER);
+        searchPanel.add(btnBuscar, BorderLayout.EAST);
+
+        filterPanel.add(lblFiltro);
+        filterPanel.add(comboFiltroTipo);
+        filterPanel.add(Box.createHorizontalStrut(20));
+        filterPanel.add(searchPanel);
+
+        toolbarPanel.add(btnAgregar);
+        toolbarPanel.add(Box.createHorizontalStrut(10));
+        toolbarPanel.add(btnEditar);
+        toolbarPanel.add(Box.createHorizontalStrut(10));
+        toolbarPanel.add(btnEliminar);
+        toolbarPanel.add(Box.createHorizontalStrut(10));
+        toolbarPanel.add(btnActivarDesactivar);
+        toolbarPanel.add(Box.createHorizontalStrut(30));
+        toolbarPanel.add(filterPanel);
+
+        add(toolbarPanel, BorderLayout.SOUTH);
+    }
+
+    private JButton createToolbarButton(String text, Color color) {
+        JButton button = new JButton(text);
+        button.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        button.setBackground(color);
+        button.setForeground(Color.WHITE);
+        button.setFocusPainted(false);
+        button.setBorder(BorderFactory.createEmptyBorder(8, 15, 8, 15));
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+        button.addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseEntered(java.awt.event.MouseEvent evt) {
+                button.setBackground(color.darker());
+            }
+            public void mouseExited(java.awt.event.MouseEvent evt) {
+                button.setBackground(color);
+            }
+        });
+        return button;
+    }
+
+    private void createTablePanel() {
+        tableModel = new ModeloTabla<>(Servicio::getId, ORDEN_FILAS)
+            .columna("ID", Servicio::getId)
+            .columna("Nombre", Servicio::getNombre)
+            .columna("Descripción", Servicio::getDescripcion)
+            .columna("Precio", Servicio::getPrecio)
+            .columna("Duración", Servicio::getDuracionMinutos)
+            .columna("Tipo", servicio -> servicio.getTipoServicio().name())
+            .columna("Estado", servicio -> servicio.isActivo() ? "Activo" : "Inactivo");
+
+        tablaServicios = new JTable(tableModel);
+        tablaServicios.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        tablaServicios.setRowHeight(35);
+        tablaServicios.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tablaServicios.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 13));
+        tablaServicios.getTableHeader().setBackground(new Color(70, 130, 180));
+        tablaServicios.getTableHeader().setForeground(Color.WHITE);
+
+        tablaServicios.getColumnModel().getColumn(6).setCellRenderer(new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable table, Object value,
+                    boolean isSelected, boolean hasFocus, int row, int column) {
+                Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+                if (value != null) {
+                    String estado = value.toString();
+                    if (estado.equals("Activo")) {
+                        c.setBackground(new Color(220, 255, 220));
+                        c.setForeground(new Color(0, 128, 0));
+                    } else {
+                        c.setBackground(new Color(255, 220, 220));
+                        c.setForeground(new Color(128, 0, 0));
+                    }
+                    if (isSelected) {
+                        c.setBackground(table.getSelectionBackground());
+                        c.setForeground(table.getSelectionForeground());
+                    }
+                }
+                setHorizontalAlignment(SwingConstants.CENTER);
+                return c;
+            }
+        });
+
+        JScrollPane scrollPane = new JScrollPane(tablaServicios);
+        add(scrollPane, BorderLayout.CENTER);
+    }
+
+  private void abrirDialogoServicio(Servicio seleccionado) {
+    Servicio servicio = null;
+    String titulo = "Agregar Servicio";
+    
+    if (seleccionado != null) {
+        // Copia para que el dialogo no modifique el objeto de la tabla
+        servicio = copiar(seleccionado);
+        titulo = "Editar Servicio";
+    }
+    
+    Window parentWindow = SwingUtilities.getWindowAncestor(this);
+    JFrame parentFrame = null;
+    if (parentWindow instanceof JFrame) {
+        parentFrame = (JFrame) parentWindow;
+    }
+    
+    ServicioDialog dialog = new ServicioDialog(parentFrame, titulo, servicio);
+    dialog.setVisible(true);
+    
+    if (dialog.isGuardadoExitoso()) {
+        // La fila se actualiza con el evento que publica el servicio
+        JOptionPane.showMessageDialog(this, 
+            "Los cambios se han guardado correctamente.", 
+            "Guardado Exitoso", 
+            JOptionPane.INFORMATION_MESSAGE);
+    }
+}
+
+    private void editarServicioSeleccionado() {
+    int filaSeleccionada = tablaServicios.getSelectedRow();
+    if (filaSeleccionada == -1) {
+        JOptionPane.showMessageDialog(this,
+            "Por favor, seleccione un servicio para editar.",
+            "Selección Requerida",
+            JOptionPane.WARNING_MESSAGE);
+        return;
+    }
+
+    abrirDialogoServicio(tableModel.getFila(filaSeleccionada)); // Pasar los datos para editar
+}
+
+    private void eliminarServicioSeleccionado() {
+    int filaSeleccionada = tablaServicios.getSelectedRow();
+    if (filaSeleccionada == -1) {
+        JOptionPane.showMessageDialog(this,
+            "Por favor, seleccione un servicio para eliminar.",
+            "Selección Requerida",
+            JOptionPane.WARNING_MESSAGE);
+        return;
+    }
+
+    // Obtener el ID del servicio seleccionado
+    Servicio seleccionado = tableModel.getFila(filaSeleccionada);
+    int idServicio = seleccionado.getId();
+    String nombreServicio = seleccionado.getNombre();
+
+    int confirmacion = JOptionPane.showConfirmDialog(this,
+        "¿Está seguro que desea eliminar el servicio:\n" + nombreServicio + "?\n\n" +
+        "Esta acción no se puede deshacer.",
+        "Confirmar Eliminación",
+        JOptionPane.YES_NO_OPTION,
+        JOptionPane.WARNING_MESSAGE);
+
+    if (confirmacion == JOptionPane.YES_OPTION) {
+        try {
+            // ELIMINAR DE LA BASE DE DATOS
+            ServicioController controller = new ServicioController();
+            controller.eliminarServicio(idServicio);
+            
+            JOptionPane.showMessageDialog(this,
+                "Servicio eliminado correctamente.",
+                "Eliminación Exitosa",
+                JOptionPane.INFORMATION_MESSAGE);
+                
+        } catch (ServiceException e) {
+            JOptionPane.showMessageDialog(this,
+                "Error al eliminar servicio: " + e.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
+
+    private void cambiarEstadoServicio() {
+        int fila = tablaServicios.getSelectedRow();
+        if (fila == -1) {
+            JOptionPane.showMessageDialog(this, "Seleccione un servicio", "Advertencia", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        Servicio servicio = copiar(tableModel.getFila(fila));
+        servicio.setActivo(!servicio.isActivo());
+        tableModel.agregarOReemplazar(servicio);
+    }
+
+    private void filtrarPorTipo() {
+    String tipoSeleccionado = (String) comboFiltroTipo.getSelectedItem();
+    if (tipoSeleccionado.equals("Todos")) {
+        actualizarTabla();
+        return;
+    }
+
+    ServicioController controller = new ServicioController();
+    cargador.cargar("Error al filtrar servicios", () -> controller.buscarServiciosPorTipo(tipoSeleccionado), servicios -> {
+        mostrarServicios(servicios);
+        
+        if (servicios.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                "No se encontraron servicios del tipo: " + tipoSeleccionado,
+                "Sin Resultados",
+                JOptionPane.INFORMATION_MESSAGE);
+        }
+    });
+}
+
+private void buscarServicios() {
+    String textoBusqueda = txtBuscar.getText().trim().toLowerCase();
+    if (textoBusqueda.isEmpty()) {
+        actualizarTabla();
+        return;
+    }
+
+    ServicioController controller = new ServicioController();
+    cargador.cargar("Error al buscar servicios", () -> {
+        // Filtrar localmente por nombre o descripción
+        List<Servicio> encontrados = new ArrayList<>();
+        for (Servicio servicio : controller.obtenerTodosServicios()) {
+            if (servicio.getNombre().toLowerCase().contains(textoBusqueda) ||
+                servicio.getDescripcion().toLowerCase().contains(textoBusqueda)) {
+                encontrados.add(servicio);
+            }
+        }
+        return encontrados;
+    }, encontrados -> {
+        if (encontrados.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                "No se encontraron servicios que coincidan con: " + textoBusqueda,
+                "Sin Resultados",
+                JOptionPane.INFORMATION_MESSAGE);
+            actualizarTabla();
+        } else {
+            mostrarServicios(encontrados);
+        }
+    });
+}
+
+    /**
+     * Actualiza la tabla de servicios con los datos más recientes de la base de datos.
+     * Limpia la tabla actual y la llena con todos los servicios registrados.
+     * La consulta se hace en segundo plano y reemplaza a cualquier carga anterior.
+     */
+    public void actualizarTabla() {
+        // Obtener servicios REALES de la base de datos
+        ServicioController controller = new ServicioController();
+        cargador.cargar("Error al cargar servicios", controller::obtenerTodosServicios, servicios -> {
+            System.out.println("🔄 Actualizando tabla - Servicios encontrados: " + servicios.size()); // DEBUG
+            mostrarServicios(servicios);
+        });
+    }
+    
+    /**
+     * Reemplaza el contenido de la tabla con los servicios indicados.
+     * Se usa tanto con datos de la base de datos como con los del snapshot local.
+     * 
+     * @param servicios Los servicios a mostrar
+     */
+    public void mostrarServicios(List<Servicio> servicios) {
+        tableModel.reemplazarTodo(servicios);
+    }
+    
+    private void aplicarCambio(Servicio servicio) {
+        // Respetar el filtro por tipo y la busqueda que esten activos
+        String tipoSeleccionado = (String) comboFiltroTipo.getSelectedItem();
+        String textoBusqueda = txtBuscar.getText().trim().toLowerCase();
+        boolean coincide = ("Todos".equals(tipoSeleccionado)
+                || (servicio.isActivo() && servicio.getTipoServicio().name().equals(tipoSeleccionado)))
+            && (textoBusqueda.isEmpty()
+                || servicio.getNombre().toLowerCase().contains(textoBusqueda)
+                || (servicio.getDescripcion() != null && servicio.getDescripcion().toLowerCase().contains(textoBusqueda)));
+        if (coincide) {
+            tableModel.agregarOReemplazar(servicio);
+        } else {
+            tableModel.quitar(servicio.getId());
+        }
+    }
+    
+    private static Servicio copiar(Servicio servicio) {
+        Servicio copia = new Servicio();
+        copia.setId(servicio.getId());
+        copia.setNombre(servicio.getNombre());
+        copia.setDescripcion(servicio.getDescripcion());
+        copia.setPrecio(servicio.getPrecio());
+        copia.setDuracionMinutos(servicio.getDuracionMinutos());
+        copia.setTipoServicio(servicio.getTipoServicio());
+        copia.setActivo(servicio.isActivo());
+        return copia;
+    }
 }
\ No newline at end of file
@@ -1,433 +1,587 @@
-package com.idra.gestionpeluqueria.view.panels;
-
-import com.idra.gestionpeluqueria.controller.TurnoController;
-import com.idra.gestionpeluqueria.model.Turno;
-import com.idra.gestionpeluqueria.exception.ServiceException;
-import com.idra.gestionpeluqueria.view.dialogs.TurnoDialog;
-import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
-import java.awt.*;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
-
-/**
- * Panel para la gestion de turnos de la peluqueria.
- * Proporciona una interfaz para visualizar, crear, editar, cancelar y completar turnos.
- * Incluye funcionalidades de filtrado por estado y busqueda por cliente.
- * 
- * @author Idra
- */
-public class TurnoPanel extends JPanel {
-    private JTable tablaTurnos;
-    private DefaultTableModel tableModel;
-    private JButton btnNuevoTurno, btnEditar, btnCancelar, btnCompletar, btnBuscar;
-    private JTextField txtBuscar;
-    private JComboBox<String> comboFiltroEstado;
-    
-    /**
-     * Constructor que inicializa el panel de turnos, sus componentes y carga los datos iniciales.
-     */
-    public TurnoPanel() {
-        initializeUI();
-        inicializarDatos();
-    }
-
-    private void initializeUI() {
-        setLayout(new BorderLayout(10, 10));
-        setBackground(new Color(240, 240, 240));
-        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-
-        createHeaderPanel();
-        createTablePanel();
-        createToolbar();
-    }
-
-    private void inicializarDatos() {
-        actualizarTabla();
-    }
-
-    private void createHeaderPanel() {
-        JPanel headerPanel = new JPanel(new BorderLayout());
-        headerPanel.setBackground(new Color(240, 240, 240));
-
-        JLabel titleLabel = new JLabel("Gestión de Turnos");
-        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
-        titleLabel.setForeground(new Color(50, 50, 50));
-
-        JLabel subtitleLabel = new JLabel("Administre los turnos y citas de la peluquería");
-        subtitleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-        subtitleLabel.setForeground(new Color(100, 100, 100));
-
-        JPanel titlePanel = new JPanel(new BorderLayout());
-        titlePanel.setBackground(new Color(240, 240, 240));
-        titlePanel.add(titleLabel, BorderLayout.NORTH);
-        titlePanel.add(subtitleLabel, BorderLayout.CENTER);
-
-        headerPanel.add(titlePanel, BorderLayout.WEST);
-        add(headerPanel, BorderLayout.NORTH);
-    }
-
-    private void createToolbar() {
-        JPanel toolbarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        toolbarPanel.setBackground(new Color(240, 240, 240));
-        toolbarPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
-
-        btnNuevoTurno = createToolbarButton("➕ Nuevo Turno", new Color(39, 174, 96));
-        btnEditar = createToolbarButton("✏️ Editar", new Color(41, 128, 185));
-        btnCancelar = createToolbarButton("❌ Cancelar", new Color(231, 76, 60));
-        btnCompletar = createToolbarButton("✅ Completar", new Color(46, 204, 113));
-
-        btnNuevoTurno.addActionListener(e -> abrirDialogoTurno(null));
-        btnEditar.addActionListener(e -> editarTurnoSeleccionado());
-        btnCancelar.addActionListener(e -> cancelarTurnoSeleccionado());
-        btnCompletar.addActionListener(e -> completarTurnoSeleccionado());
-
-        // Filtros
-        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
-        filterPanel.setBackground(new Color(240, 240, 240));
-
-        JLabel lblEstado = new JLabel("Estado:");
-        lblEstado.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-
-        comboFiltroEstado = new JComboBox<>(new String[]{"Todos", "CONFIRMADO", "COMPLETADO", "CANCELADO", "AUSENTE"});
-        comboFiltroEstado.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-        comboFiltroEstado.addActionListener(e -> filtrarPorEstado());
-
-        // Búsqueda
-        JPanel searchPanel = new JPanel(new BorderLayout(5, 0));
-        searchPanel.setBackground(new Color(240, 240, 240));
-
-        JLabel lblBuscar = new JLabel("Buscar cliente:");
-        lblBuscar.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-
-        txtBuscar = new JTextField(15);
-        txtBuscar.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-
-        btnBuscar = createToolbarButton("🔍 Buscar", new Color(155, 89, 182));
-        btnBuscar.addActionListener(e -> buscarTurnos());
-
-        searchPanel.add(lblBuscar, BorderLayout.WEST);
-        searchPanel.add(txtBuscar, BorderLayout.CENTER);
-        searchPanel.add(btnBuscar, BorderLayout.EAST);
-
-        filterPanel.add(lblEstado);
-        filterPanel.add(comboFiltroEstado);
-        filterPanel.add(Box.createHorizontalStrut(20));
-        filterPanel.add(searchPanel);
-
-        toolbarPanel.add(btnNuevoTurno);
-        toolbarPanel.add(Box.createHorizontalStrut(10));
-        toolbarPanel.add(btnEditar);
-        toolbarPanel.add(Box.createHorizontalStrut(10));
-        toolbarPanel.add(btnCancelar);
-        toolbarPanel.add(Box.createHorizontalStrut(10));
-        toolbarPanel.add(btnCompletar);
-        toolbarPanel.add(Box.createHorizontalStrut(30));
-        toolbarPanel.add(filterPanel);
-
-        add(toolbarPanel, BorderLayout.SOUTH);
-    }
-
-    private JButton createToolbarButton(String text, Color color) {
-        JButton button = new JButton(text);
-        button.setFont(new Font("Segoe UI", Font.BOLD, 12));
-        button.setBackground(color);
-        button.setForeground(Color.WHITE);
-        button.setFocusPainted(false);
-        button.setBorder(BorderFactory.createEmptyBorder(8, 15, 8, 15));
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-
-        button.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                button.setBackground(color.darker());
-            }
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                button.setBackground(color);
-            }
-        });
-        return button;
-    }
-
-    private void createTablePanel() {
-        String[] columnNames = {"ID", "Fecha/Hora", "Cliente", "Servicio", "Precio", "Estado", "Pago", "Monto Pagado"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-
-        tablaTurnos = new JTable(tableModel);
-        tablaTurnos.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-        tablaTurnos.setRowHeight(35);
-        tablaTurnos.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        tablaTurnos.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 13));
-        tablaTurnos.getTableHeader().setBackground(new Color(70, 130, 180));
-        tablaTurnos.getTableHeader().setForeground(Color.WHITE);
-
-        JScrollPane scrollPane = new JScrollPane(tablaTurnos);
-        add(scrollPane, BorderLayout.CENTER);
-    }
-    
-    /**
-     * Actualiza la tabla de turnos con los datos más recientes de la base de datos.
-     * Limpia la tabla actual y la llena con todos los turnos registrados,
-     * mostrando información completa de cada turno incluyendo cliente, servicio y estado.
-     */
-    public final void actualizarTabla() {
-        try {
-            tableModel.setRowCount(0); // Limpiar tabla
-            
-            // Obtener turnos REALES de la base de datos
-            TurnoController controller = new TurnoController();
-            List<Turno> turnos = controller.obtenerTodosTurnos();
-            
-            System.out.println("🔄 TurnoPanel - Turnos encontrados en BD: " + turnos.size());
-            
-            // Llenar la tabla con datos REALES
-            for (Turno turno : turnos) {
-                Object[] fila = {
-                    turno.getId(),
-                    turno.getFechaHora().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")),
-                    turno.getCliente().getNombre() + " " + turno.getCliente().getApellido(),
-                    turno.getServicio().getNombre(),
-                    turno.getServicio().getPrecio(),
-                    turno.getEstado().name(),
-                    turno.getEstadoPago().name(),
-                    turno.getMontoPagado()
-                };
-                tableModel.addRow(fila);
-            }
-            
-            System.out.println("✅ TurnoPanel - Tabla actualizada con " + tableModel.getRowCount() + " turnos");
-            
-        } catch (ServiceException e) {
-            System.err.println("❌ Error al actualizar tabla de turnos: " + e.getMessage());
-            JOptionPane.showMessageDialog(this, 
-                "Error al cargar turnos: " + e.getMessage(), 
-                "Error", 
-                JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
-    private void abrirDialogoTurno(Object[] datosTurno) {
-        Turno turno = null;
-        String titulo = "Nuevo Turno";
-        
-        if (datosTurno != null) {
-            try {
-                // Para editar, buscar el turno completo de la BD
-                int idTurno = (Integer) datosTurno[0];
-                TurnoController controller = new TurnoController();
-                turno = controller.buscarTurnoPorId(idTurno);
-                titulo = "Editar Turno";
-            } catch (ServiceException e) {
-                JOptionPane.showMessageDialog(this,
-                    "Error al cargar turno: " + e.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-        }
-        
-        Window parentWindow = SwingUtilities.getWindowAncestor(this);
-        JFrame parentFrame = null;
-        if (parentWindow instanceof JFrame) {
-            parentFrame = (JFrame) parentWindow;
-        }
-        
-        TurnoDialog dialog = new TurnoDialog(parentFrame, titulo, turno);
-        dialog.setVisible(true);
-        
-        if (dialog.isGuardadoExitoso()) {
-            actualizarTabla(); // Refrescar la tabla
-        }
-    }
-
-    private void editarTurnoSeleccionado() {
-        int filaSeleccionada = tablaTurnos.getSelectedRow();
-        if (filaSeleccionada == -1) {
-            JOptionPane.showMessageDialog(this,
-                "Por favor, seleccione un turno para editar.",
-                "Selección Requerida",
-                JOptionPane.WARNING_MESSAGE);
-            return;
-        }
-
-        // Obtener datos del turno seleccionado
-        Object[] datosTurno = new Object[tableModel.getColumnCount()];
-        for (int i = 0; i < tableModel.getColumnCount(); i++) {
-            datosTurno[i] = tableModel.getValueAt(filaSeleccionada, i);
-        }
-
-        abrirDialogoTurno(datosTurno);
-    }
-
-    private void cancelarTurnoSeleccionado() {
-        int filaSeleccionada = tablaTurnos.getSelectedRow();
-        if (filaSeleccionada == -1) {
-            JOptionPane.showMessageDialog(this,
-                "Por favor, seleccione un turno para cancelar.",
-                "Selección Requerida",
-                JOptionPane.WARNING_MESSAGE);
-            return;
-        }
-
-        int idTurno = (Integer) tableModel.getValueAt(filaSeleccionada, 0);
-        String cliente = tableModel.getValueAt(filaSeleccionada, 2).toString();
-
-        int confirmacion = JOptionPane.showConfirmDialog(this,
-            "¿Está seguro que desea cancelar el turno de " + cliente + "?",
-            "Confirmar Cancelación",
-            JOptionPane.YES_NO_OPTION,
-            JOptionPane.WARNING_MESSAGE);
-
-        if (confirmacion == JOptionPane.YES_OPTION) {
-            try {
-                // Cancelar en la base de datos
-                TurnoController controller = new TurnoController();
-                controller.cancelarTurno(idTurno);
-                
-                // Actualizar la tabla completa desde BD
-                actualizarTabla();
-                
-                JOptionPane.showMessageDialog(this,
-                    "Turno cancelado correctamente.",
-                    "Cancelación Exitosa",
-                    JOptionPane.INFORMATION_MESSAGE);
-                    
-            } catch (ServiceException e) {
-                JOptionPane.showMessageDialog(this,
-                    "Error al cancelar turno: " + e.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            }
-        }
-    }
-
-    private void completarTurnoSeleccionado() {
-        int filaSeleccionada = tablaTurnos.getSelectedRow();
-        if (filaSeleccionada == -1) {
-            JOptionPane.showMessageDialog(this,
-                "Por favor, seleccione un turno para marcar como completado.",
-                "Selección Requerida",
-                JOptionPane.WARNING_MESSAGE);
-            return;
-        }
-
-        int idTurno = (Integer) tableModel.getValueAt(filaSeleccionada, 0);
-        String cliente = tableModel.getValueAt(filaSeleccionada, 2).toString();
-
-        int confirmacion = JOptionPane.showConfirmDialog(this,
-            "¿Marcar turno de " + cliente + " como completado?",
-            "Completar Turno",
-            JOptionPane.YES_NO_OPTION,
-            JOptionPane.QUESTION_MESSAGE);
-
-        if (confirmacion == JOptionPane.YES_OPTION) {
-            try {
-                // Completar en la base de datos
-                TurnoController controller = new TurnoController();
-                controller.completarTurno(idTurno);
-                
-                // Actualizar la tabla completa desde BD
-                actualizarTabla();
-                
-                JOptionPane.showMessageDialog(this,
-                    "Turno marcado como completado.",
-                    "Turno Completado",
-                    JOptionPane.INFORMATION_MESSAGE);
-                    
-            } catch (ServiceException e) {
-                JOptionPane.showMessageDialog(this,
-                    "Error al completar turno: " + e.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            }
-        }
-    }
-
-    private void filtrarPorEstado() {
-        String estadoSeleccionado = (String) comboFiltroEstado.getSelectedItem();
-        if (estadoSeleccionado.equals("Todos")) {
-            actualizarTabla();
-            return;
-        }
-
-        try {
-            tableModel.setRowCount(0); // Limpiar tabla
-            
-            TurnoController controller = new TurnoController();
-            List<Turno> turnos = controller.buscarTurnosPorEstado(estadoSeleccionado);
-            
-            for (Turno turno : turnos) {
-                Object[] fila = {
-                    turno.getId(),
-                    turno.getFechaHora().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")),
-                    turno.getCliente().getNombre() + " " + turno.getCliente().getApellido(),
-                    turno.getServicio().getNombre(),
-                    turno.getServicio().getPrecio(),
-                    turno.getEstado().name(),
-                    turno.getEstadoPago().name(),
-                    turno.getMontoPagado()
-                };
-                tableModel.addRow(fila);
-            }
-            
-        } catch (ServiceException e) {
-            JOptionPane.showMessageDialog(this,
-                "Error al filtrar turnos: " + e.getMessage(),
-                "Error",
-                JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
-    private void buscarTurnos() {
-        String textoBusqueda = txtBuscar.getText().trim().toLowerCase();
-        if (textoBusqueda.isEmpty()) {
-            actualizarTabla();
-            return;
-        }
-
-        try {
-            tableModel.setRowCount(0); // Limpiar tabla
-            
-            TurnoController controller = new TurnoController();
-            List<Turno> todosTurnos = controller.obtenerTodosTurnos();
-            
-            // Filtrar localmente por nombre de cliente
-            for (Turno turno : todosTurnos) {
-                String nombreCliente = turno.getCliente().getNombre().toLowerCase() + " " + 
-                                     turno.getCliente().getApellido().toLowerCase();
-                
-                if (nombreCliente.contains(textoBusqueda)) {
-                    Object[] fila = {
-                        turno.getId(),
-                        turno.getFechaHora().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")),
-                        turno.getCliente().getNombre() + " " + turno.getCliente().getApellido(),
-                        turno.getServicio().getNombre(),
-                        turno.getServicio().getPrecio(),
-                        turno.getEstado().name(),
-                        turno.getEstadoPago().name(),
-                        turno.getMontoPagado()
-                    };
-                    tableModel.addRow(fila);
-                }
-            }
-            
-            if (tableModel.getRowCount() == 0) {
-                JOptionPane.showMessageDialog(this,
-                    "No se encontraron turnos que coincidan con: " + textoBusqueda,
-                    "Sin Resultados",
-                    JOptionPane.INFORMATION_MESSAGE);
-                actualizarTabla();
-            }
-            
-        } catch (ServiceException e) {
-            JOptionPane.showMessageDialog(this,
-                "Error al buscar turnos: " + e.getMessage(),
-                "Error",
-                JOptionPane.ERROR_MESSAGE);
-        }
-    }
+package com.idra.gestionpeluqueria.view.panels;
+
+import com.idra.gestionpeluqueria.controller.TurnoController;
+import com.idra.gestionpeluqueria.event.BusEventos;
+import com.idra.gestionpeluqueria.event.ClienteActualizado;
+import com.idra.gestionpeluqueria.event.EventoTurno;
+import com.idra.gestionpeluqueria.event.OfertaListaEspera;
+import com.idra.gestionpeluqueria.event.ServicioActualizado;
+import com.idra.gestionpeluqueria.model.Turno;
+import com.idra.gestionpeluqueria.service.PropuestaCompactacion;
+import com.idra.gestionpeluqueria.exception.ServiceException;
+import com.idra.gestionpeluqueria.view.CargadorSegundoPlano;
+import com.idra.gestionpeluqueria.view.ModeloTabla;
+import com.idra.gestionpeluqueria.view.ModeloTablaVirtual;
+import com.idra.gestionpeluqueria.view.dialogs.ListaEsperaDialog;
+import com.idra.gestionpeluqueria.view.dialogs.TurnoDialog;
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Panel para la gestion de turnos de la peluqueria.
+ * Proporciona una interfaz para visualizar, crear, editar, cancelar y completar turnos.
+ * Incluye funcionalidades de filtrado por estado y busqueda por cliente.
+ * 
+ * @author Idra
+ */
+public class TurnoPanel extends JPanel {
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm");
+    // Mas recientes primero, como en la consulta
+    private static final Comparator<Turno> ORDEN_FILAS =
+        Comparator.comparing(Turno::getFechaHora).thenComparing(Turno::getId).reversed();
+    private static final int TURNOS_POR_PAGINA = 100;
+    
+    private JTable tablaTurnos;
+    // Resultados de filtros y busquedas
+    private ModeloTabla<Turno> tableModel;
+    // Historial completo sin filtros, leido por paginas a medida que se ve
+    private ModeloTablaVirtual<Turno> modeloHistorial;
+    private JButton btnNuevoTurno, btnEditar, btnCancelar, btnCompletar, btnBuscar, btnListaEspera, btnCompactar;
+    private JTextField txtBuscar;
+    private JComboBox<String> comboFiltroEstado;
+    private JLabel lblCargando;
+    private final CargadorSegundoPlano cargador = new CargadorSegundoPlano(this);
+    // Ofertas de la lista de espera hechas desde la ultima vez que se abrio
+    private int ofertasSinVer;
+    
+    /**
+     * Constructor que inicializa el panel de turnos y sus componentes.
+     * Los datos se cargan luego, en segundo plano, desde la ventana principal,
+     * y despues se mantienen al dia con los eventos de dominio.
+     */
+    public TurnoPanel() {
+        initializeUI();
+        
+        BusEventos bus = BusEventos.getInstance();
+        bus.suscribirEnEDT(EventoTurno.class, evento -> aplicarCambio(evento.getTurno()));
+        bus.suscribirEnEDT(ClienteActualizado.class, evento -> {
+            for (Turno turno : turnosMostrados()) {
+                if (turno.getCliente().getId() == evento.getClienteId()) {
+                    turno.setCliente(evento.getCliente());
+                    aplicarCambio(turno);
+                }
+            }
+        });
+        bus.suscribirEnEDT(ServicioActualizado.class, evento -> {
+            for (Turno turno : turnosMostrados()) {
+                if (turno.getServicio().getId() == evento.getServicioId()) {
+                    turno.setServicio(evento.getServicio());
+                    aplicarCambio(turno);
+                }
+            }
+        });
+        bus.suscribirEnEDT(OfertaListaEspera.class, evento -> {
+            ofertasSinVer++;
+            actualizarBotonListaEspera();
+        });
+    }
+
+    private void initializeUI() {
+        setLayout(new BorderLayout(10, 10));
+        setBackground(new Color(240, 240, 240));
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        createHeaderPanel();
+        createTablePanel();
+        createToolbar();
+    }
+
+    private void createHeaderPanel() {
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(new Color(240, 240, 240));
+
+        JLabel titleLabel = new JLabel("Gestión de Turnos");
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
+        titleLabel.setForeground(new Color(50, 50, 50));
+
+        JLabel subtitleLabel = new JLabel("Administre los turnos y citas de la peluquería");
+        subtitleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        subtitleLabel.setForeground(new Color(100, 100, 100));
+
+        JPanel titlePanel = new JPanel(new BorderLayout());
+        titlePanel.setBackground(new Color(240, 240, 240));
+        titlePanel.add(titleLabel, BorderLayout.NORTH);
+        titlePanel.add(subtitleLabel, BorderLayout.CENTER);
+
+        headerPanel.add(titlePanel, BorderLayout.WEST);
+        
+        lblCargando = new JLabel("Cargando...");
+        lblCargando.setFont(new Font("Segoe UI", Font.ITALIC, 13));
+        lblCargando.setForeground(new Color(100, 100, 100));
+        headerPanel.add(lblCargando, BorderLayout.EAST);
+        cargador.setIndicador(lblCargando);
+        add(headerPanel, BorderLayout.NORTH);
+    }
+
+    private void createToolbar() {
+        JPanel toolbarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        toolbarPanel.setBackground(new Color(240, 240, 240));
+        toolbarPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
+
+        btnNuevoTurno = createToolbarButton("➕ Nuevo Turno", new Color(39, 174, 96));
+        btnEditar = createToolbarButton("✏️ Editar", new Color(41, 128, 185));
+        btnCancelar = createToolbarButton("❌ Cancelar", new Color(231, 76, 60));
+        btnCompletar = createToolbarButton("✅ Completar", new Color(46, 204, 113));
+
+        btnNuevoTurno.addActionListener(e -> abrirDialogoTurno(null));
+        btnEditar.addActionListener(e -> editarTurnoSeleccionado());
+        btnCancelar.addActionListener(e -> cancelarTurnoSeleccionado());
+        btnCompletar.addActionListener(e -> completarTurnoSeleccionado());
+        
+        btnListaEspera = createToolbarButton("⏳ Lista de espera", new Color(230, 126, 34));
+        btnListaEspera.addActionListener(e -> abrirListaEspera());
+        btnCompactar = createToolbarButton("🧩 Compactar agenda", new Color(52, 73, 94));
+        btnCompactar.addActionListener(e -> compactarAgenda());
+
+        // Filtros
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        filterPanel.setBackground(new Color(240, 240, 240));
+
+        JLabel lblEstado = new JLabel("Estado:");
+        lblEstado.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+
+        comboFiltroEstado = new JComboBox<>(new String[]{"Todos", "CONFIRMADO", "COMPLETADO", "CANCELADO", "AUSENTE"});
+        comboFiltroEstado.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        comboFiltroEstado.addActionListener(e -> filtrarPorEstado());
+
+        // Búsqueda
+        JPanel searchPanel = new JPanel(new BorderLayout(5, 0));
+        searchPanel.setBackground(new Color(240, 240, 240));
+
+        JLabel lblBuscar = new JLabel("Buscar cliente:");
+        lblBuscar.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+
+        txtBuscar = new JTextField(15);
+        txtBuscar.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+
+        btnBuscar = createToolbarButton("🔍 Buscar", new Color(155, 89, 182));
+        btnBuscar.addActionListener(e -> buscarTurnos());
+
+        searchPanel.add(lblBuscar, BorderLayout.WEST);
+        searchPanel.add(txtBuscar, BorderLayout.CENTER);
+        searchPanel.add(btnBuscar, BorderLayout.EAST);
+
+        filterPanel.add(lblEstado);
+        filterPanel.add(comboFiltroEstado);
+        filterPanel.add(Box.createHorizontalStrut(20));
+        filterPanel.add(searchPanel);
+
+        toolbarPanel.add(btnNuevoTurno);
+        toolbarPanel.add(Box.createHorizontalStrut(10));
+        toolbarPanel.add(btnEditar);
+        toolbarPanel.add(Box.createHorizontalStrut(10));
+        toolbarPanel.add(btnCancelar);
+        toolbarPanel.add(Box.createHorizontalStrut(10));
+        toolbarPanel.add(btnCompletar);
+        toolbarPanel.add(Box.createHorizontalStrut(10));
+        toolbarPanel.add(btnListaEspera);
+        toolbarPanel.add(Box.createHorizontalStrut(10));
+        toolbarPanel.add(btnCompactar);
+        toolbarPanel.add(Box.createHorizontalStrut(30));
+        toolbarPanel.add(filterPanel);
+
+        add(toolbarPanel, BorderLayout.SOUTH);
+    }
+
+    private JButton createToolbarButton(String text, Color color) {
+        JButton button = new JButton(text);
+        button.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        button.setBackground(color);
+        button.setForeground(Color.WHITE);
+        button.setFocusPainted(false);
+        button.setBorder(BorderFactory.createEmptyBorder(8, 15, 8, 15));
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+        button.addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseEntered(java.awt.event.MouseEvent evt) {
+                button.setBackground(color.darker());
+            }
+            public void mouseExited(java.awt.event.MouseEvent evt) {
+                button.setBackground(color);
+            }
+        });
+        return button;
+    }
+
+    private void createTablePanel() {
+        TurnoController controller = new TurnoController();
+        tableModel = new ModeloTabla<>(Turno::getId, ORDEN_FILAS);
+        modeloHistorial = new ModeloTablaVirtual<>("historial de turnos", new ModeloTablaVirtual.Fuente<Turno>() {
+            @Override
+            public int contar() throws Exception {
+                return controller.contarTurnos();
+            }
+
+            @Override
+            public List<Turno> buscarPagina(Turno anterior, int saltear, int cantidad) throws Exception {
+                return anterior == null
+                    ? controller.buscarPaginaTurnos(null, 0, saltear, cantidad)
+                    : controller.buscarPaginaTurnos(anterior.getFechaHora(), anterior.getId(), saltear, cantidad);
+            }
+
+            @Override
+            public List<Turno> buscarAnclas(int cada) throws Exception {
+                return controller.buscarAnclasTurnos(cada);
+            }
+        }, Turno::getId, ORDEN_FILAS, TURNOS_POR_PAGINA);
+        modeloHistorial.setManejadorError((descripcion, causa) -> JOptionPane.showMessageDialog(this,
+            "Error al cargar el " + descripcion + ": " + causa.getMessage(),
+            "Error",
+            JOptionPane.ERROR_MESSAGE));
+        declararColumnas(tableModel::columna);
+        declararColumnas(modeloHistorial::columna);
+
+        tablaTurnos = new JTable(tableModel);
+        tablaTurnos.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        tablaTurnos.setRowHeight(35);
+        tablaTurnos.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tablaTurnos.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 13));
+        tablaTurnos.getTableHeader().setBackground(new Color(70, 130, 180));
+        tablaTurnos.getTableHeader().setForeground(Color.WHITE);
+
+        JScrollPane scrollPane = new JScrollPane(tablaTurnos);
+        add(scrollPane, BorderLayout.CENTER);
+    }
+    
+    private static void declararColumnas(BiConsumer<String, Function<Turno, ?>> columna) {
+        columna.accept("ID", Turno::getId);
+        columna.accept("Fecha/Hora", turno -> turno.getFechaHora().format(FORMATO_FECHA));
+        columna.accept("Cliente", turno -> turno.getCliente().getNombre() + " " + turno.getCliente().getApellido());
+        columna.accept("Servicio", turno -> turno.getServicio().getNombre());
+        columna.accept("Precio", turno -> turno.getServicio().getPrecio());
+        columna.accept("Estado", turno -> turno.getEstado().name());
+        columna.accept("Pago", turno -> turno.getEstadoPago().name());
+        columna.accept("Monto Pagado", Turno::getMontoPagado);
+    }
+    
+    /**
+     * Actualiza la tabla de turnos con los datos más recientes de la base de datos.
+     * Muestra el historial completo: se cuentan los turnos y se leen solo las
+     * páginas que se van viendo, así que no importa cuántos haya.
+     * Reemplaza a cualquier carga anterior.
+     */
+    public final void actualizarTabla() {
+        cargador.cancelar();
+        if (tablaTurnos.getModel() != modeloHistorial) {
+            tablaTurnos.setModel(modeloHistorial);
+        }
+        modeloHistorial.cargar();
+    }
+    
+    /**
+     * Reemplaza el contenido de la tabla con los turnos indicados.
+     * 
+     * @param turnos Los turnos a mostrar
+     */
+    public void mostrarTurnos(List<Turno> turnos) {
+        if (tablaTurnos.getModel() != tableModel) {
+            tablaTurnos.setModel(tableModel);
+        }
+        tableModel.reemplazarTodo(turnos);
+    }
+    
+    private boolean mostrandoHistorial() {
+        return tablaTurnos.getModel() == modeloHistorial;
+    }
+    
+    private List<Turno> turnosMostrados() {
+        return mostrandoHistorial() ? modeloHistorial.getCargadas() : new ArrayList<>(tableModel.getFilas());
+    }
+    
+    /**
+     * @return El turno de la fila seleccionada, o null si no hay ninguna o
+     *         su pagina del historial todavia no se leyo
+     */
+    private Turno turnoSeleccionado() {
+        int fila = tablaTurnos.getSelectedRow();
+        if (fila == -1) {
+            return null;
+        }
+        return mostrandoHistorial() ? modeloHistorial.getFila(fila) : tableModel.getFila(fila);
+    }
+    
+    /**
+     * Refleja en la tabla un turno creado o modificado: agrega o reemplaza
+     * solo su fila, o la quita si ya no corresponde al filtro actual. En el
+     * historial la fila se reemplaza si ya esta leida y no cambio de lugar;
+     * si no, se vuelve a contar y se releen las paginas que se ven.
+     */
+    private void aplicarCambio(Turno turno) {
+        if (mostrandoHistorial()) {
+            if (!modeloHistorial.reemplazar(turno)) {
+                modeloHistorial.cargar();
+            }
+            return;
+        }
+        if (!coincideConFiltros(turno)) {
+            tableModel.quitar(turno.getId());
+            return;
+        }
+        tableModel.agregarOReemplazar(turno);
+    }
+    
+    private boolean coincideConFiltros(Turno turno) {
+        String estadoSeleccionado = (String) comboFiltroEstado.getSelectedItem();
+        if (!"Todos".equals(estadoSeleccionado) && !turno.getEstado().name().equals(estadoSeleccionado)) {
+            return false;
+        }
+        String textoBusqueda = txtBuscar.getText().trim().toLowerCase();
+        String nombreCliente = turno.getCliente().getNombre() + " " + turno.getCliente().getApellido();
+        return textoBusqueda.isEmpty() || nombreCliente.toLowerCase().contains(textoBusqueda);
+    }
+    
+    private void abrirDialogoTurno(Turno seleccionado) {
+        if (seleccionado == null) {
+            mostrarDialogoTurno("Nuevo Turno", null);
+            return;
+        }
+        
+        // Para editar, buscar el turno completo de la BD
+        int idTurno = seleccionado.getId();
+        TurnoController controller = new TurnoController();
+        cargador.ejecutar("Error al cargar turno", () -> controller.buscarTurnoPorId(idTurno),
+            turno -> mostrarDialogoTurno("Editar Turno", turno));
+    }
+    
+    private void abrirListaEspera() {
+        ofertasSinVer = 0;
+        actualizarBotonListaEspera();
+        Window parentWindow = SwingUtilities.getWindowAncestor(this);
+        new ListaEsperaDialog(parentWindow instanceof JFrame ? (JFrame) parentWindow : null).setVisible(true);
+    }
+    
+    private void compactarAgenda() {
+        String texto = JOptionPane.showInputDialog(this,
+            "Fecha a reorganizar (AAAA-MM-DD):", LocalDate.now().toString());
+        if (texto == null) {
+            return;
+        }
+        LocalDate fecha;
+        try {
+            fecha = LocalDate.parse(texto.trim());
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this,
+                "La fecha debe tener el formato AAAA-MM-DD.",
+                "Fecha inválida",
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        TurnoController controller = new TurnoController();
+        cargador.ejecutar("Error al calcular la reorganización",
+            () -> controller.proponerCompactacion(fecha), this::mostrarPropuestaCompactacion);
+    }
+    
+    private void mostrarPropuestaCompactacion(PropuestaCompactacion propuesta) {
+        if (propuesta.isVacia()) {
+            JOptionPane.showMessageDialog(this,
+                "No hay movimientos que reduzcan los huecos de la agenda.",
+                "Compactar agenda",
+                JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        DefaultTableModel modelo = new DefaultTableModel(
+                new String[]{"Cliente", "Servicio", "Profesional", "Horario actual", "Nuevo horario"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        for (PropuestaCompactacion.Movimiento movimiento : propuesta.getMovimientos()) {
+            Turno turno = movimiento.getTurno();
+            modelo.addRow(new Object[]{
+                turno.getCliente(),
+                turno.getServicio(),
+                turno.getProfesional() != null ? turno.getProfesional() : "-",
+                movimiento.getHorarioActual().format(FORMATO_HORA),
+                movimiento.getNuevoHorario().format(FORMATO_HORA)
+            });
+        }
+        JScrollPane scroll = new JScrollPane(new JTable(modelo));
+        scroll.setPreferredSize(new Dimension(560, 200));
+        
+        JPanel panel = new JPanel(new BorderLayout(0, 10));
+        panel.add(new JLabel("Huecos sin uso: " + propuesta.getMinutosInutilesAntes() + " min → "
+            + propuesta.getMinutosInutilesDespues() + " min"), BorderLayout.NORTH);
+        panel.add(scroll, BorderLayout.CENTER);
+        
+        int confirmacion = JOptionPane.showConfirmDialog(this, panel,
+            "Reorganizar agenda del " + propuesta.getFecha(),
+            JOptionPane.OK_CANCEL_OPTION,
+            JOptionPane.PLAIN_MESSAGE);
+        if (confirmacion != JOptionPane.OK_OPTION) {
+            return;
+        }
+        // Las filas se actualizan con los eventos que publica el servicio
+        TurnoController controller = new TurnoController();
+        cargador.ejecutar("Error al reorganizar la agenda", () -> {
+            controller.aplicarCompactacion(propuesta);
+            return propuesta.getMovimientos().size();
+        }, movidos -> JOptionPane.showMessageDialog(this,
+            "Se reprogramaron " + movidos + " turnos.",
+            "Compactar agenda",
+            JOptionPane.INFORMATION_MESSAGE));
+    }
+    
+    private void actualizarBotonListaEspera() {
+        btnListaEspera.setText(ofertasSinVer > 0
+            ? "⏳ Lista de espera (" + ofertasSinVer + ")" : "⏳ Lista de espera");
+    }
+    
+    private void mostrarDialogoTurno(String titulo, Turno turno) {
+        Window parentWindow = SwingUtilities.getWindowAncestor(this);
+        JFrame parentFrame = null;
+        if (parentWindow instanceof JFrame) {
+            parentFrame = (JFrame) parentWindow;
+        }
+        
+        // Si se guarda, la fila se actualiza con el evento que publica el servicio
+        TurnoDialog dialog = new TurnoDialog(parentFrame, titulo, turno);
+        dialog.setVisible(true);
+    }
+
+    private void editarTurnoSeleccionado() {
+        Turno seleccionado = turnoSeleccionado();
+        if (seleccionado == null) {
+            JOptionPane.showMessageDialog(this,
+                "Por favor, seleccione un turno para editar.",
+                "Selección Requerida",
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        abrirDialogoTurno(seleccionado);
+    }
+
+    private void cancelarTurnoSeleccionado() {
+        Turno seleccionado = turnoSeleccionado();
+        if (seleccionado == null) {
+            JOptionPane.showMessageDialog(this,
+                "Por favor, seleccione un turno para cancelar.",
+                "Selección Requerida",
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        int idTurno = seleccionado.getId();
+        String cliente = seleccionado.getCliente().getNombre() + " " + seleccionado.getCliente().getApellido();
+
+        int confirmacion = JOptionPane.showConfirmDialog(this,
+            "¿Está seguro que desea cancelar el turno de " + cliente + "?",
+            "Confirmar Cancelación",
+            JOptionPane.YES_NO_OPTION,
+            JOptionPane.WARNING_MESSAGE);
+
+        if (confirmacion == JOptionPane.YES_OPTION) {
+            try {
+                // Cancelar en la base de datos
+                TurnoController controller = new TurnoController();
+                controller.cancelarTurno(idTurno);
+                
+                JOptionPane.showMessageDialog(this,
+                    "Turno cancelado correctamente.",
+                    "Cancelación Exitosa",
+                    JOptionPane.INFORMATION_MESSAGE);
+                    
+            } catch (ServiceException e) {
+                JOptionPane.showMessageDialog(this,
+                    "Error al cancelar turno: " + e.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    private void completarTurnoSeleccionado() {
+        Turno seleccionado = turnoSeleccionado();
+        if (seleccionado == null) {
+            JOptionPane.showMessageDialog(this,
+                "Por favor, seleccione un turno para marcar como completado.",
+                "Selección Requerida",
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        int idTurno = seleccionado.getId();
+        String cliente = seleccionado.getCliente().getNombre() + " " + seleccionado.getCliente().getApellido();
+
+        int confirmacion = JOptionPane.showConfirmDialog(this,
+            "¿Marcar turno de " + cliente + " como completado?",
+            "Completar Turno",
+            JOptionPane.YES_NO_OPTION,
+            JOptionPane.QUESTION_MESSAGE);
+
+        if (confirmacion == JOptionPane.YES_OPTION) {
+            try {
+                // Completar en la base de datos
+                TurnoController controller = new TurnoController();
+                controller.completarTurno(idTurno);
+                
+                JOptionPane.showMessageDialog(this,
+                    "Turno marcado como completado.",
+                    "Turno Completado",
+                    JOptionPane.INFORMATION_MESSAGE);
+                    
+            } catch (ServiceException e) {
+                JOptionPane.showMessageDialog(this,
+                    "Error al completar turno: " + e.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    private void filtrarPorEstado() {
+        String estadoSeleccionado = (String) comboFiltroEstado.getSelectedItem();
+        if (estadoSeleccionado.equals("Todos")) {
+            actualizarTabla();
+            return;
+        }
+
+        TurnoController controller = new TurnoController();
+        cargador.cargar("Error al filtrar turnos",
+            () -> controller.buscarTurnosPorEstado(estadoSeleccionado), this::mostrarTurnos);
+    }
+
+    private void buscarTurnos() {
+        String textoBusqueda = txtBuscar.getText().trim().toLowerCase();
+        if (textoBusqueda.isEmpty()) {
+            actualizarTabla();
+            return;
+        }
+
+        TurnoController controller = new TurnoController();
+        cargador.cargar("Error al buscar turnos", () -> {
+            // Filtrar localmente por nombre de cliente
+            List<Turno> encontrados = new ArrayList<>();
+            for (Turno turno : controller.obtenerTodosTurnos()) {
+                String nombreCliente = turno.getCliente().getNombre().toLowerCase() + " " + 
+                                     turno.getCliente().getApellido().toLowerCase();
+                
+                if (nombreCliente.contains(textoBusqueda)) {
+                    encontrados.add(turno);
+                }
+            }
+            return encontrados;
+        }, encontrados -> {
+            if (encontrados.isEmpty()) {
+                JOptionPane.showMessageDialog(this,
+                    "No se encontraron turnos que coincidan con: " + textoBusqueda,
+                    "Sin Resultados",
+                    JOptionPane.INFORMATION_MESSAGE);
+                actualizarTabla();
+            } else {
+                mostrarTurnos(encontrados);
+            }
+        });
+    }
 }
\ No newline at end of file
@@ -0,0 +1,5 @@
+-- Control de concurrencia optimista sobre turnos.
+-- Para bases de datos creadas con una version anterior de schema.sql
+USE peluqueria_db;
+
+ALTER TABLE turnos ADD COLUMN version INT NOT NULL DEFAULT 0 AFTER fecha_creacion;
@@ -0,0 +1,35 @@
+-- Profesionales con sus especialidades y horarios, y asignacion en turnos.
+-- Para bases de datos creadas con una version anterior de schema.sql
+USE peluqueria_db;
+
+CREATE TABLE IF NOT EXISTS profesionales (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    nombre VARCHAR(100) NOT NULL,
+    apellido VARCHAR(100) NOT NULL,
+    activo BOOLEAN DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS profesional_especialidades (
+    profesional_id INT NOT NULL,
+    tipo_servicio VARCHAR(50) NOT NULL,
+    PRIMARY KEY (profesional_id, tipo_servicio),
+    FOREIGN KEY (profesional_id) REFERENCES profesionales(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS profesional_horarios (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    profesional_id INT NOT NULL,
+    dia_semana TINYINT NOT NULL,
+    hora_inicio TIME NOT NULL,
+    hora_fin TIME NOT NULL,
+    FOREIGN KEY (profesional_id) REFERENCES profesionales(id) ON DELETE CASCADE,
+    INDEX idx_profesional_dia (profesional_id, dia_semana)
+);
+
+-- Los turnos existentes quedan sin profesional asignado
+ALTER TABLE turnos ADD COLUMN profesional_id INT NULL AFTER servicio_id;
+ALTER TABLE turnos ADD CONSTRAINT fk_turnos_profesional
+    FOREIGN KEY (profesional_id) REFERENCES profesionales(id) ON DELETE SET NULL;
+ALTER TABLE turnos ADD INDEX idx_profesional_fecha (profesional_id, fecha_hora);
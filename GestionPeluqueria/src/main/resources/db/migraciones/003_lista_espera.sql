@@ -0,0 +1,22 @@
+-- Lista de espera para ofrecer los turnos que se cancelan.
+-- Para bases de datos creadas con una version anterior de schema.sql
+USE peluqueria_db;
+
+-- Lista de espera: clientes que quieren un servicio dentro de una ventana de fechas y horas
+CREATE TABLE IF NOT EXISTS lista_espera (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    cliente_id INT NOT NULL,
+    servicio_id INT NOT NULL,
+    fecha_desde DATE NOT NULL,
+    fecha_hasta DATE NOT NULL,
+    hora_desde TIME NOT NULL,
+    hora_hasta TIME NOT NULL,
+    estado VARCHAR(20) NOT NULL DEFAULT 'PENDIENTE',
+    fecha_hora_ofrecida DATETIME NULL,
+    fecha_registro DATETIME NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (cliente_id) REFERENCES clientes(id) ON DELETE CASCADE,
+    FOREIGN KEY (servicio_id) REFERENCES servicios(id) ON DELETE CASCADE,
+    INDEX idx_estado_fecha (estado, fecha_hasta)
+);
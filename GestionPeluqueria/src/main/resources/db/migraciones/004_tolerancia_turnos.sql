@@ -0,0 +1,5 @@
+-- Minutos que el cliente acepta que se mueva su turno al compactar la agenda.
+-- Para bases de datos creadas con una version anterior de schema.sql
+USE peluqueria_db;
+
+ALTER TABLE turnos ADD COLUMN tolerancia_minutos INT NOT NULL DEFAULT 0 AFTER version;
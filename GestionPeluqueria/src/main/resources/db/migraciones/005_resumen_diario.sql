@@ -0,0 +1,22 @@
+-- Resumen diario de lo cobrado, para no recorrer los turnos en cada reporte.
+-- Para bases de datos creadas con una version anterior de schema.sql
+USE peluqueria_db;
+
+-- Resumen de lo cobrado por dia, forma de pago y tipo de servicio.
+-- Lo mantiene la aplicacion en la misma transaccion que cada cambio de turno
+CREATE TABLE IF NOT EXISTS resumen_diario (
+    fecha DATE NOT NULL,
+    forma_pago VARCHAR(20) NOT NULL,
+    tipo_servicio VARCHAR(50) NOT NULL,
+    cantidad_turnos INT NOT NULL DEFAULT 0,
+    total_cobrado DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+    PRIMARY KEY (fecha, forma_pago, tipo_servicio)
+);
+
+-- Carga inicial con los turnos ya pagados; los turnos sin forma de pago quedan como 'NINGUNA'
+INSERT INTO resumen_diario (fecha, forma_pago, tipo_servicio, cantidad_turnos, total_cobrado)
+SELECT DATE(t.fecha_hora), COALESCE(t.forma_pago, 'NINGUNA'), s.tipo_servicio, COUNT(*), SUM(t.monto_pagado)
+FROM turnos t JOIN servicios s ON s.id = t.servicio_id
+WHERE t.estado_pago = 'PAGADO'
+GROUP BY DATE(t.fecha_hora), COALESCE(t.forma_pago, 'NINGUNA'), s.tipo_servicio
+ON DUPLICATE KEY UPDATE cantidad_turnos = VALUES(cantidad_turnos), total_cobrado = VALUES(total_cobrado);
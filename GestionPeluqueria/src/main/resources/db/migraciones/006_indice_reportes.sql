@@ -0,0 +1,5 @@
+-- Indice de cobertura para los reportes agrupados por rango de fechas.
+-- Para bases de datos creadas con una version anterior de schema.sql
+USE peluqueria_db;
+
+CREATE INDEX idx_fecha_reporte ON turnos (fecha_hora, estado, estado_pago, forma_pago, monto_pagado, cliente_id, servicio_id);
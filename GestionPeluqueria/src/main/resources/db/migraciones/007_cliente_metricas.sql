@@ -0,0 +1,26 @@
+-- Metricas de visitas por cliente, para no recorrer su historial en cada consulta.
+-- Para bases de datos creadas con una version anterior de schema.sql
+USE peluqueria_db;
+
+-- Visitas y gasto de cada cliente, contando sus turnos completados.
+-- La mantiene la aplicacion en la misma transaccion que cada cambio de turno
+CREATE TABLE IF NOT EXISTS cliente_metricas (
+    cliente_id INT PRIMARY KEY,
+    visitas INT NOT NULL,
+    total_pagado DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+    primera_visita DATETIME NOT NULL,
+    ultima_visita DATETIME NOT NULL,
+    FOREIGN KEY (cliente_id) REFERENCES clientes(id) ON DELETE CASCADE,
+    -- Listas de mejores clientes y de clientes que dejaron de venir
+    INDEX idx_total_pagado (total_pagado),
+    INDEX idx_ultima_visita (ultima_visita)
+);
+
+-- Carga inicial con los turnos ya completados
+INSERT INTO cliente_metricas (cliente_id, visitas, total_pagado, primera_visita, ultima_visita)
+SELECT t.cliente_id, COUNT(*), SUM(t.monto_pagado), MIN(t.fecha_hora), MAX(t.fecha_hora)
+FROM turnos t
+WHERE t.estado = 'COMPLETADO'
+GROUP BY t.cliente_id
+ON DUPLICATE KEY UPDATE visitas = VALUES(visitas), total_pagado = VALUES(total_pagado),
+    primera_visita = VALUES(primera_visita), ultima_visita = VALUES(ultima_visita);
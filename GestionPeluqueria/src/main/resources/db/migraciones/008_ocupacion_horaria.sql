@@ -0,0 +1,32 @@
+-- Ocupacion por hora, para el mapa de ocupacion sin recorrer los turnos.
+-- Para bases de datos creadas con una version anterior de schema.sql
+USE peluqueria_db;
+
+-- Minutos reservados por fecha, hora y tipo de servicio, para el mapa de ocupacion.
+-- La mantiene la aplicacion en la misma transaccion que cada cambio de turno
+CREATE TABLE IF NOT EXISTS ocupacion_horaria (
+    fecha DATE NOT NULL,
+    hora TINYINT NOT NULL,
+    tipo_servicio VARCHAR(50) NOT NULL,
+    minutos_reservados INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (fecha, hora, tipo_servicio)
+);
+
+-- Carga inicial: cada turno no cancelado reparte la duracion de su servicio entre las horas que abarca
+INSERT INTO ocupacion_horaria (fecha, hora, tipo_servicio, minutos_reservados)
+SELECT DATE(b.hora), HOUR(b.hora), b.tipo_servicio,
+    SUM(TIMESTAMPDIFF(MINUTE, GREATEST(b.inicio, b.hora), LEAST(b.fin, b.hora + INTERVAL 1 HOUR)))
+FROM (
+    SELECT t.fecha_hora AS inicio, t.fecha_hora + INTERVAL s.duracion_minutos MINUTE AS fin, s.tipo_servicio,
+        TIMESTAMP(DATE(t.fecha_hora), MAKETIME(HOUR(t.fecha_hora), 0, 0)) + INTERVAL h.n HOUR AS hora
+    FROM turnos t
+    JOIN servicios s ON s.id = t.servicio_id
+    JOIN (
+        SELECT 0 AS n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL
+        SELECT 8 UNION ALL SELECT 9 UNION ALL SELECT 10 UNION ALL SELECT 11 UNION ALL SELECT 12 UNION ALL SELECT 13 UNION ALL SELECT 14 UNION ALL SELECT 15 UNION ALL
+        SELECT 16 UNION ALL SELECT 17 UNION ALL SELECT 18 UNION ALL SELECT 19 UNION ALL SELECT 20 UNION ALL SELECT 21 UNION ALL SELECT 22 UNION ALL SELECT 23
+    ) h ON h.n * 60 < MINUTE(t.fecha_hora) + s.duracion_minutos
+    WHERE t.estado <> 'CANCELADO'
+) b
+GROUP BY DATE(b.hora), HOUR(b.hora), b.tipo_servicio
+ON DUPLICATE KEY UPDATE minutos_reservados = VALUES(minutos_reservados);
@@ -0,0 +1,5 @@
+-- Horario que pidio el cliente, para que compactar varias veces la agenda no lo aleje de ese horario.
+-- Para bases de datos creadas con una version anterior de schema.sql
+USE peluqueria_db;
+
+ALTER TABLE turnos ADD COLUMN fecha_hora_pedida DATETIME NULL AFTER tolerancia_minutos;
@@ -27,11 +27,41 @@ CREATE TABLE IF NOT EXISTS servicios (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
 
+-- Tabla de profesionales (estilistas)
+CREATE TABLE IF NOT EXISTS profesionales (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    nombre VARCHAR(100) NOT NULL,
+    apellido VARCHAR(100) NOT NULL,
+    activo BOOLEAN DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+-- Tipos de servicio que realiza cada profesional
+CREATE TABLE IF NOT EXISTS profesional_especialidades (
+    profesional_id INT NOT NULL,
+    tipo_servicio VARCHAR(50) NOT NULL,
+    PRIMARY KEY (profesional_id, tipo_servicio),
+    FOREIGN KEY (profesional_id) REFERENCES profesionales(id) ON DELETE CASCADE
+);
+
+-- Franjas de trabajo semanales (dia_semana: 1 = lunes ... 7 = domingo)
+CREATE TABLE IF NOT EXISTS profesional_horarios (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    profesional_id INT NOT NULL,
+    dia_semana TINYINT NOT NULL,
+    hora_inicio TIME NOT NULL,
+    hora_fin TIME NOT NULL,
+    FOREIGN KEY (profesional_id) REFERENCES profesionales(id) ON DELETE CASCADE,
+    INDEX idx_profesional_dia (profesional_id, dia_semana)
+);
+
 -- Tabla de turnos
 CREATE TABLE IF NOT EXISTS turnos (
     id INT PRIMARY KEY AUTO_INCREMENT,
     cliente_id INT NOT NULL,
     servicio_id INT NOT NULL,
+    profesional_id INT NULL,
     fecha_hora DATETIME NOT NULL,
     notas TEXT,
     estado VARCHAR(20) NOT NULL DEFAULT 'CONFIRMADO',
@@ -39,18 +69,80 @@ CREATE TABLE IF NOT EXISTS turnos (
     forma_pago VARCHAR(20),
     monto_pagado DECIMAL(10,2) DEFAULT 0.00,
     fecha_creacion DATETIME NOT NULL,
+    version INT NOT NULL DEFAULT 0,
+    tolerancia_minutos INT NOT NULL DEFAULT 0,
+    -- Horario que pidio el cliente si la compactacion movio el turno; NULL si sigue en ese horario
+    fecha_hora_pedida DATETIME NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     
     -- Claves foráneas
     FOREIGN KEY (cliente_id) REFERENCES clientes(id) ON DELETE CASCADE,
     FOREIGN KEY (servicio_id) REFERENCES servicios(id) ON DELETE CASCADE,
+    FOREIGN KEY (profesional_id) REFERENCES profesionales(id) ON DELETE SET NULL,
     
     -- Índices para mejor performance
     INDEX idx_fecha_hora (fecha_hora),
     INDEX idx_cliente_id (cliente_id),
     INDEX idx_estado (estado),
-    INDEX idx_estado_pago (estado_pago)
+    INDEX idx_estado_pago (estado_pago),
+    INDEX idx_profesional_fecha (profesional_id, fecha_hora),
+    -- Cubre las consultas de reportes: el GROUP BY por rango de fechas no lee la tabla
+    INDEX idx_fecha_reporte (fecha_hora, estado, estado_pago, forma_pago, monto_pagado, cliente_id, servicio_id)
+);
+
+-- Lista de espera: clientes que quieren un servicio dentro de una ventana de fechas y horas
+CREATE TABLE IF NOT EXISTS lista_espera (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    cliente_id INT NOT NULL,
+    servicio_id INT NOT NULL,
+    fecha_desde DATE NOT NULL,
+    fecha_hasta DATE NOT NULL,
+    hora_desde TIME NOT NULL,
+    hora_hasta TIME NOT NULL,
+    estado VARCHAR(20) NOT NULL DEFAULT 'PENDIENTE',
+    fecha_hora_ofrecida DATETIME NULL,
+    fecha_registro DATETIME NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (cliente_id) REFERENCES clientes(id) ON DELETE CASCADE,
+    FOREIGN KEY (servicio_id) REFERENCES servicios(id) ON DELETE CASCADE,
+    INDEX idx_estado_fecha (estado, fecha_hasta)
+);
+
+-- Resumen de lo cobrado por dia, forma de pago y tipo de servicio.
+-- Lo mantiene la aplicacion en la misma transaccion que cada cambio de turno
+CREATE TABLE IF NOT EXISTS resumen_diario (
+    fecha DATE NOT NULL,
+    forma_pago VARCHAR(20) NOT NULL,
+    tipo_servicio VARCHAR(50) NOT NULL,
+    cantidad_turnos INT NOT NULL DEFAULT 0,
+    total_cobrado DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+    PRIMARY KEY (fecha, forma_pago, tipo_servicio)
+);
+
+-- Visitas y gasto de cada cliente, contando sus turnos completados.
+-- La mantiene la aplicacion en la misma transaccion que cada cambio de turno
+CREATE TABLE IF NOT EXISTS cliente_metricas (
+    cliente_id INT PRIMARY KEY,
+    visitas INT NOT NULL,
+    total_pagado DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+    primera_visita DATETIME NOT NULL,
+    ultima_visita DATETIME NOT NULL,
+    FOREIGN KEY (cliente_id) REFERENCES clientes(id) ON DELETE CASCADE,
+    -- Listas de mejores clientes y de clientes que dejaron de venir
+    INDEX idx_total_pagado (total_pagado),
+    INDEX idx_ultima_visita (ultima_visita)
+);
+
+-- Minutos reservados por fecha, hora y tipo de servicio, para el mapa de ocupacion.
+-- La mantiene la aplicacion en la misma transaccion que cada cambio de turno
+CREATE TABLE IF NOT EXISTS ocupacion_horaria (
+    fecha DATE NOT NULL,
+    hora TINYINT NOT NULL,
+    tipo_servicio VARCHAR(50) NOT NULL,
+    minutos_reservados INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (fecha, hora, tipo_servicio)
 );
 
 -- Insertar datos de ejemplo para servicios
@@ -66,6 +158,25 @@ INSERT INTO servicios (nombre, descripcion, precio, duracion_minutos, tipo_servi
 ('Cejas', 'Perfilado de cejas', 10.00, 15, 'CEJAS'),
 ('Tratamiento Keratina', 'Tratamiento con keratina', 90.00, 60, 'TRATAMIENTO');
 
+-- Insertar algunos profesionales de ejemplo
+INSERT INTO profesionales (nombre, apellido) VALUES
+('Sofía', 'Ramírez'),
+('Martín', 'Suárez'),
+('Lucía', 'Benítez');
+
+INSERT INTO profesional_especialidades (profesional_id, tipo_servicio) VALUES
+(1, 'CORTE'), (1, 'TINTURA'), (1, 'MECHAS'), (1, 'PEINADO'),
+(2, 'CORTE'), (2, 'BARBA'), (2, 'CEJAS'),
+(3, 'TINTURA'), (3, 'MECHAS'), (3, 'ALISADO'), (3, 'TRATAMIENTO');
+
+-- Martes a sábado; Martín trabaja con horario cortado
+INSERT INTO profesional_horarios (profesional_id, dia_semana, hora_inicio, hora_fin) VALUES
+(1, 2, '09:00', '17:00'), (1, 3, '09:00', '17:00'), (1, 4, '09:00', '17:00'), (1, 5, '09:00', '17:00'), (1, 6, '09:00', '17:00'),
+(2, 2, '09:00', '13:00'), (2, 2, '16:00', '20:00'), (2, 3, '09:00', '13:00'), (2, 3, '16:00', '20:00'),
+(2, 4, '09:00', '13:00'), (2, 4, '16:00', '20:00'), (2, 5, '09:00', '13:00'), (2, 5, '16:00', '20:00'),
+(2, 6, '09:00', '13:00'), (2, 6, '16:00', '20:00'),
+(3, 2, '12:00', '20:00'), (3, 3, '12:00', '20:00'), (3, 4, '12:00', '20:00'), (3, 5, '12:00', '20:00'), (3, 6, '10:00', '18:00');
+
 -- Insertar algunos clientes de ejemplo
 INSERT INTO clientes (nombre, apellido, telefono, email, fecha_registro) VALUES
 ('María', 'González', '123456789', 'maria.gonzalez@email.com', CURDATE()),
@@ -79,4 +190,23 @@ INSERT INTO turnos (cliente_id, servicio_id, fecha_hora, notas, estado, estado_p
 (1, 1, DATE_ADD(NOW(), INTERVAL 1 DAY), 'Cliente prefiere corte corto', 'CONFIRMADO', 'PENDIENTE', NULL, 0.00, NOW()),
 (2, 3, DATE_ADD(NOW(), INTERVAL 2 DAY), 'Niño de 8 años', 'CONFIRMADO', 'PENDIENTE', NULL, 0.00, NOW()),
 (3, 5, DATE_ADD(NOW(), INTERVAL 3 DAY), 'Mechas californianas', 'CONFIRMADO', 'PENDIENTE', NULL, 0.00, NOW()),
-(4, 2, DATE_ADD(NOW(), INTERVAL 1 DAY), 'Corte con capas', 'CONFIRMADO', 'PENDIENTE', NULL, 0.00, NOW());
\ No newline at end of file
+(4, 2, DATE_ADD(NOW(), INTERVAL 1 DAY), 'Corte con capas', 'CONFIRMADO', 'PENDIENTE', NULL, 0.00, NOW());
+
+-- Ocupacion de los turnos de ejemplo
+INSERT INTO ocupacion_horaria (fecha, hora, tipo_servicio, minutos_reservados)
+SELECT DATE(b.hora), HOUR(b.hora), b.tipo_servicio,
+    SUM(TIMESTAMPDIFF(MINUTE, GREATEST(b.inicio, b.hora), LEAST(b.fin, b.hora + INTERVAL 1 HOUR)))
+FROM (
+    SELECT t.fecha_hora AS inicio, t.fecha_hora + INTERVAL s.duracion_minutos MINUTE AS fin, s.tipo_servicio,
+        TIMESTAMP(DATE(t.fecha_hora), MAKETIME(HOUR(t.fecha_hora), 0, 0)) + INTERVAL h.n HOUR AS hora
+    FROM turnos t
+    JOIN servicios s ON s.id = t.servicio_id
+    JOIN (
+        SELECT 0 AS n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL
+        SELECT 8 UNION ALL SELECT 9 UNION ALL SELECT 10 UNION ALL SELECT 11 UNION ALL SELECT 12 UNION ALL SELECT 13 UNION ALL SELECT 14 UNION ALL SELECT 15 UNION ALL
+        SELECT 16 UNION ALL SELECT 17 UNION ALL SELECT 18 UNION ALL SELECT 19 UNION ALL SELECT 20 UNION ALL SELECT 21 UNION ALL SELECT 22 UNION ALL SELECT 23
+    ) h ON h.n * 60 < MINUTE(t.fecha_hora) + s.duracion_minutos
+    WHERE t.estado <> 'CANCELADO'
+) b
+GROUP BY DATE(b.hora), HOUR(b.hora), b.tipo_servicio
+ON DUPLICATE KEY UPDATE minutos_reservados = VALUES(minutos_reservados);